@@ -151,12 +151,16 @@ import org.sagebionetworks.repo.model.entity.BindSchemaToEntityRequest;
 import org.sagebionetworks.repo.model.entity.FileHandleUpdateRequest;
 import org.sagebionetworks.repo.model.entity.query.SortDirection;
 import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundle;
+import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleBatchRequest;
+import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleBatchResponse;
 import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleCreate;
 import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleRequest;
 import org.sagebionetworks.repo.model.favorite.SortBy;
 import org.sagebionetworks.repo.model.file.AddFileToDownloadListRequest;
 import org.sagebionetworks.repo.model.file.AddFileToDownloadListResponse;
 import org.sagebionetworks.repo.model.file.AddPartResponse;
+import org.sagebionetworks.repo.model.file.BatchAddPartRequest;
+import org.sagebionetworks.repo.model.file.BatchAddPartResponse;
 import org.sagebionetworks.repo.model.file.BatchFileHandleCopyRequest;
 import org.sagebionetworks.repo.model.file.BatchFileHandleCopyResult;
 import org.sagebionetworks.repo.model.file.BatchFileRequest;
@@ -503,6 +507,15 @@ public interface SynapseClient extends BaseClient {
 	public EntityBundle getEntityBundleV2(String entityId, Long versionNumber,
 										  EntityBundleRequest bundleV2Request) throws SynapseException;
 
+	/**
+	 * Get the bundles of the current version of a batch of entities in a single call.
+	 * 
+	 * @param request
+	 * @return
+	 * @throws SynapseException
+	 */
+	public EntityBundleBatchResponse getEntityBundlesV2(EntityBundleBatchRequest request) throws SynapseException;
+
 	public PaginatedResults<VersionInfo> getEntityVersions(String entityId,
 			int offset, int limit) throws SynapseException;
 
@@ -2931,6 +2944,15 @@ public interface SynapseClient extends BaseClient {
 	 */
 	AddPartResponse addPartToMultipartUpload(String uploadId, int partNumber, String partMD5Hex) throws SynapseException;
 	
+	/**
+	 * Low-level API for mutli-part upload. After uploading a batch of parts directly to the multi-part upload (using the
+	 * pre-signed URLs obtained including the MD5 of each part), the parts can be added to the multi-part upload in a single call.
+	 * @param request
+	 * @return
+	 * @throws SynapseException
+	 */
+	BatchAddPartResponse addPartsToMultipartUpload(BatchAddPartRequest request) throws SynapseException;
+	
 	/**
 	 * Low-level API for mutli-part upload. Complete a multi-part upload.
 	 * @param uploadId
@@ -194,12 +194,16 @@ import org.sagebionetworks.repo.model.entity.EntityLookupRequest;
 import org.sagebionetworks.repo.model.entity.FileHandleUpdateRequest;
 import org.sagebionetworks.repo.model.entity.query.SortDirection;
 import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundle;
+import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleBatchRequest;
+import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleBatchResponse;
 import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleCreate;
 import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleRequest;
 import org.sagebionetworks.repo.model.favorite.SortBy;
 import org.sagebionetworks.repo.model.file.AddFileToDownloadListRequest;
 import org.sagebionetworks.repo.model.file.AddFileToDownloadListResponse;
 import org.sagebionetworks.repo.model.file.AddPartResponse;
+import org.sagebionetworks.repo.model.file.BatchAddPartRequest;
+import org.sagebionetworks.repo.model.file.BatchAddPartResponse;
 import org.sagebionetworks.repo.model.file.BatchFileHandleCopyRequest;
 import org.sagebionetworks.repo.model.file.BatchFileHandleCopyResult;
 import org.sagebionetworks.repo.model.file.BatchFileRequest;
@@ -1052,6 +1056,13 @@ public class SynapseClientImpl extends BaseClientImpl implements SynapseClient {
 		return postJSONEntity(getRepoEndpoint(), url, bundleV2Request, EntityBundle.class);
 	}
 
+	@Override
+	public EntityBundleBatchResponse getEntityBundlesV2(EntityBundleBatchRequest request) throws SynapseException {
+		ValidateArgument.required(request, "request");
+		String url = ENTITY_URI_PATH + BUNDLE_V2 + "/batch";
+		return postJSONEntity(getRepoEndpoint(), url, request, EntityBundleBatchResponse.class);
+	}
+
 	/**
 	 * 
 	 * @param entityId
@@ -5197,6 +5208,14 @@ public class SynapseClientImpl extends BaseClientImpl implements SynapseClient {
 		String path = String.format("/file/multipart/%1$s/add/%2$d?partMD5Hex=%3$s", uploadId, partNumber, partMD5Hex);
 		return putJSONEntity(getFileEndpoint(), path, null, AddPartResponse.class);
 	}
+	
+	@Override
+	public BatchAddPartResponse addPartsToMultipartUpload(BatchAddPartRequest request) throws SynapseException {
+		ValidateArgument.required(request, "BatchAddPartRequest");
+		ValidateArgument.required(request.getUploadId(), "BatchAddPartRequest.uploadId");
+		String path = String.format("/file/multipart/%1$s/add/batch", request.getUploadId());
+		return postJSONEntity(getFileEndpoint(), path, request, BatchAddPartResponse.class);
+	}
 
 	@Override
 	public MultipartUploadStatus completeMultipartUpload(String uploadId) throws SynapseException {
@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
@@ -18,16 +19,18 @@ import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.sagebionetworks.client.SynapseClient;
 import org.sagebionetworks.client.exceptions.SynapseException;
-import org.sagebionetworks.repo.model.file.AddPartResponse;
+import org.sagebionetworks.repo.model.file.BatchAddPartRequest;
 import org.sagebionetworks.repo.model.file.CloudProviderFileHandleInterface;
 import org.sagebionetworks.repo.model.file.MultipartUploadRequest;
 import org.sagebionetworks.repo.model.file.MultipartUploadStatus;
+import org.sagebionetworks.repo.model.file.PartMD5;
 import org.sagebionetworks.util.ValidateArgument;
 
 public class MultithreadMultipartUpload {
 
 	public static final long MIN_PART_SIZE = 1024 * 1024 * 5; // 5 MB
 	public static final long MAX_PARTS_PER_FILE = 10_000;
+	public static final int MAX_PARTS_PER_ADD_BATCH = 1_000;
 
 	private static final CloseableHttpClient httpClient;
 	static {
@@ -92,29 +95,60 @@ public class MultithreadMultipartUpload {
 
 		char[] parts = status.getPartsState().toCharArray();
 		int numberOfParts = parts.length;
-		List<Future<AddPartResponse>> addPartFutures = new ArrayList<>(numberOfParts);
+		List<Future<PartMD5>> partFutures = new ArrayList<>(numberOfParts);
 		for (int partNumber = 1; partNumber < parts.length + 1; partNumber++) {
 			if ('0' == parts[partNumber - 1]) {
 				long partOffset = request.getPartSizeBytes() * (partNumber - 1);
 				long partLength = partNumber < numberOfParts ? request.getPartSizeBytes()
 						: toUpload.length() - partOffset;
-				addPartFutures.add(
+				partFutures.add(
 						threadPool.submit(callableFactory.createCallable(new FilePartRequest().setSynapseClient(client)
 								.setPartLength(partLength).setPartNumber((long) partNumber).setPartOffset(partOffset)
 								.setUploadId(status.getUploadId()).setFile(toUpload).setHttpClient(httpClient))));
 			}
 		}
 
-		addPartFutures.forEach(f -> {
+		List<PartMD5> uploadedParts = new ArrayList<>(partFutures.size());
+		RuntimeException failure = null;
+		for (Future<PartMD5> f : partFutures) {
 			try {
-				AddPartResponse response = f.get();
+				PartMD5 part = f.get();
+				// Null when the part was already added on its own
+				if (part != null) {
+					uploadedParts.add(part);
+				}
 			} catch (InterruptedException | ExecutionException e) {
-				throw new RuntimeException(e);
+				if (failure == null) {
+					failure = new RuntimeException(e);
+				}
 			}
-		});
+		}
+		// The uploaded parts are added even if some other part failed, so that they are not uploaded again when resuming
+		addParts(client, status.getUploadId(), uploadedParts);
+		if (failure != null) {
+			throw failure;
+		}
 		status = client.completeMultipartUpload(status.getUploadId());
 
 		return (CloudProviderFileHandleInterface) client.getRawFileHandle(status.getResultFileHandleId());
 	}
 
+	/**
+	 * Add the given parts, that were uploaded directly to the multi-part upload, in batches of at most
+	 * {@link #MAX_PARTS_PER_ADD_BATCH} parts.
+	 * 
+	 * @param client
+	 * @param uploadId
+	 * @param parts
+	 * @throws SynapseException
+	 */
+	static void addParts(SynapseClient client, String uploadId, List<PartMD5> parts) throws SynapseException {
+		for (int start = 0; start < parts.size(); start += MAX_PARTS_PER_ADD_BATCH) {
+			List<PartMD5> batch = parts.subList(start, Math.min(start + MAX_PARTS_PER_ADD_BATCH, parts.size()));
+			client.addPartsToMultipartUpload(new BatchAddPartRequest().setUploadId(uploadId)
+					.setPartNumbers(batch.stream().map(part -> (long) part.getPartNumber()).collect(Collectors.toList()))
+					.setPartMD5Hexs(batch.stream().map(PartMD5::getPartMD5Hex).collect(Collectors.toList())));
+		}
+	}
+
 }
@@ -2,7 +2,7 @@ package org.sagebionetworks.client.upload;
 
 import java.util.concurrent.Callable;
 
-import org.sagebionetworks.repo.model.file.AddPartResponse;
+import org.sagebionetworks.repo.model.file.PartMD5;
 
 @FunctionalInterface
 public interface PartCallableFactory {
@@ -13,5 +13,5 @@ public interface PartCallableFactory {
 	 * @param request
 	 * @return
 	 */
-	public Callable<AddPartResponse> createCallable(FilePartRequest request);
+	public Callable<PartMD5> createCallable(FilePartRequest request);
 }
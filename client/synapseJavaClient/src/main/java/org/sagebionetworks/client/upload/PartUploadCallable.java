@@ -14,20 +14,24 @@ import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.entity.InputStreamEntity;
+import org.sagebionetworks.client.exceptions.SynapseBadRequestException;
 import org.sagebionetworks.client.exceptions.SynapseClientException;
-import org.sagebionetworks.repo.model.file.AddPartResponse;
 import org.sagebionetworks.repo.model.file.BatchPresignedUploadUrlRequest;
 import org.sagebionetworks.repo.model.file.BatchPresignedUploadUrlResponse;
+import org.sagebionetworks.repo.model.file.PartMD5;
 import org.sagebionetworks.repo.model.file.PartPresignedUrl;
 import org.sagebionetworks.util.ValidateArgument;
 
 /**
- * A Callable used to upload a single part of a multi-part upload.
+ * A Callable used to upload a single part of a multi-part upload. The part is uploaded directly to the multi-part upload
+ * and the callable returns its MD5 so that the caller can add the uploaded parts in batches.
  *
  */
-public class PartUploadCallable implements Callable<AddPartResponse> {
+public class PartUploadCallable implements Callable<PartMD5> {
 
 	private static final int MAX_SKIPS = 100;
+	
+	private static final int BUFFER_SIZE = 64 * 1024;
 
 	private final FilePartRequest request;
 
@@ -70,8 +74,59 @@ public class PartUploadCallable implements Callable<AddPartResponse> {
 		}
 	}
 
+	/**
+	 * @return The MD5 of the part, represented as an hexadecimal string
+	 * @throws IOException
+	 */
+	String calculatePartMD5Hex() throws IOException {
+		try (FileInputStream fis = new FileInputStream(request.getFile())) {
+			skipBytes(fis, request.getPartOffset());
+			MessageDigest digest = ThreadLocalMD5Digest.getThreadDigest();
+			byte[] buffer = new byte[BUFFER_SIZE];
+			long remaining = request.getPartLength();
+			while (remaining > 0) {
+				int read = fis.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+				if (read < 0) {
+					throw new IOException(String.format("Unexpected end of file reading part %d", request.getPartNumber()));
+				}
+				digest.update(buffer, 0, read);
+				remaining -= read;
+			}
+			return new String(Hex.encodeHex(digest.digest()));
+		}
+	}
+
+	/**
+	 * Uploads the part directly to the multi-part upload.
+	 * 
+	 * @return The MD5 of the uploaded part, the part still needs to be added to the upload. Null if the upload does not
+	 *         support direct part uploads, in which case the part is uploaded and added on its own.
+	 */
 	@Override
-	public AddPartResponse call() throws Exception {
+	public PartMD5 call() throws Exception {
+		// The MD5 of the part is included in the signature of the URL, S3 will reject the part if it does not match
+		String partMD5Hex = calculatePartMD5Hex();
+		BatchPresignedUploadUrlResponse batchResponse;
+		try {
+			// Get the PUT URL
+			batchResponse = request.getSynapseClient()
+					.getMultipartPresignedUrlBatch(new BatchPresignedUploadUrlRequest().setUploadId(request.getUploadId())
+							.setPartNumbers(Collections.singletonList(request.getPartNumber()))
+							.setPartMD5Hexs(Collections.singletonList(partMD5Hex)));
+		} catch (SynapseBadRequestException e) {
+			// The storage location of the upload does not support direct part uploads (e.g. Google Cloud)
+			uploadAndAddPart();
+			return null;
+		}
+		// PUT to the URL
+		putToUrl(batchResponse.getPartPresignedUrls().get(0));
+		return new PartMD5(request.getPartNumber().intValue(), partMD5Hex);
+	}
+
+	/**
+	 * Uploads the part to a temporary location and adds it to the multi-part upload.
+	 */
+	void uploadAndAddPart() throws Exception {
 		// Get the PUT URL
 		BatchPresignedUploadUrlResponse batchResponse = request.getSynapseClient()
 				.getMultipartPresignedUrlBatch(new BatchPresignedUploadUrlRequest().setUploadId(request.getUploadId())
@@ -79,7 +134,7 @@ public class PartUploadCallable implements Callable<AddPartResponse> {
 		// PUT to the URL
 		String partMD5Hex = putToUrl(batchResponse.getPartPresignedUrls().get(0));
 		// Add the part to the Upload
-		return request.getSynapseClient().addPartToMultipartUpload(request.getUploadId(),
+		request.getSynapseClient().addPartToMultipartUpload(request.getUploadId(),
 				request.getPartNumber().intValue(), partMD5Hex);
 	}
 
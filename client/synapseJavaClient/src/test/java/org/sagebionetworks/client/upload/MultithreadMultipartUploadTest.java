@@ -5,16 +5,24 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.junit.jupiter.api.Test;
@@ -23,11 +31,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.sagebionetworks.client.SynapseClient;
 import org.sagebionetworks.client.exceptions.SynapseException;
-import org.sagebionetworks.repo.model.file.AddPartResponse;
+import org.sagebionetworks.repo.model.file.BatchAddPartRequest;
 import org.sagebionetworks.repo.model.file.CloudProviderFileHandleInterface;
 import org.sagebionetworks.repo.model.file.GoogleCloudFileHandle;
 import org.sagebionetworks.repo.model.file.MultipartUploadRequest;
 import org.sagebionetworks.repo.model.file.MultipartUploadStatus;
+import org.sagebionetworks.repo.model.file.PartMD5;
 import org.sagebionetworks.util.RandomTempFileUtil;
 import org.sagebionetworks.utils.MD5ChecksumHelper;
 
@@ -44,10 +53,10 @@ public class MultithreadMultipartUploadTest {
 	private ExecutorService mockThreadPool;
 
 	@Mock
-	private Future<AddPartResponse> mockFuture;
+	private Future<PartMD5> mockFuture;
 
 	@Mock
-	private Callable<AddPartResponse> mockCallable;
+	private Callable<PartMD5> mockCallable;
 
 	@Mock
 	private File mockFile;
@@ -271,6 +280,106 @@ public class MultithreadMultipartUploadTest {
 
 	}
 
+	@Test
+	public void testDoUploadWithDirectPartUploads() throws FileNotFoundException, SynapseException, IOException {
+		int fileSizeBytes = (int) (MultithreadMultipartUpload.MIN_PART_SIZE * 2) + 10;
+		RandomTempFileUtil.consumeRandomTempFile(fileSizeBytes, "foo", ".txt", (temp) -> {
+			try {
+
+				String uploadId = "111";
+				String fileHandleId = "222";
+				when(mockSynapseClient.startMultipartUpload(any(), anyBoolean()))
+						.thenReturn(new MultipartUploadStatus().setUploadId(uploadId).setPartsState("000"));
+				when(mockThreadPool.submit(any(Callable.class))).thenReturn(mockFuture);
+				when(mockPartCallableFactory.createCallable(any())).thenReturn(mockCallable);
+				// The second part was added on its own
+				when(mockFuture.get()).thenReturn(new PartMD5(1, "md5one"), null, new PartMD5(3, "md5three"));
+				when(mockSynapseClient.completeMultipartUpload(any())).thenReturn(
+						new MultipartUploadStatus().setUploadId(uploadId).setResultFileHandleId(fileHandleId));
+				when(mockSynapseClient.getRawFileHandle(any()))
+						.thenReturn(new GoogleCloudFileHandle().setId(fileHandleId));
+
+				boolean forceRestart = false;
+				// call under test
+				CloudProviderFileHandleInterface result = MultithreadMultipartUpload.doUpload(mockPartCallableFactory,
+						mockHttpClient, mockThreadPool, mockSynapseClient, temp, new MultipartUploadRequest(),
+						forceRestart);
+
+				assertEquals(new GoogleCloudFileHandle().setId(fileHandleId), result);
+
+				verify(mockPartCallableFactory, times(3)).createCallable(any());
+				verify(mockSynapseClient).addPartsToMultipartUpload(new BatchAddPartRequest().setUploadId(uploadId)
+						.setPartNumbers(Arrays.asList(1L, 3L)).setPartMD5Hexs(Arrays.asList("md5one", "md5three")));
+				verify(mockSynapseClient).completeMultipartUpload(uploadId);
+
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		});
+	}
+
+	@Test
+	public void testDoUploadWithFailedPart() throws FileNotFoundException, SynapseException, IOException {
+		int fileSizeBytes = (int) (MultithreadMultipartUpload.MIN_PART_SIZE * 2) + 10;
+		RandomTempFileUtil.consumeRandomTempFile(fileSizeBytes, "foo", ".txt", (temp) -> {
+			try {
+
+				String uploadId = "111";
+				when(mockSynapseClient.startMultipartUpload(any(), anyBoolean()))
+						.thenReturn(new MultipartUploadStatus().setUploadId(uploadId).setPartsState("000"));
+				when(mockThreadPool.submit(any(Callable.class))).thenReturn(mockFuture);
+				when(mockPartCallableFactory.createCallable(any())).thenReturn(mockCallable);
+				ExecutionException failure = new ExecutionException(new IOException("failed"));
+				when(mockFuture.get()).thenReturn(new PartMD5(1, "md5one")).thenThrow(failure).thenReturn(new PartMD5(3, "md5three"));
+
+				boolean forceRestart = false;
+				RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+					// call under test
+					MultithreadMultipartUpload.doUpload(mockPartCallableFactory, mockHttpClient, mockThreadPool,
+							mockSynapseClient, temp, new MultipartUploadRequest(), forceRestart);
+				});
+
+				assertEquals(failure, exception.getCause());
+
+				// The parts that were uploaded are added anyway
+				verify(mockSynapseClient).addPartsToMultipartUpload(new BatchAddPartRequest().setUploadId(uploadId)
+						.setPartNumbers(Arrays.asList(1L, 3L)).setPartMD5Hexs(Arrays.asList("md5one", "md5three")));
+				verify(mockSynapseClient, never()).completeMultipartUpload(any());
+
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		});
+	}
+
+	@Test
+	public void testAddPartsInBatches() throws SynapseException {
+		String uploadId = "111";
+		List<PartMD5> parts = IntStream.rangeClosed(1, MultithreadMultipartUpload.MAX_PARTS_PER_ADD_BATCH + 1)
+				.mapToObj(i -> new PartMD5(i, "md5" + i)).collect(Collectors.toList());
+
+		// call under test
+		MultithreadMultipartUpload.addParts(mockSynapseClient, uploadId, parts);
+
+		verify(mockSynapseClient, times(2)).addPartsToMultipartUpload(any());
+		verify(mockSynapseClient).addPartsToMultipartUpload(new BatchAddPartRequest().setUploadId(uploadId)
+				.setPartNumbers(parts.subList(0, MultithreadMultipartUpload.MAX_PARTS_PER_ADD_BATCH).stream()
+						.map(p -> (long) p.getPartNumber()).collect(Collectors.toList()))
+				.setPartMD5Hexs(parts.subList(0, MultithreadMultipartUpload.MAX_PARTS_PER_ADD_BATCH).stream()
+						.map(PartMD5::getPartMD5Hex).collect(Collectors.toList())));
+		verify(mockSynapseClient).addPartsToMultipartUpload(new BatchAddPartRequest().setUploadId(uploadId)
+				.setPartNumbers(Arrays.asList((long) MultithreadMultipartUpload.MAX_PARTS_PER_ADD_BATCH + 1))
+				.setPartMD5Hexs(Arrays.asList("md5" + (MultithreadMultipartUpload.MAX_PARTS_PER_ADD_BATCH + 1))));
+	}
+
+	@Test
+	public void testAddPartsWithNoParts() throws SynapseException {
+		// call under test
+		MultithreadMultipartUpload.addParts(mockSynapseClient, "111", Collections.emptyList());
+
+		verifyZeroInteractions(mockSynapseClient);
+	}
+
 	@Test
 	public void testDoUploadDoesNotExist() throws FileNotFoundException, SynapseException, IOException {
 		File doesNotExist = new File("C:\\DoesNotExist.txt");
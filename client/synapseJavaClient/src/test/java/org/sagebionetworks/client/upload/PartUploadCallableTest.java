@@ -1,12 +1,14 @@
 package org.sagebionetworks.client.upload;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -41,10 +43,11 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.sagebionetworks.client.SynapseClient;
+import org.sagebionetworks.client.exceptions.SynapseBadRequestException;
 import org.sagebionetworks.client.exceptions.SynapseClientException;
-import org.sagebionetworks.repo.model.file.AddPartResponse;
 import org.sagebionetworks.repo.model.file.BatchPresignedUploadUrlRequest;
 import org.sagebionetworks.repo.model.file.BatchPresignedUploadUrlResponse;
+import org.sagebionetworks.repo.model.file.PartMD5;
 import org.sagebionetworks.repo.model.file.PartPresignedUrl;
 
 @ExtendWith(MockitoExtension.class)
@@ -118,16 +121,42 @@ public class PartUploadCallableTest {
 				.setPartNumber(request.getPartNumber());
 		when(mockSynapseClient.getMultipartPresignedUrlBatch(any()))
 				.thenReturn(new BatchPresignedUploadUrlResponse().setPartPresignedUrls(listOf(part)));
-		AddPartResponse expectedResponse = new AddPartResponse().setUploadId(request.getUploadId())
+		String md5 = "md5";
+		doReturn(md5).when(callable).calculatePartMD5Hex();
+		doReturn(md5).when(callable).putToUrl(any());
+
+		// call under test
+		PartMD5 response = callable.call();
+		assertEquals(new PartMD5(1, md5), response);
+
+		verify(mockSynapseClient).getMultipartPresignedUrlBatch(new BatchPresignedUploadUrlRequest()
+				.setUploadId(request.getUploadId()).setPartNumbers(listOf(request.getPartNumber()))
+				.setPartMD5Hexs(listOf(md5)));
+		verify(callable).putToUrl(part);
+		verify(mockSynapseClient, never()).addPartToMultipartUpload(any(), anyInt(), any());
+
+	}
+
+	@Test
+	public void testCallWithDirectUploadNotSupported() throws Exception {
+
+		PartUploadCallable callable = Mockito.spy(new PartUploadCallable(request));
+		PartPresignedUrl part = new PartPresignedUrl().setUploadPresignedUrl("http://some.com/get/url")
 				.setPartNumber(request.getPartNumber());
-		when(mockSynapseClient.addPartToMultipartUpload(any(), anyInt(), any())).thenReturn(expectedResponse);
 		String md5 = "md5";
-		doReturn("md5").when(callable).putToUrl(any());
+		doReturn(md5).when(callable).calculatePartMD5Hex();
+		when(mockSynapseClient.getMultipartPresignedUrlBatch(any()))
+				.thenThrow(new SynapseBadRequestException("Not supported"))
+				.thenReturn(new BatchPresignedUploadUrlResponse().setPartPresignedUrls(listOf(part)));
+		doReturn(md5).when(callable).putToUrl(any());
 
 		// call under test
-		AddPartResponse response = callable.call();
-		assertEquals(expectedResponse, response);
+		PartMD5 response = callable.call();
+		assertNull(response);
 
+		verify(mockSynapseClient).getMultipartPresignedUrlBatch(new BatchPresignedUploadUrlRequest()
+				.setUploadId(request.getUploadId()).setPartNumbers(listOf(request.getPartNumber()))
+				.setPartMD5Hexs(listOf(md5)));
 		verify(mockSynapseClient).getMultipartPresignedUrlBatch(new BatchPresignedUploadUrlRequest()
 				.setUploadId(request.getUploadId()).setPartNumbers(listOf(request.getPartNumber())));
 		verify(callable).putToUrl(part);
@@ -135,6 +164,29 @@ public class PartUploadCallableTest {
 
 	}
 
+	@Test
+	public void testCalculatePartMD5Hex() throws Exception {
+		File temp = File.createTempFile("testCalculatePartMD5Hex", ".bin");
+		try {
+			byte bytes[] = new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 };
+			FileUtils.writeByteArrayToFile(temp, bytes);
+			request.setFile(temp);
+			request.setPartOffset(3L);
+			request.setPartLength(5L);
+
+			MessageDigest digest = MessageDigest.getInstance("MD5");
+			digest.update(bytes, request.getPartOffset().intValue(), request.getPartLength().intValue());
+			String expectedMD5 = new String(Hex.encodeHex(digest.digest()));
+
+			// call under test
+			String resultMD5 = new PartUploadCallable(request).calculatePartMD5Hex();
+
+			assertEquals(expectedMD5, resultMD5);
+		} finally {
+			temp.delete();
+		}
+	}
+
 	@Test
 	public void testPutToUrl() throws Exception {
 		File temp = File.createTempFile("tetPutToUrl", ".bin");
@@ -17,11 +17,16 @@ public interface AnnotationsDAO {
 	public Annotations getAnnotations(Long owner);
 	
 	/**
-	 * get the IDs of the submissions that are new (are missing in Annotation tables) or have changed
-	 * since the last annotations update
+	 * Get a page of the submissions that are new (are missing in Annotation tables) or have changed since the last annotations update, ordered by
+	 * submission id. Only the submissions with an id greater than the given afterSubmissionId are included so that the
+	 * caller can page through the changes using the id of the last submission in the previous page.
+	 * 
 	 * @param scopeId
+	 * @param afterSubmissionId The id of the last submission of the previous page, use -1 for the first page
+	 * @param limit The maximum number of submissions in the page
+	 * @return
 	 */
-	public List<SubmissionBundle> getChangedSubmissions(Long scopeId);
+	public List<SubmissionBundle> getChangedSubmissionsPage(Long scopeId, Long afterSubmissionId, long limit);
 	
 	/**
 	 * Get all of the annotations for a specific SubmissionStatus. Reads from the blob table.
@@ -43,4 +48,16 @@ public interface AnnotationsDAO {
 	 * @param evalId
 	 */
 	public void deleteAnnotationsByScope(Long evalId);
+	
+	/**
+	 * Deletes the annotations in the given scope for at most limit submissions that no longer exist and whose id is
+	 * greater than the given afterSubmissionId.
+	 * 
+	 * @param evalId
+	 * @param afterSubmissionId The last id of the previous page, use -1 for the first page
+	 * @param limit
+	 * @return The ascending ids of the submissions whose annotations were deleted, if less than the limit then no
+	 *         annotations are left to delete in the scope after the given id
+	 */
+	public List<Long> deleteAnnotationsForDeletedSubmissions(Long evalId, Long afterSubmissionId, long limit);
 }
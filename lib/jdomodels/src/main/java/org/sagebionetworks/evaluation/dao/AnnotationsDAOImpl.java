@@ -81,15 +81,18 @@ public class AnnotationsDAOImpl implements AnnotationsDAO {
 	//	where
 	//	s.ID=t.ID and
 	//	a.VERISION IS NULL OR a.VERSION<>t.VERSION
-	//	and s.EVALUATION_ID=:EVALUATION_ID;
-	private static final String SELECT_MISSING_OR_CHANGED_SUBSTATUSES = 
+	//	and s.EVALUATION_ID=:EVALUATION_ID
+	//	and s.ID > :afterSubmissionId order by s.ID limit :limit;
+	// Restricted to the page of submissions with an id greater than the given one
+	private static final String SELECT_MISSING_OR_CHANGED_SUBSTATUSES_PAGE = 
 			"SELECT s.*, t.* FROM "+TABLE_SUBMISSION+" s, "+TABLE_SUBSTATUS+" t "+
 			" LEFT OUTER JOIN "+TABLE_SUBSTATUS_ANNO_BLOB+" a ON a."+COL_SUBSTATUS_ANNO_SUBID+"=t."+
 			COL_SUBSTATUS_SUBMISSION_ID+
 			" WHERE s."+COL_SUBMISSION_ID+"=t."+COL_SUBSTATUS_SUBMISSION_ID+" AND (a."+
 			COL_SUBSTATUS_ANNO_VERSION+" IS NULL OR a."+
 			COL_SUBSTATUS_ANNO_VERSION+"<>t."+COL_SUBSTATUS_VERSION+") "+
-			" AND s."+COL_SUBMISSION_EVAL_ID+"=:"+COL_SUBMISSION_EVAL_ID;
+			" AND s."+COL_SUBMISSION_EVAL_ID+"=:"+COL_SUBMISSION_EVAL_ID+
+			" AND s."+COL_SUBMISSION_ID+" > :afterSubmissionId ORDER BY s."+COL_SUBMISSION_ID+" LIMIT :limit";
 	
 	private static final String SELECT_IDS_FOR_DELETED_SUBMISSIONS = 
 			"SELECT o."+COL_SUBSTATUS_ANNO_SUBID+" FROM "+
@@ -98,6 +101,11 @@ public class AnnotationsDAOImpl implements AnnotationsDAO {
 			"=s."+COL_SUBMISSION_ID+" WHERE o."+COL_SUBSTATUS_ANNO_EVALID+"=:"+
 			COL_SUBSTATUS_ANNO_EVALID+" AND s."+COL_SUBMISSION_ID+" is null";
 	
+	// The same as above, restricted to the page of submissions with an id greater than the given one so that each page
+	// is a range scan on the (EVALUATION_ID, SUBMISSION_ID) index entries that follow the previous page
+	private static final String SELECT_IDS_FOR_DELETED_SUBMISSIONS_PAGE = SELECT_IDS_FOR_DELETED_SUBMISSIONS +
+			" AND o."+COL_SUBSTATUS_ANNO_SUBID+" > :afterSubmissionId ORDER BY o."+COL_SUBSTATUS_ANNO_SUBID+" LIMIT :limit";
+	
 	// DELETE FROM SUBSTATUS_ANNOTATIONS_OWNER o WHERE 
 	// o.SUBMISSION_ID IN (...)
 	private static final String DELETE_ANNOS_FOR_DELETED_SUBMISSIONS = 
@@ -203,6 +211,7 @@ public class AnnotationsDAOImpl implements AnnotationsDAO {
 		return annos;
 	}
 
+	@WriteTransaction
 	@Override
 	public void replaceAnnotations(List<Annotations> annotationsList)
 			throws DatastoreException, JSONObjectAdapterException {
@@ -313,28 +322,52 @@ public class AnnotationsDAOImpl implements AnnotationsDAO {
 
 	private static final RowMapper<SubmissionStatusDBO> statusRowMapper = ((new SubmissionStatusDBO()).getTableMapping());
 
+	private static final RowMapper<SubmissionBundle> bundleRowMapper = new RowMapper<SubmissionBundle>() {
+		@Override
+		public SubmissionBundle mapRow(ResultSet rs, int rowNum)
+				throws SQLException {
+			SubmissionBundle sb = new SubmissionBundle();
+			SubmissionDBO submissionDBO = submissionRowMapper.mapRow(rs,  rowNum);
+			Submission submission = new Submission();
+			SubmissionUtils.copyDboToDto(submissionDBO, submission);
+			sb.setSubmission(submission);
+			
+			SubmissionStatusDBO statusDBO = statusRowMapper.mapRow(rs,  rowNum);
+			SubmissionStatus submissionStatus = SubmissionUtils.convertDboToDto(statusDBO);
+			sb.setSubmissionStatus(submissionStatus);
+			return sb;
+		}
+	};
 	
 	@Override
-	public List<SubmissionBundle> getChangedSubmissions(Long scopeId) {
+	public List<SubmissionBundle> getChangedSubmissionsPage(Long scopeId, Long afterSubmissionId, long limit) {
+		if (scopeId == null) throw new IllegalArgumentException("Scope id cannot be null");
+		if (afterSubmissionId == null) throw new IllegalArgumentException("After submission id cannot be null");
+		if (limit < 1) throw new IllegalArgumentException("Limit must be greater than zero");
 		MapSqlParameterSource param = new MapSqlParameterSource();
 		param.addValue(COL_SUBMISSION_EVAL_ID, scopeId);
-		return namedJdbcTemplate.query(SELECT_MISSING_OR_CHANGED_SUBSTATUSES, param,
-				new RowMapper<SubmissionBundle>() {
-					@Override
-					public SubmissionBundle mapRow(ResultSet rs, int rowNum)
-							throws SQLException {
-						SubmissionBundle sb = new SubmissionBundle();
-						SubmissionDBO submissionDBO = submissionRowMapper.mapRow(rs,  rowNum);
-						Submission submission = new Submission();
-						SubmissionUtils.copyDboToDto(submissionDBO, submission);
-						sb.setSubmission(submission);
-						
-						SubmissionStatusDBO statusDBO = statusRowMapper.mapRow(rs,  rowNum);
-						SubmissionStatus submissionStatus = SubmissionUtils.convertDboToDto(statusDBO);
-						sb.setSubmissionStatus(submissionStatus);
-						return sb;
-					}
-		});
+		param.addValue("afterSubmissionId", afterSubmissionId);
+		param.addValue("limit", limit);
+		return namedJdbcTemplate.query(SELECT_MISSING_OR_CHANGED_SUBSTATUSES_PAGE, param, bundleRowMapper);
+	}
+	
+	@WriteTransaction
+	@Override
+	public List<Long> deleteAnnotationsForDeletedSubmissions(Long scopeId, Long afterSubmissionId, long limit) {
+		if (scopeId == null) throw new IllegalArgumentException("Scope id cannot be null");
+		if (afterSubmissionId == null) throw new IllegalArgumentException("After submission id cannot be null");
+		if (limit < 1) throw new IllegalArgumentException("Limit must be greater than zero");
+		MapSqlParameterSource param = new MapSqlParameterSource();
+		param.addValue(COL_SUBSTATUS_ANNO_EVALID, scopeId);
+		param.addValue("afterSubmissionId", afterSubmissionId);
+		param.addValue("limit", limit);
+		List<Long> idsToDelete = namedJdbcTemplate.queryForList(SELECT_IDS_FOR_DELETED_SUBMISSIONS_PAGE, param, Long.class);
+		if (idsToDelete.isEmpty()) return idsToDelete;
+		// deleting the annotations' owners will trigger the cascade delete of all annotations.
+		param = new MapSqlParameterSource();
+		param.addValue(COL_SUBSTATUS_ANNO_SUBID, idsToDelete);
+		namedJdbcTemplate.update(DELETE_ANNOS_FOR_DELETED_SUBMISSIONS, param);
+		return idsToDelete;
 	}
 	
 	@WriteTransaction
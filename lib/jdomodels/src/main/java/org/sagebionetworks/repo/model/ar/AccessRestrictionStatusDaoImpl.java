@@ -12,6 +12,7 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -24,6 +25,8 @@ public class AccessRestrictionStatusDaoImpl implements AccessRestrictionStatusDa
 	
 	public static final String GET_ENTITY_ACCESS_RESTRICTIONS_SQL = DDLUtilsImpl
 			.loadSQLFromClasspath("sql/GetEntityAccessRestrictions.sql");
+	public static final String GET_ENTITY_ACCESS_RESTRICTIONS_FROM_INDEX_SQL = DDLUtilsImpl
+			.loadSQLFromClasspath("sql/GetEntityAccessRestrictionsFromIndex.sql");
 	public static final String GET_NON_ENTITY_ACCESS_RESTRICTIONS_SQL = DDLUtilsImpl
 			.loadSQLFromClasspath("sql/GetNonEntityAccessRestrictions.sql");
 
@@ -34,6 +37,7 @@ public class AccessRestrictionStatusDaoImpl implements AccessRestrictionStatusDa
 	private static final String APPROVED2 = "APPROVED";
 	private static final String REQUIREMENT_ID = "REQUIREMENT_ID";
 	private static final String SUBJECT_ID = "SUBJECT_ID";
+	private static final String IS_INDEXED = "IS_INDEXED";
 
 	private static final String IS_EXEMPTION_ELIGIBLE= "IS_EXAMPTION_ELIGIBLE";
 	@Autowired
@@ -57,45 +61,67 @@ public class AccessRestrictionStatusDaoImpl implements AccessRestrictionStatusDa
 												.withUserId(userId);
 			statusMap.put(entityId, status);
 		}
+		
 		MapSqlParameterSource params = new MapSqlParameterSource();
 		params.addValue("entityIds", entityIds);
 		params.addValue("userId", userId);
-		params.addValue("depth", NodeConstants.MAX_PATH_DEPTH_PLUS_ONE);
 		params.addValue("usersGroups", userGroups);
-		namedJdbcTemplate.query(GET_ENTITY_ACCESS_RESTRICTIONS_SQL, params, (ResultSet rs) -> {
-			Long entityId = rs.getLong(ENTITY_ID);
-			EntityType entityType = EntityType.valueOf(rs.getString(NODE_TYPE));
-			Long createdBy = rs.getLong(CREATED_BY);
-			Long requirementId = rs.getLong(REQUIREMENT_ID);
-			if (rs.wasNull()) {
-				requirementId = null;
-			}
-			Boolean approved = rs.getBoolean(APPROVED2);
-			String requirementTypeString = rs.getString(REQUIREMENT_TYPE);
-			AccessRequirementType requirementType = null;
-			if(requirementTypeString != null) {
-				requirementType = AccessRequirementType.lookupClassName(requirementTypeString);
-			}
-			Boolean isTwoFaRequired = rs.getBoolean(SqlConstants.COL_ACCESS_REQUIREMENT_IS_TWO_FA_REQUIRED);
-			// The user is automatically approved for any requirement on files they create.
-			if (EntityType.file.equals(entityType) && userId.equals(createdBy)) {
-				approved = true;
-			}
-			Boolean isExemptionEligible = rs.getBoolean(IS_EXEMPTION_ELIGIBLE);
-			UsersRestrictionStatus status = statusMap.get(entityId);
-			if (requirementId != null) {
-				status.withRestrictionStatus(List.of(
-						new UsersRequirementStatus()
-								.withRequirementId(requirementId)
-								.withRequirementType(requirementType)
-								.withIsUnmet(!approved)
-								.withIsTwoFaRequired(isTwoFaRequired)
-								.withIsExemptionEligible(isExemptionEligible)
-				));
+		params.addValue("depth", NodeConstants.MAX_PATH_DEPTH_PLUS_ONE);
+		
+		List<Long> notIndexedIds = new ArrayList<>();
+		
+		namedJdbcTemplate.query(GET_ENTITY_ACCESS_RESTRICTIONS_FROM_INDEX_SQL, params, (ResultSet rs) -> {
+			if (rs.getBoolean(IS_INDEXED)) {
+				mapEntityStatusRow(rs, userId, statusMap);
+			} else {
+				notIndexedIds.add(rs.getLong(ENTITY_ID));
 			}
 		});
+		
+		// The entities that are not in the index of the effective access requirements (e.g. not indexed yet by the workers or removed after a
+		// change to their hierarchy) fallback to the recursive query
+		if (!notIndexedIds.isEmpty()) {
+			params.addValue("entityIds", notIndexedIds);
+			namedJdbcTemplate.query(GET_ENTITY_ACCESS_RESTRICTIONS_SQL, params, (ResultSet rs) -> {
+				mapEntityStatusRow(rs, userId, statusMap);
+			});
+		}
+		
 		return statusMap;
 	}
+	
+	private static void mapEntityStatusRow(ResultSet rs, Long userId, Map<Long, UsersRestrictionStatus> statusMap) throws SQLException {
+		Long entityId = rs.getLong(ENTITY_ID);
+		EntityType entityType = EntityType.valueOf(rs.getString(NODE_TYPE));
+		Long createdBy = rs.getLong(CREATED_BY);
+		Long requirementId = rs.getLong(REQUIREMENT_ID);
+		if (rs.wasNull()) {
+			requirementId = null;
+		}
+		Boolean approved = rs.getBoolean(APPROVED2);
+		String requirementTypeString = rs.getString(REQUIREMENT_TYPE);
+		AccessRequirementType requirementType = null;
+		if(requirementTypeString != null) {
+			requirementType = AccessRequirementType.lookupClassName(requirementTypeString);
+		}
+		Boolean isTwoFaRequired = rs.getBoolean(SqlConstants.COL_ACCESS_REQUIREMENT_IS_TWO_FA_REQUIRED);
+		// The user is automatically approved for any requirement on files they create.
+		if (EntityType.file.equals(entityType) && userId.equals(createdBy)) {
+			approved = true;
+		}
+		Boolean isExemptionEligible = rs.getBoolean(IS_EXEMPTION_ELIGIBLE);
+		UsersRestrictionStatus status = statusMap.get(entityId);
+		if (requirementId != null) {
+			status.withRestrictionStatus(List.of(
+					new UsersRequirementStatus()
+							.withRequirementId(requirementId)
+							.withRequirementType(requirementType)
+							.withIsUnmet(!approved)
+							.withIsTwoFaRequired(isTwoFaRequired)
+							.withIsExemptionEligible(isExemptionEligible)
+			));
+		}
+	}
 
 	@Override
 	public List<UsersRestrictionStatus> getNonEntityStatus(List<Long> subjectIds, RestrictableObjectType subjectType,
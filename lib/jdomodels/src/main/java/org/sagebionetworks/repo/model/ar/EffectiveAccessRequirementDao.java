@@ -0,0 +1,106 @@
+package org.sagebionetworks.repo.model.ar;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * DAO for the index of the effective access requirements of the entities: the access requirements bound to an entity and to all of its
+ * ancestors. The index is populated by workers (never on the read path) and an entity is removed from the index as soon as its hierarchy
+ * or the subjects of an access requirement in its hierarchy change, so that an entity that is in the index always has up to date
+ * requirements. When the hierarchy of a subtree changes the root of the subtree is marked as dirty in the same transaction, the entities
+ * of a subtree with a dirty root are treated as not indexed until a worker removes them from the index.
+ *
+ */
+public interface EffectiveAccessRequirementDao {
+
+	/**
+	 * Adds to the index the entities with the given ids that are not already in the index, computing their effective access requirements
+	 * from their hierarchy. If the hierarchy of an entity is modified while this is running the entities are not added to the index.
+	 * 
+	 * @param entityIds
+	 * @return The subset of the given ids of the entities that were not added to the index since they are in a subtree with a dirty root,
+	 *         they can be indexed once the subtree is cleared (see {@link #clearDirtySubtreePage(long, long)})
+	 */
+	Set<Long> indexEntities(List<Long> entityIds);
+
+	/**
+	 * Marks the entities with the given ids as the dirty roots of subtrees to remove from the index: the entities and all of their
+	 * descendants are treated as not indexed from the moment the transaction commits and are removed from the index by a worker. Must be
+	 * invoked in the same transaction that modifies the hierarchy of the entities or the access requirements bound to the entities.
+	 * 
+	 * @param rootIds
+	 */
+	void clearSubtrees(Collection<Long> rootIds);
+
+	/**
+	 * @param limit
+	 * @return Up to limit dirty roots, mapped to the version of the root that must be used to remove it once its subtree is cleared (see
+	 *         {@link #removeDirtyRoot(long, long)})
+	 */
+	Map<Long, Long> getDirtyRoots(long limit);
+
+	/**
+	 * Removes from the index a page of the entities in the subtree with the given root, in its own transaction.
+	 * 
+	 * @param rootId
+	 * @param limit
+	 * @return The number of entities removed, less than the limit once the whole subtree is cleared
+	 */
+	int clearDirtySubtreePage(long rootId, long limit);
+
+	/**
+	 * Removes the given dirty root if it was not marked again since the given version was read.
+	 * 
+	 * @param rootId
+	 * @param version
+	 * @return True if the root was removed
+	 */
+	boolean removeDirtyRoot(long rootId, long version);
+
+	/**
+	 * Removes from the index the entities with the given ids and all of their descendants without locking the entities. Used by migration,
+	 * where the entities are written by a separate transaction that is still in progress while the stack is in read only mode.
+	 * 
+	 * @param rootIds
+	 */
+	void clearMigratedSubtrees(Collection<Long> rootIds);
+
+	/**
+	 * Removes from the index the entities with the given ids.
+	 * 
+	 * @param entityIds
+	 */
+	void clearEntities(Collection<Long> entityIds);
+
+	/**
+	 * Removes from the index the entities that have any of the requirements with the given ids.
+	 * 
+	 * @param requirementIds
+	 */
+	void clearRequirements(Collection<Long> requirementIds);
+
+	/**
+	 * @param afterEntityId
+	 * @param limit
+	 * @return A page of the ids of the entities, in ascending order, that are greater than the given id. Used to reconcile the index with
+	 *         the entities.
+	 */
+	List<Long> getEntityIdsPage(long afterEntityId, long limit);
+
+	/**
+	 * Consistency check of the index: compares the indexed requirements of the given entities with the requirements computed from their
+	 * hierarchy. The entities in a subtree with a dirty root are not checked, since they are not used and will be removed from the index.
+	 * 
+	 * @param entityIds
+	 * @return The subset of the given ids of the entities that are in the index with requirements that are not up to date
+	 */
+	Set<Long> getInconsistentEntityIds(List<Long> entityIds);
+
+	/**
+	 * Removes all the entities and the dirty roots from the index
+	 */
+	void clear();
+
+}
@@ -0,0 +1,328 @@
+package org.sagebionetworks.repo.model.ar;
+
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_EFFECTIVE_AR_DIRTY_ROOT_ROOT_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_EFFECTIVE_AR_DIRTY_ROOT_VERSION;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_EFFECTIVE_AR_ENTITY_ENTITY_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_EFFECTIVE_AR_ENTITY_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_EFFECTIVE_AR_REQUIREMENT_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_NODE_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_EFFECTIVE_AR;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_EFFECTIVE_AR_DIRTY_ROOT;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_EFFECTIVE_AR_ENTITY;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_NODE;
+
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.sagebionetworks.repo.model.NodeConstants;
+import org.sagebionetworks.repo.model.dbo.DDLUtilsImpl;
+import org.sagebionetworks.repo.transactions.MandatoryWriteTransaction;
+import org.sagebionetworks.repo.transactions.WriteTransaction;
+import org.sagebionetworks.util.ValidateArgument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * The consistency of the index relies on the row locks of the NODE table: an entity is added to the index holding a shared lock on the
+ * entity and all of its ancestors while the root of a modified subtree is marked as dirty holding an exclusive lock on the root. Since
+ * the root of the modified subtree is either an ancestor of the entity or the entity itself, an entity cannot be added to the index with
+ * the requirements computed from a hierarchy that is being modified. The entities of a subtree with a dirty root are neither read from
+ * nor added to the index, the subtree is removed from the index by a worker in bounded pages outside of the transaction that modified
+ * the hierarchy.
+ */
+@Repository
+public class EffectiveAccessRequirementDaoImpl implements EffectiveAccessRequirementDao {
+
+	static final String GET_ENTITY_EFFECTIVE_ACCESS_REQUIREMENTS_SQL = DDLUtilsImpl
+			.loadSQLFromClasspath("sql/GetEntityEffectiveAccessRequirements.sql");
+	static final String GET_ENTITY_PATH_IDS_SQL = DDLUtilsImpl
+			.loadSQLFromClasspath("sql/GetEntityPathIds.sql");
+	static final String CLEAR_SUBTREES_SQL = DDLUtilsImpl
+			.loadSQLFromClasspath("sql/ClearEffectiveAccessRequirementSubtrees.sql");
+	static final String GET_ENTITIES_WITH_DIRTY_ROOT_SQL = DDLUtilsImpl
+			.loadSQLFromClasspath("sql/GetEntitiesWithDirtyRoot.sql");
+	static final String GET_SUBTREE_PAGE_SQL = DDLUtilsImpl
+			.loadSQLFromClasspath("sql/GetEffectiveAccessRequirementSubtreePage.sql");
+	
+	private static final String SELECT_NOT_INDEXED_SQL = "SELECT N." + COL_NODE_ID + " FROM " + TABLE_NODE + " N LEFT JOIN " + TABLE_EFFECTIVE_AR_ENTITY + " E"
+			+ " ON (N." + COL_NODE_ID + " = E." + COL_EFFECTIVE_AR_ENTITY_ENTITY_ID + ")"
+			+ " WHERE N." + COL_NODE_ID + " IN (:entityIds) AND E." + COL_EFFECTIVE_AR_ENTITY_ENTITY_ID + " IS NULL";
+	
+	private static final String SELECT_NODES_FOR_SHARE_SQL = "SELECT " + COL_NODE_ID + " FROM " + TABLE_NODE 
+			+ " WHERE " + COL_NODE_ID + " IN (:ids) ORDER BY " + COL_NODE_ID + " FOR SHARE";
+	
+	private static final String SELECT_NODES_FOR_UPDATE_SQL = "SELECT " + COL_NODE_ID + " FROM " + TABLE_NODE 
+			+ " WHERE " + COL_NODE_ID + " IN (:ids) ORDER BY " + COL_NODE_ID + " FOR UPDATE";
+	
+	private static final String INSERT_ENTITIES_SQL = "INSERT IGNORE INTO " + TABLE_EFFECTIVE_AR_ENTITY + " (" + COL_EFFECTIVE_AR_ENTITY_ENTITY_ID + ")"
+			+ " SELECT " + COL_NODE_ID + " FROM " + TABLE_NODE + " WHERE " + COL_NODE_ID + " IN (:entityIds)";
+	
+	private static final String INSERT_REQUIREMENTS_SQL = "INSERT IGNORE INTO " + TABLE_EFFECTIVE_AR 
+			+ " (" + COL_EFFECTIVE_AR_ENTITY_ID + ", " + COL_EFFECTIVE_AR_REQUIREMENT_ID + ") " + GET_ENTITY_EFFECTIVE_ACCESS_REQUIREMENTS_SQL;
+	
+	private static final String SELECT_ENTITIES_WITH_REQUIREMENTS_SQL = "SELECT DISTINCT " + COL_EFFECTIVE_AR_ENTITY_ID + " FROM " + TABLE_EFFECTIVE_AR
+			+ " WHERE " + COL_EFFECTIVE_AR_REQUIREMENT_ID + " IN (:requirementIds)";
+	
+	private static final String DELETE_ENTITIES_SQL = "DELETE FROM " + TABLE_EFFECTIVE_AR_ENTITY + " WHERE " + COL_EFFECTIVE_AR_ENTITY_ENTITY_ID + " IN (:entityIds)";
+	
+	private static final String SELECT_ENTITY_IDS_PAGE_SQL = "SELECT " + COL_NODE_ID + " FROM " + TABLE_NODE 
+			+ " WHERE " + COL_NODE_ID + " > :afterEntityId ORDER BY " + COL_NODE_ID + " LIMIT :limit";
+	
+	private static final String MARK_DIRTY_ROOTS_SQL = "INSERT INTO " + TABLE_EFFECTIVE_AR_DIRTY_ROOT 
+			+ " (" + COL_EFFECTIVE_AR_DIRTY_ROOT_ROOT_ID + ", " + COL_EFFECTIVE_AR_DIRTY_ROOT_VERSION + ")"
+			+ " SELECT " + COL_NODE_ID + ", 0 FROM " + TABLE_NODE + " WHERE " + COL_NODE_ID + " IN (:rootIds) ORDER BY " + COL_NODE_ID
+			+ " ON DUPLICATE KEY UPDATE " + COL_EFFECTIVE_AR_DIRTY_ROOT_VERSION + " = " + COL_EFFECTIVE_AR_DIRTY_ROOT_VERSION + " + 1";
+	
+	private static final String SELECT_DIRTY_ROOTS_SQL = "SELECT " + COL_EFFECTIVE_AR_DIRTY_ROOT_ROOT_ID + ", " + COL_EFFECTIVE_AR_DIRTY_ROOT_VERSION 
+			+ " FROM " + TABLE_EFFECTIVE_AR_DIRTY_ROOT + " ORDER BY " + COL_EFFECTIVE_AR_DIRTY_ROOT_ROOT_ID + " LIMIT :limit";
+	
+	private static final String DELETE_DIRTY_ROOT_SQL = "DELETE FROM " + TABLE_EFFECTIVE_AR_DIRTY_ROOT 
+			+ " WHERE " + COL_EFFECTIVE_AR_DIRTY_ROOT_ROOT_ID + " = :rootId AND " + COL_EFFECTIVE_AR_DIRTY_ROOT_VERSION + " = :version";
+	
+	private static final String SELECT_INDEXED_REQUIREMENTS_SQL = "SELECT E." + COL_EFFECTIVE_AR_ENTITY_ENTITY_ID + ", R." + COL_EFFECTIVE_AR_REQUIREMENT_ID
+			+ " FROM " + TABLE_EFFECTIVE_AR_ENTITY + " E LEFT JOIN " + TABLE_EFFECTIVE_AR + " R"
+			+ " ON (E." + COL_EFFECTIVE_AR_ENTITY_ENTITY_ID + " = R." + COL_EFFECTIVE_AR_ENTITY_ID + ")"
+			+ " WHERE E." + COL_EFFECTIVE_AR_ENTITY_ENTITY_ID + " IN (:entityIds)";
+	
+	private static final String ENTITY_ID = "ENTITY_ID";
+	private static final String REQUIREMENT_ID = "REQUIREMENT_ID";
+
+	private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+	@Autowired
+	public EffectiveAccessRequirementDaoImpl(NamedParameterJdbcTemplate namedJdbcTemplate) {
+		this.namedJdbcTemplate = namedJdbcTemplate;
+	}
+
+	@Override
+	@WriteTransaction
+	public Set<Long> indexEntities(List<Long> entityIds) {
+		ValidateArgument.required(entityIds, "entityIds");
+		
+		if (entityIds.isEmpty()) {
+			return Collections.emptySet();
+		}
+		
+		List<Long> notIndexedIds = namedJdbcTemplate.queryForList(SELECT_NOT_INDEXED_SQL, new MapSqlParameterSource("entityIds", entityIds), Long.class);
+		
+		if (notIndexedIds.isEmpty()) {
+			return Collections.emptySet();
+		}
+		
+		MapSqlParameterSource params = new MapSqlParameterSource()
+			.addValue("entityIds", notIndexedIds)
+			.addValue("depth", NodeConstants.MAX_PATH_DEPTH_PLUS_ONE);
+		
+		List<Long> pathIds = namedJdbcTemplate.queryForList(GET_ENTITY_PATH_IDS_SQL, params, Long.class);
+		
+		// Blocks until any concurrent modification of the hierarchy is committed and prevents further modifications
+		namedJdbcTemplate.queryForList(SELECT_NODES_FOR_SHARE_SQL, new MapSqlParameterSource("ids", pathIds), Long.class);
+		
+		// The hierarchy was modified before we could lock it, the entities will be indexed on the next call
+		if (!pathIds.equals(namedJdbcTemplate.queryForList(GET_ENTITY_PATH_IDS_SQL, params, Long.class))) {
+			return Collections.emptySet();
+		}
+		
+		// The entities in a subtree that is still being removed from the index are indexed once the subtree is cleared
+		Set<Long> dirtyIds = getEntitiesWithDirtyRoot(notIndexedIds);
+		
+		List<Long> indexIds = notIndexedIds.stream().filter(id -> !dirtyIds.contains(id)).collect(Collectors.toList());
+		
+		if (!indexIds.isEmpty()) {
+			params.addValue("entityIds", indexIds);
+			namedJdbcTemplate.update(INSERT_ENTITIES_SQL, params);
+			namedJdbcTemplate.update(INSERT_REQUIREMENTS_SQL, params);
+		}
+		
+		return dirtyIds;
+	}
+	
+	private Set<Long> getEntitiesWithDirtyRoot(Collection<Long> entityIds) {
+		MapSqlParameterSource params = new MapSqlParameterSource()
+			.addValue("entityIds", entityIds)
+			.addValue("depth", NodeConstants.MAX_PATH_DEPTH_PLUS_ONE);
+		
+		return new HashSet<>(namedJdbcTemplate.queryForList(GET_ENTITIES_WITH_DIRTY_ROOT_SQL, params, Long.class));
+	}
+
+	@Override
+	@MandatoryWriteTransaction
+	public void clearSubtrees(Collection<Long> rootIds) {
+		ValidateArgument.required(rootIds, "rootIds");
+		
+		if (rootIds.isEmpty()) {
+			return;
+		}
+		
+		// Blocks any concurrent indexing of the entities in the subtrees until the transaction is committed
+		namedJdbcTemplate.queryForList(SELECT_NODES_FOR_UPDATE_SQL, new MapSqlParameterSource("ids", rootIds), Long.class);
+		
+		// The subtrees are removed from the index by a worker, once committed the entities in the subtrees are treated as not indexed
+		namedJdbcTemplate.update(MARK_DIRTY_ROOTS_SQL, new MapSqlParameterSource("rootIds", rootIds));
+	}
+
+	@Override
+	public Map<Long, Long> getDirtyRoots(long limit) {
+		Map<Long, Long> dirtyRoots = new LinkedHashMap<>();
+		
+		namedJdbcTemplate.query(SELECT_DIRTY_ROOTS_SQL, new MapSqlParameterSource("limit", limit), (ResultSet rs) -> {
+			dirtyRoots.put(rs.getLong(COL_EFFECTIVE_AR_DIRTY_ROOT_ROOT_ID), rs.getLong(COL_EFFECTIVE_AR_DIRTY_ROOT_VERSION));
+		});
+		
+		return dirtyRoots;
+	}
+
+	@Override
+	@WriteTransaction
+	public int clearDirtySubtreePage(long rootId, long limit) {
+		MapSqlParameterSource params = new MapSqlParameterSource()
+			.addValue("rootId", rootId)
+			.addValue("depth", NodeConstants.MAX_PATH_DEPTH_PLUS_ONE)
+			.addValue("limit", limit);
+		
+		List<Long> entityIds = namedJdbcTemplate.queryForList(GET_SUBTREE_PAGE_SQL, params, Long.class);
+		
+		if (entityIds.isEmpty()) {
+			return 0;
+		}
+		
+		// The requirements are deleted on cascade
+		namedJdbcTemplate.update(DELETE_ENTITIES_SQL, new MapSqlParameterSource("entityIds", entityIds));
+		
+		return entityIds.size();
+	}
+
+	@Override
+	@WriteTransaction
+	public boolean removeDirtyRoot(long rootId, long version) {
+		MapSqlParameterSource params = new MapSqlParameterSource()
+			.addValue("rootId", rootId)
+			.addValue("version", version);
+		
+		return namedJdbcTemplate.update(DELETE_DIRTY_ROOT_SQL, params) > 0;
+	}
+
+	@Override
+	@WriteTransaction
+	public void clearMigratedSubtrees(Collection<Long> rootIds) {
+		ValidateArgument.required(rootIds, "rootIds");
+		
+		if (rootIds.isEmpty()) {
+			return;
+		}
+		
+		// The nodes are not locked: they are locked by the migration transaction that is still writing them, since the stack is in read only
+		// mode there is no concurrent indexing
+		deleteSubtrees(rootIds);
+	}
+	
+	private void deleteSubtrees(Collection<Long> rootIds) {
+		MapSqlParameterSource params = new MapSqlParameterSource()
+			.addValue("rootIds", rootIds)
+			.addValue("depth", NodeConstants.MAX_PATH_DEPTH_PLUS_ONE);
+		
+		namedJdbcTemplate.update(CLEAR_SUBTREES_SQL, params);
+	}
+
+	@Override
+	@WriteTransaction
+	public void clearEntities(Collection<Long> entityIds) {
+		ValidateArgument.required(entityIds, "entityIds");
+		
+		if (entityIds.isEmpty()) {
+			return;
+		}
+		
+		// The requirements are deleted on cascade
+		namedJdbcTemplate.update(DELETE_ENTITIES_SQL, new MapSqlParameterSource("entityIds", entityIds));
+	}
+
+	@Override
+	@WriteTransaction
+	public void clearRequirements(Collection<Long> requirementIds) {
+		ValidateArgument.required(requirementIds, "requirementIds");
+		
+		if (requirementIds.isEmpty()) {
+			return;
+		}
+		
+		List<Long> entityIds = namedJdbcTemplate.queryForList(SELECT_ENTITIES_WITH_REQUIREMENTS_SQL, new MapSqlParameterSource("requirementIds", requirementIds), Long.class);
+		
+		clearEntities(entityIds);
+	}
+
+	@Override
+	public List<Long> getEntityIdsPage(long afterEntityId, long limit) {
+		MapSqlParameterSource params = new MapSqlParameterSource()
+			.addValue("afterEntityId", afterEntityId)
+			.addValue("limit", limit);
+		
+		return namedJdbcTemplate.queryForList(SELECT_ENTITY_IDS_PAGE_SQL, params, Long.class);
+	}
+
+	@Override
+	public Set<Long> getInconsistentEntityIds(List<Long> entityIds) {
+		ValidateArgument.required(entityIds, "entityIds");
+		
+		if (entityIds.isEmpty()) {
+			return Collections.emptySet();
+		}
+		
+		Map<Long, Set<Long>> indexedRequirements = getRequirementsMap(SELECT_INDEXED_REQUIREMENTS_SQL, new MapSqlParameterSource("entityIds", entityIds));
+		
+		if (indexedRequirements.isEmpty()) {
+			return Collections.emptySet();
+		}
+		
+		// The entities in a subtree that is still being removed from the index are not used
+		indexedRequirements.keySet().removeAll(getEntitiesWithDirtyRoot(indexedRequirements.keySet()));
+		
+		if (indexedRequirements.isEmpty()) {
+			return Collections.emptySet();
+		}
+		
+		MapSqlParameterSource params = new MapSqlParameterSource()
+			.addValue("entityIds", indexedRequirements.keySet())
+			.addValue("depth", NodeConstants.MAX_PATH_DEPTH_PLUS_ONE);
+		
+		Map<Long, Set<Long>> expectedRequirements = getRequirementsMap(GET_ENTITY_EFFECTIVE_ACCESS_REQUIREMENTS_SQL, params);
+		
+		return indexedRequirements.entrySet().stream()
+			.filter(entry -> !entry.getValue().equals(expectedRequirements.getOrDefault(entry.getKey(), Collections.emptySet())))
+			.map(Map.Entry::getKey)
+			.collect(Collectors.toSet());
+	}
+	
+	private Map<Long, Set<Long>> getRequirementsMap(String sql, MapSqlParameterSource params) {
+		Map<Long, Set<Long>> requirements = new HashMap<>();
+		
+		namedJdbcTemplate.query(sql, params, (ResultSet rs) -> {
+			Set<Long> entityRequirements = requirements.computeIfAbsent(rs.getLong(ENTITY_ID), id -> new HashSet<>());
+			Long requirementId = rs.getLong(REQUIREMENT_ID);
+			if (!rs.wasNull()) {
+				entityRequirements.add(requirementId);
+			}
+		});
+		
+		return requirements;
+	}
+
+	@Override
+	@WriteTransaction
+	public void clear() {
+		// The requirements are deleted on cascade
+		namedJdbcTemplate.update("DELETE FROM " + TABLE_EFFECTIVE_AR_ENTITY, Collections.emptyMap());
+		namedJdbcTemplate.update("DELETE FROM " + TABLE_EFFECTIVE_AR_DIRTY_ROOT, Collections.emptyMap());
+	}
+
+}
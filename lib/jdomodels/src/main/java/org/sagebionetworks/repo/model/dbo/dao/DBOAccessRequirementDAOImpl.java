@@ -67,6 +67,7 @@ import org.sagebionetworks.repo.model.RestrictableObjectDescriptor;
 import org.sagebionetworks.repo.model.RestrictableObjectType;
 import org.sagebionetworks.repo.model.SelfSignAccessRequirement;
 import org.sagebionetworks.repo.model.TermsOfUseAccessRequirement;
+import org.sagebionetworks.repo.model.ar.EffectiveAccessRequirementDao;
 import org.sagebionetworks.repo.model.dataaccess.AccessRequirementSearchSort;
 import org.sagebionetworks.repo.model.dataaccess.BindingType;
 import org.sagebionetworks.repo.model.dbo.DBOBasicDao;
@@ -89,6 +90,8 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import com.google.common.collect.Sets;
+
 @Repository
 public class DBOAccessRequirementDAOImpl implements AccessRequirementDAO {
 	public static final String ACCESS_REQUIREMENT_DOES_NOT_EXIST = "Access Requirement: '%s' does not exist";
@@ -100,15 +103,17 @@ public class DBOAccessRequirementDAOImpl implements AccessRequirementDAO {
 	private IdGenerator idGenerator;
 	private NamedParameterJdbcTemplate namedJdbcTemplate;
 	private JdbcTemplate jdbcTemplate;
+	private EffectiveAccessRequirementDao effectiveAccessRequirementDao;
 
 	@Autowired
 	public DBOAccessRequirementDAOImpl(DBOBasicDao basicDao, IdGenerator idGenerator,
-			NamedParameterJdbcTemplate namedJdbcTemplate, JdbcTemplate jdbcTemplate) {
+			NamedParameterJdbcTemplate namedJdbcTemplate, JdbcTemplate jdbcTemplate, EffectiveAccessRequirementDao effectiveAccessRequirementDao) {
 		super();
 		this.basicDao = basicDao;
 		this.idGenerator = idGenerator;
 		this.namedJdbcTemplate = namedJdbcTemplate;
 		this.jdbcTemplate = jdbcTemplate;
+		this.effectiveAccessRequirementDao = effectiveAccessRequirementDao;
 	}
 
 	private static final String UPDATE_ACCESS_REQUIREMENT_SQL = "UPDATE " + TABLE_ACCESS_REQUIREMENT + " SET "
@@ -157,6 +162,11 @@ public class DBOAccessRequirementDAOImpl implements AccessRequirementDAO {
 			+ COL_ACCESS_REQUIREMENT_CURRENT_REVISION_NUMBER + " = REV." + COL_ACCESS_REQUIREMENT_REVISION_NUMBER + ")"
 			+ " WHERE " + COL_ACCESS_REQUIREMENT_ID + "=:" + COL_ACCESS_REQUIREMENT_ID + " FOR UPDATE";
 
+	private static final String SELECT_ENTITY_SUBJECT_IDS_SQL = "SELECT " + COL_SUBJECT_ACCESS_REQUIREMENT_SUBJECT_ID + " FROM "
+			+ TABLE_SUBJECT_ACCESS_REQUIREMENT + " WHERE " + COL_SUBJECT_ACCESS_REQUIREMENT_REQUIREMENT_ID + "=:"
+			+ COL_SUBJECT_ACCESS_REQUIREMENT_REQUIREMENT_ID + " AND " + COL_SUBJECT_ACCESS_REQUIREMENT_SUBJECT_TYPE + "='"
+			+ RestrictableObjectType.ENTITY.name() + "' AND " + COL_SUBJECT_ACCESS_REQUIREMENT_BINDING_TYPE + " =:bindingType";
+
 	private static final String DELETE_SUBJECT_ACCESS_REQUIREMENTS_SQL = "DELETE FROM "
 			+ TABLE_SUBJECT_ACCESS_REQUIREMENT + " WHERE " + COL_SUBJECT_ACCESS_REQUIREMENT_REQUIREMENT_ID + "=:"
 			+ COL_SUBJECT_ACCESS_REQUIREMENT_REQUIREMENT_ID +" AND "+COL_SUBJECT_ACCESS_REQUIREMENT_BINDING_TYPE+" =:bindingType";
@@ -233,8 +243,23 @@ public class DBOAccessRequirementDAOImpl implements AccessRequirementDAO {
 		}
 		basicDao.createNew(dboRevision);
 		populateSubjectAccessRequirement(dbo.getId(), dto.getSubjectIds());
+		effectiveAccessRequirementDao.clearSubtrees(getEntitySubjectIds(dto.getSubjectIds()));
 		return (T) get(dbo.getId().toString());
 	}
+	
+	/**
+	 * @param rodList
+	 * @return The ids of the entities in the given list of subjects
+	 */
+	static Set<Long> getEntitySubjectIds(List<RestrictableObjectDescriptor> rodList) {
+		if (rodList == null) {
+			return Collections.emptySet();
+		}
+		return rodList.stream()
+			.filter(rod -> RestrictableObjectType.ENTITY == rod.getType())
+			.map(rod -> KeyFactory.stringToKey(rod.getId()))
+			.collect(Collectors.toSet());
+	}
 
 
 	/**
@@ -279,6 +304,13 @@ public class DBOAccessRequirementDAOImpl implements AccessRequirementDAO {
 		}
 	}
 
+	private Set<Long> getManuallyBoundEntitySubjectIds(Long accessRequirementId) {
+		MapSqlParameterSource param = new MapSqlParameterSource();
+		param.addValue(COL_SUBJECT_ACCESS_REQUIREMENT_REQUIREMENT_ID, accessRequirementId);
+		param.addValue("bindingType", BindingType.MANUAL.name());
+		return new HashSet<>(namedJdbcTemplate.queryForList(SELECT_ENTITY_SUBJECT_IDS_SQL, param, Long.class));
+	}
+
 	private void clearSubjectAccessRequirement(Long accessRequirementId) {
 		MapSqlParameterSource param = new MapSqlParameterSource();
 		param.addValue(COL_SUBJECT_ACCESS_REQUIREMENT_REQUIREMENT_ID, accessRequirementId);
@@ -372,9 +404,16 @@ public class DBOAccessRequirementDAOImpl implements AccessRequirementDAO {
 
 		// Create the new revision.
 		basicDao.createNew(revision);
+		
+		Set<Long> currentEntitySubjectIds = getManuallyBoundEntitySubjectIds(dto.getId());
 
 		clearSubjectAccessRequirement(dto.getId());
 		populateSubjectAccessRequirement(dto.getId(), dto.getSubjectIds());
+		
+		// Only the entities that were added or removed from the subjects are affected by the update
+		Set<Long> newEntitySubjectIds = getEntitySubjectIds(dto.getSubjectIds());
+		
+		effectiveAccessRequirementDao.clearSubtrees(Sets.symmetricDifference(currentEntitySubjectIds, newEntitySubjectIds));
 
 		return (T) get(dto.getId().toString());
 	}
@@ -660,6 +699,7 @@ public class DBOAccessRequirementDAOImpl implements AccessRequirementDAO {
 
 			// needed to ensure that this change migrates.
 			updateAccessRequirmentEtags(arIds);
+			effectiveAccessRequirementDao.clearSubtrees(getEntitySubjectIds(Collections.singletonList(subject)));
 		} catch (DuplicateKeyException e) {
 			throw new IllegalArgumentException(
 					"One or more access requirement is already dynamically bound to this subject.", e);
@@ -703,6 +743,7 @@ public class DBOAccessRequirementDAOImpl implements AccessRequirementDAO {
 				});
 		// needed to ensure that this change migrates.
 		updateAccessRequirmentEtags(arIds);
+		effectiveAccessRequirementDao.clearSubtrees(getEntitySubjectIds(Collections.singletonList(subject)));
 	}
 
 	private void updateAccessRequirmentEtags(List<Long> arIds) {
@@ -8,9 +8,15 @@ import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_PROJECT_
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_PROJECT_STAT;
 
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.sagebionetworks.ids.IdGenerator;
 import org.sagebionetworks.ids.IdType;
@@ -23,6 +29,9 @@ import org.sagebionetworks.util.ValidateArgument;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Lists;
@@ -49,10 +58,27 @@ public class DBOProjectStatsDAOImpl implements ProjectStatsDAO {
 							+ " WHEN "+COL_PROJECT_STAT_LAST_ACCESSED+" <"
 									+ " ? THEN ? ELSE "+COL_PROJECT_STAT_LAST_ACCESSED+" END"
 					+ ", "+COL_PROJECT_STAT_ETAG+" = ?";
+	
+	/*
+	 * A super-set of the existing stats for the given projects and users, used to
+	 * only issue new IDs for the stats that do not exist yet.
+	 */
+	private static final String SQL_SELECT_EXISTING_IDS = "SELECT " + COL_PROJECT_STAT_ID + ", " + COL_PROJECT_STAT_PROJECT_ID + ", "
+			+ COL_PROJECT_STAT_USER_ID + " FROM " + TABLE_PROJECT_STAT + " WHERE " + COL_PROJECT_STAT_PROJECT_ID
+			+ " IN (:projectIds) AND " + COL_PROJECT_STAT_USER_ID + " IN (:userIds)";
+	
+	/*
+	 * Stats are always written in the same order to avoid deadlocks between concurrent batches.
+	 */
+	private static final Comparator<ProjectStat> STAT_ORDER = Comparator.comparingLong(ProjectStat::getProjectId)
+			.thenComparingLong(ProjectStat::getUserId);
 
 	@Autowired
 	private JdbcTemplate jdbcTemplate;
 
+	@Autowired
+	private NamedParameterJdbcTemplate namedJdbcTemplate;
+
 	@Autowired
 	private IdGenerator idGenerator;
 
@@ -67,12 +93,14 @@ public class DBOProjectStatsDAOImpl implements ProjectStatsDAO {
 			ValidateArgument.required(stat.getUserId(), "stat.userId");
 			ValidateArgument.required(stat.getLastAccessed(), "stat.lastAccessed");
 		}
+		final List<ProjectStat> stats = deduplicate(projectStats);
+		final long[] statIds = getStatIds(stats);
 		jdbcTemplate.batchUpdate(SQL_INSERT_BATCH, new BatchPreparedStatementSetter() {
 			
 			@Override
 			public void setValues(PreparedStatement ps, int i) throws SQLException {
-				ProjectStat stat = projectStats[i];
-				long statId = idGenerator.generateNewId(IdType.PROJECT_STATS_ID);
+				ProjectStat stat = stats.get(i);
+				long statId = statIds[i];
 				String etag = UUID.randomUUID().toString();
 				long lastAccessed = stat.getLastAccessed().getTime();
 				int parameterIndex = 1;
@@ -90,10 +118,51 @@ public class DBOProjectStatsDAOImpl implements ProjectStatsDAO {
 			
 			@Override
 			public int getBatchSize() {
-				return projectStats.length;
+				return stats.size();
 			}
 		});
 	}
+	
+	/**
+	 * Keep only the latest access for each project and user, ordered by project
+	 * and user.
+	 * 
+	 * @param projectStats
+	 * @return
+	 */
+	static List<ProjectStat> deduplicate(ProjectStat... projectStats) {
+		Map<ProjectStat, ProjectStat> latest = new TreeMap<>(STAT_ORDER);
+		for (ProjectStat stat : projectStats) {
+			latest.merge(stat, stat, (current, next) -> next.getLastAccessed().after(current.getLastAccessed()) ? next : current);
+		}
+		return new ArrayList<>(latest.values());
+	}
+	
+	/**
+	 * Existing stats keep their ID, new IDs are issued before the batch for the
+	 * stats that do not exist yet.
+	 * 
+	 * @param stats
+	 * @return The ID to use for each stat
+	 */
+	long[] getStatIds(List<ProjectStat> stats) {
+		Map<ProjectStat, Long> existingIds = new TreeMap<>(STAT_ORDER);
+		if (!stats.isEmpty()) {
+			MapSqlParameterSource params = new MapSqlParameterSource();
+			params.addValue("projectIds", stats.stream().map(ProjectStat::getProjectId).collect(Collectors.toSet()));
+			params.addValue("userIds", stats.stream().map(ProjectStat::getUserId).collect(Collectors.toSet()));
+			namedJdbcTemplate.query(SQL_SELECT_EXISTING_IDS, params, (RowCallbackHandler) (ResultSet rs) -> {
+				ProjectStat key = new ProjectStat(rs.getLong(COL_PROJECT_STAT_PROJECT_ID), rs.getLong(COL_PROJECT_STAT_USER_ID), null);
+				existingIds.put(key, rs.getLong(COL_PROJECT_STAT_ID));
+			});
+		}
+		long[] statIds = new long[stats.size()];
+		for (int i = 0; i < statIds.length; i++) {
+			Long existingId = existingIds.get(stats.get(i));
+			statIds[i] = existingId != null ? existingId : idGenerator.generateNewId(IdType.PROJECT_STATS_ID);
+		}
+		return statIds;
+	}
 
 	@Override
 	public List<ProjectStat> getProjectStatsForUser(Long userId) {
@@ -0,0 +1,51 @@
+package org.sagebionetworks.repo.model.dbo.dao;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.sagebionetworks.repo.model.entity.NameIdType;
+
+/**
+ * A bounded, in-memory cache of the paths of the containers in the entity
+ * hierarchy, keyed by the container id. Since most entities share a few
+ * containers, the path of an entity can be resolved from the path of its parent
+ * without walking the hierarchy in the database.
+ * <p>
+ * The entries that include an entity that is moved, renamed or deleted on this
+ * machine are invalidated when the change is committed, the changes made on
+ * other machines are picked up when the entries expire.
+ */
+public interface EntityAncestorCache {
+
+	/**
+	 * Get the cached paths for the given containers.
+	 * 
+	 * @param containerIds
+	 * @return The path of each container found in the cache, from the root to the
+	 *         container (included). The containers that are not cached are not
+	 *         included in the map.
+	 */
+	Map<Long, List<NameIdType>> getContainerPaths(Collection<Long> containerIds);
+
+	/**
+	 * Add the paths of the given containers to the cache.
+	 * 
+	 * @param containerPaths The path of each container, from the root to the
+	 *                       container (included)
+	 */
+	void putContainerPaths(Map<Long, List<NameIdType>> containerPaths);
+
+	/**
+	 * Invalidate the paths of all the containers that include the entity with the
+	 * given id.
+	 * 
+	 * @param entityId
+	 */
+	void invalidate(Long entityId);
+
+	/**
+	 * Clear the cache.
+	 */
+	void clear();
+}
@@ -0,0 +1,145 @@
+package org.sagebionetworks.repo.model.dbo.dao;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.sagebionetworks.repo.model.ObjectType;
+import org.sagebionetworks.repo.model.entity.NameIdType;
+import org.sagebionetworks.repo.model.jdo.KeyFactory;
+import org.sagebionetworks.repo.model.message.ChangeMessage;
+import org.sagebionetworks.repo.model.message.ChangeType;
+import org.sagebionetworks.repo.model.message.LocalStackMessage;
+import org.sagebionetworks.repo.model.message.TransactionalMessenger;
+import org.sagebionetworks.repo.model.message.TransactionalMessengerObserver;
+import org.sagebionetworks.util.ValidateArgument;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+
+@Service
+public class EntityAncestorCacheImpl implements EntityAncestorCache, TransactionalMessengerObserver, InitializingBean {
+
+	// Bounds how long a move or rename on another machine can go unnoticed
+	static final Duration MAX_CACHE_DURATION = Duration.ofSeconds(60);
+
+	static final long MAX_CACHE_SIZE = 100_000;
+
+	private final TransactionalMessenger transactionalMessenger;
+
+	private final Cache<Long, List<NameIdType>> cache;
+
+	// Reverse index from each entity to the cached containers whose path includes it, so that an invalidation
+	// does not scan the cache and the entities that are not in any cached path (e.g. files) are skipped
+	private final Map<Long, Set<Long>> containersByAncestor;
+
+	@Autowired
+	public EntityAncestorCacheImpl(TransactionalMessenger transactionalMessenger) {
+		this.transactionalMessenger = transactionalMessenger;
+		this.containersByAncestor = new ConcurrentHashMap<>();
+		this.cache = CacheBuilder.newBuilder()
+			.maximumSize(MAX_CACHE_SIZE)
+			.expireAfterWrite(MAX_CACHE_DURATION)
+			.removalListener(this::onRemoval)
+			.build();
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		// We only want to be in the list once
+		transactionalMessenger.removeObserver(this);
+		transactionalMessenger.registerObserver(this);
+	}
+
+	@Override
+	public Map<Long, List<NameIdType>> getContainerPaths(Collection<Long> containerIds) {
+		ValidateArgument.required(containerIds, "The containerIds");
+		Map<Long, List<NameIdType>> results = new HashMap<>(containerIds.size());
+		cache.getAllPresent(containerIds).forEach((containerId, path) -> {
+			// The cached elements are mutable, each caller gets its own copy
+			results.put(containerId, copy(path));
+		});
+		return results;
+	}
+
+	@Override
+	public void putContainerPaths(Map<Long, List<NameIdType>> containerPaths) {
+		ValidateArgument.required(containerPaths, "The containerPaths");
+		containerPaths.forEach((containerId, path) -> {
+			cache.put(containerId, copy(path));
+			path.forEach(element -> {
+				containersByAncestor.computeIfAbsent(KeyFactory.stringToKey(element.getId()), id -> ConcurrentHashMap.newKeySet()).add(containerId);
+			});
+		});
+	}
+
+	@Override
+	public void invalidate(Long entityId) {
+		ValidateArgument.required(entityId, "The entityId");
+		cache.invalidate(entityId);
+		Set<Long> containerIds = containersByAncestor.remove(entityId);
+		if (containerIds != null) {
+			cache.invalidateAll(containerIds);
+		}
+	}
+
+	@Override
+	public void clear() {
+		cache.invalidateAll();
+		containersByAncestor.clear();
+	}
+	
+	int getIndexSize() {
+		return containersByAncestor.size();
+	}
+
+	/**
+	 * Removes the container from the index entries of the ancestors in its removed (evicted, expired, replaced or
+	 * invalidated) path, unless the ancestor is still in the path currently cached for the container.
+	 */
+	private void onRemoval(RemovalNotification<Long, List<NameIdType>> notification) {
+		Long containerId = notification.getKey();
+		List<NameIdType> currentPath = cache.getIfPresent(containerId);
+		notification.getValue().forEach(element -> {
+			if (currentPath != null && currentPath.stream().anyMatch(current -> element.getId().equals(current.getId()))) {
+				return;
+			}
+			containersByAncestor.computeIfPresent(KeyFactory.stringToKey(element.getId()), (id, containerIds) -> {
+				containerIds.remove(containerId);
+				return containerIds.isEmpty() ? null : containerIds;
+			});
+		});
+	}
+
+	@Override
+	public void fireChangeMessage(ChangeMessage message) {
+		if (ObjectType.ENTITY != message.getObjectType()) {
+			return;
+		}
+		// A move, rename or delete changes the path of all the containers under the entity
+		if (ChangeType.UPDATE == message.getChangeType() || ChangeType.DELETE == message.getChangeType()) {
+			invalidate(KeyFactory.stringToKey(message.getObjectId()));
+		}
+	}
+
+	@Override
+	public void fireLocalStackMessage(LocalStackMessage message) {
+		// Nothing to do
+	}
+
+	private static List<NameIdType> copy(List<NameIdType> path) {
+		return path.stream()
+			.map(element -> new NameIdType().withId(element.getId()).withName(element.getName()).withType(element.getType()))
+			.collect(Collectors.toList());
+	}
+
+}
@@ -0,0 +1,87 @@
+package org.sagebionetworks.repo.model.dbo.dao;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.table.SubType;
+
+/**
+ * DAO for the persisted checksums of the entities used to reconcile the entity replication. The entities are grouped in buckets by id
+ * (<code>FLOOR(ID/BUCKET_SIZE)</code>), and for each bucket the sum of the checksums of the children of each parent and type is stored.
+ * A bucket is marked as dirty when any of its entities might have changed and its checksums are only up to date once recomputed.
+ *
+ */
+public interface EntityChecksumBucketDao {
+
+	/**
+	 * The size of the range of ids covered by each bucket
+	 */
+	long BUCKET_SIZE = 100_000L;
+
+	/**
+	 * The persisted checksums are computed once for all the reconciliations so they use a constant salt
+	 */
+	long BUCKET_SALT = 0L;
+
+	/**
+	 * @return The number of the last change that was applied to the status of the buckets, empty if the buckets were never initialized
+	 */
+	Optional<Long> getLastChangeNumber();
+
+	/**
+	 * Set the number of the last change that was applied to the status of the buckets
+	 * 
+	 * @param changeNumber
+	 */
+	void setLastChangeNumber(long changeNumber);
+
+	/**
+	 * @return The bucket of the entity with the largest id
+	 */
+	long getMaxBucket();
+
+	/**
+	 * Mark the given buckets as dirty, so that they are recomputed
+	 * 
+	 * @param buckets
+	 */
+	void markDirty(Collection<Long> buckets);
+
+	/**
+	 * @param limit
+	 * @return Up to limit buckets that are dirty, ordered by bucket
+	 */
+	List<Long> getDirtyBuckets(long limit);
+
+	/**
+	 * @param parentIds
+	 * @return The buckets that currently contain at least one of the children of the given parents
+	 */
+	Set<Long> getBucketsForParents(Collection<Long> parentIds);
+
+	/**
+	 * Recompute the checksums of all the entities in the given bucket from the NODE table and marks the bucket as clean.
+	 * 
+	 * @param bucket
+	 */
+	void recomputeBucket(long bucket);
+
+	/**
+	 * Get the checksum of each bucket for the children of the given parents with the given types. The id of each of the returned
+	 * {@link IdAndChecksum} is the bucket number, ordered by bucket ascending. The checksums are computed with the {@link #BUCKET_SALT}.
+	 * 
+	 * @param parentIds
+	 * @param subTypes
+	 * @return
+	 */
+	List<IdAndChecksum> getBucketChecksums(Set<Long> parentIds, Set<SubType> subTypes);
+
+	/**
+	 * Removes all the buckets and their status
+	 */
+	void clear();
+
+}
@@ -0,0 +1,188 @@
+package org.sagebionetworks.repo.model.dbo.dao;
+
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_ENTITY_CHECKSUM_BUCKET_BUCKET;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_ENTITY_CHECKSUM_BUCKET_CHECK_SUM;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_ENTITY_CHECKSUM_BUCKET_NODE_TYPE;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_ENTITY_CHECKSUM_BUCKET_PARENT_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_ENTITY_CHECKSUM_BUCKET_STATUS_BUCKET;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_ENTITY_CHECKSUM_BUCKET_STATUS_DIRTY;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_ENTITY_CHECKSUM_BUCKET_SYNCH_CHANGE_NUM;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_ENTITY_CHECKSUM_BUCKET_SYNCH_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_NODE_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_NODE_PARENT_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_NODE_TYPE;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_ENTITY_CHECKSUM_BUCKET;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_ENTITY_CHECKSUM_BUCKET_STATUS;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_ENTITY_CHECKSUM_BUCKET_SYNCH;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_NODE;
+
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.NodeConstants;
+import org.sagebionetworks.repo.model.table.SubType;
+import org.sagebionetworks.repo.transactions.WriteTransaction;
+import org.sagebionetworks.util.ValidateArgument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class EntityChecksumBucketDaoImpl implements EntityChecksumBucketDao {
+
+	private static final long SYNCH_ID = 1L;
+
+	private static final String SELECT_LAST_CHANGE_NUMBER_SQL = "SELECT " + COL_ENTITY_CHECKSUM_BUCKET_SYNCH_CHANGE_NUM + " FROM "
+			+ TABLE_ENTITY_CHECKSUM_BUCKET_SYNCH + " WHERE " + COL_ENTITY_CHECKSUM_BUCKET_SYNCH_ID + " = :id";
+
+	private static final String SET_LAST_CHANGE_NUMBER_SQL = "INSERT INTO " + TABLE_ENTITY_CHECKSUM_BUCKET_SYNCH + " ("
+			+ COL_ENTITY_CHECKSUM_BUCKET_SYNCH_ID + ", " + COL_ENTITY_CHECKSUM_BUCKET_SYNCH_CHANGE_NUM + ") VALUES (:id, :changeNumber)"
+			+ " ON DUPLICATE KEY UPDATE " + COL_ENTITY_CHECKSUM_BUCKET_SYNCH_CHANGE_NUM + " = :changeNumber";
+
+	private static final String SELECT_MAX_BUCKET_SQL = "SELECT FLOOR(MAX(" + COL_NODE_ID + ") / :bucketSize) FROM " + TABLE_NODE;
+
+	private static final String MARK_DIRTY_SQL = "INSERT INTO " + TABLE_ENTITY_CHECKSUM_BUCKET_STATUS + " ("
+			+ COL_ENTITY_CHECKSUM_BUCKET_STATUS_BUCKET + ", " + COL_ENTITY_CHECKSUM_BUCKET_STATUS_DIRTY + ") VALUES (:bucket, TRUE)"
+			+ " ON DUPLICATE KEY UPDATE " + COL_ENTITY_CHECKSUM_BUCKET_STATUS_DIRTY + " = TRUE";
+
+	private static final String MARK_CLEAN_SQL = "UPDATE " + TABLE_ENTITY_CHECKSUM_BUCKET_STATUS + " SET "
+			+ COL_ENTITY_CHECKSUM_BUCKET_STATUS_DIRTY + " = FALSE WHERE " + COL_ENTITY_CHECKSUM_BUCKET_STATUS_BUCKET + " = :bucket";
+
+	private static final String SELECT_DIRTY_BUCKETS_SQL = "SELECT " + COL_ENTITY_CHECKSUM_BUCKET_STATUS_BUCKET + " FROM "
+			+ TABLE_ENTITY_CHECKSUM_BUCKET_STATUS + " WHERE " + COL_ENTITY_CHECKSUM_BUCKET_STATUS_DIRTY + " = TRUE ORDER BY "
+			+ COL_ENTITY_CHECKSUM_BUCKET_STATUS_BUCKET + " LIMIT :limit";
+
+	private static final String SELECT_BUCKETS_FOR_PARENTS_SQL = "SELECT DISTINCT FLOOR(" + COL_NODE_ID + " / :bucketSize) FROM "
+			+ TABLE_NODE + " WHERE " + COL_NODE_PARENT_ID + " IN (:parentIds)";
+
+	private static final String DELETE_BUCKET_SQL = "DELETE FROM " + TABLE_ENTITY_CHECKSUM_BUCKET + " WHERE "
+			+ COL_ENTITY_CHECKSUM_BUCKET_BUCKET + " = :bucket";
+
+	// The checksum of each entity in the bucket is computed exactly as for the full reconciliation, then summed by parent and type
+	private static final String INSERT_BUCKET_SQL = "INSERT INTO " + TABLE_ENTITY_CHECKSUM_BUCKET + " ("
+			+ COL_ENTITY_CHECKSUM_BUCKET_PARENT_ID + ", " + COL_ENTITY_CHECKSUM_BUCKET_NODE_TYPE + ", "
+			+ COL_ENTITY_CHECKSUM_BUCKET_BUCKET + ", " + COL_ENTITY_CHECKSUM_BUCKET_CHECK_SUM + ")"
+			+ " SELECT N." + COL_NODE_PARENT_ID + ", N." + COL_NODE_TYPE + ", :bucket, SUM(C.CHECK_SUM) FROM ("
+			+ String.format(NodeDAOImpl.SQL_SELECT_ID_AND_CHCKSUM_TEMPLATE, "N.ID >= :minId AND N.ID < :maxId") + ") C"
+			+ " JOIN " + TABLE_NODE + " N ON (N." + COL_NODE_ID + " = C.ID)"
+			+ " WHERE N." + COL_NODE_PARENT_ID + " IS NOT NULL"
+			+ " GROUP BY N." + COL_NODE_PARENT_ID + ", N." + COL_NODE_TYPE;
+
+	private static final String SELECT_BUCKET_CHECKSUMS_SQL = "SELECT " + COL_ENTITY_CHECKSUM_BUCKET_BUCKET + ", SUM("
+			+ COL_ENTITY_CHECKSUM_BUCKET_CHECK_SUM + ") AS " + COL_ENTITY_CHECKSUM_BUCKET_CHECK_SUM + " FROM " + TABLE_ENTITY_CHECKSUM_BUCKET
+			+ " WHERE " + COL_ENTITY_CHECKSUM_BUCKET_PARENT_ID + " IN (:parentIds) AND " + COL_ENTITY_CHECKSUM_BUCKET_NODE_TYPE
+			+ " IN (:subTypes) GROUP BY " + COL_ENTITY_CHECKSUM_BUCKET_BUCKET + " ORDER BY " + COL_ENTITY_CHECKSUM_BUCKET_BUCKET;
+
+	private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+	@Autowired
+	public EntityChecksumBucketDaoImpl(NamedParameterJdbcTemplate namedJdbcTemplate) {
+		this.namedJdbcTemplate = namedJdbcTemplate;
+	}
+
+	@Override
+	public Optional<Long> getLastChangeNumber() {
+		List<Long> result = namedJdbcTemplate.queryForList(SELECT_LAST_CHANGE_NUMBER_SQL, new MapSqlParameterSource("id", SYNCH_ID),
+				Long.class);
+		return result.stream().findFirst();
+	}
+
+	@Override
+	@WriteTransaction
+	public void setLastChangeNumber(long changeNumber) {
+		MapSqlParameterSource params = new MapSqlParameterSource()
+			.addValue("id", SYNCH_ID)
+			.addValue("changeNumber", changeNumber);
+		namedJdbcTemplate.update(SET_LAST_CHANGE_NUMBER_SQL, params);
+	}
+
+	@Override
+	public long getMaxBucket() {
+		Long maxBucket = namedJdbcTemplate.queryForObject(SELECT_MAX_BUCKET_SQL, new MapSqlParameterSource("bucketSize", BUCKET_SIZE),
+				Long.class);
+		return maxBucket == null ? 0L : maxBucket;
+	}
+
+	@Override
+	@WriteTransaction
+	public void markDirty(Collection<Long> buckets) {
+		ValidateArgument.required(buckets, "buckets");
+		if (buckets.isEmpty()) {
+			return;
+		}
+		// Sorted so that concurrent updates lock the rows in the same order
+		SqlParameterSource[] batch = new TreeSet<>(buckets).stream()
+			.map(bucket -> new MapSqlParameterSource("bucket", bucket))
+			.toArray(SqlParameterSource[]::new);
+		namedJdbcTemplate.batchUpdate(MARK_DIRTY_SQL, batch);
+	}
+
+	@Override
+	public List<Long> getDirtyBuckets(long limit) {
+		ValidateArgument.requirement(limit > 0, "The limit must be greater than zero");
+		return namedJdbcTemplate.queryForList(SELECT_DIRTY_BUCKETS_SQL, new MapSqlParameterSource("limit", limit), Long.class);
+	}
+
+	@Override
+	public Set<Long> getBucketsForParents(Collection<Long> parentIds) {
+		ValidateArgument.required(parentIds, "parentIds");
+		if (parentIds.isEmpty()) {
+			return Collections.emptySet();
+		}
+		MapSqlParameterSource params = new MapSqlParameterSource()
+			.addValue("bucketSize", BUCKET_SIZE)
+			.addValue("parentIds", parentIds);
+		return new HashSet<>(namedJdbcTemplate.queryForList(SELECT_BUCKETS_FOR_PARENTS_SQL, params, Long.class));
+	}
+
+	@Override
+	@WriteTransaction
+	public void recomputeBucket(long bucket) {
+		MapSqlParameterSource params = new MapSqlParameterSource()
+			.addValue("bucket", bucket)
+			.addValue("salt", BUCKET_SALT)
+			.addValue("trashId", NodeDAOImpl.TRASH_FOLDER_ID)
+			.addValue("depth", NodeConstants.MAX_PATH_DEPTH)
+			.addValue("minId", bucket * BUCKET_SIZE)
+			.addValue("maxId", (bucket + 1) * BUCKET_SIZE);
+		namedJdbcTemplate.update(DELETE_BUCKET_SQL, params);
+		namedJdbcTemplate.update(INSERT_BUCKET_SQL, params);
+		namedJdbcTemplate.update(MARK_CLEAN_SQL, params);
+	}
+
+	@Override
+	public List<IdAndChecksum> getBucketChecksums(Set<Long> parentIds, Set<SubType> subTypes) {
+		ValidateArgument.required(parentIds, "parentIds");
+		ValidateArgument.required(subTypes, "subTypes");
+		ValidateArgument.requirement(!subTypes.isEmpty(), "Must provide at least one sub-type");
+		if (parentIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		MapSqlParameterSource params = new MapSqlParameterSource()
+			.addValue("parentIds", parentIds)
+			.addValue("subTypes", subTypes.stream().map(SubType::name).collect(Collectors.toList()));
+		return namedJdbcTemplate.query(SELECT_BUCKET_CHECKSUMS_SQL, params, (ResultSet rs, int rowNum) -> {
+			return new IdAndChecksum().withId(rs.getLong(COL_ENTITY_CHECKSUM_BUCKET_BUCKET))
+					.withChecksum(rs.getLong(COL_ENTITY_CHECKSUM_BUCKET_CHECK_SUM));
+		});
+	}
+
+	@Override
+	@WriteTransaction
+	public void clear() {
+		namedJdbcTemplate.update("DELETE FROM " + TABLE_ENTITY_CHECKSUM_BUCKET, Collections.emptyMap());
+		namedJdbcTemplate.update("DELETE FROM " + TABLE_ENTITY_CHECKSUM_BUCKET_STATUS, Collections.emptyMap());
+		namedJdbcTemplate.update("DELETE FROM " + TABLE_ENTITY_CHECKSUM_BUCKET_SYNCH, Collections.emptyMap());
+	}
+
+}
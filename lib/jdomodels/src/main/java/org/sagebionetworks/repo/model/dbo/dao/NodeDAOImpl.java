@@ -1,5 +1,9 @@
 package org.sagebionetworks.repo.model.dbo.dao;
 
+import static org.sagebionetworks.repo.model.jdo.AuthorizationSqlUtil.AUTHORIZATION_SQL_JOIN;
+import static org.sagebionetworks.repo.model.jdo.AuthorizationSqlUtil.AUTHORIZATION_SQL_TABLES;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_ACL_OWNER_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_ACL_OWNER_TYPE;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_DERIVED_ANNOTATIONS_ANNOS;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_FILES_BUCKET_NAME;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_FILES_CONTENT_MD5;
@@ -39,6 +43,8 @@ import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_REVISION
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_REVISION_REF_BLOB;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_REVISION_SCOPE_IDS;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_REVISION_SEARCH_ENABLED;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_RESOURCE_ACCESS_GROUP_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_RESOURCE_ACCESS_TYPE_ELEMENT;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_REVISION_USER_ANNOS_JSON;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.CONSTRAINT_UNIQUE_ALIAS;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.CONSTRAINT_UNIQUE_CHILD_NAME;
@@ -46,6 +52,7 @@ import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.FUNCTION_GET
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.FUNCTION_GET_ENTITY_PROJECT_ID;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.LIMIT_PARAM_NAME;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.OFFSET_PARAM_NAME;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_ACCESS_CONTROL_LIST;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_FILES;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_JSON_SCHEMA_OBJECT_BINDING;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_NODE;
@@ -66,6 +73,7 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -75,6 +83,7 @@ import org.apache.commons.lang3.NotImplementedException;
 import org.sagebionetworks.StackConfigurationSingleton;
 import org.sagebionetworks.ids.IdGenerator;
 import org.sagebionetworks.ids.IdType;
+import org.sagebionetworks.repo.model.ACCESS_TYPE;
 import org.sagebionetworks.repo.model.DatastoreException;
 import org.sagebionetworks.repo.model.EntityHeader;
 import org.sagebionetworks.repo.model.EntityRef;
@@ -98,6 +107,7 @@ import org.sagebionetworks.repo.model.Reference;
 import org.sagebionetworks.repo.model.VersionInfo;
 import org.sagebionetworks.repo.model.annotation.v2.Annotations;
 import org.sagebionetworks.repo.model.annotation.v2.AnnotationsV2Utils;
+import org.sagebionetworks.repo.model.ar.EffectiveAccessRequirementDao;
 import org.sagebionetworks.repo.model.dao.FileHandleMetadataType;
 import org.sagebionetworks.repo.model.dbo.DBOBasicDao;
 import org.sagebionetworks.repo.model.dbo.DDLUtilsImpl;
@@ -173,6 +183,9 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 	public static final String SQL_SELECT_ID_AND_CHECKSUM_OBJECTT_ID = String.format(SQL_SELECT_ID_AND_CHCKSUM_TEMPLATE,
 			"N.ID IN (:objectIds)");
 	
+	public static final String SQL_SELECT_ID_AND_CHECKSUM_PARENT_ID_IN_RANGE = String.format(SQL_SELECT_ID_AND_CHCKSUM_TEMPLATE,
+			"N.PARENT_ID IN (:parentIds) AND N.NODE_TYPE IN (:subTypes) AND N.ID >= :minId AND N.ID < :maxId");
+	
 	public static final String SQL_GET_ALL_CONTAINER_IDS = DDLUtilsImpl
 			.loadSQLFromClasspath("sql/GetAllContainerIds.sql");
 	
@@ -209,6 +222,9 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 	private static final String BIND_NODE_TYPES = "bNodeTypes";
 	private static final String BIND_LIMIT = "bLimit";
 	private static final String BIND_OFFSET = "bOffset";
+	private static final String BIND_GROUP_IDS = "bGroupIds";
+	private static final String BIND_LAST_SORT_VALUE = "bLastSortValue";
+	private static final String BIND_LAST_ID = "bLastId";
 	
 
 	private static final String SQL_SELECT_CHILD = "SELECT "+COL_NODE_ID
@@ -320,6 +336,34 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 	
 	public static final String SQL_ID_NOT_IN_SET = " AND N."+COL_NODE_ID+" NOT IN (:"+BIND_NODE_IDS+")";
 	
+	private static final String SQL_SELECT_VISIBLE_CHIDREN_TEMPLATE =
+			ENTITY_HEADER_SELECT+
+				" FROM "+JOIN_NODE_REVISION+
+				" WHERE N."+COL_NODE_PARENT_ID+" = :"+BIND_PARENT_ID+
+						" AND N."+COL_NODE_TYPE+" IN (:"+BIND_NODE_TYPES+")"+
+						" %1$s"+
+						" %2$s"+
+						" ORDER BY %3$s %4$s, N."+COL_NODE_ID+" %4$s"+
+						" LIMIT :"+BIND_LIMIT;
+	
+	/**
+	 * A child is visible when it is one of the benefactors the groups can read,
+	 * or when it has no ACL and therefore inherits from the parent.
+	 */
+	public static final String SQL_VISIBLE_TO_GROUPS = " AND (N."+COL_NODE_ID+" IN ("+
+				"SELECT acl."+COL_ACL_OWNER_ID+" FROM "+AUTHORIZATION_SQL_TABLES+
+					" WHERE "+AUTHORIZATION_SQL_JOIN+
+					" AND acl."+COL_ACL_OWNER_TYPE+" = '"+ObjectType.ENTITY.name()+"'"+
+					" AND ra."+COL_RESOURCE_ACCESS_GROUP_ID+" IN (:"+BIND_GROUP_IDS+")"+
+					" AND at."+COL_RESOURCE_ACCESS_TYPE_ELEMENT+" = '"+ACCESS_TYPE.READ.name()+"')"+
+			" OR NOT EXISTS (SELECT 1 FROM "+TABLE_ACCESS_CONTROL_LIST+" A"+
+					" WHERE A."+COL_ACL_OWNER_ID+" = N."+COL_NODE_ID+
+					" AND A."+COL_ACL_OWNER_TYPE+" = '"+ObjectType.ENTITY.name()+"'))";
+	
+	// Seeks past the last row of the previous page: %1$s is the sort column and %2$s the comparison operator.
+	private static final String SQL_KEYSET_TEMPLATE = " AND (%1$s %2$s :"+BIND_LAST_SORT_VALUE+
+			" OR (%1$s = :"+BIND_LAST_SORT_VALUE+" AND N."+COL_NODE_ID+" %2$s :"+BIND_LAST_ID+"))";
+	
 	private static final String SQL_SELECT_WITHOUT_ANNOTATIONS = "SELECT N.*, R." + COL_REVISION_OWNER_NODE + ", R."
 			+ COL_REVISION_NUMBER + ", R." + COL_REVISION_ACTIVITY_ID + ", R." + COL_REVISION_DESCRIPTION + ", R." + COL_REVISION_LABEL + ", R."
 			+ COL_REVISION_COMMENT + ", R." + COL_REVISION_MODIFIED_BY + ", R." + COL_REVISION_MODIFIED_ON + ", R."
@@ -331,6 +375,9 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 			+ " N, " + TABLE_REVISION + " R WHERE N." + COL_NODE_ID + "= R." + COL_REVISION_OWNER_NODE + " AND N."
 			+ COL_NODE_CURRENT_REV + " = R." + COL_REVISION_NUMBER + " AND N." + COL_NODE_ID + "= ?";
 	
+	private static final String SQL_SELECT_CURRENT_NODES = SQL_SELECT_WITHOUT_ANNOTATIONS + " FROM " + JOIN_NODE_REVISION
+			+ " WHERE N." + COL_NODE_ID + " IN (:" + BIND_NODE_IDS + ")";
+	
 	private static final String SQL_SELECT_NODE_VERSION = SQL_SELECT_WITHOUT_ANNOTATIONS + " FROM " + TABLE_NODE
 			+ " N, " + TABLE_REVISION + " R WHERE N." + COL_NODE_ID + "= R." + COL_REVISION_OWNER_NODE + " AND R."
 			+ COL_REVISION_NUMBER + " = ? AND N." + COL_NODE_ID + "= ?";
@@ -362,6 +409,7 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 
 	private static final String SELECT_ANNOTATIONS_ONLY_FROM_AND_WHERE_CLAUSE_PREFIX = " FROM  "+TABLE_NODE+" N, "+TABLE_REVISION+" R WHERE N."+COL_NODE_ID+" = :"+COL_NODE_ID +" AND R."+COL_REVISION_OWNER_NODE+" = N."+COL_NODE_ID+" AND R."+COL_REVISION_NUMBER + "=";
 	private static final String SELECT_USER_ANNOTATIONS_ONLY_PREFIX = "SELECT N."+COL_NODE_ID+", N."+COL_NODE_ETAG+", R."+COL_REVISION_USER_ANNOS_JSON+" FROM  "+TABLE_NODE+" N, "+TABLE_REVISION+" R WHERE N."+COL_NODE_ID+" = ? AND R."+COL_REVISION_OWNER_NODE+" = N."+COL_NODE_ID+" AND R."+COL_REVISION_NUMBER + " = ";
+	private static final String SQL_SELECT_CURRENT_USER_ANNOTATIONS = "SELECT N."+COL_NODE_ID+", N."+COL_NODE_ETAG+", R."+COL_REVISION_USER_ANNOS_JSON+" FROM "+JOIN_NODE_REVISION+" WHERE N."+COL_NODE_ID+" IN (:"+BIND_NODE_IDS+")";
 	private static final String CANNOT_FIND_A_NODE_WITH_ID = "Cannot find a node with id: ";
 	private static final String CANNOT_FIND_A_NODE_WITH_ID_AND_VERSION = "Cannot find a node with id %s and version %d";
 	private static final String GET_CURRENT_REV_NUMBER_SQL = "SELECT "+COL_NODE_CURRENT_REV+" FROM "+TABLE_NODE+" WHERE "+COL_NODE_ID+" = ?";
@@ -442,6 +490,25 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 			+ TABLE_NODE + " AS N JOIN PATH ON (N." + COL_NODE_ID + " = PATH." + COL_NODE_PARENT_ID + ")" + " WHERE N."
 			+ COL_NODE_ID + " IS NOT NULL AND DISTANCE < "+NodeConstants.MAX_PATH_DEPTH_PLUS_ONE+" )" + " SELECT %1s FROM PATH ORDER BY DISTANCE DESC";
 	
+	/**
+	 * The same as the {@link #PATH_QUERY_TEMPLATE} for a set of entities, each
+	 * ancestor is tagged with the id of the entity it was reached from (START_ID).
+	 * The results are ordered by entity and from root to leaf.
+	 */
+	private static final String SQL_SELECT_PATHS = "WITH RECURSIVE PATH (START_ID, " + COL_NODE_ID + ", " + COL_NODE_NAME + ", "
+			+ COL_NODE_TYPE + ", " + COL_NODE_PARENT_ID + ", DISTANCE) AS " + "(SELECT " + COL_NODE_ID + ", " + COL_NODE_ID + ", "
+			+ COL_NODE_NAME + ", " + COL_NODE_TYPE + ", " + COL_NODE_PARENT_ID + ", 1 FROM " + TABLE_NODE
+			+ " AS N WHERE " + COL_NODE_ID + " IN (:" + BIND_NODE_IDS + ")" + " UNION ALL" + " SELECT PATH.START_ID, N." + COL_NODE_ID + ", N."
+			+ COL_NODE_NAME + ", N." + COL_NODE_TYPE + ", N." + COL_NODE_PARENT_ID + ", PATH.DISTANCE+ 1 FROM "
+			+ TABLE_NODE + " AS N JOIN PATH ON (N." + COL_NODE_ID + " = PATH." + COL_NODE_PARENT_ID + ")" + " WHERE N."
+			+ COL_NODE_ID + " IS NOT NULL AND DISTANCE < "+NodeConstants.MAX_PATH_DEPTH_PLUS_ONE+" )"
+			+ " SELECT START_ID, " + COL_NODE_ID + ", " + COL_NODE_NAME + ", " + COL_NODE_TYPE + " FROM PATH ORDER BY START_ID, DISTANCE DESC";
+	
+	private static final String SQL_SELECT_PARENT_TYPE_NAMES = "SELECT " + COL_NODE_ID + ", " + COL_NODE_PARENT_ID + ", " + COL_NODE_TYPE + ", "
+			+ COL_NODE_NAME + " FROM " + TABLE_NODE + " WHERE " + COL_NODE_ID + " IN (:" + BIND_NODE_IDS + ")";
+	
+	private static final String PROJECT_TYPE_NAME = EntityTypeUtils.getEntityTypeClassName(EntityType.project);
+	
 	private static final String UPDATE_REVISION_FILE_HANDLE = "UPDATE " + TABLE_REVISION + " SET " + COL_REVISION_FILE_HANDLE_ID
 			+ " = ? WHERE " + COL_REVISION_OWNER_NODE + " = ? AND " + COL_REVISION_NUMBER + " = ?";
 
@@ -511,11 +578,18 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 	@Autowired
 	private DBOBasicDao dboBasicDao;
 	
+	@Autowired
+	private EffectiveAccessRequirementDao effectiveAccessRequirementDao;
+	
+	@Autowired
+	private EntityAncestorCache entityAncestorCache;
+	
 	private final Long ROOT_NODE_ID = Long.parseLong(StackConfigurationSingleton.singleton().getRootFolderEntityId());
 	
 	private static final String BIND_ID_KEY = "bindId";
 	private static final String SQL_ETAG_WITHOUT_LOCK = "SELECT "+COL_NODE_ETAG+" FROM "+TABLE_NODE+" WHERE ID = ?";
 	private static final String SQL_ETAG_FOR_UPDATE = SQL_ETAG_WITHOUT_LOCK+" FOR UPDATE";
+	private static final String SQL_SELECT_PARENT_ID = "SELECT "+COL_NODE_PARENT_ID+" FROM "+TABLE_NODE+" WHERE "+COL_NODE_ID+" = ?";
 	
 	private static final String SQL_GET_ALL_VERSION_NUMBERS = "SELECT "+COL_REVISION_NUMBER+" FROM "+TABLE_REVISION+" WHERE "+COL_REVISION_OWNER_NODE +" = ? ORDER BY "+COL_REVISION_NUMBER+" DESC";
 
@@ -533,6 +607,28 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 	
 	private static final String SQL_DELETE_BY_ID = "DELETE FROM " + TABLE_NODE + " WHERE ID = ?";
 	
+	// The containers (projects and folders) of the sub-tree of :rootId, including the root itself, with their distance from the root
+	private static final String SQL_SUB_TREE_CONTAINERS = "WITH RECURSIVE CONTAINERS (ID, DISTANCE) AS ("
+			+ " SELECT " + COL_NODE_ID + ", 0 FROM " + TABLE_NODE + " WHERE " + COL_NODE_ID + " = :rootId"
+			+ " UNION ALL"
+			+ " SELECT N." + COL_NODE_ID + ", C.DISTANCE + 1 FROM CONTAINERS AS C JOIN " + TABLE_NODE + " AS N"
+			+ " ON (C.ID = N." + COL_NODE_PARENT_ID + " AND N." + COL_NODE_TYPE + " IN ('project','folder'))"
+			+ " WHERE C.DISTANCE < " + NodeConstants.MAX_PATH_DEPTH_PLUS_ONE
+			+ ")";
+	
+	private static final String SQL_SELECT_SUB_TREE_CONTAINER_IDS_PAGE = SQL_SUB_TREE_CONTAINERS
+			+ " SELECT ID FROM CONTAINERS WHERE ID > :afterId ORDER BY ID LIMIT :" + BIND_LIMIT;
+	
+	private static final String SQL_SELECT_SUB_TREE_PARENT_IDS_DEEPEST_FIRST = SQL_SUB_TREE_CONTAINERS
+			+ " SELECT C.ID FROM CONTAINERS C WHERE EXISTS (SELECT 1 FROM " + TABLE_NODE + " N WHERE N." + COL_NODE_PARENT_ID + " = C.ID)"
+			+ " ORDER BY C.DISTANCE DESC, C.ID LIMIT :" + BIND_LIMIT;
+	
+	private static final String SQL_SELECT_CHILD_NON_CONTAINER_IDS_LIMIT = "SELECT " + COL_NODE_ID + " FROM " + TABLE_NODE
+			+ " WHERE " + COL_NODE_PARENT_ID + " IN (:parentIds) AND " + COL_NODE_TYPE + " NOT IN ('project','folder') LIMIT :" + BIND_LIMIT;
+	
+	private static final String SQL_SELECT_CHILD_CONTAINER_IDS_LIMIT = "SELECT " + COL_NODE_ID + " FROM " + TABLE_NODE
+			+ " WHERE " + COL_NODE_PARENT_ID + " IN (:parentIds) AND " + COL_NODE_TYPE + " IN ('project','folder') LIMIT :" + BIND_LIMIT;
+	
 	@WriteTransaction
 	@Override
 	public String createNew(Node dto){
@@ -676,6 +772,15 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 		}
 	}
 	
+	@Override
+	public List<Node> getNodes(List<Long> nodeIds) {
+		ValidateArgument.required(nodeIds, "nodeIds");
+		if (nodeIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		return namedParameterJdbcTemplate.query(SQL_SELECT_CURRENT_NODES, new MapSqlParameterSource(BIND_NODE_IDS, nodeIds), NODE_MAPPER);
+	}
+	
 	@Override
 	public Node getNodeForVersion(String id, Long versionNumber){
 		if(id == null) throw new IllegalArgumentException("Id cannot be null");
@@ -736,6 +841,48 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 				+ " SELECT ID FROM NODES ORDER BY DISTANCE DESC LIMIT ?", Long.class, parentId, limit);
 	}
 	
+	@Override
+	public List<Long> getSubTreeContainerIdsPage(Long rootId, Long afterId, long limit) {
+		ValidateArgument.required(rootId, "rootId");
+		ValidateArgument.requirement(limit > 0, "The limit must be greater than 0");
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		params.addValue("rootId", rootId);
+		params.addValue("afterId", afterId == null ? -1L : afterId);
+		params.addValue(BIND_LIMIT, limit);
+		return namedParameterJdbcTemplate.queryForList(SQL_SELECT_SUB_TREE_CONTAINER_IDS_PAGE, params, Long.class);
+	}
+	
+	@Override
+	public List<Long> getSubTreeParentIdsDeepestFirst(Long rootId, int limit) {
+		ValidateArgument.required(rootId, "rootId");
+		ValidateArgument.requirement(limit > 0, "The limit must be greater than 0");
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		params.addValue("rootId", rootId);
+		params.addValue(BIND_LIMIT, limit);
+		return namedParameterJdbcTemplate.queryForList(SQL_SELECT_SUB_TREE_PARENT_IDS_DEEPEST_FIRST, params, Long.class);
+	}
+	
+	@NewWriteTransaction
+	@Override
+	public int deleteChildren(List<Long> parentIds, int limit) {
+		ValidateArgument.required(parentIds, "parentIds");
+		ValidateArgument.requirement(limit > 0, "The limit must be greater than 0");
+		if (parentIds.isEmpty()) {
+			return 0;
+		}
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		params.addValue("parentIds", parentIds);
+		params.addValue(BIND_LIMIT, limit);
+		List<Long> children = new ArrayList<>(namedParameterJdbcTemplate.queryForList(SQL_SELECT_CHILD_NON_CONTAINER_IDS_LIMIT, params, Long.class));
+		// The child containers are only deleted once all the other children are gone, so that their delete cascades to empty sub-trees
+		if (children.size() < limit) {
+			params.addValue(BIND_LIMIT, limit - children.size());
+			children.addAll(namedParameterJdbcTemplate.queryForList(SQL_SELECT_CHILD_CONTAINER_IDS_LIMIT, params, Long.class));
+		}
+		deleteBatch(children);
+		return children.size();
+	}
+	
 	private void deleteBatch(List<Long> ids) {
 		if (ids.isEmpty()) {
 			return;
@@ -965,6 +1112,12 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 		String newName = updatedNode.getName();
 		Long newParentId = NodeUtils.translateNodeId(updatedNode.getParentId());
 		String newAlias = NodeUtils.translateAlias(updatedNode.getAlias());
+		Long currentParentId;
+		try {
+			currentParentId = this.jdbcTemplate.queryForObject(SQL_SELECT_PARENT_ID, Long.class, nodeId);
+		} catch (EmptyResultDataAccessException e) {
+			throw new NotFoundException(String.format(RESOURCE_DOES_NOT_EXIST, updatedNode.getId()));
+		}
 
 		// Update the node.
 		try {
@@ -974,6 +1127,10 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 			checkExceptionDetails(updatedNode.getName(), updatedNode.getAlias(), updatedNode.getParentId(),
 					new IllegalArgumentException(e));
 		}
+		// The node was moved, the access requirements inherited by the node and its descendants might change
+		if (!Objects.equals(currentParentId, newParentId)) {
+			effectiveAccessRequirementDao.clearSubtrees(Collections.singletonList(nodeId));
+		}
 		// update the revision
 		long currentRevision = getCurrentRevisionNumber(updatedNode.getId());
 		Long newActivity = NodeUtils.translateActivityId(updatedNode.getActivityId());
@@ -1031,6 +1188,22 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 		}
 	}
 
+	@Override
+	public Map<Long, Annotations> getCurrentUserAnnotations(List<Long> nodeIds) {
+		ValidateArgument.required(nodeIds, "nodeIds");
+		Map<Long, Annotations> results = new HashMap<>(nodeIds.size());
+		if (nodeIds.isEmpty()) {
+			return results;
+		}
+		namedParameterJdbcTemplate.query(SQL_SELECT_CURRENT_USER_ANNOTATIONS, new MapSqlParameterSource(BIND_NODE_IDS, nodeIds), (RowCallbackHandler) (ResultSet rs) -> {
+			Annotations userAnnotations = ANNOTATIONS_V2_ROW_MAPPER.mapRow(rs, rs.getRow());
+			// Remove the eTags (See PLFM-1420)
+			userAnnotations.setEtag(NodeConstants.ZERO_E_TAG);
+			results.put(rs.getLong(COL_NODE_ID), userAnnotations);
+		});
+		return results;
+	}
+
 	@Override
 	public Annotations getUserAnnotationsForVersion(final String id, Long versionNumber){
 		ValidateArgument.requiredNotEmpty(id, "id");
@@ -1340,6 +1513,95 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 		}
 		return pathIds;
 	}
+	
+	@Override
+	public Map<Long, List<NameIdType>> getEntityPaths(Collection<Long> entityIds) {
+		ValidateArgument.required(entityIds, "entityIds");
+		if (entityIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<String, Object> params = Collections.singletonMap(BIND_NODE_IDS, new HashSet<>(entityIds));
+		List<ParentTypeName> nodes = namedParameterJdbcTemplate.query(SQL_SELECT_PARENT_TYPE_NAMES, params, (ResultSet rs, int rowNum) -> {
+			ParentTypeName node = new ParentTypeName();
+			node.setId(rs.getLong(COL_NODE_ID));
+			node.setParentId(rs.getLong(COL_NODE_PARENT_ID));
+			if (rs.wasNull()) {
+				node.setParentId(null);
+			}
+			node.setType(EntityType.valueOf(rs.getString(COL_NODE_TYPE)));
+			node.setName(rs.getString(COL_NODE_NAME));
+			return node;
+		});
+		
+		// The path of each entity is the path of its parent followed by the entity itself
+		Set<Long> parentIds = nodes.stream().map(ParentTypeName::getParentId).filter(Objects::nonNull).collect(Collectors.toSet());
+		Map<Long, List<NameIdType>> parentPaths = getContainerPaths(parentIds);
+		
+		Map<Long, List<NameIdType>> results = new HashMap<>(nodes.size());
+		
+		for (ParentTypeName node : nodes) {
+			List<NameIdType> path = new ArrayList<>();
+			if (node.getParentId() != null) {
+				List<NameIdType> parentPath = parentPaths.get(node.getParentId());
+				if (parentPath == null) {
+					// The parent was deleted concurrently
+					continue;
+				}
+				path.addAll(parentPath);
+			}
+			path.add(new NameIdType().withId(KeyFactory.keyToString(node.getId())).withName(node.getName())
+					.withType(EntityTypeUtils.getEntityTypeClassName(node.getType())));
+			validatePath(KeyFactory.keyToString(node.getId()), path);
+			results.put(node.getId(), path);
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * Get the paths of the given containers, the paths that are not cached are
+	 * resolved with a single query and added to the cache.
+	 * 
+	 * @param containerIds
+	 * @return
+	 */
+	private Map<Long, List<NameIdType>> getContainerPaths(Set<Long> containerIds) {
+		if (containerIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<Long, List<NameIdType>> paths = new HashMap<>(entityAncestorCache.getContainerPaths(containerIds));
+		Set<Long> missingIds = containerIds.stream().filter(id -> !paths.containsKey(id)).collect(Collectors.toSet());
+		if (missingIds.isEmpty()) {
+			return paths;
+		}
+		Map<Long, List<NameIdType>> missingPaths = new HashMap<>(missingIds.size());
+		Map<String, Object> params = Collections.singletonMap(BIND_NODE_IDS, missingIds);
+		namedParameterJdbcTemplate.query(SQL_SELECT_PATHS, params, (RowCallbackHandler) (ResultSet rs) -> {
+			missingPaths.computeIfAbsent(rs.getLong("START_ID"), id -> new ArrayList<>()).add(NAME_ID_TYPE_ROWMAPPER.mapRow(rs, 0));
+		});
+		missingPaths.forEach((containerId, path) -> {
+			validatePath(KeyFactory.keyToString(containerId), path);
+		});
+		entityAncestorCache.putContainerPaths(missingPaths);
+		paths.putAll(missingPaths);
+		return paths;
+	}
+	
+	@Override
+	public Map<Long, Long> getProjectIds(Collection<Long> entityIds) {
+		Map<Long, List<NameIdType>> paths = getEntityPaths(entityIds);
+		Map<Long, Long> results = new HashMap<>(paths.size());
+		paths.forEach((entityId, path) -> {
+			// Similar to the getEntityProjectId function, the project is the closest project in the path
+			for (int i = path.size() - 1; i >= 0; i--) {
+				if (PROJECT_TYPE_NAME.equals(path.get(i).getType())) {
+					results.put(entityId, KeyFactory.stringToKey(path.get(i).getId()));
+					break;
+				}
+			}
+		});
+		return results;
+	}
 
 	@Override
 	public String getNodeIdForPath(String path) throws DatastoreException {
@@ -1778,6 +2040,28 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 		return KeyFactory.keyToString(benefactorId);
 	}
 
+	@Override
+	public Map<Long, Long> getBenefactors(List<Long> nodeIds) {
+		ValidateArgument.required(nodeIds, "nodeIds");
+		Map<Long, Long> results = new HashMap<>(nodeIds.size());
+		if (nodeIds.isEmpty()) {
+			return results;
+		}
+		namedParameterJdbcTemplate.query(SQL_SELECT_BENEFACTORS, new MapSqlParameterSource(BIND_NODE_IDS, nodeIds), (RowCallbackHandler) (ResultSet rs) -> {
+			Long id = rs.getLong(COL_NODE_ID);
+			Long benefactorId = rs.getLong(BENEFACTOR_ALIAS);
+			if (rs.wasNull()) {
+				// The benefactor is null when the node does not exist.
+				return;
+			}
+			if (benefactorId < 0) {
+				throw new IllegalStateException("Infinite loop detected for: " + KeyFactory.keyToString(id));
+			}
+			results.put(id, benefactorId);
+		});
+		return results;
+	}
+
 	@Override
 	public Set<Long> getFileHandleIdsAssociatedWithFileEntity(List<Long> fileHandleIds, long entityId) {
 		ValidateArgument.required(fileHandleIds, "fileHandleIds");
@@ -1934,6 +2218,50 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 		return namedParameterJdbcTemplate.query(sql,parameters,ENTITY_HEADER_ROWMAPPER);
 	}
 	
+	@Override
+	public List<EntityHeader> getVisibleChildren(String parentId, List<EntityType> includeTypes,
+			Set<Long> visibleToGroups, SortBy sortBy, Direction sortDirection, Long lastId, String lastSortValue,
+			long limit) {
+		ValidateArgument.required(parentId, "parentId");
+		ValidateArgument.required(includeTypes, "includeTypes");
+		ValidateArgument.requirement(!includeTypes.isEmpty(), "Must have at least one type for includeTypes");
+		List<String> typeNames = getTypeNames(includeTypes);
+		ValidateArgument.requirement(!typeNames.isEmpty(), "Must have at least one valid type name for includeTypes");
+		ValidateArgument.required(sortDirection, "sortDirection");
+		ValidateArgument.requirement((lastId == null) == (lastSortValue == null),
+				"Both lastId and lastSortValue must be provided for a next page");
+		String sortColumn = getFragmentSortColumn(sortBy);
+		Map<String, Object> parameters = new HashMap<String, Object>(6);
+		parameters.put(BIND_PARENT_ID, KeyFactory.stringToKey(parentId));
+		parameters.put(BIND_NODE_TYPES, typeNames);
+		parameters.put(BIND_GROUP_IDS, visibleToGroups);
+		parameters.put(BIND_LIMIT, limit);
+		String keysetFragment = "";
+		if (lastId != null) {
+			parameters.put(BIND_LAST_ID, lastId);
+			parameters.put(BIND_LAST_SORT_VALUE, getSortValueForBinding(sortBy, lastSortValue));
+			keysetFragment = String.format(SQL_KEYSET_TEMPLATE, sortColumn, Direction.ASC.equals(sortDirection) ? ">" : "<");
+		}
+		// build the SQL from the template
+		String sql = String.format(SQL_SELECT_VISIBLE_CHIDREN_TEMPLATE,
+				getFragmentVisibleToGroups(visibleToGroups),
+				keysetFragment,
+				sortColumn,
+				sortDirection.name());
+		return namedParameterJdbcTemplate.query(sql, parameters, ENTITY_HEADER_ROWMAPPER);
+	}
+	
+	static Object getSortValueForBinding(SortBy sortBy, String sortValue) {
+		if (SortBy.NAME.equals(sortBy)) {
+			return sortValue;
+		}
+		try {
+			return Long.parseLong(sortValue);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Unexpected sort value for "+sortBy+": "+sortValue);
+		}
+	}
+	
 	@Override
 	public ChildStatsResponse getChildrenStats(ChildStatsRequest request) {
 		ValidateArgument.required(request, "request");
@@ -1955,8 +2283,10 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 		parameters.put(BIND_PARENT_ID, KeyFactory.stringToKey(request.getParentId()));
 		parameters.put(BIND_NODE_TYPES, getTypeNames(request.getIncludeTypes()));
 		parameters.put(BIND_NODE_IDS, request.getChildIdsToExclude());
+		parameters.put(BIND_GROUP_IDS, request.getVisibleToGroups());
 		// build the SQL from the template
-		String sql = String.format(SQL_SELECT_CHIDREN_STATS, getFragmentExcludeNodeIds(request.getChildIdsToExclude()));
+		String sql = String.format(SQL_SELECT_CHIDREN_STATS, getFragmentExcludeNodeIds(request.getChildIdsToExclude())
+				+ getFragmentVisibleToGroups(request.getVisibleToGroups()));
 		return namedParameterJdbcTemplate.queryForObject(sql, parameters, new RowMapper<ChildStatsResponse>() {
 
 			@Override
@@ -2005,6 +2335,21 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 		}
 	}
 	
+	/**
+	 * When visibleToGroups is not null then the results are limited to the
+	 * children visible to those groups.
+	 * 
+	 * @param visibleToGroups
+	 * @return
+	 */
+	public static String getFragmentVisibleToGroups(Set<Long> visibleToGroups) {
+		if (visibleToGroups == null) {
+			return "";
+		}
+		ValidateArgument.requirement(!visibleToGroups.isEmpty(), "Must have at least one group ID");
+		return SQL_VISIBLE_TO_GROUPS;
+	}
+	
 	/**
 	 * Get the fragment of column name for a given sortBy.
 	 * @param sortBy
@@ -2274,6 +2619,35 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 		});
 	}
 	
+	@Override
+	public List<IdAndChecksum> getIdsAndChecksumsForChildrenInBucket(Long salt, Set<Long> parentIds, Set<SubType> subTypes,
+			Long bucketSize, Long bucket) {
+		ValidateArgument.required(salt, "salt");
+		ValidateArgument.required(parentIds, "parentIds");
+		ValidateArgument.required(subTypes, "subTypes");
+		ValidateArgument.required(bucketSize, "bucketSize");
+		ValidateArgument.required(bucket, "bucket");
+		ValidateArgument.requirement(bucketSize > 0, "bucketSize must be greater than zero");
+		if(subTypes.isEmpty()) {
+			throw new IllegalArgumentException("Must provide at least one sub-type");
+		}
+		if(parentIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		params.addValue("salt", salt);
+		params.addValue("parentIds", parentIds);
+		params.addValue("subTypes", subTypes.stream().map(t->t.name()).collect(Collectors.toList()));
+		params.addValue("trashId", TRASH_FOLDER_ID);
+		params.addValue("depth", NodeConstants.MAX_PATH_DEPTH);
+		params.addValue("minId", bucket * bucketSize);
+		params.addValue("maxId", (bucket + 1) * bucketSize);
+		return namedParameterJdbcTemplate.query(SQL_SELECT_ID_AND_CHECKSUM_PARENT_ID_IN_RANGE, params, (ResultSet rs, int rowNum) -> {
+			return new IdAndChecksum().withId(rs.getLong("ID")).withChecksum(rs.getLong("CHECK_SUM"));
+		});
+	}
+	
 	@Override
 	public boolean isSearchEnabled(Long nodeId, Long versionNumber) {
 		ValidateArgument.required(nodeId, "The nodeId");
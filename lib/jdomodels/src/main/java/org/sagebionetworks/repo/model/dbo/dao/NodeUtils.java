@@ -10,6 +10,7 @@ import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.sagebionetworks.StackConfigurationSingleton;
 import org.sagebionetworks.repo.model.DatastoreException;
+import org.sagebionetworks.repo.model.EntityHeader;
 import org.sagebionetworks.repo.model.EntityRef;
 import org.sagebionetworks.repo.model.EntityType;
 import org.sagebionetworks.repo.model.InvalidModelException;
@@ -20,10 +21,12 @@ import org.sagebionetworks.repo.model.Reference;
 import org.sagebionetworks.repo.model.UnmodifiableXStream;
 import org.sagebionetworks.repo.model.dbo.persistence.DBONode;
 import org.sagebionetworks.repo.model.dbo.persistence.DBORevision;
+import org.sagebionetworks.repo.model.entity.SortBy;
 import org.sagebionetworks.repo.model.jdo.JDOSecondaryPropertyUtils;
 import org.sagebionetworks.repo.model.jdo.KeyFactory;
 import org.sagebionetworks.schema.adapter.JSONObjectAdapterException;
 import org.sagebionetworks.schema.adapter.org.json.EntityFactory;
+import org.sagebionetworks.util.ValidateArgument;
 
 /**
  * Translates JDOs and DTOs.
@@ -465,4 +468,27 @@ public class NodeUtils {
 		if (bucketName == null) return null;
 		return bucketName.equals(StackConfigurationSingleton.singleton().getS3Bucket());
 	}
+
+	/**
+	 * Get the value of the sort column of the given header, as used by
+	 * {@link NodeDAO#getVisibleChildren(String, List, java.util.Set, SortBy, org.sagebionetworks.repo.model.entity.Direction, Long, String, long)}.
+	 * 
+	 * @param sortBy
+	 * @param header
+	 * @return
+	 */
+	public static String getSortValue(SortBy sortBy, EntityHeader header) {
+		ValidateArgument.required(sortBy, "sortBy");
+		switch (sortBy) {
+		case NAME:
+			return header.getName();
+		case CREATED_ON:
+			return Long.toString(header.getCreatedOn().getTime());
+		case MODIFIED_ON:
+			return Long.toString(header.getModifiedOn().getTime());
+		default:
+			throw new IllegalArgumentException("Unknown SortBy: "+sortBy);
+		}
+	}
+
 }
@@ -38,6 +38,8 @@ public class SubmissionStatusAnnotationsAsyncManagerImpl implements SubmissionSt
 	public static final String CANCEL_CONTROL = "cancelControl";
 	private static final String BUNDLE_ENTITY_FIELD = "entity";	
 	public static final boolean SYSTEM_GENERATED_ANNO_IS_PRIVATE = false;
+	// The maximum number of submissions processed in a single transaction
+	public static final long PAGE_SIZE = 500;
 
 	private AnnotationsDAO annotationsDAO;
 
@@ -46,7 +48,8 @@ public class SubmissionStatusAnnotationsAsyncManagerImpl implements SubmissionSt
 		this.annotationsDAO = annotationsDAO;
 	}
 
-	@WriteTransaction
+	// Each page of submissions is written in its own transaction (see the AnnotationsDAO) so that large evaluations
+	// do not hold the locks on the annotation tables for the whole replication
 	@Override
 	public void createEvaluationSubmissionStatuses(String evalId)
 			throws NotFoundException, DatastoreException,
@@ -54,7 +57,6 @@ public class SubmissionStatusAnnotationsAsyncManagerImpl implements SubmissionSt
 		createOrUpdateEvaluationSubmissionStatuses(evalId);
 	}
 
-	@WriteTransaction
 	@Override
 	public void updateEvaluationSubmissionStatuses(String evalId)
 			throws NotFoundException, DatastoreException,
@@ -65,24 +67,36 @@ public class SubmissionStatusAnnotationsAsyncManagerImpl implements SubmissionSt
 	private void createOrUpdateEvaluationSubmissionStatuses(String evalId)
 			throws NumberFormatException, NotFoundException, DatastoreException, JSONObjectAdapterException {
 		if (evalId == null) throw new IllegalArgumentException("Id cannot be null");
-		replaceAnnotationsForEvaluation(evalId);
 		Long evalIdLong = KeyFactory.stringToKey(evalId);
-		// delete any annotations for which the SubmissionStatus has been deleted
-		annotationsDAO.deleteAnnotationsByScope(evalIdLong);
-		
+		replaceAnnotationsForEvaluation(evalIdLong);
+		// delete any annotations for which the SubmissionStatus has been deleted, one page at the time using the id
+		// of the last submission of the previous page
+		Long lastSubmissionId = -1L;
+		List<Long> deletedIds;
+		do {
+			deletedIds = annotationsDAO.deleteAnnotationsForDeletedSubmissions(evalIdLong, lastSubmissionId, PAGE_SIZE);
+			if (deletedIds.isEmpty()) return;
+			lastSubmissionId = deletedIds.get(deletedIds.size() - 1);
+		} while (deletedIds.size() >= PAGE_SIZE);
 	}
 
-	private void replaceAnnotationsForEvaluation(String evalId) throws DatastoreException, NotFoundException, JSONObjectAdapterException {
-		// get the submissions and statuses that are new or have changed
-		List<SubmissionBundle> changedSubmissions = annotationsDAO.getChangedSubmissions(Long.parseLong(evalId));
-		if (changedSubmissions.isEmpty()) return;
-		// create the updated annotations
-		List<Annotations> annoList = new ArrayList<Annotations>();
-		for (SubmissionBundle sb : changedSubmissions) {
-			annoList.add(fillInAnnotations(sb.getSubmission(), sb.getSubmissionStatus()));
-		}
-		// push the updated annotations to the database
-		annotationsDAO.replaceAnnotations(annoList);
+	private void replaceAnnotationsForEvaluation(Long evalId) throws DatastoreException, NotFoundException, JSONObjectAdapterException {
+		// Page through the submissions and statuses that are new or have changed using the id of the last submission
+		// of the previous page, if the replication is interrupted the processed pages are no longer reported as changed
+		Long lastSubmissionId = -1L;
+		List<SubmissionBundle> changedSubmissions;
+		do {
+			changedSubmissions = annotationsDAO.getChangedSubmissionsPage(evalId, lastSubmissionId, PAGE_SIZE);
+			if (changedSubmissions.isEmpty()) return;
+			// create the updated annotations
+			List<Annotations> annoList = new ArrayList<Annotations>();
+			for (SubmissionBundle sb : changedSubmissions) {
+				annoList.add(fillInAnnotations(sb.getSubmission(), sb.getSubmissionStatus()));
+			}
+			// push the updated annotations to the database
+			annotationsDAO.replaceAnnotations(annoList);
+			lastSubmissionId = KeyFactory.stringToKey(changedSubmissions.get(changedSubmissions.size() - 1).getSubmission().getId());
+		} while (changedSubmissions.size() >= PAGE_SIZE);
 	}
 
 	@WriteTransaction
@@ -0,0 +1,115 @@
+package org.sagebionetworks.repo.model.dbo.dao.dataaccess;
+
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_EFFECTIVE_AR_ENTITY_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_EFFECTIVE_AR_REQUIREMENT_ID;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+import org.sagebionetworks.repo.model.dbo.DatabaseObject;
+import org.sagebionetworks.repo.model.dbo.FieldColumn;
+import org.sagebionetworks.repo.model.dbo.TableMapping;
+import org.sagebionetworks.repo.model.query.jdo.SqlConstants;
+
+/**
+ * A dynamic (no migration) index that maps entities to the access requirements that apply to them, including the requirements
+ * inherited from their ancestors. Only the entities in the {@link DBOEffectiveAccessRequirementEntity} index are included.
+ *
+ */
+public class DBOEffectiveAccessRequirement implements DatabaseObject<DBOEffectiveAccessRequirement> {
+
+	private static FieldColumn[] FIELDS = new FieldColumn[] {
+			new FieldColumn("entityId", COL_EFFECTIVE_AR_ENTITY_ID, true),
+			new FieldColumn("requirementId", COL_EFFECTIVE_AR_REQUIREMENT_ID, true) };
+	
+	TableMapping<DBOEffectiveAccessRequirement> MAPPING = new TableMapping<DBOEffectiveAccessRequirement>() {
+
+		@Override
+		public DBOEffectiveAccessRequirement mapRow(ResultSet rs, int rowNum) throws SQLException {
+			DBOEffectiveAccessRequirement dbo = new DBOEffectiveAccessRequirement();
+			dbo.setEntityId(rs.getLong(COL_EFFECTIVE_AR_ENTITY_ID));
+			dbo.setRequirementId(rs.getLong(COL_EFFECTIVE_AR_REQUIREMENT_ID));
+			return dbo;
+		}
+
+		@Override
+		public String getTableName() {
+			return SqlConstants.TABLE_EFFECTIVE_AR;
+		}
+
+		@Override
+		public String getDDLFileName() {
+			return SqlConstants.DDL_EFFECTIVE_AR;
+		}
+
+		@Override
+		public FieldColumn[] getFieldColumns() {
+			return FIELDS;
+		}
+
+		@Override
+		public Class<? extends DBOEffectiveAccessRequirement> getDBOClass() {
+			return DBOEffectiveAccessRequirement.class;
+		}
+	};
+
+	@Override
+	public TableMapping<DBOEffectiveAccessRequirement> getTableMapping() {
+		return MAPPING;
+	}
+
+	private Long entityId;
+	private Long requirementId;
+
+	/**
+	 * @return the entityId
+	 */
+	public Long getEntityId() {
+		return entityId;
+	}
+
+	/**
+	 * @param entityId the entityId to set
+	 */
+	public void setEntityId(Long entityId) {
+		this.entityId = entityId;
+	}
+
+	/**
+	 * @return the requirementId
+	 */
+	public Long getRequirementId() {
+		return requirementId;
+	}
+
+	/**
+	 * @param requirementId the requirementId to set
+	 */
+	public void setRequirementId(Long requirementId) {
+		this.requirementId = requirementId;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(entityId, requirementId);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof DBOEffectiveAccessRequirement)) {
+			return false;
+		}
+		DBOEffectiveAccessRequirement other = (DBOEffectiveAccessRequirement) obj;
+		return Objects.equals(entityId, other.entityId) && Objects.equals(requirementId, other.requirementId);
+	}
+
+	@Override
+	public String toString() {
+		return "DBOEffectiveAccessRequirement [entityId=" + entityId + ", requirementId=" + requirementId + "]";
+	}
+
+}
@@ -0,0 +1,116 @@
+package org.sagebionetworks.repo.model.dbo.dao.dataaccess;
+
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_EFFECTIVE_AR_DIRTY_ROOT_ROOT_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_EFFECTIVE_AR_DIRTY_ROOT_VERSION;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+import org.sagebionetworks.repo.model.dbo.DatabaseObject;
+import org.sagebionetworks.repo.model.dbo.FieldColumn;
+import org.sagebionetworks.repo.model.dbo.TableMapping;
+import org.sagebionetworks.repo.model.query.jdo.SqlConstants;
+
+/**
+ * A dynamic (no migration) table of the roots of the subtrees whose entities are still being removed from the
+ * {@link DBOEffectiveAccessRequirementEntity} index. An entity in a subtree with a pending root is treated as not indexed. The version
+ * is incremented each time the same root is marked again, so that the root is removed only once its latest subtree was cleared.
+ *
+ */
+public class DBOEffectiveAccessRequirementDirtyRoot implements DatabaseObject<DBOEffectiveAccessRequirementDirtyRoot> {
+
+	private static FieldColumn[] FIELDS = new FieldColumn[] {
+			new FieldColumn("rootId", COL_EFFECTIVE_AR_DIRTY_ROOT_ROOT_ID, true),
+			new FieldColumn("version", COL_EFFECTIVE_AR_DIRTY_ROOT_VERSION) };
+	
+	TableMapping<DBOEffectiveAccessRequirementDirtyRoot> MAPPING = new TableMapping<DBOEffectiveAccessRequirementDirtyRoot>() {
+
+		@Override
+		public DBOEffectiveAccessRequirementDirtyRoot mapRow(ResultSet rs, int rowNum) throws SQLException {
+			DBOEffectiveAccessRequirementDirtyRoot dbo = new DBOEffectiveAccessRequirementDirtyRoot();
+			dbo.setRootId(rs.getLong(COL_EFFECTIVE_AR_DIRTY_ROOT_ROOT_ID));
+			dbo.setVersion(rs.getLong(COL_EFFECTIVE_AR_DIRTY_ROOT_VERSION));
+			return dbo;
+		}
+
+		@Override
+		public String getTableName() {
+			return SqlConstants.TABLE_EFFECTIVE_AR_DIRTY_ROOT;
+		}
+
+		@Override
+		public String getDDLFileName() {
+			return SqlConstants.DDL_EFFECTIVE_AR_DIRTY_ROOT;
+		}
+
+		@Override
+		public FieldColumn[] getFieldColumns() {
+			return FIELDS;
+		}
+
+		@Override
+		public Class<? extends DBOEffectiveAccessRequirementDirtyRoot> getDBOClass() {
+			return DBOEffectiveAccessRequirementDirtyRoot.class;
+		}
+	};
+
+	@Override
+	public TableMapping<DBOEffectiveAccessRequirementDirtyRoot> getTableMapping() {
+		return MAPPING;
+	}
+
+	private Long rootId;
+	private Long version;
+
+	/**
+	 * @return the rootId
+	 */
+	public Long getRootId() {
+		return rootId;
+	}
+
+	/**
+	 * @param rootId the rootId to set
+	 */
+	public void setRootId(Long rootId) {
+		this.rootId = rootId;
+	}
+
+	/**
+	 * @return the version
+	 */
+	public Long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @param version the version to set
+	 */
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(rootId, version);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof DBOEffectiveAccessRequirementDirtyRoot)) {
+			return false;
+		}
+		DBOEffectiveAccessRequirementDirtyRoot other = (DBOEffectiveAccessRequirementDirtyRoot) obj;
+		return Objects.equals(rootId, other.rootId) && Objects.equals(version, other.version);
+	}
+
+	@Override
+	public String toString() {
+		return "DBOEffectiveAccessRequirementDirtyRoot [rootId=" + rootId + ", version=" + version + "]";
+	}
+
+}
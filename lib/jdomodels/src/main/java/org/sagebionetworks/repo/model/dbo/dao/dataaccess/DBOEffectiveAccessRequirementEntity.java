@@ -0,0 +1,97 @@
+package org.sagebionetworks.repo.model.dbo.dao.dataaccess;
+
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_EFFECTIVE_AR_ENTITY_ENTITY_ID;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+import org.sagebionetworks.repo.model.dbo.DatabaseObject;
+import org.sagebionetworks.repo.model.dbo.FieldColumn;
+import org.sagebionetworks.repo.model.dbo.TableMapping;
+import org.sagebionetworks.repo.model.query.jdo.SqlConstants;
+
+/**
+ * A dynamic (no migration) index of the entities whose effective access requirements are in the {@link DBOEffectiveAccessRequirement}
+ * index. An entity that is not in this index might have access requirements that are not indexed.
+ *
+ */
+public class DBOEffectiveAccessRequirementEntity implements DatabaseObject<DBOEffectiveAccessRequirementEntity> {
+
+	private static FieldColumn[] FIELDS = new FieldColumn[] {
+			new FieldColumn("entityId", COL_EFFECTIVE_AR_ENTITY_ENTITY_ID, true) };
+	
+	TableMapping<DBOEffectiveAccessRequirementEntity> MAPPING = new TableMapping<DBOEffectiveAccessRequirementEntity>() {
+
+		@Override
+		public DBOEffectiveAccessRequirementEntity mapRow(ResultSet rs, int rowNum) throws SQLException {
+			DBOEffectiveAccessRequirementEntity dbo = new DBOEffectiveAccessRequirementEntity();
+			dbo.setEntityId(rs.getLong(COL_EFFECTIVE_AR_ENTITY_ENTITY_ID));
+			return dbo;
+		}
+
+		@Override
+		public String getTableName() {
+			return SqlConstants.TABLE_EFFECTIVE_AR_ENTITY;
+		}
+
+		@Override
+		public String getDDLFileName() {
+			return SqlConstants.DDL_EFFECTIVE_AR_ENTITY;
+		}
+
+		@Override
+		public FieldColumn[] getFieldColumns() {
+			return FIELDS;
+		}
+
+		@Override
+		public Class<? extends DBOEffectiveAccessRequirementEntity> getDBOClass() {
+			return DBOEffectiveAccessRequirementEntity.class;
+		}
+	};
+
+	@Override
+	public TableMapping<DBOEffectiveAccessRequirementEntity> getTableMapping() {
+		return MAPPING;
+	}
+
+	private Long entityId;
+
+	/**
+	 * @return the entityId
+	 */
+	public Long getEntityId() {
+		return entityId;
+	}
+
+	/**
+	 * @param entityId the entityId to set
+	 */
+	public void setEntityId(Long entityId) {
+		this.entityId = entityId;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(entityId);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof DBOEffectiveAccessRequirementEntity)) {
+			return false;
+		}
+		DBOEffectiveAccessRequirementEntity other = (DBOEffectiveAccessRequirementEntity) obj;
+		return Objects.equals(entityId, other.entityId);
+	}
+
+	@Override
+	public String toString() {
+		return "DBOEffectiveAccessRequirementEntity [entityId=" + entityId + "]";
+	}
+
+}
@@ -1,8 +1,9 @@
 package org.sagebionetworks.repo.model.dbo.dao.discussion;
 
+import java.util.Collection;
 import java.util.List;
 
-import org.sagebionetworks.repo.model.discussion.Match;
+import org.sagebionetworks.repo.model.dbo.persistence.discussion.DBODiscussionSearchIndexRecord;
 
 public interface DiscussionSearchIndexDao {
 	
@@ -29,6 +30,15 @@ public interface DiscussionSearchIndexDao {
 	 */
 	void createOrUpdateRecordForReply(Long forumId, Long threadId, Long replyId, String searchContent);
 	
+	/**
+	 * Creates or updates the search content of a batch of records with a single statement. 
+	 * <br/>
+	 * Note: the threadDeleted and replyDeleted markers are not updated and set to false on creation.
+	 * 
+	 * @param records
+	 */
+	void createOrUpdateRecords(List<DBODiscussionSearchIndexRecord> records);
+	
 	/**
 	 * Marks the threadDeleted flag as true for all the records matching the given threadId.
 	 * 
@@ -58,14 +68,33 @@ public interface DiscussionSearchIndexDao {
 	void markReplyAsNotDeleted(Long replyId);
 	
 	/**
-	 * Performs a full text search in the forum with the given id, return a page of results ranked by relevance.
+	 * Sets the threadDeleted flag for all the records matching any of the given threadIds.
+	 * 
+	 * @param threadIds
+	 * @param deleted
+	 */
+	void setThreadsDeleted(Collection<Long> threadIds, boolean deleted);
+	
+	/**
+	 * Sets the replyDeleted flag for all the records matching any of the given replyIds.
+	 * 
+	 * @param replyIds
+	 * @param deleted
+	 */
+	void setRepliesDeleted(Collection<Long> replyIds, boolean deleted);
+	
+	/**
+	 * Performs a full text search in the forum with the given id, return a page of results ranked by relevance. Matches with the
+	 * same relevance are ordered by thread and reply id, so that a page can be fetched seeking directly to the last match of the
+	 * previous page.
 	 * 
 	 * Excludes any thread or reply that is marked as deleted.
 	 * 
+	 * @param forumId
 	 * @param searchString
+	 * @param after The last match of the previous page, null for the first page
 	 * @param limit
-	 * @param offset
 	 * @return
 	 */
-	List<Match> search(Long forumId, String searchString, long limit, long offset);
+	List<DiscussionSearchIndexMatch> search(Long forumId, String searchString, DiscussionSearchIndexMatch after, long limit);
 }
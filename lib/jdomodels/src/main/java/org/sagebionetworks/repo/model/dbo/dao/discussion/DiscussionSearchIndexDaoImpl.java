@@ -8,6 +8,12 @@ import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_DISCUSSI
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_DISCUSSION_SEARCH_INDEX_REPLY_DELETED;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_DISCUSSION_SEARCH_INDEX;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.sagebionetworks.repo.model.dbo.persistence.discussion.DBODiscussionSearchIndexRecord;
@@ -15,8 +21,11 @@ import org.sagebionetworks.repo.model.discussion.Match;
 import org.sagebionetworks.repo.transactions.WriteTransaction;
 import org.sagebionetworks.util.ValidateArgument;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -24,7 +33,40 @@ public class DiscussionSearchIndexDaoImpl implements DiscussionSearchIndexDao {
 	
 	private static final RowMapper<DBODiscussionSearchIndexRecord> RECORD_ROW_MAPPER = new DBODiscussionSearchIndexRecord().getTableMapping();
 	
-	private static final RowMapper<Match> MATCH_ROW_MAPPER = (rs, rowNum) -> {
+	private static final String RELEVANCE = "RELEVANCE";
+	
+	/**
+	 * The number of decimal digits of the relevance used to sort the results and
+	 * to seek to the following page.
+	 */
+	static final int RELEVANCE_SCALE = 9;
+	
+	private static final String MATCH_SEARCH_CONTENT = "MATCH(" + COL_DISCUSSION_SEARCH_INDEX_SEARCH_CONTENT + ") AGAINST(:searchString)";
+	
+	// The floating point relevance is fixed to an exact decimal, so that the relevance in the page token compares equal to the relevance of the same match
+	private static final String SEARCH_RELEVANCE = "CAST(" + MATCH_SEARCH_CONTENT + " AS DECIMAL(30, " + RELEVANCE_SCALE + "))";
+	
+	private static final String SQL_SEARCH = "SELECT " + COL_DISCUSSION_SEARCH_INDEX_FORUM_ID + ", " + COL_DISCUSSION_SEARCH_INDEX_THREAD_ID + ", " + COL_DISCUSSION_SEARCH_INDEX_REPLY_ID
+			+ ", " + SEARCH_RELEVANCE + " AS " + RELEVANCE
+			+ " FROM " + TABLE_DISCUSSION_SEARCH_INDEX
+			+ " WHERE"
+			+ " " + MATCH_SEARCH_CONTENT
+			+ " AND " + COL_DISCUSSION_SEARCH_INDEX_FORUM_ID + " = :forumId"
+			+ " AND " + COL_DISCUSSION_SEARCH_INDEX_THREAD_DELETED + " IS FALSE" 
+			+ " AND " + COL_DISCUSSION_SEARCH_INDEX_REPLY_DELETED + " IS FALSE"
+			+ "%s"
+			+ " ORDER BY " + RELEVANCE + " DESC, " + COL_DISCUSSION_SEARCH_INDEX_THREAD_ID + ", " + COL_DISCUSSION_SEARCH_INDEX_REPLY_ID
+			+ " LIMIT :limit";
+	
+	// Seeks to the matches that follow the last match of the previous page
+	private static final String SQL_SEARCH_AFTER = " AND (" + SEARCH_RELEVANCE + " < :lastRelevance"
+			+ " OR (" + SEARCH_RELEVANCE + " = :lastRelevance"
+			+ " AND (" + COL_DISCUSSION_SEARCH_INDEX_THREAD_ID + " > :lastThreadId"
+			+ " OR (" + COL_DISCUSSION_SEARCH_INDEX_THREAD_ID + " = :lastThreadId AND " + COL_DISCUSSION_SEARCH_INDEX_REPLY_ID + " > :lastReplyId))))";
+	
+	private static final String SQL_CREATE_OR_UPDATE = "INSERT INTO " + TABLE_DISCUSSION_SEARCH_INDEX + " VALUES(?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " + COL_DISCUSSION_SEARCH_INDEX_SEARCH_CONTENT + " = ?";
+	
+	private static final RowMapper<DiscussionSearchIndexMatch> MATCH_ROW_MAPPER = (rs, rowNum) -> {
 		Match match = new Match()
 			.setForumId(rs.getString(COL_DISCUSSION_SEARCH_INDEX_FORUM_ID))
 			.setThreadId(rs.getString(COL_DISCUSSION_SEARCH_INDEX_THREAD_ID));
@@ -35,14 +77,17 @@ public class DiscussionSearchIndexDaoImpl implements DiscussionSearchIndexDao {
 			match.setReplyId(replyId.toString());
 		}
 		
-		return match;
+		return new DiscussionSearchIndexMatch(match, rs.getDouble(RELEVANCE));
 	};
 		
 	private JdbcTemplate jdbcTemplate;
+	
+	private NamedParameterJdbcTemplate namedJdbcTemplate;
 
 	@Autowired
-	public DiscussionSearchIndexDaoImpl(JdbcTemplate jdbcTemplate) {
+	public DiscussionSearchIndexDaoImpl(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
 		this.jdbcTemplate = jdbcTemplate;
+		this.namedJdbcTemplate = namedJdbcTemplate;
 	}
 	
 	@Override
@@ -66,9 +111,45 @@ public class DiscussionSearchIndexDaoImpl implements DiscussionSearchIndexDao {
 		ValidateArgument.required(replyId, "The replyId");
 		ValidateArgument.required(searchContent, "The searchContent");
 		
-		String inserSql = "INSERT INTO " + TABLE_DISCUSSION_SEARCH_INDEX + " VALUES(?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " + COL_DISCUSSION_SEARCH_INDEX_SEARCH_CONTENT + " = ?";
+		jdbcTemplate.update(SQL_CREATE_OR_UPDATE, forumId, threadId, false, replyId, false, searchContent, searchContent);
+	}
+	
+	@Override
+	@WriteTransaction
+	public void createOrUpdateRecords(List<DBODiscussionSearchIndexRecord> records) {
+		ValidateArgument.required(records, "The records");
 		
-		jdbcTemplate.update(inserSql, forumId, threadId, false, replyId, false, searchContent, searchContent);
+		if (records.isEmpty()) {
+			return;
+		}
+		
+		for (DBODiscussionSearchIndexRecord record : records) {
+			ValidateArgument.required(record.getForumId(), "The forumId");
+			ValidateArgument.required(record.getThreadId(), "The threadId");
+			ValidateArgument.required(record.getReplyId(), "The replyId");
+			ValidateArgument.required(record.getSearchContent(), "The searchContent");
+		}
+		
+		jdbcTemplate.batchUpdate(SQL_CREATE_OR_UPDATE, new BatchPreparedStatementSetter() {
+			
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				DBODiscussionSearchIndexRecord record = records.get(i);
+				int index = 0;
+				ps.setLong(++index, record.getForumId());
+				ps.setLong(++index, record.getThreadId());
+				ps.setBoolean(++index, false);
+				ps.setLong(++index, record.getReplyId());
+				ps.setBoolean(++index, false);
+				ps.setString(++index, record.getSearchContent());
+				ps.setString(++index, record.getSearchContent());
+			}
+			
+			@Override
+			public int getBatchSize() {
+				return records.size();
+			}
+		});
 	}
 
 	@Override
@@ -116,20 +197,55 @@ public class DiscussionSearchIndexDaoImpl implements DiscussionSearchIndexDao {
 	}
 	
 	@Override
-	public List<Match> search(Long forumId, String searchString, long limit, long offset) {
+	@WriteTransaction
+	public void setThreadsDeleted(Collection<Long> threadIds, boolean deleted) {
+		ValidateArgument.required(threadIds, "The threadIds");
+		
+		if (threadIds.isEmpty()) {
+			return;
+		}
+		
+		String updateSql = "UPDATE " + TABLE_DISCUSSION_SEARCH_INDEX + " SET " + COL_DISCUSSION_SEARCH_INDEX_THREAD_DELETED + " = :deleted"
+				+ " WHERE " + COL_DISCUSSION_SEARCH_INDEX_THREAD_ID + " IN (:ids)";
+		
+		namedJdbcTemplate.update(updateSql, new MapSqlParameterSource("ids", threadIds).addValue("deleted", deleted));
+	}
+	
+	@Override
+	@WriteTransaction
+	public void setRepliesDeleted(Collection<Long> replyIds, boolean deleted) {
+		ValidateArgument.required(replyIds, "The replyIds");
+		
+		if (replyIds.isEmpty()) {
+			return;
+		}
+		
+		String updateSql = "UPDATE " + TABLE_DISCUSSION_SEARCH_INDEX + " SET " + COL_DISCUSSION_SEARCH_INDEX_REPLY_DELETED + " = :deleted"
+				+ " WHERE " + COL_DISCUSSION_SEARCH_INDEX_REPLY_ID + " IN (:ids)";
+		
+		namedJdbcTemplate.update(updateSql, new MapSqlParameterSource("ids", replyIds).addValue("deleted", deleted));
+	}
+	
+	@Override
+	public List<DiscussionSearchIndexMatch> search(Long forumId, String searchString, DiscussionSearchIndexMatch after, long limit) {
 		ValidateArgument.required(forumId, "The forumId");
 		ValidateArgument.required(searchString, "The searchString");
 		
-		String searchSql = "SELECT " + COL_DISCUSSION_SEARCH_INDEX_FORUM_ID + ", " + COL_DISCUSSION_SEARCH_INDEX_THREAD_ID + ", " + COL_DISCUSSION_SEARCH_INDEX_REPLY_ID 
-			+ " FROM " + TABLE_DISCUSSION_SEARCH_INDEX
-			+ " WHERE"
-			+ " MATCH(" + COL_DISCUSSION_SEARCH_INDEX_SEARCH_CONTENT + ") AGAINST(?)"
-			+ " AND " + COL_DISCUSSION_SEARCH_INDEX_FORUM_ID + " = ? "
-			+ " AND " + COL_DISCUSSION_SEARCH_INDEX_THREAD_DELETED + " IS FALSE" 
-			+ " AND " + COL_DISCUSSION_SEARCH_INDEX_REPLY_DELETED + " IS FALSE"
-			+ " LIMIT ? OFFSET ?";
+		MapSqlParameterSource params = new MapSqlParameterSource()
+			.addValue("searchString", searchString)
+			.addValue("forumId", forumId)
+			.addValue("limit", limit);
+		
+		String searchAfter = "";
+		
+		if (after != null) {
+			searchAfter = SQL_SEARCH_AFTER;
+			params.addValue("lastRelevance", BigDecimal.valueOf(after.getRelevance()).setScale(RELEVANCE_SCALE, RoundingMode.HALF_UP))
+				.addValue("lastThreadId", after.getThreadId())
+				.addValue("lastReplyId", after.getReplyId());
+		}
 		
-		return jdbcTemplate.query(searchSql, MATCH_ROW_MAPPER, searchString, forumId, limit, offset);
+		return new ArrayList<>(namedJdbcTemplate.query(String.format(SQL_SEARCH, searchAfter), params, MATCH_ROW_MAPPER));
 	}
 	
 	// For testing
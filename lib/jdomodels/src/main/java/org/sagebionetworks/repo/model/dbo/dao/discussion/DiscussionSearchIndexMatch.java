@@ -0,0 +1,70 @@
+package org.sagebionetworks.repo.model.dbo.dao.discussion;
+
+import java.util.Objects;
+
+import org.sagebionetworks.repo.model.dbo.persistence.discussion.DBODiscussionSearchIndexRecord;
+import org.sagebionetworks.repo.model.discussion.Match;
+import org.sagebionetworks.util.ValidateArgument;
+
+/**
+ * A {@link Match} of a search in the discussion index together with its
+ * relevance. The relevance, thread id and reply id of a match are the key that
+ * is used to fetch the page of results that follows it.
+ */
+public class DiscussionSearchIndexMatch {
+
+	private final Match match;
+	private final double relevance;
+
+	public DiscussionSearchIndexMatch(Match match, double relevance) {
+		ValidateArgument.required(match, "The match");
+		ValidateArgument.required(match.getThreadId(), "The match.threadId");
+		this.match = match;
+		this.relevance = relevance;
+	}
+
+	public Match getMatch() {
+		return match;
+	}
+
+	public double getRelevance() {
+		return relevance;
+	}
+
+	public Long getThreadId() {
+		return Long.valueOf(match.getThreadId());
+	}
+
+	/**
+	 * @return The id of the reply, or {@link DBODiscussionSearchIndexRecord#NO_REPLY_ID} if the match is a thread
+	 */
+	public Long getReplyId() {
+		return match.getReplyId() == null ? DBODiscussionSearchIndexRecord.NO_REPLY_ID : Long.valueOf(match.getReplyId());
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(match, relevance);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		DiscussionSearchIndexMatch other = (DiscussionSearchIndexMatch) obj;
+		return Objects.equals(match, other.match) && Double.doubleToLongBits(relevance) == Double.doubleToLongBits(other.relevance);
+	}
+
+	@Override
+	public String toString() {
+		return "DiscussionSearchIndexMatch [match=" + match + ", relevance=" + relevance + "]";
+	}
+
+}
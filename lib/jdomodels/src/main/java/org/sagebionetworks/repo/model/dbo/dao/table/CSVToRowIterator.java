@@ -92,6 +92,21 @@ public class CSVToRowIterator implements Iterator<SparseRowDto> {
 			}
 			return header;
 		}
+		return createHeaderFromSchema(lastRow, linesToSkip, resultSchema);
+	}
+
+	/**
+	 * Create the CSV header of a file that does not start with a header from the
+	 * names of the columns of the schema. When lines were skipped the last
+	 * skipped row is used to detect if the CSV includes ROW_ID, ROW_VERSION and
+	 * ROW_ETAG.
+	 * 
+	 * @param lastRow The last skipped row, or null if no rows were skipped
+	 * @param linesToSkip
+	 * @param resultSchema
+	 * @return
+	 */
+	static String[] createHeaderFromSchema(String[] lastRow, int linesToSkip, List<ColumnModel> resultSchema) {
 		boolean lastRowIncludesRowIdAndVersion = false;
 		boolean includeEtag = false;
 		if (lastRow != null && lastRow.length >= resultSchema.size() + 2) {
@@ -137,6 +152,26 @@ public class CSVToRowIterator implements Iterator<SparseRowDto> {
 	@Override
 	public SparseRowDto next() {
 		rowsRead++;
+		SparseRowDto row = toSparseRow(lastRow, resultSchema, columnIdToCsvColumnIndexMap);
+		// Net the next row
+		try {
+			lastRow = this.reader.readNext();
+			rowLineNumber++;
+		} catch (IOException e) {
+			throw new RuntimeException("Line number " + rowLineNumber + ": " + e.getMessage(), e);
+		}
+		return row;
+	}
+
+	/**
+	 * Convert a row of the CSV to a row of the given schema.
+	 * 
+	 * @param csvRow The values of a row of the CSV
+	 * @param resultSchema
+	 * @param columnIdToCsvColumnIndexMap Maps the id of each column to the index of its value in the CSV row
+	 * @return
+	 */
+	static SparseRowDto toSparseRow(String[] csvRow, List<ColumnModel> resultSchema, Map<Long, Integer> columnIdToCsvColumnIndexMap) {
 		// Convert the row.
 		SparseRowDto row = new SparseRowDto();
 		Map<String, String> values = new HashMap<>(resultSchema.size());
@@ -146,9 +181,9 @@ public class CSVToRowIterator implements Iterator<SparseRowDto> {
 			Integer csvColumnIndex = columnIdToCsvColumnIndexMap.get(columnId);
 			String value = null;
 			if (csvColumnIndex != null) {
-				if (lastRow.length > csvColumnIndex) {
+				if (csvRow.length > csvColumnIndex) {
 					anyValues = true;
-					value = lastRow[csvColumnIndex];
+					value = csvRow[csvColumnIndex];
 					values.put(columnId.toString(), value);
 				}
 			}
@@ -159,8 +194,8 @@ public class CSVToRowIterator implements Iterator<SparseRowDto> {
 
 		Integer csvColumnIndex = columnIdToCsvColumnIndexMap.get(TableConstants.ROW_ID_ID);
 		if (csvColumnIndex != null) {
-			if (lastRow.length > csvColumnIndex) {
-				String value = lastRow[csvColumnIndex];
+			if (csvRow.length > csvColumnIndex) {
+				String value = csvRow[csvColumnIndex];
 				if (!StringUtils.isEmpty(value)) {
 					row.setRowId(Long.parseLong(value));
 				}
@@ -168,8 +203,8 @@ public class CSVToRowIterator implements Iterator<SparseRowDto> {
 		}
 		csvColumnIndex = columnIdToCsvColumnIndexMap.get(TableConstants.ROW_VERSION_ID);
 		if (csvColumnIndex != null) {
-			if (lastRow.length > csvColumnIndex) {
-				String value = lastRow[csvColumnIndex];
+			if (csvRow.length > csvColumnIndex) {
+				String value = csvRow[csvColumnIndex];
 				if (!StringUtils.isEmpty(value)) {
 					row.setVersionNumber(Long.parseLong(value));
 				}
@@ -178,21 +213,13 @@ public class CSVToRowIterator implements Iterator<SparseRowDto> {
 		
 		csvColumnIndex = columnIdToCsvColumnIndexMap.get(TableConstants.ROW_ETAG_ID);
 		if (csvColumnIndex != null) {
-			if (lastRow.length > csvColumnIndex) {
-				String value = lastRow[csvColumnIndex];
+			if (csvRow.length > csvColumnIndex) {
+				String value = csvRow[csvColumnIndex];
 				if (!StringUtils.isEmpty(value)) {
 					row.setEtag(value);
 				}
 			}
 		}
-
-		// Net the next row
-		try {
-			lastRow = this.reader.readNext();
-			rowLineNumber++;
-		} catch (IOException e) {
-			throw new RuntimeException("Line number " + rowLineNumber + ": " + e.getMessage(), e);
-		}
 		return row;
 	}
 
@@ -0,0 +1,287 @@
+package org.sagebionetworks.repo.model.dbo.dao.table;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.sagebionetworks.repo.model.table.ColumnModel;
+import org.sagebionetworks.repo.model.table.CsvTableDescriptor;
+import org.sagebionetworks.repo.model.table.SparseRowDto;
+import org.sagebionetworks.table.cluster.utils.CSVUtils;
+import org.sagebionetworks.table.cluster.utils.TableModelUtils;
+import org.sagebionetworks.util.ValidateArgument;
+import org.sagebionetworks.util.csv.CSVRecordSplitter;
+import org.sagebionetworks.util.csv.CSVRecordSplitter.CSVRecord;
+
+import au.com.bytecode.opencsv.CSVParser;
+
+/**
+ * An Iterator<Row> over a CSV stream that parses and optionally validates the
+ * rows concurrently.
+ * <p>
+ * The stream is split into chunks of records at the record boundaries (see
+ * {@link CSVRecordSplitter}), each chunk is parsed, converted to rows of the
+ * schema and, if validateValues is true, its values validated against the
+ * schema in the given thread pool while the rows of the previous chunks are
+ * consumed. At most maxChunksInFlight chunks are read ahead, so the memory used
+ * is bounded independently of the size of the stream. The rows are returned in
+ * the same order of the stream and are the same rows that the
+ * {@link CSVToRowIterator} returns for the same stream, with their values
+ * already processed by
+ * {@link TableModelUtils#validateRowValue(String, ColumnModel, int, int)} when
+ * validated (see {@link #isValidateValues()}). A row that cannot be parsed or
+ * that has an invalid value fails the iteration when it is reached with the
+ * line number of the row in the message.
+ *
+ */
+public class ParallelCSVToRowIterator implements Iterator<SparseRowDto>, Closeable {
+
+	public static final int DEFAULT_RECORDS_PER_CHUNK = 1000;
+	public static final int DEFAULT_MAX_CHUNKS_IN_FLIGHT = 8;
+
+	private final List<ColumnModel> resultSchema;
+	private final CSVRecordSplitter splitter;
+	private final CsvTableDescriptor descriptor;
+	private final ExecutorService threadPool;
+	private final int recordsPerChunk;
+	private final int maxChunksInFlight;
+	private final boolean validateValues;
+	private final Map<Long, Integer> columnIdToCsvColumnIndexMap;
+	private final Deque<Future<List<SparseRowDto>>> chunks;
+
+	private Iterator<SparseRowDto> currentChunk;
+	private boolean endOfStream;
+	private long rowsSubmitted;
+	private long rowsRead;
+
+	/**
+	 * @param resultSchema      Each row returned will match this schema.
+	 * @param reader            The CSV stream that contains the source data. It is
+	 *                          the job of the caller to close this stream when
+	 *                          finished.
+	 * @param descriptor        Optional descriptor of the separator, quote and
+	 *                          escape characters of the CSV
+	 * @param isFirstLineHeader
+	 * @param linesToSkip
+	 * @param threadPool        The pool used to parse the chunks
+	 * @param validateValues    True if the values of the rows should be
+	 *                          validated against the schema together with the
+	 *                          parsing of their chunk
+	 * @throws IOException
+	 */
+	public ParallelCSVToRowIterator(List<ColumnModel> resultSchema, Reader reader, CsvTableDescriptor descriptor, boolean isFirstLineHeader,
+			Long linesToSkip, ExecutorService threadPool, boolean validateValues) throws IOException {
+		this(resultSchema, reader, descriptor, isFirstLineHeader, linesToSkip, threadPool, validateValues, DEFAULT_RECORDS_PER_CHUNK, DEFAULT_MAX_CHUNKS_IN_FLIGHT);
+	}
+
+	public ParallelCSVToRowIterator(List<ColumnModel> resultSchema, Reader reader, CsvTableDescriptor descriptor, boolean isFirstLineHeader,
+			Long linesToSkip, ExecutorService threadPool, boolean validateValues, int recordsPerChunk, int maxChunksInFlight) throws IOException {
+		ValidateArgument.required(resultSchema, "resultSchema");
+		ValidateArgument.required(reader, "reader");
+		ValidateArgument.required(threadPool, "threadPool");
+		ValidateArgument.requirement(recordsPerChunk > 0, "The recordsPerChunk must be greater than zero.");
+		ValidateArgument.requirement(maxChunksInFlight > 0, "The maxChunksInFlight must be greater than zero.");
+		this.resultSchema = resultSchema;
+		this.descriptor = descriptor;
+		this.splitter = new CSVRecordSplitter(reader, CSVUtils.getSeparator(descriptor), CSVUtils.getQuoteCharacter(descriptor), CSVUtils.getEscapeCharacter(descriptor));
+		this.threadPool = threadPool;
+		this.recordsPerChunk = recordsPerChunk;
+		this.maxChunksInFlight = maxChunksInFlight;
+		this.validateValues = validateValues;
+		this.chunks = new ArrayDeque<>(maxChunksInFlight);
+		this.endOfStream = false;
+		this.rowsSubmitted = 0;
+		this.rowsRead = 0;
+
+		// The lines to skip and the header are read the same way the CSVToRowIterator does
+		CSVParser parser = CSVUtils.createCSVParser(descriptor);
+		int skip = linesToSkip == null ? 0 : linesToSkip.intValue();
+		String[] lastRow = null;
+		for (int i = 0; i < skip; i++) {
+			lastRow = parseRecord(parser, splitter.next());
+		}
+		String[] headers;
+		if (isFirstLineHeader) {
+			headers = parseRecord(parser, splitter.next());
+			if (headers == null) {
+				throw new IllegalArgumentException("Expected the first line to be the header but was empty.");
+			}
+		} else {
+			headers = CSVToRowIterator.createHeaderFromSchema(lastRow, skip, resultSchema);
+		}
+		this.columnIdToCsvColumnIndexMap = TableModelUtils.createColumnIdToColumnIndexMapFromFirstRow(headers, resultSchema);
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (currentChunk == null || !currentChunk.hasNext()) {
+			submitChunks();
+			Future<List<SparseRowDto>> chunk = chunks.poll();
+			if (chunk == null) {
+				return false;
+			}
+			currentChunk = getChunk(chunk).iterator();
+		}
+		return true;
+	}
+
+	@Override
+	public SparseRowDto next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		rowsRead++;
+		return currentChunk.next();
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("Not supported");
+	}
+
+	/**
+	 * The number of rows read by this iterator.
+	 *
+	 * @return
+	 */
+	public long getRowsRead() {
+		return rowsRead;
+	}
+
+	/**
+	 * @return True if the values of the returned rows are already validated
+	 *         against the schema and do not need to be validated again.
+	 */
+	public boolean isValidateValues() {
+		return validateValues;
+	}
+
+	/**
+	 * Cancels the chunks that are still parsing and closes the stream.
+	 */
+	@Override
+	public void close() throws IOException {
+		cancelChunks();
+		splitter.close();
+	}
+
+	/**
+	 * Reads ahead the records of the stream until maxChunksInFlight chunks are
+	 * submitted to the thread pool or the end of the stream is reached.
+	 */
+	private void submitChunks() {
+		while (!endOfStream && chunks.size() < maxChunksInFlight) {
+			List<CSVRecord> records = readChunk();
+			if (records.isEmpty()) {
+				endOfStream = true;
+				return;
+			}
+			long firstRowIndex = rowsSubmitted;
+			rowsSubmitted += records.size();
+			chunks.add(threadPool.submit(() -> parseChunk(records, firstRowIndex)));
+		}
+	}
+
+	private List<CSVRecord> readChunk() {
+		List<CSVRecord> records = new ArrayList<>(recordsPerChunk);
+		try {
+			CSVRecord record;
+			while (records.size() < recordsPerChunk && (record = splitter.next()) != null) {
+				records.add(record);
+			}
+		} catch (IOException e) {
+			cancelChunks();
+			throw new RuntimeException("Line number " + (splitter.getLineNumber() + 1) + ": " + e.getMessage(), e);
+		}
+		return records;
+	}
+
+	/**
+	 * Parses the given records, converts them to rows of the schema and validates
+	 * their values if validateValues is true.
+	 *
+	 * @param records
+	 * @param firstRowIndex The index of the first record among the rows of the
+	 *                      stream
+	 * @return
+	 */
+	List<SparseRowDto> parseChunk(List<CSVRecord> records, long firstRowIndex) {
+		// The parser is not thread safe
+		CSVParser parser = CSVUtils.createCSVParser(descriptor);
+		List<SparseRowDto> rows = new ArrayList<>(records.size());
+		int rowIndex = (int) firstRowIndex;
+		for (CSVRecord record : records) {
+			try {
+				String[] csvRow = parser.parseLine(record.getText());
+				SparseRowDto row = CSVToRowIterator.toSparseRow(csvRow, resultSchema, columnIdToCsvColumnIndexMap);
+				if (validateValues) {
+					validateValues(row, rowIndex);
+				}
+				rows.add(row);
+			} catch (IOException | IllegalArgumentException e) {
+				throw new IllegalArgumentException("Line number " + record.getLineNumber() + ": " + e.getMessage(), e);
+			}
+			rowIndex++;
+		}
+		return rows;
+	}
+
+	/**
+	 * Validates the values of the given row replacing each value with the
+	 * processed value.
+	 *
+	 * @param row
+	 * @param rowIndex
+	 */
+	private void validateValues(SparseRowDto row, int rowIndex) {
+		Map<String, String> values = row.getValues();
+		if (values == null) {
+			return;
+		}
+		for (int columnIndex = 0; columnIndex < resultSchema.size(); columnIndex++) {
+			ColumnModel cm = resultSchema.get(columnIndex);
+			if (values.containsKey(cm.getId())) {
+				values.put(cm.getId(), TableModelUtils.validateRowValue(values.get(cm.getId()), cm, rowIndex, columnIndex));
+			}
+		}
+	}
+
+	private List<SparseRowDto> getChunk(Future<List<SparseRowDto>> chunk) {
+		try {
+			return chunk.get();
+		} catch (InterruptedException e) {
+			cancelChunks();
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			cancelChunks();
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	private void cancelChunks() {
+		endOfStream = true;
+		currentChunk = Collections.emptyIterator();
+		chunks.forEach(chunk -> chunk.cancel(true));
+		chunks.clear();
+	}
+
+	private static String[] parseRecord(CSVParser parser, CSVRecord record) throws IOException {
+		return record == null ? null : parser.parseLine(record.getText());
+	}
+
+}
@@ -3,6 +3,7 @@ package org.sagebionetworks.repo.model.dbo.dao.table;
 import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.sagebionetworks.repo.model.table.ColumnChange;
 import org.sagebionetworks.repo.model.table.ColumnModel;
@@ -233,4 +234,34 @@ public interface TableRowTruthDAO {
 	 */
 	List<TableRowChange> getTableRowChangeWithFileRefsPage(org.sagebionetworks.repo.model.IdRange idRange, long limit, long offset);
 	
+	/**
+	 * Adds the given file handle ids to the index of the file handles referenced by the change with the given version of the table.
+	 * Ids that are already in the index for the change are ignored. An empty set records the change as indexed without any file
+	 * handle, so that it is not returned by {@link #getTableRowChangeWithUnindexedFileRefsPage(org.sagebionetworks.repo.model.IdRange, long, long)}
+	 * 
+	 * @param tableId
+	 * @param rowVersion
+	 * @param fileHandleIds
+	 */
+	void addTableRowChangeFileHandleIds(String tableId, long rowVersion, Set<Long> fileHandleIds);
+	
+	/**
+	 * @param tableId
+	 * @param rowVersion
+	 * @return The ids of the file handles in the index for the change with the given version of the table
+	 */
+	Set<Long> getTableRowChangeFileHandleIds(String tableId, long rowVersion);
+	
+	/**
+	 * Since the changes that are indexed are excluded from the results the page is fetched after the id of the last change of the
+	 * previous page rather than with an offset
+	 * 
+	 * @param idRange
+	 * @param lastId  The id of the last change of the previous page, the page contains the changes with a greater id. For the first page
+	 *                use any value lower than the min id of the range
+	 * @param limit
+	 * @return A page of row changes sorted by id that have file references whose file handles are not in the index yet
+	 */
+	List<TableRowChange> getTableRowChangeWithUnindexedFileRefsPage(org.sagebionetworks.repo.model.IdRange idRange, long lastId, long limit);
+	
 }
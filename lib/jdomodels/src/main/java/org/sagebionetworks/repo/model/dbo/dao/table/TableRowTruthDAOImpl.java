@@ -2,6 +2,9 @@ package org.sagebionetworks.repo.model.dbo.dao.table;
 
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_ID_SEQUENCE;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_ID_SEQUENCE_TABLE_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_ROW_FILE_HANDLE_CHANGE_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_ROW_FILE_HANDLE_FILE_HANDLE_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_ROW_FILE_HANDLE_TABLE_ID;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_ROW_HAS_FILE_REFS;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_ROW_ID;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_ROW_KEY_NEW;
@@ -13,6 +16,8 @@ import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_RO
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_TRX_TO_VER_TRX_ID;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_TRX_TO_VER_VER_NUM;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_ROW_CHANGE;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_ROW_CHANGE_FILE_HANDLE;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_ROW_FILE_HANDLE_EMPTY_MARKER;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_TABLE_ID_SEQUENCE;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_TABLE_TRX_TO_VERSION;
 
@@ -21,9 +26,12 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.sagebionetworks.StackConfiguration;
 import org.sagebionetworks.aws.SynapseS3Client;
@@ -130,6 +138,23 @@ public class TableRowTruthDAOImpl implements TableRowTruthDAO {
 			+ " ORDER BY " + COL_TABLE_ROW_ID 
 			+ " LIMIT ? OFFSET ?";
 	
+	private static final String SQL_SELECT_WITH_UNINDEXED_FILE_REFS_PAGE = "SELECT C.* FROM " + TABLE_ROW_CHANGE + " C"
+			+ " WHERE C." + COL_TABLE_ROW_ID + " BETWEEN ? AND ? AND C." + COL_TABLE_ROW_ID + " > ?"
+			+ " AND C." + COL_TABLE_ROW_TYPE + "='" + TableChangeType.ROW.name() + "' AND C." + COL_TABLE_ROW_HAS_FILE_REFS + " IS TRUE"
+			+ " AND NOT EXISTS (SELECT 1 FROM " + TABLE_ROW_CHANGE_FILE_HANDLE + " F WHERE F." + COL_TABLE_ROW_FILE_HANDLE_CHANGE_ID + " = C." + COL_TABLE_ROW_ID + ")"
+			+ " ORDER BY C." + COL_TABLE_ROW_ID
+			+ " LIMIT ?";
+	
+	private static final String SQL_INSERT_CHANGE_FILE_HANDLE_ID = "INSERT IGNORE INTO " + TABLE_ROW_CHANGE_FILE_HANDLE 
+			+ " (" + COL_TABLE_ROW_FILE_HANDLE_CHANGE_ID + ", " + COL_TABLE_ROW_FILE_HANDLE_TABLE_ID + ", " + COL_TABLE_ROW_FILE_HANDLE_FILE_HANDLE_ID + ")"
+			+ " SELECT " + COL_TABLE_ROW_ID + ", " + COL_TABLE_ROW_TABLE_ID + ", ? FROM " + TABLE_ROW_CHANGE
+			+ " WHERE " + COL_TABLE_ROW_TABLE_ID + " = ? AND " + COL_TABLE_ROW_VERSION + " = ?";
+	
+	private static final String SQL_SELECT_CHANGE_FILE_HANDLE_IDS = "SELECT F." + COL_TABLE_ROW_FILE_HANDLE_FILE_HANDLE_ID 
+			+ " FROM " + TABLE_ROW_CHANGE + " C JOIN " + TABLE_ROW_CHANGE_FILE_HANDLE + " F ON C." + COL_TABLE_ROW_ID + " = F." + COL_TABLE_ROW_FILE_HANDLE_CHANGE_ID
+			+ " WHERE C." + COL_TABLE_ROW_TABLE_ID + " = ? AND C." + COL_TABLE_ROW_VERSION + " = ?"
+			+ " AND F." + COL_TABLE_ROW_FILE_HANDLE_FILE_HANDLE_ID + " <> " + TABLE_ROW_FILE_HANDLE_EMPTY_MARKER;
+	
 	private DBOBasicDao basicDao;
 	private JdbcTemplate jdbcTemplate;
 	private SynapseS3Client s3Client;
@@ -586,5 +611,35 @@ public class TableRowTruthDAOImpl implements TableRowTruthDAO {
 		List<DBOTableRowChange> dbos = jdbcTemplate.query(SQL_SELECT_WITH_FILE_REFS_PAGE, rowChangeMapper, idRange.getMinId(), idRange.getMaxId(), limit, offset);
 		return TableRowChangeUtils.ceateDTOFromDBO(dbos);
 	}
+	
+	@WriteTransaction
+	@Override
+	public void addTableRowChangeFileHandleIds(String tableIdString, long rowVersion, Set<Long> fileHandleIds) {
+		ValidateArgument.required(tableIdString, "tableId");
+		ValidateArgument.required(fileHandleIds, "fileHandleIds");
+		long tableId = KeyFactory.stringToKey(tableIdString);
+		if (fileHandleIds.isEmpty()) {
+			// Marks the change as indexed so that its change set is not read again
+			jdbcTemplate.update(SQL_INSERT_CHANGE_FILE_HANDLE_ID, TABLE_ROW_FILE_HANDLE_EMPTY_MARKER, tableId, rowVersion);
+			return;
+		}
+		List<Object[]> batchArgs = fileHandleIds.stream()
+				.map(fileHandleId -> new Object[] { fileHandleId, tableId, rowVersion })
+				.collect(Collectors.toList());
+		jdbcTemplate.batchUpdate(SQL_INSERT_CHANGE_FILE_HANDLE_ID, batchArgs);
+	}
+	
+	@Override
+	public Set<Long> getTableRowChangeFileHandleIds(String tableIdString, long rowVersion) {
+		ValidateArgument.required(tableIdString, "tableId");
+		long tableId = KeyFactory.stringToKey(tableIdString);
+		return new HashSet<>(jdbcTemplate.queryForList(SQL_SELECT_CHANGE_FILE_HANDLE_IDS, Long.class, tableId, rowVersion));
+	}
+	
+	@Override
+	public List<TableRowChange> getTableRowChangeWithUnindexedFileRefsPage(org.sagebionetworks.repo.model.IdRange idRange, long lastId, long limit) {
+		List<DBOTableRowChange> dbos = jdbcTemplate.query(SQL_SELECT_WITH_UNINDEXED_FILE_REFS_PAGE, rowChangeMapper, idRange.getMinId(), idRange.getMaxId(), lastId, limit);
+		return TableRowChangeUtils.ceateDTOFromDBO(dbos);
+	}
 
 }
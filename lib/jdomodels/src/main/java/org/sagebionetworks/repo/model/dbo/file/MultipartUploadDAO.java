@@ -69,6 +69,14 @@ public interface MultipartUploadDAO {
 	 */
 	void addPartToUpload(String uploadId, int partNumber, String partMD5Hex);
 	
+	/**
+	 * Add a batch of parts to a multipart upload.
+	 * 
+	 * @param uploadId
+	 * @param parts
+	 */
+	void addPartsToUpload(String uploadId, List<PartMD5> parts);
+	
 	/**
 	 * Set the state of a part to failed.
 	 * 
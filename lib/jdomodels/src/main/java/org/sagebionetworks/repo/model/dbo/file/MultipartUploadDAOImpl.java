@@ -33,6 +33,7 @@ import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_MULTIP
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 import java.sql.Blob;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
@@ -354,6 +355,33 @@ public class MultipartUploadDAOImpl implements MultipartUploadDAO {
 		basicDao.createOrUpdate(partState);
 	}
 
+	@WriteTransaction
+	@Override
+	public void addPartsToUpload(String uploadId, List<PartMD5> parts) {
+		ValidateArgument.required(uploadId, "UploadId");
+		ValidateArgument.requiredNotEmpty(parts, "Parts");
+		
+		List<DBOMultipartUploadPartState> batch = new ArrayList<>(parts.size());
+		
+		for (PartMD5 part : parts) {
+			ValidateArgument.required(part, "Part");
+			ValidateArgument.required(part.getPartMD5Hex(), "PartMD5Hex");
+			validatePartNumber(part.getPartNumber());
+			
+			DBOMultipartUploadPartState partState = new DBOMultipartUploadPartState();
+			partState.setUploadId(Long.parseLong(uploadId));
+			partState.setPartNumber(part.getPartNumber());
+			partState.setPartMD5Hex(part.getPartMD5Hex());
+			partState.setErrorDetails(null);
+			batch.add(partState);
+		}
+		
+		// update the etag of the master row once for the whole batch.
+		updateEtag(uploadId);
+		
+		basicDao.createOrUpdateBatch(batch);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -0,0 +1,129 @@
+package org.sagebionetworks.repo.model.dbo.persistence;
+
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_ENTITY_CHECKSUM_BUCKET_BUCKET;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_ENTITY_CHECKSUM_BUCKET_CHECK_SUM;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_ENTITY_CHECKSUM_BUCKET_NODE_TYPE;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_ENTITY_CHECKSUM_BUCKET_PARENT_ID;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+import org.sagebionetworks.repo.model.dbo.DatabaseObject;
+import org.sagebionetworks.repo.model.dbo.FieldColumn;
+import org.sagebionetworks.repo.model.dbo.TableMapping;
+import org.sagebionetworks.repo.model.query.jdo.SqlConstants;
+
+/**
+ * A dynamic (no migration) table with the sum of the checksums of the children of a node of a given type whose id falls in a given
+ * bucket. Only the buckets that are not dirty in the {@link DBOEntityChecksumBucketStatus} are up to date.
+ *
+ */
+public class DBOEntityChecksumBucket implements DatabaseObject<DBOEntityChecksumBucket> {
+
+	private static FieldColumn[] FIELDS = new FieldColumn[] {
+			new FieldColumn("parentId", COL_ENTITY_CHECKSUM_BUCKET_PARENT_ID, true),
+			new FieldColumn("nodeType", COL_ENTITY_CHECKSUM_BUCKET_NODE_TYPE, true),
+			new FieldColumn("bucket", COL_ENTITY_CHECKSUM_BUCKET_BUCKET, true),
+			new FieldColumn("checksum", COL_ENTITY_CHECKSUM_BUCKET_CHECK_SUM) };
+
+	TableMapping<DBOEntityChecksumBucket> MAPPING = new TableMapping<DBOEntityChecksumBucket>() {
+
+		@Override
+		public DBOEntityChecksumBucket mapRow(ResultSet rs, int rowNum) throws SQLException {
+			DBOEntityChecksumBucket dbo = new DBOEntityChecksumBucket();
+			dbo.setParentId(rs.getLong(COL_ENTITY_CHECKSUM_BUCKET_PARENT_ID));
+			dbo.setNodeType(rs.getString(COL_ENTITY_CHECKSUM_BUCKET_NODE_TYPE));
+			dbo.setBucket(rs.getLong(COL_ENTITY_CHECKSUM_BUCKET_BUCKET));
+			dbo.setChecksum(rs.getLong(COL_ENTITY_CHECKSUM_BUCKET_CHECK_SUM));
+			return dbo;
+		}
+
+		@Override
+		public String getTableName() {
+			return SqlConstants.TABLE_ENTITY_CHECKSUM_BUCKET;
+		}
+
+		@Override
+		public String getDDLFileName() {
+			return SqlConstants.DDL_ENTITY_CHECKSUM_BUCKET;
+		}
+
+		@Override
+		public FieldColumn[] getFieldColumns() {
+			return FIELDS;
+		}
+
+		@Override
+		public Class<? extends DBOEntityChecksumBucket> getDBOClass() {
+			return DBOEntityChecksumBucket.class;
+		}
+	};
+
+	@Override
+	public TableMapping<DBOEntityChecksumBucket> getTableMapping() {
+		return MAPPING;
+	}
+
+	private Long parentId;
+	private String nodeType;
+	private Long bucket;
+	private Long checksum;
+
+	public Long getParentId() {
+		return parentId;
+	}
+
+	public void setParentId(Long parentId) {
+		this.parentId = parentId;
+	}
+
+	public String getNodeType() {
+		return nodeType;
+	}
+
+	public void setNodeType(String nodeType) {
+		this.nodeType = nodeType;
+	}
+
+	public Long getBucket() {
+		return bucket;
+	}
+
+	public void setBucket(Long bucket) {
+		this.bucket = bucket;
+	}
+
+	public Long getChecksum() {
+		return checksum;
+	}
+
+	public void setChecksum(Long checksum) {
+		this.checksum = checksum;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(bucket, checksum, nodeType, parentId);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof DBOEntityChecksumBucket)) {
+			return false;
+		}
+		DBOEntityChecksumBucket other = (DBOEntityChecksumBucket) obj;
+		return Objects.equals(bucket, other.bucket) && Objects.equals(checksum, other.checksum) && Objects.equals(nodeType, other.nodeType)
+				&& Objects.equals(parentId, other.parentId);
+	}
+
+	@Override
+	public String toString() {
+		return "DBOEntityChecksumBucket [parentId=" + parentId + ", nodeType=" + nodeType + ", bucket=" + bucket + ", checksum=" + checksum
+				+ "]";
+	}
+
+}
@@ -0,0 +1,102 @@
+package org.sagebionetworks.repo.model.dbo.persistence;
+
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_ENTITY_CHECKSUM_BUCKET_STATUS_BUCKET;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_ENTITY_CHECKSUM_BUCKET_STATUS_DIRTY;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+import org.sagebionetworks.repo.model.dbo.DatabaseObject;
+import org.sagebionetworks.repo.model.dbo.FieldColumn;
+import org.sagebionetworks.repo.model.dbo.TableMapping;
+import org.sagebionetworks.repo.model.query.jdo.SqlConstants;
+
+/**
+ * A dynamic (no migration) table that tracks which buckets of the {@link DBOEntityChecksumBucket} table need to be recomputed.
+ *
+ */
+public class DBOEntityChecksumBucketStatus implements DatabaseObject<DBOEntityChecksumBucketStatus> {
+
+	private static FieldColumn[] FIELDS = new FieldColumn[] {
+			new FieldColumn("bucket", COL_ENTITY_CHECKSUM_BUCKET_STATUS_BUCKET, true),
+			new FieldColumn("dirty", COL_ENTITY_CHECKSUM_BUCKET_STATUS_DIRTY) };
+
+	TableMapping<DBOEntityChecksumBucketStatus> MAPPING = new TableMapping<DBOEntityChecksumBucketStatus>() {
+
+		@Override
+		public DBOEntityChecksumBucketStatus mapRow(ResultSet rs, int rowNum) throws SQLException {
+			DBOEntityChecksumBucketStatus dbo = new DBOEntityChecksumBucketStatus();
+			dbo.setBucket(rs.getLong(COL_ENTITY_CHECKSUM_BUCKET_STATUS_BUCKET));
+			dbo.setDirty(rs.getBoolean(COL_ENTITY_CHECKSUM_BUCKET_STATUS_DIRTY));
+			return dbo;
+		}
+
+		@Override
+		public String getTableName() {
+			return SqlConstants.TABLE_ENTITY_CHECKSUM_BUCKET_STATUS;
+		}
+
+		@Override
+		public String getDDLFileName() {
+			return SqlConstants.DDL_ENTITY_CHECKSUM_BUCKET_STATUS;
+		}
+
+		@Override
+		public FieldColumn[] getFieldColumns() {
+			return FIELDS;
+		}
+
+		@Override
+		public Class<? extends DBOEntityChecksumBucketStatus> getDBOClass() {
+			return DBOEntityChecksumBucketStatus.class;
+		}
+	};
+
+	@Override
+	public TableMapping<DBOEntityChecksumBucketStatus> getTableMapping() {
+		return MAPPING;
+	}
+
+	private Long bucket;
+	private Boolean dirty;
+
+	public Long getBucket() {
+		return bucket;
+	}
+
+	public void setBucket(Long bucket) {
+		this.bucket = bucket;
+	}
+
+	public Boolean getDirty() {
+		return dirty;
+	}
+
+	public void setDirty(Boolean dirty) {
+		this.dirty = dirty;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(bucket, dirty);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof DBOEntityChecksumBucketStatus)) {
+			return false;
+		}
+		DBOEntityChecksumBucketStatus other = (DBOEntityChecksumBucketStatus) obj;
+		return Objects.equals(bucket, other.bucket) && Objects.equals(dirty, other.dirty);
+	}
+
+	@Override
+	public String toString() {
+		return "DBOEntityChecksumBucketStatus [bucket=" + bucket + ", dirty=" + dirty + "]";
+	}
+
+}
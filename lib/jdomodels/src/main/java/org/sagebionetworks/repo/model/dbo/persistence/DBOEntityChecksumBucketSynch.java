@@ -0,0 +1,103 @@
+package org.sagebionetworks.repo.model.dbo.persistence;
+
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_ENTITY_CHECKSUM_BUCKET_SYNCH_CHANGE_NUM;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_ENTITY_CHECKSUM_BUCKET_SYNCH_ID;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+import org.sagebionetworks.repo.model.dbo.DatabaseObject;
+import org.sagebionetworks.repo.model.dbo.FieldColumn;
+import org.sagebionetworks.repo.model.dbo.TableMapping;
+import org.sagebionetworks.repo.model.query.jdo.SqlConstants;
+
+/**
+ * A dynamic (no migration) single row table with the number of the last change that was applied to the
+ * {@link DBOEntityChecksumBucketStatus}.
+ *
+ */
+public class DBOEntityChecksumBucketSynch implements DatabaseObject<DBOEntityChecksumBucketSynch> {
+
+	private static FieldColumn[] FIELDS = new FieldColumn[] {
+			new FieldColumn("id", COL_ENTITY_CHECKSUM_BUCKET_SYNCH_ID, true),
+			new FieldColumn("changeNumber", COL_ENTITY_CHECKSUM_BUCKET_SYNCH_CHANGE_NUM) };
+
+	TableMapping<DBOEntityChecksumBucketSynch> MAPPING = new TableMapping<DBOEntityChecksumBucketSynch>() {
+
+		@Override
+		public DBOEntityChecksumBucketSynch mapRow(ResultSet rs, int rowNum) throws SQLException {
+			DBOEntityChecksumBucketSynch dbo = new DBOEntityChecksumBucketSynch();
+			dbo.setId(rs.getLong(COL_ENTITY_CHECKSUM_BUCKET_SYNCH_ID));
+			dbo.setChangeNumber(rs.getLong(COL_ENTITY_CHECKSUM_BUCKET_SYNCH_CHANGE_NUM));
+			return dbo;
+		}
+
+		@Override
+		public String getTableName() {
+			return SqlConstants.TABLE_ENTITY_CHECKSUM_BUCKET_SYNCH;
+		}
+
+		@Override
+		public String getDDLFileName() {
+			return SqlConstants.DDL_ENTITY_CHECKSUM_BUCKET_SYNCH;
+		}
+
+		@Override
+		public FieldColumn[] getFieldColumns() {
+			return FIELDS;
+		}
+
+		@Override
+		public Class<? extends DBOEntityChecksumBucketSynch> getDBOClass() {
+			return DBOEntityChecksumBucketSynch.class;
+		}
+	};
+
+	@Override
+	public TableMapping<DBOEntityChecksumBucketSynch> getTableMapping() {
+		return MAPPING;
+	}
+
+	private Long id;
+	private Long changeNumber;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Long getChangeNumber() {
+		return changeNumber;
+	}
+
+	public void setChangeNumber(Long changeNumber) {
+		this.changeNumber = changeNumber;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(changeNumber, id);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof DBOEntityChecksumBucketSynch)) {
+			return false;
+		}
+		DBOEntityChecksumBucketSynch other = (DBOEntityChecksumBucketSynch) obj;
+		return Objects.equals(changeNumber, other.changeNumber) && Objects.equals(id, other.id);
+	}
+
+	@Override
+	public String toString() {
+		return "DBOEntityChecksumBucketSynch [id=" + id + ", changeNumber=" + changeNumber + "]";
+	}
+
+}
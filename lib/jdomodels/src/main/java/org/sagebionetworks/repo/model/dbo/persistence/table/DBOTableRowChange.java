@@ -28,6 +28,8 @@ import org.sagebionetworks.repo.model.dbo.migration.BasicMigratableTableTranslat
 import org.sagebionetworks.repo.model.dbo.migration.MigratableTableTranslation;
 import org.sagebionetworks.repo.model.migration.MigrationType;
 
+import com.google.common.collect.Lists;
+
 /**
  * Database object for the TableEntity row changes.
  * 
@@ -269,7 +271,7 @@ public class DBOTableRowChange implements MigratableDatabaseObject<DBOTableRowCh
 
 	@Override
 	public List<MigratableDatabaseObject<?, ?>> getSecondaryTypes() {
-		return null;
+		return Lists.newArrayList(new DBOTableRowChangeFileHandle());
 	}
 
 	@Override
@@ -0,0 +1,151 @@
+package org.sagebionetworks.repo.model.dbo.persistence.table;
+
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_ROW_FILE_HANDLE_CHANGE_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_ROW_FILE_HANDLE_FILE_HANDLE_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_ROW_FILE_HANDLE_TABLE_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.DDL_TABLE_ROW_CHANGE_FILE_HANDLE;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_ROW_CHANGE_FILE_HANDLE;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Objects;
+
+import org.sagebionetworks.repo.model.dbo.FieldColumn;
+import org.sagebionetworks.repo.model.dbo.MigratableDatabaseObject;
+import org.sagebionetworks.repo.model.dbo.TableMapping;
+import org.sagebionetworks.repo.model.dbo.migration.BasicMigratableTableTranslation;
+import org.sagebionetworks.repo.model.dbo.migration.MigratableTableTranslation;
+import org.sagebionetworks.repo.model.migration.MigrationType;
+
+/**
+ * Database object for the index of the file handles referenced by a table row
+ * change, secondary type of the {@link DBOTableRowChange}.
+ */
+public class DBOTableRowChangeFileHandle implements MigratableDatabaseObject<DBOTableRowChangeFileHandle, DBOTableRowChangeFileHandle> {
+
+	private static final FieldColumn[] FIELDS = new FieldColumn[] {
+			new FieldColumn("changeId", COL_TABLE_ROW_FILE_HANDLE_CHANGE_ID, true).withIsBackupId(true),
+			new FieldColumn("tableId", COL_TABLE_ROW_FILE_HANDLE_TABLE_ID),
+			new FieldColumn("fileHandleId", COL_TABLE_ROW_FILE_HANDLE_FILE_HANDLE_ID, true).withHasFileHandleRef(true)
+	};
+
+	private static final TableMapping<DBOTableRowChangeFileHandle> TABLE_MAPPING = new TableMapping<DBOTableRowChangeFileHandle>() {
+
+		@Override
+		public DBOTableRowChangeFileHandle mapRow(ResultSet rs, int rowNum) throws SQLException {
+			DBOTableRowChangeFileHandle dbo = new DBOTableRowChangeFileHandle();
+			dbo.setChangeId(rs.getLong(COL_TABLE_ROW_FILE_HANDLE_CHANGE_ID));
+			dbo.setTableId(rs.getLong(COL_TABLE_ROW_FILE_HANDLE_TABLE_ID));
+			dbo.setFileHandleId(rs.getLong(COL_TABLE_ROW_FILE_HANDLE_FILE_HANDLE_ID));
+			return dbo;
+		}
+
+		@Override
+		public String getTableName() {
+			return TABLE_ROW_CHANGE_FILE_HANDLE;
+		}
+
+		@Override
+		public String getDDLFileName() {
+			return DDL_TABLE_ROW_CHANGE_FILE_HANDLE;
+		}
+
+		@Override
+		public FieldColumn[] getFieldColumns() {
+			return FIELDS;
+		}
+
+		@Override
+		public Class<? extends DBOTableRowChangeFileHandle> getDBOClass() {
+			return DBOTableRowChangeFileHandle.class;
+		}
+	};
+
+	private static final MigratableTableTranslation<DBOTableRowChangeFileHandle, DBOTableRowChangeFileHandle> MIGRATION_TRANSLATOR = new BasicMigratableTableTranslation<DBOTableRowChangeFileHandle>();
+
+	private Long changeId;
+	private Long tableId;
+	private Long fileHandleId;
+
+	@Override
+	public TableMapping<DBOTableRowChangeFileHandle> getTableMapping() {
+		return TABLE_MAPPING;
+	}
+
+	public Long getChangeId() {
+		return changeId;
+	}
+
+	public void setChangeId(Long changeId) {
+		this.changeId = changeId;
+	}
+
+	public Long getTableId() {
+		return tableId;
+	}
+
+	public void setTableId(Long tableId) {
+		this.tableId = tableId;
+	}
+
+	public Long getFileHandleId() {
+		return fileHandleId;
+	}
+
+	public void setFileHandleId(Long fileHandleId) {
+		this.fileHandleId = fileHandleId;
+	}
+
+	@Override
+	public MigrationType getMigratableTableType() {
+		return MigrationType.TABLE_CHANGE_FILE_HANDLE;
+	}
+
+	@Override
+	public MigratableTableTranslation<DBOTableRowChangeFileHandle, DBOTableRowChangeFileHandle> getTranslator() {
+		return MIGRATION_TRANSLATOR;
+	}
+
+	@Override
+	public Class<? extends DBOTableRowChangeFileHandle> getBackupClass() {
+		return DBOTableRowChangeFileHandle.class;
+	}
+
+	@Override
+	public Class<? extends DBOTableRowChangeFileHandle> getDatabaseObjectClass() {
+		return DBOTableRowChangeFileHandle.class;
+	}
+
+	@Override
+	public List<MigratableDatabaseObject<?, ?>> getSecondaryTypes() {
+		return null;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(changeId, fileHandleId, tableId);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		DBOTableRowChangeFileHandle other = (DBOTableRowChangeFileHandle) obj;
+		return Objects.equals(changeId, other.changeId) && Objects.equals(fileHandleId, other.fileHandleId)
+				&& Objects.equals(tableId, other.tableId);
+	}
+
+	@Override
+	public String toString() {
+		return "DBOTableRowChangeFileHandle [changeId=" + changeId + ", tableId=" + tableId + ", fileHandleId=" + fileHandleId + "]";
+	}
+
+}
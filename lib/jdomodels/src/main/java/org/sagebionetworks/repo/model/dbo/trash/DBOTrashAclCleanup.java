@@ -0,0 +1,119 @@
+package org.sagebionetworks.repo.model.dbo.trash;
+
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TRASH_ACL_CLEANUP_CREATED_ON;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TRASH_ACL_CLEANUP_LAST_PARENT_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TRASH_ACL_CLEANUP_NODE_ID;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Objects;
+
+import org.sagebionetworks.repo.model.dbo.DatabaseObject;
+import org.sagebionetworks.repo.model.dbo.FieldColumn;
+import org.sagebionetworks.repo.model.dbo.TableMapping;
+import org.sagebionetworks.repo.model.query.jdo.SqlConstants;
+
+/**
+ * A dynamic (no migration) table with the trashed nodes whose hierarchy still
+ * contains ACLs to delete. The last container (in ID order) of the hierarchy
+ * whose children were processed is the checkpoint used to resume the cleanup.
+ *
+ */
+public class DBOTrashAclCleanup implements DatabaseObject<DBOTrashAclCleanup> {
+
+	private static FieldColumn[] FIELDS = new FieldColumn[] {
+			new FieldColumn("nodeId", COL_TRASH_ACL_CLEANUP_NODE_ID, true),
+			new FieldColumn("lastParentId", COL_TRASH_ACL_CLEANUP_LAST_PARENT_ID),
+			new FieldColumn("createdOn", COL_TRASH_ACL_CLEANUP_CREATED_ON) };
+
+	TableMapping<DBOTrashAclCleanup> MAPPING = new TableMapping<DBOTrashAclCleanup>() {
+
+		@Override
+		public DBOTrashAclCleanup mapRow(ResultSet rs, int rowNum) throws SQLException {
+			DBOTrashAclCleanup dbo = new DBOTrashAclCleanup();
+			dbo.setNodeId(rs.getLong(COL_TRASH_ACL_CLEANUP_NODE_ID));
+			dbo.setLastParentId(rs.getLong(COL_TRASH_ACL_CLEANUP_LAST_PARENT_ID));
+			dbo.setCreatedOn(rs.getTimestamp(COL_TRASH_ACL_CLEANUP_CREATED_ON));
+			return dbo;
+		}
+
+		@Override
+		public String getTableName() {
+			return SqlConstants.TABLE_TRASH_ACL_CLEANUP;
+		}
+
+		@Override
+		public String getDDLFileName() {
+			return SqlConstants.DDL_FILE_TRASH_ACL_CLEANUP;
+		}
+
+		@Override
+		public FieldColumn[] getFieldColumns() {
+			return FIELDS;
+		}
+
+		@Override
+		public Class<? extends DBOTrashAclCleanup> getDBOClass() {
+			return DBOTrashAclCleanup.class;
+		}
+	};
+
+	@Override
+	public TableMapping<DBOTrashAclCleanup> getTableMapping() {
+		return MAPPING;
+	}
+
+	private Long nodeId;
+	private Long lastParentId;
+	private Timestamp createdOn;
+
+	public Long getNodeId() {
+		return nodeId;
+	}
+
+	public void setNodeId(Long nodeId) {
+		this.nodeId = nodeId;
+	}
+
+	public Long getLastParentId() {
+		return lastParentId;
+	}
+
+	public void setLastParentId(Long lastParentId) {
+		this.lastParentId = lastParentId;
+	}
+
+	public Timestamp getCreatedOn() {
+		return createdOn;
+	}
+
+	public void setCreatedOn(Timestamp createdOn) {
+		this.createdOn = createdOn;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(createdOn, lastParentId, nodeId);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof DBOTrashAclCleanup)) {
+			return false;
+		}
+		DBOTrashAclCleanup other = (DBOTrashAclCleanup) obj;
+		return Objects.equals(createdOn, other.createdOn) && Objects.equals(lastParentId, other.lastParentId)
+				&& Objects.equals(nodeId, other.nodeId);
+	}
+
+	@Override
+	public String toString() {
+		return "DBOTrashAclCleanup [nodeId=" + nodeId + ", lastParentId=" + lastParentId + ", createdOn="
+				+ createdOn + "]";
+	}
+
+}
@@ -8,7 +8,11 @@ import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TRASH_CA
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TRASH_CAN_PARENT_ID;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TRASH_CAN_ETAG;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TRASH_CAN_PRIORITY_PURGE;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TRASH_ACL_CLEANUP_CREATED_ON;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TRASH_ACL_CLEANUP_LAST_PARENT_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TRASH_ACL_CLEANUP_NODE_ID;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.LIMIT_PARAM_NAME;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_TRASH_ACL_CLEANUP;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_TRASH_CAN;
 import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_NODE;
 
@@ -79,6 +83,24 @@ public class DBOTrashCanDaoImpl implements TrashCanDao {
 	private static final String SQL_FLAG_NODES_FOR_PURGE = "UPDATE " + TABLE_TRASH_CAN + " SET " + COL_TRASH_CAN_PRIORITY_PURGE + " = TRUE"
 			+ ", " + COL_TRASH_CAN_ETAG + " = UUID()" + " WHERE " + COL_TRASH_CAN_NODE_ID + " IN (:" + IDS_PARAM_NAME + ")";
 
+	private static final String SQL_CREATE_ACL_CLEANUP = "INSERT INTO " + TABLE_TRASH_ACL_CLEANUP + " (" + COL_TRASH_ACL_CLEANUP_NODE_ID + ", "
+			+ COL_TRASH_ACL_CLEANUP_LAST_PARENT_ID + ", " + COL_TRASH_ACL_CLEANUP_CREATED_ON + ")"
+			+ " VALUES (?, -1, NOW(3)) ON DUPLICATE KEY UPDATE " + COL_TRASH_ACL_CLEANUP_LAST_PARENT_ID + " = -1";
+
+	private static final String SQL_SELECT_ACL_CLEANUP = "SELECT * FROM " + TABLE_TRASH_ACL_CLEANUP + " WHERE "
+			+ COL_TRASH_ACL_CLEANUP_NODE_ID + " = ?";
+
+	private static final String SQL_SELECT_ACL_CLEANUP_IDS = "SELECT " + COL_TRASH_ACL_CLEANUP_NODE_ID + " FROM " + TABLE_TRASH_ACL_CLEANUP
+			+ " ORDER BY " + COL_TRASH_ACL_CLEANUP_CREATED_ON + " LIMIT ?";
+
+	private static final String SQL_UPDATE_ACL_CLEANUP = "UPDATE " + TABLE_TRASH_ACL_CLEANUP + " SET "
+			+ COL_TRASH_ACL_CLEANUP_LAST_PARENT_ID + " = ? WHERE " + COL_TRASH_ACL_CLEANUP_NODE_ID + " = ?";
+
+	private static final String SQL_DELETE_ACL_CLEANUP = "DELETE FROM " + TABLE_TRASH_ACL_CLEANUP + " WHERE " + COL_TRASH_ACL_CLEANUP_NODE_ID
+			+ " = ?";
+
+	private static final RowMapper<DBOTrashAclCleanup> ACL_CLEANUP_ROW_MAPPER = new DBOTrashAclCleanup().getTableMapping();
+
 	private static final RowMapper<DBOTrashedEntity> DB_ROW_MAPPER = new DBOTrashedEntity().getTableMapping();
 	
 	private static final RowMapper<TrashedEntity> ROW_MAPPER = new RowMapper<TrashedEntity>() {
@@ -237,9 +259,44 @@ public class DBOTrashCanDaoImpl implements TrashCanDao {
 
 	}
 
+	@WriteTransaction
+	@Override
+	public void createAclCleanup(Long nodeId) {
+		ValidateArgument.required(nodeId, "nodeId");
+		jdbcTemplate.update(SQL_CREATE_ACL_CLEANUP, nodeId);
+	}
+
+	@Override
+	public Optional<DBOTrashAclCleanup> getAclCleanup(Long nodeId) {
+		ValidateArgument.required(nodeId, "nodeId");
+		return jdbcTemplate.query(SQL_SELECT_ACL_CLEANUP, ACL_CLEANUP_ROW_MAPPER, nodeId).stream().findFirst();
+	}
+
+	@Override
+	public List<Long> getAclCleanupNodeIds(long limit) {
+		ValidateArgument.requirement(limit >= 0, "limit must not be negative");
+		return jdbcTemplate.queryForList(SQL_SELECT_ACL_CLEANUP_IDS, Long.class, limit);
+	}
+
+	@WriteTransaction
+	@Override
+	public void updateAclCleanupCheckpoint(Long nodeId, Long lastParentId) {
+		ValidateArgument.required(nodeId, "nodeId");
+		ValidateArgument.required(lastParentId, "lastParentId");
+		jdbcTemplate.update(SQL_UPDATE_ACL_CLEANUP, lastParentId, nodeId);
+	}
+
+	@WriteTransaction
+	@Override
+	public void deleteAclCleanup(Long nodeId) {
+		ValidateArgument.required(nodeId, "nodeId");
+		jdbcTemplate.update(SQL_DELETE_ACL_CLEANUP, nodeId);
+	}
+
 	@WriteTransaction
 	@Override
 	public void truncate() {
+		jdbcTemplate.update("DELETE FROM " + TABLE_TRASH_ACL_CLEANUP);
 		jdbcTemplate.update("DELETE FROM " + TABLE_TRASH_CAN);
 	}
 }
@@ -67,6 +67,40 @@ public interface TrashCanDao {
 	 */
 	int delete(List<Long> nodeIDs) throws DatastoreException, NotFoundException;
 
+	/**
+	 * Records that the hierarchy of the given trashed node contains ACLs that still need to be deleted, starting from the node itself.
+	 * 
+	 * @param nodeId
+	 */
+	void createAclCleanup(Long nodeId);
+
+	/**
+	 * @param nodeId
+	 * @return The checkpoint of the ACL cleanup of the hierarchy of the given trashed node, empty if there is no pending cleanup
+	 */
+	Optional<DBOTrashAclCleanup> getAclCleanup(Long nodeId);
+
+	/**
+	 * @param limit
+	 * @return The ids of up to limit trashed nodes with a pending ACL cleanup, oldest first
+	 */
+	List<Long> getAclCleanupNodeIds(long limit);
+
+	/**
+	 * Saves the checkpoint of the ACL cleanup of the hierarchy of the given trashed node
+	 * 
+	 * @param nodeId
+	 * @param lastParentId The id of the last container of the hierarchy (in ID order) whose children were processed
+	 */
+	void updateAclCleanupCheckpoint(Long nodeId, Long lastParentId);
+
+	/**
+	 * Removes the pending ACL cleanup of the given trashed node
+	 * 
+	 * @param nodeId
+	 */
+	void deleteAclCleanup(Long nodeId);
+
 	/**
 	 * How many entities are in the trash can (including entities with priority purge), for testing only.
 	 */
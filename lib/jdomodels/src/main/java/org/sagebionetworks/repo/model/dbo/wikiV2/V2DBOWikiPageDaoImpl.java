@@ -32,6 +32,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -122,6 +123,12 @@ public class V2DBOWikiPageDaoImpl implements V2WikiPageDao {
 	private static final String SQL_DELETE_USING_ID_AND_ROOT = "DELETE FROM "+V2_TABLE_WIKI_PAGE+" WHERE "+V2_COL_WIKI_ID+" = ? AND "+V2_COL_WIKI_ROOT_ID+" = ?";
 	private static final String WIKI_HEADER_SELECT = V2_COL_WIKI_ID+", "+V2_COL_WIKI_TITLE+", "+V2_COL_WIKI_PARENT_ID;
 	private static final String SQL_SELECT_CHILDREN_HEADERS = "SELECT "+WIKI_HEADER_SELECT+" FROM "+V2_TABLE_WIKI_PAGE+" WHERE "+V2_COL_WIKI_ROOT_ID+" = ? ORDER BY "+V2_COL_WIKI_PARENT_ID+", "+V2_COL_WIKI_TITLE+" LIMIT ? OFFSET ?";
+	private static final String SQL_SELECT_CURRENT_CONTENT_FOR_OWNERS = "SELECT WO."+V2_COL_WIKI_ONWERS_OWNER_ID+", WM."+V2_COL_WIKI_MARKDOWN_VERSION_NUM+", WM."+V2_COL_WIKI_MARKDOWN_TITLE+", WM."+V2_COL_WIKI_MARKDOWN_FILE_HANDLE_ID
+			+" FROM "+V2_TABLE_WIKI_OWNERS+" WO"
+			+" JOIN "+V2_TABLE_WIKI_PAGE+" WP ON WP."+V2_COL_WIKI_ROOT_ID+" = WO."+V2_COL_WIKI_ONWERS_ROOT_WIKI_ID
+			+" JOIN "+V2_TABLE_WIKI_MARKDOWN+" WM ON (WM."+V2_COL_WIKI_MARKDOWN_ID+" = WP."+V2_COL_WIKI_ID+" AND WM."+V2_COL_WIKI_MARKDOWN_VERSION_NUM+" = WP."+V2_COL_WIKI_MARKDOWN_VERSION+")"
+			+" WHERE WO."+V2_COL_WIKI_ONWERS_OWNER_ID+" IN (:ownerIds) AND WO."+V2_COL_WIKI_ONWERS_OBJECT_TYPE+" = :ownerType"
+			+" ORDER BY WO."+V2_COL_WIKI_ONWERS_OWNER_ID+", WP."+V2_COL_WIKI_PARENT_ID+", WP."+V2_COL_WIKI_TITLE;
 	private static final String SQL_LOCK_FOR_UPDATE = "SELECT "+V2_COL_WIKI_ETAG+" FROM "+V2_TABLE_WIKI_PAGE+" WHERE "+V2_COL_WIKI_ID+" = ? FOR UPDATE";
 	private static final String SQL_LOCK_OWNERS_FOR_UPDATE = "SELECT "+V2_COL_WIKI_OWNERS_ETAG+" FROM "+V2_TABLE_WIKI_OWNERS+" WHERE "+V2_COL_WIKI_ONWERS_ROOT_WIKI_ID+" = ? FOR UPDATE";
 	private static final String SQL_COUNT_ALL_WIKIPAGES = "SELECT COUNT(*) FROM "+V2_TABLE_WIKI_PAGE;
@@ -522,6 +529,29 @@ public class V2DBOWikiPageDaoImpl implements V2WikiPageDao {
 	public String getMarkdown(WikiPageKey key, Long version) throws IOException, NotFoundException {
 		V2WikiPage wiki = get(key, version);
 		S3FileHandle markdownHandle = (S3FileHandle) fileMetadataDao.get(wiki.getMarkdownFileHandleId());
+		return readMarkdown(markdownHandle);
+	}
+	
+	@Override
+	public Map<String, String> getMarkdownForFileHandles(List<String> markdownFileHandleIds) throws IOException {
+		ValidateArgument.required(markdownFileHandleIds, "markdownFileHandleIds");
+		Map<String, String> results = new LinkedHashMap<>(markdownFileHandleIds.size());
+		if (markdownFileHandleIds.isEmpty()) {
+			return results;
+		}
+		Map<String, FileHandle> handles = fileMetadataDao.getAllFileHandlesBatch(markdownFileHandleIds);
+		for (String fileHandleId : markdownFileHandleIds) {
+			FileHandle handle = handles.get(fileHandleId);
+			if (handle != null && !results.containsKey(fileHandleId)) {
+				results.put(fileHandleId, readMarkdown((S3FileHandle) handle));
+			}
+		}
+		return results;
+	}
+	
+	@Override
+	public String readMarkdown(S3FileHandle markdownHandle) throws IOException {
+		ValidateArgument.required(markdownHandle, "markdownHandle");
 		S3Object s3Object = s3Client.getObject(markdownHandle.getBucketName(), markdownHandle.getKey());
 		String contentType = s3Object.getObjectMetadata().getContentType();
 		Charset charset = ContentTypeUtil.getCharsetFromContentTypeString(contentType);
@@ -674,6 +704,30 @@ public class V2DBOWikiPageDaoImpl implements V2WikiPageDao {
 		return jdbcTemplate.query(SQL_SELECT_CHILDREN_HEADERS, WIKI_HEADER_ROW_MAPPER, root, limit, offset);
 	}
 	
+	@Override
+	public Map<Long, List<V2WikiMarkdownVersion>> getCurrentWikiContentForOwners(List<Long> ownerIds, ObjectType ownerType, long limitPerOwner) {
+		ValidateArgument.required(ownerIds, "ownerIds");
+		ValidateArgument.required(ownerType, "ownerType");
+		Map<Long, List<V2WikiMarkdownVersion>> results = new LinkedHashMap<>();
+		if (ownerIds.isEmpty()) {
+			return results;
+		}
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		params.addValue("ownerIds", ownerIds);
+		params.addValue("ownerType", ownerType.name());
+		namedTemplate.query(SQL_SELECT_CURRENT_CONTENT_FOR_OWNERS, params, (RowCallbackHandler) (ResultSet rs) -> {
+			List<V2WikiMarkdownVersion> pages = results.computeIfAbsent(rs.getLong(V2_COL_WIKI_ONWERS_OWNER_ID), k -> new ArrayList<>());
+			if (pages.size() < limitPerOwner) {
+				V2WikiMarkdownVersion content = new V2WikiMarkdownVersion();
+				content.setVersion("" + rs.getLong(V2_COL_WIKI_MARKDOWN_VERSION_NUM));
+				content.setTitle(rs.getString(V2_COL_WIKI_MARKDOWN_TITLE));
+				content.setMarkdownFileHandleId(rs.getString(V2_COL_WIKI_MARKDOWN_FILE_HANDLE_ID));
+				pages.add(content);
+			}
+		});
+		return results;
+	}
+	
 	/**
 	 * Propagation should be mandatory because this method should be called from within a transaction,
 	 * otherwise the lock won't be held. Not mandatory for testing.
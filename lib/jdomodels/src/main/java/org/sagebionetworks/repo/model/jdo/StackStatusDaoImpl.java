@@ -29,10 +29,15 @@ public class StackStatusDaoImpl implements StackStatusDao, InitializingBean {
 	
 	public static final String SQL_GET_ALL_STATUS = "SELECT "+COL_STACK_STATUS_STATUS+", "+COL_STACK_STATUS_CURRENT_MESSAGE+", "+COL_STACK_STATUS_PENDING_MESSAGE+" FROM "+TABLE_STACK_STATUS+" WHERE "+COL_STACK_STATUS_ID+" = "+DBOStackStatus.STATUS_ID;
 	
+	// Bounds how long a change of the status made on another machine can go unnoticed
+	static final long CACHED_STATUS_REFRESH_INTERVAL_MS = 5_000;
+	
 	@Autowired
 	DBOBasicDao dboBasicDao;
 	@Autowired
 	private JdbcTemplate jdbcTemplate;
+	
+	private volatile CachedStatus cachedStatus;
 
 	/**
 	 * This should always occur in its own transaction.
@@ -51,6 +56,8 @@ public class StackStatusDaoImpl implements StackStatusDao, InitializingBean {
 			jdo.setCurrentMessage(dto.getCurrentMessage());
 			jdo.setPendingMessage(dto.getPendingMaintenanceMessage());
 			dboBasicDao.update(jdo);
+			// Push the change to the callers on this machine
+			cachedStatus = new CachedStatus(copy(dto), System.currentTimeMillis());
 		}catch(NotFoundException e){
 			throw new RuntimeException("Failed to get the current status!!!!",e);
 		} catch (DatastoreException e) {
@@ -92,6 +99,25 @@ public class StackStatusDaoImpl implements StackStatusDao, InitializingBean {
 		return jdbcTemplate.queryForObject(SQL_GET_ALL_STATUS, mapper);
 	}
 
+	@Override
+	public StackStatus getCachedFullCurrentStatus() {
+		CachedStatus cached = cachedStatus;
+		long now = System.currentTimeMillis();
+		if (cached == null || now - cached.refreshedOn >= CACHED_STATUS_REFRESH_INTERVAL_MS) {
+			cached = new CachedStatus(getFullCurrentStatus(), now);
+			cachedStatus = cached;
+		}
+		return copy(cached.status);
+	}
+	
+	private static StackStatus copy(StackStatus status) {
+		StackStatus copy = new StackStatus();
+		copy.setStatus(status.getStatus());
+		copy.setCurrentMessage(status.getCurrentMessage());
+		copy.setPendingMaintenanceMessage(status.getPendingMaintenanceMessage());
+		return copy;
+	}
+
 	@Override
 	public StatusEnum getCurrentStatus() {
 		String statusString = jdbcTemplate.queryForObject(SQL_GET_STATUS, String.class);
@@ -103,4 +129,15 @@ public class StackStatusDaoImpl implements StackStatusDao, InitializingBean {
 		return getCurrentStatus().equals(StatusEnum.READ_WRITE);
 	}
 
+	private static class CachedStatus {
+		
+		private final StackStatus status;
+		private final long refreshedOn;
+		
+		CachedStatus(StackStatus status, long refreshedOn) {
+			this.status = status;
+			this.refreshedOn = refreshedOn;
+		}
+	}
+
 }
@@ -50,6 +50,24 @@ public class SqlConstants {
 	public static final String COL_REVISION_DEFINING_SQL	= "DEFINING_SQL";
 	public static final String DDL_FILE_REVISION			="schema/Revision-ddl.sql";
 	
+	// The checksums of the children of each node by ID bucket, used to reconcile the entity replication (no migration)
+	public static final String TABLE_ENTITY_CHECKSUM_BUCKET				= "ENTITY_CHECKSUM_BUCKET";
+	public static final String COL_ENTITY_CHECKSUM_BUCKET_PARENT_ID		= "PARENT_ID";
+	public static final String COL_ENTITY_CHECKSUM_BUCKET_NODE_TYPE		= "NODE_TYPE";
+	public static final String COL_ENTITY_CHECKSUM_BUCKET_BUCKET		= "BUCKET";
+	public static final String COL_ENTITY_CHECKSUM_BUCKET_CHECK_SUM		= "CHECK_SUM";
+	public static final String DDL_ENTITY_CHECKSUM_BUCKET				= "schema/EntityChecksumBucket-ddl.sql";
+	
+	public static final String TABLE_ENTITY_CHECKSUM_BUCKET_STATUS		= "ENTITY_CHECKSUM_BUCKET_STATUS";
+	public static final String COL_ENTITY_CHECKSUM_BUCKET_STATUS_BUCKET	= "BUCKET";
+	public static final String COL_ENTITY_CHECKSUM_BUCKET_STATUS_DIRTY	= "IS_DIRTY";
+	public static final String DDL_ENTITY_CHECKSUM_BUCKET_STATUS		= "schema/EntityChecksumBucketStatus-ddl.sql";
+	
+	public static final String TABLE_ENTITY_CHECKSUM_BUCKET_SYNCH		= "ENTITY_CHECKSUM_BUCKET_SYNCH";
+	public static final String COL_ENTITY_CHECKSUM_BUCKET_SYNCH_ID		= "ID";
+	public static final String COL_ENTITY_CHECKSUM_BUCKET_SYNCH_CHANGE_NUM	= "CHANGE_NUM";
+	public static final String DDL_ENTITY_CHECKSUM_BUCKET_SYNCH			= "schema/EntityChecksumBucketSynch-ddl.sql";
+	
 	public static final String TABLE_STACK_STATUS		= "STACK_STATUS";
 	
 	
@@ -234,6 +252,22 @@ public class SqlConstants {
 	public static final String COL_ACCESS_REQUIREMENT_PROJECT_AR_ID				= "AR_ID";
 	public static final String COL_ACCESS_REQUIREMENT_PROJECT_PROJECT_ID		= "PROJECT_ID";
 	public static final String COL_ACCESS_REQUIREMENT_PROJECT_SCHEMA			= "schema/AccessRequirementProject-ddl.sql";
+	
+	// The index of the access requirements that apply to an entity, including the inherited ones (no migration)
+	public static final String TABLE_EFFECTIVE_AR_ENTITY						= "EFFECTIVE_AR_ENTITY";
+	public static final String COL_EFFECTIVE_AR_ENTITY_ENTITY_ID				= "ENTITY_ID";
+	public static final String DDL_EFFECTIVE_AR_ENTITY							= "schema/EffectiveAccessRequirementEntity-ddl.sql";
+	
+	public static final String TABLE_EFFECTIVE_AR								= "EFFECTIVE_AR";
+	public static final String COL_EFFECTIVE_AR_ENTITY_ID						= "ENTITY_ID";
+	public static final String COL_EFFECTIVE_AR_REQUIREMENT_ID					= "REQUIREMENT_ID";
+	public static final String DDL_EFFECTIVE_AR									= "schema/EffectiveAccessRequirement-ddl.sql";
+	
+	// The roots of the subtrees that are still being removed from the index of the effective access requirements (no migration)
+	public static final String TABLE_EFFECTIVE_AR_DIRTY_ROOT					= "EFFECTIVE_AR_DIRTY_ROOT";
+	public static final String COL_EFFECTIVE_AR_DIRTY_ROOT_ROOT_ID				= "ROOT_ID";
+	public static final String COL_EFFECTIVE_AR_DIRTY_ROOT_VERSION				= "VERSION";
+	public static final String DDL_EFFECTIVE_AR_DIRTY_ROOT						= "schema/EffectiveAccessRequirementDirtyRoot-ddl.sql";
 
 
 	// The SUBJECT_ACCESS_REQUIREMENT table (a join table linking the ENTITY or EVALUTION and ACCESS_REQUIREMENT tables
@@ -495,6 +529,13 @@ public class SqlConstants {
 	public static final String COL_TRASH_CAN_ETAG               = "ETAG";
 	public static final String DDL_FILE_TRASH_CAN               = "schema/TrashCan-ddl.sql";
 	
+	// The trashed nodes whose hierarchy still contains ACLs to delete (no migration)
+	public static final String TABLE_TRASH_ACL_CLEANUP          = "TRASH_ACL_CLEANUP";
+	public static final String COL_TRASH_ACL_CLEANUP_NODE_ID    = "NODE_ID";
+	public static final String COL_TRASH_ACL_CLEANUP_LAST_PARENT_ID = "LAST_PARENT_ID";
+	public static final String COL_TRASH_ACL_CLEANUP_CREATED_ON = "CREATED_ON";
+	public static final String DDL_FILE_TRASH_ACL_CLEANUP       = "schema/TrashAclCleanup-ddl.sql";
+	
 	// The wiki page table
 	public static final String TABLE_WIKI_PAGE				= "WIKI_PAGE";
 	public static final String COL_WIKI_ID					= "ID";
@@ -563,6 +604,15 @@ public class SqlConstants {
 	public static final String COL_TABLE_ROW_SEARCH_ENABLED	= "SEARCH_ENABLED";
 	public static final String DDL_TABLE_ROW_CHANGE = "schema/TableRowChange-ddl.sql";
 	
+	// The file handles referenced by the table row changes
+	public static final String TABLE_ROW_CHANGE_FILE_HANDLE				= "TABLE_ROW_CHANGE_FILE_HANDLE";
+	public static final String COL_TABLE_ROW_FILE_HANDLE_CHANGE_ID		= "CHANGE_ID";
+	public static final String COL_TABLE_ROW_FILE_HANDLE_TABLE_ID		= "TABLE_ID";
+	public static final String COL_TABLE_ROW_FILE_HANDLE_FILE_HANDLE_ID	= "FILE_HANDLE_ID";
+	public static final String DDL_TABLE_ROW_CHANGE_FILE_HANDLE = "schema/TableRowChangeFileHandle-ddl.sql";
+	// Marks a change as indexed when its change set does not reference any file handle
+	public static final long TABLE_ROW_FILE_HANDLE_EMPTY_MARKER			= -1;
+	
 	// Tracks view scope.
 	public static final String TABLE_VIEW_TYPE					= "VIEW_TYPE";
 	public static final String COL_VIEW_TYPE_VIEW_ID			= "VIEW_ID";
@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS `EFFECTIVE_AR` (
+  `ENTITY_ID` BIGINT NOT NULL,
+  `REQUIREMENT_ID` BIGINT NOT NULL,
+  PRIMARY KEY (`ENTITY_ID`,`REQUIREMENT_ID`),
+  CONSTRAINT FOREIGN KEY (`ENTITY_ID`) REFERENCES `EFFECTIVE_AR_ENTITY` (`ENTITY_ID`) ON DELETE CASCADE,
+  CONSTRAINT FOREIGN KEY (`REQUIREMENT_ID`) REFERENCES `ACCESS_REQUIREMENT` (`ID`) ON DELETE CASCADE
+)
@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS `EFFECTIVE_AR_DIRTY_ROOT` (
+  `ROOT_ID` BIGINT NOT NULL,
+  `VERSION` BIGINT NOT NULL,
+  PRIMARY KEY (`ROOT_ID`),
+  CONSTRAINT FOREIGN KEY (`ROOT_ID`) REFERENCES `NODE` (`ID`) ON DELETE CASCADE
+)
@@ -0,0 +1,5 @@
+CREATE TABLE IF NOT EXISTS `EFFECTIVE_AR_ENTITY` (
+  `ENTITY_ID` BIGINT NOT NULL,
+  PRIMARY KEY (`ENTITY_ID`),
+  CONSTRAINT FOREIGN KEY (`ENTITY_ID`) REFERENCES `NODE` (`ID`) ON DELETE CASCADE
+)
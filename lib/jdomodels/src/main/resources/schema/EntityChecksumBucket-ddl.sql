@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS `ENTITY_CHECKSUM_BUCKET` (
+  `PARENT_ID` BIGINT NOT NULL,
+  `NODE_TYPE` VARCHAR(32) NOT NULL,
+  `BUCKET` BIGINT NOT NULL,
+  `CHECK_SUM` BIGINT NOT NULL,
+  PRIMARY KEY (`PARENT_ID`, `NODE_TYPE`, `BUCKET`),
+  INDEX `ENTITY_CHECKSUM_BUCKET_BUCKET` (`BUCKET`),
+  CONSTRAINT FOREIGN KEY (`PARENT_ID`) REFERENCES `NODE` (`ID`) ON DELETE CASCADE
+)
@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS `ENTITY_CHECKSUM_BUCKET_STATUS` (
+  `BUCKET` BIGINT NOT NULL,
+  `IS_DIRTY` BOOLEAN NOT NULL,
+  PRIMARY KEY (`BUCKET`),
+  INDEX `ENTITY_CHECKSUM_BUCKET_STATUS_DIRTY` (`IS_DIRTY`, `BUCKET`)
+)
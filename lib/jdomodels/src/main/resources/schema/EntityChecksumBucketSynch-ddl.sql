@@ -0,0 +1,5 @@
+CREATE TABLE IF NOT EXISTS `ENTITY_CHECKSUM_BUCKET_SYNCH` (
+  `ID` BIGINT NOT NULL,
+  `CHANGE_NUM` BIGINT NOT NULL,
+  PRIMARY KEY (`ID`)
+)
@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS `TABLE_ROW_CHANGE_FILE_HANDLE` (
+  `CHANGE_ID` BIGINT NOT NULL,
+  `TABLE_ID` BIGINT NOT NULL,
+  `FILE_HANDLE_ID` BIGINT NOT NULL,
+  PRIMARY KEY (`CHANGE_ID`, `FILE_HANDLE_ID`),
+  INDEX `TRCFH_TABLE_ID_FILE_HANDLE_ID_INDEX` (`TABLE_ID`, `FILE_HANDLE_ID`),
+  CONSTRAINT `TRCFH_CHANGE_ID_FK` FOREIGN KEY (`CHANGE_ID`) REFERENCES `TABLE_ROW_CHANGE` (`ID`) ON DELETE CASCADE
+)
@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS `TRASH_ACL_CLEANUP` (
+  `NODE_ID` BIGINT NOT NULL,
+  `LAST_PARENT_ID` BIGINT NOT NULL,
+  `CREATED_ON` TIMESTAMP(3) NOT NULL,
+  PRIMARY KEY (`NODE_ID`),
+  INDEX `TRASH_ACL_CLEANUP_CREATED_ON_IDX` (`CREATED_ON`),
+  CONSTRAINT `TRASH_ACL_CLEANUP_NODE_ID_FK` FOREIGN KEY (`NODE_ID`) REFERENCES `NODE` (`ID`) ON DELETE CASCADE
+)
@@ -0,0 +1,16 @@
+/**
+ * Removes the given entities and all their descendants from the index of the effective access requirements. Only containers can have
+ * children so the recursion is limited to the containers, the other descendants are the children of the containers.
+ */
+DELETE FROM EFFECTIVE_AR_ENTITY WHERE ENTITY_ID IN (
+	WITH RECURSIVE C (ID, DISTANCE) AS (
+		SELECT N.ID, 1 FROM NODE N WHERE N.ID IN (:rootIds)
+		UNION ALL
+		SELECT N.ID, C.DISTANCE + 1 FROM NODE AS N
+			JOIN C ON (N.PARENT_ID = C.ID)
+				WHERE N.NODE_TYPE IN ('project', 'folder') AND C.DISTANCE < :depth
+	)
+	SELECT ID FROM C
+	UNION
+	SELECT N.ID FROM NODE N JOIN C ON (N.PARENT_ID = C.ID)
+)
@@ -0,0 +1,16 @@
+/**
+ * Gathers a page of the ids of the given entity and of its descendants that are in the index of the effective access requirements. Only
+ * containers can have children so the recursion is limited to the containers, the other descendants are the children of the containers.
+ */
+WITH RECURSIVE C (ID, DISTANCE) AS (
+	SELECT N.ID, 1 FROM NODE N WHERE N.ID = :rootId
+	UNION ALL
+	SELECT N.ID, C.DISTANCE + 1 FROM NODE AS N
+		JOIN C ON (N.PARENT_ID = C.ID)
+			WHERE N.NODE_TYPE IN ('project', 'folder') AND C.DISTANCE < :depth
+)
+SELECT E.ENTITY_ID FROM EFFECTIVE_AR_ENTITY E WHERE E.ENTITY_ID IN (
+	SELECT ID FROM C
+	UNION
+	SELECT N.ID FROM NODE N JOIN C ON (N.PARENT_ID = C.ID)
+) LIMIT :limit
@@ -0,0 +1,12 @@
+/**
+ * Gathers the ids of the given entities that are, or that have an ancestor that is, the root of a subtree that is still being removed
+ * from the index of the effective access requirements. The path of the entities is walked only when there is any such subtree.
+ */
+WITH RECURSIVE PATH (ENTITY_ID, ID, PARENT_ID, DISTANCE) AS (
+	SELECT N.ID, N.ID, N.PARENT_ID, 1 FROM NODE N WHERE N.ID IN (:entityIds) AND EXISTS (SELECT 1 FROM EFFECTIVE_AR_DIRTY_ROOT)
+	UNION ALL
+	SELECT PATH.ENTITY_ID, N.ID, N.PARENT_ID, PATH.DISTANCE + 1 FROM NODE AS N
+		JOIN PATH ON (N.ID = PATH.PARENT_ID)
+			WHERE DISTANCE < :depth
+)
+SELECT DISTINCT PATH.ENTITY_ID FROM PATH JOIN EFFECTIVE_AR_DIRTY_ROOT D ON (PATH.ID = D.ROOT_ID) ORDER BY PATH.ENTITY_ID
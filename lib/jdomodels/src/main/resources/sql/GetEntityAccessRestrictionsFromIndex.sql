@@ -0,0 +1,52 @@
+/**
+ * Same as GetEntityAccessRestrictions.sql but the access restrictions of each entity are read from the EFFECTIVE_AR index rather than
+ * computed from the entity's hierarchy. The IS_INDEXED column is false for the entities that are not in the index, or that are in a
+ * subtree that is still being removed from the index (see EFFECTIVE_AR_DIRTY_ROOT), the access restrictions of such entities are not
+ * included. The path of the entities is walked only when there is any such subtree.
+ */
+WITH RECURSIVE
+	PATH (ENTITY_ID, ID, PARENT_ID, DISTANCE) AS (
+		SELECT N.ID, N.ID, N.PARENT_ID, 1 FROM NODE N WHERE N.ID IN (:entityIds) AND EXISTS (SELECT 1 FROM EFFECTIVE_AR_DIRTY_ROOT)
+		UNION ALL
+		SELECT PATH.ENTITY_ID, N.ID, N.PARENT_ID, PATH.DISTANCE + 1 FROM NODE AS N
+			JOIN PATH ON (N.ID = PATH.PARENT_ID)
+				WHERE DISTANCE < :depth
+	),
+	DIRTY AS (
+		SELECT DISTINCT PATH.ENTITY_ID FROM PATH JOIN EFFECTIVE_AR_DIRTY_ROOT D ON (PATH.ID = D.ROOT_ID)
+	),
+	EI AS (
+		SELECT N.ID AS ENTITY_ID, N.NODE_TYPE, N.CREATED_BY, if(E.ENTITY_ID IS NULL OR DIRTY.ENTITY_ID IS NOT NULL, FALSE, TRUE) AS IS_INDEXED FROM NODE N
+			LEFT JOIN EFFECTIVE_AR_ENTITY E ON (N.ID = E.ENTITY_ID)
+			LEFT JOIN DIRTY ON (N.ID = DIRTY.ENTITY_ID)
+				WHERE N.ID IN(:entityIds)
+	),
+	EAR AS (
+		SELECT EAR.ENTITY_ID, EAR.REQUIREMENT_ID FROM EI JOIN EFFECTIVE_AR EAR ON (EI.ENTITY_ID = EAR.ENTITY_ID)
+	), 
+	APS AS ( 
+		SELECT EAR.*, if(AA.STATE = 'APPROVED', TRUE, FALSE) AS APPROVED FROM EAR
+			LEFT JOIN ACCESS_APPROVAL AA
+				ON (EAR.REQUIREMENT_ID = AA.REQUIREMENT_ID AND AA.ACCESSOR_ID = :userId AND AA.STATE = 'APPROVED')
+	 ),
+    ACC AS(
+        SELECT distinct EAR.REQUIREMENT_ID AS EXEMPTION_ELIGIBLE_REQUIREMENT_ID
+        FROM EAR
+            JOIN ACL ON (EAR.REQUIREMENT_ID= ACL.OWNER_ID AND ACL.OWNER_TYPE = 'ACCESS_REQUIREMENT')
+            JOIN ACL_RESOURCE_ACCESS ARA ON (ACL.ID = ARA.OWNER_ID AND ARA.GROUP_ID IN (:usersGroups))
+            JOIN ACL_RESOURCE_ACCESS_TYPE RAT ON (ARA.ID = RAT.ID_OID  AND RAT.STRING_ELE ='EXEMPTION_ELIGIBLE')
+    )
+SELECT 
+	EI.ENTITY_ID,
+	EI.NODE_TYPE,
+	EI.CREATED_BY,
+	EI.IS_INDEXED,
+	APS.REQUIREMENT_ID,
+	APS.APPROVED,
+	AR.CONCRETE_TYPE AS REQUIREMENT_TYPE,
+	AR.IS_TWO_FA_REQUIRED,
+    if(ACC.EXEMPTION_ELIGIBLE_REQUIREMENT_ID, TRUE, FALSE) AS IS_EXAMPTION_ELIGIBLE
+		FROM EI LEFT JOIN APS ON (EI.ENTITY_ID = APS.ENTITY_ID)	
+	 			LEFT JOIN ACCESS_REQUIREMENT AR ON (APS.REQUIREMENT_ID = AR.ID)
+                LEFT JOIN ACC ON (AR.ID = ACC.EXEMPTION_ELIGIBLE_REQUIREMENT_ID)
+	ORDER BY EI.ENTITY_ID, APS.REQUIREMENT_ID
@@ -0,0 +1,14 @@
+/**
+ * Gathers all of the access requirements of each of the given entities based on the entity's hierarchy.
+ */
+WITH RECURSIVE EAR (ENTITY_ID, PARENT_ID, REQUIREMENT_ID, DISTANCE) AS (
+	SELECT N.ID, N.PARENT_ID, NAR.REQUIREMENT_ID, 1 FROM NODE N
+		LEFT JOIN NODE_ACCESS_REQUIREMENT NAR ON (N.ID = NAR.SUBJECT_ID AND NAR.SUBJECT_TYPE = 'ENTITY')
+			WHERE N.ID IN (:entityIds)
+	UNION ALL 
+	SELECT EAR.ENTITY_ID, N.PARENT_ID, NAR.REQUIREMENT_ID, EAR.DISTANCE + 1 FROM NODE AS N
+		JOIN EAR ON (N.ID = EAR.PARENT_ID)
+		LEFT JOIN NODE_ACCESS_REQUIREMENT NAR ON (N.ID = NAR.SUBJECT_ID AND NAR.SUBJECT_TYPE = 'ENTITY')
+			WHERE N.ID IS NOT NULL AND DISTANCE < :depth
+)
+SELECT DISTINCT ENTITY_ID, REQUIREMENT_ID FROM EAR WHERE REQUIREMENT_ID IS NOT NULL
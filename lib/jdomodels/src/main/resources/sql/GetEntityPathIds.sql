@@ -0,0 +1,11 @@
+/**
+ * Gathers the ids of the given entities and of all their ancestors.
+ */
+WITH RECURSIVE PATH (ID, PARENT_ID, DISTANCE) AS (
+	SELECT N.ID, N.PARENT_ID, 1 FROM NODE N WHERE N.ID IN (:entityIds)
+	UNION ALL
+	SELECT N.ID, N.PARENT_ID, PATH.DISTANCE + 1 FROM NODE AS N
+		JOIN PATH ON (N.ID = PATH.PARENT_ID)
+			WHERE DISTANCE < :depth
+)
+SELECT DISTINCT ID FROM PATH ORDER BY ID
@@ -7,6 +7,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -485,55 +486,80 @@ public class AnnotationsDAOImplTest {
 	}
 	
 	@Test
-	public void testChangedSubmissions() throws Exception {
-		// there's no diff between the status (truth) table and the annotations table
-		List<SubmissionBundle> changed = subStatusAnnoDAO.getChangedSubmissions(Long.parseLong(evalId));
-		assertTrue(changed.isEmpty());
+	public void testChangedSubmissionsPage() throws Exception {
+		// create three submissions with a status, the statuses are deleted with the submissions
+		for (String id : new String[] {"5678", "5679", "5680"}) {
+			String submissionId = createSubmission(id, SUBMISSION_NAME, nodeId, userId);
+			submissionIds.add(submissionId);
+			SubmissionStatus status = new SubmissionStatus();
+			status.setId(submissionId);
+			status.setStatus(SubmissionStatusEnum.RECEIVED);
+			status.setStatusVersion(0L);
+			status.setModifiedOn(new Date());
+			status.setAnnotations(createAnnotations(evalId, submissionId));
+			submissionStatusDAO.create(status);
+		}
 		
-        // create a submission
-        String submissionId = createSubmission("5678", SUBMISSION_NAME, nodeId, userId);
-        submissionIds.add(submissionId);       
-		SubmissionStatus status = new SubmissionStatus();
-		status.setId(submissionId);
-		status.setStatus(SubmissionStatusEnum.RECEIVED);
-		status.setVersionNumber(7L);
-		status.setStatusVersion(0L);
-		status.setModifiedOn(new Date());
-        Annotations annos = createAnnotations(evalId, submissionId);
+		Long scopeId = Long.parseLong(evalId);
 		
-		status.setAnnotations(annos);
-		submissionStatusId = submissionStatusDAO.create(status);
-		assertEquals(submissionId, submissionStatusId);
-		
-		// now there is a status that's not reflected in the annotations
-		changed = subStatusAnnoDAO.getChangedSubmissions(Long.parseLong(evalId));
-		assertEquals(1, changed.size());
-		assertEquals(submissionId, changed.get(0).getSubmission().getId());
-		SubmissionStatus retrievedStatus = changed.get(0).getSubmissionStatus();
-		assertEquals(submissionStatusId, retrievedStatus.getId());
-		assertEquals(status.getVersionNumber(), retrievedStatus.getVersionNumber());
-		assertEquals(status.getStatusVersion(), retrievedStatus.getStatusVersion());
-		
-		status = submissionStatusDAO.get(submissionStatusId);
-		annos = status.getAnnotations();
-		// we're on the initial version of the annotations
-		assertEquals(new Long(0L), annos.getVersion());
-		subStatusAnnoDAO.replaceAnnotations(Collections.singletonList(annos));
+		// call under test
+		List<SubmissionBundle> page = subStatusAnnoDAO.getChangedSubmissionsPage(scopeId, -1L, 2);
+		assertEquals(2, page.size());
+		assertEquals("5678", page.get(0).getSubmission().getId());
+		assertEquals("5679", page.get(1).getSubmission().getId());
+		
+		page = subStatusAnnoDAO.getChangedSubmissionsPage(scopeId, 5679L, 2);
+		assertEquals(1, page.size());
+		assertEquals("5680", page.get(0).getSubmission().getId());
+		assertEquals(submissionStatusDAO.get("5680"), page.get(0).getSubmissionStatus());
+		
+		// once replaced the annotations of a submission are no longer reported as changed
+		subStatusAnnoDAO.replaceAnnotations(Collections.singletonList(submissionStatusDAO.get("5678").getAnnotations()));
+		
+		page = subStatusAnnoDAO.getChangedSubmissionsPage(scopeId, -1L, 2);
+		assertEquals(2, page.size());
+		assertEquals("5679", page.get(0).getSubmission().getId());
+		assertEquals("5680", page.get(1).getSubmission().getId());
+		
+		// updating the status increments its version, once again the submission is reported as changed
+		submissionStatusDAO.update(Collections.singletonList(submissionStatusDAO.get("5678")));
+		
+		page = subStatusAnnoDAO.getChangedSubmissionsPage(scopeId, -1L, 1);
+		assertEquals(1, page.size());
+		assertEquals(submissionDAO.get("5678"), page.get(0).getSubmission());
+		assertEquals(submissionStatusDAO.get("5678"), page.get(0).getSubmissionStatus());
+	}
+	
+	@Test
+	public void testDeleteAnnotationsForDeletedSubmissions() throws Exception {
+		Long scopeId = Long.parseLong(evalId);
+		List<Annotations> annos = new ArrayList<Annotations>();
+		for (String id : new String[] {"5678", "5679", "5680"}) {
+			String submissionId = createSubmission(id, SUBMISSION_NAME, nodeId, userId);
+			submissionIds.add(submissionId);
+			annos.add(createAnnotations(evalId, submissionId));
+		}
+		subStatusAnnoDAO.replaceAnnotations(annos);
+		
+		// nothing to delete while the submissions exist
+		assertEquals(Collections.emptyList(), subStatusAnnoDAO.deleteAnnotationsForDeletedSubmissions(scopeId, -1L, 2));
+		
+		for (String submissionId : submissionIds) {
+			submissionDAO.delete(submissionId);
+		}
+		
+		// call under test
+		assertEquals(Arrays.asList(5678L, 5679L), subStatusAnnoDAO.deleteAnnotationsForDeletedSubmissions(scopeId, -1L, 2));
+		assertNull(subStatusAnnoDAO.getAnnotations(5678L).getObjectId());
+		assertNull(subStatusAnnoDAO.getAnnotations(5679L).getObjectId());
+		assertEquals("5680", subStatusAnnoDAO.getAnnotations(5680L).getObjectId());
+		
+		// the next page starts after the last deleted id
+		assertEquals(Collections.singletonList(5680L), subStatusAnnoDAO.deleteAnnotationsForDeletedSubmissions(scopeId, 5679L, 2));
+		assertNull(subStatusAnnoDAO.getAnnotations(5680L).getObjectId());
 		
-		// now the queryable annotations match the 'truth'
-		changed = subStatusAnnoDAO.getChangedSubmissions(Long.parseLong(evalId));
-		assertTrue(changed.isEmpty());
-		
-		// this should increment the version.  once again the submission is in the 'diff list'
-		submissionStatusDAO.update(Collections.singletonList(status));
-		changed = subStatusAnnoDAO.getChangedSubmissions(Long.parseLong(evalId));
-		assertEquals(1, changed.size());
-		Submission changedSubmission = changed.get(0).getSubmission();
-		assertEquals(submissionId, changedSubmission.getId());
-		assertEquals(submissionDAO.get(submissionId), changedSubmission);
-		SubmissionStatus changedStatus = changed.get(0).getSubmissionStatus();
-		assertEquals(submissionStatusId, changedStatus.getId());
-		assertEquals(submissionStatusDAO.get(submissionId), changedStatus);
+		assertEquals(Collections.emptyList(), subStatusAnnoDAO.deleteAnnotationsForDeletedSubmissions(scopeId, 5680L, 2));
+		assertEquals(Collections.emptyList(), subStatusAnnoDAO.deleteAnnotationsForDeletedSubmissions(scopeId, -1L, 2));
 	}
 	
 	@Test
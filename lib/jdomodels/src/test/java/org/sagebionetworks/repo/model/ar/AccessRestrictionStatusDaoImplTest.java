@@ -86,6 +86,9 @@ public class AccessRestrictionStatusDaoImplTest {
 	@Autowired
 	private GroupMembersDAO groupMembersDAO;
 
+	@Autowired
+	private EffectiveAccessRequirementDao effectiveAccessRequirementDao;
+
 	Long userOneId;
 	Long userTwoId;
 	Long userThreeId;
@@ -260,6 +263,36 @@ public class AccessRestrictionStatusDaoImplTest {
 		assertEquals(RestrictionLevel.RESTRICTED_BY_TERMS_OF_USE, result.getMostRestrictiveLevel());
 	}
 
+	@Test
+	public void testGeEntityStatusAfterMove() {
+		setupNodeHierarchy(userTwoId);
+
+		TermsOfUseAccessRequirement folderToU = termsOfUseHelper.create(t -> {
+			t.setCreatedBy(userThreeId.toString());
+			t.getSubjectIds().get(0).setId(folder.getId());
+		});
+		List<Long> subjectIds = KeyFactory.stringToKey(Arrays.asList(fileTwo.getId()));
+
+		effectiveAccessRequirementDao.indexEntities(subjectIds);
+		
+		UsersRestrictionStatus result = accessRestrictionStatusDao.getEntityStatusAsMap(subjectIds, userOneId, Set.of(userOneId))
+				.get(subjectIds.get(0));
+		assertTrue(result.getAccessRestrictions().isEmpty());
+
+		Node toMove = nodeDao.getNode(folderTwo.getId());
+		toMove.setParentId(folder.getId());
+		nodeDao.updateNode(toMove);
+
+		// call under test
+		result = accessRestrictionStatusDao.getEntityStatusAsMap(subjectIds, userOneId, Set.of(userOneId)).get(subjectIds.get(0));
+
+		List<UsersRequirementStatus> expected = Arrays
+				.asList(new UsersRequirementStatus().withRequirementId(folderToU.getId())
+						.withRequirementType(AccessRequirementType.TOU).withIsUnmet(true).withIsExemptionEligible(false));
+
+		assertEquals(expected, result.getAccessRestrictions());
+	}
+
 	@Test
 	public void testGeEntityStatusWithUnmetRestrictionHierarchy() {
 		setupNodeHierarchy(userTwoId);
@@ -0,0 +1,598 @@
+package org.sagebionetworks.repo.model.ar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_EFFECTIVE_AR_ENTITY_ENTITY_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_EFFECTIVE_AR_ENTITY_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_EFFECTIVE_AR_REQUIREMENT_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_EFFECTIVE_AR;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_EFFECTIVE_AR_ENTITY;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.sagebionetworks.repo.model.AccessRequirementDAO;
+import org.sagebionetworks.repo.model.EntityType;
+import org.sagebionetworks.repo.model.Node;
+import org.sagebionetworks.repo.model.NodeDAO;
+import org.sagebionetworks.repo.model.RestrictableObjectDescriptor;
+import org.sagebionetworks.repo.model.RestrictableObjectType;
+import org.sagebionetworks.repo.model.TermsOfUseAccessRequirement;
+import org.sagebionetworks.repo.model.UserGroup;
+import org.sagebionetworks.repo.model.UserGroupDAO;
+import org.sagebionetworks.repo.model.helper.DaoObjectHelper;
+import org.sagebionetworks.repo.model.jdo.KeyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.IllegalTransactionStateException;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(locations = { "classpath:jdomodels-test-context.xml" })
+public class EffectiveAccessRequirementDaoImplTest {
+
+	@Autowired
+	private EffectiveAccessRequirementDao effectiveAccessRequirementDao;
+
+	@Autowired
+	private AccessRequirementDAO accessRequirementDAO;
+
+	@Autowired
+	private NodeDAO nodeDao;
+
+	@Autowired
+	private UserGroupDAO userGroupDAO;
+
+	@Autowired
+	private DaoObjectHelper<Node> nodeDaoHelper;
+
+	@Autowired
+	private DaoObjectHelper<UserGroup> userGroupHelpler;
+
+	@Autowired
+	private DaoObjectHelper<TermsOfUseAccessRequirement> termsOfUseHelper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Long userId;
+
+	private Node project;
+	private Node folder;
+	private Node file;
+	private Node folderTwo;
+	private Node fileTwo;
+
+	private Long projectId;
+	private Long folderId;
+	private Long fileId;
+	private Long folderTwoId;
+	private Long fileTwoId;
+
+	@BeforeEach
+	public void before() {
+		effectiveAccessRequirementDao.clear();
+		accessRequirementDAO.truncateAll();
+
+		userId = Long.parseLong(userGroupHelpler.create(u -> {
+		}).getId());
+
+		project = nodeDaoHelper.create(n -> {
+			n.setName("aProject");
+			n.setCreatedByPrincipalId(userId);
+		});
+		folder = nodeDaoHelper.create(n -> {
+			n.setName("aFolder");
+			n.setCreatedByPrincipalId(userId);
+			n.setParentId(project.getId());
+			n.setNodeType(EntityType.folder);
+		});
+		file = nodeDaoHelper.create(n -> {
+			n.setName("aFile");
+			n.setCreatedByPrincipalId(userId);
+			n.setParentId(folder.getId());
+			n.setNodeType(EntityType.file);
+		});
+		folderTwo = nodeDaoHelper.create(n -> {
+			n.setName("folderTwo");
+			n.setCreatedByPrincipalId(userId);
+			n.setParentId(project.getId());
+			n.setNodeType(EntityType.folder);
+		});
+		fileTwo = nodeDaoHelper.create(n -> {
+			n.setName("fileTwo");
+			n.setCreatedByPrincipalId(userId);
+			n.setParentId(folderTwo.getId());
+			n.setNodeType(EntityType.file);
+		});
+
+		projectId = KeyFactory.stringToKey(project.getId());
+		folderId = KeyFactory.stringToKey(folder.getId());
+		fileId = KeyFactory.stringToKey(file.getId());
+		folderTwoId = KeyFactory.stringToKey(folderTwo.getId());
+		fileTwoId = KeyFactory.stringToKey(fileTwo.getId());
+	}
+
+	@AfterEach
+	public void after() {
+		effectiveAccessRequirementDao.clear();
+		if (project != null) {
+			nodeDao.delete(project.getId());
+		}
+		accessRequirementDAO.truncateAll();
+		if (userId != null) {
+			userGroupDAO.delete(userId.toString());
+		}
+	}
+
+	@Test
+	public void testIndexEntities() {
+		TermsOfUseAccessRequirement projectToU = createToU(project);
+		TermsOfUseAccessRequirement folderToU = createToU(folder);
+
+		// call under test
+		effectiveAccessRequirementDao.indexEntities(Arrays.asList(fileId, fileTwoId, folderTwoId));
+
+		Map<Long, Set<Long>> expected = new HashMap<>();
+		expected.put(fileId, Set.of(projectToU.getId(), folderToU.getId()));
+		expected.put(fileTwoId, Set.of(projectToU.getId()));
+		expected.put(folderTwoId, Set.of(projectToU.getId()));
+
+		assertEquals(expected, getIndex());
+		assertEquals(Collections.emptySet(), effectiveAccessRequirementDao.getInconsistentEntityIds(getAllIds()));
+	}
+
+	@Test
+	public void testIndexEntitiesWithNoRequirements() {
+		// call under test
+		effectiveAccessRequirementDao.indexEntities(Arrays.asList(fileId));
+
+		assertEquals(Map.of(fileId, Collections.emptySet()), getIndex());
+	}
+
+	@Test
+	public void testIndexEntitiesWithAlreadyIndexed() {
+		TermsOfUseAccessRequirement projectToU = createToU(project);
+
+		effectiveAccessRequirementDao.indexEntities(Arrays.asList(fileId));
+
+		// call under test
+		effectiveAccessRequirementDao.indexEntities(Arrays.asList(fileId, fileTwoId));
+
+		assertEquals(Map.of(fileId, Set.of(projectToU.getId()), fileTwoId, Set.of(projectToU.getId())), getIndex());
+	}
+
+	@Test
+	public void testIndexEntitiesWithEmptyList() {
+		// call under test
+		effectiveAccessRequirementDao.indexEntities(Collections.emptyList());
+
+		assertEquals(Collections.emptyMap(), getIndex());
+	}
+
+	@Test
+	public void testIndexEntitiesWithNullList() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			effectiveAccessRequirementDao.indexEntities(null);
+		}).getMessage();
+
+		assertEquals("entityIds is required.", message);
+	}
+
+	@Test
+	public void testClearSubtreesWithoutTransaction() {
+		assertThrows(IllegalTransactionStateException.class, () -> {
+			// call under test
+			effectiveAccessRequirementDao.clearSubtrees(Arrays.asList(projectId));
+		});
+	}
+
+	@Test
+	public void testIndexClearedOnNodeMove() {
+		TermsOfUseAccessRequirement folderToU = createToU(folder);
+		TermsOfUseAccessRequirement folderTwoToU = createToU(folderTwo);
+
+		effectiveAccessRequirementDao.indexEntities(getAllIds());
+
+		Node toMove = nodeDao.getNode(folderTwo.getId());
+		toMove.setParentId(folder.getId());
+
+		// call under test
+		nodeDao.updateNode(toMove);
+
+		assertEquals(Set.of(folderTwoId), effectiveAccessRequirementDao.getDirtyRoots(10).keySet());
+		
+		clearDirtySubtrees();
+
+		// Only the moved subtree is removed from the index
+		Map<Long, Set<Long>> expected = new HashMap<>();
+		expected.put(projectId, Collections.emptySet());
+		expected.put(folderId, Set.of(folderToU.getId()));
+		expected.put(fileId, Set.of(folderToU.getId()));
+
+		assertEquals(expected, getIndex());
+
+		effectiveAccessRequirementDao.indexEntities(getAllIds());
+
+		expected.put(folderTwoId, Set.of(folderToU.getId(), folderTwoToU.getId()));
+		expected.put(fileTwoId, Set.of(folderToU.getId(), folderTwoToU.getId()));
+
+		assertEquals(expected, getIndex());
+	}
+
+	@Test
+	public void testIndexNotClearedOnNodeUpdateWithSameParent() {
+		effectiveAccessRequirementDao.indexEntities(getAllIds());
+
+		Node toUpdate = nodeDao.getNode(folderTwo.getId());
+		toUpdate.setName("renamed");
+
+		// call under test
+		nodeDao.updateNode(toUpdate);
+
+		assertEquals(Collections.emptyMap(), effectiveAccessRequirementDao.getDirtyRoots(10));
+		assertEquals(new HashSet<>(getAllIds()), getIndex().keySet());
+	}
+
+	@Test
+	public void testIndexClearedOnAccessRequirementCreate() {
+		effectiveAccessRequirementDao.indexEntities(getAllIds());
+
+		// call under test
+		TermsOfUseAccessRequirement folderToU = termsOfUseHelper.create(t -> {
+			t.setCreatedBy(userId.toString());
+			t.getSubjectIds().get(0).setId(folder.getId());
+		});
+
+		assertEquals(Set.of(folderId), effectiveAccessRequirementDao.getDirtyRoots(10).keySet());
+		
+		clearDirtySubtrees();
+
+		Map<Long, Set<Long>> expected = new HashMap<>();
+		expected.put(projectId, Collections.emptySet());
+		expected.put(folderTwoId, Collections.emptySet());
+		expected.put(fileTwoId, Collections.emptySet());
+
+		assertEquals(expected, getIndex());
+
+		effectiveAccessRequirementDao.indexEntities(getAllIds());
+
+		expected.put(folderId, Set.of(folderToU.getId()));
+		expected.put(fileId, Set.of(folderToU.getId()));
+
+		assertEquals(expected, getIndex());
+	}
+
+	@Test
+	public void testIndexClearedOnAccessRequirementSubjectsUpdate() {
+		TermsOfUseAccessRequirement toU = createToU(folder);
+
+		effectiveAccessRequirementDao.indexEntities(getAllIds());
+
+		RestrictableObjectDescriptor subject = new RestrictableObjectDescriptor();
+		subject.setId(folderTwo.getId());
+		subject.setType(RestrictableObjectType.ENTITY);
+
+		toU.setSubjectIds(Arrays.asList(subject));
+		toU.setVersionNumber(toU.getVersionNumber() + 1);
+
+		// call under test
+		accessRequirementDAO.update(toU);
+
+		assertEquals(Set.of(folderId, folderTwoId), effectiveAccessRequirementDao.getDirtyRoots(10).keySet());
+		
+		clearDirtySubtrees();
+
+		// Both the old and the new subject are removed from the index
+		assertEquals(Map.of(projectId, Collections.emptySet()), getIndex());
+
+		effectiveAccessRequirementDao.indexEntities(getAllIds());
+
+		Map<Long, Set<Long>> expected = new HashMap<>();
+		expected.put(projectId, Collections.emptySet());
+		expected.put(folderId, Collections.emptySet());
+		expected.put(fileId, Collections.emptySet());
+		expected.put(folderTwoId, Set.of(toU.getId()));
+		expected.put(fileTwoId, Set.of(toU.getId()));
+
+		assertEquals(expected, getIndex());
+	}
+
+	@Test
+	public void testIndexClearedOnAccessRequirementDelete() {
+		TermsOfUseAccessRequirement folderToU = createToU(folder);
+
+		effectiveAccessRequirementDao.indexEntities(getAllIds());
+
+		// call under test
+		accessRequirementDAO.delete(folderToU.getId().toString());
+
+		assertEquals(Collections.emptySet(), effectiveAccessRequirementDao.getInconsistentEntityIds(getAllIds()));
+		assertEquals(Map.of(folderId, Collections.emptySet(), fileId, Collections.emptySet()),
+				filter(getIndex(), folderId, fileId));
+	}
+
+	@Test
+	public void testGetInconsistentEntityIds() {
+		TermsOfUseAccessRequirement folderToU = createToU(folder);
+
+		effectiveAccessRequirementDao.indexEntities(getAllIds());
+
+		// Simulates a stale index
+		jdbcTemplate.update("DELETE FROM " + TABLE_EFFECTIVE_AR + " WHERE " + COL_EFFECTIVE_AR_ENTITY_ID + " = ? AND "
+				+ COL_EFFECTIVE_AR_REQUIREMENT_ID + " = ?", fileId, folderToU.getId());
+
+		// call under test
+		Set<Long> result = effectiveAccessRequirementDao.getInconsistentEntityIds(getAllIds());
+
+		assertEquals(Set.of(fileId), result);
+	}
+
+	@Test
+	public void testGetInconsistentEntityIdsWithNotIndexed() {
+		createToU(folder);
+
+		// call under test
+		Set<Long> result = effectiveAccessRequirementDao.getInconsistentEntityIds(getAllIds());
+
+		assertEquals(Collections.emptySet(), result);
+	}
+
+	@Test
+	public void testGetInconsistentEntityIdsWithDirtyRoot() {
+		TermsOfUseAccessRequirement folderToU = createToU(folder);
+
+		effectiveAccessRequirementDao.indexEntities(getAllIds());
+
+		Node toMove = nodeDao.getNode(folder.getId());
+		toMove.setParentId(folderTwo.getId());
+		nodeDao.updateNode(toMove);
+
+		// Simulates a stale index in the moved subtree
+		jdbcTemplate.update("DELETE FROM " + TABLE_EFFECTIVE_AR + " WHERE " + COL_EFFECTIVE_AR_ENTITY_ID + " = ? AND "
+				+ COL_EFFECTIVE_AR_REQUIREMENT_ID + " = ?", fileId, folderToU.getId());
+
+		// call under test
+		Set<Long> result = effectiveAccessRequirementDao.getInconsistentEntityIds(getAllIds());
+
+		// The subtree is not used while it is removed from the index
+		assertEquals(Collections.emptySet(), result);
+	}
+
+	@Test
+	public void testIndexEntitiesWithDirtyRoot() {
+		TermsOfUseAccessRequirement folderToU = createToU(folder);
+
+		Node toMove = nodeDao.getNode(folderTwo.getId());
+		toMove.setParentId(folder.getId());
+		nodeDao.updateNode(toMove);
+
+		// call under test
+		Set<Long> result = effectiveAccessRequirementDao.indexEntities(getAllIds());
+
+		// The entities of the moved subtree are indexed once the subtree is cleared
+		assertEquals(Set.of(folderTwoId, fileTwoId), result);
+		assertEquals(Set.of(projectId, folderId, fileId), getIndex().keySet());
+
+		clearDirtySubtrees();
+
+		// call under test
+		result = effectiveAccessRequirementDao.indexEntities(getAllIds());
+
+		assertEquals(Collections.emptySet(), result);
+		assertEquals(Set.of(folderToU.getId()), getIndex().get(fileTwoId));
+		assertEquals(new HashSet<>(getAllIds()), getIndex().keySet());
+	}
+
+	@Test
+	public void testClearDirtySubtreePage() {
+		effectiveAccessRequirementDao.indexEntities(getAllIds());
+
+		Node toMove = nodeDao.getNode(folderTwo.getId());
+		toMove.setParentId(folder.getId());
+		nodeDao.updateNode(toMove);
+
+		// call under test
+		assertEquals(1, effectiveAccessRequirementDao.clearDirtySubtreePage(folderTwoId, 1));
+		assertEquals(1, effectiveAccessRequirementDao.clearDirtySubtreePage(folderTwoId, 1));
+		assertEquals(0, effectiveAccessRequirementDao.clearDirtySubtreePage(folderTwoId, 1));
+
+		assertEquals(Set.of(projectId, folderId, fileId), getIndex().keySet());
+		// The root is removed by the caller once the subtree is cleared
+		assertEquals(Set.of(folderTwoId), effectiveAccessRequirementDao.getDirtyRoots(10).keySet());
+	}
+
+	@Test
+	public void testRemoveDirtyRoot() {
+		Node toMove = nodeDao.getNode(folderTwo.getId());
+		toMove.setParentId(folder.getId());
+		nodeDao.updateNode(toMove);
+
+		Long version = effectiveAccessRequirementDao.getDirtyRoots(10).get(folderTwoId);
+
+		// Moved again while the subtree is cleared
+		toMove = nodeDao.getNode(folderTwo.getId());
+		toMove.setParentId(project.getId());
+		nodeDao.updateNode(toMove);
+
+		// call under test
+		assertFalse(effectiveAccessRequirementDao.removeDirtyRoot(folderTwoId, version));
+
+		Long newVersion = effectiveAccessRequirementDao.getDirtyRoots(10).get(folderTwoId);
+
+		assertEquals(version + 1, newVersion);
+
+		// call under test
+		assertTrue(effectiveAccessRequirementDao.removeDirtyRoot(folderTwoId, newVersion));
+
+		assertEquals(Collections.emptyMap(), effectiveAccessRequirementDao.getDirtyRoots(10));
+	}
+
+	@Test
+	public void testGetDirtyRootsWithLimit() {
+		nodeDao.updateNode(moveTo(folderTwo, folder));
+		nodeDao.updateNode(moveTo(file, folderTwo));
+
+		// call under test
+		assertEquals(Set.of(Math.min(folderTwoId, fileId)), effectiveAccessRequirementDao.getDirtyRoots(1).keySet());
+		assertEquals(Set.of(folderTwoId, fileId), effectiveAccessRequirementDao.getDirtyRoots(10).keySet());
+	}
+
+	@Test
+	public void testClearMigratedSubtrees() {
+		effectiveAccessRequirementDao.indexEntities(getAllIds());
+
+		// call under test
+		effectiveAccessRequirementDao.clearMigratedSubtrees(Arrays.asList(folderTwoId));
+
+		assertEquals(Set.of(projectId, folderId, fileId), getIndex().keySet());
+	}
+
+	@Test
+	public void testClearMigratedSubtreesWithEmptyList() {
+		effectiveAccessRequirementDao.indexEntities(getAllIds());
+
+		// call under test
+		effectiveAccessRequirementDao.clearMigratedSubtrees(Collections.emptyList());
+
+		assertEquals(new HashSet<>(getAllIds()), getIndex().keySet());
+	}
+
+	@Test
+	public void testClearEntities() {
+		TermsOfUseAccessRequirement folderToU = createToU(folder);
+
+		effectiveAccessRequirementDao.indexEntities(getAllIds());
+
+		// call under test
+		effectiveAccessRequirementDao.clearEntities(Arrays.asList(folderId, fileTwoId));
+
+		// Only the given entities are removed, not their descendants
+		Map<Long, Set<Long>> expected = new HashMap<>();
+		expected.put(projectId, Collections.emptySet());
+		expected.put(fileId, Set.of(folderToU.getId()));
+		expected.put(folderTwoId, Collections.emptySet());
+
+		assertEquals(expected, getIndex());
+	}
+
+	@Test
+	public void testClearRequirements() {
+		TermsOfUseAccessRequirement folderToU = createToU(folder);
+		TermsOfUseAccessRequirement folderTwoToU = createToU(folderTwo);
+
+		effectiveAccessRequirementDao.indexEntities(getAllIds());
+
+		// call under test
+		effectiveAccessRequirementDao.clearRequirements(Arrays.asList(folderToU.getId()));
+
+		Map<Long, Set<Long>> expected = new HashMap<>();
+		expected.put(projectId, Collections.emptySet());
+		expected.put(folderTwoId, Set.of(folderTwoToU.getId()));
+		expected.put(fileTwoId, Set.of(folderTwoToU.getId()));
+
+		assertEquals(expected, getIndex());
+	}
+
+	@Test
+	public void testClearRequirementsWithNotIndexed() {
+		TermsOfUseAccessRequirement folderToU = createToU(folder);
+
+		// call under test
+		effectiveAccessRequirementDao.clearRequirements(Arrays.asList(folderToU.getId()));
+
+		assertEquals(Collections.emptyMap(), getIndex());
+	}
+
+	@Test
+	public void testGetEntityIdsPage() {
+		// call under test
+		assertEquals(Arrays.asList(projectId, folderId), effectiveAccessRequirementDao.getEntityIdsPage(projectId - 1, 2));
+		assertEquals(Arrays.asList(fileId, folderTwoId, fileTwoId), effectiveAccessRequirementDao.getEntityIdsPage(folderId, 3));
+	}
+
+	@Test
+	public void testClear() {
+		createToU(folder);
+
+		effectiveAccessRequirementDao.indexEntities(getAllIds());
+
+		nodeDao.updateNode(moveTo(folderTwo, folder));
+
+		// call under test
+		effectiveAccessRequirementDao.clear();
+
+		assertEquals(Collections.emptyMap(), getIndex());
+		assertEquals(Collections.emptyMap(), effectiveAccessRequirementDao.getDirtyRoots(10));
+	}
+
+	/**
+	 * Creates a terms of use on the given subject and clears the subtree of the subject from the index, as the worker would
+	 */
+	private TermsOfUseAccessRequirement createToU(Node subject) {
+		TermsOfUseAccessRequirement toU = termsOfUseHelper.create(t -> {
+			t.setCreatedBy(userId.toString());
+			t.getSubjectIds().get(0).setId(subject.getId());
+		});
+		clearDirtySubtrees();
+		return toU;
+	}
+	
+	private Node moveTo(Node toMove, Node parent) {
+		Node node = nodeDao.getNode(toMove.getId());
+		node.setParentId(parent.getId());
+		return node;
+	}
+	
+	/**
+	 * Clears all the subtrees with a dirty root from the index as the worker would, one entity at the time
+	 */
+	private void clearDirtySubtrees() {
+		effectiveAccessRequirementDao.getDirtyRoots(100).forEach((rootId, version) -> {
+			while (effectiveAccessRequirementDao.clearDirtySubtreePage(rootId, 1) > 0) {
+				// Next page
+			}
+			assertTrue(effectiveAccessRequirementDao.removeDirtyRoot(rootId, version));
+		});
+	}
+
+	private List<Long> getAllIds() {
+		return Arrays.asList(projectId, folderId, fileId, folderTwoId, fileTwoId);
+	}
+
+	private static Map<Long, Set<Long>> filter(Map<Long, Set<Long>> index, Long... ids) {
+		Map<Long, Set<Long>> filtered = new HashMap<>();
+		for (Long id : ids) {
+			filtered.put(id, index.get(id));
+		}
+		return filtered;
+	}
+
+	private Map<Long, Set<Long>> getIndex() {
+		Map<Long, Set<Long>> index = new HashMap<>();
+		jdbcTemplate.query("SELECT E." + COL_EFFECTIVE_AR_ENTITY_ENTITY_ID + ", R." + COL_EFFECTIVE_AR_REQUIREMENT_ID + " FROM "
+				+ TABLE_EFFECTIVE_AR_ENTITY + " E LEFT JOIN " + TABLE_EFFECTIVE_AR + " R ON (E." + COL_EFFECTIVE_AR_ENTITY_ENTITY_ID
+				+ " = R." + COL_EFFECTIVE_AR_ENTITY_ID + ")", rs -> {
+			Set<Long> requirements = index.computeIfAbsent(rs.getLong(1), id -> new HashSet<>());
+			Long requirementId = rs.getLong(2);
+			if (!rs.wasNull()) {
+				requirements.add(requirementId);
+			}
+		});
+		return index;
+	}
+
+}
@@ -4,6 +4,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -158,6 +159,47 @@ public class DBOProjectStatsDAOImplTest {
 		assertFalse(startStat.getEtag().equals(endStat.getEtag()));
 	}
 
+	/**
+	 * Duplicates within a batch are reduced to the latest access.
+	 */
+	@Test
+	public void testUpdateWithDuplicates() {
+		projectStatsDao.updateProjectStat(
+				new ProjectStat(projectId2, userId, new Date(1000)),
+				new ProjectStat(projectId1, userId, new Date(1000)),
+				new ProjectStat(projectId1, userId, new Date(3000)),
+				new ProjectStat(projectId1, userId, new Date(2000)));
+		
+		List<ProjectStat> stats = projectStatsDao.getProjectStatsForUser(userId);
+		assertEquals(2, stats.size());
+		for (ProjectStat stat : stats) {
+			if (stat.getProjectId() == projectId1.longValue()) {
+				assertEquals(new Date(3000), stat.getLastAccessed());
+			} else {
+				assertEquals(new Date(1000), stat.getLastAccessed());
+			}
+		}
+	}
+	
+	@Test
+	public void testDeduplicate() {
+		ProjectStat[] stats = new ProjectStat[] {
+				new ProjectStat(2L, 1L, new Date(1000)),
+				new ProjectStat(1L, 2L, new Date(1000)),
+				new ProjectStat(1L, 1L, new Date(2000)),
+				new ProjectStat(1L, 2L, new Date(3000)),
+				new ProjectStat(1L, 1L, new Date(1000))
+		};
+		// call under test
+		List<ProjectStat> result = DBOProjectStatsDAOImpl.deduplicate(stats);
+		List<ProjectStat> expected = Arrays.asList(
+				new ProjectStat(1L, 1L, new Date(2000)),
+				new ProjectStat(1L, 2L, new Date(3000)),
+				new ProjectStat(2L, 1L, new Date(1000))
+		);
+		assertEquals(expected, result);
+	}
+
 	@Test
 	public void testCascadeDeleteOnProject() throws Exception {
 		assertEquals(0, projectStatsDao.getProjectStatsForUser(userId).size());
@@ -0,0 +1,179 @@
+package org.sagebionetworks.repo.model.dbo.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.model.ObjectType;
+import org.sagebionetworks.repo.model.entity.NameIdType;
+import org.sagebionetworks.repo.model.message.ChangeMessage;
+import org.sagebionetworks.repo.model.message.ChangeType;
+import org.sagebionetworks.repo.model.message.TransactionalMessenger;
+
+@ExtendWith(MockitoExtension.class)
+public class EntityAncestorCacheImplTest {
+
+	@Mock
+	private TransactionalMessenger mockTransactionalMessenger;
+
+	private EntityAncestorCacheImpl cache;
+
+	private List<NameIdType> projectPath;
+	private List<NameIdType> folderPath;
+	private List<NameIdType> otherProjectPath;
+
+	@BeforeEach
+	public void before() {
+		cache = new EntityAncestorCacheImpl(mockTransactionalMessenger);
+
+		NameIdType root = new NameIdType().withId("syn1").withName("root").withType("root");
+		NameIdType project = new NameIdType().withId("syn2").withName("project").withType("project");
+		NameIdType folder = new NameIdType().withId("syn3").withName("folder").withType("folder");
+		NameIdType otherProject = new NameIdType().withId("syn4").withName("otherProject").withType("project");
+
+		projectPath = Arrays.asList(root, project);
+		folderPath = Arrays.asList(root, project, folder);
+		otherProjectPath = Arrays.asList(root, otherProject);
+
+		Map<Long, List<NameIdType>> paths = new HashMap<>();
+		paths.put(2L, projectPath);
+		paths.put(3L, folderPath);
+		paths.put(4L, otherProjectPath);
+
+		cache.putContainerPaths(paths);
+	}
+
+	@Test
+	public void testAfterPropertiesSet() {
+		// call under test
+		cache.afterPropertiesSet();
+
+		verify(mockTransactionalMessenger).removeObserver(cache);
+		verify(mockTransactionalMessenger).registerObserver(cache);
+	}
+
+	@Test
+	public void testGetContainerPaths() {
+		Map<Long, List<NameIdType>> expected = new HashMap<>();
+		expected.put(2L, projectPath);
+		expected.put(3L, folderPath);
+
+		// call under test
+		Map<Long, List<NameIdType>> result = cache.getContainerPaths(Arrays.asList(2L, 3L, 5L));
+
+		assertEquals(expected, result);
+	}
+
+	@Test
+	public void testGetContainerPathsReturnsCopy() {
+		// call under test
+		List<NameIdType> path = cache.getContainerPaths(Collections.singleton(3L)).get(3L);
+
+		assertEquals(folderPath, path);
+		assertNotSame(folderPath.get(0), path.get(0));
+
+		path.get(0).withName("changed");
+
+		assertEquals(folderPath, cache.getContainerPaths(Collections.singleton(3L)).get(3L));
+	}
+
+	@Test
+	public void testInvalidate() {
+		// call under test
+		cache.invalidate(2L);
+
+		// both the project and the folder in the project are invalidated
+		assertEquals(Collections.singletonMap(4L, otherProjectPath), cache.getContainerPaths(Arrays.asList(2L, 3L, 4L)));
+		// only the root and the other project are left in the index
+		assertEquals(2, cache.getIndexSize());
+	}
+
+	@Test
+	public void testInvalidateWithEntityNotInAnyPath() {
+		// call under test
+		cache.invalidate(5L);
+
+		assertEquals(3, cache.getContainerPaths(Arrays.asList(2L, 3L, 4L)).size());
+		assertEquals(4, cache.getIndexSize());
+	}
+
+	@Test
+	public void testInvalidateAfterMove() {
+		// The folder is moved to the other project
+		List<NameIdType> movedFolderPath = Arrays.asList(otherProjectPath.get(0), otherProjectPath.get(1), folderPath.get(2));
+		cache.putContainerPaths(Collections.singletonMap(3L, movedFolderPath));
+
+		// call under test
+		cache.invalidate(2L);
+
+		assertEquals(Arrays.asList(3L, 4L), cache.getContainerPaths(Arrays.asList(2L, 3L, 4L)).keySet().stream().sorted().collect(Collectors.toList()));
+
+		// call under test
+		cache.invalidate(4L);
+
+		assertEquals(Collections.emptyMap(), cache.getContainerPaths(Arrays.asList(2L, 3L, 4L)));
+		assertEquals(0, cache.getIndexSize());
+	}
+
+	@Test
+	public void testClear() {
+		// call under test
+		cache.clear();
+
+		assertEquals(Collections.emptyMap(), cache.getContainerPaths(Arrays.asList(2L, 3L, 4L)));
+		assertEquals(0, cache.getIndexSize());
+	}
+
+	@Test
+	public void testFireChangeMessageWithUpdate() {
+		ChangeMessage message = new ChangeMessage().setObjectType(ObjectType.ENTITY).setObjectId("syn3").setChangeType(ChangeType.UPDATE);
+
+		// call under test
+		cache.fireChangeMessage(message);
+
+		assertEquals(Arrays.asList(2L, 4L), cache.getContainerPaths(Arrays.asList(2L, 3L, 4L)).keySet().stream().sorted().collect(Collectors.toList()));
+	}
+
+	@Test
+	public void testFireChangeMessageWithDelete() {
+		ChangeMessage message = new ChangeMessage().setObjectType(ObjectType.ENTITY).setObjectId("2").setChangeType(ChangeType.DELETE);
+
+		// call under test
+		cache.fireChangeMessage(message);
+
+		assertEquals(Collections.singletonMap(4L, otherProjectPath), cache.getContainerPaths(Arrays.asList(2L, 3L, 4L)));
+	}
+
+	@Test
+	public void testFireChangeMessageWithCreate() {
+		ChangeMessage message = new ChangeMessage().setObjectType(ObjectType.ENTITY).setObjectId("syn2").setChangeType(ChangeType.CREATE);
+
+		// call under test
+		cache.fireChangeMessage(message);
+
+		assertEquals(3, cache.getContainerPaths(Arrays.asList(2L, 3L, 4L)).size());
+	}
+
+	@Test
+	public void testFireChangeMessageWithOtherType() {
+		ChangeMessage message = new ChangeMessage().setObjectType(ObjectType.ACCESS_REQUIREMENT).setObjectId("2").setChangeType(ChangeType.UPDATE);
+
+		// call under test
+		cache.fireChangeMessage(message);
+
+		assertEquals(3, cache.getContainerPaths(Arrays.asList(2L, 3L, 4L)).size());
+	}
+
+}
@@ -0,0 +1,209 @@
+package org.sagebionetworks.repo.model.dbo.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.sagebionetworks.repo.model.util.AccessControlListUtil.createResourceAccess;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.sagebionetworks.repo.model.ACCESS_TYPE;
+import org.sagebionetworks.repo.model.AuthorizationConstants.BOOTSTRAP_PRINCIPAL;
+import org.sagebionetworks.repo.model.EntityType;
+import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.Node;
+import org.sagebionetworks.repo.model.NodeDAO;
+import org.sagebionetworks.repo.model.helper.AccessControlListObjectHelper;
+import org.sagebionetworks.repo.model.helper.DaoObjectHelper;
+import org.sagebionetworks.repo.model.jdo.KeyFactory;
+import org.sagebionetworks.repo.model.table.SubType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(locations = { "classpath:jdomodels-test-context.xml" })
+public class EntityChecksumBucketDaoImplTest {
+
+	@Autowired
+	private EntityChecksumBucketDao bucketDao;
+
+	@Autowired
+	private NodeDAO nodeDao;
+
+	@Autowired
+	private DaoObjectHelper<Node> nodeDaoHelper;
+
+	@Autowired
+	private AccessControlListObjectHelper aclDaoHelper;
+
+	private Long userId;
+
+	@BeforeEach
+	public void before() {
+		bucketDao.clear();
+		nodeDao.truncateAll();
+		aclDaoHelper.truncateAll();
+		userId = BOOTSTRAP_PRINCIPAL.THE_ADMIN_USER.getPrincipalId();
+	}
+
+	@AfterEach
+	public void after() {
+		bucketDao.clear();
+		nodeDao.truncateAll();
+		aclDaoHelper.truncateAll();
+	}
+
+	@Test
+	public void testLastChangeNumber() {
+		assertEquals(Optional.empty(), bucketDao.getLastChangeNumber());
+		// call under test
+		bucketDao.setLastChangeNumber(12L);
+		assertEquals(Optional.of(12L), bucketDao.getLastChangeNumber());
+		// call under test
+		bucketDao.setLastChangeNumber(13L);
+		assertEquals(Optional.of(13L), bucketDao.getLastChangeNumber());
+	}
+
+	@Test
+	public void testMarkDirtyAndGetDirtyBuckets() {
+		// call under test
+		bucketDao.markDirty(List.of(3L, 1L, 2L));
+		bucketDao.markDirty(List.of(2L));
+
+		assertEquals(List.of(1L, 2L, 3L), bucketDao.getDirtyBuckets(10));
+		assertEquals(List.of(1L, 2L), bucketDao.getDirtyBuckets(2));
+	}
+
+	@Test
+	public void testMarkDirtyWithEmpty() {
+		// call under test
+		bucketDao.markDirty(Collections.emptyList());
+		assertEquals(Collections.emptyList(), bucketDao.getDirtyBuckets(10));
+	}
+
+	@Test
+	public void testGetDirtyBucketsWithZeroLimit() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			bucketDao.getDirtyBuckets(0);
+		});
+	}
+
+	@Test
+	public void testGetMaxBucket() {
+		Node project = createProject();
+		long expected = KeyFactory.stringToKey(project.getId()) / EntityChecksumBucketDao.BUCKET_SIZE;
+		// call under test
+		assertEquals(expected, bucketDao.getMaxBucket());
+	}
+
+	@Test
+	public void testGetBucketsForParents() {
+		Node project = createProject();
+		List<Long> fileIds = createFiles(project, 3);
+		Set<Long> expected = fileIds.stream().map(id -> id / EntityChecksumBucketDao.BUCKET_SIZE).collect(Collectors.toSet());
+		// call under test
+		assertEquals(expected, bucketDao.getBucketsForParents(List.of(KeyFactory.stringToKey(project.getId()))));
+		assertEquals(Collections.emptySet(), bucketDao.getBucketsForParents(Collections.emptyList()));
+	}
+
+	@Test
+	public void testRecomputeBucket() {
+		Node project = createProject();
+		List<Long> fileIds = createFiles(project, 3);
+		Long projectId = KeyFactory.stringToKey(project.getId());
+		Set<Long> buckets = fileIds.stream().map(id -> id / EntityChecksumBucketDao.BUCKET_SIZE).collect(Collectors.toCollection(TreeSet::new));
+		bucketDao.markDirty(buckets);
+
+		// call under test
+		for (Long bucket : buckets) {
+			bucketDao.recomputeBucket(bucket);
+		}
+
+		assertEquals(Collections.emptyList(), bucketDao.getDirtyBuckets(10));
+		// The persisted checksums match the checksums computed from the nodes
+		Map<Long, Long> expectedSums = new TreeMap<>();
+		nodeDao.getIdsAndChecksumsForChildren(EntityChecksumBucketDao.BUCKET_SALT, Set.of(projectId), Set.of(SubType.file))
+				.forEach(i -> expectedSums.merge(i.getId() / EntityChecksumBucketDao.BUCKET_SIZE, i.getChecksum(), Long::sum));
+		List<IdAndChecksum> expected = expectedSums.entrySet().stream()
+				.map(e -> new IdAndChecksum().withId(e.getKey()).withChecksum(e.getValue())).collect(Collectors.toList());
+		assertEquals(expected, bucketDao.getBucketChecksums(Set.of(projectId), Set.of(SubType.file)));
+		assertEquals(Collections.emptyList(), bucketDao.getBucketChecksums(Set.of(projectId), Set.of(SubType.folder)));
+	}
+
+	@Test
+	public void testRecomputeBucketWithChange() {
+		Node project = createProject();
+		Long projectId = KeyFactory.stringToKey(project.getId());
+		List<Long> fileIds = createFiles(project, 1);
+		long bucket = fileIds.get(0) / EntityChecksumBucketDao.BUCKET_SIZE;
+		bucketDao.recomputeBucket(bucket);
+		List<IdAndChecksum> before = bucketDao.getBucketChecksums(Set.of(projectId), Set.of(SubType.file));
+
+		nodeDao.touch(userId, KeyFactory.keyToString(fileIds.get(0)));
+		// Not recomputed yet
+		assertEquals(before, bucketDao.getBucketChecksums(Set.of(projectId), Set.of(SubType.file)));
+
+		// call under test
+		bucketDao.recomputeBucket(bucket);
+
+		List<IdAndChecksum> after = bucketDao.getBucketChecksums(Set.of(projectId), Set.of(SubType.file));
+		assertEquals(1, after.size());
+		assertNotEquals(before.get(0).getChecksum(), after.get(0).getChecksum());
+	}
+
+	@Test
+	public void testGetBucketChecksumsWithEmptyParents() {
+		// call under test
+		assertEquals(Collections.emptyList(), bucketDao.getBucketChecksums(Collections.emptySet(), Set.of(SubType.file)));
+	}
+
+	@Test
+	public void testGetBucketChecksumsWithEmptySubTypes() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			bucketDao.getBucketChecksums(Set.of(1L), Collections.emptySet());
+		});
+	}
+
+	private Node createProject() {
+		Node project = nodeDaoHelper.create(n -> {
+			n.setName("project");
+			n.setCreatedByPrincipalId(userId);
+		});
+		aclDaoHelper.create(a -> {
+			a.setId(project.getId());
+			a.getResourceAccess().add(createResourceAccess(userId, ACCESS_TYPE.READ));
+		});
+		return project;
+	}
+
+	private List<Long> createFiles(Node parent, int count) {
+		List<Long> ids = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			String name = "file" + i;
+			Node file = nodeDaoHelper.create(n -> {
+				n.setName(name);
+				n.setCreatedByPrincipalId(userId);
+				n.setParentId(parent.getId());
+				n.setNodeType(EntityType.file);
+			});
+			ids.add(KeyFactory.stringToKey(file.getId()));
+		}
+		return ids;
+	}
+
+}
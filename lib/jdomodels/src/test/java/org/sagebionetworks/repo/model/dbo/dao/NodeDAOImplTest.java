@@ -30,6 +30,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
@@ -1450,6 +1451,89 @@ public class NodeDAOImplTest {
 		
 	}
 	
+	@Test
+	public void testGetSubTreeContainerIdsPage() {
+		List<String> nodeIds = createNestedNodes(3);
+		Long rootId = KeyFactory.stringToKey(nodeIds.get(0));
+		Long nested = KeyFactory.stringToKey(nodeIds.get(1));
+		Long deepest = KeyFactory.stringToKey(nodeIds.get(2));
+		// files are not containers
+		addFile(nodeIds.get(1));
+		Long folder = KeyFactory.stringToKey(nodeDao.createNewNode(NodeTestUtils.createNew("folder", creatorUserGroupId, nodeIds.get(2))).getId());
+		
+		// Call under test
+		assertEquals(Arrays.asList(rootId, nested), nodeDao.getSubTreeContainerIdsPage(rootId, null, 2));
+		assertEquals(Arrays.asList(deepest, folder), nodeDao.getSubTreeContainerIdsPage(rootId, nested, 2));
+		assertEquals(Collections.emptyList(), nodeDao.getSubTreeContainerIdsPage(rootId, folder, 2));
+		assertEquals(Arrays.asList(deepest, folder), nodeDao.getSubTreeContainerIdsPage(deepest, null, 10));
+	}
+	
+	@Test
+	public void testGetSubTreeParentIdsDeepestFirst() {
+		List<String> nodeIds = createNestedNodes(3);
+		Long rootId = KeyFactory.stringToKey(nodeIds.get(0));
+		Long nested = KeyFactory.stringToKey(nodeIds.get(1));
+		Long deepest = KeyFactory.stringToKey(nodeIds.get(2));
+		addFile(nodeIds.get(2));
+		// An empty folder is not a parent
+		nodeDao.createNewNode(NodeTestUtils.createNew("emptyFolder", creatorUserGroupId, nodeIds.get(1)));
+		
+		// Call under test
+		assertEquals(Arrays.asList(deepest, nested, rootId), nodeDao.getSubTreeParentIdsDeepestFirst(rootId, 10));
+		assertEquals(Arrays.asList(deepest, nested), nodeDao.getSubTreeParentIdsDeepestFirst(rootId, 2));
+		assertEquals(Collections.emptyList(), nodeDao.getSubTreeParentIdsDeepestFirst(KeyFactory.stringToKey(addFile(nodeIds.get(2))), 10));
+	}
+	
+	@Test
+	public void testDeleteChildren() {
+		List<String> nodeIds = createNestedNodes(2);
+		Long parentId = KeyFactory.stringToKey(nodeIds.get(1));
+		String fileOne = addFile(nodeIds.get(1));
+		String fileTwo = addFile(nodeIds.get(1));
+		String fileThree = addFile(nodeIds.get(1));
+		
+		List<Long> parentIds = Collections.singletonList(parentId);
+		
+		// Call under test
+		assertEquals(2, nodeDao.deleteChildren(parentIds, 2));
+		assertEquals(1, nodeDao.deleteChildren(parentIds, 2));
+		assertEquals(0, nodeDao.deleteChildren(parentIds, 2));
+		
+		for (String fileId : Arrays.asList(fileOne, fileTwo, fileThree)) {
+			assertFalse(nodeDao.doesNodeExist(KeyFactory.stringToKey(fileId)));
+		}
+		// The parents are not deleted
+		assertTrue(nodeDao.doesNodeExist(parentId));
+		assertTrue(nodeDao.doesNodeExist(KeyFactory.stringToKey(nodeIds.get(0))));
+	}
+	
+	@Test
+	public void testDeleteChildrenWithContainers() {
+		List<String> nodeIds = createNestedNodes(2);
+		Long parentId = KeyFactory.stringToKey(nodeIds.get(0));
+		String file = addFile(nodeIds.get(0));
+		
+		List<Long> parentIds = Collections.singletonList(parentId);
+		
+		// Call under test
+		assertEquals(1, nodeDao.deleteChildren(parentIds, 1));
+		
+		// The file is deleted before the container
+		assertFalse(nodeDao.doesNodeExist(KeyFactory.stringToKey(file)));
+		assertTrue(nodeDao.doesNodeExist(KeyFactory.stringToKey(nodeIds.get(1))));
+		
+		// Call under test
+		assertEquals(1, nodeDao.deleteChildren(parentIds, 1));
+		
+		assertFalse(nodeDao.doesNodeExist(KeyFactory.stringToKey(nodeIds.get(1))));
+	}
+	
+	@Test
+	public void testDeleteChildrenWithEmptyParents() {
+		// Call under test
+		assertEquals(0, nodeDao.deleteChildren(Collections.emptyList(), 2));
+	}
+	
 	private String addFile(String parentId) {
 		Node file = NodeTestUtils.createNew("file_" + UUID.randomUUID().toString(), creatorUserGroupId);
 		
@@ -2863,6 +2947,127 @@ public class NodeDAOImplTest {
 		assertEquals(project.getId(), nodeDao.getProjectId(child.getId()).orElseThrow());
 	}
 	
+	@Test
+	public void testGetEntityPaths() {
+		Node project = NodeTestUtils.createNew("Project", creatorUserGroupId);
+		project.setNodeType(EntityType.project);
+		project = nodeDao.createNewNode(project);
+		toDelete.add(project.getId());
+		Node parent = NodeTestUtils.createNew("parent", creatorUserGroupId);
+		parent.setNodeType(EntityType.folder);
+		parent.setParentId(project.getId());
+		parent = nodeDao.createNewNode(parent);
+		toDelete.add(parent.getId());
+		Node child = NodeTestUtils.createNew("child", creatorUserGroupId);
+		child.setParentId(parent.getId());
+		child.setNodeType(EntityType.file);
+		child = nodeDao.createNewNode(child);
+		toDelete.add(child.getId());
+		
+		Long projectId = KeyFactory.stringToKey(project.getId());
+		Long parentId = KeyFactory.stringToKey(parent.getId());
+		Long childId = KeyFactory.stringToKey(child.getId());
+		Long doesNotExist = childId + 1000;
+		
+		// call under test
+		Map<Long, List<NameIdType>> paths = nodeDao.getEntityPaths(Arrays.asList(projectId, parentId, childId, doesNotExist));
+		
+		Map<Long, List<NameIdType>> expected = new HashMap<>();
+		expected.put(projectId, nodeDao.getEntityPath(project.getId()));
+		expected.put(parentId, nodeDao.getEntityPath(parent.getId()));
+		expected.put(childId, nodeDao.getEntityPath(child.getId()));
+		
+		assertEquals(expected, paths);
+		
+		// the second call is served from the cache for the parents
+		assertEquals(expected, nodeDao.getEntityPaths(Arrays.asList(projectId, parentId, childId, doesNotExist)));
+	}
+	
+	@Test
+	public void testGetEntityPathsWithEmpty() {
+		// call under test
+		assertEquals(Collections.emptyMap(), nodeDao.getEntityPaths(Collections.emptyList()));
+	}
+	
+	@Test
+	public void testGetEntityPathsAfterMove() {
+		Node project = NodeTestUtils.createNew("Project", creatorUserGroupId);
+		project.setNodeType(EntityType.project);
+		project = nodeDao.createNewNode(project);
+		toDelete.add(project.getId());
+		Node parent = NodeTestUtils.createNew("parent", creatorUserGroupId);
+		parent.setNodeType(EntityType.folder);
+		parent.setParentId(project.getId());
+		parent = nodeDao.createNewNode(parent);
+		toDelete.add(parent.getId());
+		Node otherParent = NodeTestUtils.createNew("otherParent", creatorUserGroupId);
+		otherParent.setNodeType(EntityType.folder);
+		otherParent.setParentId(project.getId());
+		otherParent = nodeDao.createNewNode(otherParent);
+		toDelete.add(otherParent.getId());
+		Node folder = NodeTestUtils.createNew("folder", creatorUserGroupId);
+		folder.setNodeType(EntityType.folder);
+		folder.setParentId(parent.getId());
+		folder = nodeDao.createNewNode(folder);
+		toDelete.add(folder.getId());
+		Node child = NodeTestUtils.createNew("child", creatorUserGroupId);
+		child.setParentId(folder.getId());
+		child.setNodeType(EntityType.file);
+		child = nodeDao.createNewNode(child);
+		toDelete.add(child.getId());
+		
+		Long childId = KeyFactory.stringToKey(child.getId());
+		
+		// populates the cache
+		assertEquals(nodeDao.getEntityPath(child.getId()), nodeDao.getEntityPaths(Collections.singleton(childId)).get(childId));
+		
+		// move the folder to the other parent, the change message invalidates the paths that include the folder
+		folder.setParentId(otherParent.getId());
+		nodeDao.updateNode(folder);
+		nodeDao.touch(creatorUserGroupId, folder.getId());
+		
+		List<NameIdType> path = nodeDao.getEntityPaths(Collections.singleton(childId)).get(childId);
+		
+		assertEquals(nodeDao.getEntityPath(child.getId()), path);
+		assertEquals(otherParent.getId(), path.get(path.size() - 3).getId());
+	}
+	
+	@Test
+	public void testGetProjectIds() {
+		Node project = NodeTestUtils.createNew("Project", creatorUserGroupId);
+		project.setNodeType(EntityType.project);
+		project = nodeDao.createNewNode(project);
+		toDelete.add(project.getId());
+		Node parent = NodeTestUtils.createNew("parent", creatorUserGroupId);
+		parent.setNodeType(EntityType.folder);
+		parent.setParentId(project.getId());
+		parent = nodeDao.createNewNode(parent);
+		toDelete.add(parent.getId());
+		Node child = NodeTestUtils.createNew("child", creatorUserGroupId);
+		child.setParentId(parent.getId());
+		child.setNodeType(EntityType.folder);
+		child = nodeDao.createNewNode(child);
+		toDelete.add(child.getId());
+		Node trashed = NodeTestUtils.createNew("trashed", creatorUserGroupId);
+		trashed.setParentId(""+TRASH_FOLDER_ID);
+		trashed.setNodeType(EntityType.folder);
+		trashed = nodeDao.createNewNode(trashed);
+		toDelete.add(trashed.getId());
+		
+		Long projectId = KeyFactory.stringToKey(project.getId());
+		Long parentId = KeyFactory.stringToKey(parent.getId());
+		Long childId = KeyFactory.stringToKey(child.getId());
+		Long trashedId = KeyFactory.stringToKey(trashed.getId());
+		
+		Map<Long, Long> expected = new HashMap<>();
+		expected.put(projectId, projectId);
+		expected.put(parentId, projectId);
+		expected.put(childId, projectId);
+		
+		// call under test
+		assertEquals(expected, nodeDao.getProjectIds(Arrays.asList(projectId, parentId, childId, trashedId)));
+	}
+	
 	/**
 	 * Test for PLFM-4369.
 	 * A timeout for this test means the function entered
@@ -3890,6 +4095,123 @@ public class NodeDAOImplTest {
 		assertEquals(new Long(0), results.getSumFileSizesBytes());
 	}
 	
+	/**
+	 * Grants read on folder0 to the alternate group and gives folder1 an ACL that
+	 * does not include it. file0 has no ACL and inherits from the project.
+	 * 
+	 * @return the hierarchy from {@link #createHierarchy()}
+	 */
+	private List<Node> createHierarchyWithChildAcls() {
+		List<Node> nodes = createHierarchy();
+		UserInfo altUser = new UserInfo(false, altUserGroupId);
+		accessControlListDAO.create(AccessControlListUtil.createACL(nodes.get(1).getId(), altUser,
+				Sets.newHashSet(ACCESS_TYPE.READ), new Date()), ObjectType.ENTITY);
+		accessControlListDAO.create(AccessControlListUtil.createACLToGrantEntityAdminAccess(nodes.get(2).getId(),
+				adminUser, new Date()), ObjectType.ENTITY);
+		return nodes;
+	}
+	
+	@Test
+	public void testGetVisibleChildren() {
+		List<Node> nodes = createHierarchyWithChildAcls();
+		Node project = nodes.get(0);
+		Node folder0 = nodes.get(1);
+		Node file0 = nodes.get(3);
+		List<EntityType> includeTypes = Lists.newArrayList(EntityType.file, EntityType.folder);
+		Set<Long> groups = Sets.newHashSet(altUserGroupId);
+		
+		// call under test
+		List<EntityHeader> results = nodeDao.getVisibleChildren(project.getId(), includeTypes, groups, SortBy.NAME,
+				Direction.ASC, null, null, 10L);
+		
+		assertEquals(Arrays.asList(file0.getId(), folder0.getId()),
+				results.stream().map(EntityHeader::getId).collect(Collectors.toList()));
+		EntityHeader header = results.get(1);
+		assertEquals(folder0.getName(), header.getName());
+		assertEquals(folder0.getCreatedOn(), header.getCreatedOn());
+		assertEquals(KeyFactory.stringToKey(folder0.getId()), header.getBenefactorId());
+	}
+	
+	@Test
+	public void testGetVisibleChildrenWithNullGroups() {
+		List<Node> nodes = createHierarchyWithChildAcls();
+		Node project = nodes.get(0);
+		List<EntityType> includeTypes = Lists.newArrayList(EntityType.file, EntityType.folder);
+		
+		// call under test
+		List<EntityHeader> results = nodeDao.getVisibleChildren(project.getId(), includeTypes, null, SortBy.NAME,
+				Direction.DESC, null, null, 10L);
+		
+		assertEquals(Arrays.asList(nodes.get(2).getId(), nodes.get(1).getId(), nodes.get(3).getId()),
+				results.stream().map(EntityHeader::getId).collect(Collectors.toList()));
+	}
+	
+	@Test
+	public void testGetVisibleChildrenKeysetPages() {
+		List<Node> nodes = createHierarchyWithChildAcls();
+		Node project = nodes.get(0);
+		List<EntityType> includeTypes = Lists.newArrayList(EntityType.file, EntityType.folder);
+		
+		for (SortBy sortBy : SortBy.values()) {
+			for (Direction direction : Direction.values()) {
+				List<EntityHeader> all = nodeDao.getVisibleChildren(project.getId(), includeTypes, null, sortBy,
+						direction, null, null, 10L);
+				assertEquals(3, all.size());
+				List<EntityHeader> paged = new LinkedList<>();
+				Long lastId = null;
+				String lastSortValue = null;
+				while (true) {
+					// call under test
+					List<EntityHeader> page = nodeDao.getVisibleChildren(project.getId(), includeTypes, null, sortBy,
+							direction, lastId, lastSortValue, 1L);
+					if (page.isEmpty()) {
+						break;
+					}
+					assertEquals(1, page.size());
+					EntityHeader last = page.get(0);
+					paged.add(last);
+					lastId = KeyFactory.stringToKey(last.getId());
+					lastSortValue = NodeUtils.getSortValue(sortBy, last);
+				}
+				assertEquals(all, paged, sortBy + " " + direction);
+			}
+		}
+	}
+	
+	@Test
+	public void testGetVisibleChildrenWithOnlyLastId() {
+		List<EntityType> includeTypes = Lists.newArrayList(EntityType.folder);
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			nodeDao.getVisibleChildren("syn123", includeTypes, null, SortBy.NAME, Direction.ASC, 1L, null, 10L);
+		}).getMessage();
+		assertEquals("Both lastId and lastSortValue must be provided for a next page", message);
+	}
+	
+	@Test
+	public void testGetVisibleChildrenWithEmptyGroups() {
+		List<EntityType> includeTypes = Lists.newArrayList(EntityType.folder);
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			nodeDao.getVisibleChildren("syn123", includeTypes, Collections.emptySet(), SortBy.NAME, Direction.ASC,
+					null, null, 10L);
+		}).getMessage();
+		assertEquals("Must have at least one group ID", message);
+	}
+	
+	@Test
+	public void testGetChildrenStatsWithVisibleToGroups() {
+		List<Node> nodes = createHierarchyWithChildAcls();
+		Node project = nodes.get(0);
+		List<EntityType> includeTypes = Lists.newArrayList(EntityType.file, EntityType.folder);
+		// call under test
+		ChildStatsResponse results = nodeDao.getChildrenStats(new ChildStatsRequest().withParentId(project.getId())
+				.withIncludeTypes(includeTypes).withVisibleToGroups(Sets.newHashSet(altUserGroupId))
+				.withIncludeTotalChildCount(true).withIncludeSumFileSizes(true));
+		assertEquals(new Long(2), results.getTotalChildCount());
+		assertEquals(new Long(TEST_FILE_SIZE), results.getSumFileSizesBytes());
+	}
+	
 	@Test
 	public void testGetChildrenStatsNullRequest() {
 		assertThrows(IllegalArgumentException.class, ()->{
@@ -4105,6 +4427,59 @@ public class NodeDAOImplTest {
 		assertEquals(grandparent.getId(), nodeDao.getBenefactor(grandparent.getId()));
 	}
 	
+	@Test
+	public void testGetBenefactors(){
+		Node parent = nodeDao.createNewNode(NodeTestUtils.createNew("parent", creatorUserGroupId));
+		toDelete.add(parent.getId());
+		Node child = NodeTestUtils.createNew("child", creatorUserGroupId);
+		child.setParentId(parent.getId());
+		child = nodeDao.createNewNode(child);
+		toDelete.add(child.getId());
+		AccessControlList acl = AccessControlListUtil.createACLToGrantEntityAdminAccess(parent.getId(), adminUser, new Date());
+		accessControlListDAO.create(acl, ObjectType.ENTITY);
+		Long parentId = KeyFactory.stringToKey(parent.getId());
+		Long childId = KeyFactory.stringToKey(child.getId());
+		Long doesNotExist = -1L;
+		
+		Map<Long, Long> expected = new HashMap<>();
+		expected.put(parentId, parentId);
+		expected.put(childId, parentId);
+		// call under test
+		assertEquals(expected, nodeDao.getBenefactors(Lists.newArrayList(parentId, childId, doesNotExist)));
+		assertEquals(Collections.emptyMap(), nodeDao.getBenefactors(Collections.emptyList()));
+	}
+	
+	@Test
+	public void testGetNodesAndCurrentUserAnnotations(){
+		Node one = nodeDao.createNewNode(NodeTestUtils.createNew("one", creatorUserGroupId));
+		toDelete.add(one.getId());
+		Node two = nodeDao.createNewNode(NodeTestUtils.createNew("two", creatorUserGroupId));
+		toDelete.add(two.getId());
+		Annotations annos = nodeDao.getUserAnnotations(two.getId());
+		AnnotationsV2TestUtils.putAnnotations(annos, "tissue", "ear", AnnotationsValueType.STRING);
+		nodeDao.updateUserAnnotations(two.getId(), annos);
+		Long oneId = KeyFactory.stringToKey(one.getId());
+		Long twoId = KeyFactory.stringToKey(two.getId());
+		Long doesNotExist = -1L;
+		List<Long> ids = Lists.newArrayList(oneId, twoId, doesNotExist);
+		
+		// call under test
+		List<Node> nodes = nodeDao.getNodes(ids);
+		Map<String, Node> nodesById = nodes.stream().collect(Collectors.toMap(Node::getId, node -> node));
+		assertEquals(2, nodesById.size());
+		assertEquals(nodeDao.getNode(one.getId()), nodesById.get(one.getId()));
+		assertEquals(nodeDao.getNode(two.getId()), nodesById.get(two.getId()));
+		
+		// call under test
+		Map<Long, Annotations> annotations = nodeDao.getCurrentUserAnnotations(ids);
+		assertEquals(2, annotations.size());
+		assertEquals(nodeDao.getUserAnnotationsForVersion(one.getId(), nodesById.get(one.getId()).getVersionNumber()), annotations.get(oneId));
+		assertEquals(nodeDao.getUserAnnotationsForVersion(two.getId(), nodesById.get(two.getId()).getVersionNumber()), annotations.get(twoId));
+		
+		assertEquals(Collections.emptyList(), nodeDao.getNodes(Collections.emptyList()));
+		assertEquals(Collections.emptyMap(), nodeDao.getCurrentUserAnnotations(Collections.emptyList()));
+	}
+	
 	@Test
 	public void testGetAvailableNodesEmpty(){
 		List<Long> empty = new LinkedList<Long>();
@@ -5155,6 +5530,37 @@ public class NodeDAOImplTest {
 		assertEquals(expected, results);
 	}
 	
+	@Test
+	public void testGetIdsAndChecksumsForChildrenInBucket() throws Exception {
+		Node project = nodeDaoHelper.create(n -> {
+			n.setName("project-one");
+			n.setCreatedByPrincipalId(creatorUserGroupId);
+		});
+		aclDaoHelper.create(a->{
+			a.setId(project.getId());
+			a.getResourceAccess().add(createResourceAccess(creatorUserGroupId, ACCESS_TYPE.READ));
+		});
+		int numberVersions = 2;
+		for (int i = 0; i < 5; i++) {
+			createNodeWithMultipleVersions(numberVersions, project.getId());
+		}
+		Set<SubType> subTypes = Sets.newHashSet(SubType.file);
+		Set<Long> parentIds = Sets.newHashSet(KeyFactory.stringToKey(project.getId()));
+		Long salt = 123L;
+		Long bucketSize = 2L;
+		
+		List<IdAndChecksum> all = nodeDao.getIdsAndChecksumsForChildren(salt, parentIds, subTypes);
+		Set<Long> buckets = all.stream().map(i -> i.getId() / bucketSize).collect(Collectors.toCollection(TreeSet::new));
+		
+		for (Long bucket : buckets) {
+			List<IdAndChecksum> expectedInBucket = all.stream().filter(i -> i.getId() / bucketSize == bucket)
+					.collect(Collectors.toList());
+			// call under test
+			assertEquals(expectedInBucket,
+					nodeDao.getIdsAndChecksumsForChildrenInBucket(salt, parentIds, subTypes, bucketSize, bucket));
+		}
+	}
+	
 	@Test
 	public void testGetIdsAndChecksumsForChildrenWithParentInTrash() throws Exception {
 		// project one is in the trash
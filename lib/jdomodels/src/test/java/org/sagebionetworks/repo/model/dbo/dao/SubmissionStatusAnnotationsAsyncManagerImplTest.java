@@ -1,11 +1,16 @@
 package org.sagebionetworks.repo.model.dbo.dao;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.sagebionetworks.repo.model.dbo.dao.SubmissionStatusAnnotationsAsyncManagerImpl.CANCEL_CONTROL;
 import static org.sagebionetworks.repo.model.dbo.dao.SubmissionStatusAnnotationsAsyncManagerImpl.CANCEL_REQUESTED;
 import static org.sagebionetworks.repo.model.dbo.dao.SubmissionStatusAnnotationsAsyncManagerImpl.CAN_CANCEL;
+import static org.sagebionetworks.repo.model.dbo.dao.SubmissionStatusAnnotationsAsyncManagerImpl.PAGE_SIZE;
 import static org.sagebionetworks.repo.model.dbo.dao.SubmissionStatusAnnotationsAsyncManagerImpl.SYSTEM_GENERATED_ANNO_IS_PRIVATE;
 
 import java.util.ArrayList;
@@ -256,14 +261,14 @@ public class SubmissionStatusAnnotationsAsyncManagerImplTest {
 
 	@Test
 	public void testCreateSubmissionStatus() throws NotFoundException, DatastoreException, JSONObjectAdapterException {
-		when(mockSubStatusAnnoDAO.getChangedSubmissions(Long.parseLong(EVAL_ID))).thenReturn(Collections.singletonList(bundle));
+		when(mockSubStatusAnnoDAO.getChangedSubmissionsPage(EVAL_ID_AS_LONG, -1L, PAGE_SIZE)).thenReturn(Collections.singletonList(bundle));
 		
 		// Annotations will initially be null when the SubmissionStatus object is created
 		subStatus.setAnnotations(null);
 		
 		ssAnnoAsyncManager.createEvaluationSubmissionStatuses(submission.getEvaluationId());
 		verify(mockSubStatusAnnoDAO).replaceAnnotations(annosCaptor.capture());
-		verify(mockSubStatusAnnoDAO).deleteAnnotationsByScope(EVAL_ID_AS_LONG);
+		verify(mockSubStatusAnnoDAO).deleteAnnotationsForDeletedSubmissions(EVAL_ID_AS_LONG, -1L, PAGE_SIZE);
 		Annotations actualAnnosOut = (Annotations)annosCaptor.getValue().get(0);
 		assertTrue(actualAnnosOut.getDoubleAnnos().containsAll(expectedAnnosOut.getDoubleAnnos()));
 		assertTrue(actualAnnosOut.getLongAnnos().containsAll(expectedAnnosOut.getLongAnnos()));
@@ -276,7 +281,7 @@ public class SubmissionStatusAnnotationsAsyncManagerImplTest {
 	
 	@Test
 	public void testUpdateSubmissionStatus() throws NotFoundException, DatastoreException, JSONObjectAdapterException {
-		when(mockSubStatusAnnoDAO.getChangedSubmissions(Long.parseLong(EVAL_ID))).thenReturn(Collections.singletonList(bundle));
+		when(mockSubStatusAnnoDAO.getChangedSubmissionsPage(EVAL_ID_AS_LONG, -1L, PAGE_SIZE)).thenReturn(Collections.singletonList(bundle));
 		
 		// Add some Annotations
 		List<StringAnnotation> stringAnnos = new ArrayList<StringAnnotation>();
@@ -297,7 +302,7 @@ public class SubmissionStatusAnnotationsAsyncManagerImplTest {
 		
 		ssAnnoAsyncManager.updateEvaluationSubmissionStatuses(submission.getEvaluationId());
 		verify(mockSubStatusAnnoDAO).replaceAnnotations(annosCaptor.capture());
-		verify(mockSubStatusAnnoDAO).deleteAnnotationsByScope(EVAL_ID_AS_LONG);
+		verify(mockSubStatusAnnoDAO).deleteAnnotationsForDeletedSubmissions(EVAL_ID_AS_LONG, -1L, PAGE_SIZE);
 		Annotations actualAnnosOut = (Annotations)annosCaptor.getValue().get(0);
 		assertTrue(actualAnnosOut.getDoubleAnnos().containsAll(expectedAnnosOut.getDoubleAnnos()));
 		assertTrue(actualAnnosOut.getLongAnnos().containsAll(expectedAnnosOut.getLongAnnos()));
@@ -310,7 +315,7 @@ public class SubmissionStatusAnnotationsAsyncManagerImplTest {
 	
 	@Test
 	public void testUpdateSubmissionStatusOverwrite() throws NotFoundException, DatastoreException, JSONObjectAdapterException {
-		when(mockSubStatusAnnoDAO.getChangedSubmissions(Long.parseLong(EVAL_ID))).thenReturn(Collections.singletonList(bundle));
+		when(mockSubStatusAnnoDAO.getChangedSubmissionsPage(EVAL_ID_AS_LONG, -1L, PAGE_SIZE)).thenReturn(Collections.singletonList(bundle));
 		
 		// Add a user-defined Annotation that should be overwritten
 		List<StringAnnotation> stringAnnos = new ArrayList<StringAnnotation>();
@@ -341,9 +346,62 @@ public class SubmissionStatusAnnotationsAsyncManagerImplTest {
 		verify(mockSubStatusAnnoDAO).deleteAnnotationsByScope(Long.parseLong(submission.getEvaluationId()));
 	}
 	
+	@Test
+	public void testUpdateSubmissionStatusWithMultiplePages() throws Exception {
+		List<SubmissionBundle> firstPage = Collections.nCopies((int) PAGE_SIZE, bundle);
+		when(mockSubStatusAnnoDAO.getChangedSubmissionsPage(EVAL_ID_AS_LONG, -1L, PAGE_SIZE)).thenReturn(firstPage);
+		when(mockSubStatusAnnoDAO.getChangedSubmissionsPage(EVAL_ID_AS_LONG, Long.parseLong(submission.getId()), PAGE_SIZE)).thenReturn(Collections.emptyList());
+		
+		// call under test
+		ssAnnoAsyncManager.updateEvaluationSubmissionStatuses(submission.getEvaluationId());
+		
+		verify(mockSubStatusAnnoDAO).getChangedSubmissionsPage(EVAL_ID_AS_LONG, -1L, PAGE_SIZE);
+		verify(mockSubStatusAnnoDAO).getChangedSubmissionsPage(EVAL_ID_AS_LONG, Long.parseLong(submission.getId()), PAGE_SIZE);
+		// each page is replaced separately
+		verify(mockSubStatusAnnoDAO).replaceAnnotations(annosCaptor.capture());
+		assertEquals(PAGE_SIZE, annosCaptor.getValue().size());
+		verify(mockSubStatusAnnoDAO).deleteAnnotationsForDeletedSubmissions(EVAL_ID_AS_LONG, -1L, PAGE_SIZE);
+	}
+	
+	@Test
+	public void testUpdateSubmissionStatusWithNoChanges() throws Exception {
+		when(mockSubStatusAnnoDAO.getChangedSubmissionsPage(EVAL_ID_AS_LONG, -1L, PAGE_SIZE)).thenReturn(Collections.emptyList());
+		
+		// call under test
+		ssAnnoAsyncManager.updateEvaluationSubmissionStatuses(submission.getEvaluationId());
+		
+		verify(mockSubStatusAnnoDAO, never()).replaceAnnotations(any());
+		verify(mockSubStatusAnnoDAO).deleteAnnotationsForDeletedSubmissions(EVAL_ID_AS_LONG, -1L, PAGE_SIZE);
+	}
+	
+	@Test
+	public void testUpdateSubmissionStatusWithMultipleDeletePages() throws Exception {
+		when(mockSubStatusAnnoDAO.getChangedSubmissionsPage(EVAL_ID_AS_LONG, -1L, PAGE_SIZE)).thenReturn(Collections.emptyList());
+		// Each page starts after the last id of the previous one
+		when(mockSubStatusAnnoDAO.deleteAnnotationsForDeletedSubmissions(EVAL_ID_AS_LONG, -1L, PAGE_SIZE)).thenReturn(idRange(1, PAGE_SIZE));
+		when(mockSubStatusAnnoDAO.deleteAnnotationsForDeletedSubmissions(EVAL_ID_AS_LONG, PAGE_SIZE, PAGE_SIZE)).thenReturn(idRange(PAGE_SIZE + 1, PAGE_SIZE));
+		when(mockSubStatusAnnoDAO.deleteAnnotationsForDeletedSubmissions(EVAL_ID_AS_LONG, PAGE_SIZE * 2, PAGE_SIZE)).thenReturn(idRange(PAGE_SIZE * 2 + 1, 3));
+		
+		// call under test
+		ssAnnoAsyncManager.updateEvaluationSubmissionStatuses(submission.getEvaluationId());
+		
+		verify(mockSubStatusAnnoDAO).deleteAnnotationsForDeletedSubmissions(EVAL_ID_AS_LONG, -1L, PAGE_SIZE);
+		verify(mockSubStatusAnnoDAO).deleteAnnotationsForDeletedSubmissions(EVAL_ID_AS_LONG, PAGE_SIZE, PAGE_SIZE);
+		verify(mockSubStatusAnnoDAO).deleteAnnotationsForDeletedSubmissions(EVAL_ID_AS_LONG, PAGE_SIZE * 2, PAGE_SIZE);
+		verify(mockSubStatusAnnoDAO, times(3)).deleteAnnotationsForDeletedSubmissions(any(), any(), anyLong());
+	}
+	
+	private static List<Long> idRange(long start, long count) {
+		List<Long> ids = new ArrayList<>();
+		for (long id = start; id < start + count; id++) {
+			ids.add(id);
+		}
+		return ids;
+	}
+	
 	@Test
 	public void testUpdateEvaluationSubmissionStatusSumbitterIdWhenNoTeam() throws Exception{
-		when(mockSubStatusAnnoDAO.getChangedSubmissions(Long.parseLong(EVAL_ID))).thenReturn(Collections.singletonList(bundle));
+		when(mockSubStatusAnnoDAO.getChangedSubmissionsPage(EVAL_ID_AS_LONG, -1L, PAGE_SIZE)).thenReturn(Collections.singletonList(bundle));
 		
 		//recalculate the expected annotations with teamID removed
 		submission.setTeamId(null);
@@ -352,7 +410,7 @@ public class SubmissionStatusAnnotationsAsyncManagerImplTest {
 		//method under test
 		ssAnnoAsyncManager.updateEvaluationSubmissionStatuses(submission.getEvaluationId());
 		verify(mockSubStatusAnnoDAO).replaceAnnotations(annosCaptor.capture());
-		verify(mockSubStatusAnnoDAO).deleteAnnotationsByScope(EVAL_ID_AS_LONG);
+		verify(mockSubStatusAnnoDAO).deleteAnnotationsForDeletedSubmissions(EVAL_ID_AS_LONG, -1L, PAGE_SIZE);
 		Annotations actualAnnosOut = (Annotations)annosCaptor.getValue().get(0);
 		
 		assertTrue(actualAnnosOut.getDoubleAnnos().containsAll(expectedAnnosOut.getDoubleAnnos()));
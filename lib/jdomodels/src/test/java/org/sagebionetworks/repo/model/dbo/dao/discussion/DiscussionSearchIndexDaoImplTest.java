@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -234,6 +235,101 @@ public class DiscussionSearchIndexDaoImplTest {
 		assertEquals("The searchContent is required.", message);
 	}
 	
+	@Test
+	public void testCreateOrUpdateRecords() {
+		Long replyId = 123L;
+		
+		dao.createOrUpdateRecordForReply(forumId, threadId, replyId, "old content");
+		dao.markReplyAsDeleted(replyId);
+		
+		List<DBODiscussionSearchIndexRecord> expected = Arrays.asList(
+			createRecord(DBODiscussionSearchIndexRecord.NO_REPLY_ID, "thread content"),
+			// The deleted flag of existing records is not updated
+			createRecord(replyId, "reply content", false, true)
+		);
+		
+		// Call under test
+		dao.createOrUpdateRecords(Arrays.asList(
+			createRecord(DBODiscussionSearchIndexRecord.NO_REPLY_ID, "thread content", true, true),
+			createRecord(replyId, "reply content")
+		));
+		
+		assertEquals(expected, dao.listRecords(forumId));
+	}
+	
+	@Test
+	public void testCreateOrUpdateRecordsWithEmpty() {
+		
+		// Call under test
+		dao.createOrUpdateRecords(Collections.emptyList());
+		
+		assertEquals(Collections.emptyList(), dao.listRecords(forumId));
+	}
+	
+	@Test
+	public void testCreateOrUpdateRecordsWithNoSearchContent() {
+		
+		String message = assertThrows(IllegalArgumentException.class, () -> {			
+			// Call under test
+			dao.createOrUpdateRecords(Arrays.asList(createRecord(DBODiscussionSearchIndexRecord.NO_REPLY_ID, null)));
+		}).getMessage();
+		
+		assertEquals("The searchContent is required.", message);
+	}
+	
+	@Test
+	public void testSetThreadsDeleted() {
+		String searchContent = "search content";
+		Long replyId = 123L;
+		
+		dao.createOrUpdateRecordForThread(forumId, threadId, searchContent);
+		dao.createOrUpdateRecordForReply(forumId, threadId, replyId, searchContent);
+		
+		// Call under test
+		dao.setThreadsDeleted(Arrays.asList(threadId, threadId + 1), true);
+		
+		assertEquals(Arrays.asList(
+			createRecord(DBODiscussionSearchIndexRecord.NO_REPLY_ID, searchContent, true, false),
+			createRecord(replyId, searchContent, true, false)
+		), dao.listRecords(forumId));
+		
+		// Call under test
+		dao.setThreadsDeleted(Collections.singletonList(threadId), false);
+		
+		assertEquals(Arrays.asList(
+			createRecord(DBODiscussionSearchIndexRecord.NO_REPLY_ID, searchContent),
+			createRecord(replyId, searchContent)
+		), dao.listRecords(forumId));
+	}
+	
+	@Test
+	public void testSetRepliesDeleted() {
+		String searchContent = "search content";
+		Long replyId = 123L;
+		
+		dao.createOrUpdateRecordForThread(forumId, threadId, searchContent);
+		dao.createOrUpdateRecordForReply(forumId, threadId, replyId, searchContent);
+		dao.createOrUpdateRecordForReply(forumId, threadId, replyId + 1, searchContent);
+		
+		// Call under test
+		dao.setRepliesDeleted(Arrays.asList(replyId, replyId + 1), true);
+		
+		assertEquals(Arrays.asList(
+			createRecord(DBODiscussionSearchIndexRecord.NO_REPLY_ID, searchContent),
+			createRecord(replyId, searchContent, false, true),
+			createRecord(replyId + 1, searchContent, false, true)
+		), dao.listRecords(forumId));
+		
+		// Call under test
+		dao.setRepliesDeleted(Collections.singletonList(replyId), false);
+		
+		assertEquals(Arrays.asList(
+			createRecord(DBODiscussionSearchIndexRecord.NO_REPLY_ID, searchContent),
+			createRecord(replyId, searchContent),
+			createRecord(replyId + 1, searchContent, false, true)
+		), dao.listRecords(forumId));
+	}
+	
 	@Test
 	public void testMarkThreadAsDeleted() {
 		String searchContent = "search content";
@@ -332,7 +428,7 @@ public class DiscussionSearchIndexDaoImplTest {
 		);
 		
 		// Call under test
-		List<Match> result = dao.search(forumId, searchString, 10, 0);
+		List<Match> result = toMatches(dao.search(forumId, searchString, null, 10));
 		
 		assertEquals(expected, result);
 	}
@@ -352,7 +448,7 @@ public class DiscussionSearchIndexDaoImplTest {
 		List<Match> expected = Collections.emptyList();
 		
 		// Call under test
-		List<Match> result = dao.search(forumId, searchString, 10, 0);
+		List<Match> result = toMatches(dao.search(forumId, searchString, null, 10));
 		
 		assertEquals(expected, result);
 	}
@@ -376,7 +472,7 @@ public class DiscussionSearchIndexDaoImplTest {
 		);
 		
 		// Call under test
-		List<Match> result = dao.search(forumId, searchString, 10, 0);
+		List<Match> result = toMatches(dao.search(forumId, searchString, null, 10));
 		
 		assertEquals(expected, result);
 	}
@@ -385,7 +481,6 @@ public class DiscussionSearchIndexDaoImplTest {
 	public void testSearchMultiplePages() {
 		
 		long limit = 2;
-		long offset = 0;
 		
 		String searchString = "search content";
 		
@@ -402,18 +497,72 @@ public class DiscussionSearchIndexDaoImplTest {
 		);
 		
 		// Call under test
-		List<Match> result = dao.search(forumId, searchString, limit, offset);
+		List<DiscussionSearchIndexMatch> result = dao.search(forumId, searchString, null, limit);
 		
-		assertEquals(expectedFirstPage, result);
+		assertEquals(expectedFirstPage, toMatches(result));
 		
 		List<Match> expectedSecondPage = Arrays.asList(
 			new Match().setForumId(forumId.toString()).setThreadId(threadId.toString()).setReplyId(anotherReplyId.toString())
 		);
 		
 		// Call under test
-		result = dao.search(forumId, searchString, limit, offset + limit);
+		result = dao.search(forumId, searchString, result.get(result.size() - 1), limit);
+		
+		assertEquals(expectedSecondPage, toMatches(result));
+	}
+	
+	@Test
+	public void testSearchMultiplePagesWithSameRelevance() {
+		
+		long limit = 2;
+		
+		String searchString = "search content";
+		
+		// All the records have the same content and relevance, they are ordered by thread and reply id
+		dao.createOrUpdateRecordForReply(forumId, threadId, 3L, "search content");
+		dao.createOrUpdateRecordForReply(forumId, threadId, 1L, "search content");
+		dao.createOrUpdateRecordForThread(forumId, threadId, "search content");
+		dao.createOrUpdateRecordForReply(forumId, threadId, 2L, "search content");
+		
+		List<DiscussionSearchIndexMatch> firstPage = dao.search(forumId, searchString, null, limit);
+		
+		assertEquals(Arrays.asList(null, "1"), toReplyIds(firstPage));
+		assertEquals(firstPage.get(0).getRelevance(), firstPage.get(1).getRelevance());
+		
+		// Call under test
+		List<DiscussionSearchIndexMatch> secondPage = dao.search(forumId, searchString, firstPage.get(1), limit);
+		
+		assertEquals(Arrays.asList("2", "3"), toReplyIds(secondPage));
+		
+		// Call under test
+		List<DiscussionSearchIndexMatch> lastPage = dao.search(forumId, searchString, secondPage.get(1), limit);
+		
+		assertEquals(Collections.emptyList(), lastPage);
+	}
+	
+	@Test
+	public void testSearchMultiplePagesWithRelevanceFromToken() {
+		
+		long limit = 1;
+		
+		String searchString = "search content";
+		
+		dao.createOrUpdateRecordForReply(forumId, threadId, 1L, "search content");
+		dao.createOrUpdateRecordForReply(forumId, threadId, 2L, "search content");
+		
+		List<DiscussionSearchIndexMatch> firstPage = dao.search(forumId, searchString, null, limit);
+		
+		assertEquals(Arrays.asList("1"), toReplyIds(firstPage));
+		
+		DiscussionSearchIndexMatch last = firstPage.get(0);
+		
+		// The relevance is fixed to RELEVANCE_SCALE decimals, any difference below that (e.g. from the serialization in the token) does not change the page
+		DiscussionSearchIndexMatch after = new DiscussionSearchIndexMatch(last.getMatch(), last.getRelevance() + Math.pow(10, -(DiscussionSearchIndexDaoImpl.RELEVANCE_SCALE + 3)));
+		
+		// Call under test
+		List<DiscussionSearchIndexMatch> secondPage = dao.search(forumId, searchString, after, limit);
 		
-		assertEquals(expectedSecondPage, result);
+		assertEquals(Arrays.asList("2"), toReplyIds(secondPage));
 	}
 	
 	@Test
@@ -422,7 +571,7 @@ public class DiscussionSearchIndexDaoImplTest {
 		
 		String message = assertThrows(IllegalArgumentException.class, () -> {			
 			// Call under test
-			dao.search(null, searchString, 10, 0);
+			dao.search(null, searchString, null, 10);
 		}).getMessage();
 		
 		assertEquals("The forumId is required.", message);
@@ -435,13 +584,21 @@ public class DiscussionSearchIndexDaoImplTest {
 		
 		String message = assertThrows(IllegalArgumentException.class, () -> {			
 			// Call under test
-			dao.search(forumId, searchString, 10, 0);
+			dao.search(forumId, searchString, null, 10);
 		}).getMessage();
 		
 		assertEquals("The searchString is required.", message);
 		
 	}
 	
+	private static List<Match> toMatches(List<DiscussionSearchIndexMatch> results) {
+		return results.stream().map(DiscussionSearchIndexMatch::getMatch).collect(Collectors.toList());
+	}
+	
+	private static List<String> toReplyIds(List<DiscussionSearchIndexMatch> results) {
+		return results.stream().map(result -> result.getMatch().getReplyId()).collect(Collectors.toList());
+	}
+	
 	private DBODiscussionSearchIndexRecord createRecord(Long replyId, String searchContent) {
 		return createRecord(replyId, searchContent, false, false);
 	}
@@ -0,0 +1,215 @@
+package org.sagebionetworks.repo.model.dbo.dao.table;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.sagebionetworks.repo.model.table.TableConstants.ROW_ID;
+import static org.sagebionetworks.repo.model.table.TableConstants.ROW_VERSION;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sagebionetworks.repo.model.table.ColumnModel;
+import org.sagebionetworks.repo.model.table.ColumnType;
+import org.sagebionetworks.repo.model.table.CsvTableDescriptor;
+import org.sagebionetworks.repo.model.table.SparseRowDto;
+
+import au.com.bytecode.opencsv.CSVReader;
+
+public class ParallelCSVToRowIteratorTest {
+
+	private ExecutorService threadPool;
+	private List<ColumnModel> columns;
+
+	@BeforeEach
+	public void before() {
+		threadPool = Executors.newFixedThreadPool(4);
+		columns = TableModelTestUtils.createColumsWithNames("a", "b", "c");
+		columns.get(0).setColumnType(ColumnType.STRING);
+		columns.get(1).setColumnType(ColumnType.INTEGER);
+		columns.get(2).setColumnType(ColumnType.BOOLEAN);
+	}
+
+	@AfterEach
+	public void after() {
+		threadPool.shutdownNow();
+	}
+
+	@Test
+	public void testSameRowsAsCSVToRowIterator() throws IOException {
+		List<String[]> input = new ArrayList<>();
+		input.add(new String[] { "a", "b", "c" });
+		for (int i = 0; i < 103; i++) {
+			input.add(new String[] { "line\n" + i + ",\"quoted\"", "" + i, i % 2 == 0 ? "true" : "false" });
+		}
+		String csv = TableModelTestUtils.createCSVString(input);
+
+		List<SparseRowDto> expected = readAll(new CSVToRowIterator(columns, new CSVReader(new StringReader(csv)), true, null));
+		// Use small chunks so that the rows are spread across many concurrent chunks
+		ParallelCSVToRowIterator iterator = new ParallelCSVToRowIterator(columns, new StringReader(csv), null, true, null, threadPool, false, 7, 3);
+
+		// call under test
+		List<SparseRowDto> results = readAll(iterator);
+
+		assertEquals(expected, results);
+		assertEquals(103L, iterator.getRowsRead());
+		assertEquals("line\n5,\"quoted\"", results.get(5).getValues().get(columns.get(0).getId()));
+	}
+
+	@Test
+	public void testValuesNotValidated() throws IOException {
+		List<String[]> input = new ArrayList<>();
+		input.add(new String[] { "AAA", "", "TRUE" });
+		String csv = TableModelTestUtils.createCSVString(input);
+
+		ParallelCSVToRowIterator iterator = new ParallelCSVToRowIterator(columns, new StringReader(csv), null, false, null, threadPool, false);
+
+		// call under test
+		List<SparseRowDto> results = readAll(iterator);
+
+		assertFalse(iterator.isValidateValues());
+		assertEquals(1, results.size());
+		// The raw values are returned
+		assertEquals("AAA", results.get(0).getValues().get(columns.get(0).getId()));
+		assertEquals("", results.get(0).getValues().get(columns.get(1).getId()));
+		assertEquals("TRUE", results.get(0).getValues().get(columns.get(2).getId()));
+	}
+
+	@Test
+	public void testValuesValidated() throws IOException {
+		List<String[]> input = new ArrayList<>();
+		input.add(new String[] { "AAA", "", "TRUE" });
+		String csv = TableModelTestUtils.createCSVString(input);
+
+		ParallelCSVToRowIterator iterator = new ParallelCSVToRowIterator(columns, new StringReader(csv), null, false, null, threadPool, true);
+
+		// call under test
+		List<SparseRowDto> results = readAll(iterator);
+
+		assertTrue(iterator.isValidateValues());
+		assertEquals(1, results.size());
+		assertEquals("AAA", results.get(0).getValues().get(columns.get(0).getId()));
+		// Empty values are null for non-string columns
+		assertTrue(results.get(0).getValues().containsKey(columns.get(1).getId()));
+		assertNull(results.get(0).getValues().get(columns.get(1).getId()));
+		assertEquals("true", results.get(0).getValues().get(columns.get(2).getId()));
+	}
+
+	@Test
+	public void testInvalidValueReportsLineNumber() throws IOException {
+		List<String[]> input = new ArrayList<>();
+		input.add(new String[] { "a", "b", "c" });
+		input.add(new String[] { "multi\nline", "1", "true" });
+		input.add(new String[] { "AAA", "2", "true" });
+		input.add(new String[] { "BBB", "notAnInteger", "true" });
+		input.add(new String[] { "CCC", "4", "true" });
+		String csv = TableModelTestUtils.createCSVString(input);
+
+		Iterator<SparseRowDto> iterator = new ParallelCSVToRowIterator(columns, new StringReader(csv), null, true, null, threadPool, true, 1, 2);
+
+		// The rows that precede the invalid row are returned
+		assertTrue(iterator.hasNext());
+		iterator.next();
+		assertTrue(iterator.hasNext());
+		iterator.next();
+
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			iterator.hasNext();
+		}).getMessage();
+
+		// The row and column index of the value within the stream
+		assertTrue(message.startsWith("Line number 5: Value at [2,1] was not a valid INTEGER."), message);
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void testInvalidRowReportsLineNumber() throws IOException {
+		List<String[]> input = new ArrayList<>();
+		input.add(new String[] { ROW_ID, ROW_VERSION, "a", "b", "c" });
+		input.add(new String[] { "1", "1", "multi\nline", "1", "true" });
+		input.add(new String[] { "2", "1", "AAA", "2", "true" });
+		input.add(new String[] { "notARowId", "1", "BBB", "3", "true" });
+		input.add(new String[] { "4", "1", "CCC", "4", "true" });
+		String csv = TableModelTestUtils.createCSVString(input);
+
+		Iterator<SparseRowDto> iterator = new ParallelCSVToRowIterator(columns, new StringReader(csv), null, true, null, threadPool, false, 1, 2);
+
+		// The rows that precede the invalid row are returned
+		assertTrue(iterator.hasNext());
+		iterator.next();
+		assertTrue(iterator.hasNext());
+		iterator.next();
+
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			iterator.hasNext();
+		}).getMessage();
+
+		assertTrue(message.startsWith("Line number 5: "), message);
+		assertTrue(message.contains("notARowId"), message);
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void testLinesToSkipWithRowIdAndVersion() throws IOException {
+		List<ColumnModel> schema = TableModelTestUtils.createColumsWithNames("foo");
+		List<String[]> input = new ArrayList<>();
+		input.add(new String[] { ROW_ID, ROW_VERSION, "bar" });
+		input.add(new String[] { "1", "10", "a" });
+		String csv = TableModelTestUtils.createCSVString(input);
+
+		// call under test
+		List<SparseRowDto> results = readAll(new ParallelCSVToRowIterator(schema, new StringReader(csv), null, false, 1L, threadPool, false));
+
+		assertEquals(1, results.size());
+		assertEquals(Long.valueOf(1), results.get(0).getRowId());
+		assertEquals(Long.valueOf(10), results.get(0).getVersionNumber());
+		assertEquals("a", results.get(0).getValues().get(schema.get(0).getId()));
+	}
+
+	@Test
+	public void testDescriptor() throws IOException {
+		CsvTableDescriptor descriptor = new CsvTableDescriptor();
+		descriptor.setSeparator("\t");
+		descriptor.setQuoteCharacter("'");
+		String csv = "c\ta\tb\n'true'\t'x\ty'\t3\n";
+
+		// call under test
+		List<SparseRowDto> results = readAll(new ParallelCSVToRowIterator(columns, new StringReader(csv), descriptor, true, null, threadPool, false));
+
+		assertEquals(1, results.size());
+		assertEquals("x\ty", results.get(0).getValues().get(columns.get(0).getId()));
+		assertEquals("3", results.get(0).getValues().get(columns.get(1).getId()));
+		assertEquals("true", results.get(0).getValues().get(columns.get(2).getId()));
+	}
+
+	@Test
+	public void testEmptyHeader() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			new ParallelCSVToRowIterator(columns, new StringReader(""), null, true, null, threadPool, false);
+		}).getMessage();
+
+		assertEquals("Expected the first line to be the header but was empty.", message);
+	}
+
+	private static List<SparseRowDto> readAll(Iterator<SparseRowDto> iterator) {
+		List<SparseRowDto> rows = new ArrayList<>();
+		while (iterator.hasNext()) {
+			rows.add(iterator.next());
+		}
+		return rows;
+	}
+
+}
@@ -7,9 +7,11 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -37,6 +39,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 
 @ExtendWith(SpringExtension.class)
@@ -699,4 +702,103 @@ public class TableRowTruthDAOImplTest {
 		assertEquals(2, results.size());
 		
 	}
+	
+	@Test
+	public void testAddAndGetTableRowChangeFileHandleIds() throws IOException {
+		long limit = 10L;
+		long lastId = -1L;
+		
+		List<ColumnModel> columns = TableModelTestUtils.createOneOfEachType();
+		
+		RawRowSet set = new RawRowSet(TableModelUtils.getIds(columns), null, tableId, TableModelTestUtils.createRows(columns, 5));
+		
+		long firstVersion = appendRowSetToTable(creatorUserGroupId, tableId, columns, set);
+		
+		set = new RawRowSet(set.getIds(), set.getEtag(), set.getTableId(), TableModelTestUtils.createRows(columns, 2));
+		
+		long secondVersion = appendRowSetToTable(creatorUserGroupId, tableId, columns, set);
+		
+		// None of the changes is indexed yet
+		List<TableRowChange> results = tableRowTruthDao.getTableRowChangeWithUnindexedFileRefsPage(tableRowTruthDao.getTableRowChangeIdRange(), lastId, limit);
+		
+		assertEquals(2, results.size());
+		assertEquals(Collections.emptySet(), tableRowTruthDao.getTableRowChangeFileHandleIds(tableId, firstVersion));
+		
+		Set<Long> fileHandleIds = ImmutableSet.of(123L, 456L);
+		
+		// Call under test
+		tableRowTruthDao.addTableRowChangeFileHandleIds(tableId, firstVersion, fileHandleIds);
+		
+		assertEquals(fileHandleIds, tableRowTruthDao.getTableRowChangeFileHandleIds(tableId, firstVersion));
+		assertEquals(Collections.emptySet(), tableRowTruthDao.getTableRowChangeFileHandleIds(tableId, secondVersion));
+		
+		// Adding the same ids again is a no-op
+		tableRowTruthDao.addTableRowChangeFileHandleIds(tableId, firstVersion, fileHandleIds);
+		
+		assertEquals(fileHandleIds, tableRowTruthDao.getTableRowChangeFileHandleIds(tableId, firstVersion));
+		
+		results = tableRowTruthDao.getTableRowChangeWithUnindexedFileRefsPage(tableRowTruthDao.getTableRowChangeIdRange(), lastId, limit);
+		
+		assertEquals(1, results.size());
+		assertEquals(Long.valueOf(secondVersion), results.get(0).getRowVersion());
+	}
+	
+	@Test
+	public void testGetTableRowChangeWithUnindexedFileRefsPageAfterLastId() throws IOException {
+		long limit = 1L;
+		
+		List<ColumnModel> columns = TableModelTestUtils.createOneOfEachType();
+		
+		RawRowSet set = new RawRowSet(TableModelUtils.getIds(columns), null, tableId, TableModelTestUtils.createRows(columns, 5));
+		
+		long firstVersion = appendRowSetToTable(creatorUserGroupId, tableId, columns, set);
+		
+		set = new RawRowSet(set.getIds(), set.getEtag(), set.getTableId(), TableModelTestUtils.createRows(columns, 2));
+		
+		long secondVersion = appendRowSetToTable(creatorUserGroupId, tableId, columns, set);
+		
+		// Call under test
+		List<TableRowChange> results = tableRowTruthDao.getTableRowChangeWithUnindexedFileRefsPage(tableRowTruthDao.getTableRowChangeIdRange(), -1L, limit);
+		
+		assertEquals(1, results.size());
+		assertEquals(Long.valueOf(firstVersion), results.get(0).getRowVersion());
+		
+		// Indexing the change while paging does not skip the next change
+		tableRowTruthDao.addTableRowChangeFileHandleIds(tableId, firstVersion, Collections.emptySet());
+		
+		// Call under test
+		results = tableRowTruthDao.getTableRowChangeWithUnindexedFileRefsPage(tableRowTruthDao.getTableRowChangeIdRange(), results.get(0).getId(), limit);
+		
+		assertEquals(1, results.size());
+		assertEquals(Long.valueOf(secondVersion), results.get(0).getRowVersion());
+		
+		// Call under test
+		results = tableRowTruthDao.getTableRowChangeWithUnindexedFileRefsPage(tableRowTruthDao.getTableRowChangeIdRange(), results.get(0).getId(), limit);
+		
+		assertEquals(Collections.emptyList(), results);
+	}
+	
+	@Test
+	public void testAddTableRowChangeFileHandleIdsWithEmptySet() throws IOException {
+		long limit = 10L;
+		long lastId = -1L;
+		
+		List<ColumnModel> columns = TableModelTestUtils.createOneOfEachType();
+		
+		RawRowSet set = new RawRowSet(TableModelUtils.getIds(columns), null, tableId, TableModelTestUtils.createRows(columns, 5));
+		
+		long version = appendRowSetToTable(creatorUserGroupId, tableId, columns, set);
+		
+		// Call under test
+		tableRowTruthDao.addTableRowChangeFileHandleIds(tableId, version, Collections.emptySet());
+		
+		// The change is marked as indexed without exposing the marker
+		assertEquals(Collections.emptySet(), tableRowTruthDao.getTableRowChangeFileHandleIds(tableId, version));
+		assertEquals(Collections.emptyList(), tableRowTruthDao.getTableRowChangeWithUnindexedFileRefsPage(tableRowTruthDao.getTableRowChangeIdRange(), lastId, limit));
+		
+		// Adding the marker again is a no-op
+		tableRowTruthDao.addTableRowChangeFileHandleIds(tableId, version, Collections.emptySet());
+		
+		assertEquals(Collections.emptySet(), tableRowTruthDao.getTableRowChangeFileHandleIds(tableId, version));
+	}
 }
@@ -359,6 +359,24 @@ public class MultipartUploadDAOImplTest {
 		String partsState = multipartUplaodDAO.getPartsState(uploadId, numberOfParts);
 		assertEquals("10000000100", partsState);
 	}
+
+	@Test
+	public void testAddPartsToUpload() {
+		CompositeMultipartUploadStatus status = multipartUplaodDAO.createUploadStatus(createRequest);
+		String uploadId = status.getMultipartUploadStatus().getUploadId();
+		String etag = status.getMultipartUploadStatus().getEtag();
+		multipartUplaodDAO.setPartToFailed(uploadId, 2, "some kind of error");
+		// Call under test
+		multipartUplaodDAO.addPartsToUpload(uploadId, Arrays.asList(new PartMD5(1, "partOneMD5Hex"), new PartMD5(2, "partTwoMD5Hex")));
+		// Adding the same part again updates the MD5
+		multipartUplaodDAO.addPartsToUpload(uploadId, Arrays.asList(new PartMD5(1, "partOneUpdatedMD5Hex")));
+
+		List<PartMD5> partMD5s = multipartUplaodDAO.getAddedPartMD5s(uploadId);
+		assertEquals(Arrays.asList(new PartMD5(1, "partOneUpdatedMD5Hex"), new PartMD5(2, "partTwoMD5Hex")), partMD5s);
+		assertTrue(multipartUplaodDAO.getPartErrors(uploadId).isEmpty());
+		assertEquals("11000000000", multipartUplaodDAO.getPartsState(uploadId, numberOfParts));
+		assertNotEquals(etag, multipartUplaodDAO.getUploadStatus(uploadId, false).getMultipartUploadStatus().getEtag());
+	}
 	
 	@Test
 	public void updateUploadStatusHash() throws InterruptedException {
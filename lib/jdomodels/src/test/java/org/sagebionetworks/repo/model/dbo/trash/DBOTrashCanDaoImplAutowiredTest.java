@@ -453,6 +453,74 @@ public class DBOTrashCanDaoImplAutowiredTest {
 		
 	}
 	
+	@Test
+	public void testAclCleanupRoundTrip() {
+		Node project = nodeDaoHelper.create(n -> {});
+		Node folder = nodeDaoHelper.create(n -> n.setParentId(project.getId()).setNodeType(EntityType.folder));
+		Long folderId = KeyFactory.stringToKey(folder.getId());
+
+		assertFalse(trashCanDao.getAclCleanup(folderId).isPresent());
+
+		// Call under test
+		trashCanDao.createAclCleanup(folderId);
+
+		DBOTrashAclCleanup cleanup = trashCanDao.getAclCleanup(folderId).get();
+		assertEquals(folderId, cleanup.getNodeId());
+		assertEquals(-1L, cleanup.getLastParentId());
+		assertNotNull(cleanup.getCreatedOn());
+
+		// Call under test
+		trashCanDao.updateAclCleanupCheckpoint(folderId, 123L);
+
+		cleanup = trashCanDao.getAclCleanup(folderId).get();
+		assertEquals(123L, cleanup.getLastParentId());
+
+		// Trashing the node again restarts the cleanup from the node itself
+		trashCanDao.createAclCleanup(folderId);
+
+		cleanup = trashCanDao.getAclCleanup(folderId).get();
+		assertEquals(-1L, cleanup.getLastParentId());
+
+		// Call under test
+		trashCanDao.deleteAclCleanup(folderId);
+
+		assertFalse(trashCanDao.getAclCleanup(folderId).isPresent());
+	}
+
+	@Test
+	public void testGetAclCleanupNodeIds() {
+		Node project = nodeDaoHelper.create(n -> {});
+		Node one = nodeDaoHelper.create(n -> n.setParentId(project.getId()).setNodeType(EntityType.folder));
+		Node two = nodeDaoHelper.create(n -> n.setParentId(project.getId()).setNodeType(EntityType.folder));
+		Long oneId = KeyFactory.stringToKey(one.getId());
+		Long twoId = KeyFactory.stringToKey(two.getId());
+
+		trashCanDao.createAclCleanup(oneId);
+		trashCanDao.createAclCleanup(twoId);
+
+		// Call under test
+		List<Long> ids = trashCanDao.getAclCleanupNodeIds(10);
+
+		assertEquals(2, ids.size());
+		assertTrue(ids.containsAll(List.of(oneId, twoId)));
+		assertEquals(1, trashCanDao.getAclCleanupNodeIds(1).size());
+		assertEquals(Collections.emptyList(), trashCanDao.getAclCleanupNodeIds(0));
+	}
+
+	@Test
+	public void testAclCleanupDeletedWithNode() {
+		Node project = nodeDaoHelper.create(n -> {});
+		Node folder = nodeDaoHelper.create(n -> n.setParentId(project.getId()).setNodeType(EntityType.folder));
+		Long folderId = KeyFactory.stringToKey(folder.getId());
+
+		trashCanDao.createAclCleanup(folderId);
+
+		// Call under test
+		nodeDaoHelper.truncateAll();
+
+		assertFalse(trashCanDao.getAclCleanup(folderId).isPresent());
+	}
+
 	//time in milliseconds of numDays ago
 	private static Timestamp timeDaysAgo(int numDays){
 		return new Timestamp((System.currentTimeMillis() - numDays * 24 * 60 * 60 * 1000)/1000*1000);
@@ -11,6 +11,7 @@ import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.V2_TABLE_WIK
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -33,6 +34,7 @@ import org.sagebionetworks.repo.model.dbo.dao.TestUtils;
 import org.sagebionetworks.repo.model.dbo.file.FileHandleDao;
 import org.sagebionetworks.repo.model.file.FileHandle;
 import org.sagebionetworks.repo.model.file.S3FileHandle;
+import org.sagebionetworks.repo.model.jdo.KeyFactory;
 import org.sagebionetworks.repo.model.v2.dao.V2WikiPageDao;
 import org.sagebionetworks.repo.model.v2.wiki.V2WikiHeader;
 import org.sagebionetworks.repo.model.v2.wiki.V2WikiHistorySnapshot;
@@ -1063,6 +1065,59 @@ public class V2DBOWikiPageDaoImplAutowiredTest {
 	}
 
 	// Just create versions with modified page title
+	@Test
+	public void testGetCurrentWikiContentForOwners() throws NotFoundException{
+		ObjectType ownerType = ObjectType.ENTITY;
+		String ownerOne = "syn2225";
+		V2WikiPage root = new V2WikiPage();
+		root.setTitle("Root");
+		root.setCreatedBy(creatorUserGroupId);
+		root.setModifiedBy(creatorUserGroupId);
+		root.setMarkdownFileHandleId(markdownOne.getId());
+		root = wikiPageDao.create(root, new HashMap<String, FileHandle>(), ownerOne, ownerType, new ArrayList<String>());
+		toDelete.add(WikiPageKeyHelper.createWikiPageKey(ownerOne, ownerType, root.getId()));
+		// Add children in reverse alphabetical order.
+		for(int i=2; i>-1; i--){
+			V2WikiPage child = new V2WikiPage();
+			child.setTitle("A"+i);
+			child.setCreatedBy(creatorUserGroupId);
+			child.setModifiedBy(creatorUserGroupId);
+			child.setParentWikiId(root.getId());
+			child.setMarkdownFileHandleId(markdownTwo.getId());
+			wikiPageDao.create(child, new HashMap<String, FileHandle>(), ownerOne, ownerType, new ArrayList<String>());
+		}
+		String ownerTwo = "syn2226";
+		V2WikiPage otherRoot = new V2WikiPage();
+		otherRoot.setTitle("Other");
+		otherRoot.setCreatedBy(creatorUserGroupId);
+		otherRoot.setModifiedBy(creatorUserGroupId);
+		otherRoot.setMarkdownFileHandleId(markdownTwo.getId());
+		otherRoot = wikiPageDao.create(otherRoot, new HashMap<String, FileHandle>(), ownerTwo, ownerType, new ArrayList<String>());
+		toDelete.add(WikiPageKeyHelper.createWikiPageKey(ownerTwo, ownerType, otherRoot.getId()));
+		Long ownerOneId = KeyFactory.stringToKey(ownerOne);
+		Long ownerTwoId = KeyFactory.stringToKey(ownerTwo);
+		Long ownerWithoutWiki = 2227L;
+		
+		long limit = 3L;
+		// call under test
+		Map<Long, List<V2WikiMarkdownVersion>> results = wikiPageDao.getCurrentWikiContentForOwners(Arrays.asList(ownerOneId, ownerTwoId, ownerWithoutWiki), ownerType, limit);
+		assertEquals(2, results.size());
+		// Same order as the header tree
+		List<V2WikiHeader> headers = wikiPageDao.getHeaderTree(ownerOne, ownerType, limit, 0L);
+		List<V2WikiMarkdownVersion> ownerOnePages = results.get(ownerOneId);
+		assertEquals(headers.size(), ownerOnePages.size());
+		for(int i=0; i<headers.size(); i++){
+			assertEquals(headers.get(i).getTitle(), ownerOnePages.get(i).getTitle());
+		}
+		assertEquals(markdownOne.getId(), ownerOnePages.get(0).getMarkdownFileHandleId());
+		assertEquals(markdownTwo.getId(), ownerOnePages.get(1).getMarkdownFileHandleId());
+		List<V2WikiMarkdownVersion> ownerTwoPages = results.get(ownerTwoId);
+		assertEquals(1, ownerTwoPages.size());
+		assertEquals("Other", ownerTwoPages.get(0).getTitle());
+		assertEquals(markdownTwo.getId(), ownerTwoPages.get(0).getMarkdownFileHandleId());
+		assertTrue(wikiPageDao.getCurrentWikiContentForOwners(Collections.emptyList(), ownerType, limit).isEmpty());
+	}
+	
 	private V2WikiPage createVersions(V2WikiPage page, String ownerId, ObjectType ownerType, int numVersions) {
 		Map<String, FileHandle> fileNameMap = new HashMap<String, FileHandle>();
 		List<String> fileIds = new ArrayList<String>();
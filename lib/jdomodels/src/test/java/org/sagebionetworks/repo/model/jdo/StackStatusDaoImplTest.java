@@ -63,5 +63,29 @@ public class StackStatusDaoImplTest {
 		current = stackStatusDao.getFullCurrentStatus();
 		assertEquals(starting, current);
 	}
+	
+	@Test
+	public void testGetCachedFullCurrentStatus(){
+		StackStatus starting = stackStatusDao.getFullCurrentStatus();
+		assertEquals(starting, stackStatusDao.getCachedFullCurrentStatus());
+		
+		StackStatus newStatus = new StackStatus();
+		newStatus.setStatus(StatusEnum.DOWN);
+		newStatus.setCurrentMessage("Down for a test");
+		
+		// The update is pushed to the cached status
+		stackStatusDao.updateStatus(newStatus);
+		
+		StackStatus cached = stackStatusDao.getCachedFullCurrentStatus();
+		assertEquals(newStatus, cached);
+		
+		// Changing the returned status does not change the cached status
+		cached.setStatus(StatusEnum.READ_WRITE);
+		assertEquals(newStatus, stackStatusDao.getCachedFullCurrentStatus());
+		
+		// Change it back
+		stackStatusDao.updateStatus(starting);
+		assertEquals(starting, stackStatusDao.getCachedFullCurrentStatus());
+	}
 
 }
@@ -0,0 +1,70 @@
+package org.sagebionetworks.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.sagebionetworks.util.ValidateArgument;
+
+/**
+ * Compares the scores of a benchmark run with a stored baseline. A benchmark regressed when its score got worse than the baseline by more
+ * than the tolerance: for throughput a lower score is worse, for the time based modes a higher score is worse. To ignore run to run noise
+ * the difference of the two scores must also exceed the sum of their score errors (the confidence interval half-widths reported by JMH),
+ * an error that JMH could not compute (NaN, too few iterations) counts as zero. Benchmarks that are not in the baseline are reported as
+ * new, benchmarks of the baseline that were not run are ignored.
+ */
+public class BaselineComparator {
+
+	private final double tolerance;
+
+	/**
+	 * @param tolerance The relative change that is tolerated before a benchmark is considered a regression (e.g. 0.1 for 10%)
+	 */
+	public BaselineComparator(double tolerance) {
+		ValidateArgument.requirement(tolerance >= 0, "The tolerance must be greater or equal to zero.");
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * @param baseline
+	 * @param current
+	 * @return One comparison for each score of the current run, in the same order
+	 */
+	public List<BenchmarkComparison> compare(List<BenchmarkScore> baseline, List<BenchmarkScore> current) {
+		ValidateArgument.required(baseline, "baseline");
+		ValidateArgument.required(current, "current");
+		Map<String, BenchmarkScore> baselineByKey = new HashMap<>(baseline.size());
+		for (BenchmarkScore score : baseline) {
+			baselineByKey.put(score.getKey(), score);
+		}
+		List<BenchmarkComparison> comparisons = new ArrayList<>(current.size());
+		for (BenchmarkScore score : current) {
+			comparisons.add(compare(baselineByKey.get(score.getKey()), score));
+		}
+		return comparisons;
+	}
+
+	BenchmarkComparison compare(BenchmarkScore baseline, BenchmarkScore current) {
+		if (baseline == null) {
+			return new BenchmarkComparison(null, current, null, false);
+		}
+		if (!Objects.equals(baseline.getMode(), current.getMode()) || !Objects.equals(baseline.getUnit(), current.getUnit())
+				|| baseline.getScore() <= 0) {
+			return new BenchmarkComparison(baseline, current, null, false);
+		}
+		double change = (current.getScore() - baseline.getScore()) / baseline.getScore();
+		if (current.isHigherBetter()) {
+			change = -change;
+		}
+		double combinedError = scoreError(baseline) + scoreError(current);
+		boolean significant = Math.abs(current.getScore() - baseline.getScore()) > combinedError;
+		return new BenchmarkComparison(baseline, current, change, change > tolerance && significant);
+	}
+
+	private static double scoreError(BenchmarkScore score) {
+		return Double.isNaN(score.getScoreError()) ? 0.0 : score.getScoreError();
+	}
+
+}
@@ -0,0 +1,84 @@
+package org.sagebionetworks.benchmark;
+
+import java.util.Objects;
+
+/**
+ * The comparison of the score of a benchmark with its score in the baseline.
+ */
+public class BenchmarkComparison {
+
+	private final BenchmarkScore baseline;
+	private final BenchmarkScore current;
+	private final Double change;
+	private final boolean regression;
+
+	/**
+	 * @param baseline   The score in the baseline, null if the benchmark is not in the baseline
+	 * @param current    The score of the current run
+	 * @param change     The relative change of the score, positive when the score got worse (e.g. 0.2 is 20% worse). Null when the scores
+	 *                   cannot be compared.
+	 * @param regression True if the score got worse by more than the tolerance
+	 */
+	public BenchmarkComparison(BenchmarkScore baseline, BenchmarkScore current, Double change, boolean regression) {
+		this.baseline = baseline;
+		this.current = current;
+		this.change = change;
+		this.regression = regression;
+	}
+
+	public BenchmarkScore getBaseline() {
+		return baseline;
+	}
+
+	public BenchmarkScore getCurrent() {
+		return current;
+	}
+
+	public Double getChange() {
+		return change;
+	}
+
+	public boolean isRegression() {
+		return regression;
+	}
+
+	/**
+	 * @return A single line description of the comparison
+	 */
+	public String describe() {
+		if (baseline == null) {
+			return String.format("NEW        %s: %.3f %s", current.getKey(), current.getScore(), current.getUnit());
+		}
+		if (change == null) {
+			return String.format("SKIPPED    %s: cannot compare %s %s with the baseline %s %s", current.getKey(), current.getMode(),
+					current.getUnit(), baseline.getMode(), baseline.getUnit());
+		}
+		return String.format("%-10s %s: %.3f -> %.3f %s (%+.1f%%)", regression ? "REGRESSION" : "OK", current.getKey(), baseline.getScore(),
+				current.getScore(), current.getUnit(), change * 100);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(baseline, change, current, regression);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof BenchmarkComparison)) {
+			return false;
+		}
+		BenchmarkComparison other = (BenchmarkComparison) obj;
+		return Objects.equals(baseline, other.baseline) && Objects.equals(change, other.change) && Objects.equals(current, other.current)
+				&& regression == other.regression;
+	}
+
+	@Override
+	public String toString() {
+		return "BenchmarkComparison [baseline=" + baseline + ", current=" + current + ", change=" + change + ", regression=" + regression
+				+ "]";
+	}
+
+}
@@ -0,0 +1,217 @@
+package org.sagebionetworks.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import org.sagebionetworks.repo.model.annotation.v2.Annotations;
+import org.sagebionetworks.repo.model.annotation.v2.AnnotationsValue;
+import org.sagebionetworks.repo.model.annotation.v2.AnnotationsValueType;
+import org.sagebionetworks.repo.model.dao.table.TableType;
+import org.sagebionetworks.repo.model.entity.IdAndVersion;
+import org.sagebionetworks.repo.model.table.ColumnModel;
+import org.sagebionetworks.repo.model.table.ColumnType;
+import org.sagebionetworks.table.cluster.SchemaProvider;
+import org.sagebionetworks.table.model.SparseChangeSet;
+import org.sagebionetworks.table.model.SparseRow;
+
+/**
+ * Realistic inputs shared by the benchmarks: wide table schemas covering the common column types, queries with complex WHERE clauses,
+ * large row sets and large annotation maps. All the fixtures are deterministic so that the results of two runs can be compared.
+ */
+public class BenchmarkFixtures {
+
+	public static final String TABLE_ID = "syn123";
+	public static final Long USER_ID = 1L;
+
+	/**
+	 * The column types used by the wide schemas, in order.
+	 */
+	public static final List<ColumnType> COLUMN_TYPES = Arrays.asList(ColumnType.STRING, ColumnType.INTEGER, ColumnType.DOUBLE,
+			ColumnType.DATE, ColumnType.BOOLEAN, ColumnType.ENTITYID, ColumnType.STRING_LIST, ColumnType.LARGETEXT);
+
+	private static final long FIRST_COLUMN_ID = 1000L;
+	private static final long FIRST_DATE = 1_600_000_000_000L;
+	private static final int MAX_WHERE_COLUMNS = 40;
+
+	/**
+	 * Create a schema with the given number of columns, cycling through the {@link #COLUMN_TYPES}.
+	 *
+	 * @param columnCount
+	 * @return
+	 */
+	public static List<ColumnModel> createWideSchema(int columnCount) {
+		List<ColumnModel> schema = new ArrayList<>(columnCount);
+		for (int i = 0; i < columnCount; i++) {
+			ColumnType type = COLUMN_TYPES.get(i % COLUMN_TYPES.size());
+			ColumnModel column = new ColumnModel();
+			column.setId(String.valueOf(FIRST_COLUMN_ID + i));
+			column.setName("col_" + i);
+			column.setColumnType(type);
+			if (ColumnType.STRING.equals(type) || ColumnType.STRING_LIST.equals(type)) {
+				column.setMaximumSize(50L);
+			}
+			if (ColumnType.STRING_LIST.equals(type)) {
+				column.setMaximumListLength(10L);
+			}
+			schema.add(column);
+		}
+		return schema;
+	}
+
+	/**
+	 * Create a query that selects all the columns of the given schema with a WHERE clause that combines a predicate for each of the first
+	 * columns (up to 40) with nested AND/OR, followed by an ORDER BY and pagination.
+	 *
+	 * @param schema
+	 * @return
+	 */
+	public static String createComplexQuery(List<ColumnModel> schema) {
+		StringJoiner select = new StringJoiner(", ");
+		schema.forEach(column -> select.add(column.getName()));
+		StringJoiner where = new StringJoiner(" AND ");
+		int whereColumns = Math.min(schema.size(), MAX_WHERE_COLUMNS);
+		for (int i = 0; i < whereColumns; i++) {
+			where.add(createPredicate(schema.get(i), i));
+		}
+		return "SELECT " + select + " FROM " + TABLE_ID + " WHERE " + where + " ORDER BY " + schema.get(0).getName() + " DESC, "
+				+ schema.get(1).getName() + " ASC LIMIT 100 OFFSET 50";
+	}
+
+	static String createPredicate(ColumnModel column, int index) {
+		String name = column.getName();
+		switch (column.getColumnType()) {
+		case STRING:
+			return "(" + name + " = 'value_" + index + "' OR " + name + " LIKE 'prefix_" + index + "%')";
+		case INTEGER:
+			return name + " BETWEEN " + index + " AND " + (index + 1000);
+		case DOUBLE:
+			return "(" + name + " > " + index + ".5 OR " + name + " IS NULL)";
+		case DATE:
+			return name + " >= " + (FIRST_DATE + index);
+		case BOOLEAN:
+			return name + " = true";
+		case ENTITYID:
+			return name + " IN ('syn" + index + "', 'syn" + (index + 1) + "', 'syn" + (index + 2) + "')";
+		case STRING_LIST:
+			return name + " HAS ('a', 'b', 'c')";
+		default:
+			return name + " IS NOT NULL";
+		}
+	}
+
+	/**
+	 * Create a change set with the given number of rows, with a value for each column of the schema in every row.
+	 *
+	 * @param schema
+	 * @param rowCount
+	 * @return
+	 */
+	public static SparseChangeSet createChangeSet(List<ColumnModel> schema, int rowCount) {
+		SparseChangeSet changeSet = new SparseChangeSet(TABLE_ID, schema, "etag");
+		for (int rowId = 0; rowId < rowCount; rowId++) {
+			SparseRow row = changeSet.addEmptyRow();
+			row.setRowId((long) rowId);
+			row.setVersionNumber(1L);
+			for (ColumnModel column : schema) {
+				row.setCellValue(column.getId(), createCellValue(column.getColumnType(), rowId));
+			}
+		}
+		return changeSet;
+	}
+
+	static String createCellValue(ColumnType type, int rowId) {
+		switch (type) {
+		case STRING:
+			return "value_" + (rowId % 100);
+		case INTEGER:
+			return String.valueOf(rowId);
+		case DOUBLE:
+			// Include some abstract doubles since they are bound differently
+			return rowId % 97 == 0 ? "NaN" : String.valueOf(rowId * 1.5);
+		case DATE:
+			return String.valueOf(FIRST_DATE + rowId);
+		case BOOLEAN:
+			return String.valueOf(rowId % 2 == 0);
+		case ENTITYID:
+			return "syn" + rowId;
+		case STRING_LIST:
+			return "[\"a\", \"b_" + (rowId % 10) + "\", \"c\"]";
+		default:
+			return "Some longer text for row " + rowId + " that is stored in a large text column of the table.";
+		}
+	}
+
+	/**
+	 * Create annotations with the given number of keys, cycling through the annotation types. Every fifth annotation has multiple values.
+	 *
+	 * @param count
+	 * @return
+	 */
+	public static Annotations createAnnotations(int count) {
+		AnnotationsValueType[] types = AnnotationsValueType.values();
+		Map<String, AnnotationsValue> map = new LinkedHashMap<>(count);
+		for (int i = 0; i < count; i++) {
+			AnnotationsValueType type = types[i % types.length];
+			int valueCount = i % 5 == 0 ? 10 : 1;
+			List<String> values = new ArrayList<>(valueCount);
+			for (int v = 0; v < valueCount; v++) {
+				values.add(createAnnotationValue(type, i + v));
+			}
+			AnnotationsValue value = new AnnotationsValue();
+			value.setType(type);
+			value.setValue(values);
+			map.put("annotation_" + i, value);
+		}
+		Annotations annotations = new Annotations();
+		annotations.setId(TABLE_ID);
+		annotations.setEtag("etag");
+		annotations.setAnnotations(map);
+		return annotations;
+	}
+
+	static String createAnnotationValue(AnnotationsValueType type, int index) {
+		switch (type) {
+		case DOUBLE:
+			return String.valueOf(index * 1.5);
+		case LONG:
+			return String.valueOf(index);
+		case TIMESTAMP_MS:
+			return String.valueOf(FIRST_DATE + index);
+		case BOOLEAN:
+			return String.valueOf(index % 2 == 0);
+		default:
+			return "value_" + index;
+		}
+	}
+
+	/**
+	 * @param schema
+	 * @return A schema provider for a single table with the given schema
+	 */
+	public static SchemaProvider createSchemaProvider(List<ColumnModel> schema) {
+		Map<String, ColumnModel> columnsById = new LinkedHashMap<>(schema.size());
+		schema.forEach(column -> columnsById.put(column.getId(), column));
+		return new SchemaProvider() {
+
+			@Override
+			public TableType getTableType(IdAndVersion tableId) {
+				return TableType.table;
+			}
+
+			@Override
+			public List<ColumnModel> getTableSchema(IdAndVersion tableId) {
+				return schema;
+			}
+
+			@Override
+			public ColumnModel getColumnModel(String id) {
+				return columnsById.get(id);
+			}
+		};
+	}
+
+}
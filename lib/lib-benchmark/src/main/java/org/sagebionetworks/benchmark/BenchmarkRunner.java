@@ -0,0 +1,115 @@
+package org.sagebionetworks.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks of this module, writes the results as JSON and compares them with the stored baseline. Exits with a non-zero
+ * status if any benchmark regressed by more than the tolerance. Used by the benchmark profile of this module, see the pom.xml.
+ * <p>
+ * Arguments (all optional):
+ * <ul>
+ * <li>--include: A regular expression of the benchmarks to run, defaults to all of them</li>
+ * <li>--result: The JSON result file, defaults to target/jmh-result.json</li>
+ * <li>--baseline: The JSON baseline file, when given the file must exist unless the baseline is updated</li>
+ * <li>--tolerance: The tolerated relative change, defaults to 0.10</li>
+ * <li>--updateBaseline: When true the baseline is replaced with the results of the run instead of being compared</li>
+ * </ul>
+ */
+public class BenchmarkRunner {
+
+	public static final String DEFAULT_INCLUDE = ".*";
+	public static final String DEFAULT_RESULT = "target/jmh-result.json";
+	public static final double DEFAULT_TOLERANCE = 0.10;
+
+	public static void main(String[] args) throws RunnerException, IOException {
+		Map<String, String> arguments = parseArguments(args);
+
+		String include = arguments.getOrDefault("include", DEFAULT_INCLUDE);
+		File resultFile = new File(arguments.getOrDefault("result", DEFAULT_RESULT));
+		String baselinePath = arguments.get("baseline");
+		double tolerance = Double.parseDouble(arguments.getOrDefault("tolerance", String.valueOf(DEFAULT_TOLERANCE)));
+		boolean updateBaseline = Boolean.parseBoolean(arguments.get("updateBaseline"));
+
+		// Fails before running the benchmarks, a run without a baseline would not detect any regression
+		if (baselinePath != null && !updateBaseline && !new File(baselinePath).exists()) {
+			System.err.println("The baseline " + new File(baselinePath).getAbsolutePath()
+					+ " does not exist, run with -Dbenchmark.updateBaseline=true to create it.");
+			System.exit(1);
+		}
+
+		if (resultFile.getParentFile() != null) {
+			resultFile.getParentFile().mkdirs();
+		}
+
+		Options options = new OptionsBuilder()
+				.include(include)
+				.resultFormat(ResultFormatType.JSON)
+				.result(resultFile.getAbsolutePath())
+				.build();
+
+		new Runner(options).run();
+
+		if (baselinePath == null) {
+			System.out.println("No baseline given, the results were written to: " + resultFile.getAbsolutePath());
+			return;
+		}
+
+		File baselineFile = new File(baselinePath);
+
+		if (updateBaseline) {
+			if (baselineFile.getParentFile() != null) {
+				baselineFile.getParentFile().mkdirs();
+			}
+			Files.copy(resultFile.toPath(), baselineFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			System.out.println("The baseline was updated: " + baselineFile.getAbsolutePath());
+			return;
+		}
+
+		List<BenchmarkComparison> comparisons = new BaselineComparator(tolerance).compare(BenchmarkScore.readScores(baselineFile),
+				BenchmarkScore.readScores(resultFile));
+
+		System.out.println("Comparison with the baseline " + baselineFile.getAbsolutePath() + " (tolerance: " + tolerance + "):");
+		comparisons.forEach(comparison -> System.out.println(comparison.describe()));
+
+		List<BenchmarkComparison> regressions = comparisons.stream().filter(BenchmarkComparison::isRegression).collect(Collectors.toList());
+
+		if (!regressions.isEmpty()) {
+			System.err.println(regressions.size() + " benchmark(s) regressed by more than " + (tolerance * 100) + "%");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Parse arguments of the form: --name value
+	 *
+	 * @param args
+	 * @return
+	 */
+	static Map<String, String> parseArguments(String[] args) {
+		Map<String, String> arguments = new HashMap<>();
+		for (int i = 0; i < args.length; i++) {
+			if (!args[i].startsWith("--")) {
+				throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+			}
+			if (i + 1 >= args.length) {
+				throw new IllegalArgumentException("Missing value for argument: " + args[i]);
+			}
+			arguments.put(args[i].substring(2), args[++i]);
+		}
+		return arguments;
+	}
+
+}
@@ -0,0 +1,155 @@
+package org.sagebionetworks.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.sagebionetworks.util.ValidateArgument;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The primary score of a single benchmark (with a given set of parameters), as written by JMH in its JSON result format.
+ */
+public class BenchmarkScore {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final String benchmark;
+	private final String mode;
+	private final Map<String, String> params;
+	private final double score;
+	private final double scoreError;
+	private final String unit;
+
+	public BenchmarkScore(String benchmark, String mode, Map<String, String> params, double score, double scoreError, String unit) {
+		ValidateArgument.required(benchmark, "benchmark");
+		ValidateArgument.required(mode, "mode");
+		this.benchmark = benchmark;
+		this.mode = mode;
+		this.params = params == null ? new TreeMap<>() : new TreeMap<>(params);
+		this.score = score;
+		this.scoreError = scoreError;
+		this.unit = unit;
+	}
+
+	/**
+	 * Read the scores from a JMH JSON result file.
+	 *
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public static List<BenchmarkScore> readScores(File file) throws IOException {
+		ValidateArgument.required(file, "file");
+		return parseScores(MAPPER.readTree(file));
+	}
+
+	/**
+	 * Parse the scores from a JMH JSON result.
+	 *
+	 * @param json
+	 * @return
+	 * @throws IOException
+	 */
+	public static List<BenchmarkScore> readScores(String json) throws IOException {
+		ValidateArgument.required(json, "json");
+		return parseScores(MAPPER.readTree(json));
+	}
+
+	static List<BenchmarkScore> parseScores(JsonNode root) {
+		ValidateArgument.requirement(root != null && root.isArray(), "Expected a JSON array of JMH results");
+		List<BenchmarkScore> scores = new ArrayList<>(root.size());
+		for (JsonNode result : root) {
+			Map<String, String> params = new TreeMap<>();
+			JsonNode paramsNode = result.get("params");
+			if (paramsNode != null) {
+				Iterator<Entry<String, JsonNode>> fields = paramsNode.fields();
+				while (fields.hasNext()) {
+					Entry<String, JsonNode> field = fields.next();
+					params.put(field.getKey(), field.getValue().asText());
+				}
+			}
+			JsonNode primaryMetric = result.get("primaryMetric");
+			ValidateArgument.requirement(primaryMetric != null, "Missing primaryMetric for " + result.path("benchmark").asText());
+			scores.add(new BenchmarkScore(result.path("benchmark").asText(), result.path("mode").asText(), params,
+					primaryMetric.path("score").asDouble(), primaryMetric.path("scoreError").asDouble(Double.NaN),
+					primaryMetric.path("scoreUnit").asText()));
+		}
+		return scores;
+	}
+
+	/**
+	 * @return A key that identifies the benchmark and its parameters, used to match the scores of two runs
+	 */
+	public String getKey() {
+		if (params.isEmpty()) {
+			return benchmark;
+		}
+		return benchmark + params;
+	}
+
+	/**
+	 * @return True if a higher score is better (throughput), false if a lower score is better (average time, sample time, single shot)
+	 */
+	public boolean isHigherBetter() {
+		return "thrpt".equals(mode);
+	}
+
+	public String getBenchmark() {
+		return benchmark;
+	}
+
+	public String getMode() {
+		return mode;
+	}
+
+	public Map<String, String> getParams() {
+		return params;
+	}
+
+	public double getScore() {
+		return score;
+	}
+
+	public double getScoreError() {
+		return scoreError;
+	}
+
+	public String getUnit() {
+		return unit;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(benchmark, mode, params, score, scoreError, unit);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof BenchmarkScore)) {
+			return false;
+		}
+		BenchmarkScore other = (BenchmarkScore) obj;
+		return Objects.equals(benchmark, other.benchmark) && Objects.equals(mode, other.mode) && Objects.equals(params, other.params)
+				&& Double.doubleToLongBits(score) == Double.doubleToLongBits(other.score)
+				&& Double.doubleToLongBits(scoreError) == Double.doubleToLongBits(other.scoreError) && Objects.equals(unit, other.unit);
+	}
+
+	@Override
+	public String toString() {
+		return "BenchmarkScore [benchmark=" + benchmark + ", mode=" + mode + ", params=" + params + ", score=" + score + ", scoreError="
+				+ scoreError + ", unit=" + unit + "]";
+	}
+
+}
@@ -0,0 +1,53 @@
+package org.sagebionetworks.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sagebionetworks.repo.model.annotation.v2.Annotations;
+import org.sagebionetworks.schema.adapter.JSONObjectAdapterException;
+import org.sagebionetworks.schema.adapter.org.json.EntityFactory;
+
+/**
+ * JSONEntity serialization through the EntityFactory, used for every request and response body, for annotations of increasing size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JSONEntityBenchmark {
+
+	@Param({ "10", "500" })
+	private int annotationCount;
+
+	private Annotations annotations;
+	private String json;
+
+	@Setup
+	public void setup() throws JSONObjectAdapterException {
+		annotations = BenchmarkFixtures.createAnnotations(annotationCount);
+		json = EntityFactory.createJSONStringForEntity(annotations);
+	}
+
+	@Benchmark
+	public String serialize() throws JSONObjectAdapterException {
+		return EntityFactory.createJSONStringForEntity(annotations);
+	}
+
+	@Benchmark
+	public Annotations deserialize() throws JSONObjectAdapterException {
+		return EntityFactory.createEntityFromJSONString(json, Annotations.class);
+	}
+
+}
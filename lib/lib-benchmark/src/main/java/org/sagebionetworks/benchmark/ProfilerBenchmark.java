@@ -0,0 +1,150 @@
+package org.sagebionetworks.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sagebionetworks.profiler.Frame;
+import org.sagebionetworks.profiler.ProfileHandler;
+import org.sagebionetworks.profiler.Profiler;
+import org.sagebionetworks.profiler.ProfilerFrameStackManager;
+import org.sagebionetworks.profiler.SamplingProfiler;
+import org.sagebionetworks.profiler.SamplingProfiler.SamplingMode;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+/**
+ * Measures the overhead of the profiler aspect on a request that makes many nested calls to a DAO, as the hot DAO methods do. The calls go
+ * through Spring AOP proxies advised by the actual {@link Profiler} aspect configured with:
+ * <ul>
+ * <li>direct: no proxy at all</li>
+ * <li>aspectOff: the aspect with no handler capturing data (the calls only pay for the proxy)</li>
+ * <li>frameStack: the aspect with a frame stack handler that captures every call</li>
+ * <li>request-rate/call-rate: the aspect with the {@link SamplingProfiler} sampling the given fraction of the requests or calls</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProfilerBenchmark {
+
+	@Param({ "direct", "aspectOff", "frameStack", "request-0.01", "request-1.0", "call-0.01", "call-1.0" })
+	private String configuration;
+
+	@Param({ "100" })
+	private int callsPerRequest;
+
+	private RequestHandler handler;
+
+	/**
+	 * The root of a request.
+	 */
+	public interface RequestHandler {
+		long handle(int calls);
+	}
+
+	/**
+	 * A cheap DAO method called many times per request.
+	 */
+	public interface Dao {
+		long get(long id);
+	}
+
+	public static class DaoImpl implements Dao {
+		@Override
+		public long get(long id) {
+			return id * 31;
+		}
+	}
+
+	public static class RequestHandlerImpl implements RequestHandler {
+
+		private final Dao dao;
+
+		public RequestHandlerImpl(Dao dao) {
+			this.dao = dao;
+		}
+
+		@Override
+		public long handle(int calls) {
+			long result = 0;
+			for (int i = 0; i < calls; i++) {
+				result += dao.get(i);
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * A handler that captures every profile and discards it, so that only the cost of building the frames is measured.
+	 */
+	public static class CapturingProfileHandler implements ProfileHandler {
+
+		@Override
+		public boolean shouldCaptureProfile() {
+			return true;
+		}
+
+		@Override
+		public void fireProfile(Frame data) {
+		}
+	}
+
+	@Setup
+	public void setup() {
+		if ("direct".equals(configuration)) {
+			handler = new RequestHandlerImpl(new DaoImpl());
+			return;
+		}
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		AutowiredAnnotationBeanPostProcessor autowiredProcessor = new AutowiredAnnotationBeanPostProcessor();
+		autowiredProcessor.setBeanFactory(beanFactory);
+		beanFactory.addBeanPostProcessor(autowiredProcessor);
+
+		ProfilerFrameStackManager frameStackManager = new ProfilerFrameStackManager();
+		frameStackManager.setHandlers(
+				"frameStack".equals(configuration) ? Collections.singletonList(new CapturingProfileHandler()) : Collections.emptyList());
+		beanFactory.registerSingleton("frameStackManager", frameStackManager);
+
+		if (configuration.startsWith("request-") || configuration.startsWith("call-")) {
+			String[] parts = configuration.split("-");
+			SamplingMode mode = SamplingMode.valueOf(parts[0].toUpperCase());
+			beanFactory.registerSingleton("samplingProfiler", new SamplingProfiler("Benchmark", mode, Double.parseDouble(parts[1])));
+		}
+
+		Profiler profiler = new Profiler();
+		beanFactory.autowireBean(profiler);
+
+		Dao dao = createProxy(new DaoImpl(), profiler);
+		handler = createProxy(new RequestHandlerImpl(dao), profiler);
+	}
+
+	@SuppressWarnings("unchecked")
+	static <T> T createProxy(T target, Profiler profiler) {
+		AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+		proxyFactory.addAspect(profiler);
+		return (T) proxyFactory.getProxy();
+	}
+
+	@Benchmark
+	public long request() {
+		return handler.handle(callsPerRequest);
+	}
+
+}
@@ -0,0 +1,74 @@
+package org.sagebionetworks.benchmark;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sagebionetworks.repo.model.entity.IdAndVersion;
+import org.sagebionetworks.repo.model.table.ColumnModel;
+import org.sagebionetworks.table.cluster.ColumnChangeDetails;
+import org.sagebionetworks.table.cluster.SQLUtils;
+import org.sagebionetworks.table.model.Grouping;
+import org.sagebionetworks.table.model.SparseChangeSet;
+
+/**
+ * The DDL generated when the schema of a wide table is created, and the insert statement and parameter binding used to apply a large
+ * change set to the table index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SQLUtilsBenchmark {
+
+	@Param({ "20", "200" })
+	private int columnCount;
+
+	@Param({ "1000" })
+	private int rowCount;
+
+	private IdAndVersion tableId;
+	private List<ColumnModel> schema;
+	private List<ColumnChangeDetails> changes;
+	private SparseChangeSet changeSet;
+
+	@Setup
+	public void setup() {
+		tableId = IdAndVersion.parse(BenchmarkFixtures.TABLE_ID);
+		schema = BenchmarkFixtures.createWideSchema(columnCount);
+		changes = SQLUtils.createReplaceSchemaChangeIds(Collections.emptyList(), schema);
+		changeSet = BenchmarkFixtures.createChangeSet(schema, rowCount);
+	}
+
+	@Benchmark
+	public String[] createAlterTableSql() {
+		return SQLUtils.createAlterTableSql(changes, tableId, false);
+	}
+
+	@Benchmark
+	public String buildCreateOrUpdateRowSQL() {
+		return SQLUtils.buildCreateOrUpdateRowSQL(schema, tableId);
+	}
+
+	@Benchmark
+	public void bindParametersForCreateOrUpdate(Blackhole blackhole) {
+		for (Grouping grouping : changeSet.groupByValidValues()) {
+			blackhole.consume(SQLUtils.bindParametersForCreateOrUpdate(grouping));
+		}
+	}
+
+}
@@ -0,0 +1,84 @@
+package org.sagebionetworks.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sagebionetworks.repo.model.semaphore.ConcurrentMemoryCountingSemaphoreImpl;
+import org.sagebionetworks.repo.model.semaphore.ConcurrentMemoryTimeBlockCountingSemaphoreImpl;
+import org.sagebionetworks.repo.model.semaphore.MemoryCountingSemaphore;
+import org.sagebionetworks.repo.model.semaphore.MemoryCountingSemaphoreImpl;
+import org.sagebionetworks.repo.model.semaphore.MemoryTimeBlockCountingSemaphore;
+import org.sagebionetworks.repo.model.semaphore.MemoryTimeBlockCountingSemaphoreImpl;
+import org.sagebionetworks.util.DefaultClock;
+
+/**
+ * Compares the synchronized in-memory throttle semaphores with their concurrent implementations under contention, with all the threads
+ * using either a single key (e.g. a single user) or spread over many keys.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SemaphoreBenchmark {
+
+	private static final long TIMEOUT_SEC = 60;
+	private static final int MAX_LOCK_COUNT = 1000;
+
+	@Param({ "synchronized", "concurrent" })
+	private String implementation;
+
+	@Param({ "1", "100" })
+	private int keyCount;
+
+	private String[] keys;
+	private MemoryCountingSemaphore countingSemaphore;
+	private MemoryTimeBlockCountingSemaphore timeBlockSemaphore;
+
+	@Setup
+	public void setup() {
+		keys = new String[keyCount];
+		for (int i = 0; i < keyCount; i++) {
+			keys[i] = "user_" + i;
+		}
+		if ("concurrent".equals(implementation)) {
+			countingSemaphore = new ConcurrentMemoryCountingSemaphoreImpl(new DefaultClock());
+			timeBlockSemaphore = new ConcurrentMemoryTimeBlockCountingSemaphoreImpl(new DefaultClock());
+		} else {
+			countingSemaphore = new MemoryCountingSemaphoreImpl(new DefaultClock());
+			timeBlockSemaphore = new MemoryTimeBlockCountingSemaphoreImpl();
+		}
+	}
+
+	@Benchmark
+	public boolean countingAcquireAndRelease() {
+		String key = keys[ThreadLocalRandom.current().nextInt(keys.length)];
+		String token = countingSemaphore.attemptToAcquireLock(key, TIMEOUT_SEC, MAX_LOCK_COUNT);
+		if (token == null) {
+			return false;
+		}
+		countingSemaphore.releaseLock(key, token);
+		return true;
+	}
+
+	@Benchmark
+	public boolean timeBlockAcquire() {
+		String key = keys[ThreadLocalRandom.current().nextInt(keys.length)];
+		return timeBlockSemaphore.attemptToAcquireLock(key, 1, Long.MAX_VALUE);
+	}
+
+}
@@ -0,0 +1,73 @@
+package org.sagebionetworks.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sagebionetworks.repo.model.table.ColumnModel;
+import org.sagebionetworks.repo.model.table.SparseChangeSetDto;
+import org.sagebionetworks.schema.adapter.JSONObjectAdapterException;
+import org.sagebionetworks.schema.adapter.org.json.EntityFactory;
+import org.sagebionetworks.table.model.SparseChangeSet;
+
+/**
+ * Converting a large SparseChangeSet to and from its DTO, and the DTO to and from the JSON that is stored in S3 for each table change.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SparseChangeSetBenchmark {
+
+	@Param({ "50" })
+	private int columnCount;
+
+	@Param({ "100", "10000" })
+	private int rowCount;
+
+	private List<ColumnModel> schema;
+	private SparseChangeSet changeSet;
+	private SparseChangeSetDto dto;
+	private String json;
+
+	@Setup
+	public void setup() throws JSONObjectAdapterException {
+		schema = BenchmarkFixtures.createWideSchema(columnCount);
+		changeSet = BenchmarkFixtures.createChangeSet(schema, rowCount);
+		dto = changeSet.writeToDto();
+		json = EntityFactory.createJSONStringForEntity(dto);
+	}
+
+	@Benchmark
+	public SparseChangeSetDto writeToDto() {
+		return changeSet.writeToDto();
+	}
+
+	@Benchmark
+	public SparseChangeSet readFromDto() {
+		return new SparseChangeSet(dto, schema);
+	}
+
+	@Benchmark
+	public String serialize() throws JSONObjectAdapterException {
+		return EntityFactory.createJSONStringForEntity(dto);
+	}
+
+	@Benchmark
+	public SparseChangeSetDto deserialize() throws JSONObjectAdapterException {
+		return EntityFactory.createEntityFromJSONString(json, SparseChangeSetDto.class);
+	}
+
+}
@@ -0,0 +1,65 @@
+package org.sagebionetworks.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sagebionetworks.repo.model.entity.IdAndVersion;
+import org.sagebionetworks.repo.model.table.ColumnModel;
+import org.sagebionetworks.table.cluster.QueryTranslator;
+import org.sagebionetworks.table.cluster.SchemaProvider;
+import org.sagebionetworks.table.cluster.description.IndexDescription;
+import org.sagebionetworks.table.cluster.description.TableIndexDescription;
+import org.sagebionetworks.table.query.ParseException;
+import org.sagebionetworks.table.query.TableQueryParser;
+import org.sagebionetworks.table.query.model.QuerySpecification;
+
+/**
+ * Parsing a table query with the JavaCC TableQueryParser and translating it to the SQL run against the table index (through
+ * SQLTranslatorUtils), for a query that selects all the columns of a wide schema with a complex WHERE clause.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TableQueryBenchmark {
+
+	@Param({ "20", "200" })
+	private int columnCount;
+
+	private String sql;
+	private SchemaProvider schemaProvider;
+	private IndexDescription indexDescription;
+
+	@Setup
+	public void setup() {
+		List<ColumnModel> schema = BenchmarkFixtures.createWideSchema(columnCount);
+		sql = BenchmarkFixtures.createComplexQuery(schema);
+		schemaProvider = BenchmarkFixtures.createSchemaProvider(schema);
+		indexDescription = new TableIndexDescription(IdAndVersion.parse(BenchmarkFixtures.TABLE_ID));
+	}
+
+	@Benchmark
+	public QuerySpecification parse() throws ParseException {
+		return TableQueryParser.parserQuery(sql);
+	}
+
+	@Benchmark
+	public String translate() {
+		return QueryTranslator.builder(sql, schemaProvider, BenchmarkFixtures.USER_ID).indexDescription(indexDescription).build()
+				.getOutputSQL();
+	}
+
+}
@@ -0,0 +1,162 @@
+package org.sagebionetworks.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BaselineComparatorTest {
+
+	private BaselineComparator comparator;
+
+	@BeforeEach
+	public void before() {
+		comparator = new BaselineComparator(0.1);
+	}
+
+	@Test
+	public void testCompareWithAverageTimeWithinTolerance() {
+		BenchmarkScore baseline = averageTime("parse", 100.0);
+		BenchmarkScore current = averageTime("parse", 105.0);
+
+		// call under test
+		List<BenchmarkComparison> result = comparator.compare(List.of(baseline), List.of(current));
+
+		assertEquals(List.of(new BenchmarkComparison(baseline, current, 0.05, false)), result);
+	}
+
+	@Test
+	public void testCompareWithAverageTimeRegression() {
+		BenchmarkScore baseline = averageTime("parse", 100.0);
+		BenchmarkScore current = averageTime("parse", 125.0);
+
+		// call under test
+		List<BenchmarkComparison> result = comparator.compare(List.of(baseline), List.of(current));
+
+		assertEquals(List.of(new BenchmarkComparison(baseline, current, 0.25, true)), result);
+	}
+
+	@Test
+	public void testCompareWithAverageTimeImprovement() {
+		BenchmarkScore baseline = averageTime("parse", 100.0);
+		BenchmarkScore current = averageTime("parse", 50.0);
+
+		// call under test
+		List<BenchmarkComparison> result = comparator.compare(List.of(baseline), List.of(current));
+
+		assertEquals(List.of(new BenchmarkComparison(baseline, current, -0.5, false)), result);
+	}
+
+	@Test
+	public void testCompareWithThroughputRegression() {
+		BenchmarkScore baseline = throughput("acquire", 1000.0);
+		BenchmarkScore current = throughput("acquire", 800.0);
+
+		// call under test
+		List<BenchmarkComparison> result = comparator.compare(List.of(baseline), List.of(current));
+
+		assertEquals(List.of(new BenchmarkComparison(baseline, current, 0.2, true)), result);
+	}
+
+	@Test
+	public void testCompareWithThroughputImprovement() {
+		BenchmarkScore baseline = throughput("acquire", 1000.0);
+		BenchmarkScore current = throughput("acquire", 1500.0);
+
+		// call under test
+		List<BenchmarkComparison> result = comparator.compare(List.of(baseline), List.of(current));
+
+		assertEquals(List.of(new BenchmarkComparison(baseline, current, -0.5, false)), result);
+	}
+
+	@Test
+	public void testCompareWithRegressionWithinScoreError() {
+		BenchmarkScore baseline = new BenchmarkScore("parse", "avgt", null, 100.0, 15.0, "us/op");
+		BenchmarkScore current = new BenchmarkScore("parse", "avgt", null, 125.0, 15.0, "us/op");
+
+		// call under test
+		List<BenchmarkComparison> result = comparator.compare(List.of(baseline), List.of(current));
+
+		// The change exceeds the tolerance but not the combined error of 30
+		assertEquals(List.of(new BenchmarkComparison(baseline, current, 0.25, false)), result);
+	}
+
+	@Test
+	public void testCompareWithRegressionExceedingScoreError() {
+		BenchmarkScore baseline = new BenchmarkScore("parse", "avgt", null, 100.0, 10.0, "us/op");
+		BenchmarkScore current = new BenchmarkScore("parse", "avgt", null, 125.0, 10.0, "us/op");
+
+		// call under test
+		List<BenchmarkComparison> result = comparator.compare(List.of(baseline), List.of(current));
+
+		assertEquals(List.of(new BenchmarkComparison(baseline, current, 0.25, true)), result);
+	}
+
+	@Test
+	public void testCompareWithNaNScoreError() {
+		BenchmarkScore baseline = new BenchmarkScore("parse", "avgt", null, 100.0, Double.NaN, "us/op");
+		BenchmarkScore current = new BenchmarkScore("parse", "avgt", null, 125.0, Double.NaN, "us/op");
+
+		// call under test
+		List<BenchmarkComparison> result = comparator.compare(List.of(baseline), List.of(current));
+
+		assertEquals(List.of(new BenchmarkComparison(baseline, current, 0.25, true)), result);
+	}
+
+	@Test
+	public void testCompareWithNewBenchmark() {
+		BenchmarkScore current = averageTime("parse", 100.0);
+
+		// call under test
+		List<BenchmarkComparison> result = comparator.compare(Collections.emptyList(), List.of(current));
+
+		assertEquals(List.of(new BenchmarkComparison(null, current, null, false)), result);
+	}
+
+	@Test
+	public void testCompareWithDifferentUnit() {
+		BenchmarkScore baseline = new BenchmarkScore("parse", "avgt", null, 100.0, 1.0, "ms/op");
+		BenchmarkScore current = averageTime("parse", 1000.0);
+
+		// call under test
+		List<BenchmarkComparison> result = comparator.compare(List.of(baseline), List.of(current));
+
+		assertEquals(List.of(new BenchmarkComparison(baseline, current, null, false)), result);
+	}
+
+	@Test
+	public void testCompareMatchesParams() {
+		BenchmarkScore baselineSmall = new BenchmarkScore("parse", "avgt", Map.of("columnCount", "20"), 10.0, 1.0, "us/op");
+		BenchmarkScore baselineWide = new BenchmarkScore("parse", "avgt", Map.of("columnCount", "200"), 100.0, 1.0, "us/op");
+		BenchmarkScore currentWide = new BenchmarkScore("parse", "avgt", Map.of("columnCount", "200"), 100.0, 1.0, "us/op");
+
+		// call under test
+		List<BenchmarkComparison> result = comparator.compare(List.of(baselineSmall, baselineWide), List.of(currentWide));
+
+		assertEquals(List.of(new BenchmarkComparison(baselineWide, currentWide, 0.0, false)), result);
+	}
+
+	@Test
+	public void testConstructorWithNegativeTolerance() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			new BaselineComparator(-0.1);
+		}).getMessage();
+
+		assertEquals("The tolerance must be greater or equal to zero.", message);
+	}
+
+	private static BenchmarkScore averageTime(String benchmark, double score) {
+		return new BenchmarkScore(benchmark, "avgt", null, score, 1.0, "us/op");
+	}
+
+	private static BenchmarkScore throughput(String benchmark, double score) {
+		return new BenchmarkScore(benchmark, "thrpt", null, score, 1.0, "ops/ms");
+	}
+
+}
@@ -0,0 +1,64 @@
+package org.sagebionetworks.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.sagebionetworks.repo.model.annotation.v2.Annotations;
+import org.sagebionetworks.repo.model.table.ColumnModel;
+import org.sagebionetworks.repo.model.table.ColumnType;
+import org.sagebionetworks.table.model.SparseChangeSet;
+import org.sagebionetworks.table.query.TableQueryParser;
+
+public class BenchmarkFixturesTest {
+
+	@Test
+	public void testCreateWideSchema() {
+		// call under test
+		List<ColumnModel> schema = BenchmarkFixtures.createWideSchema(20);
+
+		assertEquals(20, schema.size());
+		assertEquals("1000", schema.get(0).getId());
+		assertEquals("col_0", schema.get(0).getName());
+		assertEquals(ColumnType.STRING, schema.get(0).getColumnType());
+		assertEquals(ColumnType.STRING, schema.get(8).getColumnType());
+		assertEquals(ColumnType.STRING_LIST, schema.get(6).getColumnType());
+		assertEquals(Long.valueOf(10), schema.get(6).getMaximumListLength());
+	}
+
+	@Test
+	public void testCreateComplexQuery() throws Exception {
+		List<ColumnModel> schema = BenchmarkFixtures.createWideSchema(200);
+
+		// call under test
+		String sql = BenchmarkFixtures.createComplexQuery(schema);
+
+		// The query must be valid for the benchmarks to be meaningful
+		assertNotNull(TableQueryParser.parserQuery(sql));
+	}
+
+	@Test
+	public void testCreateChangeSet() {
+		List<ColumnModel> schema = BenchmarkFixtures.createWideSchema(8);
+
+		// call under test
+		SparseChangeSet changeSet = BenchmarkFixtures.createChangeSet(schema, 100);
+
+		assertEquals(100, changeSet.getRowCount());
+		assertEquals(100, changeSet.writeToDto().getRows().size());
+		assertEquals(8, changeSet.writeToDto().getRows().get(0).getValues().size());
+	}
+
+	@Test
+	public void testCreateAnnotations() {
+		// call under test
+		Annotations annotations = BenchmarkFixtures.createAnnotations(50);
+
+		assertEquals(50, annotations.getAnnotations().size());
+		assertEquals(10, annotations.getAnnotations().get("annotation_0").getValue().size());
+		assertEquals(1, annotations.getAnnotations().get("annotation_1").getValue().size());
+	}
+
+}
@@ -0,0 +1,75 @@
+package org.sagebionetworks.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class BenchmarkScoreTest {
+
+	@Test
+	public void testReadScores() throws Exception {
+		String json = "[{"
+				+ "\"benchmark\": \"org.sagebionetworks.benchmark.TableQueryBenchmark.parse\","
+				+ "\"mode\": \"avgt\","
+				+ "\"threads\": 1,"
+				+ "\"params\": {\"columnCount\": \"20\"},"
+				+ "\"primaryMetric\": {\"score\": 12.5, \"scoreError\": 0.5, \"scoreUnit\": \"us/op\"}"
+				+ "},{"
+				+ "\"benchmark\": \"org.sagebionetworks.benchmark.SemaphoreBenchmark.timeBlockAcquire\","
+				+ "\"mode\": \"thrpt\","
+				+ "\"primaryMetric\": {\"score\": 1000.0, \"scoreError\": \"NaN\", \"scoreUnit\": \"ops/ms\"}"
+				+ "}]";
+
+		// call under test
+		List<BenchmarkScore> scores = BenchmarkScore.readScores(json);
+
+		List<BenchmarkScore> expected = List.of(
+				new BenchmarkScore("org.sagebionetworks.benchmark.TableQueryBenchmark.parse", "avgt", Map.of("columnCount", "20"), 12.5, 0.5,
+						"us/op"),
+				new BenchmarkScore("org.sagebionetworks.benchmark.SemaphoreBenchmark.timeBlockAcquire", "thrpt", null, 1000.0, Double.NaN,
+						"ops/ms"));
+
+		assertEquals(expected, scores);
+	}
+
+	@Test
+	public void testReadScoresWithNotArray() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			BenchmarkScore.readScores("{}");
+		}).getMessage();
+
+		assertEquals("Expected a JSON array of JMH results", message);
+	}
+
+	@Test
+	public void testReadScoresWithMissingPrimaryMetric() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			BenchmarkScore.readScores("[{\"benchmark\": \"parse\", \"mode\": \"avgt\"}]");
+		}).getMessage();
+
+		assertEquals("Missing primaryMetric for parse", message);
+	}
+
+	@Test
+	public void testGetKey() {
+		assertEquals("parse", new BenchmarkScore("parse", "avgt", null, 1.0, 0.0, "us/op").getKey());
+		assertEquals("parse{columnCount=20, rowCount=100}",
+				new BenchmarkScore("parse", "avgt", Map.of("rowCount", "100", "columnCount", "20"), 1.0, 0.0, "us/op").getKey());
+	}
+
+	@Test
+	public void testIsHigherBetter() {
+		assertTrue(new BenchmarkScore("parse", "thrpt", null, 1.0, 0.0, "ops/ms").isHigherBetter());
+		assertFalse(new BenchmarkScore("parse", "avgt", null, 1.0, 0.0, "us/op").isHigherBetter());
+		assertFalse(new BenchmarkScore("parse", "ss", null, 1.0, 0.0, "us/op").isHigherBetter());
+	}
+
+}
@@ -38,6 +38,7 @@ import org.sagebionetworks.table.cluster.columntranslation.SchemaColumnTranslati
 import org.sagebionetworks.table.cluster.description.BenefactorDescription;
 import org.sagebionetworks.table.cluster.description.ColumnToAdd;
 import org.sagebionetworks.table.cluster.description.IndexDescription;
+import org.sagebionetworks.table.cluster.description.MaterializedViewIndexDescription;
 import org.sagebionetworks.table.cluster.stats.StatGenerator;
 import org.sagebionetworks.table.cluster.stats.ElementStats;
 import org.sagebionetworks.table.cluster.utils.TableModelUtils;
@@ -135,6 +136,7 @@ public class SQLTranslatorUtils {
 	private static final String DEFINING_WHERE_CAN_ONLY_BE_USED_WITH_A_CTE = "DEFINING_WHERE can only be used with a common table expression with a single inner query";
 	private static final String COLON = ":";
 	public static final String BIND_PREFIX = "b";
+	public static final String SOURCE_ROW_IDS_PARAMETER = "sourceRowIds";
 
 
 	/**
@@ -1400,9 +1402,29 @@ public class SQLTranslatorUtils {
 		for(BenefactorDescription benDesc: indexDescription.getBenefactors()) {
 			joiner.add(benDesc.getBenefactorColumnName());
 		}
+		// add the ids of the source rows as needed
+		for(String sourceRowIdColumnName: indexDescription.getSourceRowIdColumnNames()) {
+			joiner.add(sourceRowIdColumnName);
+		}
 		return String.format("INSERT INTO %s (%s) %s", tableName, joiner.toString(), outputSQL);
 	}
 
+	/**
+	 * Create the SQL used to delete the rows of a materialized view that were built from the rows of the given source table with the ids
+	 * bound to the {@link #SOURCE_ROW_IDS_PARAMETER} parameter.
+	 * 
+	 * @param indexDescription
+	 * @param sourceId
+	 * @return
+	 */
+	public static String createMaterializedViewDeleteSourceRowsSql(IndexDescription indexDescription, IdAndVersion sourceId) {
+		String columnName = MaterializedViewIndexDescription.getSourceRowIdColumnName(sourceId);
+		ValidateArgument.requirement(indexDescription.getSourceRowIdColumnNames().contains(columnName),
+				"The index of " + indexDescription.getIdAndVersion() + " does not track the rows of " + sourceId);
+		String tableName = SQLUtils.getTableNameForId(indexDescription.getIdAndVersion(), TableIndexType.INDEX);
+		return String.format("DELETE FROM %s WHERE %s IN (:%s)", tableName, columnName, SOURCE_ROW_IDS_PARAMETER);
+	}
+
 	/**
 	 * Translate the {@link Identifier} and {@link ColumnList} within the provided {@link WithListElement}.
 	 * @param wle
@@ -510,6 +510,33 @@ public interface TableIndexDAO {
 	 */
 	List<IdAndChecksum> getIdAndChecksumsForFilter(Long salt, ViewFilter filter, Long limit, Long offset);
 
+	/**
+	 * Get the aggregate checksum of each ID bucket from the replication table using
+	 * the provided filter. Each object is assigned to the bucket:
+	 * <code>FLOOR(OBJECT_ID/bucketSize)</code>. The ID of each of the returned
+	 * IdAndChecksum is the bucket number, ordered by bucket ascending.
+	 * 
+	 * @param salt
+	 * @param filter
+	 * @param bucketSize
+	 * @return
+	 */
+	List<IdAndChecksum> getBucketChecksumsForFilter(Long salt, ViewFilter filter, Long bucketSize);
+
+	/**
+	 * Get all of the IdAndChecksums from the replication table using the provided
+	 * filter that fall within the given ID bucket, ordered by ID.
+	 * 
+	 * @param salt
+	 * @param filter
+	 * @param bucketSize
+	 * @param bucket
+	 * @param limit
+	 * @param offset
+	 * @return
+	 */
+	List<IdAndChecksum> getIdAndChecksumsForFilterInBucket(Long salt, ViewFilter filter, Long bucketSize, Long bucket, Long limit, Long offset);
+
 	/**
 	 * @param idAndVersion  The id of the table
 	 * @param selectColumns The columns to fetch
@@ -647,4 +674,26 @@ public interface TableIndexDAO {
 	 */
 	Optional<CachedQueryDto> getCachedQuery(String requestHash);
 
+	/**
+	 * Set the versions of the source tables that the rows of the index of the
+	 * given materialized view are up to date with, replacing any version
+	 * previously set for the view.
+	 * 
+	 * @param viewId
+	 * @param sourceVersions The version of each source table, an empty map will
+	 *                       clear the versions of the view
+	 */
+	void setMaterializedViewSourceVersions(IdAndVersion viewId, Map<IdAndVersion, Long> sourceVersions);
+
+	/**
+	 * Get the versions of the given source tables that were set for the index of
+	 * the given materialized view.
+	 * 
+	 * @param viewId
+	 * @param sourceIds
+	 * @return The version of each of the given source tables, a source without a
+	 *         version is not included
+	 */
+	Map<IdAndVersion, Long> getMaterializedViewSourceVersions(IdAndVersion viewId, List<IdAndVersion> sourceIds);
+
 }
@@ -141,7 +141,10 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 	private static String ANNOTATION_REPLICATION_TABLE_CREATE = SQLUtils.loadSQLFromClasspath("schema/AnnotationReplication.sql");
 	private static String REPLICATION_SYNCH_EXPIRATION_TABLE_CREATE = SQLUtils.loadSQLFromClasspath("schema/ReplicationSynchExpiration.sql");
 	private static String QUERY_CACHE_TABLE_CREATE = SQLUtils.loadSQLFromClasspath("schema/QueryCache.sql");
+	private static String MATERIALIZED_VIEW_SOURCE_VERSION_TABLE_CREATE = SQLUtils.loadSQLFromClasspath("schema/MaterializedViewSourceVersion.sql");
 	private static String GET_ID_AND_CHECKSUMS_SQL_TEMPLATE = SQLUtils.loadSQLFromClasspath("sql/GetIdAndChecksumsTemplate.sql");
+	private static String GET_BUCKET_CHECKSUMS_SQL_TEMPLATE = SQLUtils.loadSQLFromClasspath("sql/GetBucketChecksumsTemplate.sql");
+	private static String BUCKET_RANGE_FILTER_SQL = " AND R.OBJECT_ID >= :minId AND R.OBJECT_ID < :maxId";
 	
 	public static RowMapper<ObjectDataDTO> OBJECT_DATA_ROW_MAPPER = (ResultSet rs, int rowNum) -> {
 		ObjectDataDTO dto = new ObjectDataDTO();
@@ -302,6 +305,7 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 	public void deleteTable(IdAndVersion tableId) {
 		template.update(SQLUtils.dropTableSQL(tableId, SQLUtils.TableIndexType.INDEX));
 		deleteSecondaryTables(tableId);
+		template.update("DELETE FROM MATERIALIZED_VIEW_SOURCE_VERSION WHERE VIEW_TABLE = ?", SQLUtils.getTableNameForId(tableId, TableIndexType.INDEX));
 	}
 	
 	/**
@@ -746,6 +750,7 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 		template.update(ANNOTATION_REPLICATION_TABLE_CREATE);
 		template.update(REPLICATION_SYNCH_EXPIRATION_TABLE_CREATE);
 		template.update(QUERY_CACHE_TABLE_CREATE);
+		template.update(MATERIALIZED_VIEW_SOURCE_VERSION_TABLE_CREATE);
 	}
 
 	@Override
@@ -1354,6 +1359,7 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 		template.update(TRUNCATE_ANNOTATION_REPLICATION_TABLE);
 		template.update(TRUNCATE_OBJECT_REPLICATION_TABLE);
 		template.update("DELETE FROM QUERY_CACHE");
+		template.update("DELETE FROM MATERIALIZED_VIEW_SOURCE_VERSION");
 	}
 
 	@Override
@@ -1385,6 +1391,52 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 		});
 	}
 		
+	@Override
+	public List<IdAndChecksum> getBucketChecksumsForFilter(Long salt, ViewFilter filter, Long bucketSize) {
+		ValidateArgument.required(salt, "salt");
+		ValidateArgument.required(filter, "filter");
+		ValidateArgument.required(bucketSize, "bucketSize");
+		ValidateArgument.requirement(bucketSize > 0, "bucketSize must be greater than zero");
+		if(filter.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		String sql = String.format(GET_BUCKET_CHECKSUMS_SQL_TEMPLATE, filter.getObjectIdFilterSql());
+		Map<String, Object> params = new HashMap<String, Object>(filter.getParameters());
+		params.put("salt", salt);
+		params.put("bucketSize", bucketSize);
+		
+		return namedTemplate.query(sql, params, (ResultSet rs, int rowNum) -> {
+			return new IdAndChecksum().withId(rs.getLong("BUCKET")).withChecksum(rs.getLong("CHECK_SUM"));
+		});
+	}
+	
+	@Override
+	public List<IdAndChecksum> getIdAndChecksumsForFilterInBucket(Long salt, ViewFilter filter, Long bucketSize, Long bucket, Long limit, Long offset) {
+		ValidateArgument.required(salt, "salt");
+		ValidateArgument.required(filter, "filter");
+		ValidateArgument.required(bucketSize, "bucketSize");
+		ValidateArgument.required(bucket, "bucket");
+		ValidateArgument.requirement(bucketSize > 0, "bucketSize must be greater than zero");
+		if(filter.isEmpty()) {
+			return Collections.emptyList();
+		}
+		ValidateArgument.required(limit, "limit");
+		ValidateArgument.required(offset, "offset");
+		
+		String sql = String.format(GET_ID_AND_CHECKSUMS_SQL_TEMPLATE, filter.getObjectIdFilterSql() + BUCKET_RANGE_FILTER_SQL);
+		Map<String, Object> params = new HashMap<String, Object>(filter.getParameters());
+		params.put("salt", salt);
+		params.put("minId", bucket * bucketSize);
+		params.put("maxId", (bucket + 1) * bucketSize);
+		params.put("limit", limit);
+		params.put("offset", offset);
+		
+		return namedTemplate.query(sql, params, (ResultSet rs, int rowNum) -> {
+			return new IdAndChecksum().withId(rs.getLong("ID")).withChecksum(rs.getLong("CHECK_SUM"));
+		});
+	}
+		
 	@Override
 	public List<TableRowData> getTableDataForRowIds(IdAndVersion idAndVersion, List<ColumnModel> selectColumns, Set<Long> rowIds) {
 		ValidateArgument.required(idAndVersion, "idAndVersion");
@@ -1574,6 +1626,51 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 		template.update(sqlBuilder.toString());
 	}
 	
+	@Override
+	public void setMaterializedViewSourceVersions(IdAndVersion viewId, Map<IdAndVersion, Long> sourceVersions) {
+		ValidateArgument.required(viewId, "viewId");
+		ValidateArgument.required(sourceVersions, "sourceVersions");
+		
+		String viewTableName = SQLUtils.getTableNameForId(viewId, TableIndexType.INDEX);
+		
+		writeTransactionTemplate.executeWithoutResult(status -> {
+			template.update("DELETE FROM MATERIALIZED_VIEW_SOURCE_VERSION WHERE VIEW_TABLE = ?", viewTableName);
+			
+			if (sourceVersions.isEmpty()) {
+				return;
+			}
+			
+			List<Object[]> batchArgs = sourceVersions.entrySet().stream()
+				.map(entry -> new Object[] { viewTableName, SQLUtils.getTableNameForId(entry.getKey(), TableIndexType.INDEX), entry.getValue() })
+				.collect(Collectors.toList());
+			
+			template.batchUpdate("INSERT INTO MATERIALIZED_VIEW_SOURCE_VERSION (VIEW_TABLE, SOURCE_TABLE, SOURCE_VERSION) VALUES (?, ?, ?)", batchArgs);
+		});
+	}
+	
+	@Override
+	public Map<IdAndVersion, Long> getMaterializedViewSourceVersions(IdAndVersion viewId, List<IdAndVersion> sourceIds) {
+		ValidateArgument.required(viewId, "viewId");
+		ValidateArgument.required(sourceIds, "sourceIds");
+		
+		Map<String, Long> versionsByTableName = new HashMap<>();
+		
+		template.query("SELECT SOURCE_TABLE, SOURCE_VERSION FROM MATERIALIZED_VIEW_SOURCE_VERSION WHERE VIEW_TABLE = ?", (RowCallbackHandler) rs -> {
+			versionsByTableName.put(rs.getString("SOURCE_TABLE"), rs.getLong("SOURCE_VERSION"));
+		}, SQLUtils.getTableNameForId(viewId, TableIndexType.INDEX));
+		
+		Map<IdAndVersion, Long> sourceVersions = new HashMap<>(sourceIds.size());
+		
+		for (IdAndVersion sourceId : sourceIds) {
+			Long version = versionsByTableName.get(SQLUtils.getTableNameForId(sourceId, TableIndexType.INDEX));
+			if (version != null) {
+				sourceVersions.put(sourceId, version);
+			}
+		}
+		
+		return sourceVersions;
+	}
+	
 	@Override
 	public Optional<String> getConstraintClause(String constraintName){
 		ValidateArgument.required(constraintName, "constraintName");
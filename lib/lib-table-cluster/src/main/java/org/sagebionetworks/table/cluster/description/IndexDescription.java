@@ -1,5 +1,6 @@
 package org.sagebionetworks.table.cluster.description;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -54,6 +55,20 @@ public interface IndexDescription extends Comparable<IndexDescription> {
 	 */
 	List<ColumnToAdd> getColumnNamesToAddToSelect(SqlContext context, boolean includeEtag, boolean isAggregate);
 
+	/**
+	 * The names of the columns that store, for each row of this index, the id of
+	 * the row of each dependency the row was built from. The values of these
+	 * columns are provided by the last columns returned by
+	 * {@link #getColumnNamesToAddToSelect(SqlContext, boolean, boolean)} in the
+	 * {@link SqlContext#build} context, following the benefactor columns.
+	 * 
+	 * @return Will return an empty list if the index does not track the rows of
+	 *         its dependencies.
+	 */
+	default List<String> getSourceRowIdColumnNames() {
+		return Collections.emptyList();
+	}
+
 	/**
 	 * Get the dependencies of this Index.
 	 * 
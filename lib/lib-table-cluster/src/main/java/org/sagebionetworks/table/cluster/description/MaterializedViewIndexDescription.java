@@ -26,6 +26,7 @@ public class MaterializedViewIndexDescription implements IndexDescription {
 	private final List<BenefactorDescription> benefactorDescriptions;
 	private final List<ColumnToAdd> buildColumnsToAddToSelect;
 	private final List<IndexDescription> orderedDependencies;
+	private final List<String> sourceRowIdColumnNames;
 
 	/**
 	 * 
@@ -34,6 +35,20 @@ public class MaterializedViewIndexDescription implements IndexDescription {
 	 *                     dependencies in the from clause.
 	 */
 	public MaterializedViewIndexDescription(IdAndVersion idAndVersion, List<IndexDescription> dependencies) {
+		this(idAndVersion, dependencies, false);
+	}
+
+	/**
+	 * 
+	 * @param idAndVersion     The IdAndVersion of this {@link MaterializedView}
+	 * @param dependencies     Note: The order of this list should match the order
+	 *                         of dependencies in the from clause.
+	 * @param trackSourceRows  True if each row of the index should store the id of
+	 *                         the row of each dependency it was built from, so that
+	 *                         the index can be updated incrementally (See
+	 *                         {@link #getSourceRowIdColumnNames()})
+	 */
+	public MaterializedViewIndexDescription(IdAndVersion idAndVersion, List<IndexDescription> dependencies, boolean trackSourceRows) {
 		super();
 		this.idAndVersion = idAndVersion;
 		// The order of the provided dependencies is nondeterministic. By ordering the
@@ -41,7 +56,11 @@ public class MaterializedViewIndexDescription implements IndexDescription {
 		this.orderedDependencies = dependencies.stream().sorted().collect(Collectors.toList());
 		this.buildColumnsToAddToSelect = new ArrayList<>();
 		this.benefactorDescriptions = new ArrayList<>();
+		this.sourceRowIdColumnNames = new ArrayList<>();
 		initializeBenefactors();
+		if (trackSourceRows) {
+			initializeSourceRowIds();
+		}
 	}
 
 	/**
@@ -64,6 +83,28 @@ public class MaterializedViewIndexDescription implements IndexDescription {
 		}
 	}
 
+	/**
+	 * Initialize the columns that store the id of the row of each dependency,
+	 * these are added to the select list after the benefactors.
+	 */
+	void initializeSourceRowIds() {
+		for (IndexDescription dependency : this.orderedDependencies) {
+			String dependencyTranslatedTableName = SQLUtils.getTableNameForId(dependency.getIdAndVersion(),
+					TableIndexType.INDEX);
+			buildColumnsToAddToSelect.add(new ColumnToAdd(dependency.getIdAndVersion(), dependencyTranslatedTableName + "." + ROW_ID));
+			sourceRowIdColumnNames.add(getSourceRowIdColumnName(dependency.getIdAndVersion()));
+		}
+	}
+
+	/**
+	 * @param sourceId The id of a dependency of the materialized view
+	 * @return The name of the column that stores the id of the row of the given
+	 *         dependency that each row of the view was built from
+	 */
+	public static String getSourceRowIdColumnName(IdAndVersion sourceId) {
+		return ROW_ID + "_" + SQLUtils.getTableNameForId(sourceId, TableIndexType.INDEX);
+	}
+
 	@Override
 	public IdAndVersion getIdAndVersion() {
 		return idAndVersion;
@@ -83,6 +124,10 @@ public class MaterializedViewIndexDescription implements IndexDescription {
 			builder.append(desc.getBenefactorColumnName()).append(" BIGINT NOT NULL, ");
 			benefactorIndicies.append(", KEY (").append(desc.getBenefactorColumnName()).append(")");
 		}
+		for (String sourceRowIdColumnName : sourceRowIdColumnNames) {
+			builder.append(sourceRowIdColumnName).append(" BIGINT NULL, ");
+			benefactorIndicies.append(", KEY (").append(sourceRowIdColumnName).append(")");
+		}
 		builder.append("PRIMARY KEY (").append("ROW_ID").append("), ");
 		builder.append("FULLTEXT INDEX `" + ROW_SEARCH_CONTENT + "_INDEX` (" + ROW_SEARCH_CONTENT + ")");
 		builder.append(benefactorIndicies.toString());
@@ -119,6 +164,11 @@ public class MaterializedViewIndexDescription implements IndexDescription {
 		}
 	}
 
+	@Override
+	public List<String> getSourceRowIdColumnNames() {
+		return sourceRowIdColumnNames;
+	}
+
 	@Override
 	public List<IndexDescription> getDependencies() {
 		return orderedDependencies;
@@ -126,7 +176,7 @@ public class MaterializedViewIndexDescription implements IndexDescription {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(benefactorDescriptions, buildColumnsToAddToSelect, idAndVersion, orderedDependencies);
+		return Objects.hash(benefactorDescriptions, buildColumnsToAddToSelect, idAndVersion, orderedDependencies, sourceRowIdColumnNames);
 	}
 
 	@Override
@@ -141,14 +191,15 @@ public class MaterializedViewIndexDescription implements IndexDescription {
 		return Objects.equals(benefactorDescriptions, other.benefactorDescriptions)
 				&& Objects.equals(buildColumnsToAddToSelect, other.buildColumnsToAddToSelect)
 				&& Objects.equals(idAndVersion, other.idAndVersion)
-				&& Objects.equals(orderedDependencies, other.orderedDependencies);
+				&& Objects.equals(orderedDependencies, other.orderedDependencies)
+				&& Objects.equals(sourceRowIdColumnNames, other.sourceRowIdColumnNames);
 	}
 
 	@Override
 	public String toString() {
 		return "MaterializedViewIndexDescription [idAndVersion=" + idAndVersion + ", benefactorDescriptions="
 				+ benefactorDescriptions + ", buildColumnsToAddToSelect=" + buildColumnsToAddToSelect
-				+ ", orderedDependencies=" + orderedDependencies + "]";
+				+ ", orderedDependencies=" + orderedDependencies + ", sourceRowIdColumnNames=" + sourceRowIdColumnNames + "]";
 	}
 
 }
@@ -9,6 +9,7 @@ import org.sagebionetworks.repo.model.table.ColumnType;
 import org.sagebionetworks.repo.model.table.CsvTableDescriptor;
 import org.sagebionetworks.repo.model.table.UploadToTablePreviewRequest;
 
+import au.com.bytecode.opencsv.CSVParser;
 import au.com.bytecode.opencsv.CSVReader;
 import au.com.bytecode.opencsv.CSVWriter;
 import au.com.bytecode.opencsv.Constants;
@@ -29,35 +30,10 @@ public class CSVUtils {
 	 * @return
 	 */
 	public static CSVReader createCSVReader(Reader reader, CsvTableDescriptor descriptor, Long linesToSkip) {
-		char separator = Constants.DEFAULT_SEPARATOR;
-		char quotechar = Constants.DEFAULT_QUOTE_CHARACTER;
-		char escape = Constants.DEFAULT_ESCAPE_CHARACTER;
+		char separator = getSeparator(descriptor);
+		char quotechar = getQuoteCharacter(descriptor);
+		char escape = getEscapeCharacter(descriptor);
 		int skipLines = 0;
-		if(descriptor != null){
-			if (descriptor.getSeparator() != null) {
-				if (descriptor.getSeparator().length() != 1) {
-					throw new IllegalArgumentException(
-							"CsvTableDescriptor.separator must be exactly one character.");
-				}
-				separator = descriptor.getSeparator().charAt(0);
-			}
-			if (descriptor.getQuoteCharacter() != null) {
-				if (descriptor.getQuoteCharacter().length() != 1) {
-					throw new IllegalArgumentException(
-							"CsvTableDescriptor.quoteCharacter must be exactly one character.");
-				}
-				quotechar = descriptor.getQuoteCharacter()
-						.charAt(0);
-			}
-			if (descriptor.getEscapeCharacter() != null) {
-				if (descriptor.getEscapeCharacter().length() != 1) {
-					throw new IllegalArgumentException(
-							"CsvTableDescriptor.escapeCharacter must be exactly one character.");
-				}
-				escape = descriptor.getEscapeCharacter()
-						.charAt(0);
-			}			
-		}
 		if (linesToSkip != null) {
 			skipLines = linesToSkip.intValue();
 		}
@@ -65,6 +41,63 @@ public class CSVUtils {
 		return new CSVReader(reader, separator, quotechar, escape, skipLines);
 	}
 	
+	/**
+	 * Create a CSVParser for a single line with the parameters of the given descriptor or default values.
+	 * @param descriptor
+	 * @return
+	 */
+	public static CSVParser createCSVParser(CsvTableDescriptor descriptor) {
+		return new CSVParser(getSeparator(descriptor), getQuoteCharacter(descriptor), getEscapeCharacter(descriptor));
+	}
+	
+	/**
+	 * The separator of the given descriptor.  If null then the default separator.
+	 * @param descriptor
+	 * @return
+	 */
+	public static char getSeparator(CsvTableDescriptor descriptor) {
+		if (descriptor != null && descriptor.getSeparator() != null) {
+			if (descriptor.getSeparator().length() != 1) {
+				throw new IllegalArgumentException(
+						"CsvTableDescriptor.separator must be exactly one character.");
+			}
+			return descriptor.getSeparator().charAt(0);
+		}
+		return Constants.DEFAULT_SEPARATOR;
+	}
+	
+	/**
+	 * The quote character of the given descriptor.  If null then the default quote character.
+	 * @param descriptor
+	 * @return
+	 */
+	public static char getQuoteCharacter(CsvTableDescriptor descriptor) {
+		if (descriptor != null && descriptor.getQuoteCharacter() != null) {
+			if (descriptor.getQuoteCharacter().length() != 1) {
+				throw new IllegalArgumentException(
+						"CsvTableDescriptor.quoteCharacter must be exactly one character.");
+			}
+			return descriptor.getQuoteCharacter().charAt(0);
+		}
+		return Constants.DEFAULT_QUOTE_CHARACTER;
+	}
+	
+	/**
+	 * The escape character of the given descriptor.  If null then the default escape character.
+	 * @param descriptor
+	 * @return
+	 */
+	public static char getEscapeCharacter(CsvTableDescriptor descriptor) {
+		if (descriptor != null && descriptor.getEscapeCharacter() != null) {
+			if (descriptor.getEscapeCharacter().length() != 1) {
+				throw new IllegalArgumentException(
+						"CsvTableDescriptor.escapeCharacter must be exactly one character.");
+			}
+			return descriptor.getEscapeCharacter().charAt(0);
+		}
+		return Constants.DEFAULT_ESCAPE_CHARACTER;
+	}
+	
 	/**
 	 * Is the first line a header.  If null then true.
 	 * @param descriptor
@@ -54,7 +54,11 @@ import org.sagebionetworks.table.model.SparseChangeSet;
 import org.sagebionetworks.table.model.SparseRow;
 import org.sagebionetworks.table.query.ParseException;
 import org.sagebionetworks.table.query.TableQueryParser;
+import org.sagebionetworks.table.query.model.JoinType;
+import org.sagebionetworks.table.query.model.MySqlFunction;
+import org.sagebionetworks.table.query.model.MySqlFunctionName;
 import org.sagebionetworks.table.query.model.QueryExpression;
+import org.sagebionetworks.table.query.model.QuerySpecification;
 import org.sagebionetworks.table.query.model.TableNameCorrelation;
 import org.sagebionetworks.table.query.util.ColumnTypeListMappings;
 import org.sagebionetworks.util.ValidateArgument;
@@ -97,6 +101,12 @@ public class TableModelUtils {
 	 * The MD5 used for tables with no schema.
 	 */
 	public static final String EMPTY_SCHEMA_MD5 = TableModelUtils.createSchemaMD5Hex(Collections.emptyList());
+
+	/**
+	 * The functions whose value depends on the time of the query, see {@link #isIncrementalMaintenanceSupported(QueryExpression)}
+	 */
+	private static final Set<MySqlFunctionName> TIME_DEPENDENT_FUNCTIONS = Sets.immutableEnumSet(MySqlFunctionName.CURRENT_TIMESTAMP,
+			MySqlFunctionName.CURRENT_DATE, MySqlFunctionName.CURRENT_TIME, MySqlFunctionName.NOW, MySqlFunctionName.UNIX_TIMESTAMP);
 	
 	/**
 	 * Delimiter used to list column model IDs as a string.
@@ -1556,4 +1566,36 @@ public class TableModelUtils {
 		return getSourceTableIds(getQuerySpecification(definingSql));
 	}
 
+	/**
+	 * A materialized view can be maintained incrementally, re-computing only the rows that were produced by the changed rows of its
+	 * sources, if each row of the view is produced by at most one row of each source and independently of the other rows. This is the case
+	 * for a single select (no UNION, sub-queries or common table expressions) over distinct tables joined with inner joins, without
+	 * DISTINCT, aggregation, pagination or functions that depend on the time of the query.
+	 * 
+	 * @param query The defining query of the materialized view
+	 * @return True if the materialized view defined by the given query can be maintained incrementally
+	 */
+	public static boolean isIncrementalMaintenanceSupported(QueryExpression query) {
+		ValidateArgument.required(query, "query");
+		if (query.getWithListElements().isPresent()) {
+			return false;
+		}
+		List<QuerySpecification> specifications = query.stream(QuerySpecification.class).collect(Collectors.toList());
+		if (specifications.size() != 1) {
+			return false;
+		}
+		QuerySpecification specification = specifications.get(0);
+		if (specification.hasAnyAggregateElements() || specification.getTableExpression().getPagination() != null) {
+			return false;
+		}
+		if (query.stream(JoinType.class).anyMatch(joinType -> joinType.getOuterJoinType().isPresent())) {
+			return false;
+		}
+		if (query.stream(MySqlFunction.class).anyMatch(function -> TIME_DEPENDENT_FUNCTIONS.contains(function.getFunctionName()))) {
+			return false;
+		}
+		List<IdAndVersion> sourceIds = getSourceTableIds(query);
+		return new HashSet<>(sourceIds).size() == sourceIds.size();
+	}
+
 }
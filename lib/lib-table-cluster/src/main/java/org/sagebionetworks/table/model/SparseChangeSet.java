@@ -72,10 +72,26 @@ public class SparseChangeSet implements TableChange {
 	 * @param rows
 	 */
 	public SparseChangeSet(String tableId, List<ColumnModel> schema, List<SparseRowDto> rows, String etag){
+		this(tableId, schema, rows, etag, false);
+	}
+	
+	/**
+	 * Create a SparseChangeSet.
+	 * @param tableId
+	 * @param schema
+	 * @param rows
+	 * @param etag
+	 * @param valuesValidated True if the values of the given rows were already
+	 *                        processed by
+	 *                        {@link TableModelUtils#validateRowValue(String, ColumnModel, int, int)}
+	 *                        against the same schema, in which case they are
+	 *                        not validated again.
+	 */
+	public SparseChangeSet(String tableId, List<ColumnModel> schema, List<SparseRowDto> rows, String etag, boolean valuesValidated){
 		ValidateArgument.required(tableId, "tableId");
 		ValidateArgument.required(schema, "schema");
 		initialize(tableId, schema, etag);
-		addAllRows(rows);
+		addAllRows(rows, valuesValidated);
 	}
 
 	/**
@@ -83,16 +99,25 @@ public class SparseChangeSet implements TableChange {
 	 * @param rows
 	 */
 	public void addAllRows(Iterable<SparseRowDto> rows) {
+		addAllRows(rows, false);
+	}
+	
+	private void addAllRows(Iterable<SparseRowDto> rows, boolean valuesValidated) {
 		// Add all of the rows from the DTO.
 		for(SparseRowDto row: rows){
-			SparseRow sparse = this.addEmptyRow();
+			SparseRowImpl sparse = this.addEmptyRowImpl();
 			sparse.setRowId(row.getRowId());
 			sparse.setVersionNumber(row.getVersionNumber());
 			sparse.setRowEtag(row.getEtag());
 			if(row.getValues() != null){
 				for(ColumnModel cm: this.schema){
 					if(row.getValues().containsKey(cm.getId())){
-						sparse.setCellValue(cm.getId(), row.getValues().get(cm.getId()));
+						String value = row.getValues().get(cm.getId());
+						if(valuesValidated){
+							sparse.valueMap.put(cm.getId(), value);
+						}else{
+							sparse.setCellValue(cm.getId(), value);
+						}
 					}
 				}
 			}
@@ -201,7 +226,11 @@ public class SparseChangeSet implements TableChange {
 	 * @return
 	 */
 	public SparseRow addEmptyRow() {
-		SparseRow newRow = new SparseRowImpl(sparseRows.size());
+		return addEmptyRowImpl();
+	}
+	
+	private SparseRowImpl addEmptyRowImpl() {
+		SparseRowImpl newRow = new SparseRowImpl(sparseRows.size());
 		sparseRows.add(newRow);
 		return newRow;
 	}
@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS MATERIALIZED_VIEW_SOURCE_VERSION (
+	VIEW_TABLE VARCHAR(64) NOT NULL,
+	SOURCE_TABLE VARCHAR(64) NOT NULL,
+	SOURCE_VERSION BIGINT NOT NULL,
+	PRIMARY KEY(VIEW_TABLE, SOURCE_TABLE)
+)
\ No newline at end of file
@@ -0,0 +1,7 @@
+  SELECT 
+ FLOOR(R.OBJECT_ID / :bucketSize) AS BUCKET,
+ SUM(CRC32(CONCAT(:salt,'-',R.ETAG,'-',R.OBJECT_VERSION,'-',R.BENEFACTOR_ID))) AS CHECK_SUM
+  FROM OBJECT_REPLICATION R
+   WHERE %s
+   GROUP BY BUCKET
+    ORDER BY BUCKET ASC
\ No newline at end of file
@@ -4236,6 +4236,41 @@ public class SQLTranslatorUtilsTest {
 		assertEquals("INSERT INTO T123 (_C111_,_C333_) select _c1_, _c2_ from T111", result);
 	}
 	
+	@Test
+	public void testCreateMaterializedViewInsertSqlWithTrackSourceRows() {
+		IdAndVersion materializedViewId = IdAndVersion.parse("syn123");
+		IdAndVersion tableId = IdAndVersion.parse("syn111");
+		List<ColumnModel> schemaOfSelect = Arrays.asList(columnFoo, columnBar);
+		String outputSQL = "select _c1_, _c2_, _A0.ROW_ID from T111 _A0"; 
+		List<IndexDescription> dependencies = Arrays.asList(new TableIndexDescription(tableId));
+		IndexDescription indexDescription = new MaterializedViewIndexDescription(materializedViewId, dependencies, true);
+		// call under test
+		String result = SQLTranslatorUtils.createMaterializedViewInsertSql(schemaOfSelect, outputSQL, indexDescription);
+		assertEquals("INSERT INTO T123 (_C111_,_C333_,ROW_ID_T111) select _c1_, _c2_, _A0.ROW_ID from T111 _A0", result);
+	}
+	
+	@Test
+	public void testCreateMaterializedViewDeleteSourceRowsSql() {
+		IdAndVersion tableId = IdAndVersion.parse("syn111");
+		IndexDescription indexDescription = new MaterializedViewIndexDescription(IdAndVersion.parse("syn123"),
+				Arrays.asList(new TableIndexDescription(tableId)), true);
+		// call under test
+		String result = SQLTranslatorUtils.createMaterializedViewDeleteSourceRowsSql(indexDescription, tableId);
+		assertEquals("DELETE FROM T123 WHERE ROW_ID_T111 IN (:sourceRowIds)", result);
+	}
+	
+	@Test
+	public void testCreateMaterializedViewDeleteSourceRowsSqlWithoutTrackSourceRows() {
+		IdAndVersion tableId = IdAndVersion.parse("syn111");
+		IndexDescription indexDescription = new MaterializedViewIndexDescription(IdAndVersion.parse("syn123"),
+				Arrays.asList(new TableIndexDescription(tableId)));
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			SQLTranslatorUtils.createMaterializedViewDeleteSourceRowsSql(indexDescription, tableId);
+		}).getMessage();
+		assertEquals("The index of syn123 does not track the rows of syn111", message);
+	}
+	
 	@Test
 	public void testCreateSchemaOfSelect() {
 		List<List<ColumnModel>> selectSchemas = List.of(
@@ -4556,6 +4556,47 @@ public class TableIndexDAOImplTest {
 		assertEquals(2, page.stream().filter(i->i.getChecksum() != null).count());
 	}
 	
+	@Test
+	public void testGetIdAndChecksumsForFilterInBucket() {
+		tableId = IdAndVersion.parse("syn123");
+		indexDescription = new ViewIndexDescription(tableId, TableType.entityview, -1L);
+		Long objectIdOne = 22L;
+		Long objectIdTwo = 33L;
+		Long objectIdThree = 34L;
+		Long objectIdFour = 44L;
+		// delete all data
+		tableIndexDAO.deleteObjectData(mainType, Lists.newArrayList(objectIdOne, objectIdTwo, objectIdThree, objectIdFour));
+		tableIndexDAO.deleteTable(tableId);
+		
+		int annotationCoun = 1;
+		int versionCount = 2;
+		List<ObjectDataDTO> oneVersion = createMultipleVersions(objectIdOne, EntityType.file, annotationCoun, versionCount);
+		tableIndexDAO.addObjectData(mainType, oneVersion);
+		tableIndexDAO.addObjectData(mainType, createMultipleVersions(objectIdTwo, EntityType.file, annotationCoun, versionCount));
+		tableIndexDAO.addObjectData(mainType, createMultipleVersions(objectIdThree, EntityType.file, annotationCoun, versionCount));
+		tableIndexDAO.addObjectData(mainType, createMultipleVersions(objectIdFour, EntityType.file, annotationCoun, versionCount));
+		
+		// Create the schema for this table
+		List<ColumnModel> schema = createSchemaFromObjectDataDTO(oneVersion.get(0));
+		createOrUpdateTable(schema, indexDescription);
+		
+		ViewFilter filter = new HierarchicaFilter(ReplicationType.ENTITY, Set.of(SubType.file), Set.of(1L));
+		
+		Long salt = 123L;
+		Long bucketSize = 10L;
+		Long bucket = 3L;
+		List<IdAndChecksum> all = tableIndexDAO.getIdAndChecksumsForFilter(salt, filter, 10L, 0L);
+		
+		// call under test
+		List<IdAndChecksum> firstPage = tableIndexDAO.getIdAndChecksumsForFilterInBucket(salt, filter, bucketSize, bucket, 1L, 0L);
+		List<IdAndChecksum> secondPage = tableIndexDAO.getIdAndChecksumsForFilterInBucket(salt, filter, bucketSize, bucket, 1L, 1L);
+		List<IdAndChecksum> thirdPage = tableIndexDAO.getIdAndChecksumsForFilterInBucket(salt, filter, bucketSize, bucket, 1L, 2L);
+		
+		assertEquals(List.of(all.get(1)), firstPage);
+		assertEquals(List.of(all.get(2)), secondPage);
+		assertEquals(Collections.emptyList(), thirdPage);
+	}
+	
 	@Test
 	public void testGetIdAndChecksumsForFilterWithFlatFilter() {
 		tableId = IdAndVersion.parse("syn123");
@@ -5165,4 +5206,38 @@ public class TableIndexDAOImplTest {
 		assertEquals("resultJson is required.", message);
 	}
 	
+	@Test
+	public void testSetAndGetMaterializedViewSourceVersions() {
+		IdAndVersion sourceOne = IdAndVersion.parse("syn456");
+		IdAndVersion sourceTwo = IdAndVersion.parse("syn789.2");
+		IdAndVersion sourceThree = IdAndVersion.parse("syn789");
+		
+		// call under test
+		tableIndexDAO.setMaterializedViewSourceVersions(tableId, Map.of(sourceOne, 3L, sourceTwo, 5L));
+		
+		assertEquals(Map.of(sourceOne, 3L, sourceTwo, 5L), tableIndexDAO.getMaterializedViewSourceVersions(tableId, List.of(sourceOne, sourceTwo, sourceThree)));
+		
+		// call under test, replaces the previous versions
+		tableIndexDAO.setMaterializedViewSourceVersions(tableId, Map.of(sourceThree, 7L));
+		
+		assertEquals(Map.of(sourceThree, 7L), tableIndexDAO.getMaterializedViewSourceVersions(tableId, List.of(sourceOne, sourceTwo, sourceThree)));
+		
+		// call under test
+		tableIndexDAO.setMaterializedViewSourceVersions(tableId, Collections.emptyMap());
+		
+		assertEquals(Collections.emptyMap(), tableIndexDAO.getMaterializedViewSourceVersions(tableId, List.of(sourceOne, sourceTwo, sourceThree)));
+	}
+	
+	@Test
+	public void testDeleteTableWithMaterializedViewSourceVersions() {
+		IdAndVersion source = IdAndVersion.parse("syn456");
+		
+		tableIndexDAO.setMaterializedViewSourceVersions(tableId, Map.of(source, 3L));
+		
+		// call under test
+		tableIndexDAO.deleteTable(tableId);
+		
+		assertEquals(Collections.emptyMap(), tableIndexDAO.getMaterializedViewSourceVersions(tableId, List.of(source)));
+	}
+	
 }
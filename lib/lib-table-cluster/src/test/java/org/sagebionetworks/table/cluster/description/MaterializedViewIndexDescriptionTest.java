@@ -223,4 +223,54 @@ public class MaterializedViewIndexDescriptionTest {
 		// Call under test
 		assertFalse(mid.supportQueryCache());
 	}
+
+	@Test
+	public void testGetCreateOrUpdateIndexSqlWithTrackSourceRows() {
+		List<IndexDescription> dependencies = Arrays.asList(new TableIndexDescription(IdAndVersion.parse("syn999")),
+				new TableIndexDescription(IdAndVersion.parse("syn888.2")));
+		MaterializedViewIndexDescription mid = new MaterializedViewIndexDescription(IdAndVersion.parse("syn123"), dependencies, true);
+		// call under test
+		String sql = mid.getCreateOrUpdateIndexSql();
+		assertEquals("CREATE TABLE IF NOT EXISTS T123( "
+				+ "ROW_ID BIGINT NOT NULL AUTO_INCREMENT, "
+				+ "ROW_VERSION BIGINT NOT NULL DEFAULT 0, "
+				+ "ROW_SEARCH_CONTENT MEDIUMTEXT NULL, "
+				+ "ROW_ID_T888_2 BIGINT NULL, "
+				+ "ROW_ID_T999 BIGINT NULL, "
+				+ "PRIMARY KEY (ROW_ID), "
+				+ "FULLTEXT INDEX `ROW_SEARCH_CONTENT_INDEX` (ROW_SEARCH_CONTENT), "
+				+ "KEY (ROW_ID_T888_2), "
+				+ "KEY (ROW_ID_T999))", sql);
+	}
+
+	@Test
+	public void testGetColumnNamesToAddToSelectWithBuildAndTrackSourceRows() {
+		List<IndexDescription> dependencies = Arrays.asList(new TableIndexDescription(IdAndVersion.parse("syn999")),
+				new ViewIndexDescription(IdAndVersion.parse("syn888"), TableType.entityview, -1L));
+		MaterializedViewIndexDescription mid = new MaterializedViewIndexDescription(IdAndVersion.parse("syn123"), dependencies, true);
+		boolean includeEtag = true;
+		boolean isAggregate = false;
+		// call under test
+		List<ColumnToAdd> result = mid.getColumnNamesToAddToSelect(SqlContext.build, includeEtag, isAggregate);
+		// The source row ids follow the benefactors
+		assertEquals(Arrays.asList(
+				new ColumnToAdd(IdAndVersion.parse("syn888"), "IFNULL( T888.ROW_BENEFACTOR , -1)"),
+				new ColumnToAdd(IdAndVersion.parse("syn888"), "T888.ROW_ID"),
+				new ColumnToAdd(IdAndVersion.parse("syn999"), "T999.ROW_ID")), result);
+		assertEquals(Arrays.asList("ROW_ID_T888", "ROW_ID_T999"), mid.getSourceRowIdColumnNames());
+	}
+
+	@Test
+	public void testGetSourceRowIdColumnNamesWithoutTrackSourceRows() {
+		List<IndexDescription> dependencies = Arrays.asList(new TableIndexDescription(IdAndVersion.parse("syn999")));
+		MaterializedViewIndexDescription mid = new MaterializedViewIndexDescription(IdAndVersion.parse("syn123"), dependencies);
+		// call under test
+		assertEquals(Collections.emptyList(), mid.getSourceRowIdColumnNames());
+	}
+
+	@Test
+	public void testGetSourceRowIdColumnName() {
+		assertEquals("ROW_ID_T999", MaterializedViewIndexDescription.getSourceRowIdColumnName(IdAndVersion.parse("syn999")));
+		assertEquals("ROW_ID_T999_3", MaterializedViewIndexDescription.getSourceRowIdColumnName(IdAndVersion.parse("syn999.3")));
+	}
 }
@@ -2221,4 +2221,84 @@ public class TableModelUtilsTest {
 
 		assertEquals(expected, result);
 	}
+
+	@Test
+	public void testIsIncrementalMaintenanceSupportedWithSelect() {
+		QueryExpression query = TableModelUtils.getQuerySpecification("SELECT * FROM syn123 WHERE foo > 1");
+
+		// call under test
+		assertTrue(TableModelUtils.isIncrementalMaintenanceSupported(query));
+	}
+
+	@Test
+	public void testIsIncrementalMaintenanceSupportedWithInnerJoin() {
+		QueryExpression query = TableModelUtils.getQuerySpecification("SELECT * FROM syn123 a JOIN syn456 b ON (a.id = b.id) WHERE a.foo > 1");
+
+		// call under test
+		assertTrue(TableModelUtils.isIncrementalMaintenanceSupported(query));
+	}
+
+	@Test
+	public void testIsIncrementalMaintenanceSupportedWithOuterJoin() {
+		QueryExpression query = TableModelUtils.getQuerySpecification("SELECT * FROM syn123 a LEFT JOIN syn456 b ON (a.id = b.id)");
+
+		// call under test
+		assertFalse(TableModelUtils.isIncrementalMaintenanceSupported(query));
+	}
+
+	@Test
+	public void testIsIncrementalMaintenanceSupportedWithSelfJoin() {
+		QueryExpression query = TableModelUtils.getQuerySpecification("SELECT * FROM syn123 a JOIN syn123 b ON (a.id = b.id)");
+
+		// call under test
+		assertFalse(TableModelUtils.isIncrementalMaintenanceSupported(query));
+	}
+
+	@Test
+	public void testIsIncrementalMaintenanceSupportedWithDistinct() {
+		QueryExpression query = TableModelUtils.getQuerySpecification("SELECT DISTINCT foo FROM syn123");
+
+		// call under test
+		assertFalse(TableModelUtils.isIncrementalMaintenanceSupported(query));
+	}
+
+	@Test
+	public void testIsIncrementalMaintenanceSupportedWithAggregate() {
+		QueryExpression query = TableModelUtils.getQuerySpecification("SELECT COUNT(*) FROM syn123");
+
+		// call under test
+		assertFalse(TableModelUtils.isIncrementalMaintenanceSupported(query));
+	}
+
+	@Test
+	public void testIsIncrementalMaintenanceSupportedWithGroupBy() {
+		QueryExpression query = TableModelUtils.getQuerySpecification("SELECT foo FROM syn123 GROUP BY foo");
+
+		// call under test
+		assertFalse(TableModelUtils.isIncrementalMaintenanceSupported(query));
+	}
+
+	@Test
+	public void testIsIncrementalMaintenanceSupportedWithPagination() {
+		QueryExpression query = TableModelUtils.getQuerySpecification("SELECT * FROM syn123 LIMIT 10");
+
+		// call under test
+		assertFalse(TableModelUtils.isIncrementalMaintenanceSupported(query));
+	}
+
+	@Test
+	public void testIsIncrementalMaintenanceSupportedWithUnion() {
+		QueryExpression query = TableModelUtils.getQuerySpecification("SELECT foo FROM syn123 UNION SELECT foo FROM syn456");
+
+		// call under test
+		assertFalse(TableModelUtils.isIncrementalMaintenanceSupported(query));
+	}
+
+	@Test
+	public void testIsIncrementalMaintenanceSupportedWithTimeFunction() {
+		QueryExpression query = TableModelUtils.getQuerySpecification("SELECT foo, NOW() FROM syn123");
+
+		// call under test
+		assertFalse(TableModelUtils.isIncrementalMaintenanceSupported(query));
+	}
 }
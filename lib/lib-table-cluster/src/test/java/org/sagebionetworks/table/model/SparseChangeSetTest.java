@@ -10,6 +10,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -24,6 +25,7 @@ import org.sagebionetworks.repo.model.dbo.dao.table.TableModelTestUtils;
 import org.sagebionetworks.repo.model.table.ColumnModel;
 import org.sagebionetworks.repo.model.table.ColumnType;
 import org.sagebionetworks.repo.model.table.SparseChangeSetDto;
+import org.sagebionetworks.repo.model.table.SparseRowDto;
 import org.sagebionetworks.repo.web.NotFoundException;
 import org.sagebionetworks.schema.adapter.JSONObjectAdapterException;
 
@@ -120,6 +122,41 @@ public class SparseChangeSetTest {
 		
 	}
 	
+	@Test
+	public void testCreateWithRowsValidated(){
+		SparseRowDto row = new SparseRowDto();
+		row.setRowId(1L);
+		row.setValues(new HashMap<>());
+		row.getValues().put(booleanColumn.getId(), "TRUE");
+		row.getValues().put(doubleColumn.getId(), "");
+		
+		// call under test
+		changeSet = new SparseChangeSet("syn123", schema, Collections.singletonList(row), "etag");
+		
+		SparseRow sparse = changeSet.rowIterator().iterator().next();
+		assertEquals("true", sparse.getCellValue(booleanColumn.getId()));
+		assertNull(sparse.getCellValue(doubleColumn.getId()));
+	}
+	
+	@Test
+	public void testCreateWithRowsValuesAlreadyValidated(){
+		SparseRowDto row = new SparseRowDto();
+		row.setRowId(1L);
+		row.setValues(new HashMap<>());
+		row.getValues().put(booleanColumn.getId(), "TRUE");
+		row.getValues().put(doubleColumn.getId(), "");
+		
+		// call under test
+		changeSet = new SparseChangeSet("syn123", schema, Collections.singletonList(row), "etag", true);
+		
+		SparseRow sparse = changeSet.rowIterator().iterator().next();
+		// The values are not processed again
+		assertEquals(Long.valueOf(1L), sparse.getRowId());
+		assertEquals("TRUE", sparse.getCellValue(booleanColumn.getId()));
+		assertEquals("", sparse.getCellValue(doubleColumn.getId()));
+		assertFalse(sparse.hasCellValue(stringColumn.getId()));
+	}
+	
 	/**
 	 * Only strings can have empty values
 	 */
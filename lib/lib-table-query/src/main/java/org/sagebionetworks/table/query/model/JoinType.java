@@ -1,5 +1,7 @@
 package org.sagebionetworks.table.query.model;
 
+import java.util.Optional;
+
 /**
  * From &ltjoin type&gt in:
  * <a href="https://github.com/ronsavage/SQL/blob/master/sql-92.bnf">SQL-92</a>
@@ -33,6 +35,13 @@ public class JoinType extends LeafElement {
 		this(outerJoinType, false);
 	}
 
+	/**
+	 * @return The type of outer join, {@link Optional#empty()} for an inner join
+	 */
+	public Optional<OuterJoinType> getOuterJoinType() {
+		return Optional.ofNullable(outerJoinType);
+	}
+
 	@Override
 	public void toSql(StringBuilder builder, ToSqlParameters parameters) {
 		if (this.explictInner) {
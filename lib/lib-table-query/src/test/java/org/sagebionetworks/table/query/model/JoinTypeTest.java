@@ -2,6 +2,8 @@ package org.sagebionetworks.table.query.model;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.Optional;
+
 import org.junit.jupiter.api.Test;
 import org.sagebionetworks.table.query.TableQueryParser;
 
@@ -45,4 +47,16 @@ class JoinTypeTest {
 		joinType.toSql(builder, new ToSqlParameters(false));
 		assertEquals("LEFT", builder.toString());
 	}
+
+	@Test
+	public void testGetOuterJoinTypeWithInnerJoin() throws Exception {
+		JoinType joinType = new TableQueryParser("inner").joinType();
+		assertEquals(Optional.empty(), joinType.getOuterJoinType());
+	}
+
+	@Test
+	public void testGetOuterJoinTypeWithOuterJoin() throws Exception {
+		JoinType joinType = new TableQueryParser("left outer").joinType();
+		assertEquals(Optional.of(OuterJoinType.LEFT), joinType.getOuterJoinType());
+	}
 }
\ No newline at end of file
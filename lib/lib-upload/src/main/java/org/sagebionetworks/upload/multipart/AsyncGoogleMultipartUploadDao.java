@@ -69,6 +69,12 @@ public class AsyncGoogleMultipartUploadDao implements CloudServiceMultipartUploa
 		throw new UnsupportedOperationException(GoogleUtils.UNSUPPORTED_COPY_MSG);
 	}
 
+	@Override
+	public PresignedUrl createPartUploadDirectPresignedUrl(CompositeMultipartUploadStatus status, long partNumber,
+			String partMD5Hex, String contentType) {
+		throw new UnsupportedOperationException(GoogleUtils.UNSUPPORTED_DIRECT_UPLOAD_MSG);
+	}
+
 	@TransactionNotSupported
 	@Override
 	public void validateAndAddPart(AddPartRequest request) {
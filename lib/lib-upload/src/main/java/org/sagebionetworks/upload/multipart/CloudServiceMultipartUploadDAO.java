@@ -52,6 +52,18 @@ public interface CloudServiceMultipartUploadDAO {
 	 */
 	PresignedUrl createPartUploadCopyPresignedUrl(CompositeMultipartUploadStatus status, long partNumber, String contentType);
 	
+	/**
+	 * Creates a pre-signed URL to upload a part directly to the multi-part upload, without going through a temporary part
+	 * file. The URL is signed with the MD5 of the part so that the part is rejected if its content does not match.
+	 * 
+	 * @param status
+	 * @param partNumber
+	 * @param partMD5Hex The MD5 of the part, as an hexadecimal string
+	 * @param contentType Optional parameter.
+	 * @return
+	 */
+	PresignedUrl createPartUploadDirectPresignedUrl(CompositeMultipartUploadStatus status, long partNumber, String partMD5Hex, String contentType);
+	
 	/**
 	 * Add a part to a multi-part upload. This call may delete the temporary part file, depending on implementation.
 	 * @param request
@@ -65,6 +65,11 @@ public class GoogleCloudStorageMultipartUploadDAOImpl implements CloudServiceMul
 	public PresignedUrl createPartUploadCopyPresignedUrl(CompositeMultipartUploadStatus status, long partNumber, String contentType) {
 		throw new UnsupportedOperationException(GoogleUtils.UNSUPPORTED_COPY_MSG);
 	}
+	
+	@Override
+	public PresignedUrl createPartUploadDirectPresignedUrl(CompositeMultipartUploadStatus status, long partNumber, String partMD5Hex, String contentType) {
+		throw new UnsupportedOperationException(GoogleUtils.UNSUPPORTED_DIRECT_UPLOAD_MSG);
+	}
 
 	@WriteTransaction
 	@Override
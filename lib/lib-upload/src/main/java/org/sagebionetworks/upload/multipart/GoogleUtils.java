@@ -8,6 +8,8 @@ import com.google.cloud.storage.Blob;
 public class GoogleUtils {
 
 	public static final String UNSUPPORTED_COPY_MSG = "Copying from a Google Cloud Bucket is not supported yet.";
+	
+	public static final String UNSUPPORTED_DIRECT_UPLOAD_MSG = "Uploading a part directly to a Google Cloud Bucket is not supported.";
 
 	// 15 minutes
 	public static final int PRE_SIGNED_URL_EXPIRATION_MS = 15 * 1000 * 60;
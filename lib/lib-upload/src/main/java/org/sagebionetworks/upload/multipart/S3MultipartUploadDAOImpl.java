@@ -26,6 +26,7 @@ import org.sagebionetworks.repo.model.file.PartUtils;
 import org.sagebionetworks.repo.model.file.S3FileHandle;
 import org.sagebionetworks.repo.model.project.StorageLocationSetting;
 import org.sagebionetworks.util.ContentDispositionUtils;
+import org.sagebionetworks.util.ValidateArgument;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.amazonaws.HttpMethod;
@@ -251,6 +252,42 @@ public class S3MultipartUploadDAOImpl implements CloudServiceMultipartUploadDAO
 		return presignedUrl;
 	}
 	
+	@Override
+	public PresignedUrl createPartUploadDirectPresignedUrl(CompositeMultipartUploadStatus status, long partNumber, String partMD5Hex, String contentType) {
+		ValidateArgument.required(status, "The status");
+		ValidateArgument.requiredNotBlank(partMD5Hex, "The part MD5");
+		
+		final long expiration = System.currentTimeMillis() + PRE_SIGNED_URL_EXPIRATION_MS;
+		
+		// The part is uploaded straight into the multipart upload, so it does not need to be copied and deleted when added
+		GeneratePresignedUrlRequest request = new GeneratePresignedUrlRequest(status.getBucket(), status.getKey())
+				.withMethod(HttpMethod.PUT)
+				.withExpiration(new Date(expiration));
+		
+		request.addRequestParameter(S3_PARAM_PART_NUMBER, String.valueOf(partNumber));
+		request.addRequestParameter(S3_PARAM_UPLOAD_ID, status.getUploadToken());
+		
+		// S3 will reject the part if its content does not match the MD5
+		String contentMD5 = BinaryUtils.toBase64(BinaryUtils.fromHex(partMD5Hex));
+		
+		request.setContentMd5(contentMD5);
+		
+		PresignedUrl presignedUrl = new PresignedUrl();
+		
+		presignedUrl.withSignedHeader(HttpHeaders.CONTENT_MD5, contentMD5);
+		
+		if (StringUtils.isNotEmpty(contentType)) {
+			request.setContentType(contentType);
+			presignedUrl.withSignedHeader(HttpHeaders.CONTENT_TYPE, contentType);
+		}
+		
+		URL url = s3Client.generatePresignedUrl(request);
+
+		presignedUrl.withUrl(url);
+		
+		return presignedUrl;
+	}
+	
 	String getCopySourceKeyHeader(String bucket, String key) {
 		return SdkHttpUtils.urlEncode(bucket, true) + "/" + SdkHttpUtils.urlEncode(key, true);
 	}
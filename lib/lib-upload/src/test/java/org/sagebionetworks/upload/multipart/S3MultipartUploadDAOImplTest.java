@@ -611,6 +611,97 @@ public class S3MultipartUploadDAOImplTest {
 		
 	}
 	
+	@Test
+	public void testCreatePartUploadDirectPresignedUrl() throws MalformedURLException {
+		long partNumber = 2;
+		String partMD5Hex = "8356accbaa8bfc6ddc6c612224c6c9b3";
+		String contentType = "plain/text";
+		
+		CompositeMultipartUploadStatus status = new CompositeMultipartUploadStatus();
+		
+		status.setUploadToken(uploadId);
+		status.setBucket(bucket);
+		status.setKey(key);
+		
+		URL url = new URL("http", "amazon.com", bucket + "/" + key);
+		
+		when(mockS3Client.generatePresignedUrl(any())).thenReturn(url);
+		
+		// Call under test
+		PresignedUrl result = dao.createPartUploadDirectPresignedUrl(status, partNumber, partMD5Hex, contentType);
+		
+		assertEquals(url, result.getUrl());
+		
+		Map<String, String> expectedSignedHeaders = ImmutableMap.of(
+				"Content-MD5", "g1asy6qL/G3cbGEiJMbJsw==",
+				"Content-Type", contentType
+		);
+		
+		assertEquals(expectedSignedHeaders, result.getSignedHeaders());
+		
+		ArgumentCaptor<GeneratePresignedUrlRequest> captor = ArgumentCaptor.forClass(GeneratePresignedUrlRequest.class);
+		
+		verify(mockS3Client).generatePresignedUrl(captor.capture());
+		
+		GeneratePresignedUrlRequest request = captor.getValue();
+		
+		assertEquals(bucket, request.getBucketName());
+		assertEquals(key, request.getKey());
+		assertEquals(HttpMethod.PUT, request.getMethod());
+		assertEquals(contentType, request.getContentType());
+		assertEquals("g1asy6qL/G3cbGEiJMbJsw==", request.getContentMd5());
+		assertNotNull(request.getExpiration());
+		
+		assertEquals(ImmutableMap.of(
+				"partNumber", String.valueOf(partNumber),
+				"uploadId", uploadId
+		), request.getRequestParameters());
+		
+		// Nothing is copied or deleted
+		verifyNoMoreInteractions(mockS3Client);
+	}
+	
+	@Test
+	public void testCreatePartUploadDirectPresignedUrlWithNoContentType() throws MalformedURLException {
+		long partNumber = 2;
+		String partMD5Hex = "8356accbaa8bfc6ddc6c612224c6c9b3";
+		String contentType = null;
+		
+		CompositeMultipartUploadStatus status = new CompositeMultipartUploadStatus();
+		
+		status.setUploadToken(uploadId);
+		status.setBucket(bucket);
+		status.setKey(key);
+		
+		URL url = new URL("http", "amazon.com", bucket + "/" + key);
+		
+		when(mockS3Client.generatePresignedUrl(any())).thenReturn(url);
+		
+		// Call under test
+		PresignedUrl result = dao.createPartUploadDirectPresignedUrl(status, partNumber, partMD5Hex, contentType);
+		
+		assertEquals(url, result.getUrl());
+		assertEquals(ImmutableMap.of("Content-MD5", "g1asy6qL/G3cbGEiJMbJsw=="), result.getSignedHeaders());
+	}
+	
+	@Test
+	public void testCreatePartUploadDirectPresignedUrlWithNoMD5() {
+		long partNumber = 2;
+		String partMD5Hex = null;
+		String contentType = null;
+		
+		CompositeMultipartUploadStatus status = new CompositeMultipartUploadStatus();
+		
+		String errorMessage = assertThrows(IllegalArgumentException.class, () -> {
+			// Call under test
+			dao.createPartUploadDirectPresignedUrl(status, partNumber, partMD5Hex, contentType);
+		}).getMessage();
+		
+		assertEquals("The part MD5 is required and must not be the empty string.", errorMessage);
+		
+		verifyZeroInteractions(mockS3Client);
+	}
+	
 	@Test
 	public void testCreatePartUploadCopyPresignedUrlWithNoSourceFile() {
 
@@ -0,0 +1,153 @@
+package org.sagebionetworks.util.csv;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+import org.sagebionetworks.util.ValidateArgument;
+
+/**
+ * Splits a CSV stream into the raw text of its records without parsing the
+ * values, so that the records can be parsed independently of each other (e.g.
+ * concurrently).
+ * <p>
+ * A record ends at the first line break that is not inside a quoted value. The
+ * quotes are tracked the same way the {@link au.com.bytecode.opencsv.CSVParser}
+ * does: escaped and doubled quotes are skipped both inside a quoted value and
+ * inside an unquoted field that already started. The lines of a record that
+ * spans multiple lines are joined with a '\n' as the
+ * {@link au.com.bytecode.opencsv.CSVReader} does, so parsing the raw text of a
+ * record with a CSVParser that uses the same separator, quote and escape
+ * characters yields the same values that the CSVReader would read.
+ *
+ */
+public class CSVRecordSplitter implements Closeable {
+
+	private final BufferedReader reader;
+	private final char separator;
+	private final char quotechar;
+	private final char escape;
+	private long lineNumber;
+	// True if the scan is inside a field, mirrors the inField flag of the CSVParser
+	private boolean inField;
+
+	/**
+	 * @param reader    The CSV stream, closed by {@link #close()}
+	 * @param separator
+	 * @param quotechar
+	 * @param escape
+	 */
+	public CSVRecordSplitter(Reader reader, char separator, char quotechar, char escape) {
+		ValidateArgument.required(reader, "reader");
+		this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+		this.separator = separator;
+		this.quotechar = quotechar;
+		this.escape = escape;
+		this.lineNumber = 0;
+	}
+
+	/**
+	 * @return The next record of the stream or null if the end of the stream was
+	 *         reached. If the stream ends inside a quoted value the last record
+	 *         includes everything up to the end of the stream
+	 * @throws IOException
+	 */
+	public CSVRecord next() throws IOException {
+		String line = reader.readLine();
+		if (line == null) {
+			return null;
+		}
+		long recordLineNumber = ++lineNumber;
+		// Each record starts outside of any field
+		inField = false;
+		boolean inQuotes = endsInQuotes(line, false);
+		if (!inQuotes) {
+			return new CSVRecord(recordLineNumber, line);
+		}
+		StringBuilder builder = new StringBuilder(line);
+		while (inQuotes && (line = reader.readLine()) != null) {
+			lineNumber++;
+			builder.append('\n').append(line);
+			inQuotes = endsInQuotes(line, true);
+		}
+		return new CSVRecord(recordLineNumber, builder.toString());
+	}
+
+	/**
+	 * @return The number of lines read so far
+	 */
+	public long getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * Scans the given line of the current record, the field state is carried
+	 * over to the following line of the same record.
+	 * 
+	 * @param line
+	 * @param inQuotes True if the line starts inside a quoted value
+	 * @return True if the given line ends inside a quoted value
+	 */
+	boolean endsInQuotes(String line, boolean inQuotes) {
+		int length = line.length();
+		for (int i = 0; i < length; i++) {
+			char c = line.charAt(i);
+			boolean hasNext = i + 1 < length;
+			if (c == escape) {
+				if ((inQuotes || inField) && hasNext && (line.charAt(i + 1) == quotechar || line.charAt(i + 1) == escape)) {
+					// Escaped quote or escape character
+					i++;
+				}
+			} else if (c == quotechar) {
+				if ((inQuotes || inField) && hasNext && line.charAt(i + 1) == quotechar) {
+					// Doubled quote
+					i++;
+				} else {
+					inQuotes = !inQuotes;
+				}
+				inField = !inField;
+			} else if (c == separator && !inQuotes) {
+				inField = false;
+			} else {
+				inField = true;
+			}
+		}
+		return inQuotes;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	/**
+	 * The raw text of a single CSV record.
+	 */
+	public static class CSVRecord {
+
+		private final long lineNumber;
+		private final String text;
+
+		public CSVRecord(long lineNumber, String text) {
+			this.lineNumber = lineNumber;
+			this.text = text;
+		}
+
+		/**
+		 * @return The number of the line (starting at 1) where the record starts
+		 */
+		public long getLineNumber() {
+			return lineNumber;
+		}
+
+		/**
+		 * @return The raw text of the record
+		 */
+		public String getText() {
+			return text;
+		}
+
+	}
+
+}
@@ -0,0 +1,122 @@
+package org.sagebionetworks.util.csv;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.sagebionetworks.util.csv.CSVRecordSplitter.CSVRecord;
+
+import au.com.bytecode.opencsv.CSVParser;
+import au.com.bytecode.opencsv.CSVReader;
+
+public class CSVRecordSplitterTest {
+
+	@Test
+	public void testNext() throws IOException {
+		CSVRecordSplitter splitter = new CSVRecordSplitter(new StringReader("foo,bar\n1,2\r\n3,4"), ',', '"', '\\');
+		assertRecord(1, "foo,bar", splitter.next());
+		assertRecord(2, "1,2", splitter.next());
+		assertRecord(3, "3,4", splitter.next());
+		assertNull(splitter.next());
+		assertEquals(3, splitter.getLineNumber());
+	}
+
+	@Test
+	public void testNextWithMultiLineValue() throws IOException {
+		CSVRecordSplitter splitter = new CSVRecordSplitter(new StringReader("\"a\nb\",\"c\r\n\nd\"\n1,2"), ',', '"', '\\');
+		assertRecord(1, "\"a\nb\",\"c\n\nd\"", splitter.next());
+		assertRecord(5, "1,2", splitter.next());
+		assertNull(splitter.next());
+	}
+
+	@Test
+	public void testNextWithEscapedQuotes() throws IOException {
+		CSVRecordSplitter splitter = new CSVRecordSplitter(new StringReader("\"a\"\"\nb\",\"c\\\"\nd\"\n1,2"), ',', '"', '\\');
+		assertRecord(1, "\"a\"\"\nb\",\"c\\\"\nd\"", splitter.next());
+		assertRecord(4, "1,2", splitter.next());
+		assertNull(splitter.next());
+	}
+
+	@Test
+	public void testNextWithUnterminatedQuote() throws IOException {
+		CSVRecordSplitter splitter = new CSVRecordSplitter(new StringReader("1,2\n\"a\nb"), ',', '"', '\\');
+		assertRecord(1, "1,2", splitter.next());
+		assertRecord(2, "\"a\nb", splitter.next());
+		assertNull(splitter.next());
+	}
+
+	@Test
+	public void testEndsInQuotes() {
+		CSVRecordSplitter splitter = new CSVRecordSplitter(new StringReader(""), ',', '\'', '|');
+		assertFalse(splitter.endsInQuotes("'a','b'", false));
+		assertTrue(splitter.endsInQuotes("'a','b", false));
+		assertTrue(splitter.endsInQuotes("a|'", true));
+		assertFalse(splitter.endsInQuotes("a''b'", true));
+		assertFalse(splitter.endsInQuotes("", false));
+		assertTrue(splitter.endsInQuotes("", true));
+	}
+
+	@Test
+	public void testNextWithEscapedQuoteInUnquotedField() throws IOException {
+		// The escaped quote is part of an unquoted field that already started, it does not open a quoted value
+		String csv = "ab\\\"c,d\n1,2";
+		CSVRecordSplitter splitter = new CSVRecordSplitter(new StringReader(csv), ',', '"', '\\');
+		assertRecord(1, "ab\\\"c,d", splitter.next());
+		assertRecord(2, "1,2", splitter.next());
+		assertNull(splitter.next());
+		assertSameAsCSVReader(csv);
+	}
+
+	@Test
+	public void testNextWithQuotesInUnquotedField() throws IOException {
+		String csv = "ab\"\"c,\"d\ne\"\nx\"\"\"y\nz\"\n1,2";
+		CSVRecordSplitter splitter = new CSVRecordSplitter(new StringReader(csv), ',', '"', '\\');
+		assertRecord(1, "ab\"\"c,\"d\ne\"", splitter.next());
+		// The doubled quote is skipped and the third one opens a quoted value
+		assertRecord(3, "x\"\"\"y\nz\"", splitter.next());
+		assertRecord(5, "1,2", splitter.next());
+		assertNull(splitter.next());
+		assertSameAsCSVReader(csv);
+	}
+
+	@Test
+	public void testEndsInQuotesWithUnquotedField() {
+		CSVRecordSplitter splitter = new CSVRecordSplitter(new StringReader(""), ',', '\'', '|');
+		// Inside a field the escape applies outside of quotes as well
+		assertFalse(splitter.endsInQuotes("a|'b", false));
+		// After a separator the next field did not start yet, the escape does not apply and the quote opens a value
+		assertTrue(splitter.endsInQuotes("a,|'b", false));
+	}
+
+	/**
+	 * Parsing each record with a CSVParser yields the same rows of the CSVReader
+	 */
+	private static void assertSameAsCSVReader(String csv) throws IOException {
+		List<String[]> expected = new CSVReader(new StringReader(csv)).readAll();
+		List<String[]> actual = new ArrayList<>();
+		try (CSVRecordSplitter splitter = new CSVRecordSplitter(new StringReader(csv), ',', '"', '\\')) {
+			CSVRecord record;
+			while ((record = splitter.next()) != null) {
+				actual.add(new CSVParser().parseLine(record.getText()));
+			}
+		}
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertArrayEquals(expected.get(i), actual.get(i));
+		}
+	}
+
+	private static void assertRecord(long expectedLineNumber, String expectedText, CSVRecord record) {
+		assertEquals(expectedLineNumber, record.getLineNumber());
+		assertEquals(expectedText, record.getText());
+	}
+
+}
@@ -91,6 +91,25 @@ public interface ConcurrentManager {
 	 */
 	List<WorkerJob> pollForMessagesAndStartJobs(String queueUrl, int maxNumberOfMessages,
 			int messageVisibilityTimeoutSec, MessageDrivenRunner worker);
+
+	/**
+	 * Same as
+	 * {@link #pollForMessagesAndStartJobs(String, int, int, MessageDrivenRunner)}
+	 * but allows the receive to long-poll the queue. A long-poll will block for up
+	 * to the provided wait time until at least one message is available.
+	 * 
+	 * @param queueUrl
+	 * @param maxNumberOfMessages
+	 * @param messageVisibilityTimeoutSec
+	 * @param waitTimeSeconds             The maximum number of seconds the receive
+	 *                                    will wait for a message to arrive. Zero
+	 *                                    for a short-poll. Note: The current AWS
+	 *                                    limit for the wait time is 20 seconds.
+	 * @param worker
+	 * @return
+	 */
+	List<WorkerJob> pollForMessagesAndStartJobs(String queueUrl, int maxNumberOfMessages,
+			int messageVisibilityTimeoutSec, int waitTimeSeconds, MessageDrivenRunner worker);
 	
 	/**
 	 * Allows the client to be shared with the rest of the stack.
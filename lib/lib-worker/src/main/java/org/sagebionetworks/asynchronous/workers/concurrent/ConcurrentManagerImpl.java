@@ -26,6 +26,10 @@ import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
 public class ConcurrentManagerImpl implements ConcurrentManager {
 
 	private static final int TWO_SECONDS = 2;
+	/**
+	 * The AWS limit for the wait time of a long-poll receive.
+	 */
+	public static final int MAX_WAIT_TIME_SECONDS = 20;
 	private static final Log log = LogFactory.getLog(ConcurrentWorkerStack.class);
 
 	private final CountingSemaphore countingSemaphore;
@@ -107,6 +111,12 @@ public class ConcurrentManagerImpl implements ConcurrentManager {
 	@Override
 	public List<WorkerJob> pollForMessagesAndStartJobs(String queueUrl, int maxNumberOfMessages,
 			int messageVisibilityTimeoutSec, MessageDrivenRunner worker) {
+		return pollForMessagesAndStartJobs(queueUrl, maxNumberOfMessages, messageVisibilityTimeoutSec, 0, worker);
+	}
+
+	@Override
+	public List<WorkerJob> pollForMessagesAndStartJobs(String queueUrl, int maxNumberOfMessages,
+			int messageVisibilityTimeoutSec, int waitTimeSeconds, MessageDrivenRunner worker) {
 		ValidateArgument.required(queueUrl, "queueUrl");
 		ValidateArgument.required(worker, "worker");
 		ValidateArgument.requirement(maxNumberOfMessages >= 1,
@@ -115,10 +125,13 @@ public class ConcurrentManagerImpl implements ConcurrentManager {
 				"maxNumberOfMessages must be less than or equals to 10.");
 		ValidateArgument.requirement(messageVisibilityTimeoutSec >= 10,
 				"messageVisibilityTimeoutSec must be greater than or equals to 10.");
+		ValidateArgument.requirement(waitTimeSeconds >= 0, "waitTimeSeconds must be greater than or equals to 0.");
+		ValidateArgument.requirement(waitTimeSeconds <= MAX_WAIT_TIME_SECONDS,
+				"waitTimeSeconds must be less than or equals to " + MAX_WAIT_TIME_SECONDS + ".");
 
 		// Poll for the requested number of messages.
 		List<Message> messages = amazonSQSClient.receiveMessage(new ReceiveMessageRequest().withQueueUrl(queueUrl)
-				.withWaitTimeSeconds(0).withMaxNumberOfMessages(maxNumberOfMessages)
+				.withWaitTimeSeconds(waitTimeSeconds).withMaxNumberOfMessages(maxNumberOfMessages)
 				.withVisibilityTimeout(messageVisibilityTimeoutSec)).getMessages();
 		// For each message start a new job.
 		return messages.stream().map((message) -> {
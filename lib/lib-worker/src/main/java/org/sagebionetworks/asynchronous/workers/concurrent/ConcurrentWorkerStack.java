@@ -46,6 +46,13 @@ public class ConcurrentWorkerStack implements Runnable {
 	
 	static final long MAX_WAIT_TIME = 1000;
 	static final long MIN_WAIT_TIME = 50;
+	
+	/**
+	 * The upper limit for the long-poll wait time of a single receive. This is
+	 * also bounded by the lock refresh frequency, since the stack cannot refresh
+	 * its locks while blocked on a receive.
+	 */
+	static final int MAX_LONG_POLL_WAIT_TIME_SEC = ConcurrentManagerImpl.MAX_WAIT_TIME_SECONDS;
 
 	private static final Log log = LogFactory.getLog(ConcurrentWorkerStack.class);	
 
@@ -60,6 +67,7 @@ public class ConcurrentWorkerStack implements Runnable {
 
 	// derived parameters
 	private final int lockRefreshFrequencyMS;
+	private final int maxPollWaitTimeSec;
 	private final String queueUrl;
 
 	// local state
@@ -67,6 +75,11 @@ public class ConcurrentWorkerStack implements Runnable {
 	private StackState state;
 	private ConcurrentProgressCallback lockCallback;
 	private List<WorkerJob> runningJobs;
+	// adaptive polling state
+	private int nextPollWaitTimeSec;
+	private int lastPollWaitTimeSec;
+	private long receiveCount;
+	private long emptyReceiveCount;
 	
 	/**
 	 * Empty constructor needed by Spring to create a proxy for this class.
@@ -80,6 +93,7 @@ public class ConcurrentWorkerStack implements Runnable {
 		maxThreadsPerMachine = -1;
 		worker = null;
 		lockRefreshFrequencyMS = -1;
+		maxPollWaitTimeSec = -1;
 		queueUrl = null;
 	};
 
@@ -109,6 +123,8 @@ public class ConcurrentWorkerStack implements Runnable {
 		this.maxThreadsPerMachine = maxThreadsPerMachine;
 		this.worker = worker;
 		this.lockRefreshFrequencyMS = (semaphoreLockAndMessageVisibilityTimeoutSec * 1000) / 3;
+		// Wait no more than half of the refresh period so locks are refreshed on time.
+		this.maxPollWaitTimeSec = Math.min(MAX_LONG_POLL_WAIT_TIME_SEC, lockRefreshFrequencyMS / 2000);
 		this.queueUrl = manager.getSqsQueueUrl(queueName);
 	}
 
@@ -144,10 +160,11 @@ public class ConcurrentWorkerStack implements Runnable {
 			
 			// To avoid throttling the amount of messages consumed per second we switch 
 			// to a smaller wait between polls when new threads are added to the pool 
-			// (e.g. messages were available in the queue)
+			// (e.g. messages were available in the queue) or when the last receive 
+			// already waited on the queue (long-poll).
 			// If no worker are added (e.g. we reached capacity or no messages available)
 			// we can wait a bit longer to avoid flooding SQS with requests.
-			long waitTimeMs = newWorkersAdded ? MIN_WAIT_TIME : MAX_WAIT_TIME;
+			long waitTimeMs = newWorkersAdded || lastPollWaitTimeSec > 0 ? MIN_WAIT_TIME : MAX_WAIT_TIME;
 			
 			try {
 				manager.sleep(waitTimeMs);
@@ -165,6 +182,9 @@ public class ConcurrentWorkerStack implements Runnable {
 		state = StackState.CONTINUE;
 		runningJobs = new ArrayList<>(semaphoreMaxLockCount);
 		lockCallback = new ConcurrentProgressCallback(semaphoreLockAndMessageVisibilityTimeoutSec);
+		nextPollWaitTimeSec = 0;
+		lastPollWaitTimeSec = 0;
+		resetPollStatistics();
 		resetNextRefreshTimeMS();
 	}
 
@@ -238,24 +258,78 @@ public class ConcurrentWorkerStack implements Runnable {
 	 * Attempt to add new workers while remaining under the maxThreadsPerMachine.
 	 * Note: Since AWS SQS has a limit of of 10 messages per
 	 * {@link AmazonSQSClient#receiveMessage(com.amazonaws.services.sqs.model.ReceiveMessageRequest)},
-	 * no more than 10 worker threads will be started per call.
+	 * each receive is sized to the free capacity up to 10 messages. Receives are
+	 * repeated while they return full batches and capacity remains.
+	 * <p>
+	 * The wait time of each receive adapts to the queue: each empty receive
+	 * doubles the long-poll wait time (up to the maximum), while any received
+	 * message resets it to a short-poll.
 	 * 
 	 * @return True if new work was added to the pool, false otherwise
 	 */
 	boolean attemptToAddMoreWorkers() {
+		lastPollWaitTimeSec = 0;
 		if (!canProcessMoreMessages()) {
 			return false;
 		}
-		int maxNumberOfMessagesToRecieve = Math.min(MAX_MESSAGES_PER_REQUEST,
-				maxThreadsPerMachine - runningJobs.size());
-		if (maxNumberOfMessagesToRecieve < 1) {
-			return false;
+		boolean workersAdded = false;
+		while (true) {
+			int maxNumberOfMessagesToRecieve = Math.min(MAX_MESSAGES_PER_REQUEST,
+					maxThreadsPerMachine - runningJobs.size());
+			if (maxNumberOfMessagesToRecieve < 1) {
+				return workersAdded;
+			}
+			// Only wait on the queue if nothing was received during this call.
+			int waitTimeSec = workersAdded ? 0 : nextPollWaitTimeSec;
+			lastPollWaitTimeSec = waitTimeSec;
+			List<WorkerJob> newJobs = manager.pollForMessagesAndStartJobs(queueUrl, maxNumberOfMessagesToRecieve,
+					semaphoreLockAndMessageVisibilityTimeoutSec, waitTimeSec, worker);
+			receiveCount++;
+			if (newJobs.isEmpty()) {
+				emptyReceiveCount++;
+				nextPollWaitTimeSec = nextPollWaitTimeSec < 1 ? 1 : Math.min(maxPollWaitTimeSec, nextPollWaitTimeSec * 2);
+				return workersAdded;
+			}
+			// back off to short-polls as soon as there is work.
+			nextPollWaitTimeSec = 0;
+			workersAdded = true;
+			runningJobs.addAll(newJobs);
+			if (newJobs.size() < maxNumberOfMessagesToRecieve) {
+				// the queue is drained.
+				return true;
+			}
 		}
-
-		return runningJobs.addAll(manager.pollForMessagesAndStartJobs(queueUrl, maxNumberOfMessagesToRecieve,
-				semaphoreLockAndMessageVisibilityTimeoutSec, worker));
 	}
 	
+	/**
+	 * Log the ratio of empty receives since the last report at debug level,
+	 * since this runs on every refresh of every stack, and reset the
+	 * statistics.
+	 */
+	void reportPollStatistics() {
+		if (receiveCount > 0 && log.isDebugEnabled()) {
+			log.debug(String.format("Queue: '%s' empty receive ratio: %.2f (%d of %d receives), next wait time: %d sec",
+					queueUrl, getEmptyReceiveRatio(), emptyReceiveCount, receiveCount, nextPollWaitTimeSec));
+		}
+		resetPollStatistics();
+	}
+	
+	void resetPollStatistics() {
+		receiveCount = 0;
+		emptyReceiveCount = 0;
+	}
+	
+	/**
+	 * 
+	 * @return The fraction of the receives since the last report that did not
+	 *         return any message.
+	 */
+	double getEmptyReceiveRatio() {
+		if (receiveCount < 1) {
+			return 0.0;
+		}
+		return ((double) emptyReceiveCount) / receiveCount;
+	}
 	
 
 	/**
@@ -268,6 +342,7 @@ public class ConcurrentWorkerStack implements Runnable {
 			runningJobs.forEach(job -> {
 				job.getListener().progressMade();
 			});
+			reportPollStatistics();
 			resetNextRefreshTimeMS();
 		}
 	}
@@ -291,6 +366,26 @@ public class ConcurrentWorkerStack implements Runnable {
 	long getLockRefreshFrequencyMS() {
 		return lockRefreshFrequencyMS;
 	}
+	
+	int getMaxPollWaitTimeSec() {
+		return maxPollWaitTimeSec;
+	}
+	
+	int getNextPollWaitTimeSec() {
+		return nextPollWaitTimeSec;
+	}
+	
+	int getLastPollWaitTimeSec() {
+		return lastPollWaitTimeSec;
+	}
+	
+	long getReceiveCount() {
+		return receiveCount;
+	}
+	
+	long getEmptyReceiveCount() {
+		return emptyReceiveCount;
+	}
 
 	/**
 	 * Possible states for this stack.
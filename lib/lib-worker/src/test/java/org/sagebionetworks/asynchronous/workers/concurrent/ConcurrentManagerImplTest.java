@@ -363,6 +363,40 @@ public class ConcurrentManagerImplTest {
 		verify(manager).startWorkerJob(queueUrl, lockTimeoutSec, mockWorker, messages.get(1));
 	}
 
+	@Test
+	public void testPollForMessagesAndStartJobsWithWaitTime() {
+		int waitTimeSeconds = 20;
+		when(mockAmazonSQSClient.receiveMessage(any(ReceiveMessageRequest.class)))
+				.thenReturn(new ReceiveMessageResult().withMessages(Collections.emptyList()));
+
+		// call under test
+		List<WorkerJob> jobs = manager.pollForMessagesAndStartJobs(queueUrl, maxThreadCount, lockTimeoutSec,
+				waitTimeSeconds, mockWorker);
+		assertEquals(Collections.emptyList(), jobs);
+
+		verify(mockAmazonSQSClient).receiveMessage(new ReceiveMessageRequest().withQueueUrl(queueUrl)
+				.withWaitTimeSeconds(waitTimeSeconds).withMaxNumberOfMessages(maxThreadCount)
+				.withVisibilityTimeout(lockTimeoutSec));
+	}
+
+	@Test
+	public void testPollForMessagesAndStartJobsWithNegativeWaitTime() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			manager.pollForMessagesAndStartJobs(queueUrl, maxThreadCount, lockTimeoutSec, -1, mockWorker);
+		}).getMessage();
+		assertEquals("waitTimeSeconds must be greater than or equals to 0.", message);
+	}
+
+	@Test
+	public void testPollForMessagesAndStartJobsWithWaitTimeMoreThanTwenty() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			manager.pollForMessagesAndStartJobs(queueUrl, maxThreadCount, lockTimeoutSec, 21, mockWorker);
+		}).getMessage();
+		assertEquals("waitTimeSeconds must be less than or equals to 20.", message);
+	}
+
 	@Test
 	public void testPollForMessagesAndStartJobsWithNullUrl() {
 		queueUrl = null;
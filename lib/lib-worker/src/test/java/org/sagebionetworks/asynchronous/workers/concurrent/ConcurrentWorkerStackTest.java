@@ -597,7 +597,7 @@ public class ConcurrentWorkerStackTest {
 				new WorkerJob(futureTwo, mockProgressListenerTwo),
 				new WorkerJob(futureThree, mockProgressListenerThree));
 
-		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), any())).thenReturn(jobs);
+		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), anyInt(), any())).thenReturn(jobs);
 
 		// call under test
 		boolean result = stack.attemptToAddMoreWorkers();
@@ -609,7 +609,7 @@ public class ConcurrentWorkerStackTest {
 		verify(stack).canProcessMoreMessages();
 		int maxNumberOfMessages = maxThreadsPerMachine;
 		verify(mockManager).pollForMessagesAndStartJobs(queueUrl, maxNumberOfMessages,
-				semaphoreLockAndMessageVisibilityTimeoutSec, mockWorker);
+				semaphoreLockAndMessageVisibilityTimeoutSec, 0, mockWorker);
 
 	}
 	
@@ -624,7 +624,7 @@ public class ConcurrentWorkerStackTest {
 
 		List<WorkerJob> jobs = Collections.emptyList();
 
-		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), any())).thenReturn(jobs);
+		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), anyInt(), any())).thenReturn(jobs);
 
 		// call under test
 		boolean result = stack.attemptToAddMoreWorkers();
@@ -636,7 +636,7 @@ public class ConcurrentWorkerStackTest {
 		verify(stack).canProcessMoreMessages();
 		int maxNumberOfMessages = maxThreadsPerMachine;
 		verify(mockManager).pollForMessagesAndStartJobs(queueUrl, maxNumberOfMessages,
-				semaphoreLockAndMessageVisibilityTimeoutSec, mockWorker);
+				semaphoreLockAndMessageVisibilityTimeoutSec, 0, mockWorker);
 
 	}
 
@@ -657,7 +657,7 @@ public class ConcurrentWorkerStackTest {
 		stack.getRunningJobs().add(allJobs.get(0));
 
 		// three will get added
-		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), any()))
+		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), anyInt(), any()))
 				.thenReturn(List.of(allJobs.get(1), allJobs.get(2), allJobs.get(3)));
 
 		// call under test
@@ -670,7 +670,7 @@ public class ConcurrentWorkerStackTest {
 		verify(stack).canProcessMoreMessages();
 		int maxNumberOfMessages = 3;
 		verify(mockManager).pollForMessagesAndStartJobs(queueUrl, maxNumberOfMessages,
-				semaphoreLockAndMessageVisibilityTimeoutSec, mockWorker);
+				semaphoreLockAndMessageVisibilityTimeoutSec, 0, mockWorker);
 
 	}
 
@@ -689,7 +689,7 @@ public class ConcurrentWorkerStackTest {
 		doReturn(true).when(stack).canProcessMoreMessages();
 
 		// three will get added
-		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), any())).thenReturn(allJobs);
+		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), anyInt(), any())).thenReturn(allJobs);
 
 		// call under test
 		boolean result = stack.attemptToAddMoreWorkers();
@@ -701,7 +701,7 @@ public class ConcurrentWorkerStackTest {
 		verify(stack).canProcessMoreMessages();
 		int maxNumberOfMessages = 10;
 		verify(mockManager).pollForMessagesAndStartJobs(queueUrl, maxNumberOfMessages,
-				semaphoreLockAndMessageVisibilityTimeoutSec, mockWorker);
+				semaphoreLockAndMessageVisibilityTimeoutSec, 0, mockWorker);
 
 	}
 
@@ -720,7 +720,7 @@ public class ConcurrentWorkerStackTest {
 		doReturn(true).when(stack).canProcessMoreMessages();
 
 		// three will get added
-		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), any())).thenReturn(allJobs);
+		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), anyInt(), any())).thenReturn(allJobs);
 
 		// call under test
 		boolean result = stack.attemptToAddMoreWorkers();
@@ -732,7 +732,7 @@ public class ConcurrentWorkerStackTest {
 		verify(stack).canProcessMoreMessages();
 		int maxNumberOfMessages = 10;
 		verify(mockManager).pollForMessagesAndStartJobs(queueUrl, maxNumberOfMessages,
-				semaphoreLockAndMessageVisibilityTimeoutSec, mockWorker);
+				semaphoreLockAndMessageVisibilityTimeoutSec, 0, mockWorker);
 
 	}
 
@@ -759,7 +759,7 @@ public class ConcurrentWorkerStackTest {
 
 		verify(mockManager).getSqsQueueUrl(queueName);
 		assertEquals(allJobs, stack.getRunningJobs());
-		verify(mockManager, never()).pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), any());
+		verify(mockManager, never()).pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), anyInt(), any());
 	}
 
 	@Test
@@ -785,6 +785,142 @@ public class ConcurrentWorkerStackTest {
 
 		verify(mockManager).getSqsQueueUrl(queueName);
 		assertEquals(allJobs, stack.getRunningJobs());
-		verify(mockManager, never()).pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), any());
+		verify(mockManager, never()).pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), anyInt(), any());
+	}
+	
+	@Test
+	public void testMaxPollWaitTimeSec() {
+		when(mockManager.getSqsQueueUrl(any())).thenReturn(queueUrl);
+		semaphoreLockAndMessageVisibilityTimeoutSec = 30;
+		// half of the 10 second refresh period
+		assertEquals(5, createStack().getMaxPollWaitTimeSec());
+		semaphoreLockAndMessageVisibilityTimeoutSec = 300;
+		// limited by AWS
+		assertEquals(ConcurrentWorkerStack.MAX_LONG_POLL_WAIT_TIME_SEC, createStack().getMaxPollWaitTimeSec());
+	}
+	
+	@Test
+	public void testAttemptToAddMoreWorkersWithEmptyQueueGrowsWaitTime() {
+		maxThreadsPerMachine = 4;
+		when(mockManager.getSqsQueueUrl(any())).thenReturn(queueUrl);
+		ConcurrentWorkerStack stack = Mockito.spy(createStack());
+		stack.resetAllState();
+
+		doReturn(true).when(stack).canProcessMoreMessages();
+		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), anyInt(), any()))
+				.thenReturn(Collections.emptyList());
+
+		for (int i = 0; i < 5; i++) {
+			// call under test
+			assertFalse(stack.attemptToAddMoreWorkers());
+		}
+
+		verify(mockManager).pollForMessagesAndStartJobs(queueUrl, 4, semaphoreLockAndMessageVisibilityTimeoutSec, 0,
+				mockWorker);
+		verify(mockManager).pollForMessagesAndStartJobs(queueUrl, 4, semaphoreLockAndMessageVisibilityTimeoutSec, 1,
+				mockWorker);
+		verify(mockManager).pollForMessagesAndStartJobs(queueUrl, 4, semaphoreLockAndMessageVisibilityTimeoutSec, 2,
+				mockWorker);
+		verify(mockManager).pollForMessagesAndStartJobs(queueUrl, 4, semaphoreLockAndMessageVisibilityTimeoutSec, 4,
+				mockWorker);
+		verify(mockManager).pollForMessagesAndStartJobs(queueUrl, 4, semaphoreLockAndMessageVisibilityTimeoutSec, 5,
+				mockWorker);
+		assertEquals(5, stack.getNextPollWaitTimeSec());
+		assertEquals(5, stack.getLastPollWaitTimeSec());
+		assertEquals(5L, stack.getReceiveCount());
+		assertEquals(5L, stack.getEmptyReceiveCount());
+		assertEquals(1.0, stack.getEmptyReceiveRatio());
+	}
+	
+	@Test
+	public void testAttemptToAddMoreWorkersWithMessagesResetsWaitTime() {
+		maxThreadsPerMachine = 4;
+		when(mockManager.getSqsQueueUrl(any())).thenReturn(queueUrl);
+		ConcurrentWorkerStack stack = Mockito.spy(createStack());
+		stack.resetAllState();
+
+		doReturn(true).when(stack).canProcessMoreMessages();
+		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), anyInt(), any()))
+				.thenReturn(Collections.emptyList(), Collections.emptyList(),
+						List.of(new WorkerJob(futureOne, mockProgressListenerOne)));
+
+		assertFalse(stack.attemptToAddMoreWorkers());
+		assertFalse(stack.attemptToAddMoreWorkers());
+		assertEquals(2, stack.getNextPollWaitTimeSec());
+		// call under test
+		assertTrue(stack.attemptToAddMoreWorkers());
+		
+		assertEquals(0, stack.getNextPollWaitTimeSec());
+		assertEquals(2, stack.getLastPollWaitTimeSec());
+		assertEquals(3L, stack.getReceiveCount());
+		assertEquals(2L, stack.getEmptyReceiveCount());
+		assertEquals(2.0 / 3.0, stack.getEmptyReceiveRatio());
+		assertEquals(1, stack.getRunningJobs().size());
+	}
+	
+	@Test
+	public void testAttemptToAddMoreWorkersWithFullBatchesPollsAgain() {
+		maxThreadsPerMachine = 25;
+		when(mockManager.getSqsQueueUrl(any())).thenReturn(queueUrl);
+		ConcurrentWorkerStack stack = Mockito.spy(createStack());
+		stack.resetAllState();
+
+		doReturn(true).when(stack).canProcessMoreMessages();
+		List<WorkerJob> fullBatch = Collections.nCopies(10, new WorkerJob(futureOne, mockProgressListenerOne));
+		List<WorkerJob> partialBatch = Collections.nCopies(3, new WorkerJob(futureTwo, mockProgressListenerTwo));
+		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), anyInt(), any()))
+				.thenReturn(fullBatch, partialBatch);
+
+		// call under test
+		assertTrue(stack.attemptToAddMoreWorkers());
+
+		assertEquals(13, stack.getRunningJobs().size());
+		verify(mockManager, times(2)).pollForMessagesAndStartJobs(queueUrl, 10,
+				semaphoreLockAndMessageVisibilityTimeoutSec, 0, mockWorker);
+		assertEquals(2L, stack.getReceiveCount());
+		assertEquals(0L, stack.getEmptyReceiveCount());
+	}
+	
+	@Test
+	public void testAttemptToAddMoreWorkersWithFullBatchesUntilNoCapacity() {
+		maxThreadsPerMachine = 15;
+		when(mockManager.getSqsQueueUrl(any())).thenReturn(queueUrl);
+		ConcurrentWorkerStack stack = Mockito.spy(createStack());
+		stack.resetAllState();
+
+		doReturn(true).when(stack).canProcessMoreMessages();
+		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), anyInt(), any()))
+				.thenReturn(Collections.nCopies(10, new WorkerJob(futureOne, mockProgressListenerOne)),
+						Collections.nCopies(5, new WorkerJob(futureTwo, mockProgressListenerTwo)));
+
+		// call under test
+		assertTrue(stack.attemptToAddMoreWorkers());
+
+		assertEquals(15, stack.getRunningJobs().size());
+		verify(mockManager).pollForMessagesAndStartJobs(queueUrl, 10, semaphoreLockAndMessageVisibilityTimeoutSec, 0,
+				mockWorker);
+		verify(mockManager).pollForMessagesAndStartJobs(queueUrl, 5, semaphoreLockAndMessageVisibilityTimeoutSec, 0,
+				mockWorker);
+	}
+	
+	@Test
+	public void testReportPollStatistics() {
+		when(mockManager.getSqsQueueUrl(any())).thenReturn(queueUrl);
+		ConcurrentWorkerStack stack = Mockito.spy(createStack());
+		stack.resetAllState();
+		doReturn(true).when(stack).canProcessMoreMessages();
+		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), anyInt(), any()))
+				.thenReturn(Collections.emptyList());
+		stack.attemptToAddMoreWorkers();
+		assertEquals(1L, stack.getReceiveCount());
+		
+		// call under test
+		stack.reportPollStatistics();
+		
+		assertEquals(0L, stack.getReceiveCount());
+		assertEquals(0L, stack.getEmptyReceiveCount());
+		assertEquals(0.0, stack.getEmptyReceiveRatio());
+		// the wait time is not reset by the report
+		assertEquals(1, stack.getNextPollWaitTimeSec());
 	}
 }
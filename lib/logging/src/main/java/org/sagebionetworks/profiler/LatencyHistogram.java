@@ -0,0 +1,130 @@
+package org.sagebionetworks.profiler;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram with a log-linear bucket layout similar to an HDR histogram: values below {@link #SUB_BUCKET_COUNT} have
+ * their own bucket, larger values are split in power of two ranges each divided in {@link #SUB_BUCKET_COUNT} linear sub-buckets. The
+ * relative error of a recorded value is therefore bounded by 1/{@link #SUB_BUCKET_COUNT} (about 3%) while the memory used is fixed and
+ * small (about 7KB), so that a histogram can be kept for every profiled method.
+ * <p>
+ * Recording a value is a few atomic increments and never blocks, so a single instance can be shared by all the threads that call the same
+ * method. Values are expected in microseconds, values greater than {@link #HIGHEST_TRACKABLE_VALUE} are recorded as the highest trackable
+ * value.
+ */
+public class LatencyHistogram {
+
+	static final int SUB_BUCKET_BITS = 5;
+	static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	/**
+	 * One hour in microseconds.
+	 */
+	public static final long HIGHEST_TRACKABLE_VALUE = 60L * 60L * 1000L * 1000L;
+
+	static final int BUCKET_COUNT = bucketIndex(HIGHEST_TRACKABLE_VALUE) + 1;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final LongAdder totalCount = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+	private final AtomicLong max = new AtomicLong(0L);
+
+	/**
+	 * Record a single value.
+	 *
+	 * @param value The value in microseconds, negative values are recorded as zero.
+	 */
+	public void recordValue(long value) {
+		long clamped = Math.min(Math.max(value, 0L), HIGHEST_TRACKABLE_VALUE);
+		counts.incrementAndGet(bucketIndex(clamped));
+		totalCount.increment();
+		sum.add(clamped);
+		min.accumulateAndGet(clamped, Math::min);
+		max.accumulateAndGet(clamped, Math::max);
+	}
+
+	/**
+	 * @return The number of recorded values
+	 */
+	public long getTotalCount() {
+		return totalCount.sum();
+	}
+
+	/**
+	 * @return The sum of all the recorded values
+	 */
+	public long getSum() {
+		return sum.sum();
+	}
+
+	/**
+	 * @return The smallest recorded value, zero if no value was recorded
+	 */
+	public long getMin() {
+		long value = min.get();
+		return value == Long.MAX_VALUE ? 0L : value;
+	}
+
+	/**
+	 * @return The largest recorded value
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Compute the value at the given percentile. The value is the upper bound of the bucket that contains the percentile (capped to the
+	 * largest recorded value), so it is never under-estimated by more than the bucket resolution.
+	 *
+	 * @param percentile A percentile between 0 and 100
+	 * @return The value at the given percentile, zero if no value was recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("The percentile must be between 0 and 100");
+		}
+		long total = getTotalCount();
+		if (total == 0) {
+			return 0L;
+		}
+		long countAtPercentile = Math.max(1L, (long) Math.ceil(percentile / 100.0 * total));
+		long runningCount = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			runningCount += counts.get(i);
+			if (runningCount >= countAtPercentile) {
+				return Math.min(bucketUpperBound(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * @param value A non-negative value
+	 * @return The index of the bucket of the given value
+	 */
+	static int bucketIndex(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int magnitude = 63 - Long.numberOfLeadingZeros(value);
+		int shift = magnitude - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift);
+		return (shift + 1) * SUB_BUCKET_COUNT + (subBucket - SUB_BUCKET_COUNT);
+	}
+
+	/**
+	 * @param index
+	 * @return The largest value that falls in the bucket with the given index
+	 */
+	static long bucketUpperBound(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+}
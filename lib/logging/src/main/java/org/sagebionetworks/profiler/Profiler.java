@@ -7,7 +7,8 @@ import org.aspectj.lang.annotation.Aspect;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
- * This is a Profiler that logs the results.
+ * This is a Profiler that logs the results. When a {@link SamplingProfiler} is configured and enabled only the sampled calls are timed and
+ * recorded in its histograms, otherwise every call is recorded by the {@link ProfilerFrameStackManager}.
  * 
  * @author jmhill
  * 
@@ -16,20 +17,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 public class Profiler {
 	@Autowired
 	private ProfilerFrameStackManager frameStackManager;
+	@Autowired(required = false)
+	private SamplingProfiler samplingProfiler;
 
 	// execution(* org.sagebionetworks..*.*(..)) means profile any bean in the
 	// package org.sagebionetworks or any sub-packages
 	@Around("execution(* org.sagebionetworks..*.*(..)) && !within(org.sagebionetworks.profiler.*)")
 	public Object doBasicProfiling(ProceedingJoinPoint pjp) throws Throwable {
+		if (samplingProfiler != null && samplingProfiler.isEnabled()) {
+			return doSampledProfiling(pjp);
+		}
 		// Do nothing if logging is not on
 		if (!frameStackManager.shouldCaptureData()) {
 			// Just proceed if logging is off.
 			return pjp.proceed();
 		}
 
-		Signature signature = pjp.getSignature();
-		Class<?> declaring = pjp.getTarget().getClass();
-		String methodName = declaring.getName() + "." + signature.getName();
+		String methodName = getMethodName(pjp);
 
 		long startTime = System.nanoTime();
 		try {
@@ -41,4 +45,24 @@ public class Profiler {
 		}
 	}
 
+	Object doSampledProfiling(ProceedingJoinPoint pjp) throws Throwable {
+		boolean sampled = samplingProfiler.startCall();
+		// Unsampled calls are not timed and their method name is never built
+		long startTime = sampled ? System.nanoTime() : 0L;
+		try {
+			return pjp.proceed();
+		} finally {
+			if (sampled) {
+				samplingProfiler.recordCall(getMethodName(pjp), System.nanoTime() - startTime);
+			}
+			samplingProfiler.endCall();
+		}
+	}
+
+	static String getMethodName(ProceedingJoinPoint pjp) {
+		Signature signature = pjp.getSignature();
+		Class<?> declaring = pjp.getTarget().getClass();
+		return declaring.getName() + "." + signature.getName();
+	}
+
 }
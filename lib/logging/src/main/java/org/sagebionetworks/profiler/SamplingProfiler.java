@@ -0,0 +1,234 @@
+package org.sagebionetworks.profiler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.sagebionetworks.StackConfiguration;
+import org.sagebionetworks.cloudwatch.Consumer;
+import org.sagebionetworks.cloudwatch.MetricStats;
+import org.sagebionetworks.cloudwatch.ProfileData;
+import org.sagebionetworks.util.Clock;
+import org.sagebionetworks.util.ValidateArgument;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
+
+/**
+ * A low overhead alternative to the {@link ProfilerFrameStackManager}: instead of building a frame for every intercepted call, only a
+ * fraction of the requests (or of the calls) is sampled and the elapsed time of each sampled call is recorded in a lock-free
+ * {@link LatencyHistogram} of the method. Unsampled calls only pay for a random number (or a thread local depth counter) and no time is
+ * measured for them.
+ * <p>
+ * The histograms are swapped and published to cloud watch as percentiles each time the timer fires, only the methods that took the most
+ * time overall in the period are published so that the metric pipeline is not flooded. Note that the count of the published statistics is
+ * the number of sampled calls, not the total number of calls.
+ */
+public class SamplingProfiler {
+
+	public enum SamplingMode {
+		/**
+		 * Sampling is disabled, the frame stack profiler is used.
+		 */
+		OFF,
+		/**
+		 * The sampling decision is taken at the outermost intercepted call of a thread and applies to all the nested calls, so a sampled
+		 * request is fully profiled.
+		 */
+		REQUEST,
+		/**
+		 * The sampling decision is taken independently for each intercepted call.
+		 */
+		CALL
+	}
+
+	public static final String METHOD = "method";
+	public static final String LATENCY = "latency";
+	public static final String P50 = "p50";
+	public static final String P95 = "p95";
+	public static final String P99 = "p99";
+
+	/**
+	 * The maximum number of methods published each time the timer fires.
+	 */
+	public static final int MAX_METHODS_PER_PUBLISH = 50;
+
+	@Autowired
+	Consumer consumer;
+	@Autowired
+	Clock clock;
+	@Autowired
+	StackConfiguration stackConfig;
+
+	private final String namespacePrefix;
+	private final SamplingMode mode;
+	private final double sampleRate;
+	private final ThreadLocal<RequestState> requestState = ThreadLocal.withInitial(RequestState::new);
+
+	private volatile Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+	private String namespace;
+
+	/**
+	 * @param namespacePrefix The prefix of the cloud watch namespace
+	 * @param mode            The sampling mode
+	 * @param sampleRate      The fraction of requests (or calls) to sample, between 0 and 1
+	 */
+	public SamplingProfiler(String namespacePrefix, SamplingMode mode, double sampleRate) {
+		ValidateArgument.required(namespacePrefix, "namespacePrefix");
+		ValidateArgument.required(mode, "mode");
+		ValidateArgument.requirement(sampleRate >= 0 && sampleRate <= 1, "The sampleRate must be between 0 and 1");
+		this.namespacePrefix = namespacePrefix;
+		this.mode = mode;
+		this.sampleRate = sampleRate;
+	}
+
+	/**
+	 * @return True if the sampling profiler should be used instead of the frame stack profiler
+	 */
+	public boolean isEnabled() {
+		return mode != SamplingMode.OFF && sampleRate > 0;
+	}
+
+	/**
+	 * Called before an intercepted method is invoked, each call must be followed by a call to {@link #endCall()}.
+	 *
+	 * @return True if the call is sampled and its elapsed time should be recorded with {@link #recordCall(String, long)}
+	 */
+	public boolean startCall() {
+		switch (mode) {
+		case REQUEST:
+			RequestState state = requestState.get();
+			if (state.depth++ == 0) {
+				state.sampled = sample();
+			}
+			return state.sampled;
+		case CALL:
+			return sample();
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Called after an intercepted method returned (or threw).
+	 */
+	public void endCall() {
+		if (mode == SamplingMode.REQUEST) {
+			requestState.get().depth--;
+		}
+	}
+
+	/**
+	 * Record the elapsed time of a sampled call.
+	 *
+	 * @param methodName
+	 * @param elapsedNanos
+	 */
+	public void recordCall(String methodName, long elapsedNanos) {
+		Map<String, LatencyHistogram> current = histograms;
+		LatencyHistogram histogram = current.get(methodName);
+		if (histogram == null) {
+			histogram = current.computeIfAbsent(methodName, (name) -> new LatencyHistogram());
+		}
+		histogram.recordValue(elapsedNanos / 1000);
+	}
+
+	boolean sample() {
+		return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+	}
+
+	/**
+	 * Call from a timer. Swaps the histograms gathered since the last call and publishes the ones of the methods that took the most time. A
+	 * call recorded by another thread while the histograms are swapped can be lost, which is acceptable for sampled data.
+	 */
+	public void onTimerFired() {
+		Map<String, LatencyHistogram> snapshot = histograms;
+		if (snapshot.isEmpty()) {
+			return;
+		}
+		histograms = new ConcurrentHashMap<>();
+		Date timestamp = new Date(clock.currentTimeMillis());
+		List<ProfileData> data = new ArrayList<>();
+		snapshot.entrySet().stream()
+				.filter(entry -> entry.getValue().getTotalCount() > 0)
+				.sorted(Comparator.comparingLong((Entry<String, LatencyHistogram> entry) -> entry.getValue().getSum()).reversed())
+				.limit(MAX_METHODS_PER_PUBLISH)
+				.forEach(entry -> data.addAll(createMetrics(entry.getKey(), entry.getValue(), timestamp)));
+		if (!data.isEmpty()) {
+			consumer.addProfileData(data);
+		}
+	}
+
+	/**
+	 * Create the metrics of a single method: the p50, p95 and p99 percentiles and the latency statistics.
+	 *
+	 * @param methodName
+	 * @param histogram
+	 * @param timestamp
+	 * @return
+	 */
+	List<ProfileData> createMetrics(String methodName, LatencyHistogram histogram, Date timestamp) {
+		List<ProfileData> metrics = new ArrayList<>(4);
+		metrics.add(createMetric(methodName, P50, timestamp).setValue((double) histogram.getValueAtPercentile(50)));
+		metrics.add(createMetric(methodName, P95, timestamp).setValue((double) histogram.getValueAtPercentile(95)));
+		metrics.add(createMetric(methodName, P99, timestamp).setValue((double) histogram.getValueAtPercentile(99)));
+		MetricStats stats = new MetricStats();
+		stats.setMaximum((double) histogram.getMax());
+		stats.setMinimum((double) histogram.getMin());
+		stats.setCount((double) histogram.getTotalCount());
+		stats.setSum((double) histogram.getSum());
+		metrics.add(createMetric(methodName, LATENCY, timestamp).setMetricStats(stats));
+		return metrics;
+	}
+
+	private ProfileData createMetric(String methodName, String name, Date timestamp) {
+		return new ProfileData()
+				.setNamespace(getNamespace())
+				.setName(name)
+				.setUnit(StandardUnit.Microseconds.name())
+				.setTimestamp(timestamp)
+				.setDimension(Collections.singletonMap(METHOD, methodName));
+	}
+
+	/**
+	 * The metric name space.
+	 *
+	 * @return
+	 */
+	public String getNamespace() {
+		if (namespace == null) {
+			namespace = namespacePrefix + "-Profile-" + stackConfig.getStackInstance();
+		}
+		return namespace;
+	}
+
+	public SamplingMode getMode() {
+		return mode;
+	}
+
+	public double getSampleRate() {
+		return sampleRate;
+	}
+
+	/**
+	 * @return The histograms gathered since the timer last fired
+	 */
+	Map<String, LatencyHistogram> getHistograms() {
+		return histograms;
+	}
+
+	/**
+	 * The sampling state of the request handled by a thread.
+	 */
+	private static class RequestState {
+		int depth;
+		boolean sampled;
+	}
+
+}
@@ -0,0 +1,120 @@
+package org.sagebionetworks.profiler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void testBucketIndexAndUpperBound() {
+		for (long value = 0; value < 100_000; value++) {
+			int index = LatencyHistogram.bucketIndex(value);
+			long upperBound = LatencyHistogram.bucketUpperBound(index);
+			assertTrue(upperBound >= value, "value: " + value);
+			// The value must not fit in the previous bucket
+			if (index > 0) {
+				assertTrue(LatencyHistogram.bucketUpperBound(index - 1) < value, "value: " + value);
+			}
+			// The relative error is bounded by the number of sub-buckets
+			assertTrue(upperBound - value <= value / LatencyHistogram.SUB_BUCKET_COUNT, "value: " + value);
+		}
+	}
+
+	@Test
+	public void testBucketIndexWithHighestTrackableValue() {
+		assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(LatencyHistogram.HIGHEST_TRACKABLE_VALUE));
+	}
+
+	@Test
+	public void testEmpty() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0L, histogram.getTotalCount());
+		assertEquals(0L, histogram.getSum());
+		assertEquals(0L, histogram.getMin());
+		assertEquals(0L, histogram.getMax());
+		assertEquals(0L, histogram.getValueAtPercentile(99));
+	}
+
+	@Test
+	public void testRecordValue() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long value = 1; value <= 1000; value++) {
+			// call under test
+			histogram.recordValue(value);
+		}
+		assertEquals(1000L, histogram.getTotalCount());
+		assertEquals(500500L, histogram.getSum());
+		assertEquals(1L, histogram.getMin());
+		assertEquals(1000L, histogram.getMax());
+		assertWithinResolution(500, histogram.getValueAtPercentile(50));
+		assertWithinResolution(950, histogram.getValueAtPercentile(95));
+		assertWithinResolution(990, histogram.getValueAtPercentile(99));
+		assertEquals(1000L, histogram.getValueAtPercentile(100));
+		assertEquals(1L, histogram.getValueAtPercentile(0));
+	}
+
+	@Test
+	public void testRecordValueWithOutOfRangeValues() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		// call under test
+		histogram.recordValue(-5);
+		histogram.recordValue(Long.MAX_VALUE);
+		assertEquals(2L, histogram.getTotalCount());
+		assertEquals(0L, histogram.getMin());
+		assertEquals(LatencyHistogram.HIGHEST_TRACKABLE_VALUE, histogram.getMax());
+		assertEquals(LatencyHistogram.HIGHEST_TRACKABLE_VALUE, histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void testGetValueAtPercentileWithInvalidPercentile() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertThrows(IllegalArgumentException.class, () -> {
+			histogram.getValueAtPercentile(100.1);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			histogram.getValueAtPercentile(-1);
+		});
+	}
+
+	@Test
+	public void testRecordValueConcurrently() throws Exception {
+		LatencyHistogram histogram = new LatencyHistogram();
+		int threadCount = 4;
+		int valuesPerThread = 10_000;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try {
+			List<Future<?>> futures = new ArrayList<>(threadCount);
+			for (int i = 0; i < threadCount; i++) {
+				futures.add(executor.submit(() -> {
+					for (int value = 1; value <= valuesPerThread; value++) {
+						histogram.recordValue(value);
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals((long) threadCount * valuesPerThread, histogram.getTotalCount());
+		assertEquals(threadCount * (valuesPerThread * (valuesPerThread + 1L) / 2), histogram.getSum());
+		assertEquals(1L, histogram.getMin());
+		assertEquals((long) valuesPerThread, histogram.getMax());
+	}
+
+	private static void assertWithinResolution(long expected, long actual) {
+		assertTrue(actual >= expected && actual - expected <= expected / LatencyHistogram.SUB_BUCKET_COUNT,
+				"expected: " + expected + " actual: " + actual);
+	}
+
+}
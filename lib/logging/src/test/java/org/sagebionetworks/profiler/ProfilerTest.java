@@ -1,8 +1,11 @@
 package org.sagebionetworks.profiler;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
@@ -14,6 +17,7 @@ import org.aspectj.lang.Signature;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -27,6 +31,9 @@ public class ProfilerTest {
 	@Mock
 	ProfilerFrameStackManager mockProfilerFrameStackManager;
 
+	@Mock
+	SamplingProfiler mockSamplingProfiler;
+
 	Profiler spyProfiler;
 
 	@Before
@@ -77,4 +84,82 @@ public class ProfilerTest {
 		verifyNoMoreInteractions(mockProceedingJoinPoint);
 		verifyNoMoreInteractions(mockProfilerFrameStackManager);
 	}
+
+	@Test
+	public void testDoBasicProfiling_samplingDisabled() throws Throwable{
+		ReflectionTestUtils.setField(spyProfiler, "samplingProfiler", mockSamplingProfiler);
+		doReturn(false).when(mockSamplingProfiler).isEnabled();
+		doReturn(false).when(mockProfilerFrameStackManager).shouldCaptureData();
+
+		spyProfiler.doBasicProfiling(mockProceedingJoinPoint);
+
+		verify(mockSamplingProfiler).isEnabled();
+		verify(mockProfilerFrameStackManager).shouldCaptureData();
+		verify(mockProceedingJoinPoint).proceed();
+
+		verifyNoMoreInteractions(mockSamplingProfiler);
+		verifyNoMoreInteractions(mockProceedingJoinPoint);
+	}
+
+	@Test
+	public void testDoBasicProfiling_sampled() throws Throwable{
+		ReflectionTestUtils.setField(spyProfiler, "samplingProfiler", mockSamplingProfiler);
+		doReturn(true).when(mockSamplingProfiler).isEnabled();
+		doReturn(true).when(mockSamplingProfiler).startCall();
+		Object target = new Object();
+		String signatureName = "fakename()";
+		Signature mockSignature = mock(Signature.class);
+		when(mockSignature.getName()).thenReturn(signatureName);
+		String expectedMethodName = target.getClass().getName() + "." + signatureName;
+		when(mockProceedingJoinPoint.getTarget()).thenReturn(target);
+		when(mockProceedingJoinPoint.getSignature()).thenReturn(mockSignature);
+
+		spyProfiler.doBasicProfiling(mockProceedingJoinPoint);
+
+		InOrder inOrder = inOrder(mockSamplingProfiler, mockProceedingJoinPoint);
+		inOrder.verify(mockSamplingProfiler).startCall();
+		inOrder.verify(mockProceedingJoinPoint).proceed();
+		inOrder.verify(mockSamplingProfiler).recordCall(eq(expectedMethodName), anyLong());
+		inOrder.verify(mockSamplingProfiler).endCall();
+
+		verifyNoMoreInteractions(mockProfilerFrameStackManager);
+	}
+
+	@Test
+	public void testDoBasicProfiling_notSampled() throws Throwable{
+		ReflectionTestUtils.setField(spyProfiler, "samplingProfiler", mockSamplingProfiler);
+		doReturn(true).when(mockSamplingProfiler).isEnabled();
+		doReturn(false).when(mockSamplingProfiler).startCall();
+
+		spyProfiler.doBasicProfiling(mockProceedingJoinPoint);
+
+		verify(mockSamplingProfiler).isEnabled();
+		verify(mockSamplingProfiler).startCall();
+		verify(mockProceedingJoinPoint).proceed();
+		verify(mockSamplingProfiler).endCall();
+
+		// The method name is not computed for calls that are not sampled
+		verifyNoMoreInteractions(mockSamplingProfiler);
+		verifyNoMoreInteractions(mockProceedingJoinPoint);
+		verifyNoMoreInteractions(mockProfilerFrameStackManager);
+	}
+
+	@Test
+	public void testDoBasicProfiling_sampledWithException() throws Throwable{
+		ReflectionTestUtils.setField(spyProfiler, "samplingProfiler", mockSamplingProfiler);
+		doReturn(true).when(mockSamplingProfiler).isEnabled();
+		doReturn(false).when(mockSamplingProfiler).startCall();
+		IllegalStateException exception = new IllegalStateException("failed");
+		when(mockProceedingJoinPoint.proceed()).thenThrow(exception);
+
+		try {
+			spyProfiler.doBasicProfiling(mockProceedingJoinPoint);
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals(exception, e);
+		}
+
+		// The request depth must be restored even if the call failed
+		verify(mockSamplingProfiler).endCall();
+	}
 }
@@ -0,0 +1,221 @@
+package org.sagebionetworks.profiler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.StackConfiguration;
+import org.sagebionetworks.cloudwatch.Consumer;
+import org.sagebionetworks.cloudwatch.ProfileData;
+import org.sagebionetworks.profiler.SamplingProfiler.SamplingMode;
+import org.sagebionetworks.util.Clock;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
+
+@ExtendWith(MockitoExtension.class)
+public class SamplingProfilerTest {
+
+	@Mock
+	private Consumer mockConsumer;
+	@Mock
+	private Clock mockClock;
+	@Mock
+	private StackConfiguration mockStackConfig;
+	@Captor
+	private ArgumentCaptor<List<ProfileData>> dataCaptor;
+
+	private SamplingProfiler createProfiler(SamplingMode mode, double sampleRate) {
+		SamplingProfiler profiler = new SamplingProfiler("Repo", mode, sampleRate);
+		ReflectionTestUtils.setField(profiler, "consumer", mockConsumer);
+		ReflectionTestUtils.setField(profiler, "clock", mockClock);
+		ReflectionTestUtils.setField(profiler, "stackConfig", mockStackConfig);
+		return profiler;
+	}
+
+	@Test
+	public void testConstructorWithNullPrefix() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			new SamplingProfiler(null, SamplingMode.CALL, 0.1);
+		});
+	}
+
+	@Test
+	public void testConstructorWithNullMode() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			new SamplingProfiler("Repo", null, 0.1);
+		});
+	}
+
+	@Test
+	public void testConstructorWithInvalidRate() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			new SamplingProfiler("Repo", SamplingMode.CALL, 1.5);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			new SamplingProfiler("Repo", SamplingMode.CALL, -0.1);
+		});
+	}
+
+	@Test
+	public void testIsEnabled() {
+		assertTrue(createProfiler(SamplingMode.CALL, 0.1).isEnabled());
+		assertTrue(createProfiler(SamplingMode.REQUEST, 0.1).isEnabled());
+		assertFalse(createProfiler(SamplingMode.OFF, 0.1).isEnabled());
+		assertFalse(createProfiler(SamplingMode.CALL, 0).isEnabled());
+	}
+
+	@Test
+	public void testStartCallWithOff() {
+		SamplingProfiler profiler = createProfiler(SamplingMode.OFF, 1.0);
+		// call under test
+		assertFalse(profiler.startCall());
+	}
+
+	@Test
+	public void testStartCallWithCallModeAndFullRate() {
+		SamplingProfiler profiler = createProfiler(SamplingMode.CALL, 1.0);
+		for (int i = 0; i < 100; i++) {
+			// call under test
+			assertTrue(profiler.startCall());
+			profiler.endCall();
+		}
+	}
+
+	@Test
+	public void testStartCallWithCallModeAndPartialRate() {
+		SamplingProfiler profiler = createProfiler(SamplingMode.CALL, 0.5);
+		int sampled = 0;
+		int calls = 10_000;
+		for (int i = 0; i < calls; i++) {
+			// call under test
+			if (profiler.startCall()) {
+				sampled++;
+			}
+			profiler.endCall();
+		}
+		// Roughly half the calls should be sampled
+		assertTrue(sampled > calls * 0.4 && sampled < calls * 0.6, "sampled: " + sampled);
+	}
+
+	@Test
+	public void testStartCallWithRequestMode() {
+		SamplingProfiler profiler = createProfiler(SamplingMode.REQUEST, 0.5);
+		int calls = 1000;
+		for (int i = 0; i < calls; i++) {
+			// call under test
+			boolean root = profiler.startCall();
+			// All the nested calls share the decision of the root call
+			assertEquals(root, profiler.startCall());
+			assertEquals(root, profiler.startCall());
+			profiler.endCall();
+			assertEquals(root, profiler.startCall());
+			profiler.endCall();
+			profiler.endCall();
+			profiler.endCall();
+		}
+	}
+
+	@Test
+	public void testRecordCall() {
+		SamplingProfiler profiler = createProfiler(SamplingMode.CALL, 1.0);
+		// call under test
+		profiler.recordCall("one", 2_000_000L);
+		profiler.recordCall("one", 4_000_000L);
+		profiler.recordCall("two", 1_000L);
+
+		LatencyHistogram one = profiler.getHistograms().get("one");
+		assertEquals(2L, one.getTotalCount());
+		assertEquals(2_000L, one.getMin());
+		assertEquals(4_000L, one.getMax());
+		assertEquals(1L, profiler.getHistograms().get("two").getTotalCount());
+	}
+
+	@Test
+	public void testGetNamespace() {
+		when(mockStackConfig.getStackInstance()).thenReturn("instance1");
+		SamplingProfiler profiler = createProfiler(SamplingMode.CALL, 1.0);
+		// call under test
+		assertEquals("Repo-Profile-instance1", profiler.getNamespace());
+	}
+
+	@Test
+	public void testOnTimerFired() {
+		when(mockStackConfig.getStackInstance()).thenReturn("instance1");
+		when(mockClock.currentTimeMillis()).thenReturn(123L);
+		SamplingProfiler profiler = createProfiler(SamplingMode.CALL, 1.0);
+		for (long i = 1; i <= 100; i++) {
+			profiler.recordCall("slow", i * 1000_000L);
+		}
+		profiler.recordCall("fast", 1000L);
+
+		// call under test
+		profiler.onTimerFired();
+
+		verify(mockConsumer).addProfileData(dataCaptor.capture());
+		List<ProfileData> data = dataCaptor.getValue();
+		// four metrics per method, the slowest method first
+		assertEquals(8, data.size());
+		ProfileData p50 = data.get(0);
+		assertEquals("Repo-Profile-instance1", p50.getNamespace());
+		assertEquals(SamplingProfiler.P50, p50.getName());
+		assertEquals(StandardUnit.Microseconds.name(), p50.getUnit());
+		assertEquals(new Date(123L), p50.getTimestamp());
+		assertEquals(Collections.singletonMap(SamplingProfiler.METHOD, "slow"), p50.getDimension());
+		assertEquals(SamplingProfiler.P95, data.get(1).getName());
+		assertEquals(SamplingProfiler.P99, data.get(2).getName());
+		ProfileData latency = data.get(3);
+		assertEquals(SamplingProfiler.LATENCY, latency.getName());
+		assertNull(latency.getValue());
+		assertEquals(100.0, latency.getMetricStats().getCount());
+		assertEquals(1000.0, latency.getMetricStats().getMinimum());
+		assertEquals(100_000.0, latency.getMetricStats().getMaximum());
+		assertEquals(5_050_000.0, latency.getMetricStats().getSum());
+		assertEquals(Collections.singletonMap(SamplingProfiler.METHOD, "fast"), data.get(4).getDimension());
+		// the histograms are reset
+		assertTrue(profiler.getHistograms().isEmpty());
+	}
+
+	@Test
+	public void testOnTimerFiredWithMoreThanMaxMethods() {
+		when(mockStackConfig.getStackInstance()).thenReturn("instance1");
+		when(mockClock.currentTimeMillis()).thenReturn(123L);
+		SamplingProfiler profiler = createProfiler(SamplingMode.CALL, 1.0);
+		int methodCount = SamplingProfiler.MAX_METHODS_PER_PUBLISH + 10;
+		for (int i = 0; i < methodCount; i++) {
+			profiler.recordCall("method" + i, i * 1000L);
+		}
+
+		// call under test
+		profiler.onTimerFired();
+
+		verify(mockConsumer).addProfileData(dataCaptor.capture());
+		List<ProfileData> data = dataCaptor.getValue();
+		assertEquals(SamplingProfiler.MAX_METHODS_PER_PUBLISH * 4, data.size());
+		assertEquals(Collections.singletonMap(SamplingProfiler.METHOD, "method" + (methodCount - 1)), data.get(0).getDimension());
+	}
+
+	@Test
+	public void testOnTimerFiredWithNoData() {
+		SamplingProfiler profiler = createProfiler(SamplingMode.CALL, 1.0);
+		// call under test
+		profiler.onTimerFired();
+		verifyZeroInteractions(mockConsumer);
+	}
+
+}
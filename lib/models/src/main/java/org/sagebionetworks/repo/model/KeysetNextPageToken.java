@@ -0,0 +1,149 @@
+package org.sagebionetworks.repo.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Immutable layer of abstraction over keyset pagination parameters: the limit
+ * and the key (sort value and ID) of the last row of the previous page, with a
+ * string representation.
+ * <p>
+ * Unlike {@link NextPageToken}, the cost of fetching a page does not grow with
+ * the number of rows before it, since the database can seek directly to the
+ * key instead of skipping an offset.
+ *
+ */
+public class KeysetNextPageToken {
+
+	public static final String DELIMITER = "k";
+	public static final long DEFAULT_LIMIT = 50L;
+	public static final long MAX_LIMIT = 50L;
+
+	private final long limit;
+	private final Long lastId;
+	private final String lastSortValue;
+
+	/**
+	 * Create from a limit and the key of the last row of the previous page.
+	 * 
+	 * @param limit
+	 * @param lastId
+	 * @param lastSortValue
+	 */
+	public KeysetNextPageToken(long limit, Long lastId, String lastSortValue) {
+		super();
+		this.limit = limit;
+		this.lastId = lastId;
+		this.lastSortValue = lastSortValue;
+	}
+
+	/**
+	 * Create a token from a token string.
+	 * 
+	 * @param token
+	 */
+	public KeysetNextPageToken(String token) {
+		if (token == null) {
+			limit = DEFAULT_LIMIT;
+			lastId = null;
+			lastSortValue = null;
+		} else {
+			// the encoded sort value is always last as it can contain the delimiter
+			String[] split = token.split(DELIMITER, 3);
+			if (split.length != 3) {
+				throw new IllegalArgumentException("Unknow token format: " + token);
+			}
+			try {
+				limit = Long.parseLong(split[0]);
+				lastId = Long.parseLong(split[1]);
+				lastSortValue = new String(Base64.getUrlDecoder().decode(split[2]), StandardCharsets.UTF_8);
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("Unknow token format: " + token, e);
+			}
+		}
+		if (limit > MAX_LIMIT) {
+			throw new IllegalArgumentException("Limit must not exceed: " + MAX_LIMIT);
+		}
+	}
+
+	/**
+	 * Create a token string representing the next page.
+	 * 
+	 * @return
+	 */
+	public String toToken() {
+		return limit + DELIMITER + lastId + DELIMITER
+				+ Base64.getUrlEncoder().withoutPadding().encodeToString(lastSortValue.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * The limit that is used to query for a page of result. We used limit + 1 for
+	 * query to check if there is a next page.
+	 * 
+	 * @return
+	 */
+	public long getLimitForQuery() {
+		return limit + 1;
+	}
+
+	/**
+	 * The ID of the last row of the previous page. Null for the first page.
+	 * 
+	 * @return
+	 */
+	public Long getLastId() {
+		return lastId;
+	}
+
+	/**
+	 * The sort value of the last row of the previous page. Null for the first
+	 * page.
+	 * 
+	 * @return
+	 */
+	public String getLastSortValue() {
+		return lastSortValue;
+	}
+
+	/**
+	 * Check the given results to see if there is a next page. If so, remove the
+	 * last item in the list and return a token, keyed on the last remaining item,
+	 * to get the next page.
+	 * 
+	 * @param results
+	 * @param idProvider        Provides the ID of a result.
+	 * @param sortValueProvider Provides the sort value of a result.
+	 * @return
+	 */
+	public <T> String getNextPageTokenForCurrentResults(List<T> results, Function<T, Long> idProvider,
+			Function<T, String> sortValueProvider) {
+		if (results.size() > limit) {
+			results.remove((int) limit);
+			T last = results.get(results.size() - 1);
+			return new KeysetNextPageToken(limit, idProvider.apply(last), sortValueProvider.apply(last)).toToken();
+		}
+		return null;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(lastId, lastSortValue, limit);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		KeysetNextPageToken other = (KeysetNextPageToken) obj;
+		return Objects.equals(lastId, other.lastId) && Objects.equals(lastSortValue, other.lastSortValue)
+				&& limit == other.limit;
+	}
+
+}
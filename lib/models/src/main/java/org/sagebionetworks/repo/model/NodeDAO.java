@@ -17,6 +17,7 @@ import org.sagebionetworks.repo.web.NotFoundException;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -78,6 +79,14 @@ public interface NodeDAO {
 	 */
 	public Node getNode(String id);
 	
+	/**
+	 * Fetch the current version of each of the given nodes with a single query.
+	 * 
+	 * @param nodeIds
+	 * @return The nodes that exist, in no particular order.
+	 */
+	public List<Node> getNodes(List<Long> nodeIds);
+	
 	/**
 	 * Get the node for a given version number.
 	 * @param id
@@ -165,6 +174,16 @@ public interface NodeDAO {
 	 * @throws NotFoundException
 	 */
 	Annotations getUserAnnotationsForVersion(String id, Long versionNumber);
+	
+	/**
+	 * Get the user annotations of the current version of each of the given nodes
+	 * with a single query.
+	 * 
+	 * @param nodeIds
+	 * @return Map from the node id to its user annotations. Nodes that do not
+	 *         exist are excluded.
+	 */
+	Map<Long, Annotations> getCurrentUserAnnotations(List<Long> nodeIds);
 
 	/**
 	 * Get Entity properties that could not be stored as a Node
@@ -297,6 +316,28 @@ public interface NodeDAO {
 	@Deprecated 
 	List<Long> getEntityPathIds(String entityId, boolean includeSelf);
 	
+	/**
+	 * Get the full path of each of the given entities. The paths of the parents
+	 * are resolved with a single query and cached, so that the entities that
+	 * share a container do not walk the hierarchy more than once.
+	 * 
+	 * @param entityIds
+	 * @return The path of each entity, from the root to the entity (included).
+	 *         The entities that do not exist are not included in the map.
+	 */
+	Map<Long, List<NameIdType>> getEntityPaths(Collection<Long> entityIds);
+	
+	/**
+	 * Get the project of each of the given entities, see
+	 * {@link #getEntityPaths(Collection)}.
+	 * 
+	 * @param entityIds
+	 * @return The id of the project of each entity. The entities that do not
+	 *         exist or that are not in a project (e.g. in the trash can) are not
+	 *         included in the map.
+	 */
+	Map<Long, Long> getProjectIds(Collection<Long> entityIds);
+	
 	/**
 	 * Lookup a node id using its unique path.
 	 * @param path
@@ -484,6 +525,46 @@ public interface NodeDAO {
 	 * @return The list of nodes in the sub-tree of the node with the given id, does not include the input node id
 	 */
 	List<Long> getSubTreeNodeIdsOrderByDistanceDesc(Long parentId, int limit);
+
+	/**
+	 * Get a single page of the IDs of the containers (projects and folders) in the
+	 * sub-tree of the given node, including the node itself, ordered by ID. Only a
+	 * page is loaded in memory and the last ID of a page is the key of the next
+	 * one.
+	 *
+	 * @param rootId  The ID of the root of the sub-tree
+	 * @param afterId When provided, only IDs greater than this value are returned
+	 *                (the last ID of the previous page)
+	 * @param limit   The max number of IDs to return
+	 * @return
+	 */
+	List<Long> getSubTreeContainerIdsPage(Long rootId, Long afterId, long limit);
+
+	/**
+	 * Get the IDs of the nodes in the sub-tree of the given node, including the
+	 * node itself, that still have children, the deepest first. Every descendant
+	 * of a returned node that has children is also returned, so the children of
+	 * the returned nodes can be deleted with
+	 * {@link #deleteChildren(List, int)}.
+	 *
+	 * @param rootId The ID of the root of the sub-tree
+	 * @param limit  The max number of IDs to return
+	 * @return
+	 */
+	List<Long> getSubTreeParentIdsDeepestFirst(Long rootId, int limit);
+
+	/**
+	 * Deletes at most limit direct children of the given parents, the children
+	 * that are not containers first. This method runs in a new transaction so that
+	 * a large hierarchy can be deleted from the deepest level with short
+	 * transactions.
+	 *
+	 * @param parentIds The IDs of the parents
+	 * @param limit     The max number of children to delete
+	 * @return The number of deleted nodes, a value lower than limit means that
+	 *         the parents have no more children
+	 */
+	int deleteChildren(List<Long> parentIds, int limit);
 	
 	/**
 	 * Lookup a nodeId using its alias.
@@ -514,6 +595,16 @@ public interface NodeDAO {
 	 * @return
 	 */
 	public String getBenefactor(String beneficiaryId);
+	
+	/**
+	 * Get the permissions benefactor of each of the given nodes with a single
+	 * query. This is the non-cached version of the nodes' benefactors.
+	 * 
+	 * @param nodeIds
+	 * @return Map from the node id to the id of its benefactor. Nodes that do not
+	 *         exist are excluded.
+	 */
+	public Map<Long, Long> getBenefactors(List<Long> nodeIds);
 
 	/**
 	 * Return a set of fileHandleIds that associated with entityId and appear in the provided list.
@@ -548,6 +639,28 @@ public interface NodeDAO {
 			List<EntityType> includeTypes, Set<Long> childIdsToExclude,
 			SortBy sortBy, Direction sortDirection, long limit, long offset);
 	
+	/**
+	 * Get a single page of the children visible to the given groups, using
+	 * keyset pagination. Visibility is decided by joining against the benefactors
+	 * the groups can read, so the cost scales with the page size rather than the
+	 * number of non-visible children.
+	 * 
+	 * @param parentId
+	 * @param includeTypes
+	 * @param visibleToGroups When null all children are included.
+	 * @param sortBy
+	 * @param sortDirection
+	 * @param lastId          The ID of the last child of the previous page. Null
+	 *                        for the first page.
+	 * @param lastSortValue   The sort value of the last child of the previous
+	 *                        page. Null for the first page.
+	 * @param limit
+	 * @return
+	 */
+	public List<EntityHeader> getVisibleChildren(String parentId, List<EntityType> includeTypes,
+			Set<Long> visibleToGroups, SortBy sortBy, Direction sortDirection, Long lastId, String lastSortValue,
+			long limit);
+	
 	/**
 	 * Get the statistics about the given parentID and types.
 	 * 
@@ -692,6 +805,19 @@ public interface NodeDAO {
 	 * @return
 	 */
 	public List<IdAndChecksum> getIdsAndChecksumsForObjects(Long salt, Set<Long> objectIds);
+
+	/**
+	 * Get all of the IdAndChecksums for children of the given parents that fall
+	 * within the given ID bucket: <code>bucket*bucketSize &lt;= ID &lt; (bucket+1)*bucketSize</code>
+	 * 
+	 * @param salt
+	 * @param parentIds
+	 * @param subTypes
+	 * @param bucketSize
+	 * @param bucket
+	 * @return
+	 */
+	public List<IdAndChecksum> getIdsAndChecksumsForChildrenInBucket(Long salt, Set<Long> parentIds, Set<SubType> subTypes, Long bucketSize, Long bucket);
 	
 	/**
 	 * @param nodeId
@@ -17,6 +17,15 @@ public interface StackStatusDao {
 	 */
 	public StackStatus getFullCurrentStatus();
 	
+	/**
+	 * Get the current stack status from an in-memory copy that is shared by the callers on this machine. The copy is refreshed from the
+	 * database at most every few seconds and immediately after an {@link #updateStatus(StackStatus)} on this machine, use this for checks
+	 * that are performed on every request.
+	 * 
+	 * @return
+	 */
+	public StackStatus getCachedFullCurrentStatus();
+	
 	/**
 	 * Get the current status.
 	 * @return
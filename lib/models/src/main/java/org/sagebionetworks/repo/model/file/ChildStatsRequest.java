@@ -14,6 +14,7 @@ public class ChildStatsRequest {
 	private String parentId;
 	private List<EntityType> includeTypes;
 	private Set<Long> childIdsToExclude;
+	private Set<Long> visibleToGroups;
 	private Boolean includeTotalChildCount;
 	private Boolean includeSumFileSizes;
 
@@ -77,6 +78,28 @@ public class ChildStatsRequest {
 		return this;
 	}
 
+	/**
+	 * When set, only children visible to at least one of these groups are
+	 * included.
+	 * 
+	 * @return
+	 */
+	public Set<Long> getVisibleToGroups() {
+		return visibleToGroups;
+	}
+
+	/**
+	 * When set, only children visible to at least one of these groups are
+	 * included.
+	 * 
+	 * @param visibleToGroups
+	 * @return
+	 */
+	public ChildStatsRequest withVisibleToGroups(Set<Long> visibleToGroups) {
+		this.visibleToGroups = visibleToGroups;
+		return this;
+	}
+
 	/**
 	 * When true the total child count is included. Defaults to false.
 	 * 
@@ -126,6 +149,7 @@ public class ChildStatsRequest {
 		result = prime * result + ((includeTotalChildCount == null) ? 0 : includeTotalChildCount.hashCode());
 		result = prime * result + ((includeTypes == null) ? 0 : includeTypes.hashCode());
 		result = prime * result + ((parentId == null) ? 0 : parentId.hashCode());
+		result = prime * result + ((visibleToGroups == null) ? 0 : visibleToGroups.hashCode());
 		return result;
 	}
 
@@ -163,6 +187,11 @@ public class ChildStatsRequest {
 				return false;
 		} else if (!parentId.equals(other.parentId))
 			return false;
+		if (visibleToGroups == null) {
+			if (other.visibleToGroups != null)
+				return false;
+		} else if (!visibleToGroups.equals(other.visibleToGroups))
+			return false;
 		return true;
 	}
 
@@ -170,7 +199,7 @@ public class ChildStatsRequest {
 	public String toString() {
 		return "ParentStatsRequest [parentId=" + parentId + ", includeTypes=" + includeTypes + ", childIdsToExclude="
 				+ childIdsToExclude + ", includeTotalChildCount=" + includeTotalChildCount + ", includeSumFileSizes="
-				+ includeSumFileSizes + "]";
+				+ includeSumFileSizes + ", visibleToGroups=" + visibleToGroups + "]";
 	}
 
 }
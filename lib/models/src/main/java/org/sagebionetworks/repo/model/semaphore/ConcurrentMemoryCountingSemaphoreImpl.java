@@ -0,0 +1,225 @@
+package org.sagebionetworks.repo.model.semaphore;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.sagebionetworks.util.Clock;
+import org.sagebionetworks.util.ValidateArgument;
+
+/**
+ * A lock-free, in-memory implementation of a counting semaphore. This class is
+ * designed to be a thread-safe singleton.
+ * <p>
+ * Unlike {@link MemoryCountingSemaphoreImpl}, there is no global monitor. Each
+ * key has its own atomic counter of the issued locks, so threads acquiring
+ * locks for different keys never contend with each other. The expirations of
+ * each key are also kept sorted, so that on each attempt to acquire a lock only
+ * the expired locks at the head are removed, without scanning all the locks of
+ * the key.
+ *
+ */
+public class ConcurrentMemoryCountingSemaphoreImpl implements MemoryCountingSemaphore {
+
+	private final Map<String, KeyLocks> keyLocksMap = new ConcurrentHashMap<>();
+	// Tokens only need to be unique within this semaphore.
+	private final AtomicLong tokenSequence = new AtomicLong();
+	// abstraction from the system clock.
+	private final Clock clock;
+
+	/**
+	 * Create a new semaphore given a clock.
+	 *
+	 * @param clock
+	 */
+	public ConcurrentMemoryCountingSemaphoreImpl(Clock clock) {
+		super();
+		this.clock = clock;
+	}
+
+	@Override
+	public String attemptToAcquireLock(String key, long timeoutSec, int maxLockCount) {
+		ValidateArgument.required(key, "key");
+		KeyLocks locks = keyLocksMap.computeIfAbsent(key, k -> new KeyLocks());
+		long now = clock.currentTimeMillis();
+		if (!locks.tryReserve(maxLockCount, now)) {
+			// a new token could not be issued.
+			return null;
+		}
+		String token = Long.toString(tokenSequence.incrementAndGet());
+		locks.add(token, now + (timeoutSec * 1000));
+		return token;
+	}
+
+	@Override
+	public void refreshLockTimeout(String key, String token, long timeoutSec) {
+		ValidateArgument.required(key, "key");
+		ValidateArgument.required(token, "token");
+		KeyLocks locks = keyLocksMap.get(key);
+		boolean refreshed = false;
+		if (locks != null) {
+			long expires = clock.currentTimeMillis() + (timeoutSec * 1000);
+			refreshed = locks.refresh(token, expires);
+		}
+		if (!refreshed) {
+			throw new LockReleaseFailedException("Key: " + key + " token: " + token + " has expired.");
+		}
+	}
+
+	@Override
+	public void releaseLock(String key, String token) {
+		ValidateArgument.required(key, "key");
+		ValidateArgument.required(token, "token");
+		KeyLocks locks = keyLocksMap.get(key);
+		boolean released = false;
+		if (locks != null) {
+			released = locks.release(token);
+		}
+		if (!released) {
+			throw new LockReleaseFailedException("Key: " + key + " token: " + token + " has expired.");
+		}
+	}
+
+	@Override
+	public void releaseAllLocks() {
+		keyLocksMap.clear();
+	}
+
+	/**
+	 * The locks issued for a single key. The count is always updated before a
+	 * token is added and after a token is removed, so it never under-counts the
+	 * issued tokens.
+	 * <p>
+	 * Each expiration of a token is also queued in the expiration order, a
+	 * refresh queues the new expiration and leaves the previous one in the
+	 * queue. An entry of the queue only removes its token if the token still
+	 * has the same expiration, a stale entry is simply dropped once expired.
+	 *
+	 */
+	private static class KeyLocks {
+
+		private final AtomicInteger count = new AtomicInteger();
+		private final Map<String, Long> tokenExpirations = new ConcurrentHashMap<>();
+		private final ConcurrentNavigableMap<Expiration, String> expirationQueue = new ConcurrentSkipListMap<>();
+		// Distinguishes the entries of the queue with the same expiration
+		private final AtomicLong expirationSequence = new AtomicLong();
+
+		/**
+		 * Attempt to reserve a lock slot.
+		 *
+		 * @param maxLockCount
+		 * @param now
+		 * @return True if a slot was reserved.
+		 */
+		boolean tryReserve(int maxLockCount, long now) {
+			// Only the expired entries at the head of the queue are visited
+			removeExpired(now);
+			while (true) {
+				int current = count.get();
+				if (current >= maxLockCount) {
+					return false;
+				}
+				if (count.compareAndSet(current, current + 1)) {
+					return true;
+				}
+			}
+		}
+
+		/**
+		 * Add the token of a reserved slot.
+		 *
+		 * @param token
+		 * @param expires
+		 */
+		void add(String token, long expires) {
+			tokenExpirations.put(token, expires);
+			queue(token, expires);
+		}
+
+		/**
+		 * Refresh the expiration of the given token.
+		 *
+		 * @param token
+		 * @param expires
+		 * @return True if the token was held.
+		 */
+		boolean refresh(String token, long expires) {
+			if (tokenExpirations.computeIfPresent(token, (t, e) -> expires) == null) {
+				return false;
+			}
+			queue(token, expires);
+			return true;
+		}
+
+		private void queue(String token, long expires) {
+			expirationQueue.put(new Expiration(expires, expirationSequence.incrementAndGet()), token);
+		}
+
+		/**
+		 * Release the lock with the given token.
+		 *
+		 * @param token
+		 * @return True if the token was held.
+		 */
+		boolean release(String token) {
+			if (tokenExpirations.remove(token) != null) {
+				count.decrementAndGet();
+				return true;
+			}
+			return false;
+		}
+
+		void removeExpired(long now) {
+			Map.Entry<Expiration, String> head;
+			while ((head = expirationQueue.firstEntry()) != null && now > head.getKey().expires) {
+				// Only the thread that removes the entry from the queue releases its token
+				if (expirationQueue.remove(head.getKey(), head.getValue())
+						&& tokenExpirations.remove(head.getValue(), head.getKey().expires)) {
+					count.decrementAndGet();
+				}
+			}
+		}
+	}
+
+	/**
+	 * An entry of the expiration queue of a key, sorted by the expiration time.
+	 *
+	 */
+	private static final class Expiration implements Comparable<Expiration> {
+
+		private final long expires;
+		private final long sequence;
+
+		Expiration(long expires, long sequence) {
+			this.expires = expires;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public int compareTo(Expiration other) {
+			int result = Long.compare(expires, other.expires);
+			return result != 0 ? result : Long.compare(sequence, other.sequence);
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(sequence);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Expiration)) {
+				return false;
+			}
+			Expiration other = (Expiration) obj;
+			return expires == other.expires && sequence == other.sequence;
+		}
+	}
+
+}
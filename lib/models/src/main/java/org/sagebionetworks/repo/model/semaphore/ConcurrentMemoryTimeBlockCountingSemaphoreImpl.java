@@ -0,0 +1,84 @@
+package org.sagebionetworks.repo.model.semaphore;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.sagebionetworks.util.Clock;
+import org.sagebionetworks.util.ValidateArgument;
+
+/**
+ * A lock-free implementation of {@link MemoryTimeBlockCountingSemaphore}.
+ * <p>
+ * Each key holds an immutable time block (expiration and count) that is
+ * replaced with a compare-and-set. Threads acquiring locks for different keys
+ * never contend with each other, and an expired block is simply replaced by the
+ * first caller that observes it.
+ *
+ */
+public class ConcurrentMemoryTimeBlockCountingSemaphoreImpl implements MemoryTimeBlockCountingSemaphore {
+
+	private final Map<String, AtomicReference<TimeBlock>> keyBlockMap = new ConcurrentHashMap<>();
+	// abstraction from the system clock.
+	private final Clock clock;
+
+	public ConcurrentMemoryTimeBlockCountingSemaphoreImpl(Clock clock) {
+		super();
+		this.clock = clock;
+	}
+
+	@Override
+	public boolean attemptToAcquireLock(String key, long timeoutSec, long maxLockCount) {
+		ValidateArgument.required(key, "key");
+		ValidateArgument.requirement(timeoutSec >= 0, "timeoutSec must be a positive value");
+		ValidateArgument.requirement(maxLockCount >= 0, "maxLockCount must be a positive value");
+
+		if (maxLockCount == 0) {
+			// no need to track nor do anything if the max number of acquirable locks is 0
+			return false;
+		}
+
+		AtomicReference<TimeBlock> blockRef = keyBlockMap.computeIfAbsent(key, k -> new AtomicReference<>());
+		while (true) {
+			TimeBlock current = blockRef.get();
+			long now = clock.currentTimeMillis();
+			TimeBlock next;
+			if (current == null || current.isExpired(now)) {
+				// start a new block
+				next = new TimeBlock(now + timeoutSec * 1000, 1);
+			} else if (current.count < maxLockCount) {
+				next = new TimeBlock(current.expirationTimeMillis, current.count + 1);
+			} else {
+				return false;
+			}
+			if (blockRef.compareAndSet(current, next)) {
+				return true;
+			}
+		}
+	}
+
+	@Override
+	public void releaseAllLocks() {
+		keyBlockMap.clear();
+	}
+
+	/**
+	 * Immutable count of the locks issued within a single block of time.
+	 *
+	 */
+	private static final class TimeBlock {
+
+		private final long expirationTimeMillis;
+		private final long count;
+
+		TimeBlock(long expirationTimeMillis, long count) {
+			this.expirationTimeMillis = expirationTimeMillis;
+			this.count = count;
+		}
+
+		boolean isExpired(long now) {
+			return now >= expirationTimeMillis;
+		}
+	}
+
+}
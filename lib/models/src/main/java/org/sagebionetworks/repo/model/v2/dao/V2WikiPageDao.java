@@ -9,6 +9,7 @@ import org.sagebionetworks.repo.model.DatastoreException;
 import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.dao.WikiPageKey;
 import org.sagebionetworks.repo.model.file.FileHandle;
+import org.sagebionetworks.repo.model.file.S3FileHandle;
 import org.sagebionetworks.repo.model.v2.wiki.V2WikiHeader;
 import org.sagebionetworks.repo.model.v2.wiki.V2WikiHistorySnapshot;
 import org.sagebionetworks.repo.model.v2.wiki.V2WikiMarkdownVersion;
@@ -85,6 +86,26 @@ public interface V2WikiPageDao {
 	 */
 	public String getMarkdown(WikiPageKey key, Long version) throws IOException, NotFoundException;
 	
+	/**
+	 * Get the markdown stored in each of the given markdown file handles, loading
+	 * the file handles with a single query.
+	 * 
+	 * @param markdownFileHandleIds
+	 * @return Map from the file handle id to its markdown. File handles that do
+	 *         not exist are excluded.
+	 * @throws IOException
+	 */
+	Map<String, String> getMarkdownForFileHandles(List<String> markdownFileHandleIds) throws IOException;
+	
+	/**
+	 * Read and decompress the markdown stored in the given markdown file handle.
+	 * 
+	 * @param markdownHandle
+	 * @return
+	 * @throws IOException
+	 */
+	String readMarkdown(S3FileHandle markdownHandle) throws IOException;
+	
 	/**
 	 * Get ALL the file handle ids used (in the past/currently) for a wiki page.
 	 * @param key
@@ -142,6 +163,19 @@ public interface V2WikiPageDao {
 	 */
 	List<V2WikiHeader> getHeaderTree(String ownerId, ObjectType ownerType, Long limit, Long offset) throws DatastoreException, NotFoundException;
 	
+	/**
+	 * Get the title and markdown file handle of the current version of the wiki
+	 * pages of each of the given owners with a single query. The pages of each
+	 * owner are in the same order as {@link #getHeaderTree(String, ObjectType, Long, Long)}.
+	 * 
+	 * @param ownerIds
+	 * @param ownerType
+	 * @param limitPerOwner The maximum number of pages to include for each owner.
+	 * @return Map from the owner id to its pages. Owners without a wiki are
+	 *         excluded.
+	 */
+	Map<Long, List<V2WikiMarkdownVersion>> getCurrentWikiContentForOwners(List<Long> ownerIds, ObjectType ownerType, long limitPerOwner);
+	
 	/**
 	 * Lock for update, returning the current etag
 	 * @param wikiId
@@ -0,0 +1,76 @@
+package org.sagebionetworks.repo.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class KeysetNextPageTokenTest {
+
+	@Test
+	public void testRoundTrip() {
+		KeysetNextPageToken token = new KeysetNextPageToken(10L, 123L, "a name with k and / and ü");
+		// call under test
+		KeysetNextPageToken clone = new KeysetNextPageToken(token.toToken());
+		assertEquals(token, clone);
+		assertEquals(11L, clone.getLimitForQuery());
+		assertEquals(123L, clone.getLastId());
+		assertEquals("a name with k and / and ü", clone.getLastSortValue());
+	}
+
+	@Test
+	public void testNullToken() {
+		String tokenString = null;
+		// call under test
+		KeysetNextPageToken token = new KeysetNextPageToken(tokenString);
+		assertEquals(KeysetNextPageToken.DEFAULT_LIMIT + 1, token.getLimitForQuery());
+		assertNull(token.getLastId());
+		assertNull(token.getLastSortValue());
+	}
+
+	@Test
+	public void testBadToken() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			new KeysetNextPageToken("notatoken");
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			new KeysetNextPageToken("50a0");
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			new KeysetNextPageToken("50kfook");
+		});
+	}
+
+	@Test
+	public void testLimitOverMax() {
+		String tokenString = new KeysetNextPageToken(KeysetNextPageToken.MAX_LIMIT + 1, 1L, "1").toToken();
+		assertThrows(IllegalArgumentException.class, () -> {
+			new KeysetNextPageToken(tokenString);
+		});
+	}
+
+	@Test
+	public void testGetNextPageTokenForCurrentResults() {
+		KeysetNextPageToken token = new KeysetNextPageToken(2L, null, null);
+		List<Long> results = new ArrayList<>(Arrays.asList(1L, 2L, 3L));
+		// call under test
+		String next = token.getNextPageTokenForCurrentResults(results, r -> r, r -> "v" + r);
+		assertEquals(Arrays.asList(1L, 2L), results);
+		assertEquals(new KeysetNextPageToken(2L, 2L, "v2"), new KeysetNextPageToken(next));
+	}
+
+	@Test
+	public void testGetNextPageTokenForCurrentResultsLastPage() {
+		KeysetNextPageToken token = new KeysetNextPageToken(2L, null, null);
+		List<Long> results = new ArrayList<>(Arrays.asList(1L, 2L));
+		// call under test
+		assertNull(token.getNextPageTokenForCurrentResults(results, r -> r, r -> "v" + r));
+		assertEquals(Arrays.asList(1L, 2L), results);
+	}
+
+}
@@ -0,0 +1,229 @@
+package org.sagebionetworks.repo.model.semaphore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.util.Clock;
+
+@ExtendWith(MockitoExtension.class)
+public class ConcurrentMemoryCountingSemaphoreImplTest {
+
+	@Mock
+	private Clock mockClock;
+
+	private ConcurrentMemoryCountingSemaphoreImpl semaphore;
+
+	private String key;
+
+	@BeforeEach
+	public void before() {
+		semaphore = new ConcurrentMemoryCountingSemaphoreImpl(mockClock);
+		key = "someKey";
+	}
+
+	@Test
+	public void testAttemptToAcquireLock() {
+		when(mockClock.currentTimeMillis()).thenReturn(1000L, 2000L, 3000L);
+		int maxLockCount = 2;
+		long timeoutSec = 10;
+		String token = semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount);
+		assertNotNull(token);
+		String token2 = semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount);
+		assertNotNull(token2);
+		assertNotEquals(token, token2);
+		String token3 = semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount);
+		assertNull(token3, "should not be able to get a third token");
+	}
+
+	@Test
+	public void testAttemptToAcquireLockWithDifferentKeys() {
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+		assertNotNull(semaphore.attemptToAcquireLock(key, 10, 1));
+		assertNotNull(semaphore.attemptToAcquireLock("otherKey", 10, 1));
+		assertNull(semaphore.attemptToAcquireLock(key, 10, 1));
+	}
+
+	@Test
+	public void testAttemptToAcquireLockRemoveExpired() {
+		when(mockClock.currentTimeMillis()).thenReturn(1000L, 3000L, 5000L);
+		int maxLockCount = 1;
+		long timeoutSec = 1;
+		String token = semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount);
+		assertNotNull(token);
+		String token2 = semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount);
+		assertNotNull(token2, "The first lock should be expired so we should be able to get another.");
+		// validate the first lock is expired
+		assertThrows(LockReleaseFailedException.class, () -> {
+			semaphore.refreshLockTimeout(key, token, timeoutSec);
+		});
+	}
+
+	@Test
+	public void testRefreshLockTimeout() {
+		when(mockClock.currentTimeMillis()).thenReturn(1000L, 3000L, 5000L);
+		int maxLockCount = 1;
+		long timeoutSec = 1;
+		String token = semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount);
+		assertNotNull(token);
+		// refresh the lock.
+		semaphore.refreshLockTimeout(key, token, timeoutSec * 10);
+		// Should fail to get the lock now.
+		String token2 = semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount);
+		assertNull(token2, "The first lock should not be expired since it was refreshed so should not get another.");
+	}
+
+	@Test
+	public void testAttemptToAcquireLockWithReleasedLockExpired() {
+		when(mockClock.currentTimeMillis()).thenReturn(1000L, 1500L, 2100L);
+		int maxLockCount = 1;
+		long timeoutSec = 1;
+		String token = semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount);
+		assertNotNull(token);
+		semaphore.releaseLock(key, token);
+		String token2 = semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount);
+		assertNotNull(token2);
+		// The expiration of the released lock is reached, but it should not release the second lock
+		assertNull(semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount));
+	}
+
+	@Test
+	public void testAttemptToAcquireLockWithRefreshedLockExpired() {
+		when(mockClock.currentTimeMillis()).thenReturn(1000L, 1500L, 2100L, 11600L);
+		int maxLockCount = 1;
+		long timeoutSec = 1;
+		String token = semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount);
+		assertNotNull(token);
+		semaphore.refreshLockTimeout(key, token, timeoutSec * 10);
+		// The first expiration of the lock is reached, but the lock was refreshed
+		assertNull(semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount));
+		// The refreshed expiration is reached
+		assertNotNull(semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount));
+	}
+
+	@Test
+	public void testRefreshLockTimeoutWithUnknownKey() {
+		assertThrows(LockReleaseFailedException.class, () -> {
+			semaphore.refreshLockTimeout(key, "123", 10);
+		});
+	}
+
+	@Test
+	public void testReleaseLock() {
+		when(mockClock.currentTimeMillis()).thenReturn(1000L, 2000L, 3000L);
+		int maxLockCount = 1;
+		long timeoutSec = 1000;
+		String token = semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount);
+		assertNotNull(token);
+		assertNull(semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount),
+				"should not be able to get the lock as it is not expired.");
+		// release the lock
+		semaphore.releaseLock(key, token);
+		assertNotNull(semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount),
+				"Should be able to get the lock after released.");
+		// release the lock again should fail
+		assertThrows(LockReleaseFailedException.class, () -> {
+			semaphore.releaseLock(key, token);
+		});
+	}
+
+	@Test
+	public void testReleaseAllLocks() {
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+		assertNotNull(semaphore.attemptToAcquireLock(key, 1000, 1));
+		semaphore.releaseAllLocks();
+		assertNotNull(semaphore.attemptToAcquireLock(key, 1000, 1));
+	}
+
+	@Test
+	public void testConcurrentAcquireAndReleaseNeverExceedsLimit() throws Exception {
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+		int maxLockCount = 3;
+		int threadCount = 16;
+		int iterations = 10_000;
+		List<String> keys = List.of("one", "two");
+		List<AtomicInteger> held = List.of(new AtomicInteger(), new AtomicInteger());
+		AtomicInteger maxObserved = new AtomicInteger();
+		AtomicInteger acquired = new AtomicInteger();
+
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try {
+			List<Future<?>> futures = new ArrayList<>(threadCount);
+			for (int t = 0; t < threadCount; t++) {
+				int keyIndex = t % keys.size();
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < iterations; i++) {
+						String token = semaphore.attemptToAcquireLock(keys.get(keyIndex), 600, maxLockCount);
+						if (token != null) {
+							acquired.incrementAndGet();
+							int current = held.get(keyIndex).incrementAndGet();
+							maxObserved.accumulateAndGet(current, Math::max);
+							held.get(keyIndex).decrementAndGet();
+							semaphore.releaseLock(keys.get(keyIndex), token);
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+		}
+		assertTrue(maxObserved.get() <= maxLockCount, "Observed: " + maxObserved.get());
+		assertTrue(acquired.get() > 0);
+		// all locks were released so each key must have its full capacity.
+		for (String k : keys) {
+			for (int i = 0; i < maxLockCount; i++) {
+				assertNotNull(semaphore.attemptToAcquireLock(k, 600, maxLockCount));
+			}
+			assertNull(semaphore.attemptToAcquireLock(k, 600, maxLockCount));
+		}
+	}
+
+	@Test
+	public void testConcurrentAcquireWithoutReleaseIssuesExactlyTheLimit() throws Exception {
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+		int maxLockCount = 7;
+		int threadCount = 16;
+		AtomicInteger acquired = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try {
+			List<Future<?>> futures = new ArrayList<>(threadCount);
+			for (int t = 0; t < threadCount; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 1000; i++) {
+						if (semaphore.attemptToAcquireLock(key, 600, maxLockCount) != null) {
+							acquired.incrementAndGet();
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+		}
+		assertEquals(maxLockCount, acquired.get());
+	}
+}
@@ -0,0 +1,123 @@
+package org.sagebionetworks.repo.model.semaphore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.util.Clock;
+
+@ExtendWith(MockitoExtension.class)
+public class ConcurrentMemoryTimeBlockCountingSemaphoreImplTest {
+
+	@Mock
+	private Clock mockClock;
+
+	private ConcurrentMemoryTimeBlockCountingSemaphoreImpl semaphore;
+
+	private String key;
+	private long timeoutSec;
+
+	@BeforeEach
+	public void before() {
+		semaphore = new ConcurrentMemoryTimeBlockCountingSemaphoreImpl(mockClock);
+		key = "some key";
+		timeoutSec = 2;
+	}
+
+	@Test
+	public void testAcquireLockNullKey() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			semaphore.attemptToAcquireLock(null, timeoutSec, 1);
+		});
+	}
+
+	@Test
+	public void testAcquireLockNegativeTimeoutSec() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			semaphore.attemptToAcquireLock(key, -1, 1);
+		});
+	}
+
+	@Test
+	public void testAcquireLockNegativeMaxLock() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			semaphore.attemptToAcquireLock(key, timeoutSec, -1);
+		});
+	}
+
+	@Test
+	public void testAcquireLockZeroMaxLocks() {
+		assertFalse(semaphore.attemptToAcquireLock(key, timeoutSec, 0));
+	}
+
+	@Test
+	public void testAcquireLockUpToLimit() {
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+		assertTrue(semaphore.attemptToAcquireLock(key, timeoutSec, 2));
+		assertTrue(semaphore.attemptToAcquireLock(key, timeoutSec, 2));
+		assertFalse(semaphore.attemptToAcquireLock(key, timeoutSec, 2));
+		// other keys are not impacted
+		assertTrue(semaphore.attemptToAcquireLock("other", timeoutSec, 2));
+	}
+
+	@Test
+	public void testAcquireLockExpiredBlock() {
+		when(mockClock.currentTimeMillis()).thenReturn(1000L, 2000L, 3000L);
+		assertTrue(semaphore.attemptToAcquireLock(key, timeoutSec, 1));
+		assertFalse(semaphore.attemptToAcquireLock(key, timeoutSec, 1));
+		// the block expires at 3000
+		assertTrue(semaphore.attemptToAcquireLock(key, timeoutSec, 1));
+	}
+
+	@Test
+	public void testReleaseAllLocks() {
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+		assertTrue(semaphore.attemptToAcquireLock(key, timeoutSec, 1));
+		semaphore.releaseAllLocks();
+		assertTrue(semaphore.attemptToAcquireLock(key, timeoutSec, 1));
+	}
+
+	@Test
+	public void testConcurrentAcquireIssuesExactlyTheLimitPerBlock() throws Exception {
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+		int maxLockCount = 250;
+		int threadCount = 16;
+		int iterations = 5_000;
+		AtomicInteger acquired = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try {
+			List<Future<?>> futures = new ArrayList<>(threadCount);
+			for (int t = 0; t < threadCount; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < iterations; i++) {
+						if (semaphore.attemptToAcquireLock(key, 60, maxLockCount)) {
+							acquired.incrementAndGet();
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+		}
+		assertEquals(maxLockCount, acquired.get());
+	}
+}
@@ -215,6 +215,19 @@ public interface StackConfiguration {
 	 */
 	public long getCallPerformanceTriggerTime();
 
+	/**
+	 * @return The sampling mode of the call profiler: OFF (every call is profiled
+	 *         with a frame stack), REQUEST (a fraction of the requests is sampled)
+	 *         or CALL (a fraction of the calls is sampled).
+	 */
+	public String getProfilerSamplingMode();
+
+	/**
+	 * @return The fraction of the requests (or calls) sampled by the call
+	 *         profiler, between 0 and 1.
+	 */
+	public double getProfilerSamplingRate();
+
 	/**
 	 * The maximum number of threads to be used for backup/restore
 	 * 
@@ -554,6 +567,22 @@ public interface StackConfiguration {
 	 */
 	public long getTableReadTimeoutMS();
 
+	/**
+	 * The maximum number of threads on each machine that run the parts of the
+	 * table queries (count, facets, sum of file sizes...) concurrently.
+	 * 
+	 * @return
+	 */
+	public int getTableQueryThreadPoolSize();
+
+	/**
+	 * The maximum number of threads on each machine that fetch the parts of the
+	 * entity bundles concurrently.
+	 * 
+	 * @return
+	 */
+	public int getEntityBundleThreadPoolSize();
+
 	public Integer getMaxConcurrentRepoConnections();
 
 	/**
@@ -378,6 +378,16 @@ public class StackConfigurationImpl implements StackConfiguration {
 		return Long.valueOf(configuration.getProperty("org.sagebionetworks.call.performance.trigger"));
 	}
 
+	@Override
+	public String getProfilerSamplingMode() {
+		return configuration.getProperty("org.sagebionetworks.profiler.sampling.mode");
+	}
+
+	@Override
+	public double getProfilerSamplingRate() {
+		return Double.parseDouble(configuration.getProperty("org.sagebionetworks.profiler.sampling.rate"));
+	}
+
 	/**
 	 * The maximum number of threads to be used for backup/restore
 	 * 
@@ -859,6 +869,16 @@ public class StackConfigurationImpl implements StackConfiguration {
 		return Long.parseLong(configuration.getProperty("org.sagebionetworks.table.read.timeout.ms"));
 	}
 
+	@Override
+	public int getTableQueryThreadPoolSize() {
+		return Integer.parseInt(configuration.getProperty("org.sagebionetworks.table.query.thread.pool.size"));
+	}
+
+	@Override
+	public int getEntityBundleThreadPoolSize() {
+		return Integer.parseInt(configuration.getProperty("org.sagebionetworks.entity.bundle.thread.pool.size"));
+	}
+
 	public Integer getMaxConcurrentRepoConnections() {
 		return Integer.parseInt(configuration.getProperty("org.sagebionetworks.max.concurrent.repo.connections"));
 	}
@@ -27,6 +27,7 @@ import org.sagebionetworks.repo.model.EntityType;
 import org.sagebionetworks.repo.model.EntityTypeUtils;
 import org.sagebionetworks.repo.model.FileEntity;
 import org.sagebionetworks.repo.model.InvalidModelException;
+import org.sagebionetworks.repo.model.KeysetNextPageToken;
 import org.sagebionetworks.repo.model.NextPageToken;
 import org.sagebionetworks.repo.model.Node;
 import org.sagebionetworks.repo.model.ObjectType;
@@ -538,6 +539,9 @@ public class EntityManagerImpl implements EntityManager {
 		if (request.getSortDirection() == null) {
 			request.setSortDirection(DEFAULT_SORT_DIRECTION);
 		}
+		if (NodeUtils.isRootEntityId(request.getParentId())) {
+			return getVisibleProjects(user, request);
+		}
 		// Find the children of this entity that the caller cannot see.
 		Set<Long> childIdsToExclude = authorizedListChildren(user, request.getParentId());
 		NextPageToken nextPage = new NextPageToken(request.getNextPageToken());
@@ -558,6 +562,40 @@ public class EntityManagerImpl implements EntityManager {
 		return response;
 	}
 
+	/**
+	 * Listing the children of the root lists projects. The caller can typically
+	 * see only a small fraction of all projects, so rather than excluding the
+	 * projects the caller cannot see, the query joins against the benefactors the
+	 * caller can read and seeks to each page using the sort key of the last
+	 * project of the previous page.
+	 * 
+	 * @param user
+	 * @param request
+	 * @return
+	 */
+	EntityChildrenResponse getVisibleProjects(UserInfo user, EntityChildrenRequest request) {
+		// Administrators can see everything.
+		Set<Long> visibleToGroups = user.isAdmin() ? null : user.getGroups();
+		KeysetNextPageToken nextPage = new KeysetNextPageToken(request.getNextPageToken());
+		List<EntityHeader> page = nodeManager.getVisibleChildren(request.getParentId(), request.getIncludeTypes(),
+				visibleToGroups, request.getSortBy(), request.getSortDirection(), nextPage.getLastId(),
+				nextPage.getLastSortValue(), nextPage.getLimitForQuery());
+		// Gather count and size sum if requested.
+		ChildStatsResponse stats = nodeManager
+				.getChildrenStats(new ChildStatsRequest().withParentId(request.getParentId())
+						.withIncludeTypes(request.getIncludeTypes()).withVisibleToGroups(visibleToGroups)
+						.withIncludeTotalChildCount(request.getIncludeTotalChildCount())
+						.withIncludeSumFileSizes(request.getIncludeSumFileSizes()));
+		EntityChildrenResponse response = new EntityChildrenResponse();
+		response.setPage(page);
+		response.setNextPageToken(nextPage.getNextPageTokenForCurrentResults(page,
+				header -> KeyFactory.stringToKey(header.getId()),
+				header -> NodeUtils.getSortValue(request.getSortBy(), header)));
+		response.setTotalChildCount(stats.getTotalChildCount());
+		response.setSumFileSizesBytes(stats.getSumFileSizesBytes());
+		return response;
+	}
+
 	@Override
 	public EntityId lookupChild(UserInfo userInfo, EntityLookupRequest request) {
 		ValidateArgument.required(userInfo, "userInfo");
@@ -362,6 +362,25 @@ public interface NodeManager {
 	public List<EntityHeader> getChildren(String parentId,
 			List<EntityType> includeTypes, Set<Long> childIdsToExclude, SortBy sortBy, Direction sortDirection, long limit, long offset);
 	
+	/**
+	 * Get one page of the children visible to the given groups, using keyset
+	 * pagination.
+	 * 
+	 * @param parentId        The id of the parent.
+	 * @param includeTypes    The types of children to include in the results.
+	 * @param visibleToGroups When null all children are included.
+	 * @param sortBy          Sort by.
+	 * @param sortDirection   Sort direction
+	 * @param lastId          The ID of the last child of the previous page.
+	 * @param lastSortValue   The sort value of the last child of the previous
+	 *                        page.
+	 * @param limit
+	 * @return
+	 */
+	public List<EntityHeader> getVisibleChildren(String parentId, List<EntityType> includeTypes,
+			Set<Long> visibleToGroups, SortBy sortBy, Direction sortDirection, Long lastId, String lastSortValue,
+			long limit);
+	
 	/**
 	 * Get the statistics for the given parentId and types.
 	 * 
@@ -1,5 +1,6 @@
 package org.sagebionetworks.repo.manager;
   
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -591,7 +592,7 @@ public class NodeManagerImpl implements NodeManager {
 		UserInfo.validateUserInfo(userInfo);
 		authorizationManager.hasAccess(userInfo, nodeId, ACCESS_TYPE.READ).checkAuthorizationOrElseThrow();
 
-		List<EntityHeader> entityHeaders = NameIdType.toEntityHeader(nodeDao.getEntityPath(nodeId));
+		List<EntityHeader> entityHeaders = NameIdType.toEntityHeader(getEntityPath(nodeId));
 		List<UsersEntityAccessInfo> userEntitysAccessInfo = authorizationManager.batchHasAccess(userInfo,
 				entityHeaders.stream().map((h) -> KeyFactory.stringToKey(h.getId())).collect(Collectors.toList()),
 				ACCESS_TYPE.READ);
@@ -609,7 +610,20 @@ public class NodeManagerImpl implements NodeManager {
 	@Override
 	public List<EntityHeader> getNodePathAsAdmin(String nodeId)	throws NotFoundException, DatastoreException {
 		// This version does not require authorization.
-		return NameIdType.toEntityHeader(nodeDao.getEntityPath(nodeId));
+		return NameIdType.toEntityHeader(getEntityPath(nodeId));
+	}
+	
+	/**
+	 * Resolves the path of the node through the batch lookup, so that the path of its parent comes from the container
+	 * path cache rather than walking the hierarchy for each request.
+	 */
+	private List<NameIdType> getEntityPath(String nodeId) {
+		Long id = KeyFactory.stringToKey(nodeId);
+		List<NameIdType> path = nodeDao.getEntityPaths(Collections.singleton(id)).get(id);
+		if (path == null) {
+			throw new NotFoundException("Cannot find a node with id: " + nodeId);
+		}
+		return path;
 	}
 
 	@WriteTransaction
@@ -801,6 +815,15 @@ public class NodeManagerImpl implements NodeManager {
 		return nodeDao.getChildren(parentId, includeTypes, childIdsToExclude, sortBy, sortDirection, limit, offset);
 	}
 	
+	@Override
+	public List<EntityHeader> getVisibleChildren(String parentId, List<EntityType> includeTypes,
+			Set<Long> visibleToGroups, SortBy sortBy, Direction sortDirection, Long lastId, String lastSortValue,
+			long limit) {
+		// EntityManager handles all of the business logic for this call.
+		return nodeDao.getVisibleChildren(parentId, includeTypes, visibleToGroups, sortBy, sortDirection, lastId,
+				lastSortValue, limit);
+	}
+	
 	@Override
 	public ChildStatsResponse getChildrenStats(ChildStatsRequest request) {
 		// EntityManager handles all of the business logic for this call.
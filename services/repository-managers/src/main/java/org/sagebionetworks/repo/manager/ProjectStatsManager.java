@@ -15,6 +15,9 @@ public interface ProjectStatsManager {
 	 * project a new ProjectStat will be added. If a ProjectStat already exists
 	 * for this user and project then the ProjectStat will be updated if the
 	 * given activity is newer than the existing activity.
+	 * <p>
+	 * The activity is aggregated in memory and written by the next
+	 * {@link #flushProjectStats()}.
 	 * 
 	 * @param userId
 	 *            The user that performed the activity.
@@ -40,7 +43,8 @@ public interface ProjectStatsManager {
 
 	/**
 	 * When a member is added to a team the new member's project stats
-	 * are bumped for each project visible to the team.
+	 * are bumped for each project visible to the team. The projects are looked
+	 * up by the next {@link #flushProjectStats()}.
 	 *   
 	 * @param teamId
 	 * @param memberId
@@ -48,4 +52,11 @@ public interface ProjectStatsManager {
 	 */
 	void memberAddedToTeam(Long teamId, Long memberId, Date activityDate);
 
+	/**
+	 * Called from a timer to write the aggregated statistics. Teams are expanded
+	 * to their members and the latest access of each user in each project is
+	 * written with ordered batch upserts.
+	 */
+	void flushProjectStats();
+
 }
@@ -1,6 +1,9 @@
 package org.sagebionetworks.repo.manager;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.sagebionetworks.repo.model.GroupMembersDAO;
 import org.sagebionetworks.repo.model.NodeDAO;
 import org.sagebionetworks.repo.model.ObjectType;
@@ -10,15 +13,38 @@ import org.sagebionetworks.repo.model.UserGroupDAO;
 import org.sagebionetworks.repo.model.dao.WikiPageKey;
 import org.sagebionetworks.repo.model.jdo.KeyFactory;
 import org.sagebionetworks.repo.model.v2.dao.V2WikiPageDao;
-import org.sagebionetworks.repo.transactions.WriteTransaction;
 import org.sagebionetworks.util.ValidateArgument;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import javax.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Project statistics are aggregated in memory and written behind by
+ * {@link #flushProjectStats()}. Only the latest access for each pair is kept,
+ * so repeated activity between two flushes results in a single upsert, and
+ * team members are only expanded when the statistics are flushed.
+ *
+ */
 public class ProjectStatsManagerImpl implements ProjectStatsManager {
+	
+	private static final Logger LOG = LogManager.getLogger(ProjectStatsManagerImpl.class);
+	
+	/**
+	 * The maximum number of stats written with a single batch.
+	 */
+	public static final int MAX_BATCH_SIZE = 1000;
 
 	@Autowired
 	ProjectStatsDAO projectStatDao;
@@ -33,6 +59,11 @@ public class ProjectStatsManagerImpl implements ProjectStatsManager {
 	@Autowired
 	UserGroupDAO userGroupDao;
 	
+	// The latest activity of each principal (user or team) in each project
+	private final Map<IdPair, Long> pendingProjectActivity = new ConcurrentHashMap<>();
+	// The latest time each member was added to each team
+	private final Map<IdPair, Long> pendingMembersAdded = new ConcurrentHashMap<>();
+	
 	/*
 	 * (non-Javadoc)
 	 * @see org.sagebionetworks.repo.manager.ProjectStatsManager#getProjectForObject(java.lang.String, org.sagebionetworks.repo.model.ObjectType)
@@ -44,7 +75,9 @@ public class ProjectStatsManagerImpl implements ProjectStatsManager {
 			switch (objectType) {
 			case ENTITY:
 			case TABLE:
-				return nodeDao.getProjectId(objectId);
+				// The lookup is backed by the cache of the entity hierarchy
+				Long entityId = KeyFactory.stringToKey(objectId);
+				return Optional.ofNullable(nodeDao.getProjectIds(Collections.singleton(entityId)).get(entityId)).map(KeyFactory::keyToString);
 			case WIKI:
 				// Lookup the owner id and type for this wiki.
 				WikiPageKey key = v2wikiPageDao.lookupWikiKey(objectId);
@@ -60,57 +93,164 @@ public class ProjectStatsManagerImpl implements ProjectStatsManager {
 	 * (non-Javadoc)
 	 * @see org.sagebionetworks.repo.manager.ProjectStatsManager#updateProjectStats(java.lang.Long, java.lang.String, org.sagebionetworks.repo.model.ObjectType, java.util.Date)
 	 */
-	@WriteTransaction
 	@Override
 	public void updateProjectStats(Long principalId, String objectId,
 			ObjectType objectType, Date activityDate) {
 		ValidateArgument.required(principalId, "userId");
 		ValidateArgument.required(objectId, "objectId");
 		ValidateArgument.required(objectType, "objectType");
-		ValidateArgument.required(objectType, "objectType");
+		ValidateArgument.required(activityDate, "activityDate");
 		
 		// Lookup the projectId for this object
 		Optional<String> projectIdString = getProjectForObject(objectId, objectType);
 		if(projectIdString.isPresent()){
 			long projectId = KeyFactory.stringToKey(projectIdString.get());
-			if(userGroupDao.isIndividual(principalId)){
-				// user.
-				projectStatDao.updateProjectStat(new ProjectStat(projectId, principalId, activityDate));
-			}else{
-				// team so update for each member
-				Set<Long> memberIds = groupMemberDao.getMemberIds(principalId);
-				if(!memberIds.isEmpty()){
-					ProjectStat[] update = new ProjectStat[memberIds.size()];
-					int index = 0;
-					for(Long memberId: memberIds){
-						update[index] = new ProjectStat(projectId, memberId, activityDate);
-						index++;
-					}
-					// batch update
-					projectStatDao.updateProjectStat(update);
-				}
-			}
+			// the principal is resolved to users when flushed.
+			pendingProjectActivity.merge(new IdPair(projectId, principalId), activityDate.getTime(), Math::max);
 		}
 	}
 
-
-	@WriteTransaction
 	@Override
 	public void memberAddedToTeam(Long teamId, Long memberId, Date activityDate) {
 		ValidateArgument.required(teamId, "teamId");
 		ValidateArgument.required(memberId, "memberId");
-		// Lookup all projects that are visible by this team
-		Set<Long> visibleProjectIds = authorizationManager.getAccessibleProjectIds(Sets.newHashSet(teamId));
-		if(!visibleProjectIds.isEmpty()){
-			ProjectStat[] update = new ProjectStat[visibleProjectIds.size()];
-			int index = 0;
-			for(Long projectId: visibleProjectIds){
-				// Bump this user's stats for this project
-				update[index] = new ProjectStat(projectId, memberId, activityDate);
-				index++;
+		ValidateArgument.required(activityDate, "activityDate");
+		// the projects visible to the team are looked up when flushed.
+		pendingMembersAdded.merge(new IdPair(teamId, memberId), activityDate.getTime(), Math::max);
+	}
+	
+	@Override
+	public void flushProjectStats() {
+		Map<IdPair, Long> projectActivity = drain(pendingProjectActivity);
+		Map<IdPair, Long> membersAdded = drain(pendingMembersAdded);
+		
+		if (projectActivity.isEmpty() && membersAdded.isEmpty()) {
+			return;
+		}
+		
+		// The latest access of each user in each project
+		Map<IdPair, Long> latestAccess = new HashMap<>();
+		
+		// Each principal and team is only looked up once per flush
+		Map<Long, Set<Long>> principalUsers = new HashMap<>();
+		
+		projectActivity.forEach((projectPrincipal, lastAccessed) -> {
+			Set<Long> userIds = principalUsers.computeIfAbsent(projectPrincipal.second, this::getUserIds);
+			for (Long userId : userIds) {
+				latestAccess.merge(new IdPair(projectPrincipal.first, userId), lastAccessed, Math::max);
+			}
+		});
+		
+		Map<Long, Set<Long>> teamProjects = new HashMap<>();
+		
+		membersAdded.forEach((teamMember, lastAccessed) -> {
+			// Bump the member's stats for each project visible to the team
+			Set<Long> projectIds = teamProjects.computeIfAbsent(teamMember.first,
+					teamId -> authorizationManager.getAccessibleProjectIds(Sets.newHashSet(teamId)));
+			for (Long projectId : projectIds) {
+				latestAccess.merge(new IdPair(projectId, teamMember.second), lastAccessed, Math::max);
+			}
+		});
+		
+		List<ProjectStat> stats = new ArrayList<>(latestAccess.size());
+		latestAccess.forEach((projectUser, lastAccessed) -> {
+			stats.add(new ProjectStat(projectUser.first, projectUser.second, new Date(lastAccessed)));
+		});
+		
+		// Always write in the same order to avoid deadlocks between concurrent batches
+		stats.sort(Comparator.comparingLong(ProjectStat::getProjectId).thenComparingLong(ProjectStat::getUserId));
+		
+		for (List<ProjectStat> batch : Lists.partition(stats, MAX_BATCH_SIZE)) {
+			try {
+				projectStatDao.updateProjectStat(batch.toArray(new ProjectStat[batch.size()]));
+			} catch (Exception e) {
+				// Statistics are best effort, keep writing the other batches.
+				LOG.error("Failed to write a batch of " + batch.size() + " project stats: " + e.getMessage(), e);
+			}
+		}
+	}
+	
+	/**
+	 * Writes the statistics still pending when the application shuts down, so
+	 * they are not lost with the buffer.
+	 */
+	@PreDestroy
+	public void flushOnShutdown() {
+		try {
+			flushProjectStats();
+		} catch (Exception e) {
+			// Never block the shutdown.
+			LOG.error("Failed to flush the pending project stats on shutdown: " + e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * @param principalId
+	 * @return The principal itself if it is a user, the members of the team otherwise.
+	 */
+	private Set<Long> getUserIds(Long principalId) {
+		if (userGroupDao.isIndividual(principalId)) {
+			return Sets.newHashSet(principalId);
+		}
+		return groupMemberDao.getMemberIds(principalId);
+	}
+	
+	/**
+	 * Remove all the entries of the given map. Entries added concurrently are
+	 * either drained or left for the next flush.
+	 * 
+	 * @param pending
+	 * @return
+	 */
+	private static Map<IdPair, Long> drain(Map<IdPair, Long> pending) {
+		Map<IdPair, Long> drained = new HashMap<>();
+		for (IdPair key : pending.keySet()) {
+			Long value = pending.remove(key);
+			if (value != null) {
+				drained.put(key, value);
+			}
+		}
+		return drained;
+	}
+	
+	/**
+	 * Number of pending entries, exposed for testing.
+	 * 
+	 * @return
+	 */
+	int getPendingCount() {
+		return pendingProjectActivity.size() + pendingMembersAdded.size();
+	}
+	
+	/**
+	 * Immutable pair of IDs used as an aggregation key.
+	 *
+	 */
+	private static final class IdPair {
+		
+		private final long first;
+		private final long second;
+		
+		IdPair(long first, long second) {
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(first, second);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof IdPair)) {
+				return false;
 			}
-			// batch update
-			projectStatDao.updateProjectStat(update);
+			IdPair other = (IdPair) obj;
+			return first == other.first && second == other.second;
 		}
 	}
 
@@ -11,6 +11,7 @@ import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.NotImplementedException;
 import org.sagebionetworks.reflection.model.PaginatedResults;
+import org.sagebionetworks.repo.manager.authentication.PrincipalAuthenticationCache;
 import org.sagebionetworks.repo.manager.file.FileHandleManager;
 import org.sagebionetworks.repo.manager.file.FileHandleUrlRequest;
 import org.sagebionetworks.repo.model.AuthorizationConstants.BOOTSTRAP_PRINCIPAL;
@@ -65,6 +66,8 @@ public class UserProfileManagerImpl implements UserProfileManager {
 	private VerificationDAO verificationDao;
 	@Autowired
 	private AuthenticationDAO authDao;
+	@Autowired
+	private PrincipalAuthenticationCache principalAuthenticationCache;
 
 	@Override
 	public UserProfile getUserProfile(String ownerId)
@@ -360,6 +363,8 @@ public class UserProfileManagerImpl implements UserProfileManager {
 		} catch (NotFoundException e1) {
 			throw new DatastoreException(e1);
 		}
+		// The previous user name is no longer bound to the user
+		principalAuthenticationCache.invalidate(principalId);
 	}
 	
 	private void validateProfile(UserProfile profile) {
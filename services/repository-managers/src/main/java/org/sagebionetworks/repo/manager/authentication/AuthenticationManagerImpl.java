@@ -79,6 +79,9 @@ public class AuthenticationManagerImpl implements AuthenticationManager {
 
 	@Autowired
 	private FeatureManager featureManager;
+
+	@Autowired
+	private PrincipalAuthenticationCache principalAuthenticationCache;
 	
 	@Override
 	@WriteTransaction
@@ -196,6 +199,7 @@ public class AuthenticationManagerImpl implements AuthenticationManager {
 			throw new IllegalArgumentException("Cannot \"unsign\" the terms of use");
 		}
 		authDAO.setTermsOfUseAcceptance(principalId, acceptance);
+		principalAuthenticationCache.invalidate(principalId);
 	}
 
 	@Override
@@ -13,6 +13,7 @@ import org.sagebionetworks.repo.manager.NotificationManager;
 import org.sagebionetworks.repo.manager.UserManager;
 import org.sagebionetworks.repo.manager.oauth.ClaimsJsonUtil;
 import org.sagebionetworks.repo.manager.oauth.OIDCTokenHelper;
+import org.sagebionetworks.repo.manager.oauth.ValidatedAccessTokenCache;
 import org.sagebionetworks.repo.model.AuthorizationUtils;
 import org.sagebionetworks.repo.model.UnauthenticatedException;
 import org.sagebionetworks.repo.model.UnauthorizedException;
@@ -66,13 +67,16 @@ public class PersonalAccessTokenManagerImpl implements PersonalAccessTokenManage
 	
 	private Clock clock;
 	
+	private ValidatedAccessTokenCache validatedAccessTokenCache;
+	
 	@Autowired
-	public PersonalAccessTokenManagerImpl(PersonalAccessTokenDao personalAccessTokenDao, OIDCTokenHelper oidcTokenHelper, UserManager userManager, NotificationManager notificationManager, Clock clock) {
+	public PersonalAccessTokenManagerImpl(PersonalAccessTokenDao personalAccessTokenDao, OIDCTokenHelper oidcTokenHelper, UserManager userManager, NotificationManager notificationManager, Clock clock, ValidatedAccessTokenCache validatedAccessTokenCache) {
 		this.personalAccessTokenDao = personalAccessTokenDao;
 		this.oidcTokenHelper = oidcTokenHelper;
 		this.userManager = userManager;
 		this.notificationManager = notificationManager;
 		this.clock = clock;
+		this.validatedAccessTokenCache = validatedAccessTokenCache;
 	}
 
 	/**
@@ -225,6 +229,7 @@ public class PersonalAccessTokenManagerImpl implements PersonalAccessTokenManage
 		
 		if (userInfo.getId().toString().equals(record.getUserId()) || userInfo.isAdmin()) {
 			personalAccessTokenDao.deleteToken(tokenId);
+			validatedAccessTokenCache.invalidateTokenId(tokenId);
 		} else {
 			throw new UnauthorizedException("You do not have permission to revoke this token.");
 		}
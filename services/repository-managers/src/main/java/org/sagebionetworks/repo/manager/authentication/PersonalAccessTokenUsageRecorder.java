@@ -0,0 +1,25 @@
+package org.sagebionetworks.repo.manager.authentication;
+
+/**
+ * Records the use of personal access tokens outside of the request path. Uses
+ * of the same token are coalesced so that the last used time of a token is
+ * written at most once per interval.
+ *
+ */
+public interface PersonalAccessTokenUsageRecorder {
+
+	/**
+	 * Record that the token with the given ID was used. This does not touch the
+	 * database.
+	 * 
+	 * @param tokenId
+	 */
+	void recordUsage(String tokenId);
+
+	/**
+	 * Called when the timer is fired, writes the last used time of the tokens
+	 * used since the last flush.
+	 */
+	void timerFired();
+
+}
@@ -0,0 +1,73 @@
+package org.sagebionetworks.repo.manager.authentication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.sagebionetworks.util.Clock;
+import org.sagebionetworks.util.ValidateArgument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class PersonalAccessTokenUsageRecorderImpl implements PersonalAccessTokenUsageRecorder {
+
+	private static final Logger LOG = LogManager.getLogger(PersonalAccessTokenUsageRecorderImpl.class);
+
+	// Matches the resolution of the last used time kept by the PersonalAccessTokenManager
+	static final long FLUSH_INTERVAL_MS = 60 * 1000L;
+
+	private final PersonalAccessTokenManager personalAccessTokenManager;
+
+	private final Clock clock;
+
+	// The tokens used since the last flush
+	private final Set<String> pendingTokenIds = ConcurrentHashMap.newKeySet();
+
+	// The time each token was last flushed, used to skip uses within the interval
+	private final Map<String, Long> lastFlushedOn = new ConcurrentHashMap<>();
+
+	@Autowired
+	public PersonalAccessTokenUsageRecorderImpl(PersonalAccessTokenManager personalAccessTokenManager, Clock clock) {
+		this.personalAccessTokenManager = personalAccessTokenManager;
+		this.clock = clock;
+	}
+
+	@Override
+	public void recordUsage(String tokenId) {
+		ValidateArgument.required(tokenId, "The tokenId");
+		Long flushedOn = lastFlushedOn.get(tokenId);
+		if (flushedOn != null && clock.currentTimeMillis() < flushedOn + FLUSH_INTERVAL_MS) {
+			return;
+		}
+		pendingTokenIds.add(tokenId);
+	}
+
+	@Override
+	public void timerFired() {
+		long now = clock.currentTimeMillis();
+		// Entries older than the interval no longer suppress anything
+		lastFlushedOn.values().removeIf(flushedOn -> now >= flushedOn + FLUSH_INTERVAL_MS);
+
+		List<String> batch = new ArrayList<>(pendingTokenIds);
+		for (String tokenId : batch) {
+			pendingTokenIds.remove(tokenId);
+			lastFlushedOn.put(tokenId, now);
+			try {
+				personalAccessTokenManager.updateLastUsedTime(tokenId);
+			} catch (Exception e) {
+				LOG.error("Failed to update the last used time of token " + tokenId, e);
+			}
+		}
+	}
+
+	// For testing
+	Set<String> getPendingTokenIds() {
+		return pendingTokenIds;
+	}
+
+}
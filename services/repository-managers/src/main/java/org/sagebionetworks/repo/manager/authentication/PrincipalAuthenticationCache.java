@@ -0,0 +1,41 @@
+package org.sagebionetworks.repo.manager.authentication;
+
+import org.sagebionetworks.repo.web.NotFoundException;
+
+/**
+ * A bounded, in-memory cache of the authentication state of the principals that is read on every request by the servlet filters: the
+ * principal id of a user name or email used to sign a request and the acceptance of the terms of use.
+ * <p>
+ * Changes made on this machine invalidate the cached state of the principal once committed. Since the cache is local to a single
+ * machine, entries are only kept for a short time so that a change on another machine is honored promptly. For this reason only state
+ * whose staleness cannot grant access is cached: the secret keys are not cached, so that a revoked key is rejected at once on every
+ * machine, a stale alias can only resolve to the principal that owned it and the acceptance of the terms of use cannot be revoked.
+ *
+ */
+public interface PrincipalAuthenticationCache {
+
+	/**
+	 * Get the id of the user with the given user name or email.
+	 * 
+	 * @param usernameOrEmail
+	 * @return
+	 * @throws NotFoundException If there is no user with the given alias
+	 */
+	Long getPrincipalId(String usernameOrEmail) throws NotFoundException;
+
+	/**
+	 * @param principalId
+	 * @return True if the principal with the given id accepted the terms of use. Only the acceptance is cached, so that a user that
+	 *         just signed the terms of use is let through on every machine.
+	 */
+	boolean hasUserAcceptedTermsOfUse(Long principalId);
+
+	/**
+	 * Invalidates the cached aliases and terms of use acceptance of the principal with the given id, both immediately and, if a
+	 * transaction is active, once the transaction is committed. Should be invoked when the user name or emails of the principal change.
+	 * 
+	 * @param principalId
+	 */
+	void invalidate(Long principalId);
+
+}
@@ -0,0 +1,104 @@
+package org.sagebionetworks.repo.manager.authentication;
+
+import java.time.Duration;
+
+import org.sagebionetworks.repo.model.auth.AuthenticationDAO;
+import org.sagebionetworks.repo.model.message.TransactionSynchronizationProxy;
+import org.sagebionetworks.repo.model.principal.AliasType;
+import org.sagebionetworks.repo.model.principal.PrincipalAlias;
+import org.sagebionetworks.repo.model.principal.PrincipalAliasDAO;
+import org.sagebionetworks.repo.web.NotFoundException;
+import org.sagebionetworks.util.ValidateArgument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+@Service
+public class PrincipalAuthenticationCacheImpl implements PrincipalAuthenticationCache {
+
+	// Bounds how long a change on another machine can go unnoticed
+	static final Duration MAX_CACHE_DURATION = Duration.ofSeconds(60);
+
+	static final long MAX_CACHE_SIZE = 10_000;
+
+	private final AuthenticationDAO authDao;
+
+	private final PrincipalAliasDAO principalAliasDao;
+
+	private final TransactionSynchronizationProxy transactionSynchronization;
+
+	private final Cache<String, Long> principalIdCache;
+
+	// Only the principals that accepted the terms of use are cached
+	private final Cache<Long, Boolean> termsOfUseCache;
+
+	@Autowired
+	public PrincipalAuthenticationCacheImpl(AuthenticationDAO authDao, PrincipalAliasDAO principalAliasDao,
+			TransactionSynchronizationProxy transactionSynchronization) {
+		this.authDao = authDao;
+		this.principalAliasDao = principalAliasDao;
+		this.transactionSynchronization = transactionSynchronization;
+		this.principalIdCache = buildCache();
+		this.termsOfUseCache = buildCache();
+	}
+
+	private static <K, V> Cache<K, V> buildCache() {
+		return CacheBuilder.newBuilder()
+			.maximumSize(MAX_CACHE_SIZE)
+			.expireAfterWrite(MAX_CACHE_DURATION)
+			.build();
+	}
+
+	@Override
+	public Long getPrincipalId(String usernameOrEmail) throws NotFoundException {
+		ValidateArgument.required(usernameOrEmail, "The usernameOrEmail");
+		Long principalId = principalIdCache.getIfPresent(usernameOrEmail);
+		if (principalId == null) {
+			PrincipalAlias alias = principalAliasDao.findPrincipalWithAlias(usernameOrEmail, AliasType.USER_EMAIL, AliasType.USER_NAME);
+			if (alias == null) {
+				throw new NotFoundException("Did not find a user with alias: " + usernameOrEmail);
+			}
+			principalId = alias.getPrincipalId();
+			principalIdCache.put(usernameOrEmail, principalId);
+		}
+		return principalId;
+	}
+
+	@Override
+	public boolean hasUserAcceptedTermsOfUse(Long principalId) {
+		ValidateArgument.required(principalId, "The principalId");
+		if (termsOfUseCache.getIfPresent(principalId) != null) {
+			return true;
+		}
+		boolean accepted = authDao.hasUserAcceptedToU(principalId);
+		if (accepted) {
+			termsOfUseCache.put(principalId, Boolean.TRUE);
+		}
+		return accepted;
+	}
+
+	@Override
+	public void invalidate(Long principalId) {
+		ValidateArgument.required(principalId, "The principalId");
+		invalidateNow(principalId);
+		// A concurrent request might load the state that is being replaced before the transaction is committed
+		if (transactionSynchronization.isSynchronizationActive()) {
+			transactionSynchronization.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					invalidateNow(principalId);
+				}
+			});
+		}
+	}
+
+	private void invalidateNow(Long principalId) {
+		// Alias changes are rare, the aliases of the principal are found scanning the bounded cache
+		principalIdCache.asMap().values().removeIf(principalId::equals);
+		termsOfUseCache.invalidate(principalId);
+	}
+
+}
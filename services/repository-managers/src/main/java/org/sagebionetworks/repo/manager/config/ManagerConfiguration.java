@@ -106,7 +106,7 @@ public class ManagerConfiguration {
 	public Map<FileHandleAssociateType, FileHandleAssociationScanner> fileHandleAssociationScannerMap(NamedParameterJdbcTemplate jdbcTemplate, TableEntityManager tableManager) {
 		Map<FileHandleAssociateType, FileHandleAssociationScanner> scannerMap = new HashMap<>();
 		
-		scannerMap.put(FileHandleAssociateType.TableEntity, tableEntityFileScanner(tableManager));
+		scannerMap.put(FileHandleAssociateType.TableEntity, tableEntityFileScanner(tableManager, jdbcTemplate));
 		
 		scannerMap.put(FileHandleAssociateType.FileEntity, fileEntityFileScanner(jdbcTemplate));
 		scannerMap.put(FileHandleAssociateType.SubmissionAttachment, evaluationSubmissionFileScanner(jdbcTemplate));
@@ -126,10 +126,10 @@ public class ManagerConfiguration {
 	}
 	
 	@Bean
-	public FileHandleAssociationScanner tableEntityFileScanner(TableEntityManager tableManager) {
+	public TableFileHandleScanner tableEntityFileScanner(TableEntityManager tableManager, NamedParameterJdbcTemplate jdbcTemplate) {
 		// Note: for configuration consistency this bean is not annotated with the @Service annotation (e.g. will not be auto-scanned) but we
-		// configure it here as a public bean
-		return new TableFileHandleScanner(tableManager);
+		// configure it here as a public bean, typed so that it can be injected where the table specific methods are needed
+		return new TableFileHandleScanner(tableManager, jdbcTemplate);
 	}
 	
 	@Bean
@@ -250,4 +250,22 @@ public class ManagerConfiguration {
 		return Executors.newCachedThreadPool();
 	}
 	
+	/**
+	 * @param config
+	 * @return A bounded thread pool used to run the parts of the table queries concurrently
+	 */
+	@Bean
+	public ExecutorService tableQueryThreadPool(StackConfiguration config) {
+		return Executors.newFixedThreadPool(config.getTableQueryThreadPoolSize());
+	}
+	
+	/**
+	 * @param config
+	 * @return A bounded thread pool used to fetch the parts of the entity bundles concurrently
+	 */
+	@Bean
+	public ExecutorService entityBundleThreadPool(StackConfiguration config) {
+		return Executors.newFixedThreadPool(config.getEntityBundleThreadPoolSize());
+	}
+	
 }
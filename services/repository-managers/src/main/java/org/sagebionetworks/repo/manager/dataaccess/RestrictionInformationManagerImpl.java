@@ -2,6 +2,7 @@ package org.sagebionetworks.repo.manager.dataaccess;
 
 import java.util.List;
 
+import org.sagebionetworks.repo.manager.entity.EntityStateContext;
 import org.sagebionetworks.repo.manager.entity.EntityStateProvider;
 import org.sagebionetworks.repo.manager.entity.LazyEntityStateProvider;
 import org.sagebionetworks.repo.model.RestrictionInformationRequest;
@@ -49,8 +50,9 @@ public class RestrictionInformationManagerImpl implements RestrictionInformation
 	RestrictionInformationResponse getEntityRestrictionInformationResponse(UserInfo userInfo,
 																		   RestrictionInformationRequest request) {
 		long objectId = KeyFactory.stringToKey(request.getObjectId());
-		EntityStateProvider stateProvider = new LazyEntityStateProvider(accessRestrictionStatusDao,
-				usersEntityPermissionsDao, userInfo, KeyFactory.stringToKeySingletonList(request.getObjectId()));
+		List<Long> entityIds = KeyFactory.stringToKeySingletonList(request.getObjectId());
+		EntityStateProvider stateProvider = EntityStateContext.getBoundProvider(userInfo, entityIds).orElseGet(() ->
+				new LazyEntityStateProvider(accessRestrictionStatusDao, usersEntityPermissionsDao, userInfo, entityIds));
 		UsersRestrictionStatus usersRestrictionStatus = stateProvider.getRestrictionStatus(objectId);
 
 		if (usersRestrictionStatus.getAccessRestrictions().isEmpty()) {
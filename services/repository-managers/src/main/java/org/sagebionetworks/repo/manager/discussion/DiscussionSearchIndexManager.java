@@ -1,5 +1,7 @@
 package org.sagebionetworks.repo.manager.discussion;
 
+import java.util.Set;
+
 import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.discussion.DiscussionSearchRequest;
 import org.sagebionetworks.repo.model.discussion.DiscussionSearchResponse;
@@ -45,4 +47,14 @@ public interface DiscussionSearchIndexManager {
 	 */
 	void processReplyChange(Long replyId) throws RecoverableMessageException;
 	
+	/**
+	 * Process a batch of thread and reply changes, the result is the same as invoking {@link #processThreadChange(Long)} and
+	 * {@link #processReplyChange(Long)} for each of the changed threads and replies, but each thread and reply is loaded only once, 
+	 * the content of the messages is fetched concurrently and the index is updated with a bounded number of statements.
+	 * 
+	 * @param threadIds The ids of the threads that were changed
+	 * @param replyIds The ids of the replies that were changed
+	 */
+	void processChanges(Set<Long> threadIds, Set<Long> replyIds) throws RecoverableMessageException;
+	
 }
@@ -1,20 +1,31 @@
 package org.sagebionetworks.repo.manager.discussion;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpStatus;
 import org.sagebionetworks.repo.manager.AuthorizationManager;
 import org.sagebionetworks.repo.model.ACCESS_TYPE;
-import org.sagebionetworks.repo.model.NextPageToken;
+import org.sagebionetworks.repo.model.KeysetNextPageToken;
 import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.UploadContentToS3DAO;
 import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.dbo.dao.discussion.DiscussionReplyDAO;
 import org.sagebionetworks.repo.model.dbo.dao.discussion.DiscussionSearchIndexDao;
+import org.sagebionetworks.repo.model.dbo.dao.discussion.DiscussionSearchIndexMatch;
 import org.sagebionetworks.repo.model.dbo.dao.discussion.DiscussionThreadDAO;
 import org.sagebionetworks.repo.model.dbo.dao.discussion.ForumDAO;
+import org.sagebionetworks.repo.model.dbo.persistence.discussion.DBODiscussionSearchIndexRecord;
 import org.sagebionetworks.repo.model.discussion.DiscussionFilter;
 import org.sagebionetworks.repo.model.discussion.DiscussionReplyBundle;
 import org.sagebionetworks.repo.model.discussion.DiscussionSearchRequest;
@@ -32,12 +43,53 @@ import org.springframework.stereotype.Service;
 import com.amazonaws.AmazonServiceException;
 import com.amazonaws.AmazonServiceException.ErrorType;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.google.common.collect.Lists;
 
 @Service
 public class DiscussionSearchIndexManagerImpl implements DiscussionSearchIndexManager {
 
 	private static final int MIN_SEARCH_STRING_LENGTH = 3;
 	
+	// The maximum number of messages that are fetched from S3 concurrently when processing a batch of changes
+	static final int MAX_CONCURRENT_FETCH = 10;
+	
+	private static final String SORT_VALUE_DELIMITER = ":";
+	
+	/**
+	 * @param match
+	 * @return The sort value for the token of the page following the given match, includes the relevance and the reply id of the match
+	 */
+	static String toSortValue(DiscussionSearchIndexMatch match) {
+		return match.getRelevance() + SORT_VALUE_DELIMITER + match.getReplyId();
+	}
+	
+	/**
+	 * @param pageToken
+	 * @return The match of the previous page encoded in the given token, null if the token does not refer to a previous page
+	 */
+	static DiscussionSearchIndexMatch fromPageToken(KeysetNextPageToken pageToken) {
+		// Without a sort value the token cannot refer to a match, start from the first page
+		if (pageToken.getLastId() == null || StringUtils.isBlank(pageToken.getLastSortValue())) {
+			return null;
+		}
+		
+		String[] sortValue = pageToken.getLastSortValue().split(SORT_VALUE_DELIMITER);
+		
+		if (sortValue.length != 2) {
+			throw new IllegalArgumentException("Unknow token format: " + pageToken.getLastSortValue());
+		}
+		
+		Match match = new Match().setThreadId(pageToken.getLastId().toString());
+		
+		Long replyId = Long.valueOf(sortValue[1]);
+		
+		if (!DBODiscussionSearchIndexRecord.NO_REPLY_ID.equals(replyId)) {
+			match.setReplyId(replyId.toString());
+		}
+		
+		return new DiscussionSearchIndexMatch(match, Double.parseDouble(sortValue[0]));
+	}
+	
 	private static boolean isThreadDeleted(DiscussionThreadBundle thread) {
 		return thread == null || Boolean.TRUE.equals(thread.getIsDeleted());
 	}
@@ -70,14 +122,17 @@ public class DiscussionSearchIndexManagerImpl implements DiscussionSearchIndexMa
 
 	private AuthorizationManager authManager;
 	
+	private ExecutorService threadPool;
+	
 	@Autowired
-	public DiscussionSearchIndexManagerImpl(DiscussionSearchIndexDao searchIndexDao, ForumDAO forumDao, DiscussionThreadDAO threadDao, DiscussionReplyDAO replyDao, UploadContentToS3DAO contentDao, AuthorizationManager authManager) {
+	public DiscussionSearchIndexManagerImpl(DiscussionSearchIndexDao searchIndexDao, ForumDAO forumDao, DiscussionThreadDAO threadDao, DiscussionReplyDAO replyDao, UploadContentToS3DAO contentDao, AuthorizationManager authManager, ExecutorService cachedThreadPool) {
 		this.searchIndexDao = searchIndexDao;
 		this.forumDao = forumDao;
 		this.threadDao = threadDao;
 		this.replyDao = replyDao;
 		this.contentDao = contentDao;
 		this.authManager = authManager;
+		this.threadPool = cachedThreadPool;
 	}
 
 	@Override
@@ -95,12 +150,16 @@ public class DiscussionSearchIndexManagerImpl implements DiscussionSearchIndexMa
 		
 		authManager.canAccess(userInfo, forum.getProjectId(), ObjectType.ENTITY, ACCESS_TYPE.READ).checkAuthorizationOrElseThrow();
 		
-		NextPageToken pageToken = new NextPageToken(request.getNextPageToken());
+		KeysetNextPageToken pageToken = new KeysetNextPageToken(request.getNextPageToken());
 		
 		// Since the getNextPageTokenForCurrentResults might potentially alters the result list (removing the last element) we make sure that the list is mutable
-		List<Match> matches = new ArrayList<>(searchIndexDao.search(forumId, searchString, pageToken.getLimitForQuery(), pageToken.getOffset()));
+		List<DiscussionSearchIndexMatch> results = new ArrayList<>(searchIndexDao.search(forumId, searchString, fromPageToken(pageToken), pageToken.getLimitForQuery()));
 		
-		String nextPageToken = pageToken.getNextPageTokenForCurrentResults(matches);
+		String nextPageToken = pageToken.getNextPageTokenForCurrentResults(results, DiscussionSearchIndexMatch::getThreadId, DiscussionSearchIndexManagerImpl::toSortValue);
+		
+		List<Match> matches = new ArrayList<>(results.size());
+		
+		results.forEach(result -> matches.add(result.getMatch()));
 		
 		return new DiscussionSearchResponse().setMatches(matches).setNextPageToken(nextPageToken);
 	}
@@ -184,6 +243,131 @@ public class DiscussionSearchIndexManagerImpl implements DiscussionSearchIndexMa
 		
 	}
 		
+	@Override
+	public void processChanges(Set<Long> threadIds, Set<Long> replyIds) {
+		ValidateArgument.required(threadIds, "The threadIds");
+		ValidateArgument.required(replyIds, "The replyIds");
+		
+		Map<Long, DiscussionReplyBundle> replies = new LinkedHashMap<>(replyIds.size());
+		
+		// The records of the threads of the changed replies need to be synced as well, see processReplyChange
+		Set<Long> allThreadIds = new LinkedHashSet<>(threadIds);
+		
+		for (Long replyId : replyIds) {
+			DiscussionReplyBundle reply = getReplyOrNull(replyId);
+			replies.put(replyId, reply);
+			if (reply != null) {
+				allThreadIds.add(Long.valueOf(reply.getThreadId()));
+			}
+		}
+		
+		Map<Long, DiscussionThreadBundle> threads = new LinkedHashMap<>(allThreadIds.size());
+		
+		for (Long threadId : allThreadIds) {
+			threads.put(threadId, getThreadOrNull(threadId));
+		}
+		
+		Set<String> messageKeys = new LinkedHashSet<>();
+		
+		threadIds.stream().map(threads::get).filter(thread -> !isThreadDeleted(thread)).forEach(thread -> messageKeys.add(thread.getMessageKey()));
+		replies.values().stream().filter(reply -> !isReplyDeleted(reply)).forEach(reply -> messageKeys.add(reply.getMessageKey()));
+		
+		// The content is fetched before any update to the index, outside of any transaction
+		Map<String, String> contents = fetchContents(messageKeys);
+		
+		List<DBODiscussionSearchIndexRecord> records = new ArrayList<>(messageKeys.size());
+		
+		Set<Long> deletedReplyIds = new LinkedHashSet<>();
+		Set<Long> availableReplyIds = new LinkedHashSet<>();
+		
+		replies.forEach((replyId, reply) -> {
+			if (isReplyDeleted(reply)) {
+				deletedReplyIds.add(replyId);
+			} else {
+				records.add(newRecord(Long.valueOf(reply.getForumId()), Long.valueOf(reply.getThreadId()), replyId, buildSearchContent(contents.get(reply.getMessageKey()))));
+				availableReplyIds.add(replyId);
+			}
+		});
+		
+		Set<Long> deletedThreadIds = new LinkedHashSet<>();
+		Set<Long> availableThreadIds = new LinkedHashSet<>();
+		
+		threads.forEach((threadId, thread) -> {
+			if (isThreadDeleted(thread)) {
+				deletedThreadIds.add(threadId);
+			} else {
+				if (threadIds.contains(threadId)) {
+					records.add(newRecord(Long.valueOf(thread.getForumId()), threadId, DBODiscussionSearchIndexRecord.NO_REPLY_ID, buildSearchContent(thread.getTitle(), contents.get(thread.getMessageKey()))));
+				}
+				availableThreadIds.add(threadId);
+			}
+		});
+		
+		// Each update is idempotent, the records are created first so that the deleted flags are synced for new records as well
+		searchIndexDao.createOrUpdateRecords(records);
+		searchIndexDao.setRepliesDeleted(deletedReplyIds, true);
+		searchIndexDao.setRepliesDeleted(availableReplyIds, false);
+		searchIndexDao.setThreadsDeleted(deletedThreadIds, true);
+		searchIndexDao.setThreadsDeleted(availableThreadIds, false);
+	}
+	
+	private DiscussionThreadBundle getThreadOrNull(Long threadId) {
+		try {
+			return threadDao.getThread(threadId, DiscussionFilter.NO_FILTER);
+		} catch (NotFoundException ex) {
+			return null;
+		}
+	}
+	
+	private DiscussionReplyBundle getReplyOrNull(Long replyId) {
+		try {
+			return replyDao.getReply(replyId, DiscussionFilter.NO_FILTER);
+		} catch (NotFoundException ex) {
+			return null;
+		}
+	}
+	
+	private static DBODiscussionSearchIndexRecord newRecord(Long forumId, Long threadId, Long replyId, String searchContent) {
+		DBODiscussionSearchIndexRecord record = new DBODiscussionSearchIndexRecord();
+		record.setForumId(forumId);
+		record.setThreadId(threadId);
+		record.setReplyId(replyId);
+		record.setSearchContent(searchContent);
+		return record;
+	}
+	
+	/**
+	 * Fetches the content of the messages with the given keys, at most {@link #MAX_CONCURRENT_FETCH} messages are fetched concurrently
+	 * 
+	 * @param messageKeys
+	 * @return The map from the message key to its content
+	 */
+	Map<String, String> fetchContents(Collection<String> messageKeys) {
+		Map<String, String> contents = new HashMap<>(messageKeys.size());
+		
+		for (List<String> batch : Lists.partition(new ArrayList<>(messageKeys), MAX_CONCURRENT_FETCH)) {
+			Map<String, Future<String>> futures = new LinkedHashMap<>(batch.size());
+			
+			batch.forEach(messageKey -> futures.put(messageKey, threadPool.submit(() -> fetchContent(messageKey))));
+			
+			for (Map.Entry<String, Future<String>> future : futures.entrySet()) {
+				try {
+					contents.put(future.getKey(), future.getValue().get());
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new RecoverableMessageException(ex);
+				} catch (ExecutionException ex) {
+					if (ex.getCause() instanceof RuntimeException) {
+						throw (RuntimeException) ex.getCause();
+					}
+					throw new IllegalStateException(ex.getCause());
+				}
+			}
+		}
+		
+		return contents;
+	}
+		
 	private String fetchContent(String messageKey) {
 		try {
 			return contentDao.getMessage(messageKey);
@@ -45,6 +45,31 @@ public interface EntityAuthorizationManager {
 	 */
 	List<UsersEntityAccessInfo> batchHasAccess(UserInfo userInfo, List<Long> entityIds, ACCESS_TYPE accessType);
 
+	/**
+	 * Create a new provider of the permissions and restrictions state of the given
+	 * entities for the given user. The state of all the entities is loaded with a
+	 * single query the first time it is needed. The provider can be bound to the
+	 * threads working on a request with {@link EntityStateContext} so that all the
+	 * access checks of the request share the same state.
+	 * 
+	 * @param userInfo
+	 * @param entityIds
+	 * @return
+	 */
+	EntityStateProvider createEntityStateProvider(UserInfo userInfo, List<Long> entityIds);
+
+	/**
+	 * Determine if the user has the given access to the given entity using the
+	 * state from the given provider.
+	 * 
+	 * @param userInfo
+	 * @param entityId
+	 * @param provider
+	 * @param accessType
+	 * @return
+	 */
+	UsersEntityAccessInfo determineAccess(UserInfo userInfo, Long entityId, EntityStateProvider provider, ACCESS_TYPE accessType);
+
 	/**
 	 * Get a bundle of all of the permission that the user has on a single entity.
 	 * 
@@ -83,8 +83,7 @@ public class EntityAuthorizationManagerImpl implements EntityAuthorizationManage
 		if (accessTypes.length < 1) {
 			throw new IllegalArgumentException("At least one ACCESS_TYPE must be provided");
 		}
-		EntityStateProvider stateProvider = new LazyEntityStateProvider(accessRestrictionStatusDao,
-				usersEntityPermissionsDao, userInfo, KeyFactory.stringToKeySingletonList(entityId));
+		EntityStateProvider stateProvider = getStateProvider(userInfo, KeyFactory.stringToKeySingletonList(entityId));
 		AuthorizationStatus lastResult = null;
 		for (ACCESS_TYPE accessType : accessTypes) {
 			lastResult = determineAccess(userInfo, KeyFactory.stringToKey(entityId), stateProvider, accessType)
@@ -121,8 +120,7 @@ public class EntityAuthorizationManagerImpl implements EntityAuthorizationManage
 	@Override
 	public UserEntityPermissions getUserPermissionsForEntity(UserInfo userInfo, String entityId)
 			throws NotFoundException, DatastoreException {
-		EntityStateProvider stateProvider = new LazyEntityStateProvider(accessRestrictionStatusDao,
-				usersEntityPermissionsDao, userInfo, KeyFactory.stringToKeySingletonList(entityId));
+		EntityStateProvider stateProvider = getStateProvider(userInfo, KeyFactory.stringToKeySingletonList(entityId));
 		Long entityIdLong = KeyFactory.stringToKey(entityId);
 		UserEntityPermissionsState permissionsState = stateProvider.getPermissionsState(entityIdLong);
 		boolean canUpdate = determineAccess(entityIdLong, stateProvider, UPDATE, userInfo).isAuthorized();
@@ -176,12 +174,32 @@ public class EntityAuthorizationManagerImpl implements EntityAuthorizationManage
 		ValidateArgument.required(entityIds, "entityId");
 		ValidateArgument.required(accessType, "accessType");
 
-		EntityStateProvider stateProvider = new LazyEntityStateProvider(accessRestrictionStatusDao,
-				usersEntityPermissionsDao, userInfo, entityIds);
+		EntityStateProvider stateProvider = getStateProvider(userInfo, entityIds);
 		return entityIds.stream().map(id -> determineAccess(userInfo, id, stateProvider, accessType))
 				.collect(Collectors.toList());
 	}
 
+	@Override
+	public EntityStateProvider createEntityStateProvider(UserInfo userInfo, List<Long> entityIds) {
+		ValidateArgument.required(userInfo, "UserInfo");
+		ValidateArgument.required(entityIds, "entityIds");
+		return new LazyEntityStateProvider(accessRestrictionStatusDao, usersEntityPermissionsDao, userInfo, entityIds);
+	}
+
+	/**
+	 * Use the provider bound to the current thread if it covers the given user and
+	 * entities, otherwise create a new one.
+	 * 
+	 * @param userInfo
+	 * @param entityIds
+	 * @return
+	 */
+	EntityStateProvider getStateProvider(UserInfo userInfo, List<Long> entityIds) {
+		return EntityStateContext.getBoundProvider(userInfo, entityIds)
+				.orElseGet(() -> createEntityStateProvider(userInfo, entityIds));
+	}
+
+	@Override
 	public UsersEntityAccessInfo determineAccess(UserInfo userInfo, Long id, EntityStateProvider provider,
 			ACCESS_TYPE accessType) {
 		switch (accessType) {
@@ -0,0 +1,86 @@
+package org.sagebionetworks.repo.manager.entity;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import org.sagebionetworks.repo.model.UserInfo;
+import org.sagebionetworks.util.ValidateArgument;
+
+/**
+ * Binds an {@link EntityStateProvider} to the current thread so that the access checks made while assembling the parts of a single
+ * request (e.g. an entity bundle) use the state already loaded for the user, rather than loading the permissions and restrictions of
+ * the entity again for each part. A bound provider is only used for the same user (same id and groups) and for entities that the
+ * provider was created for, any other check loads its own state.
+ * <p>
+ * The context must be closed by the thread that bound it, typically with a try-with-resources block. The provider is shared by all the
+ * threads working on the same request and must be thread-safe.
+ */
+public class EntityStateContext implements AutoCloseable {
+
+	private static final ThreadLocal<EntityStateContext> CURRENT = new ThreadLocal<>();
+
+	private final UserInfo userInfo;
+	private final EntityStateProvider provider;
+	private final Set<Long> entityIds;
+	private final EntityStateContext previous;
+
+	private EntityStateContext(UserInfo userInfo, EntityStateProvider provider, EntityStateContext previous) {
+		this.userInfo = userInfo;
+		this.provider = provider;
+		this.entityIds = new HashSet<>(provider.getEntityIds());
+		this.previous = previous;
+	}
+
+	/**
+	 * Bind the given provider to the current thread, until the returned context is closed.
+	 *
+	 * @param userInfo The user that the state of the provider was loaded for
+	 * @param provider
+	 * @return
+	 */
+	public static EntityStateContext bind(UserInfo userInfo, EntityStateProvider provider) {
+		ValidateArgument.required(userInfo, "userInfo");
+		ValidateArgument.required(userInfo.getId(), "userInfo.id");
+		ValidateArgument.required(provider, "provider");
+		EntityStateContext context = new EntityStateContext(userInfo, provider, CURRENT.get());
+		CURRENT.set(context);
+		return context;
+	}
+
+	/**
+	 * Get the provider bound to the current thread, if it was loaded for the given user and covers all the given entities.
+	 *
+	 * @param userInfo
+	 * @param entityIds
+	 * @return
+	 */
+	public static Optional<EntityStateProvider> getBoundProvider(UserInfo userInfo, List<Long> entityIds) {
+		EntityStateContext context = CURRENT.get();
+		if (context == null || !context.isFor(userInfo, entityIds)) {
+			return Optional.empty();
+		}
+		return Optional.of(context.provider);
+	}
+
+	boolean isFor(UserInfo userInfo, List<Long> entityIds) {
+		if (userInfo == null || entityIds == null) {
+			return false;
+		}
+		// The state of the permissions depends on the groups of the user, the state of the restrictions on the user id as well
+		return Objects.equals(this.userInfo.getId(), userInfo.getId()) && Objects.equals(this.userInfo.getGroups(), userInfo.getGroups())
+				&& this.entityIds.containsAll(entityIds);
+	}
+
+	@Override
+	public void close() {
+		if (previous == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(previous);
+		}
+	}
+
+}
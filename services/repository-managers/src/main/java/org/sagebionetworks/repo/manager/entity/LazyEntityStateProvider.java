@@ -13,6 +13,8 @@ import org.sagebionetworks.repo.model.dbo.entity.UsersEntityPermissionsDao;
  * A lazy loading/caching implementation of EntityStateProvider. The data is
  * only loaded from the database once, as needed. Note: This object is
  * state-full and should be used for a single user request and then discarded.
+ * The loading is synchronized so that the provider can be shared by the threads
+ * working on the same request (See {@link EntityStateContext}).
  *
  */
 public class LazyEntityStateProvider implements EntityStateProvider {
@@ -34,7 +36,7 @@ public class LazyEntityStateProvider implements EntityStateProvider {
 	}
 
 	@Override
-	public UserEntityPermissionsState getPermissionsState(Long entityId) {
+	public synchronized UserEntityPermissionsState getPermissionsState(Long entityId) {
 		if (userEntityPermissionsState == null) {
 			userEntityPermissionsState = usersEntityPermissionsDao.getEntityPermissionsAsMap(this.userInfo.getGroups(),
 					entityIds);
@@ -43,7 +45,7 @@ public class LazyEntityStateProvider implements EntityStateProvider {
 	}
 
 	@Override
-	public UsersRestrictionStatus getRestrictionStatus(Long entityId) {
+	public synchronized UsersRestrictionStatus getRestrictionStatus(Long entityId) {
 		if (usersRestrictionStatus == null) {
 			usersRestrictionStatus = accessRestrictionStatusDao.getEntityStatusAsMap(entityIds, userInfo.getId(), userInfo.getGroups());
 		}
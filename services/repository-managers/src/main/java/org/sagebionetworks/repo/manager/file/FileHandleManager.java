@@ -172,6 +172,18 @@ public interface FileHandleManager {
 	 * @return
 	 */
 	S3FileHandle uploadLocalFile(LocalFileUploadRequest request);
+	
+	/**
+	 * Upload the content written by the given writer to the standard Synapse S3 bucket and creates a file handle for it. The content is
+	 * uploaded with a multipart upload while it is written, without a local copy of the file. This is used by workers.
+	 * 
+	 * Note that NO permission check is performed on the user of the request.
+	 * 
+	 * @param request
+	 * @param writer Writes the content of the file, any exception thrown by the writer aborts the upload and is rethrown
+	 * @return
+	 */
+	S3FileHandle uploadStream(StreamUploadRequest request, StreamUploadWriter writer) throws Exception;
 
 	/**
 	 * Get the list of upload destinations for this parent
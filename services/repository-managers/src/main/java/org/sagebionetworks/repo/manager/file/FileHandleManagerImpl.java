@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.BooleanUtils;
@@ -214,6 +215,9 @@ public class FileHandleManagerImpl implements FileHandleManager {
 
 	@Autowired
 	private FeatureManager featureManager;
+	
+	@Autowired
+	private ExecutorService cachedThreadPool;
 
 	/**
 	 * Used by spring
@@ -788,6 +792,48 @@ public class FileHandleManagerImpl implements FileHandleManager {
 		} 
 	}
 
+	@Override
+	public S3FileHandle uploadStream(StreamUploadRequest request, StreamUploadWriter writer) throws Exception {
+		ValidateArgument.required(request, "request");
+		ValidateArgument.required(request.getUserId(), "request.userId");
+		ValidateArgument.required(request.getFileName(), "request.fileName");
+		ValidateArgument.required(writer, "writer");
+		
+		// This will return the default storage location if the input is null
+		StorageLocationSetting storageLocationSetting = storageLocationDAO.get(request.getStorageLocationId());
+		
+		String bucket = MultipartUtils.getBucket(storageLocationSetting);
+		String key = MultipartUtils.createNewKey(request.getUserId(), request.getFileName(), storageLocationSetting);
+		
+		S3FileHandle handle = new S3FileHandle();
+		handle.setBucketName(bucket);
+		handle.setKey(key);
+		handle.setContentType(request.getContentType());
+		handle.setCreatedBy(request.getUserId());
+		handle.setEtag(UUID.randomUUID().toString());
+		handle.setFileName(request.getFileName());
+		handle.setStorageLocationId(request.getStorageLocationId());
+		
+		MultipartUploadOutputStream out = new MultipartUploadOutputStream(s3Client, cachedThreadPool, bucket, key, TransferUtils.prepareObjectMetadata(handle),
+				MultipartUtils.getS3StorageClass(storageLocationSetting), request.getListener(), MultipartUploadOutputStream.DEFAULT_PART_SIZE, 
+				MultipartUploadOutputStream.DEFAULT_MAX_PARTS_IN_FLIGHT);
+		
+		try {
+			writer.write(out);
+			out.close();
+		} catch (Throwable e) {
+			out.abort();
+			throw e;
+		}
+		
+		handle.setContentMd5(out.getContentMd5());
+		handle.setContentSize(out.getContentSize());
+		handle.setCreatedOn(new Date(System.currentTimeMillis()));
+		handle.setId(idGenerator.generateNewId(IdType.FILE_IDS).toString());
+		
+		return (S3FileHandle) fileHandleDao.createFile(handle);
+	}
+
 	@Override
 	@Deprecated
 	public List<UploadDestination> getUploadDestinations(UserInfo userInfo, String parentId) throws DatastoreException,
@@ -4,6 +4,8 @@ import java.util.List;
 
 import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.file.AddPartResponse;
+import org.sagebionetworks.repo.model.file.BatchAddPartRequest;
+import org.sagebionetworks.repo.model.file.BatchAddPartResponse;
 import org.sagebionetworks.repo.model.file.BatchPresignedUploadUrlRequest;
 import org.sagebionetworks.repo.model.file.BatchPresignedUploadUrlResponse;
 import org.sagebionetworks.repo.model.file.MultipartRequest;
@@ -66,6 +68,16 @@ public interface MultipartManagerV2 {
 	 */
 	AddPartResponse addMultipartPart(UserInfo user, String uploadId, Integer partNumber, String partMD5Hex);
 	
+	/**
+	 * Adds a batch of parts to the multipart upload in a single transaction, the parts must have been PUT directly to the
+	 * multipart upload (See {@link BatchPresignedUploadUrlRequest#getPartMD5Hexs()}).
+	 * 
+	 * @param user
+	 * @param request
+	 * @return
+	 */
+	BatchAddPartResponse addMultipartParts(UserInfo user, BatchAddPartRequest request);
+	
 	/**
 	 * After all of the parts are uploaded, complete the multi-part upload and generate a file.
 	 * @param user
@@ -26,6 +26,8 @@ import org.sagebionetworks.repo.model.dbo.file.MultipartUploadDAO;
 import org.sagebionetworks.repo.model.feature.Feature;
 import org.sagebionetworks.repo.model.file.AddPartResponse;
 import org.sagebionetworks.repo.model.file.AddPartState;
+import org.sagebionetworks.repo.model.file.BatchAddPartRequest;
+import org.sagebionetworks.repo.model.file.BatchAddPartResponse;
 import org.sagebionetworks.repo.model.file.BatchPresignedUploadUrlRequest;
 import org.sagebionetworks.repo.model.file.BatchPresignedUploadUrlResponse;
 import org.sagebionetworks.repo.model.file.CloudProviderFileHandleInterface;
@@ -223,6 +225,12 @@ public class MultipartManagerV2Impl implements MultipartManagerV2 {
 			throw new IllegalArgumentException("BatchPresignedUploadUrlRequest.partNumbers must contain at least one value");
 		}
 		
+		final List<String> partMD5Hexs = request.getPartMD5Hexs();
+		
+		if (partMD5Hexs != null) {
+			ValidateArgument.requirement(partMD5Hexs.size() == request.getPartNumbers().size(), "BatchPresignedUploadUrlRequest.partMD5Hexs must contain the MD5 of each part.");
+		}
+		
 		boolean withLock = false;
 		
 		// lookup this upload.
@@ -247,7 +255,13 @@ public class MultipartManagerV2Impl implements MultipartManagerV2 {
 
 			validatePartNumber(partNumber.intValue(), numberOfParts);
 
-			PresignedUrl url = handler.getPresignedUrl(status, partNumber, request.getContentType());
+			PresignedUrl url;
+			
+			if (partMD5Hexs == null) {
+				url = handler.getPresignedUrl(status, partNumber, request.getContentType());
+			} else {
+				url = getDirectPresignedUrl(handler, status, partNumber, partMD5Hexs.get(i), request.getContentType());
+			}
 
 			partUrls.add(map(url, partNumber));
 		}
@@ -259,6 +273,15 @@ public class MultipartManagerV2Impl implements MultipartManagerV2 {
 		return response;
 	}
 	
+	private static PresignedUrl getDirectPresignedUrl(MultipartRequestHandler<? extends MultipartRequest> handler, CompositeMultipartUploadStatus status, Long partNumber, String partMD5Hex, String contentType) {
+		try {
+			return handler.getDirectPresignedUrl(status, partNumber, partMD5Hex, contentType);
+		} catch (UnsupportedOperationException e) {
+			// Not all the request types and cloud providers support direct part uploads. Rather than returning a 500 we turn around and return a 400
+			throw new IllegalArgumentException(e.getMessage(), e);
+		}
+	}
+	
 	private static PartPresignedUrl map(PresignedUrl presignedUrl, Long partNumber) {
 		PartPresignedUrl part = new PartPresignedUrl();
 		
@@ -356,6 +379,57 @@ public class MultipartManagerV2Impl implements MultipartManagerV2 {
 		return response;
 	}
 
+	@WriteTransaction
+	@Override
+	public BatchAddPartResponse addMultipartParts(UserInfo user, BatchAddPartRequest request) {
+		ValidateArgument.required(user, "UserInfo");
+		ValidateArgument.required(request, "BatchAddPartRequest");
+		ValidateArgument.required(request.getUploadId(), "BatchAddPartRequest.uploadId");
+		ValidateArgument.requiredNotEmpty(request.getPartNumbers(), "BatchAddPartRequest.partNumbers");
+		ValidateArgument.required(request.getPartMD5Hexs(), "BatchAddPartRequest.partMD5Hexs");
+		ValidateArgument.requirement(request.getPartMD5Hexs().size() == request.getPartNumbers().size(), "BatchAddPartRequest.partMD5Hexs must contain the MD5 of each part.");
+		
+		final String uploadId = request.getUploadId();
+		
+		boolean withLock = false;
+		// lookup this upload.
+		CompositeMultipartUploadStatus composite = multipartUploadDAO.getUploadStatus(uploadId, withLock);
+		
+		// block add if the upload is complete
+		if (MultipartUploadState.COMPLETED.equals(composite.getMultipartUploadStatus().getState())){
+			throw new IllegalArgumentException("Cannot add parts to completed file upload.");
+		}
+		
+		// validate the user started this upload.
+		validateStartedBy(user, composite);
+		
+		// The parts are not validated one by one since they are PUT directly to the multipart, S3 verifies their MD5 when uploaded and
+		// again when the upload is completed
+		if (!UploadType.S3.equals(composite.getUploadType())) {
+			throw new IllegalArgumentException("Adding a batch of parts is supported only for S3 uploads.");
+		}
+		
+		final List<PartMD5> parts = new ArrayList<>(request.getPartNumbers().size());
+		final List<AddPartResponse> responses = new ArrayList<>(request.getPartNumbers().size());
+		
+		for (int i = 0; i < request.getPartNumbers().size(); i++) {
+			final Long partNumber = request.getPartNumbers().get(i);
+			final String partMD5Hex = request.getPartMD5Hexs().get(i);
+			
+			ValidateArgument.required(partNumber, "PartNumber");
+			ValidateArgument.requiredNotBlank(partMD5Hex, "PartMD5Hex");
+			
+			validatePartNumber(partNumber.intValue(), composite.getNumberOfParts());
+			
+			parts.add(new PartMD5(partNumber.intValue(), partMD5Hex));
+			responses.add(new AddPartResponse().setUploadId(uploadId).setPartNumber(partNumber).setAddPartState(AddPartState.ADD_SUCCESS));
+		}
+		
+		multipartUploadDAO.addPartsToUpload(uploadId, parts);
+		
+		return new BatchAddPartResponse().setAddPartResponses(responses);
+	}
+
 	@WriteTransaction
 	@Override
 	public MultipartUploadStatus completeMultipartUpload(UserInfo user, String uploadId) {
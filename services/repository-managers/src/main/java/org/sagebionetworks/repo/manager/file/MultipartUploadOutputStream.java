@@ -0,0 +1,305 @@
+package org.sagebionetworks.repo.manager.file;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.sagebionetworks.aws.SynapseS3Client;
+import org.sagebionetworks.util.ValidateArgument;
+
+import com.amazonaws.event.ProgressEvent;
+import com.amazonaws.event.ProgressEventType;
+import com.amazonaws.event.ProgressListener;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.StorageClass;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+
+/**
+ * An {@link OutputStream} that uploads the bytes written to it to an S3 object
+ * while they are written, without a local copy of the whole content.
+ * <p>
+ * The bytes are buffered in parts of a fixed size, as soon as a part is full it
+ * is uploaded in the background as a part of a multipart upload while the
+ * following part is written. At most maxPartsInFlight parts are waiting for
+ * their upload at any time: a writer that is faster than the upload blocks until
+ * a part is uploaded, so that the memory used by the stream is bounded. If the
+ * whole content fits in a single part it is uploaded with a single put when the
+ * stream is closed.
+ * <p>
+ * Closing the stream uploads the last part and completes the upload. If writing
+ * to the stream fails the caller is expected to {@link #abort()} the upload.
+ * The stream is not thread safe.
+ *
+ */
+class MultipartUploadOutputStream extends OutputStream {
+
+	private static final Logger LOG = LogManager.getLogger(MultipartUploadOutputStream.class);
+
+	/**
+	 * The size of each part, S3 requires at least 5 MB for all the parts but the
+	 * last one. Bounds the size of the object to 10000 parts, or about 80 GB.
+	 */
+	public static final int DEFAULT_PART_SIZE = 8 * 1024 * 1024;
+
+	/**
+	 * The maximum number of parts that are uploaded concurrently.
+	 */
+	public static final int DEFAULT_MAX_PARTS_IN_FLIGHT = 4;
+
+	private final SynapseS3Client s3Client;
+	private final ExecutorService threadPool;
+	private final String bucket;
+	private final String key;
+	private final ObjectMetadata metadata;
+	private final StorageClass storageClass;
+	private final ProgressListener listener;
+	private final int partSize;
+	private final Semaphore partsInFlight;
+	private final MessageDigest md5Digest;
+	private final List<Future<PartETag>> parts;
+
+	private String uploadId;
+	private byte[] buffer;
+	private int bufferSize;
+	private long contentSize;
+	private boolean closed;
+	private boolean completed;
+	private String contentMd5;
+
+	/**
+	 * @param s3Client
+	 * @param threadPool       The pool used to upload the parts
+	 * @param bucket
+	 * @param key
+	 * @param metadata         The metadata of the object, the content length and
+	 *                         MD5 are set by the stream
+	 * @param storageClass     Optional storage class of the object
+	 * @param listener         Optional listener notified with the number of bytes
+	 *                         of each uploaded part, can be invoked by multiple
+	 *                         threads
+	 * @param partSize
+	 * @param maxPartsInFlight
+	 */
+	MultipartUploadOutputStream(SynapseS3Client s3Client, ExecutorService threadPool, String bucket, String key, ObjectMetadata metadata,
+			StorageClass storageClass, ProgressListener listener, int partSize, int maxPartsInFlight) {
+		ValidateArgument.required(s3Client, "s3Client");
+		ValidateArgument.required(threadPool, "threadPool");
+		ValidateArgument.required(bucket, "bucket");
+		ValidateArgument.required(key, "key");
+		ValidateArgument.required(metadata, "metadata");
+		ValidateArgument.requirement(partSize > 0, "The partSize must be greater than zero.");
+		ValidateArgument.requirement(maxPartsInFlight > 0, "The maxPartsInFlight must be greater than zero.");
+		this.s3Client = s3Client;
+		this.threadPool = threadPool;
+		this.bucket = bucket;
+		this.key = key;
+		this.metadata = metadata;
+		this.storageClass = storageClass;
+		this.listener = listener;
+		this.partSize = partSize;
+		this.partsInFlight = new Semaphore(maxPartsInFlight);
+		this.parts = new ArrayList<>();
+		this.buffer = new byte[partSize];
+		this.bufferSize = 0;
+		this.contentSize = 0;
+		try {
+			this.md5Digest = MessageDigest.getInstance("MD5");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		ensureOpen();
+		buffer[bufferSize++] = (byte) b;
+		if (bufferSize == partSize) {
+			submitPart();
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		ensureOpen();
+		while (len > 0) {
+			int toCopy = Math.min(len, partSize - bufferSize);
+			System.arraycopy(b, off, buffer, bufferSize, toCopy);
+			bufferSize += toCopy;
+			off += toCopy;
+			len -= toCopy;
+			if (bufferSize == partSize) {
+				submitPart();
+			}
+		}
+	}
+
+	/**
+	 * Uploads what is left in the buffer and completes the upload.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		if (uploadId == null) {
+			// The whole content fits in a single part
+			putObject();
+		} else {
+			if (bufferSize > 0) {
+				submitPart();
+			}
+			List<PartETag> partETags = new ArrayList<>(parts.size());
+			for (Future<PartETag> part : parts) {
+				partETags.add(getPartETag(part));
+			}
+			s3Client.completeMultipartUpload(new CompleteMultipartUploadRequest(bucket, key, uploadId, partETags));
+		}
+		// The digest is reset once computed, it is kept for the following calls
+		contentMd5 = new String(Hex.encodeHex(md5Digest.digest()));
+		completed = true;
+	}
+
+	/**
+	 * Aborts the upload, cancelling the parts that are still uploading. If the
+	 * upload was already completed the uploaded object is deleted.
+	 */
+	void abort() {
+		closed = true;
+		parts.forEach(part -> part.cancel(true));
+		try {
+			if (completed) {
+				s3Client.deleteObject(bucket, key);
+			} else if (uploadId != null) {
+				s3Client.abortMultipartUpload(new AbortMultipartUploadRequest(bucket, key, uploadId));
+			}
+		} catch (Exception e) {
+			// Incomplete multipart uploads are eventually removed by the bucket lifecycle rules
+			LOG.warn("Could not abort the upload of " + key + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * @return The hex MD5 of the content written to the stream, can be invoked only after the stream is closed
+	 */
+	String getContentMd5() {
+		ValidateArgument.requirement(completed, "The upload was not completed.");
+		return contentMd5;
+	}
+
+	/**
+	 * @return The number of bytes written to the stream
+	 */
+	long getContentSize() {
+		return contentSize + bufferSize;
+	}
+
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("The stream is closed.");
+		}
+	}
+
+	private void putObject() {
+		md5Digest.update(buffer, 0, bufferSize);
+		contentSize += bufferSize;
+		metadata.setContentLength(bufferSize);
+		PutObjectRequest request = new PutObjectRequest(bucket, key, new ByteArrayInputStream(buffer, 0, bufferSize), metadata);
+		if (storageClass != null) {
+			request.withStorageClass(storageClass);
+		}
+		s3Client.putObject(request);
+		notifyListener(bufferSize);
+		bufferSize = 0;
+	}
+
+	private void submitPart() throws IOException {
+		if (uploadId == null) {
+			InitiateMultipartUploadRequest request = new InitiateMultipartUploadRequest(bucket, key, metadata);
+			if (storageClass != null) {
+				request.withStorageClass(storageClass);
+			}
+			uploadId = s3Client.initiateMultipartUpload(request).getUploadId();
+		}
+		// Fail fast if any of the previous parts could not be uploaded
+		for (Future<PartETag> part : parts) {
+			if (part.isDone()) {
+				getPartETag(part);
+			}
+		}
+		try {
+			partsInFlight.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for a part upload.");
+		}
+		md5Digest.update(buffer, 0, bufferSize);
+		contentSize += bufferSize;
+
+		UploadPartRequest request = new UploadPartRequest()
+				.withBucketName(bucket)
+				.withKey(key)
+				.withUploadId(uploadId)
+				.withPartNumber(parts.size() + 1)
+				.withInputStream(new ByteArrayInputStream(buffer, 0, bufferSize))
+				.withPartSize(bufferSize);
+
+		int size = bufferSize;
+
+		try {
+			parts.add(threadPool.submit(() -> {
+				try {
+					PartETag partETag = s3Client.uploadPart(request).getPartETag();
+					notifyListener(size);
+					return partETag;
+				} finally {
+					partsInFlight.release();
+				}
+			}));
+		} catch (RuntimeException e) {
+			partsInFlight.release();
+			throw e;
+		}
+		// The submitted buffer is owned by the part upload now
+		buffer = new byte[partSize];
+		bufferSize = 0;
+	}
+
+	private void notifyListener(long bytes) {
+		if (listener != null) {
+			listener.progressChanged(new ProgressEvent(ProgressEventType.REQUEST_BYTE_TRANSFER_EVENT, bytes));
+		}
+	}
+
+	private static PartETag getPartETag(Future<PartETag> part) throws IOException {
+		try {
+			return part.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for a part upload.");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IOException(e.getCause());
+		}
+	}
+
+}
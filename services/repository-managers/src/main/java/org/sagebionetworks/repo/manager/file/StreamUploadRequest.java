@@ -0,0 +1,77 @@
+package org.sagebionetworks.repo.manager.file;
+
+import java.util.Objects;
+
+import com.amazonaws.event.ProgressListener;
+
+public class StreamUploadRequest {
+	
+	Long storageLocationId;
+	String userId;
+	String contentType;
+	String fileName;
+	ProgressListener listener;
+	
+	public Long getStorageLocationId() {
+		return storageLocationId;
+	}
+	public String getUserId() {
+		return userId;
+	}
+	public String getContentType() {
+		return contentType;
+	}
+	public String getFileName() {
+		return fileName;
+	}
+	/**
+	 * @return Optional listener notified with the number of bytes uploaded, can be invoked concurrently by multiple threads
+	 */
+	public ProgressListener getListener() {
+		return listener;
+	}
+	public StreamUploadRequest withStorageLocationId(Long storageLocationId) {
+		this.storageLocationId = storageLocationId;
+		return this;
+	}
+	public StreamUploadRequest withUserId(String userId) {
+		this.userId = userId;
+		return this;
+	}
+	public StreamUploadRequest withContentType(String contentType) {
+		this.contentType = contentType;
+		return this;
+	}
+	public StreamUploadRequest withFileName(String fileName) {
+		this.fileName = fileName;
+		return this;
+	}
+	public StreamUploadRequest withListener(ProgressListener listener) {
+		this.listener = listener;
+		return this;
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hash(contentType, fileName, listener, storageLocationId, userId);
+	}
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof StreamUploadRequest)) {
+			return false;
+		}
+		StreamUploadRequest other = (StreamUploadRequest) obj;
+		return Objects.equals(contentType, other.contentType) && Objects.equals(fileName, other.fileName)
+				&& Objects.equals(listener, other.listener) && Objects.equals(storageLocationId, other.storageLocationId)
+				&& Objects.equals(userId, other.userId);
+	}
+	@Override
+	public String toString() {
+		return "StreamUploadRequest [storageLocationId=" + storageLocationId + ", userId=" + userId + ", contentType="
+				+ contentType + ", fileName=" + fileName + ", listener=" + listener + "]";
+	}
+
+}
@@ -0,0 +1,22 @@
+package org.sagebionetworks.repo.manager.file;
+
+import java.io.OutputStream;
+
+/**
+ * Writes the content of a file that is uploaded with
+ * {@link FileHandleManager#uploadStream(StreamUploadRequest, StreamUploadWriter)}.
+ *
+ */
+@FunctionalInterface
+public interface StreamUploadWriter {
+
+	/**
+	 * Write the content of the file to the given stream. The stream is uploaded
+	 * as it is written and it is closed once this method returns.
+	 * 
+	 * @param out
+	 * @throws Exception Aborts the upload
+	 */
+	void write(OutputStream out) throws Exception;
+
+}
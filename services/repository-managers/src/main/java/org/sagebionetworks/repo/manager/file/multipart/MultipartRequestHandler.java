@@ -49,6 +49,18 @@ public interface MultipartRequestHandler<T extends MultipartRequest> {
 	 */
 	PresignedUrl getPresignedUrl(CompositeMultipartUploadStatus status, long partNumber, String contentType);
 	
+	/**
+	 * Obtains a pre-signed url for the given upload status and part number that uploads the part directly to the
+	 * multipart, the added part does not need to be validated with {@link #validateAddedPart(CompositeMultipartUploadStatus, long, String)}
+	 * 
+	 * @param status The upload status
+	 * @param partNumber The part number
+	 * @param partMD5Hex The part MD5 checksum, included in the signature
+	 * @param contentType The optional content type
+	 * @return A pre-signed url including all the signed headers
+	 */
+	PresignedUrl getDirectPresignedUrl(CompositeMultipartUploadStatus status, long partNumber, String partMD5Hex, String contentType);
+	
 	/**
 	 * Invoked after a part was added to the multipart
 	 * 
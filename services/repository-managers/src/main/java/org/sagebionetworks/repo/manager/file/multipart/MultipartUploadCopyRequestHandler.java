@@ -147,6 +147,12 @@ public class MultipartUploadCopyRequestHandler implements MultipartRequestHandle
 		return cloudDao.createPartUploadCopyPresignedUrl(status, partNumber, contentType);
 	}
 
+	@Override
+	public PresignedUrl getDirectPresignedUrl(CompositeMultipartUploadStatus status, long partNumber, String partMD5Hex, String contentType) {
+		// The pre-signed url of a copy already copies the part directly to the multipart
+		throw new UnsupportedOperationException("Uploading a part directly is not supported for a multipart copy.");
+	}
+
 	@Override
 	public void validateAddedPart(CompositeMultipartUploadStatus status, long partNumber, String partMD5Hex) {
 		ValidateArgument.required(status, "The upload status");
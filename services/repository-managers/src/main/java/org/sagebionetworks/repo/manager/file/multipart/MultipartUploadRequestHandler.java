@@ -90,6 +90,15 @@ public class MultipartUploadRequestHandler implements MultipartRequestHandler<Mu
 		return cloudDao.createPartUploadPreSignedUrl(status.getBucket(), partKey, contentType);
 	}
 
+	@Override
+	public PresignedUrl getDirectPresignedUrl(CompositeMultipartUploadStatus status, long partNumber, String partMD5Hex, String contentType) {
+		ValidateArgument.required(status, "The upload status");
+		
+		CloudServiceMultipartUploadDAO cloudDao = cloudServiceDaoProvider.getCloudServiceMultipartUploadDao(status.getUploadType());
+		
+		return cloudDao.createPartUploadDirectPresignedUrl(status, partNumber, partMD5Hex, contentType);
+	}
+
 	@Override
 	public void validateAddedPart(CompositeMultipartUploadStatus status, long partNumber, String partMD5Hex) {
 		ValidateArgument.required(status, "The upload status");
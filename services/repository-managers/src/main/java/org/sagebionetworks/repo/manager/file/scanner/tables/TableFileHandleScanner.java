@@ -1,26 +1,42 @@
 package org.sagebionetworks.repo.manager.file.scanner.tables;
 
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_ROW_FILE_HANDLE_CHANGE_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_ROW_FILE_HANDLE_FILE_HANDLE_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_ROW_FILE_HANDLE_TABLE_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_ROW_CHANGE_FILE_HANDLE;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_ROW_FILE_HANDLE_EMPTY_MARKER;
+
 import java.io.IOException;
+import java.sql.ResultSet;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.collections4.iterators.TransformIterator;
 import org.apache.http.HttpStatus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.sagebionetworks.repo.manager.file.scanner.BasicFileHandleAssociationScanner;
 import org.sagebionetworks.repo.manager.file.scanner.FileHandleAssociationScanner;
 import org.sagebionetworks.repo.manager.file.scanner.ScannedFileHandleAssociation;
 import org.sagebionetworks.repo.manager.table.TableEntityManager;
 import org.sagebionetworks.repo.model.IdRange;
+import org.sagebionetworks.repo.model.dbo.DMLUtils;
+import org.sagebionetworks.repo.model.dbo.migration.QueryStreamIterable;
 import org.sagebionetworks.repo.model.jdo.KeyFactory;
 import org.sagebionetworks.repo.model.table.TableRowChange;
 import org.sagebionetworks.repo.web.NotFoundException;
 import org.sagebionetworks.table.model.SparseChangeSet;
+import org.sagebionetworks.util.ValidateArgument;
 import org.sagebionetworks.workers.util.aws.message.RecoverableMessageException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
 import com.amazonaws.AmazonServiceException;
 import com.amazonaws.AmazonServiceException.ErrorType;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
 
 /**
  * Special file handle scanner for tables:
@@ -28,10 +44,13 @@ import com.amazonaws.services.s3.model.AmazonS3Exception;
  * The truth of the data is stored in S3 and the table_row_change table contains the metadata of the changes including the pointer to the object in S3.
  * </p>
  * <p>
- * The scanner will iterate over the changes in a given range of ids and lazily load the actual data (SparseChangeSet) while iterating in order to fetch the file handle ids.
+ * The file handle ids referenced by each change are indexed in the table_row_change_file_handle table when the change is written, the scanner
+ * will page through the index for the changes in a given range of ids.
  * </p>
  * <p>
- * Additionally the scanner will skip changes that do not contain any file handle (the information is stored in the DB)
+ * For the changes that have file references but are not in the index yet (e.g. changes written before the index was introduced and not yet
+ * backfilled) the scanner will lazily load the actual data (SparseChangeSet) while iterating in order to fetch the file handle ids. The scanner
+ * will skip changes that do not contain any file handle (the information is stored in the DB)
  * </p>
  */
 public class TableFileHandleScanner implements FileHandleAssociationScanner {
@@ -39,11 +58,23 @@ public class TableFileHandleScanner implements FileHandleAssociationScanner {
 	private static final Logger LOG = LogManager.getLogger(TableFileHandleScanner.class);
 	
 	private static final long MAX_SCAN_ID_RANGE = 5_000;
+	
+	private static final String SQL_SELECT_INDEXED_FILE_HANDLES = "SELECT " + COL_TABLE_ROW_FILE_HANDLE_TABLE_ID + ", " + COL_TABLE_ROW_FILE_HANDLE_FILE_HANDLE_ID 
+			+ " FROM " + TABLE_ROW_CHANGE_FILE_HANDLE
+			+ " WHERE " + COL_TABLE_ROW_FILE_HANDLE_CHANGE_ID + " BETWEEN :" + DMLUtils.BIND_MIN_ID + " AND :" + DMLUtils.BIND_MAX_ID
+			+ " AND " + COL_TABLE_ROW_FILE_HANDLE_FILE_HANDLE_ID + " <> " + TABLE_ROW_FILE_HANDLE_EMPTY_MARKER
+			+ " ORDER BY " + COL_TABLE_ROW_FILE_HANDLE_CHANGE_ID + ", " + COL_TABLE_ROW_FILE_HANDLE_FILE_HANDLE_ID;
+	
+	private static final RowMapper<ScannedFileHandleAssociation> INDEXED_FILE_HANDLE_MAPPER = (ResultSet rs, int rowNumber) -> 
+		new ScannedFileHandleAssociation(rs.getLong(COL_TABLE_ROW_FILE_HANDLE_TABLE_ID), rs.getLong(COL_TABLE_ROW_FILE_HANDLE_FILE_HANDLE_ID));
 			
 	private TableEntityManager tableManager;
 	
-	public TableFileHandleScanner(TableEntityManager tableManager) {
+	private NamedParameterJdbcTemplate jdbcTemplate;
+	
+	public TableFileHandleScanner(TableEntityManager tableManager, NamedParameterJdbcTemplate jdbcTemplate) {
 		this.tableManager = tableManager;
+		this.jdbcTemplate = jdbcTemplate;
 	}
 	
 	@Override
@@ -58,10 +89,16 @@ public class TableFileHandleScanner implements FileHandleAssociationScanner {
 
 	@Override
 	public Iterable<ScannedFileHandleAssociation> scanRange(IdRange range) {
-		final Iterator<TableRowChange> changeIterator = tableManager.newTableRowChangeWithFileRefsIterator(range);
+		ValidateArgument.required(range, "The range");
+		
+		final Map<String, Object> params = ImmutableMap.of(DMLUtils.BIND_MIN_ID, range.getMinId(), DMLUtils.BIND_MAX_ID, range.getMaxId());
+		
+		final Iterable<ScannedFileHandleAssociation> indexedIterable = new QueryStreamIterable<>(jdbcTemplate, INDEXED_FILE_HANDLE_MAPPER, SQL_SELECT_INDEXED_FILE_HANDLES, params, BasicFileHandleAssociationScanner.DEFAULT_BATCH_SIZE);
+		
+		final Iterator<TableRowChange> unindexedChangeIterator = tableManager.newTableRowChangeWithUnindexedFileRefsIterator(range);
 		
 		// An iterable has only one method that returns the iterator
-		return () ->  new TransformIterator<>(changeIterator, this::mapTableRowChange);
+		return Iterables.concat(indexedIterable, () -> new TransformIterator<>(unindexedChangeIterator, this::mapTableRowChange));
 	}
 	
 	public ScannedFileHandleAssociation mapTableRowChange(TableRowChange changeMetadata) {
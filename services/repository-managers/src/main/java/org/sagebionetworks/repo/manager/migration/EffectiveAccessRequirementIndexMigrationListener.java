@@ -0,0 +1,75 @@
+package org.sagebionetworks.repo.manager.migration;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.sagebionetworks.repo.model.RestrictableObjectType;
+import org.sagebionetworks.repo.model.ar.EffectiveAccessRequirementDao;
+import org.sagebionetworks.repo.model.dbo.DatabaseObject;
+import org.sagebionetworks.repo.model.dbo.persistence.DBOAccessRequirement;
+import org.sagebionetworks.repo.model.dbo.persistence.DBONode;
+import org.sagebionetworks.repo.model.dbo.persistence.DBOSubjectAccessRequirement;
+import org.sagebionetworks.repo.model.migration.MigrationType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * The index of the effective access requirements of entities is not migrated
+ * and is invalidated by the DAOs on writes, which are bypassed by migration.
+ * Removes from the index only the entities affected by a migrated batch: the
+ * subtrees of the migrated nodes and of the entity subjects of the migrated
+ * access requirements, and the entities that have a migrated access
+ * requirement (e.g. a subject that was removed from the requirement). The
+ * entities are indexed again by the workers.
+ */
+@Service
+public class EffectiveAccessRequirementIndexMigrationListener implements MigrationTypeListener<DatabaseObject<?>> {
+
+	static final Set<MigrationType> SUPPORTED_TYPES = EnumSet.of(
+		MigrationType.NODE, 
+		MigrationType.ACCESS_REQUIREMENT, 
+		MigrationType.NODE_ACCESS_REQUIRMENT
+	);
+
+	private EffectiveAccessRequirementDao effectiveAccessRequirementDao;
+
+	@Autowired
+	public EffectiveAccessRequirementIndexMigrationListener(EffectiveAccessRequirementDao effectiveAccessRequirementDao) {
+		this.effectiveAccessRequirementDao = effectiveAccessRequirementDao;
+	}
+
+	@Override
+	public boolean supports(MigrationType type) {
+		return SUPPORTED_TYPES.contains(type);
+	}
+
+	@Override
+	public void beforeCreateOrUpdate(List<DatabaseObject<?>> batch) {
+		// Nothing to do
+	}
+
+	@Override
+	public void afterCreateOrUpdate(List<DatabaseObject<?>> batch) {
+		List<Long> rootIds = new ArrayList<>();
+		List<Long> requirementIds = new ArrayList<>();
+		
+		for (DatabaseObject<?> dbo : batch) {
+			if (dbo instanceof DBONode) {
+				rootIds.add(((DBONode) dbo).getId());
+			} else if (dbo instanceof DBOSubjectAccessRequirement) {
+				DBOSubjectAccessRequirement subject = (DBOSubjectAccessRequirement) dbo;
+				if (RestrictableObjectType.ENTITY.name().equals(subject.getSubjectType())) {
+					rootIds.add(subject.getSubjectId());
+				}
+			} else if (dbo instanceof DBOAccessRequirement) {
+				requirementIds.add(((DBOAccessRequirement) dbo).getId());
+			}
+		}
+		
+		effectiveAccessRequirementDao.clearMigratedSubtrees(rootIds);
+		effectiveAccessRequirementDao.clearRequirements(requirementIds);
+	}
+
+}
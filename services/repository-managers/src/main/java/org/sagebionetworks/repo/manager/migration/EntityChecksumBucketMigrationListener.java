@@ -0,0 +1,53 @@
+package org.sagebionetworks.repo.manager.migration;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.sagebionetworks.repo.manager.replication.EntityChecksumBucketManager;
+import org.sagebionetworks.repo.model.dbo.DatabaseObject;
+import org.sagebionetworks.repo.model.dbo.persistence.DBONode;
+import org.sagebionetworks.repo.model.migration.MigrationType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * The persisted checksum buckets of the entities are not migrated and are
+ * updated from the change messages, that are not sent for migrated objects.
+ * Marks as dirty the buckets of the migrated nodes, since a migrated ACL might
+ * change the benefactor of any entity all the buckets are marked as dirty when
+ * ACLs are migrated.
+ */
+@Service
+public class EntityChecksumBucketMigrationListener implements MigrationTypeListener<DatabaseObject<?>> {
+
+	private EntityChecksumBucketManager checksumBucketManager;
+
+	@Autowired
+	public EntityChecksumBucketMigrationListener(EntityChecksumBucketManager checksumBucketManager) {
+		this.checksumBucketManager = checksumBucketManager;
+	}
+
+	@Override
+	public boolean supports(MigrationType type) {
+		return MigrationType.NODE == type || MigrationType.ACL == type;
+	}
+
+	@Override
+	public void beforeCreateOrUpdate(List<DatabaseObject<?>> batch) {
+		// Nothing to do
+	}
+
+	@Override
+	public void afterCreateOrUpdate(List<DatabaseObject<?>> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		if (batch.get(0) instanceof DBONode) {
+			List<Long> nodeIds = batch.stream().map(node -> ((DBONode) node).getId()).collect(Collectors.toList());
+			checksumBucketManager.markEntitiesDirty(nodeIds);
+		} else {
+			checksumBucketManager.markAllDirty();
+		}
+	}
+
+}
@@ -0,0 +1,81 @@
+package org.sagebionetworks.repo.manager.migration;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.sagebionetworks.repo.manager.file.scanner.ScannedFileHandleAssociation;
+import org.sagebionetworks.repo.manager.file.scanner.tables.TableFileHandleScanner;
+import org.sagebionetworks.repo.model.IdRange;
+import org.sagebionetworks.repo.model.UnauthorizedException;
+import org.sagebionetworks.repo.model.UserInfo;
+import org.sagebionetworks.repo.model.dbo.dao.table.TableRowTruthDAO;
+import org.sagebionetworks.repo.model.migration.TableFileHandleIndexBackfillResponse;
+import org.sagebionetworks.repo.model.table.TableRowChange;
+import org.sagebionetworks.util.ValidateArgument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Back fills the index of the file handles referenced by the table changes for the changes that were written before the index was
+ * introduced, reading the file handle ids from the change sets stored in S3. The changes that are already in the index are skipped so
+ * the back fill can be safely run multiple times, once all the changes are indexed this can be removed.
+ */
+@Service
+public class TableFileHandleIndexBackfill {
+
+	private static final Logger LOG = LogManager.getLogger(TableFileHandleIndexBackfill.class);
+
+	static final long BATCH_SIZE = 1000;
+
+	private TableRowTruthDAO tableRowTruthDao;
+
+	private TableFileHandleScanner tableFileHandleScanner;
+
+	@Autowired
+	public TableFileHandleIndexBackfill(TableRowTruthDAO tableRowTruthDao, TableFileHandleScanner tableFileHandleScanner) {
+		this.tableRowTruthDao = tableRowTruthDao;
+		this.tableFileHandleScanner = tableFileHandleScanner;
+	}
+
+	public TableFileHandleIndexBackfillResponse backfillIndex(UserInfo user) {
+		ValidateArgument.required(user, "User");
+
+		if (!user.isAdmin()) {
+			throw new UnauthorizedException("Only an administrator may access this service.");
+		}
+
+		IdRange idRange = tableRowTruthDao.getTableRowChangeIdRange();
+
+		long count = 0;
+
+		for (long minId = idRange.getMinId(); minId <= idRange.getMaxId(); minId += BATCH_SIZE) {
+			IdRange batchRange = new IdRange(minId, Math.min(minId + BATCH_SIZE - 1, idRange.getMaxId()));
+
+			// A range of BATCH_SIZE ids cannot contain more than BATCH_SIZE changes, so a single page covers the whole batch
+			List<TableRowChange> changes = tableRowTruthDao.getTableRowChangeWithUnindexedFileRefsPage(batchRange, batchRange.getMinId() - 1, BATCH_SIZE);
+
+			for (TableRowChange change : changes) {
+				// The scanner takes care of the changes whose data cannot be found
+				ScannedFileHandleAssociation association = tableFileHandleScanner.mapTableRowChange(change);
+
+				Set<Long> fileHandleIds = association.getFileHandleIds();
+
+				if (fileHandleIds == null) {
+					fileHandleIds = Collections.emptySet();
+				}
+
+				// A change without file handles is recorded with an empty marker so that its data is not read again
+				tableRowTruthDao.addTableRowChangeFileHandleIds(change.getTableId(), change.getRowVersion(), fileHandleIds);
+				count++;
+			}
+		}
+
+		LOG.info("Added {} table changes to the file handle index.", count);
+
+		return new TableFileHandleIndexBackfillResponse().setCount(count);
+	}
+
+}
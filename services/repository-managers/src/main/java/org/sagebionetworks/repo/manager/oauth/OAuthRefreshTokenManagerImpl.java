@@ -44,6 +44,9 @@ public class OAuthRefreshTokenManagerImpl implements OAuthRefreshTokenManager {
 	@Autowired
 	Clock clock;
 
+	@Autowired
+	ValidatedAccessTokenCache validatedAccessTokenCache;
+
 	/**
 	 * The maximum number of days a refresh token can go unused and still
 	 * be considered active. A refresh token is "used" when it is used
@@ -183,6 +186,7 @@ public class OAuthRefreshTokenManagerImpl implements OAuthRefreshTokenManager {
 		ValidateArgument.required(clientId, "clientId");
 		oauthDao.deleteAuthorizationConsentForClient(userInfo.getId(), Long.valueOf(clientId));
 		oauthRefreshTokenDao.deleteAllTokensForUserClientPair(userInfo.getId().toString(), clientId);
+		validatedAccessTokenCache.invalidateUserClientPair(userInfo.getId().toString(), clientId);
 	}
 
 	@WriteTransaction
@@ -196,6 +200,7 @@ public class OAuthRefreshTokenManagerImpl implements OAuthRefreshTokenManager {
 		}
 
 		oauthRefreshTokenDao.deleteToken(tokenId);
+		validatedAccessTokenCache.invalidateTokenId(tokenId);
 	}
 
 	@WriteTransaction
@@ -209,6 +214,7 @@ public class OAuthRefreshTokenManagerImpl implements OAuthRefreshTokenManager {
 		}
 
 		oauthRefreshTokenDao.deleteToken(tokenId);
+		validatedAccessTokenCache.invalidateTokenId(tokenId);
 	}
 
 	@WriteTransaction
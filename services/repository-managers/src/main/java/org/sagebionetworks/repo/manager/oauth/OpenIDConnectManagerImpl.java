@@ -11,6 +11,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.UUID;
@@ -19,6 +20,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.sagebionetworks.manager.util.OAuthPermissionUtils;
 import org.sagebionetworks.repo.manager.NotificationManager;
 import org.sagebionetworks.repo.manager.authentication.PersonalAccessTokenManager;
+import org.sagebionetworks.repo.manager.authentication.PersonalAccessTokenUsageRecorder;
 import org.sagebionetworks.repo.manager.oauth.claimprovider.OIDCClaimProvider;
 import org.sagebionetworks.repo.model.AuthorizationConstants;
 import org.sagebionetworks.repo.model.AuthorizationUtils;
@@ -102,14 +104,21 @@ public class OpenIDConnectManagerImpl implements OpenIDConnectManager {
 
 	private Map<OIDCClaimName, OIDCClaimProvider> claimProviders;
 	
+	private ValidatedAccessTokenCache validatedAccessTokenCache;
+	
+	private PersonalAccessTokenUsageRecorder personalAccessTokenUsageRecorder;
+	
 	@Autowired
 	public OpenIDConnectManagerImpl(OAuthClientDao oauthClientDao, OAuthRefreshTokenManager oauthRefreshTokenManager,
 			PersonalAccessTokenManager personalAccessTokenManager, AuthenticationDAO authDao, OAuthDao oauthDao,
 			OIDCTokenHelper oidcTokenHelper, NotificationManager notificationManager, Clock clock,
-			Map<OIDCClaimName, OIDCClaimProvider> claimProviders) {
+			Map<OIDCClaimName, OIDCClaimProvider> claimProviders, ValidatedAccessTokenCache validatedAccessTokenCache,
+			PersonalAccessTokenUsageRecorder personalAccessTokenUsageRecorder) {
 		this.oauthClientDao = oauthClientDao;
 		this.oauthRefreshTokenManager = oauthRefreshTokenManager;
 		this.personalAccessTokenManager = personalAccessTokenManager;
+		this.validatedAccessTokenCache = validatedAccessTokenCache;
+		this.personalAccessTokenUsageRecorder = personalAccessTokenUsageRecorder;
 		this.authDao = authDao;
 		this.oauthDao = oauthDao;
 		this.oidcTokenHelper = oidcTokenHelper;
@@ -314,11 +323,21 @@ public class OpenIDConnectManagerImpl implements OpenIDConnectManager {
 	
 	@Override
 	public String validateAccessToken(String jwtToken) {
+		Optional<ValidatedAccessToken> cached = validatedAccessTokenCache.get(jwtToken);
+		if (cached.isPresent()) {
+			ValidatedAccessToken validated = cached.get();
+			if (TokenType.PERSONAL_ACCESS_TOKEN.equals(validated.getTokenType())) {
+				personalAccessTokenUsageRecorder.recordUsage(validated.getTokenId());
+			}
+			return validated.getUserId();
+		}
+		
 		// Parsing the JWT handles tokens that have expired
 		Claims claims = oidcTokenHelper.parseJWT(jwtToken).getBody();
 
 		String userId = getUserIdFromPPID(claims.getSubject(), claims.getAudience());
 		TokenType tokenType = TokenType.valueOf(claims.get(OIDCClaimName.token_type.name(), String.class));
+		String tokenId = null;
 		switch (tokenType) {
 			case OIDC_ACCESS_TOKEN:
 				// If the access token has an associated refresh token, we check to see if the refresh token has been revoked.
@@ -326,19 +345,25 @@ public class OpenIDConnectManagerImpl implements OpenIDConnectManager {
 				if (refreshTokenId != null && !oauthRefreshTokenManager.isRefreshTokenActive(refreshTokenId)) {
 					throw new OAuthUnauthenticatedException(OAuthErrorCode.invalid_token, "The access token has been revoked.");
 				}
+				tokenId = refreshTokenId;
 				break;
 			case PERSONAL_ACCESS_TOKEN:
 				String personalAccessTokenId = claims.getId();
 				if (personalAccessTokenManager.isTokenActive(personalAccessTokenId)) {
-					personalAccessTokenManager.updateLastUsedTime(personalAccessTokenId);
+					// The last used time is written by the recorder, outside of the request
+					personalAccessTokenUsageRecorder.recordUsage(personalAccessTokenId);
 				} else {
 					throw new ForbiddenException("The provided personal access token has expired or has been revoked.");
 				}
+				tokenId = personalAccessTokenId;
 				break;
 			case OIDC_ID_TOKEN:
 				throw new OAuthUnauthenticatedException(OAuthErrorCode.invalid_token, "The provided token is an OIDC ID token and cannot be used to authenticate requests.");
 
 		}
+		// Personal access tokens do not expire, the cache caps the entry
+		long expiresOn = claims.getExpiration() == null ? Long.MAX_VALUE : claims.getExpiration().getTime();
+		validatedAccessTokenCache.put(jwtToken, new ValidatedAccessToken(userId, claims.getAudience(), tokenType, tokenId, expiresOn));
 		return userId;
 	}
 	
@@ -0,0 +1,87 @@
+package org.sagebionetworks.repo.manager.oauth;
+
+import java.util.Objects;
+
+import org.sagebionetworks.repo.model.auth.TokenType;
+
+/**
+ * The result of validating an access token: who the token belongs to and what
+ * the validation depended on.
+ *
+ */
+public class ValidatedAccessToken {
+
+	private final String userId;
+	private final String clientId;
+	private final TokenType tokenType;
+	private final String tokenId;
+	private final long expiresOn;
+
+	/**
+	 * 
+	 * @param userId    The ID of the user the token belongs to.
+	 * @param clientId  The ID of the OAuth client the token was issued to.
+	 * @param tokenType The type of the token.
+	 * @param tokenId   For a personal access token the ID of the token, for an
+	 *                  access token the ID of the associated refresh token (if
+	 *                  any).
+	 * @param expiresOn The time (MS) after which the validation result can no
+	 *                  longer be used.
+	 */
+	public ValidatedAccessToken(String userId, String clientId, TokenType tokenType, String tokenId, long expiresOn) {
+		this.userId = userId;
+		this.clientId = clientId;
+		this.tokenType = tokenType;
+		this.tokenId = tokenId;
+		this.expiresOn = expiresOn;
+	}
+
+	public String getUserId() {
+		return userId;
+	}
+
+	public String getClientId() {
+		return clientId;
+	}
+
+	public TokenType getTokenType() {
+		return tokenType;
+	}
+
+	public String getTokenId() {
+		return tokenId;
+	}
+
+	public long getExpiresOn() {
+		return expiresOn;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(clientId, expiresOn, tokenId, tokenType, userId);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		ValidatedAccessToken other = (ValidatedAccessToken) obj;
+		return Objects.equals(clientId, other.clientId) && expiresOn == other.expiresOn
+				&& Objects.equals(tokenId, other.tokenId) && tokenType == other.tokenType
+				&& Objects.equals(userId, other.userId);
+	}
+
+	@Override
+	public String toString() {
+		return "ValidatedAccessToken [userId=" + userId + ", clientId=" + clientId + ", tokenType=" + tokenType
+				+ ", tokenId=" + tokenId + ", expiresOn=" + expiresOn + "]";
+	}
+
+}
@@ -0,0 +1,54 @@
+package org.sagebionetworks.repo.manager.oauth;
+
+import java.util.Optional;
+
+/**
+ * A bounded, in-memory cache of access tokens that have already been
+ * validated. A hit allows a request to skip the signature check, the
+ * decryption of the pairwise user ID and the database checks on the state of
+ * the token.
+ * <p>
+ * Since the cache is local to a single machine, entries are only kept for a
+ * short time so that a revocation on another machine is honored promptly.
+ *
+ */
+public interface ValidatedAccessTokenCache {
+
+	/**
+	 * Get the validation result for the given access token, if it is cached and
+	 * has not expired.
+	 * 
+	 * @param accessToken
+	 * @return
+	 */
+	Optional<ValidatedAccessToken> get(String accessToken);
+
+	/**
+	 * Cache the validation result for the given access token.
+	 * 
+	 * @param accessToken
+	 * @param validated
+	 */
+	void put(String accessToken, ValidatedAccessToken validated);
+
+	/**
+	 * Remove any entry that depends on the token with the given ID. This is
+	 * either the ID of a personal access token or the ID of a refresh token.
+	 * When called within a transaction the entries are removed again after
+	 * the transaction is committed.
+	 * 
+	 * @param tokenId
+	 */
+	void invalidateTokenId(String tokenId);
+
+	/**
+	 * Remove any entry for an access token issued to the given client on behalf
+	 * of the given user. When called within a transaction the entries are
+	 * removed again after the transaction is committed.
+	 * 
+	 * @param userId
+	 * @param clientId
+	 */
+	void invalidateUserClientPair(String userId, String clientId);
+
+}
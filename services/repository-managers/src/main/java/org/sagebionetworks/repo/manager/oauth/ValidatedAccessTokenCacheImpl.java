@@ -0,0 +1,99 @@
+package org.sagebionetworks.repo.manager.oauth;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.sagebionetworks.repo.model.message.TransactionSynchronizationProxy;
+import org.sagebionetworks.util.Clock;
+import org.sagebionetworks.util.ValidateArgument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+@Service
+public class ValidatedAccessTokenCacheImpl implements ValidatedAccessTokenCache {
+
+	// Bounds how long a revocation on another machine can go unnoticed
+	static final Duration MAX_CACHE_DURATION = Duration.ofSeconds(30);
+
+	static final long MAX_CACHE_SIZE = 10_000;
+
+	private final Clock clock;
+
+	private final TransactionSynchronizationProxy transactionSynchronization;
+
+	// Keyed by the hash of the token, so that the tokens themselves are not kept in memory
+	private final Cache<String, ValidatedAccessToken> cache;
+
+	@Autowired
+	public ValidatedAccessTokenCacheImpl(Clock clock, TransactionSynchronizationProxy transactionSynchronization) {
+		this.clock = clock;
+		this.transactionSynchronization = transactionSynchronization;
+		this.cache = CacheBuilder.newBuilder()
+			.maximumSize(MAX_CACHE_SIZE)
+			.expireAfterWrite(MAX_CACHE_DURATION)
+			.build();
+	}
+
+	@Override
+	public Optional<ValidatedAccessToken> get(String accessToken) {
+		ValidateArgument.required(accessToken, "The accessToken");
+		String key = hashToken(accessToken);
+		ValidatedAccessToken validated = cache.getIfPresent(key);
+		if (validated == null) {
+			return Optional.empty();
+		}
+		if (clock.currentTimeMillis() >= validated.getExpiresOn()) {
+			cache.invalidate(key);
+			return Optional.empty();
+		}
+		return Optional.of(validated);
+	}
+
+	@Override
+	public void put(String accessToken, ValidatedAccessToken validated) {
+		ValidateArgument.required(accessToken, "The accessToken");
+		ValidateArgument.required(validated, "The validated token");
+		long maxExpiresOn = clock.currentTimeMillis() + MAX_CACHE_DURATION.toMillis();
+		if (validated.getExpiresOn() > maxExpiresOn) {
+			validated = new ValidatedAccessToken(validated.getUserId(), validated.getClientId(), validated.getTokenType(),
+					validated.getTokenId(), maxExpiresOn);
+		}
+		cache.put(hashToken(accessToken), validated);
+	}
+
+	@Override
+	public void invalidateTokenId(String tokenId) {
+		ValidateArgument.required(tokenId, "The tokenId");
+		invalidateNowAndAfterCommit(() -> cache.asMap().values().removeIf(validated -> tokenId.equals(validated.getTokenId())));
+	}
+
+	@Override
+	public void invalidateUserClientPair(String userId, String clientId) {
+		ValidateArgument.required(userId, "The userId");
+		ValidateArgument.required(clientId, "The clientId");
+		invalidateNowAndAfterCommit(() -> cache.asMap().values().removeIf(validated -> userId.equals(validated.getUserId()) && clientId.equals(validated.getClientId())));
+	}
+
+	private void invalidateNowAndAfterCommit(Runnable invalidation) {
+		invalidation.run();
+		// A concurrent request might validate the token that is being revoked before the transaction is committed
+		if (transactionSynchronization.isSynchronizationActive()) {
+			transactionSynchronization.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					invalidation.run();
+				}
+			});
+		}
+	}
+
+	static String hashToken(String accessToken) {
+		return DigestUtils.sha256Hex(accessToken);
+	}
+
+}
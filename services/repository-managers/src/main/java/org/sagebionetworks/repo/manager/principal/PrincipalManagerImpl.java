@@ -14,6 +14,7 @@ import org.sagebionetworks.repo.manager.EmailUtils;
 import org.sagebionetworks.repo.manager.SendRawEmailRequestBuilder;
 import org.sagebionetworks.repo.manager.SendRawEmailRequestBuilder.BodyType;
 import org.sagebionetworks.repo.manager.UserManager;
+import org.sagebionetworks.repo.manager.authentication.PrincipalAuthenticationCache;
 import org.sagebionetworks.repo.manager.message.PrincipalNameProvider;
 import org.sagebionetworks.repo.manager.token.TokenGenerator;
 import org.sagebionetworks.repo.model.AuthorizationUtils;
@@ -83,6 +84,9 @@ public class PrincipalManagerImpl implements PrincipalManager, PrincipalNameProv
 	
 	@Autowired
 	private TokenGenerator tokenGenerator;
+	
+	@Autowired
+	private PrincipalAuthenticationCache principalAuthenticationCache;
 
 	@Override
 	public boolean isAliasAvailable(String alias) {
@@ -202,6 +206,7 @@ public class PrincipalManagerImpl implements PrincipalManager, PrincipalNameProv
 				throw new IllegalArgumentException("To remove this email from your account, first establish a different notification address.");
 		PrincipalAlias emailAlias = findAliasForEmail(userInfo.getId(), email);
 		principalAliasDAO.removeAliasFromPrincipal(userInfo.getId(), emailAlias.getAliasId());
+		principalAuthenticationCache.invalidate(userInfo.getId());
 	}
 	
 	@WriteTransaction
@@ -252,6 +257,7 @@ public class PrincipalManagerImpl implements PrincipalManager, PrincipalNameProv
 		if (!aliasesRemoved) {
 			throw new DatastoreException("Removed zero aliases from principal: " + principalToClear + ". A principal record should have at least one alias.");
 		}
+		principalAuthenticationCache.invalidate(principalToClear);
 		
 		// Clear also the OIDC bindings (See https://sagebionetworks.jira.com/browse/PLFM-8219
 		userManager.clearOidcBindings(principalToClear);
@@ -0,0 +1,89 @@
+package org.sagebionetworks.repo.manager.replication;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.table.SubType;
+
+/**
+ * Maintains the persisted checksums of the entities by ID bucket, used to
+ * reconcile hierarchical entity scopes without recomputing the checksums of
+ * the whole scope at each reconciliation.
+ *
+ */
+public interface EntityChecksumBucketManager {
+
+	/**
+	 * Applies the entity changes since the last update to the status of the
+	 * buckets, then recomputes a batch of the dirty buckets. On the first call
+	 * all the buckets are marked as dirty.
+	 */
+	void updateChecksumBuckets();
+
+	/**
+	 * @return True if the buckets were initialized and can be used for the
+	 *         reconciliation
+	 */
+	boolean isInitialized();
+
+	/**
+	 * @return The buckets that were (possibly) changed since their checksums were
+	 *         last computed, ordered ascending
+	 */
+	List<Long> getDirtyBuckets();
+
+	/**
+	 * @param parentIds
+	 * @return The buckets that currently contain at least one of the children of
+	 *         the given parents
+	 */
+	Set<Long> getBucketsForParents(Set<Long> parentIds);
+
+	/**
+	 * Get the persisted checksum of each bucket for the children of the given
+	 * parents with the given types, ordered by bucket ascending. The checksums
+	 * are computed with the constant salt {@link #getBucketSalt()}.
+	 * 
+	 * @param parentIds
+	 * @param subTypes
+	 * @return
+	 */
+	List<IdAndChecksum> getBucketChecksums(Set<Long> parentIds, Set<SubType> subTypes);
+
+	/**
+	 * Stream over the current IdAndChecksum of the children of the given parents
+	 * with the given types in the given bucket, ordered by ID.
+	 * 
+	 * @param salt
+	 * @param parentIds
+	 * @param subTypes
+	 * @param bucket
+	 * @return
+	 */
+	Iterator<IdAndChecksum> streamOverIdsAndChecksumsForChildrenInBucket(Long salt, Set<Long> parentIds, Set<SubType> subTypes, Long bucket);
+
+	/**
+	 * @return The size of the range of ids covered by each bucket
+	 */
+	long getBucketSize();
+
+	/**
+	 * @return The salt used to compute the persisted checksums
+	 */
+	long getBucketSalt();
+
+	/**
+	 * Mark the buckets covering the given entity ids as dirty
+	 * 
+	 * @param entityIds
+	 */
+	void markEntitiesDirty(List<Long> entityIds);
+
+	/**
+	 * Mark all the buckets as dirty
+	 */
+	void markAllDirty();
+
+}
@@ -0,0 +1,189 @@
+package org.sagebionetworks.repo.manager.replication;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.LimitExceededException;
+import org.sagebionetworks.repo.model.NodeDAO;
+import org.sagebionetworks.repo.model.ObjectType;
+import org.sagebionetworks.repo.model.dbo.dao.DBOChangeDAO;
+import org.sagebionetworks.repo.model.dbo.dao.EntityChecksumBucketDao;
+import org.sagebionetworks.repo.model.jdo.KeyFactory;
+import org.sagebionetworks.repo.model.message.ChangeMessage;
+import org.sagebionetworks.repo.model.table.SubType;
+import org.sagebionetworks.util.Clock;
+import org.sagebionetworks.util.ValidateArgument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class EntityChecksumBucketManagerImpl implements EntityChecksumBucketManager {
+	
+	private static final Logger LOG = LogManager.getLogger(EntityChecksumBucketManagerImpl.class);
+
+	/**
+	 * The maximum number of changes read on each update
+	 */
+	public static final long MAX_CHANGES = 1000;
+
+	/**
+	 * The number of dirty buckets read and recomputed in each batch
+	 */
+	public static final long MAX_BUCKETS_TO_RECOMPUTE = 100;
+
+	/**
+	 * Batches of dirty buckets are recomputed until none is left or this time is exceeded, so that a large backlog (e.g. after all the
+	 * buckets are marked dirty) is drained within a few updates. Kept well below the timeout of the lock of the worker.
+	 */
+	public static final long MAX_RECOMPUTE_TIME_MS = 60_000;
+
+	/**
+	 * The upper bound on the number of buckets returned as dirty, larger than the total number of buckets
+	 */
+	public static final long MAX_DIRTY_BUCKETS = 100_000;
+
+	/**
+	 * The maximum number of containers in the hierarchy of a changed container, when exceeded all the buckets are marked as dirty
+	 */
+	public static final int MAX_CONTAINERS = 10_000;
+
+	/**
+	 * Change numbers are assigned before the transaction commits, so a change with a lower number might become visible after a higher
+	 * one. Only changes older than this are applied.
+	 */
+	public static final long CHANGE_GRACE_PERIOD_MS = 60_000;
+
+	private final EntityChecksumBucketDao bucketDao;
+	private final DBOChangeDAO changeDao;
+	private final NodeDAO nodeDao;
+	private final Clock clock;
+
+	@Autowired
+	public EntityChecksumBucketManagerImpl(EntityChecksumBucketDao bucketDao, DBOChangeDAO changeDao, NodeDAO nodeDao, Clock clock) {
+		this.bucketDao = bucketDao;
+		this.changeDao = changeDao;
+		this.nodeDao = nodeDao;
+		this.clock = clock;
+	}
+
+	@Override
+	public void updateChecksumBuckets() {
+		Optional<Long> lastChangeNumber = bucketDao.getLastChangeNumber();
+		if (lastChangeNumber.isPresent()) {
+			applyChanges(lastChangeNumber.get());
+		} else {
+			// The change number is read first, so that any change made while marking the buckets is applied on the next update
+			long currentChangeNumber = changeDao.getCurrentChangeNumber();
+			markAllDirty();
+			bucketDao.setLastChangeNumber(currentChangeNumber);
+		}
+		recomputeDirtyBuckets();
+	}
+
+	void recomputeDirtyBuckets() {
+		long deadline = clock.currentTimeMillis() + MAX_RECOMPUTE_TIME_MS;
+		List<Long> dirtyBuckets;
+		do {
+			dirtyBuckets = bucketDao.getDirtyBuckets(MAX_BUCKETS_TO_RECOMPUTE);
+			for (Long bucket : dirtyBuckets) {
+				bucketDao.recomputeBucket(bucket);
+			}
+		} while (dirtyBuckets.size() >= MAX_BUCKETS_TO_RECOMPUTE && clock.currentTimeMillis() < deadline);
+	}
+
+	void applyChanges(long lastChangeNumber) {
+		List<ChangeMessage> changes = changeDao.listChanges(lastChangeNumber + 1, null, MAX_CHANGES);
+		long maxTimestamp = clock.currentTimeMillis() - CHANGE_GRACE_PERIOD_MS;
+		Set<Long> buckets = new TreeSet<>();
+		boolean allDirty = false;
+		Long appliedChangeNumber = null;
+		for (ChangeMessage change : changes) {
+			if (change.getTimestamp().getTime() > maxTimestamp) {
+				break;
+			}
+			if (ObjectType.ENTITY.equals(change.getObjectType())) {
+				buckets.add(getBucket(KeyFactory.stringToKey(change.getObjectId())));
+			} else if (ObjectType.ENTITY_CONTAINER.equals(change.getObjectType()) && !allDirty) {
+				// The benefactor or the trash status of all the entities in the hierarchy might have changed
+				try {
+					Set<Long> containerIds = nodeDao.getAllContainerIds(List.of(KeyFactory.stringToKey(change.getObjectId())), MAX_CONTAINERS);
+					buckets.addAll(bucketDao.getBucketsForParents(containerIds));
+				} catch (LimitExceededException e) {
+					LOG.info("The hierarchy of container {} is too large, all the buckets will be recomputed.", change.getObjectId());
+					allDirty = true;
+				}
+			}
+			appliedChangeNumber = change.getChangeNumber();
+		}
+		if (allDirty) {
+			markAllDirty();
+		} else {
+			bucketDao.markDirty(buckets);
+		}
+		if (appliedChangeNumber != null) {
+			bucketDao.setLastChangeNumber(appliedChangeNumber);
+		}
+	}
+
+	@Override
+	public void markAllDirty() {
+		long maxBucket = bucketDao.getMaxBucket();
+		bucketDao.markDirty(LongStream.rangeClosed(0, maxBucket).boxed().collect(Collectors.toList()));
+	}
+
+	long getBucket(long entityId) {
+		return entityId / EntityChecksumBucketDao.BUCKET_SIZE;
+	}
+
+	@Override
+	public boolean isInitialized() {
+		return bucketDao.getLastChangeNumber().isPresent();
+	}
+
+	@Override
+	public List<Long> getDirtyBuckets() {
+		return bucketDao.getDirtyBuckets(MAX_DIRTY_BUCKETS);
+	}
+
+	@Override
+	public Set<Long> getBucketsForParents(Set<Long> parentIds) {
+		return bucketDao.getBucketsForParents(parentIds);
+	}
+
+	@Override
+	public List<IdAndChecksum> getBucketChecksums(Set<Long> parentIds, Set<SubType> subTypes) {
+		return bucketDao.getBucketChecksums(parentIds, subTypes);
+	}
+
+	@Override
+	public Iterator<IdAndChecksum> streamOverIdsAndChecksumsForChildrenInBucket(Long salt, Set<Long> parentIds, Set<SubType> subTypes,
+			Long bucket) {
+		return nodeDao.getIdsAndChecksumsForChildrenInBucket(salt, parentIds, subTypes, EntityChecksumBucketDao.BUCKET_SIZE, bucket)
+				.iterator();
+	}
+
+	@Override
+	public long getBucketSize() {
+		return EntityChecksumBucketDao.BUCKET_SIZE;
+	}
+
+	@Override
+	public long getBucketSalt() {
+		return EntityChecksumBucketDao.BUCKET_SALT;
+	}
+
+	@Override
+	public void markEntitiesDirty(List<Long> entityIds) {
+		ValidateArgument.required(entityIds, "entityIds");
+		bucketDao.markDirty(entityIds.stream().map(this::getBucket).collect(Collectors.toCollection(TreeSet::new)));
+	}
+
+}
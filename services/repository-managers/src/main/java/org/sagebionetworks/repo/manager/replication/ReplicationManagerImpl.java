@@ -1,12 +1,18 @@
 package org.sagebionetworks.repo.manager.replication;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.Logger;
@@ -60,6 +66,8 @@ public class ReplicationManagerImpl implements ReplicationManager {
 	final private TableIndexConnectionFactory indexConnectionFactory;
 	
 	final private Random random;
+	
+	final private EntityChecksumBucketManager checksumBucketManager;
 
 	@Autowired
 	public ReplicationManagerImpl(
@@ -68,7 +76,7 @@ public class ReplicationManagerImpl implements ReplicationManager {
 			ReplicationMessageManager replicationMessageManager, 
 			TableIndexConnectionFactory indexConnectionFactory,
 			MetadataIndexProviderFactory indexProviderFactory, LoggerProvider logProvider,
-			Random random) {
+			Random random, EntityChecksumBucketManager checksumBucketManager) {
 		this.objectDataProviderFactory = objectDataProviderFactory;
 		this.tableManagerSupport = tableManagerSupport;
 		this.replicationMessageManager = replicationMessageManager;
@@ -76,6 +84,7 @@ public class ReplicationManagerImpl implements ReplicationManager {
 		this.indexProviderFactory = indexProviderFactory;
 		this.log = logProvider.getLogger(ReplicationManagerImpl.class.getName());
 		this.random = random;
+		this.checksumBucketManager = checksumBucketManager;
 	}
 
 	/**
@@ -301,12 +310,113 @@ public class ReplicationManagerImpl implements ReplicationManager {
 	Iterator<ChangeMessage> createReconcileIterator(ViewFilter filter) {
 		ValidateArgument.required(filter, "filter");
 		long salt = random.nextLong();
+		if (isBucketReconcileSupported(filter)) {
+			return createBucketReconcileIterator(salt, (HierarchicaFilter) filter);
+		}
 		Iterator<IdAndChecksum> truthStream = createTruthStream(salt, filter);
 		TableIndexManager indexManager = indexConnectionFactory.connectToFirstIndex();
 		Iterator<IdAndChecksum> replicationStream = indexManager.streamOverIdsAndChecksums(salt, filter);
 		return new ReconcileIterator(filter.getReplicationType().getObjectType(), truthStream, replicationStream);
 	}
 	
+	/**
+	 * Hierarchical entity scopes can be reconciled by first comparing the
+	 * checksums of ID buckets, once the persisted checksums of the buckets are
+	 * initialized.
+	 * 
+	 * @param filter
+	 * @return
+	 */
+	boolean isBucketReconcileSupported(ViewFilter filter) {
+		return filter instanceof HierarchicaFilter && ReplicationType.ENTITY.equals(filter.getReplicationType())
+				&& checksumBucketManager.isInitialized();
+	}
+	
+	/**
+	 * Reconcile the given hierarchical scope in two levels. First the persisted
+	 * checksums of each ID bucket of the 'truth' are compared with the checksums
+	 * of the buckets of the 'replication'. Only the buckets with a mismatch, or
+	 * that changed since their checksums were persisted, are then compared object
+	 * by object using a {@link ReconcileIterator} with the provided salt. When the
+	 * two sides agree only the bucket checksums are read. The dirty buckets are
+	 * global, only the ones that might contain objects of the scope (on either
+	 * side) are compared.
+	 * 
+	 * @param salt
+	 * @param filter
+	 * @return
+	 */
+	Iterator<ChangeMessage> createBucketReconcileIterator(Long salt, HierarchicaFilter filter) {
+		TableIndexManager indexManager = indexConnectionFactory.connectToFirstIndex();
+		long bucketSize = checksumBucketManager.getBucketSize();
+		// The dirty buckets are read first, a bucket recomputed after this is consistent with the persisted checksums read next
+		List<Long> dirtyBuckets = checksumBucketManager.getDirtyBuckets();
+		List<IdAndChecksum> truthBuckets = checksumBucketManager.getBucketChecksums(filter.getParentIds(), filter.getSubTypes());
+		List<IdAndChecksum> replicationBuckets = indexManager.getBucketChecksums(checksumBucketManager.getBucketSalt(), filter,
+				bucketSize);
+		SortedSet<Long> bucketsToCompare = new TreeSet<>(findMismatchedBuckets(truthBuckets, replicationBuckets));
+		if (!dirtyBuckets.isEmpty()) {
+			bucketsToCompare.addAll(filterScopeBuckets(dirtyBuckets, filter.getParentIds(), truthBuckets, replicationBuckets));
+		}
+		if (bucketsToCompare.isEmpty()) {
+			return Collections.emptyIterator();
+		}
+		log.info(String.format("Found %d of %d checksum buckets to compare for scope: '%s'.", bucketsToCompare.size(),
+				Math.max(truthBuckets.size(), replicationBuckets.size()), filter.getParentIds()));
+		ObjectType objectType = filter.getReplicationType().getObjectType();
+		return Iterators.concat(Iterators.transform(bucketsToCompare.iterator(), bucket -> {
+			Iterator<IdAndChecksum> truthStream = checksumBucketManager.streamOverIdsAndChecksumsForChildrenInBucket(salt,
+					filter.getParentIds(), filter.getSubTypes(), bucket);
+			Iterator<IdAndChecksum> replicationStream = indexManager.streamOverIdsAndChecksumsInBucket(salt, filter,
+					bucketSize, bucket);
+			return new ReconcileIterator(objectType, truthStream, replicationStream);
+		}));
+	}
+	
+	/**
+	 * Filter the given dirty buckets to the buckets that might contain objects of
+	 * the scope: the buckets that currently contain children of the parents of the
+	 * scope, and the buckets that contained objects of the scope when their
+	 * checksums were persisted or replicated (e.g. an object moved out of the
+	 * scope).
+	 * 
+	 * @param dirtyBuckets
+	 * @param parentIds
+	 * @param truthBuckets
+	 * @param replicationBuckets
+	 * @return
+	 */
+	List<Long> filterScopeBuckets(List<Long> dirtyBuckets, Set<Long> parentIds, List<IdAndChecksum> truthBuckets,
+			List<IdAndChecksum> replicationBuckets) {
+		Set<Long> scopeBuckets = new HashSet<>(checksumBucketManager.getBucketsForParents(parentIds));
+		truthBuckets.forEach(bucket -> scopeBuckets.add(bucket.getId()));
+		replicationBuckets.forEach(bucket -> scopeBuckets.add(bucket.getId()));
+		return dirtyBuckets.stream().filter(scopeBuckets::contains).collect(Collectors.toList());
+	}
+	
+	/**
+	 * Find the buckets that do not match between the two provided lists of bucket
+	 * checksums. A bucket that is present only on one side is a mismatch.
+	 * 
+	 * @param truth
+	 * @param replication
+	 * @return The mismatched bucket numbers ordered ascending.
+	 */
+	static List<Long> findMismatchedBuckets(List<IdAndChecksum> truth, List<IdAndChecksum> replication) {
+		Map<Long, Long> replicationChecksums = new HashMap<>(replication.size());
+		replication.forEach(r -> replicationChecksums.put(r.getId(), r.getChecksum()));
+		SortedSet<Long> mismatched = new TreeSet<>();
+		for (IdAndChecksum truthBucket : truth) {
+			Long replicationChecksum = replicationChecksums.remove(truthBucket.getId());
+			if (!truthBucket.getChecksum().equals(replicationChecksum)) {
+				mismatched.add(truthBucket.getId());
+			}
+		}
+		// Any remaining bucket only exists in the replication
+		mismatched.addAll(replicationChecksums.keySet());
+		return new ArrayList<>(mismatched);
+	}
+	
 	@Override
 	public boolean isReplicationSynchronizedForView(ObjectType viewObjectType, IdAndVersion viewId) {
 		ViewFilter filter = getFilter(viewId, viewObjectType);
@@ -1,9 +1,16 @@
 package org.sagebionetworks.repo.manager.search;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.dao.WikiPageKey;
+import org.sagebionetworks.repo.model.jdo.KeyFactory;
 import org.sagebionetworks.repo.model.message.ChangeMessage;
 import org.sagebionetworks.repo.model.search.Document;
 import org.sagebionetworks.repo.model.search.DocumentTypeNames;
@@ -44,20 +51,72 @@ public class ChangeMessageToSearchDocumentTranslator {
 	}
 
 	/**
-	 * Wiki changes are converted into entity changes.
+	 * Generate the search documents for a batch of changes. Each document is
+	 * identical to the one generated by
+	 * {@link #generateSearchDocumentIfNecessary(ChangeMessage)} for the same
+	 * change, but the documents of all of the changed entities are built with a
+	 * few set-based queries.
+	 * 
+	 * @param changes
+	 * @return The documents in the order of the changes. Changes that are
+	 *         ignored do not have a document.
+	 */
+	List<Document> generateSearchDocuments(List<ChangeMessage> changes) {
+		List<String> entityIds = new ArrayList<>(changes.size());
+		List<CloudSearchDocumentLogRecord> records = new ArrayList<>(changes.size());
+		for (ChangeMessage change : changes) {
+			// start a log record for this message.
+			CloudSearchDocumentLogRecord record = recordLogger.startRecordForChangeMessage(change);
+			String entityId;
+			switch (change.getObjectType()) {
+			case ENTITY:
+				entityId = change.getObjectId();
+				break;
+			case WIKI:
+				entityId = lookupWikiOwnerEntity(change.getObjectId(), record);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown change type: " + change.getChangeType());
+			}
+			if (entityId != null) {
+				entityIds.add(entityId);
+				records.add(record);
+			}
+		}
+		Set<Long> distinctIds = new LinkedHashSet<>(entityIds.size());
+		entityIds.forEach(entityId -> distinctIds.add(KeyFactory.stringToKey(entityId)));
+		Set<Long> availableIds = searchDocumentDriver.getAvailableEntities(new ArrayList<>(distinctIds));
+		Map<Long, Document> documents = searchDocumentDriver.formulateSearchDocuments(new ArrayList<>(availableIds));
+
+		List<Document> results = new ArrayList<>(entityIds.size());
+		for (int i = 0; i < entityIds.size(); i++) {
+			String entityId = entityIds.get(i);
+			Document document = documents.get(KeyFactory.stringToKey(entityId));
+			if (document == null) {
+				records.get(i).withAction(DocumentAction.DELETE);
+				results.add(createDeleteDocument(entityId));
+			} else {
+				records.get(i).withAction(DocumentAction.CREATE_OR_UPDATE);
+				results.add(document);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Lookup the entity that owns the given wiki.
+	 * 
 	 * @param wikiId
 	 * @param record
-	 * @return
+	 * @return null if the wiki does not exist or is not owned by an entity, in
+	 *         which case the change is ignored.
 	 */
-	Document wikiChange(String wikiId, CloudSearchDocumentLogRecord record) {
-		// Lookup the owner of the page
+	String lookupWikiOwnerEntity(String wikiId, CloudSearchDocumentLogRecord record) {
 		try {
 			WikiPageKey key = wikiPageDao.lookupWikiKey(wikiId);
-			// If the owner of the wiki is a an entity then pass along the
-			// message.
 			if (ObjectType.ENTITY == key.getOwnerObjectType()) {
 				record.withWikiOwner(key.getOwnerObjectId());
-				return entityChange(key.getOwnerObjectId(), record);
+				return key.getOwnerObjectId();
 			}
 		} catch (NotFoundException e) {
 			// Nothing to do if the wiki does not exist
@@ -68,6 +127,23 @@ public class ChangeMessageToSearchDocumentTranslator {
 		return null;
 	}
 
+	/**
+	 * Wiki changes are converted into entity changes.
+	 * @param wikiId
+	 * @param record
+	 * @return
+	 */
+	Document wikiChange(String wikiId, CloudSearchDocumentLogRecord record) {
+		// Lookup the owner of the page
+		String entityId = lookupWikiOwnerEntity(wikiId, record);
+		// If the owner of the wiki is a an entity then pass along the
+		// message.
+		if (entityId == null) {
+			return null;
+		}
+		return entityChange(entityId, record);
+	}
+
 	/**
 	 * Create a change document for the given wiki.
 	 * 
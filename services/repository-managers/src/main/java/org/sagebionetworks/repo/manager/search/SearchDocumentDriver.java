@@ -2,6 +2,7 @@ package org.sagebionetworks.repo.manager.search;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.sagebionetworks.repo.model.AccessControlList;
@@ -35,6 +36,28 @@ public interface SearchDocumentDriver {
 	 * @throws IOException TODO
 	 */
 	public Document formulateSearchDocument(String nodeId) throws DatastoreException, NotFoundException;
+	
+	/**
+	 * Get the sub-set of the given entities that exist in the repository and are
+	 * not in the trash can.
+	 * 
+	 * @param entityIds
+	 * @return
+	 */
+	Set<Long> getAvailableEntities(List<Long> entityIds);
+	
+	/**
+	 * Create the search documents for the given entities. The nodes, benefactors,
+	 * annotations and wiki pages of all of the entities are loaded with a few
+	 * set-based queries, and the ACL of each distinct benefactor is loaded once.
+	 * Each document is identical to the one created by
+	 * {@link #formulateSearchDocument(String)} for the same entity.
+	 * 
+	 * @param entityIds
+	 * @return Map from the entity id to its search document. Entities that do not
+	 *         exist are excluded.
+	 */
+	Map<Long, Document> formulateSearchDocuments(List<Long> entityIds);
 	/**
 	 * Create a search document and return it.
 	 *
@@ -50,12 +73,13 @@ public interface SearchDocumentDriver {
 											AccessControlList acl, String wikiPagesText) throws DatastoreException, NotFoundException;
 	
 	/**
+	 * Get the path of each of the given nodes with a single batch lookup.
 	 * 
-	 * @param nodeId
-	 * @return
-	 * @throws NotFoundException
+	 * @param nodeIds
+	 * @return The path of each node, keyed by the given node id. The nodes that
+	 *         do not exist are not included in the map.
 	 */
-	public EntityPath getEntityPath(String nodeId) throws NotFoundException;
+	public Map<String, EntityPath> getEntityPaths(List<String> nodeIds);
 	
 	/**
 	 * 
@@ -10,12 +10,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.joda.time.DateTime;
+import org.sagebionetworks.repo.manager.wiki.WikiMarkdownCache;
 import org.sagebionetworks.repo.model.ACCESS_TYPE;
 import org.sagebionetworks.repo.model.AccessControlList;
 import org.sagebionetworks.repo.model.AccessControlListDAO;
@@ -30,17 +34,16 @@ import org.sagebionetworks.repo.model.ResourceAccess;
 import org.sagebionetworks.repo.model.annotation.v2.Annotations;
 import org.sagebionetworks.repo.model.annotation.v2.AnnotationsV2Utils;
 import org.sagebionetworks.repo.model.annotation.v2.AnnotationsValue;
-import org.sagebionetworks.repo.model.dao.WikiPageKey;
-import org.sagebionetworks.repo.model.dao.WikiPageKeyHelper;
 import org.sagebionetworks.repo.model.entity.NameIdType;
+import org.sagebionetworks.repo.model.jdo.KeyFactory;
 import org.sagebionetworks.repo.model.search.Document;
 import org.sagebionetworks.repo.model.search.DocumentFields;
 import org.sagebionetworks.repo.model.search.DocumentTypeNames;
 import org.sagebionetworks.repo.model.v2.dao.V2WikiPageDao;
-import org.sagebionetworks.repo.model.v2.wiki.V2WikiHeader;
-import org.sagebionetworks.repo.model.v2.wiki.V2WikiPage;
+import org.sagebionetworks.repo.model.v2.wiki.V2WikiMarkdownVersion;
 import org.sagebionetworks.repo.web.NotFoundException;
 import org.sagebionetworks.search.SearchUtil;
+import org.sagebionetworks.util.ValidateArgument;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -59,6 +62,11 @@ public class SearchDocumentDriverImpl implements SearchDocumentDriver {
 	 * No more than 100 values in a field value array
 	 */
 	public static final int FIELD_VALUE_SIZE_LIMIT = 100;
+	
+	/**
+	 * No more than 100 wiki pages are included in the description of a document
+	 */
+	public static final long WIKI_PAGE_LIMIT = 100L;
 
 	private static Log log = LogFactory.getLog(SearchDocumentDriverImpl.class);
 
@@ -70,6 +78,8 @@ public class SearchDocumentDriverImpl implements SearchDocumentDriver {
 	private AccessControlListDAO aclDAO;
 	@Autowired
 	V2WikiPageDao wikiPageDao;
+	@Autowired
+	WikiMarkdownCache wikiMarkdownCache;
 
 	static { // initialize SEARCHABLE_NODE_ANNOTATIONS
 		// NOTE: ORDER MATTERS. Earlier annotation key names will be preferred over later ones if both keys are present.
@@ -112,19 +122,21 @@ public class SearchDocumentDriverImpl implements SearchDocumentDriver {
 		return formulateSearchDocument(node, annos, benefactorACL, wikiPagesText);
 	}
 
-	/**
-	 * Get the entity path
-	 * 
-	 * @param nodeId
-	 * @return
-	 * @throws NotFoundException
-	 */
 	@Override
-	public EntityPath getEntityPath(String nodeId) throws NotFoundException {
-		List<EntityHeader> pathHeaders = NameIdType.toEntityHeader(nodeDao.getEntityPath(nodeId));
-		EntityPath entityPath = new EntityPath();
-		entityPath.setPath(pathHeaders);
-		return entityPath;
+	public Map<String, EntityPath> getEntityPaths(List<String> nodeIds) {
+		ValidateArgument.required(nodeIds, "nodeIds");
+		Map<Long, List<NameIdType>> paths = nodeDao.getEntityPaths(nodeIds.stream().map(KeyFactory::stringToKey).collect(Collectors.toSet()));
+		Map<String, EntityPath> results = new HashMap<>(paths.size());
+		for (String nodeId : nodeIds) {
+			List<NameIdType> path = paths.get(KeyFactory.stringToKey(nodeId));
+			if (path != null) {
+				List<EntityHeader> pathHeaders = NameIdType.toEntityHeader(path);
+				EntityPath entityPath = new EntityPath();
+				entityPath.setPath(pathHeaders);
+				results.put(nodeId, entityPath);
+			}
+		}
+		return results;
 	}
 	
 	@Override
@@ -268,6 +280,94 @@ public class SearchDocumentDriverImpl implements SearchDocumentDriver {
 		return formulateFromBackup(node);
 	}
 
+	@Override
+	public Set<Long> getAvailableEntities(List<Long> entityIds) {
+		ValidateArgument.required(entityIds, "entityIds");
+		return nodeDao.getAvailableNodes(entityIds);
+	}
+
+	@Override
+	public Map<Long, Document> formulateSearchDocuments(List<Long> entityIds) {
+		ValidateArgument.required(entityIds, "entityIds");
+		Map<Long, Document> documents = new LinkedHashMap<>(entityIds.size());
+		if (entityIds.isEmpty()) {
+			return documents;
+		}
+		List<Node> nodes = nodeDao.getNodes(entityIds);
+		List<Long> nodeIds = nodes.stream().map(node -> KeyFactory.stringToKey(node.getId())).collect(Collectors.toList());
+		Map<Long, Long> benefactors = nodeDao.getBenefactors(nodeIds);
+		Map<Long, Annotations> annotations = nodeDao.getCurrentUserAnnotations(nodeIds);
+		Map<Long, String> wikiPagesText = getAllWikiPageText(nodeIds);
+		// Most entities of a batch share a few benefactors.
+		Map<Long, AccessControlList> benefactorAcls = new HashMap<>();
+		for (Node node : nodes) {
+			Long nodeId = KeyFactory.stringToKey(node.getId());
+			Long benefactorId = benefactors.get(nodeId);
+			Annotations annos = annotations.get(nodeId);
+			if (benefactorId == null || annos == null) {
+				// The node was deleted after it was loaded.
+				continue;
+			}
+			AccessControlList benefactorACL = benefactorAcls.computeIfAbsent(benefactorId,
+					id -> aclDAO.get(KeyFactory.keyToString(id), ObjectType.ENTITY));
+			documents.put(nodeId, formulateSearchDocument(node, annos, benefactorACL, wikiPagesText.get(nodeId)));
+		}
+		return documents;
+	}
+
+	/**
+	 * Get all wiki text for each of the given entities. The text of each entity
+	 * matches {@link #getAllWikiPageText(String)}.
+	 * 
+	 * @param nodeIds
+	 * @return Map from the entity id to its wiki text. Entities without wiki pages
+	 *         are excluded.
+	 */
+	Map<Long, String> getAllWikiPageText(List<Long> nodeIds) {
+		Map<Long, List<V2WikiMarkdownVersion>> wikiContent = wikiPageDao.getCurrentWikiContentForOwners(nodeIds,
+				ObjectType.ENTITY, WIKI_PAGE_LIMIT);
+		List<String> markdownFileHandleIds = wikiContent.values().stream().flatMap(List::stream)
+				.map(V2WikiMarkdownVersion::getMarkdownFileHandleId).collect(Collectors.toList());
+		Map<String, String> markdown;
+		try {
+			markdown = wikiMarkdownCache.loadMarkdown(markdownFileHandleIds);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		Map<Long, String> results = new HashMap<>(wikiContent.size());
+		for (Map.Entry<Long, List<V2WikiMarkdownVersion>> entry : wikiContent.entrySet()) {
+			String text = buildWikiPageText(entry.getValue(), markdown);
+			if (text != null) {
+				results.put(entry.getKey(), text);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Append the title and markdown of each page.
+	 * 
+	 * @param pages
+	 * @param markdown Map from the markdown file handle id to its markdown
+	 * @return null if the markdown of any page is missing.
+	 */
+	static String buildWikiPageText(List<V2WikiMarkdownVersion> pages, Map<String, String> markdown) {
+		StringBuilder builder = new StringBuilder();
+		for (V2WikiMarkdownVersion page : pages) {
+			if (page.getTitle() != null) {
+				builder.append("\n");
+				builder.append(page.getTitle());
+			}
+			String markdownString = markdown.get(page.getMarkdownFileHandleId());
+			if (markdownString == null) {
+				return null;
+			}
+			builder.append("\n");
+			builder.append(markdownString);
+		}
+		return builder.toString();
+	}
+
 	/**
 	 * Get all wiki text for an entity.
 	 * 
@@ -277,35 +377,10 @@ public class SearchDocumentDriverImpl implements SearchDocumentDriver {
 	 * @throws IOException 
 	 */
 	public String getAllWikiPageText(String nodeId) throws DatastoreException {
-		// Lookup all wiki pages for this node
-		try {
-			long limit = 100L;
-			long offset = 0L;
-			List<V2WikiHeader> wikiHeaders = wikiPageDao.getHeaderTree(nodeId,
-					ObjectType.ENTITY, limit, offset);
-			if (wikiHeaders == null)
-				return null;
-			// For each header get the wikipage
-			StringBuilder builder = new StringBuilder();
-			for (V2WikiHeader header : wikiHeaders) {
-				WikiPageKey key = WikiPageKeyHelper.createWikiPageKey(nodeId, ObjectType.ENTITY, header.getId());
-				V2WikiPage page = wikiPageDao.get(key, null);
-				// Append the title and markdown
-				if (page.getTitle() != null) {
-					builder.append("\n");
-					builder.append(page.getTitle());
-				}
-				String markdownString = wikiPageDao.getMarkdown(key, null);
-				builder.append("\n");
-				builder.append(markdownString);
-			}
-			return builder.toString();
-		} catch (IOException e){
-			throw new RuntimeException(e);
-		} catch (NotFoundException e) {
-			// There is no WikiPage for this node.
-			return null;
-		}
+		// The whole header tree is loaded at once and its markdown is read concurrently.
+		Long nodeKey = KeyFactory.stringToKey(nodeId);
+		// Null if there is no WikiPage for this node.
+		return getAllWikiPageText(Collections.singletonList(nodeKey)).get(nodeKey);
 	}
 
 	@Override
@@ -6,7 +6,6 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -18,7 +17,6 @@ import org.sagebionetworks.repo.model.search.Document;
 import org.sagebionetworks.repo.model.search.Hit;
 import org.sagebionetworks.repo.model.search.SearchResults;
 import org.sagebionetworks.repo.model.search.query.SearchQuery;
-import org.sagebionetworks.repo.web.NotFoundException;
 import org.sagebionetworks.search.CloudSearchLogger;
 import org.sagebionetworks.search.SearchConstants;
 import org.sagebionetworks.search.SearchDao;
@@ -28,10 +26,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import com.amazonaws.services.cloudsearchdomain.model.SearchRequest;
 import com.amazonaws.services.cloudsearchdomain.model.SearchResult;
 import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
 
 public class SearchManagerImpl implements SearchManager{
 	private static final Logger log = LogManager.getLogger(SearchManagerImpl.class.getName());
-
+	
+	/**
+	 * The number of change messages translated into documents at a time.
+	 */
+	public static final int DOCUMENT_BATCH_SIZE = 100;
 
 	@Autowired
 	SearchDocumentDriver searchDocumentDriver;
@@ -85,17 +88,22 @@ public class SearchManagerImpl implements SearchManager{
 	 * @param hits
 	 */
 	public void addPathDataToHits(List<Hit> hits) {
-		// For each hit we need to add the path
+		// The paths of all the hits are resolved at once
+		List<String> ids = new ArrayList<String>();
+		for (Hit hit : hits) {
+			ids.add(hit.getId());
+		}
+		Map<String, EntityPath> paths = searchDocumentDriver.getEntityPaths(ids);
 		List<Hit> toRemove = new LinkedList<>();
 		for(Hit hit: hits){
-			try {
-				EntityPath path = searchDocumentDriver.getEntityPath(hit.getId());
-				hit.setPath(path);
-			} catch (NotFoundException e) {
+			EntityPath path = paths.get(hit.getId());
+			if (path == null) {
 				// Add a warning and remove it from the hits
 				log.warn("Found a search document that did not exist in the repository: "+hit);
 				// We need to remove this from the hits
 				toRemove.add(hit);
+			} else {
+				hit.setPath(path);
 			}
 		}
 		hits.removeAll(toRemove);
@@ -143,9 +151,10 @@ public class SearchManagerImpl implements SearchManager{
 	@Override
 	public void documentChangeMessages(List<ChangeMessage> messages){
 		try {
-			Iterator<Document> documentIterator = Iterators.filter(
-					Iterators.transform(messages.iterator(), translator::generateSearchDocumentIfNecessary),
-					Objects::nonNull);
+			// Documents are built lazily, one batch of messages at a time, as they are consumed.
+			Iterator<Document> documentIterator = Iterators.concat(
+					Iterators.transform(Lists.partition(messages, DOCUMENT_BATCH_SIZE).iterator(),
+							batch -> translator.generateSearchDocuments(batch).iterator()));
 			searchDao.sendDocuments(documentIterator);
 		}finally {
 			recordLogger.pushAllRecordsAndReset();
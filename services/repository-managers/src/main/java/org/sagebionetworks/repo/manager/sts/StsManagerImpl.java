@@ -1,9 +1,15 @@
 package org.sagebionetworks.repo.manager.sts;
 
 import java.io.StringWriter;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.PostConstruct;
 
 import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
@@ -15,8 +21,15 @@ import org.sagebionetworks.repo.manager.ProjectSettingsManager;
 import org.sagebionetworks.repo.manager.entity.EntityAuthorizationManager;
 import org.sagebionetworks.repo.manager.file.FileHandleManager;
 import org.sagebionetworks.repo.model.ACCESS_TYPE;
+import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.file.FileHandle;
+import org.sagebionetworks.repo.model.jdo.KeyFactory;
+import org.sagebionetworks.repo.model.message.ChangeMessage;
+import org.sagebionetworks.repo.model.message.ChangeType;
+import org.sagebionetworks.repo.model.message.LocalStackMessage;
+import org.sagebionetworks.repo.model.message.TransactionalMessenger;
+import org.sagebionetworks.repo.model.message.TransactionalMessengerObserver;
 import org.sagebionetworks.repo.model.project.ProjectSetting;
 import org.sagebionetworks.repo.model.project.ProjectSettingsType;
 import org.sagebionetworks.repo.model.project.S3StorageLocationSetting;
@@ -26,6 +39,7 @@ import org.sagebionetworks.repo.model.project.UploadDestinationListSetting;
 import org.sagebionetworks.repo.model.sts.StsCredentials;
 import org.sagebionetworks.repo.model.sts.StsPermission;
 import org.sagebionetworks.upload.multipart.MultipartUtils;
+import org.sagebionetworks.util.Clock;
 import org.sagebionetworks.util.ValidateArgument;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -34,13 +48,31 @@ import com.amazonaws.services.securitytoken.AWSSecurityTokenService;
 import com.amazonaws.services.securitytoken.model.AssumeRoleRequest;
 import com.amazonaws.services.securitytoken.model.AssumeRoleResult;
 import com.amazonaws.services.securitytoken.model.Credentials;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
 import com.google.common.collect.ImmutableMap;
 
 @Component
-public class StsManagerImpl implements StsManager {
+public class StsManagerImpl implements StsManager, TransactionalMessengerObserver {
 	static final int DURATION_SECONDS = 12 * 60 * 60; // 12 hours
 	private static final String POLICY_TEMPLATE_FILENAME = "sts-policy-template.json.vtp";
 
+	// Bounds how long a change to the hierarchy or to a project setting made on another machine can go unnoticed.
+	static final Duration PROJECT_SETTING_CACHE_DURATION = Duration.ofSeconds(60);
+	static final long MAX_PROJECT_SETTING_CACHE_SIZE = 10_000;
+
+	// Credentials are re-used for the same user, entity and permission for at most this long, and only if they are still valid for at
+	// least the margin so that the callers always get credentials that last long enough for a transfer. The credentials are scoped
+	// to the storage location inherited by the entity, so they are not kept longer than the inherited setting.
+	static final Duration CREDENTIALS_CACHE_DURATION = PROJECT_SETTING_CACHE_DURATION;
+	static final Duration CREDENTIALS_EXPIRATION_MARGIN = Duration.ofHours(1);
+	static final long MAX_CREDENTIALS_CACHE_SIZE = 10_000;
+
+	// Storage locations cannot be modified, so the policy of a storage location and permission never changes.
+	static final long MAX_POLICY_CACHE_SIZE = 1_000;
+
 	// The AWS IAM policy string for the actions the user is allowed to do.
 	private static final Map<StsPermission, String> PERMISSION_TO_POLICY_ACTIONS =
 			ImmutableMap.<StsPermission, String>builder()
@@ -64,14 +96,54 @@ public class StsManagerImpl implements StsManager {
 	@Autowired
 	private AWSSecurityTokenService stsClient;
 
+	@Autowired
+	private TransactionalMessenger transactionalMessenger;
+
+	@Autowired
+	private Clock clock;
+
 	private final VelocityEngine velocityEngine;
 
+	private final Cache<CredentialsKey, StsCredentials> credentialsCache;
+
+	// The keys of the cached credentials, by entity id, so that the credentials of an entity can be invalidated without scanning the cache
+	private final ConcurrentMap<Long, Set<CredentialsKey>> credentialsKeysByEntity;
+
+	// The inherited upload setting of each entity, keyed by the entity id
+	private final Cache<Long, Optional<UploadDestinationListSetting>> projectSettingCache;
+
+	private final Cache<PolicyKey, String> policyCache;
+
 	/** Initializes the STS Manager. */
 	public StsManagerImpl() {
 		velocityEngine = new VelocityEngine();
 		velocityEngine.setProperty(RuntimeConstants.RESOURCE_LOADER, "classpath");
 		velocityEngine.setProperty("classpath.resource.loader.class", ClasspathResourceLoader.class.getName());
 		velocityEngine.setProperty("runtime.references.strict", true);
+		credentialsKeysByEntity = new ConcurrentHashMap<>();
+		credentialsCache = CacheBuilder.newBuilder()
+				.maximumSize(MAX_CREDENTIALS_CACHE_SIZE)
+				.expireAfterWrite(CREDENTIALS_CACHE_DURATION)
+				.removalListener(this::onCredentialsRemoval)
+				.build();
+		projectSettingCache = CacheBuilder.newBuilder()
+				.maximumSize(MAX_PROJECT_SETTING_CACHE_SIZE)
+				.expireAfterWrite(PROJECT_SETTING_CACHE_DURATION)
+				.build();
+		policyCache = CacheBuilder.newBuilder()
+				.maximumSize(MAX_POLICY_CACHE_SIZE)
+				.build();
+	}
+
+	/**
+	 * Registers the manager as an observer of the TransactionalMessenger, so that the cached settings are invalidated when a project
+	 * setting or an entity changes.
+	 */
+	@PostConstruct
+	public void initialize() {
+		// We only want to be in the list once
+		transactionalMessenger.removeObserver(this);
+		transactionalMessenger.registerObserver(this);
 	}
 
 	@Override
@@ -95,11 +167,22 @@ public class StsManagerImpl implements StsManager {
 		}
 		
 		// If the entity does not exist this will throw a not found (See https://sagebionetworks.jira.com/browse/PLFM-7604)
+		// Note that the access is checked even when the credentials are cached
 		authManager.hasAccess(userInfo, entityId, requiredAccessList).checkAuthorizationOrElseThrow();
 
+		CredentialsKey credentialsKey = new CredentialsKey(userInfo.getId(), KeyFactory.stringToKey(entityId), permission);
+
+		StsCredentials cachedCredentials = credentialsCache.getIfPresent(credentialsKey);
+
+		if (cachedCredentials != null) {
+			if (cachedCredentials.getExpiration().getTime() - clock.currentTimeMillis() > CREDENTIALS_EXPIRATION_MARGIN.toMillis()) {
+				return cachedCredentials;
+			}
+			credentialsCache.invalidate(credentialsKey);
+		}
+
 		// Entity must have an STS-enabled storage location.
-		Optional<UploadDestinationListSetting> projectSetting = projectSettingsManager.getProjectSettingForNode(
-				userInfo, entityId, ProjectSettingsType.upload, UploadDestinationListSetting.class);
+		Optional<UploadDestinationListSetting> projectSetting = getInheritedUploadSetting(userInfo, entityId);
 		
 		if (!projectSetting.isPresent() || !projectSettingsManager.isStsStorageLocationSetting(projectSetting.get())) {
 			throw new IllegalArgumentException("Entity must have an STS-enabled storage location");
@@ -131,18 +214,24 @@ public class StsManagerImpl implements StsManager {
 		}
 
 		// Generate policy doc.
-		String actions = PERMISSION_TO_POLICY_ACTIONS.get(permission);
-		VelocityContext context = new VelocityContext();
-		context.put("actions", actions);
-		context.put("bucket", bucket);
-		context.put("bucketWithFolder", bucketWithFolder);
-		context.put("folder", baseKey);
-		context.put("folderWithTrailingSlash", folderWithTrailingSlash);
-
-		Template template = velocityEngine.getTemplate(POLICY_TEMPLATE_FILENAME);
-		StringWriter writer = new StringWriter();
-		template.merge(context, writer);
-		String policy = writer.toString();
+		PolicyKey policyKey = new PolicyKey(storageLocationId, permission);
+		String policy = policyCache.getIfPresent(policyKey);
+		
+		if (policy == null) {
+			String actions = PERMISSION_TO_POLICY_ACTIONS.get(permission);
+			VelocityContext context = new VelocityContext();
+			context.put("actions", actions);
+			context.put("bucket", bucket);
+			context.put("bucketWithFolder", bucketWithFolder);
+			context.put("folder", baseKey);
+			context.put("folderWithTrailingSlash", folderWithTrailingSlash);
+	
+			Template template = velocityEngine.getTemplate(POLICY_TEMPLATE_FILENAME);
+			StringWriter writer = new StringWriter();
+			template.merge(context, writer);
+			policy = writer.toString();
+			policyCache.put(policyKey, policy);
+		}
 
 		// Call STS.
 		AssumeRoleRequest request = new AssumeRoleRequest();
@@ -164,9 +253,71 @@ public class StsManagerImpl implements StsManager {
 		stsCredentials.setSecretAccessKey(awsCredentials.getSecretAccessKey());
 		stsCredentials.setSessionToken(awsCredentials.getSessionToken());
 		stsCredentials.setExpiration(awsCredentials.getExpiration());
+		
+		// The key is indexed before the credentials are cached, so that an invalidation of the entity always finds it
+		credentialsKeysByEntity.computeIfAbsent(credentialsKey.entityId, (id) -> ConcurrentHashMap.newKeySet()).add(credentialsKey);
+		credentialsCache.put(credentialsKey, stsCredentials);
+		
 		return stsCredentials;
 	}
 
+	void onCredentialsRemoval(RemovalNotification<CredentialsKey, StsCredentials> notification) {
+		if (RemovalCause.REPLACED == notification.getCause()) {
+			// The key is still in the cache
+			return;
+		}
+		CredentialsKey key = notification.getKey();
+		// Drops the key from the index, and the entry of the entity once it has no more keys
+		credentialsKeysByEntity.computeIfPresent(key.entityId, (id, keys) -> {
+			keys.remove(key);
+			return keys.isEmpty() ? null : keys;
+		});
+	}
+
+	void invalidateCredentials(Long entityId) {
+		Set<CredentialsKey> keys = credentialsKeysByEntity.remove(entityId);
+		if (keys != null) {
+			credentialsCache.invalidateAll(keys);
+		}
+	}
+
+	int getCredentialsIndexSize() {
+		return credentialsKeysByEntity.size();
+	}
+
+	Optional<UploadDestinationListSetting> getInheritedUploadSetting(UserInfo userInfo, String entityId) {
+		Long entityKey = KeyFactory.stringToKey(entityId);
+		Optional<UploadDestinationListSetting> projectSetting = projectSettingCache.getIfPresent(entityKey);
+		if (projectSetting == null) {
+			projectSetting = projectSettingsManager.getProjectSettingForNode(userInfo, entityId, ProjectSettingsType.upload,
+					UploadDestinationListSetting.class);
+			projectSettingCache.put(entityKey, projectSetting);
+		}
+		return projectSetting;
+	}
+
+	@Override
+	public void fireChangeMessage(ChangeMessage message) {
+		if (ObjectType.PROJECT_SETTING == message.getObjectType()) {
+			// A project setting applies to the whole hierarchy under its container
+			projectSettingCache.invalidateAll();
+			credentialsCache.invalidateAll();
+			credentialsKeysByEntity.clear();
+		} else if (ObjectType.ENTITY == message.getObjectType()
+				&& (ChangeType.UPDATE == message.getChangeType() || ChangeType.DELETE == message.getChangeType())) {
+			// A moved entity might inherit a different setting, the settings and the credentials of the descendants of the entity are
+			// refreshed when their entries expire, within the same bound of a change made on another machine.
+			Long entityId = KeyFactory.stringToKey(message.getObjectId());
+			projectSettingCache.invalidate(entityId);
+			invalidateCredentials(entityId);
+		}
+	}
+
+	@Override
+	public void fireLocalStackMessage(LocalStackMessage message) {
+		// Nothing to do
+	}
+
 	@Override
 	public void validateCanAddFile(UserInfo userInfo, String fileHandleId, String parentId) {
 		// Is the file STS-enabled?
@@ -283,4 +434,62 @@ public class StsManagerImpl implements StsManager {
 			}
 		}
 	}
+
+	private static final class CredentialsKey {
+
+		private final Long userId;
+		private final Long entityId;
+		private final StsPermission permission;
+
+		CredentialsKey(Long userId, Long entityId, StsPermission permission) {
+			this.userId = userId;
+			this.entityId = entityId;
+			this.permission = permission;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(entityId, permission, userId);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof CredentialsKey)) {
+				return false;
+			}
+			CredentialsKey other = (CredentialsKey) obj;
+			return Objects.equals(entityId, other.entityId) && permission == other.permission && Objects.equals(userId, other.userId);
+		}
+	}
+
+	private static final class PolicyKey {
+
+		private final long storageLocationId;
+		private final StsPermission permission;
+
+		PolicyKey(long storageLocationId, StsPermission permission) {
+			this.storageLocationId = storageLocationId;
+			this.permission = permission;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(permission, storageLocationId);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof PolicyKey)) {
+				return false;
+			}
+			PolicyKey other = (PolicyKey) obj;
+			return permission == other.permission && storageLocationId == other.storageLocationId;
+		}
+	}
 }
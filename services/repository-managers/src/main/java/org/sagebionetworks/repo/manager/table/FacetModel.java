@@ -1,24 +1,32 @@
 package org.sagebionetworks.repo.manager.table;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
 import org.sagebionetworks.repo.model.table.ColumnModel;
+import org.sagebionetworks.repo.model.table.ColumnType;
 import org.sagebionetworks.repo.model.table.FacetColumnRangeRequest;
 import org.sagebionetworks.repo.model.table.FacetColumnRequest;
 import org.sagebionetworks.repo.model.table.FacetColumnValuesRequest;
+import org.sagebionetworks.repo.model.table.FacetType;
 import org.sagebionetworks.repo.model.table.JsonSubColumnModel;
+import org.sagebionetworks.table.cluster.QueryTranslator;
+import org.sagebionetworks.table.cluster.TranslatedQuery;
 import org.sagebionetworks.table.cluster.TranslationDependencies;
 import org.sagebionetworks.table.query.ParseException;
 import org.sagebionetworks.table.query.TableQueryParser;
 import org.sagebionetworks.table.query.model.QueryExpression;
 import org.sagebionetworks.table.query.model.TableName;
 import org.sagebionetworks.table.query.util.FacetRequestColumnModel;
+import org.sagebionetworks.table.query.util.FacetUtils;
 import org.sagebionetworks.util.ValidateArgument;
 
 /**
@@ -135,22 +143,30 @@ public class FacetModel {
 		return result;
 	}
 	
+	/**
+	 * Creates a transformer for each facet in the given list. The range facets
+	 * that are filtered by the same search condition (e.g. all the range facets
+	 * without a selection of their own) share a single query, so that their
+	 * minimum and maximum values are computed with a single scan of the table.
+	 * <p>
+	 * The value count facets that are filtered by the same search condition and
+	 * that have values of the same type share a single query as well, each facet
+	 * keeps its own GROUP BY and the queries are combined with a UNION ALL (see
+	 * {@link #shareValueCountsQueries(List, List)}).
+	 */
 	static List<FacetTransformer> generateFacetQueryTransformers(QueryExpression originalQuery, TranslationDependencies dependencies, List<FacetRequestColumnModel> validatedFacets){
 		ValidateArgument.required(originalQuery, "originalQuery");
 		ValidateArgument.required(dependencies, "dependencies");
 		ValidateArgument.required(validatedFacets, "validatedFacets");
 		
+		Map<FacetRequestColumnModel, List<FacetRequestColumnModel>> sharedRangeFacets = groupRangeFacetsBySearchCondition(validatedFacets);
+		Map<List<FacetRequestColumnModel>, QueryTranslator> sharedRangeQueries = new IdentityHashMap<>();
+		
 		List<FacetTransformer> transformersList = new ArrayList<>(validatedFacets.size());
 		for(FacetRequestColumnModel facet: validatedFacets) {
-			QueryExpression queryClone = cloneQuery(originalQuery);
 			switch(facet.getFacetType()) {
 				case enumeration:
-					Set<String> selectedValues = null;
-					FacetColumnValuesRequest facetValuesRequest = (FacetColumnValuesRequest) facet.getFacetColumnRequest();
-					if ( facetValuesRequest != null){
-						selectedValues = facetValuesRequest.getFacetValues();
-					}
-					transformersList.add(new FacetTransformerValueCounts(facet.getColumnName(), facet.getJsonPath(), facet.getJsonPathType(), facet.isColumnTypeIsList(), validatedFacets, queryClone , dependencies, selectedValues));
+					transformersList.add(new FacetTransformerValueCounts(facet.getColumnName(), facet.getJsonPath(), facet.getJsonPathType(), facet.isColumnTypeIsList(), validatedFacets, cloneQuery(originalQuery), dependencies, getSelectedValues(facet)));
 					break;
 				case range:
 					String selectedMin = null;
@@ -160,15 +176,98 @@ public class FacetModel {
 						selectedMin = facetRangeRequest.getMin();
 						selectedMax = facetRangeRequest.getMax();
 					}
-					transformersList.add(new FacetTransformerRange(facet.getColumnName(), facet.getJsonPath(), facet.getJsonPathType(), validatedFacets, queryClone, dependencies, selectedMin, selectedMax ));
+					List<FacetRequestColumnModel> group = sharedRangeFacets.get(facet);
+					if (group.size() == 1) {
+						transformersList.add(new FacetTransformerRange(facet.getColumnName(), facet.getJsonPath(), facet.getJsonPathType(), validatedFacets, cloneQuery(originalQuery), dependencies, selectedMin, selectedMax ));
+					} else {
+						QueryTranslator sharedQuery = sharedRangeQueries.computeIfAbsent(group,
+								k -> FacetTransformerRange.generateSharedFacetSqlQuery(group, validatedFacets, cloneQuery(originalQuery), dependencies));
+						transformersList.add(new FacetTransformerRange(facet, validatedFacets, sharedQuery, group.indexOf(facet), selectedMin, selectedMax));
+					}
 					break;
 				default:
 					throw new RuntimeException("Found unexpected FacetType");
 			}
 		}
+		shareValueCountsQueries(validatedFacets, transformersList);
 		return transformersList;
 	}
 	
+	/**
+	 * Replaces the transformers of the value count facets that are computed on
+	 * the same rows (the facets that have the same search condition once their
+	 * own column is excluded) with transformers that share a single UNION ALL
+	 * query, so that their counts are computed with one round trip to the
+	 * database. Since the values of the shared query are read with a single type
+	 * only the facets with values of the same type are grouped.
+	 * 
+	 * @param validatedFacets
+	 * @param transformersList The transformers of the given facets, in the same
+	 *                         order
+	 */
+	static void shareValueCountsQueries(List<FacetRequestColumnModel> validatedFacets, List<FacetTransformer> transformersList) {
+		Map<List<Object>, List<Integer>> groups = new LinkedHashMap<>();
+		for (int i = 0; i < validatedFacets.size(); i++) {
+			FacetRequestColumnModel facet = validatedFacets.get(i);
+			if (!FacetType.enumeration.equals(facet.getFacetType())) {
+				continue;
+			}
+			String columnNameExpression = FacetUtils.getColumnNameExpression(facet.getColumnName(), facet.getJsonPath(), facet.getJsonPathType());
+			// A null search condition means that the facet is computed on all the rows of the query
+			String searchCondition = String.valueOf(FacetUtils.concatFacetSearchConditionStrings(validatedFacets, columnNameExpression));
+			ColumnType valueType = transformersList.get(i).getFacetSqlQuery().getSelectColumns().get(0).getColumnType();
+			groups.computeIfAbsent(Arrays.asList(searchCondition, valueType), k -> new ArrayList<>()).add(i);
+		}
+		for (List<Integer> group : groups.values()) {
+			if (group.size() < 2) {
+				continue;
+			}
+			List<TranslatedQuery> facetSqlQueries = new ArrayList<>(group.size());
+			group.forEach(i -> facetSqlQueries.add(transformersList.get(i).getFacetSqlQuery()));
+			TranslatedQuery sharedQuery = FacetTransformerValueCounts.generateSharedFacetSqlQuery(facetSqlQueries);
+			for (int index = 0; index < group.size(); index++) {
+				FacetRequestColumnModel facet = validatedFacets.get(group.get(index));
+				transformersList.set(group.get(index), new FacetTransformerValueCounts(facet, validatedFacets, sharedQuery, index, getSelectedValues(facet)));
+			}
+		}
+	}
+	
+	private static Set<String> getSelectedValues(FacetRequestColumnModel facet) {
+		FacetColumnValuesRequest facetValuesRequest = (FacetColumnValuesRequest) facet.getFacetColumnRequest();
+		if (facetValuesRequest == null) {
+			return null;
+		}
+		return facetValuesRequest.getFacetValues();
+	}
+	
+	/**
+	 * Groups the range facets in the given list that are computed on the same
+	 * rows, that is the facets that have the same search condition once their own
+	 * column is excluded from the search conditions of all the facets. The value
+	 * count facets are grouped separately (see
+	 * {@link #shareValueCountsQueries(List, List)}).
+	 * 
+	 * @param validatedFacets
+	 * @return Maps each range facet to the facets of its group (including itself)
+	 *         in the order of the given list
+	 */
+	static Map<FacetRequestColumnModel, List<FacetRequestColumnModel>> groupRangeFacetsBySearchCondition(List<FacetRequestColumnModel> validatedFacets) {
+		Map<String, List<FacetRequestColumnModel>> groups = new HashMap<>();
+		Map<FacetRequestColumnModel, List<FacetRequestColumnModel>> result = new IdentityHashMap<>();
+		for (FacetRequestColumnModel facet : validatedFacets) {
+			if (!FacetType.range.equals(facet.getFacetType())) {
+				continue;
+			}
+			String columnNameExpression = FacetUtils.getColumnNameExpression(facet.getColumnName(), facet.getJsonPath(), facet.getJsonPathType());
+			// A null search condition means that the facet is computed on all the rows of the query
+			String searchCondition = String.valueOf(FacetUtils.concatFacetSearchConditionStrings(validatedFacets, columnNameExpression));
+			List<FacetRequestColumnModel> group = groups.computeIfAbsent(searchCondition, k -> new ArrayList<>());
+			group.add(facet);
+			result.put(facet, group);
+		}
+		return result;
+	}
+	
 	private static String getColumnNameKey(String columnName, String jsonPath) {
 		if (jsonPath == null) {
 			return columnName;
@@ -2,7 +2,7 @@ package org.sagebionetworks.repo.manager.table;
 
 import org.sagebionetworks.repo.model.table.FacetColumnResult;
 import org.sagebionetworks.repo.model.table.RowSet;
-import org.sagebionetworks.table.cluster.QueryTranslator;
+import org.sagebionetworks.table.cluster.TranslatedQuery;
 
 /**
  * An interface for classes that generates SQL necessary to obtain facet information and converts the SQL result from that query to a FacetColumnResult
@@ -22,7 +22,7 @@ public interface FacetTransformer {
 	 * @param originalQuery
 	 * @return
 	 */
-	public QueryTranslator getFacetSqlQuery();
+	public TranslatedQuery getFacetSqlQuery();
 	
 	/**
 	 * translates the result obtained after running the query generated by generateSqlQuery()
@@ -1,6 +1,7 @@
 package org.sagebionetworks.repo.manager.table;
 
 import java.util.List;
+import java.util.Objects;
 
 import org.sagebionetworks.repo.model.table.ColumnType;
 import org.sagebionetworks.repo.model.table.FacetColumnResult;
@@ -33,6 +34,8 @@ public class FacetTransformerRange implements FacetTransformer {
 	private List<FacetRequestColumnModel> facets;
 	private String selectedMin;
 	private String selectedMax;
+	private String minAlias;
+	private String maxAlias;
 	
 	private QueryTranslator generatedFacetSqlQuery;
 	
@@ -46,8 +49,37 @@ public class FacetTransformerRange implements FacetTransformer {
 		this.facets = facets;
 		this.selectedMin = selectedMin;
 		this.selectedMax = selectedMax;
+		this.minAlias = MIN_ALIAS;
+		this.maxAlias = MAX_ALIAS;
 		this.generatedFacetSqlQuery = generateFacetSqlQuery(originalQuery, dependencies);
 	}
+
+	/**
+	 * Constructor for a range facet that is computed by a query shared with other
+	 * range facets, see
+	 * {@link #generateSharedFacetSqlQuery(List, List, QueryExpression, TranslationDependencies)}
+	 *
+	 * @param facet               The range facet
+	 * @param facets
+	 * @param sharedFacetSqlQuery The query shared by the range facets
+	 * @param index               The index of the facet in the shared query
+	 * @param selectedMin
+	 * @param selectedMax
+	 */
+	public FacetTransformerRange(FacetRequestColumnModel facet, List<FacetRequestColumnModel> facets, QueryTranslator sharedFacetSqlQuery, int index, String selectedMin, String selectedMax){
+		ValidateArgument.required(facet, "facet");
+		ValidateArgument.required(facets, "facets");
+		ValidateArgument.required(sharedFacetSqlQuery, "sharedFacetSqlQuery");
+		this.columnName = facet.getColumnName();
+		this.jsonPath = facet.getJsonPath();
+		this.jsonPathType = facet.getJsonPathType();
+		this.facets = facets;
+		this.selectedMin = selectedMin;
+		this.selectedMax = selectedMax;
+		this.minAlias = getMinAlias(index);
+		this.maxAlias = getMaxAlias(index);
+		this.generatedFacetSqlQuery = sharedFacetSqlQuery;
+	}
 	
 	@Override
 	public String getColumnName() {
@@ -67,21 +99,90 @@ public class FacetTransformerRange implements FacetTransformer {
 		
 		String columnNameExpression = FacetUtils.getColumnNameExpression(columnName, jsonPath, jsonPathType);
 		
-		NonJoinQueryExpression njqe = originalQuery.getNonJoinQueryExpression();
+		StringBuilder selectList = new StringBuilder();
+		appendMinAndMax(selectList, columnNameExpression, MIN_ALIAS, MAX_ALIAS);
 		
-		StringBuilder builder = new StringBuilder("SELECT MIN(");
+		String facetSearchConditionString = FacetUtils.concatFacetSearchConditionStrings(facets, columnNameExpression);
+
+		return generateFacetSqlQuery(originalQuery, dependencies, selectList.toString(), facetSearchConditionString);
+	}
+
+	/**
+	 * Creates a single SQL query that finds the minimum and maximum values of
+	 * multiple faceted columns in one scan of the table. The minimum and maximum
+	 * of the facet at index i are selected as {@link #getMinAlias(int)} and
+	 * {@link #getMaxAlias(int)}. All the given range facets must have the same
+	 * search condition once their own column is excluded from the facets (see
+	 * {@link FacetUtils#concatFacetSearchConditionStrings(List, String)}), so
+	 * that each facet is computed on the same rows as its own query would.
+	 *
+	 * @param rangeFacets The range facets to compute
+	 * @param facets      All the facets of the query
+	 * @param originalQuery
+	 * @param dependencies
+	 * @return
+	 */
+	public static QueryTranslator generateSharedFacetSqlQuery(List<FacetRequestColumnModel> rangeFacets, List<FacetRequestColumnModel> facets, QueryExpression originalQuery, TranslationDependencies dependencies) {
+		ValidateArgument.requiredNotEmpty(rangeFacets, "rangeFacets");
+		ValidateArgument.required(facets, "facets");
+		ValidateArgument.required(originalQuery, "originalQuery");
+
+		StringBuilder selectList = new StringBuilder();
+		String facetSearchConditionString = null;
+
+		for (int i = 0; i < rangeFacets.size(); i++) {
+			FacetRequestColumnModel facet = rangeFacets.get(i);
+			ValidateArgument.requirement(FacetType.range.equals(facet.getFacetType()), "Expected only range facets.");
+			String columnNameExpression = FacetUtils.getColumnNameExpression(facet.getColumnName(), facet.getJsonPath(), facet.getJsonPathType());
+			String searchCondition = FacetUtils.concatFacetSearchConditionStrings(facets, columnNameExpression);
+			if (i == 0) {
+				facetSearchConditionString = searchCondition;
+			} else {
+				ValidateArgument.requirement(Objects.equals(facetSearchConditionString, searchCondition), "All the range facets must have the same search condition.");
+				selectList.append(", ");
+			}
+			appendMinAndMax(selectList, columnNameExpression, getMinAlias(i), getMaxAlias(i));
+		}
+
+		return generateFacetSqlQuery(originalQuery, dependencies, selectList.toString(), facetSearchConditionString);
+	}
+
+	/**
+	 * @param index
+	 * @return The alias of the minimum of the facet at the given index of a shared query
+	 */
+	public static String getMinAlias(int index) {
+		return MIN_ALIAS + "_" + index;
+	}
+
+	/**
+	 * @param index
+	 * @return The alias of the maximum of the facet at the given index of a shared query
+	 */
+	public static String getMaxAlias(int index) {
+		return MAX_ALIAS + "_" + index;
+	}
+
+	private static void appendMinAndMax(StringBuilder builder, String columnNameExpression, String minAlias, String maxAlias) {
+		builder.append("MIN(");
 		builder.append(columnNameExpression);
 		builder.append(") as ");
-		builder.append(MIN_ALIAS);
+		builder.append(minAlias);
 		builder.append(", MAX(");
 		builder.append(columnNameExpression);
 		builder.append(") as ");
-		builder.append(MAX_ALIAS);
+		builder.append(maxAlias);
+	}
+
+	private static QueryTranslator generateFacetSqlQuery(QueryExpression originalQuery, TranslationDependencies dependencies, String selectList, String facetSearchConditionString) {
+
+		NonJoinQueryExpression njqe = originalQuery.getNonJoinQueryExpression();
+
+		StringBuilder builder = new StringBuilder("SELECT ");
+		builder.append(selectList);
 		builder.append(" ");
 		builder.append(njqe.getFirstElementOfType(FromClause.class).toSql());
 		
-		String facetSearchConditionString = FacetUtils.concatFacetSearchConditionStrings(facets, columnNameExpression);
-		
 		SqlElementUtils.appendCombinedWhereClauseToStringBuilder(builder, facetSearchConditionString, njqe.getFirstElementOfType(WhereClause.class));
 		SqlElementUtils.appendDefiningClause(builder, njqe.getFirstElementOfType(DefiningClause.class));
 
@@ -99,8 +200,10 @@ public class FacetTransformerRange implements FacetTransformer {
 	public FacetColumnResult translateToResult(RowSet rowSet) {
 		ValidateArgument.required(rowSet, "rowSet");
 		List<SelectColumn> headers = rowSet.getHeaders();
+		int minIndex = indexOf(headers, minAlias);
+		int maxIndex = indexOf(headers, maxAlias);
 		//check for expected headers
-		if(headers.size() != 2 || !headers.get(0).getName().equals(MIN_ALIAS) || !headers.get(1).getName().equals(MAX_ALIAS)){
+		if(minIndex < 0 || maxIndex < 0 || (MIN_ALIAS.equals(minAlias) && headers.size() != 2)){
 			throw new IllegalArgumentException("The RowSet's headers did not contain the expected column names");
 		}
 		
@@ -117,12 +220,21 @@ public class FacetTransformerRange implements FacetTransformer {
 		result.setJsonPath(this.jsonPath);
 		result.setFacetType(FacetType.range);
 		List<String> values =  row.getValues();
-		result.setColumnMin(values.get(0));
-		result.setColumnMax(values.get(1));
+		result.setColumnMin(values.get(minIndex));
+		result.setColumnMax(values.get(maxIndex));
 		result.setSelectedMin(this.selectedMin);
 		result.setSelectedMax(this.selectedMax);
 		
 		return result;
 	}
 
+	private static int indexOf(List<SelectColumn> headers, String alias) {
+		for (int i = 0; i < headers.size(); i++) {
+			if (alias.equals(headers.get(i).getName())) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
 }
@@ -3,8 +3,12 @@ package org.sagebionetworks.repo.manager.table;
 import static org.sagebionetworks.repo.model.table.TableConstants.NULL_VALUE_KEYWORD;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.sagebionetworks.repo.model.table.ColumnType;
 import org.sagebionetworks.repo.model.table.FacetColumnResult;
@@ -14,7 +18,9 @@ import org.sagebionetworks.repo.model.table.FacetType;
 import org.sagebionetworks.repo.model.table.Row;
 import org.sagebionetworks.repo.model.table.RowSet;
 import org.sagebionetworks.repo.model.table.SelectColumn;
+import org.sagebionetworks.table.cluster.CachedQueryRequest;
 import org.sagebionetworks.table.cluster.QueryTranslator;
+import org.sagebionetworks.table.cluster.TranslatedQuery;
 import org.sagebionetworks.table.cluster.TranslationDependencies;
 import org.sagebionetworks.table.query.ParseException;
 import org.sagebionetworks.table.query.TableQueryParser;
@@ -32,15 +38,18 @@ import org.sagebionetworks.util.ValidateArgument;
 public class FacetTransformerValueCounts implements FacetTransformer {
 	public static final String VALUE_ALIAS = "value";
 	public static final String COUNT_ALIAS = "frequency";
+	public static final String FACET_INDEX_ALIAS = "facetIndex";
 	public static final long MAX_NUM_FACET_CATEGORIES = 100;
 	
+	private static final Pattern PARAMETER_PATTERN = Pattern.compile(":(\\w+)");
 	
 	private String columnName;
 	private String jsonPath;
 	private ColumnType jsonPathType;
 	private List<FacetRequestColumnModel> facets;
 	
-	private QueryTranslator generatedFacetSqlQuery;
+	private TranslatedQuery generatedFacetSqlQuery;
+	private Integer facetIndex;
 	private Set<String> selectedValues;
 	
 	public FacetTransformerValueCounts(String columnName, String jsonPath, ColumnType jsonPathType, boolean columnTypeIsList, List<FacetRequestColumnModel> facets,
@@ -56,6 +65,28 @@ public class FacetTransformerValueCounts implements FacetTransformer {
 		this.generatedFacetSqlQuery = generateFacetSqlQuery(originalQuery, dependencies, columnTypeIsList);
 	}
 	
+	/**
+	 * Constructor for a value count facet that is computed by a query shared
+	 * with other value count facets, see {@link #generateSharedFacetSqlQuery(List)}
+	 * 
+	 * @param facet               The value count facet
+	 * @param facets
+	 * @param sharedFacetSqlQuery The query shared by the value count facets
+	 * @param index               The index of the facet in the shared query
+	 * @param selectedValues
+	 */
+	public FacetTransformerValueCounts(FacetRequestColumnModel facet, List<FacetRequestColumnModel> facets, TranslatedQuery sharedFacetSqlQuery, int index, Set<String> selectedValues){
+		ValidateArgument.required(facet, "facet");
+		ValidateArgument.required(facets, "facets");
+		ValidateArgument.required(sharedFacetSqlQuery, "sharedFacetSqlQuery");
+		this.columnName = facet.getColumnName();
+		this.jsonPath = facet.getJsonPath();
+		this.jsonPathType = facet.getJsonPathType();
+		this.facets = facets;
+		this.selectedValues = selectedValues;
+		this.facetIndex = index;
+		this.generatedFacetSqlQuery = sharedFacetSqlQuery;
+	}
 	
 	@Override
 	public String getColumnName() {
@@ -63,10 +94,82 @@ public class FacetTransformerValueCounts implements FacetTransformer {
 	}
 
 	@Override
-	public QueryTranslator getFacetSqlQuery(){
+	public TranslatedQuery getFacetSqlQuery(){
 		return this.generatedFacetSqlQuery;
 	}
 	
+	/**
+	 * Combines the queries of multiple value count facets into a single query,
+	 * so that the counts of all the facets are computed with one round trip to
+	 * the database. Each query is kept as it is (including its own GROUP BY and
+	 * LIMIT) and the queries are combined with a UNION ALL, each row of the
+	 * result has the index of its facet in the {@link #FACET_INDEX_ALIAS}
+	 * column. The values of all the facets are read with the type of the first
+	 * query, all the given queries must select values of the same type.
+	 * 
+	 * @param facetSqlQueries The translated queries of the value count facets,
+	 *                        see {@link #getFacetSqlQuery()}
+	 * @return
+	 */
+	public static TranslatedQuery generateSharedFacetSqlQuery(List<? extends TranslatedQuery> facetSqlQueries) {
+		ValidateArgument.requiredNotEmpty(facetSqlQueries, "facetSqlQueries");
+		
+		TranslatedQuery firstQuery = facetSqlQueries.get(0);
+		ColumnType valueType = firstQuery.getSelectColumns().get(0).getColumnType();
+		
+		StringBuilder builder = new StringBuilder();
+		Map<String, Object> parameters = new LinkedHashMap<>();
+		
+		for (int i = 0; i < facetSqlQueries.size(); i++) {
+			TranslatedQuery query = facetSqlQueries.get(i);
+			ValidateArgument.requirement(valueType == query.getSelectColumns().get(0).getColumnType(), "All the value count facets must have the same type.");
+			if (i > 0) {
+				builder.append(" UNION ALL ");
+			}
+			// The parameters of each query are prefixed with the index of the query so that they do not clash
+			String facetSql = prefixParameters(query.getOutputSQL(), query.getParameters(), "f" + i + "_", parameters);
+			builder.append("SELECT ").append(i).append(" AS ").append(FACET_INDEX_ALIAS);
+			builder.append(", ").append(VALUE_ALIAS).append(", ").append(COUNT_ALIAS);
+			builder.append(" FROM (").append(facetSql).append(") F").append(i);
+		}
+		
+		builder.append(" ORDER BY ").append(FACET_INDEX_ALIAS).append(", ").append(COUNT_ALIAS).append(" DESC, ").append(VALUE_ALIAS).append(" ASC");
+		
+		List<SelectColumn> selectColumns = new ArrayList<>(3);
+		selectColumns.add(new SelectColumn().setName(FACET_INDEX_ALIAS).setColumnType(ColumnType.INTEGER));
+		selectColumns.addAll(firstQuery.getSelectColumns());
+		
+		return new CachedQueryRequest()
+				.setOutputSQL(builder.toString())
+				.setParameters(parameters)
+				.setSelectColumns(selectColumns)
+				.setSingleTableId(firstQuery.getSingleTableId())
+				.setTableHash(firstQuery.getTableHash());
+	}
+	
+	/**
+	 * Prefixes the parameters of the given translated SQL with the given prefix,
+	 * adding their values to the given map of renamed parameters.
+	 * 
+	 * @param sql
+	 * @param parameters
+	 * @param prefix
+	 * @param renamedParameters
+	 * @return
+	 */
+	static String prefixParameters(String sql, Map<String, ?> parameters, String prefix, Map<String, Object> renamedParameters) {
+		Matcher matcher = PARAMETER_PATTERN.matcher(sql);
+		StringBuffer builder = new StringBuffer(sql.length());
+		while (matcher.find()) {
+			if (parameters.containsKey(matcher.group(1))) {
+				matcher.appendReplacement(builder, ":" + prefix + matcher.group(1));
+			}
+		}
+		matcher.appendTail(builder);
+		parameters.forEach((name, value) -> renamedParameters.put(prefix + name, value));
+		return builder.toString();
+	}
+	
 	private QueryTranslator generateFacetSqlQuery(QueryExpression originalQuery, TranslationDependencies dependencies, boolean columnTypeIsList) {
 		String columnNameExpression = FacetUtils.getColumnNameExpression(columnName, jsonPath, jsonPathType);
 		
@@ -112,15 +215,22 @@ public class FacetTransformerValueCounts implements FacetTransformer {
 		ValidateArgument.required(rowSet, "rowSet");
 		
 		List<SelectColumn> headers = rowSet.getHeaders();
+		// The rows of a shared query start with the index of their facet
+		int offset = facetIndex == null ? 0 : 1;
 		//check for expected headers
-		if(headers.size() != 2 || !headers.get(0).getName().equals(VALUE_ALIAS) || !headers.get(1).getName().equals(COUNT_ALIAS)){
+		if(headers.size() != offset + 2 || (offset > 0 && !headers.get(0).getName().equals(FACET_INDEX_ALIAS))
+				|| !headers.get(offset).getName().equals(VALUE_ALIAS) || !headers.get(offset + 1).getName().equals(COUNT_ALIAS)){
 			throw new IllegalArgumentException("The RowSet's headers did not contain the expected column names" + headers);
 		}
 		
 		List<FacetColumnResultValueCount> valueCounts = new ArrayList<>();
 		for(Row row : rowSet.getRows()){
 			List<String> rowValues  = row.getValues();
-			String value = rowValues.get(0);
+			if(offset > 0 && !facetIndex.toString().equals(rowValues.get(0))){
+				// The row of another facet
+				continue;
+			}
+			String value = rowValues.get(offset);
 			if(value == null){
 				//for counts of unset values
 				value = NULL_VALUE_KEYWORD;
@@ -128,7 +238,7 @@ public class FacetTransformerValueCounts implements FacetTransformer {
 			FacetColumnResultValueCount valCount = new FacetColumnResultValueCount();
 			valCount.setValue(value);
 			valCount.setIsSelected(selectedValues != null && selectedValues.contains(value));
-			valCount.setCount(Long.parseLong(rowValues.get(1)));
+			valCount.setCount(Long.parseLong(rowValues.get(offset + 1)));
 			valueCounts.add(valCount);
 		}
 		
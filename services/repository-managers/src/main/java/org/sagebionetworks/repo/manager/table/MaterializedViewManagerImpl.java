@@ -1,7 +1,12 @@
 package org.sagebionetworks.repo.manager.table;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -15,6 +20,7 @@ import org.sagebionetworks.repo.model.semaphore.LockContext;
 import org.sagebionetworks.repo.model.semaphore.LockContext.ContextType;
 import org.sagebionetworks.repo.model.table.ColumnModel;
 import org.sagebionetworks.repo.model.table.MaterializedView;
+import org.sagebionetworks.repo.model.table.TableConstants;
 import org.sagebionetworks.repo.model.table.TableState;
 import org.sagebionetworks.repo.model.table.TableStatus;
 import org.sagebionetworks.repo.model.table.TableUnavailableException;
@@ -23,8 +29,14 @@ import org.sagebionetworks.table.cluster.QueryTranslator;
 import org.sagebionetworks.table.cluster.description.IndexDescription;
 import org.sagebionetworks.table.cluster.description.MaterializedViewIndexDescription;
 import org.sagebionetworks.table.cluster.utils.TableModelUtils;
+import org.sagebionetworks.table.query.ParseException;
+import org.sagebionetworks.table.query.TableQueryParser;
 import org.sagebionetworks.table.query.model.QueryExpression;
+import org.sagebionetworks.table.query.model.QuerySpecification;
 import org.sagebionetworks.table.query.model.SqlContext;
+import org.sagebionetworks.table.query.model.TableExpression;
+import org.sagebionetworks.table.query.model.TableNameCorrelation;
+import org.sagebionetworks.table.query.util.SqlElementUtils;
 import org.sagebionetworks.util.PaginationIterator;
 import org.sagebionetworks.util.ValidateArgument;
 import org.sagebionetworks.util.progress.ProgressCallback;
@@ -34,6 +46,8 @@ import org.sagebionetworks.workers.util.semaphore.LockUnavilableException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.google.common.collect.Iterables;
+
 
 @Service
 public class MaterializedViewManagerImpl implements MaterializedViewManager {
@@ -42,6 +56,12 @@ public class MaterializedViewManagerImpl implements MaterializedViewManager {
 	
 	private static final long PAGE_SIZE_LIMIT = 1000;
 	
+	// The maximum number of changed source rows that are applied incrementally to a view, beyond this the view is rebuilt
+	static final int MAX_INCREMENTAL_ROW_CHANGES = 50_000;
+	
+	// The number of source row ids applied to a view in a single statement
+	static final int SOURCE_ROW_IDS_BATCH_SIZE = 1000;
+	
 	public static final String DEFAULT_ETAG = "DEFAULT";
 	
 	final private ColumnModelManager columModelManager;
@@ -49,17 +69,20 @@ public class MaterializedViewManagerImpl implements MaterializedViewManager {
 	final private TableIndexConnectionFactory connectionFactory;
 	final private MaterializedViewDao materializedViewDao;
 	final private NodeDAO nodeDao;
+	final private TableEntityManager tableEntityManager;
 
 	@Autowired
 	public MaterializedViewManagerImpl(ColumnModelManager columModelManager, 
 			TableManagerSupport tableManagerSupport, 
 			TableIndexConnectionFactory connectionFactory,
-			MaterializedViewDao materializedViewDa, NodeDAO nodeDAO) {
+			MaterializedViewDao materializedViewDa, NodeDAO nodeDAO,
+			TableEntityManager tableEntityManager) {
 		this.columModelManager = columModelManager;
 		this.tableManagerSupport = tableManagerSupport;
 		this.connectionFactory = connectionFactory;
 		this.materializedViewDao = materializedViewDa;
 		this.nodeDao = nodeDAO;
+		this.tableEntityManager = tableEntityManager;
 	}
 
 	@Override
@@ -261,7 +284,7 @@ public class MaterializedViewManagerImpl implements MaterializedViewManager {
 		try {
 			IndexDescription currentIndex = tableManagerSupport.getIndexDescription(idAndVersion);
 			// Note: The dependencies must match the current index dependencies, if that was not true then the view would be rebuilt from scratch
-			IndexDescription temporaryIndex = new MaterializedViewIndexDescription(temporaryId, currentIndex.getDependencies());
+			IndexDescription temporaryIndex = new MaterializedViewIndexDescription(temporaryId, currentIndex.getDependencies(), !currentIndex.getSourceRowIdColumnNames().isEmpty());
 			
 			String definingSql = nodeDao.getDefiningSql(idAndVersion)
 				.orElseThrow(() -> new IllegalArgumentException("No defining SQL for: " + idAndVersion.toString()));
@@ -294,6 +317,13 @@ public class MaterializedViewManagerImpl implements MaterializedViewManager {
 					return true;
 				}
 				
+				// When possible only the changed rows of the dependencies are applied to the current index
+				if (updateViewIndexIncrementallyHoldingAllDependentReadLocks(indexManager, currentIndex, definingSql, schema, isSearchEnabled)) {
+					LOG.info("Materialized view " + idAndVersion + " index updated incrementally.");
+					tableManagerSupport.updateChangedOnIfAvailable(idAndVersion);
+					return true;
+				}
+				
 				createOrRebuildViewHoldingWriteLockAndAllDependentReadLocks(sqlQuery, schema, isSearchEnabled);
 
 				return false;
@@ -331,6 +361,113 @@ public class MaterializedViewManagerImpl implements MaterializedViewManager {
 		}
 	}
 	
+	/**
+	 * Attempts to bring the index of an AVAILABLE materialized view up to date applying only the rows of its dependencies that changed
+	 * since the index was last built or updated: the rows of the view built from the changed rows are replaced by the results of the
+	 * defining SQL restricted to the changed rows of each dependency. Since the rows are replaced one dependency at a time this is correct
+	 * only for the defining SQL where each row of the view is built from a single row of each dependency (See
+	 * {@link TableModelUtils#isIncrementalMaintenanceSupported(QueryExpression)}), which is when the index tracks the rows of its
+	 * dependencies.
+	 * <p>
+	 * Must be invoked holding a read lock on each dependency. The update is applied in a single transaction so that the exclusive lock on
+	 * the view is not needed.
+	 * 
+	 * @return False if the index cannot be updated incrementally and needs to be rebuilt
+	 * @throws IOException
+	 */
+	boolean updateViewIndexIncrementallyHoldingAllDependentReadLocks(TableIndexManager indexManager, IndexDescription index, String definingSql,
+			List<ColumnModel> schema, boolean isSearchEnabled) throws IOException {
+		// The search index would need to be rebuilt anyway
+		if (index.getSourceRowIdColumnNames().isEmpty() || isSearchEnabled) {
+			return false;
+		}
+		
+		IdAndVersion idAndVersion = index.getIdAndVersion();
+		
+		Optional<Map<IdAndVersion, Long>> indexedSourceVersions = indexManager.getMaterializedViewSourceVersions(index);
+		
+		if (indexedSourceVersions.isEmpty()) {
+			return false;
+		}
+		
+		List<String> schemaIds = schema.stream().map(ColumnModel::getId).collect(Collectors.toList());
+		
+		// Only the version of the index can differ, the schema must be the same
+		if (!tableManagerSupport.isIndexSynchronized(idAndVersion, schemaIds, indexManager.getCurrentVersionOfIndex(idAndVersion), isSearchEnabled)) {
+			return false;
+		}
+		
+		List<MaterializedViewSourceRows> changes = new ArrayList<>();
+		int changedRowsCount = 0;
+		
+		for (IndexDescription dependency : index.getDependencies()) {
+			IdAndVersion sourceId = dependency.getIdAndVersion();
+			long indexedVersion = indexedSourceVersions.get().get(sourceId);
+			long currentVersion = indexManager.getCurrentVersionOfIndex(sourceId);
+			
+			if (currentVersion == indexedVersion) {
+				continue;
+			}
+			
+			Optional<Set<Long>> changedRowIds = currentVersion < indexedVersion ? Optional.empty() : 
+				tableEntityManager.getChangedRowIds(sourceId.getId().toString(), indexedVersion, currentVersion, MAX_INCREMENTAL_ROW_CHANGES - changedRowsCount);
+			
+			if (changedRowIds.isEmpty()) {
+				return false;
+			}
+			
+			changedRowsCount += changedRowIds.get().size();
+			
+			for (List<Long> rowIdsBatch : Iterables.partition(changedRowIds.get(), SOURCE_ROW_IDS_BATCH_SIZE)) {
+				changes.add(new MaterializedViewSourceRows(sourceId, new LinkedHashSet<>(rowIdsBatch), buildSourceRowsQuery(definingSql, index, sourceId, rowIdsBatch)));
+			}
+		}
+		
+		indexManager.updateMaterializedViewSourceRows(schema, index, changes);
+		
+		return true;
+	}
+	
+	/**
+	 * @param definingSql
+	 * @param index
+	 * @param sourceId
+	 * @param rowIds
+	 * @return The defining SQL of the view restricted to the rows of the given dependency with the given ids
+	 */
+	QueryTranslator buildSourceRowsQuery(String definingSql, IndexDescription index, IdAndVersion sourceId, List<Long> rowIds) {
+		QueryExpression definingQuery = TableModelUtils.getQuerySpecification(definingSql);
+		
+		TableExpression tableExpression = definingQuery.getFirstElementOfType(QuerySpecification.class).getTableExpression();
+		
+		// The ROW_ID of the source is referenced through the alias of the source table if any
+		String sourceReference = tableExpression.stream(TableNameCorrelation.class)
+			.filter(tableName -> sourceId.equals(IdAndVersion.parse(tableName.getTableName().toSql())))
+			.findFirst()
+			.map(tableName -> tableName.getTableAlias().orElse(tableName.getTableName().toSql()))
+			.orElseThrow(() -> new IllegalArgumentException("The defining SQL does not reference " + sourceId));
+		
+		String rowIdsCondition = sourceReference + "." + TableConstants.ROW_ID + " IN ("
+				+ rowIds.stream().map(Object::toString).collect(Collectors.joining(",")) + ")";
+		
+		StringBuilder whereClause = new StringBuilder();
+		
+		SqlElementUtils.appendCombinedWhereClauseToStringBuilder(whereClause, rowIdsCondition, tableExpression.getWhereClause());
+		
+		try {
+			tableExpression.replaceWhere(new TableQueryParser(whereClause.toString().trim()).whereClause());
+		} catch (ParseException e) {
+			throw new IllegalStateException(e);
+		}
+		
+		return QueryTranslator.builder()
+			.sql(definingQuery.toSql())
+			.schemaProvider(tableManagerSupport)
+			.sqlContext(SqlContext.build)
+			.indexDescription(index)
+		.build();
+	}
+	
 	void createOrRebuildViewHoldingWriteLockAndAllDependentReadLocks(QueryTranslator definingSql, List<ColumnModel> schema, boolean isSearchEnabled) {
 		IdAndVersion idAndVersion = definingSql.getIndexDescription().getIdAndVersion();
 		TableIndexManager indexManager = connectionFactory.connectToTableIndex(idAndVersion);
@@ -0,0 +1,86 @@
+package org.sagebionetworks.repo.manager.table;
+
+import java.util.Objects;
+import java.util.Set;
+
+import org.sagebionetworks.repo.model.entity.IdAndVersion;
+import org.sagebionetworks.table.cluster.QueryTranslator;
+
+/**
+ * A set of changed rows of a source table of a materialized view, along with
+ * the defining query of the view restricted to these rows.
+ *
+ */
+public class MaterializedViewSourceRows {
+
+	private final IdAndVersion sourceId;
+	private final Set<Long> rowIds;
+	private final QueryTranslator rowsQuery;
+
+	/**
+	 *
+	 * @param sourceId  The id of the source table
+	 * @param rowIds    The ids of the changed rows of the source table, including
+	 *                  the deleted rows
+	 * @param rowsQuery The defining query of the materialized view restricted to
+	 *                  the rows of the source table with the given ids
+	 */
+	public MaterializedViewSourceRows(IdAndVersion sourceId, Set<Long> rowIds, QueryTranslator rowsQuery) {
+		super();
+		this.sourceId = sourceId;
+		this.rowIds = rowIds;
+		this.rowsQuery = rowsQuery;
+	}
+
+	/**
+	 * The id of the source table
+	 *
+	 * @return
+	 */
+	public IdAndVersion getSourceId() {
+		return sourceId;
+	}
+
+	/**
+	 * The ids of the changed rows of the source table, including the deleted rows
+	 *
+	 * @return
+	 */
+	public Set<Long> getRowIds() {
+		return rowIds;
+	}
+
+	/**
+	 * The defining query of the materialized view restricted to the changed rows
+	 * of the source table
+	 *
+	 * @return
+	 */
+	public QueryTranslator getRowsQuery() {
+		return rowsQuery;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(rowIds, rowsQuery, sourceId);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof MaterializedViewSourceRows)) {
+			return false;
+		}
+		MaterializedViewSourceRows other = (MaterializedViewSourceRows) obj;
+		return Objects.equals(rowIds, other.rowIds) && Objects.equals(rowsQuery, other.rowsQuery)
+				&& Objects.equals(sourceId, other.sourceId);
+	}
+
+	@Override
+	public String toString() {
+		return "MaterializedViewSourceRows [sourceId=" + sourceId + ", rowIds=" + rowIds + "]";
+	}
+
+}
@@ -273,6 +273,23 @@ public interface TableEntityManager {
 	 * @return
 	 */
 	List<TableChangeMetaData> getTableChangePage(String tableId, long limit, long offset);
+
+	/**
+	 * Get the ids of the rows (including the deleted rows) changed by the row
+	 * changes of the given table with a version greater than afterVersion and
+	 * lower or equal to upToVersion.
+	 * 
+	 * @param tableId
+	 * @param afterVersion The version of the table the changes are applied to
+	 *                     (exclusive)
+	 * @param upToVersion  The last version of the table to include (inclusive)
+	 * @param maxRows      The maximum number of row ids to collect
+	 * @return {@link Optional#empty()} if the schema of the table changed after
+	 *         afterVersion, since a schema change can change the values of the
+	 *         rows, or if more than maxRows rows were changed
+	 * @throws IOException
+	 */
+	Optional<Set<Long>> getChangedRowIds(String tableId, long afterVersion, long upToVersion, int maxRows) throws IOException;
 	
 	/**
 	 * Get the transaction Id for a table version.
@@ -303,9 +320,10 @@ public interface TableEntityManager {
 	/**
 	 * @param minId
 	 * @param maxId
-	 * @return An iterator over the table row changes within the given range of ids that have file references (includes the changes for which the file references are unknown)
+	 * @return An iterator over the table row changes within the given range of ids that have file references whose file handles are not
+	 *         in the index of the file handles referenced by the changes yet
 	 */
-	Iterator<TableRowChange> newTableRowChangeWithFileRefsIterator(IdRange idRange);
+	Iterator<TableRowChange> newTableRowChangeWithUnindexedFileRefsIterator(IdRange idRange);
 	
 	/**
 	 * Stores a copy of the data of the table snapshot with the given id and version to S3, the table must be available. If a snapshot already exist doesn't do anything.
@@ -18,6 +18,7 @@ import org.sagebionetworks.repo.model.UnauthorizedException;
 import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.dao.table.RowHandler;
 import org.sagebionetworks.repo.model.dao.table.TableType;
+import org.sagebionetworks.repo.model.dbo.dao.table.ParallelCSVToRowIterator;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableRowTruthDAO;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableSnapshot;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableSnapshotDao;
@@ -75,6 +76,8 @@ import org.sagebionetworks.table.model.SparseChangeSet;
 import org.sagebionetworks.table.model.SparseRow;
 import org.sagebionetworks.table.model.TableChange;
 import org.sagebionetworks.util.PaginationIterator;
+import org.sagebionetworks.util.TokenPaginationIterator;
+import org.sagebionetworks.util.TokenPaginationPage;
 import org.sagebionetworks.util.ValidateArgument;
 import org.sagebionetworks.util.progress.ProgressCallback;
 import org.sagebionetworks.util.progress.SynchronizedProgressCallback;
@@ -251,6 +254,9 @@ public class TableEntityManagerImpl implements TableEntityManager {
 		 */
 		boolean ignoreRowIdAndVersion = !tableRowTruthDao.hasAtLeastOneChangeOfType(tableId, TableChangeType.ROW);
 		
+		// The values of the rows of a CSV can be validated while the CSV is parsed
+		boolean valuesValidated = rowStream instanceof ParallelCSVToRowIterator && ((ParallelCSVToRowIterator) rowStream).isValidateValues();
+		
 		List<SparseRowDto> batch = new LinkedList<SparseRowDto>();
 		int batchSizeBytes = 0;
 		long rowCount = 0;
@@ -266,7 +272,7 @@ public class TableEntityManagerImpl implements TableEntityManager {
 			batchSizeBytes += TableModelUtils.calculateActualRowSize(row);
 			if(batchSizeBytes >= maxBytesPerChangeSet){
 				// Send this batch and keep the etag.
-				SparseChangeSet delta = new SparseChangeSet(tableId, columns, batch, etag);
+				SparseChangeSet delta = new SparseChangeSet(tableId, columns, batch, etag, valuesValidated);
 				etag = appendBatchOfRowsToTable(user, columns, delta, results, txContext);
 				// Clear the batch
 				batch.clear();
@@ -276,7 +282,7 @@ public class TableEntityManagerImpl implements TableEntityManager {
 		// Send the last batch is there are any rows
 		if(!batch.isEmpty()){
 			// Validate there aren't any illegal file handle replaces
-			SparseChangeSet delta = new SparseChangeSet(tableId, columns, batch, etag);
+			SparseChangeSet delta = new SparseChangeSet(tableId, columns, batch, etag, valuesValidated);
 			etag = appendBatchOfRowsToTable(user, columns, delta, results, txContext);
 		}
 		// Done
@@ -381,6 +387,11 @@ public class TableEntityManagerImpl implements TableEntityManager {
 		
 		tableRowTruthDao.appendRowSetToTable(userId.toString(), tableId, range.getEtag(), range.getVersionNumber(), columns, delta.writeToDto(), txContext.getTransactionId(), hasFileRefs);
 		
+		if (hasFileRefs) {
+			// Index the file handles of the change so that they can be scanned without reading the change set back from S3
+			tableRowTruthDao.addTableRowChangeFileHandleIds(tableId, range.getVersionNumber(), fileIdsInSet);
+		}
+		
 		// Prepare the results
 		RowReferenceSet results = new RowReferenceSet();
 		results.setHeaders(TableModelUtils.getSelectColumns(columns));
@@ -974,6 +985,34 @@ public class TableEntityManagerImpl implements TableEntityManager {
 		return results;
 	}
 	
+	@Override
+	public Optional<Set<Long>> getChangedRowIds(String tableId, long afterVersion, long upToVersion, int maxRows) throws IOException {
+		ValidateArgument.required(tableId, "tableId");
+		
+		TableRowChange lastColumnChange = tableRowTruthDao.getLastTableRowChange(tableId, TableChangeType.COLUMN);
+		
+		if (lastColumnChange != null && lastColumnChange.getRowVersion() > afterVersion) {
+			return Optional.empty();
+		}
+		
+		Set<Long> rowIds = new HashSet<>();
+		
+		// Only includes the ROW changes, in version order
+		for (TableRowChange change : tableRowTruthDao.listRowSetsKeysForTableGreaterThanVersion(tableId, afterVersion)) {
+			if (change.getRowVersion() > upToVersion) {
+				break;
+			}
+			for (SparseRowDto row : tableRowTruthDao.getRowSet(change).getRows()) {
+				rowIds.add(row.getRowId());
+			}
+			if (rowIds.size() > maxRows) {
+				return Optional.empty();
+			}
+		}
+		
+		return Optional.of(rowIds);
+	}
+	
 	/**
 	 * Wrapper of table change metadata that supports dynamically loading the full
 	 * change on demand.
@@ -1069,10 +1108,19 @@ public class TableEntityManagerImpl implements TableEntityManager {
 	}
 
 	@Override
-	public Iterator<TableRowChange> newTableRowChangeWithFileRefsIterator(org.sagebionetworks.repo.model.IdRange idRange) {
+	public Iterator<TableRowChange> newTableRowChangeWithUnindexedFileRefsIterator(org.sagebionetworks.repo.model.IdRange idRange) {
 		ValidateArgument.required(idRange, "The idRange");
 		ValidateArgument.requirement(idRange.getMinId() <= idRange.getMaxId(), "Invalid idRange, the minId must be lesser or equal than the maxId");
-		return new PaginationIterator<TableRowChange>((long limit, long offset) -> tableRowTruthDao.getTableRowChangeWithFileRefsPage(idRange, limit, offset), PAGE_SIZE_LIMIT);
+		// The changes that are indexed while iterating are excluded from the results, the token is the id of the last change of the page
+		return new TokenPaginationIterator<TableRowChange>((String nextToken) -> {
+			long lastId = nextToken == null ? idRange.getMinId() - 1 : Long.parseLong(nextToken);
+			
+			List<TableRowChange> page = tableRowTruthDao.getTableRowChangeWithUnindexedFileRefsPage(idRange, lastId, PAGE_SIZE_LIMIT);
+			
+			String pageToken = page.size() < PAGE_SIZE_LIMIT ? null : page.get(page.size() - 1).getId().toString();
+			
+			return new TokenPaginationPage<>(page, pageToken);
+		});
 	}
 
 
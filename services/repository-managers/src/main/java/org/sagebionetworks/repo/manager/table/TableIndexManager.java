@@ -2,6 +2,7 @@ package org.sagebionetworks.repo.manager.table;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -256,6 +257,30 @@ public interface TableIndexManager {
 	 */
 	Iterator<IdAndChecksum> streamOverIdsAndChecksums(Long salt, ViewFilter filter);
 
+	/**
+	 * Get the aggregate checksum of each ID bucket for all objects defined by the
+	 * provided filter. The ID of each IdAndChecksum is the bucket number:
+	 * <code>FLOOR(ID/bucketSize)</code>, ordered by bucket ascending.
+	 * 
+	 * @param salt
+	 * @param filter
+	 * @param bucketSize
+	 * @return
+	 */
+	List<IdAndChecksum> getBucketChecksums(Long salt, ViewFilter filter, Long bucketSize);
+
+	/**
+	 * Stream over the IdAndChecksum for the objects defined by the provided filter
+	 * that fall within the given ID bucket.
+	 * 
+	 * @param salt
+	 * @param filter
+	 * @param bucketSize
+	 * @param bucket
+	 * @return
+	 */
+	Iterator<IdAndChecksum> streamOverIdsAndChecksumsInBucket(Long salt, ViewFilter filter, Long bucketSize, Long bucket);
+
 	/**
 	 * Is the synchronization lock for the given view expires?
 	 * 
@@ -271,13 +296,42 @@ public interface TableIndexManager {
 	void resetViewSynchronizeLock(ReplicationType type, IdAndVersion idAndVersion);
 
 	/**
-	 * Populate the index of a materialized view.
+	 * Populate the index of a materialized view. If the index tracks the rows of
+	 * its sources the current version of each source is recorded, so that the
+	 * index can later be updated with
+	 * {@link #updateMaterializedViewSourceRows(List, IndexDescription, List)}.
+	 * 
 	 * @param viewSchema
 	 * @param definingSql
 	 * @return
 	 */
 	Long populateMaterializedViewFromDefiningSql(List<ColumnModel> viewSchema, QueryTranslator definingSql);
 
+	/**
+	 * Get the versions of the sources of the given materialized view that the rows
+	 * of its index are up to date with.
+	 * 
+	 * @param index
+	 * @return {@link Optional#empty()} if the index does not track the rows of its
+	 *         sources or if the recorded versions do not match the current version
+	 *         of the index, in which case the index can only be rebuilt
+	 */
+	Optional<Map<IdAndVersion, Long>> getMaterializedViewSourceVersions(IndexDescription index);
+
+	/**
+	 * Updates the index of a materialized view in a single transaction replacing,
+	 * for each of the given changed rows of its sources, the rows of the view
+	 * built from them with the results of the restricted defining query. The
+	 * current version of each source is then recorded and set as the version of
+	 * the index.
+	 * 
+	 * @param viewSchema
+	 * @param index
+	 * @param changes
+	 * @return The new version of the index
+	 */
+	long updateMaterializedViewSourceRows(List<ColumnModel> viewSchema, IndexDescription index, List<MaterializedViewSourceRows> changes);
+
 	/**
 	 * Reset the state of the table index described by the given {@link IndexDescription}
 	 * 
@@ -4,7 +4,9 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -892,6 +894,19 @@ public class TableIndexManagerImpl implements TableIndexManager {
 			return tableIndexDao.getIdAndChecksumsForFilter(salt, filter, limit, offset);
 		}, BATCH_SIZE);
 	}
+
+	@Override
+	public List<IdAndChecksum> getBucketChecksums(Long salt, ViewFilter filter, Long bucketSize) {
+		return tableIndexDao.getBucketChecksumsForFilter(salt, filter, bucketSize);
+	}
+
+	@Override
+	public Iterator<IdAndChecksum> streamOverIdsAndChecksumsInBucket(Long salt, ViewFilter filter, Long bucketSize,
+			Long bucket) {
+		return new PaginationIterator<IdAndChecksum>((long limit, long offset) -> {
+			return tableIndexDao.getIdAndChecksumsForFilterInBucket(salt, filter, bucketSize, bucket, limit, offset);
+		}, BATCH_SIZE);
+	}
 	
 	@Override
 	public boolean isViewSynchronizeLockExpired(ReplicationType type, IdAndVersion idAndVersion) {
@@ -1086,22 +1101,94 @@ public class TableIndexManagerImpl implements TableIndexManager {
 		return tableIndexDao.executeInWriteTransaction((TransactionStatus status) -> {
 			String insertSql = SQLTranslatorUtils.createMaterializedViewInsertSql(viewSchema, definingSql.getOutputSQL(), indexDescription);
 			tableIndexDao.update(insertSql, definingSql.getParameters());
-			return getVersionFromIndexDependencies(indexDescription);
+			return setMaterializedViewSourceVersions(indexDescription);
 		});
 	}
 	
 	@Override
-	public long getVersionFromIndexDependencies(IndexDescription index) {
-		return index.getDependencies().stream()
-				.map(IndexDescription::getIdAndVersion)
-				.mapToLong(id ->
-						id.getId() + id.getVersion().orElse(0L) + getCurrentVersionOfIndex(id))
+	public Optional<Map<IdAndVersion, Long>> getMaterializedViewSourceVersions(IndexDescription index) {
+		if (index.getSourceRowIdColumnNames().isEmpty()) {
+			return Optional.empty();
+		}
+		
+		List<IdAndVersion> sourceIds = index.getDependencies().stream().map(IndexDescription::getIdAndVersion).collect(Collectors.toList());
+		
+		Map<IdAndVersion, Long> sourceVersions = tableIndexDao.getMaterializedViewSourceVersions(index.getIdAndVersion(), sourceIds);
+		
+		// The versions are recorded separately from the index, if they do not add up to the version of the index the index was
+		// rebuilt without tracking the rows of its sources (e.g. before the tracking was introduced)
+		if (sourceVersions.size() != sourceIds.size() || getVersionFromSourceVersions(sourceVersions) != getCurrentVersionOfIndex(index.getIdAndVersion())) {
+			return Optional.empty();
+		}
+		
+		return Optional.of(sourceVersions);
+	}
+	
+	@Override
+	public long updateMaterializedViewSourceRows(List<ColumnModel> viewSchema, IndexDescription index, List<MaterializedViewSourceRows> changes) {
+		ValidateArgument.requiredNotEmpty(index.getSourceRowIdColumnNames(), "The source row id columns of the index");
+		
+		return tableIndexDao.executeInWriteTransaction((TransactionStatus status) -> {
+			for (MaterializedViewSourceRows change : changes) {
+				String deleteSql = SQLTranslatorUtils.createMaterializedViewDeleteSourceRowsSql(index, change.getSourceId());
+				tableIndexDao.update(deleteSql, Collections.singletonMap(SQLTranslatorUtils.SOURCE_ROW_IDS_PARAMETER, change.getRowIds()));
+				
+				QueryTranslator rowsQuery = change.getRowsQuery();
+				String insertSql = SQLTranslatorUtils.createMaterializedViewInsertSql(viewSchema, rowsQuery.getOutputSQL(), index);
+				tableIndexDao.update(insertSql, rowsQuery.getParameters());
+			}
+			
+			long version = setMaterializedViewSourceVersions(index);
+			
+			tableIndexDao.setMaxCurrentCompleteVersionForTable(index.getIdAndVersion(), version);
+			
+			return version;
+		});
+	}
+	
+	/**
+	 * Records the current version of each source of the given materialized view if its index tracks the rows of its sources
+	 * 
+	 * @param index
+	 * @return The version of the index computed from the current versions of its sources, see {@link #getVersionFromIndexDependencies(IndexDescription)}
+	 */
+	private long setMaterializedViewSourceVersions(IndexDescription index) {
+		Map<IdAndVersion, Long> sourceVersions = getSourceVersions(index);
+		
+		tableIndexDao.setMaterializedViewSourceVersions(index.getIdAndVersion(), 
+				index.getSourceRowIdColumnNames().isEmpty() ? Collections.emptyMap() : sourceVersions);
+		
+		return getVersionFromSourceVersions(sourceVersions);
+	}
+	
+	private Map<IdAndVersion, Long> getSourceVersions(IndexDescription index) {
+		Map<IdAndVersion, Long> sourceVersions = new LinkedHashMap<>();
+		for (IndexDescription dependency : index.getDependencies()) {
+			sourceVersions.put(dependency.getIdAndVersion(), getCurrentVersionOfIndex(dependency.getIdAndVersion()));
+		}
+		return sourceVersions;
+	}
+	
+	private static long getVersionFromSourceVersions(Map<IdAndVersion, Long> sourceVersions) {
+		return sourceVersions.entrySet().stream()
+				.mapToLong(entry ->
+						entry.getKey().getId() + entry.getKey().getVersion().orElse(0L) + entry.getValue())
 				.sum();
 	}
 	
+	@Override
+	public long getVersionFromIndexDependencies(IndexDescription index) {
+		return getVersionFromSourceVersions(getSourceVersions(index));
+	}
+	
 	@Override
 	public void swapTableIndex(IndexDescription source, IndexDescription target) {
 		tableIndexDao.swapTableIndex(source.getIdAndVersion(), target.getIdAndVersion());
+		// The source versions of a materialized view are recorded outside of the index tables, so we move them with the content of the index
+		List<IdAndVersion> sourceIds = source.getDependencies().stream().map(IndexDescription::getIdAndVersion).collect(Collectors.toList());
+		Map<IdAndVersion, Long> sourceVersions = tableIndexDao.getMaterializedViewSourceVersions(source.getIdAndVersion(), sourceIds);
+		tableIndexDao.setMaterializedViewSourceVersions(target.getIdAndVersion(), sourceVersions);
+		tableIndexDao.setMaterializedViewSourceVersions(source.getIdAndVersion(), Collections.emptyMap());
 	}
 	
 }
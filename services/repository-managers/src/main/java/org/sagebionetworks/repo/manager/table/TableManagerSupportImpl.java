@@ -62,6 +62,7 @@ import org.sagebionetworks.table.cluster.description.TableIndexDescription;
 import org.sagebionetworks.table.cluster.description.ViewIndexDescription;
 import org.sagebionetworks.table.cluster.description.VirtualTableIndexDescription;
 import org.sagebionetworks.table.cluster.utils.TableModelUtils;
+import org.sagebionetworks.table.query.model.QueryExpression;
 import org.sagebionetworks.util.Clock;
 import org.sagebionetworks.util.FileProvider;
 import org.sagebionetworks.util.TimeoutUtils;
@@ -659,12 +660,18 @@ public class TableManagerSupportImpl implements TableManagerSupport {
 			return new ViewIndexDescription(idAndVersion, type, getTableVersion(type.getObjectType(), idAndVersion));
 		case materializedview:
 
-			List<IndexDescription> dependencies = TableModelUtils.getSourceTableIds(nodeDao.getDefiningSql(idAndVersion).get())
+			QueryExpression definingQuery = TableModelUtils.getQuerySpecification(nodeDao.getDefiningSql(idAndVersion).get());
+
+			List<IndexDescription> dependencies = TableModelUtils.getSourceTableIds(definingQuery)
 					.stream()
 					.map(this::getIndexDescription)
 					.collect(Collectors.toList());
 			
-			return new MaterializedViewIndexDescription(idAndVersion, dependencies);
+			// The changes to the rows are recorded only for tables, a materialized view with other sources can only be rebuilt
+			boolean trackSourceRows = TableModelUtils.isIncrementalMaintenanceSupported(definingQuery)
+					&& dependencies.stream().allMatch(dependency -> TableType.table == dependency.getTableType());
+			
+			return new MaterializedViewIndexDescription(idAndVersion, dependencies, trackSourceRows);
 		case virtualtable:
 			return new VirtualTableIndexDescription(idAndVersion, nodeDao.getDefiningSql(idAndVersion).get(), this);
 		default:
@@ -4,17 +4,23 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.sagebionetworks.repo.manager.entity.EntityAuthorizationManager;
 import org.sagebionetworks.repo.manager.table.query.ActionsRequiredQuery;
 import org.sagebionetworks.repo.manager.table.query.BasicQuery;
 import org.sagebionetworks.repo.manager.table.query.CacheableQueryExecutor;
+import org.sagebionetworks.repo.manager.table.query.ConcurrentQueryRunner;
 import org.sagebionetworks.repo.manager.table.query.CountQuery;
 import org.sagebionetworks.repo.manager.table.query.FacetQueries;
 import org.sagebionetworks.repo.manager.table.query.QueryContext;
@@ -57,6 +63,7 @@ import org.sagebionetworks.table.cluster.CombinedQuery;
 import org.sagebionetworks.table.cluster.ConnectionFactory;
 import org.sagebionetworks.table.cluster.QueryTranslator;
 import org.sagebionetworks.table.cluster.TableIndexDAO;
+import org.sagebionetworks.table.cluster.TranslatedQuery;
 import org.sagebionetworks.table.cluster.description.BenefactorDescription;
 import org.sagebionetworks.table.cluster.description.IndexDescription;
 import org.sagebionetworks.table.cluster.utils.TableModelUtils;
@@ -76,11 +83,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.BadSqlGrammarException;
 
 public class TableQueryManagerImpl implements TableQueryManager {
+	
+	private static final Logger LOG = LogManager.getLogger(TableQueryManagerImpl.class);
 
 	public static final int CACHED_QUERY_EXPIRES_IN_SEC = 60*5;
 	public static final long MAX_ROWS_PER_CALL = 100;
 	public static final long ACTIONS_REQUIRED_BATCH_SIZE = 10_000;
 	public static final long MAX_ACTIONS_REQUIRED = 50;
+	/**
+	 * The maximum number of parts of a single query request (count, facets, sum of file sizes etc.) that run concurrently on the thread
+	 * pool, the main query runs on the request thread.
+	 */
+	public static final int MAX_CONCURRENT_QUERY_PARTS = 4;
 
 	private TableManagerSupport tableManagerSupport;
 	private ConnectionFactory tableConnectionFactory;
@@ -89,11 +103,11 @@ public class TableQueryManagerImpl implements TableQueryManager {
 	private QueryCacheManager queryCacheManager;
 
 	@Autowired
-	public TableQueryManagerImpl(TableManagerSupport tableManagerSupport, ConnectionFactory tableConnectionFactory, EntityAuthorizationManager entityAuthorizationManager, ExecutorService cachedThreadPool, QueryCacheManager queryCacheManager) {
+	public TableQueryManagerImpl(TableManagerSupport tableManagerSupport, ConnectionFactory tableConnectionFactory, EntityAuthorizationManager entityAuthorizationManager, ExecutorService tableQueryThreadPool, QueryCacheManager queryCacheManager) {
 		this.tableManagerSupport = tableManagerSupport;
 		this.tableConnectionFactory = tableConnectionFactory;
 		this.entityAuthorizationManager = entityAuthorizationManager;
-		this.threadPool = cachedThreadPool;
+		this.threadPool = tableQueryThreadPool;
 		this.queryCacheManager = queryCacheManager;
 	}
 	
@@ -320,7 +334,10 @@ public class TableQueryManagerImpl implements TableQueryManager {
 
 	/**
 	 * Run a query as a stream after all authorization checks have been performed
-	 * and any any required row-level filtering has been applied.
+	 * and any any required row-level filtering has been applied. The count, facet,
+	 * sum of file sizes and actions required queries are independent from each
+	 * other and are submitted to the thread pool, while the main query runs on the
+	 * calling thread.
 	 * 
 	 * @param user
 	 * @param query
@@ -354,45 +371,70 @@ public class TableQueryManagerImpl implements TableQueryManager {
 			throw new IllegalArgumentException("Invalid use of " + TextMatchesPredicate.KEYWORD + ". Full text search is not enabled on table " + idAndVersion + ".");
 		}
 
-		// run the actual query if needed.
-		if (options.runQuery()) {
-			// run the query
-			RowSet rowSet = runMainQuery(queryExecutor, indexDao, query.getMainQuery().getTranslator());
-			QueryResult queryResult = new QueryResult();
-			queryResult.setQueryResults(rowSet);
-			bundle.setQueryResult(queryResult);
-		}
-
-		// run the count query if needed.
-		if (options.runCount()) {
-			// count requested.
-			Long count = runCountQuery(query.getCountQuery().orElseThrow(()-> new IllegalStateException("Expected a count query")), indexDao);
-			bundle.setQueryCount(count);
-		}
-
-		// run the facet counts if needed
-		if (options.returnFacets()) {
-			// use original query instead of queryToRun because need the where clause that
-			// was not modified by any facets
-			List<FacetColumnResult> facetResults = runFacetQueries(
-					query.getFacetQueries().orElseThrow(()-> new IllegalStateException("Expected facet query")), indexDao);
-			bundle.setFacets(facetResults);
-		}
-		
-		if(options.runSumFileSizes()) {
-			SumFileSizes sumFileSizes = runSumFileSize(query.getSumFileSizesQuery()
-					.orElseThrow(() -> new IllegalStateException("Expected sum of files sizes query")), indexDao);
-			bundle.setSumFileSizes(sumFileSizes);
-		}
-		
-		if(options.returnLastUpdatedOn()) {
-			Date lastUpdatedOn = tableManagerSupport.getLastChangedOn(idAndVersion).orElse(new Date());
-			bundle.setLastUpdatedOn(lastUpdatedOn);
-		}
-
-		if (options.returnActionsRequired()) {
-			bundle.setActionsRequired(runActionsRequiredQuery(idAndVersion, user, query.getActionsRequiredQuery()
-				.orElseThrow(()-> new IllegalStateException("Expected actions required query")), indexDao));
+		try (ConcurrentQueryRunner runner = new ConcurrentQueryRunner(threadPool, MAX_CONCURRENT_QUERY_PARTS)) {
+			
+			Future<Long> countResult = null;
+			Supplier<List<FacetColumnResult>> facetResults = null;
+			Future<SumFileSizes> sumFileSizesResult = null;
+			Future<List<ActionRequiredCount>> actionsRequiredResult = null;
+			
+			// submit the count query if needed.
+			if (options.runCount()) {
+				CountQuery countQuery = query.getCountQuery().orElseThrow(()-> new IllegalStateException("Expected a count query"));
+				countResult = runner.submit("count", () -> runCountQuery(countQuery, indexDao));
+			}
+	
+			// submit the facet counts if needed
+			if (options.returnFacets()) {
+				// use original query instead of queryToRun because need the where clause that
+				// was not modified by any facets
+				facetResults = submitFacetQueries(runner,
+						query.getFacetQueries().orElseThrow(()-> new IllegalStateException("Expected facet query")), indexDao);
+			}
+			
+			if(options.runSumFileSizes()) {
+				SumFileSizesQuery sumFileSizesQuery = query.getSumFileSizesQuery()
+						.orElseThrow(() -> new IllegalStateException("Expected sum of files sizes query"));
+				sumFileSizesResult = runner.submit("sumFileSizes", () -> runSumFileSize(sumFileSizesQuery, indexDao));
+			}
+			
+			if (options.returnActionsRequired()) {
+				ActionsRequiredQuery actionsRequiredQuery = query.getActionsRequiredQuery()
+						.orElseThrow(()-> new IllegalStateException("Expected actions required query"));
+				actionsRequiredResult = runner.submit("actionsRequired", () -> runActionsRequiredQuery(idAndVersion, user, actionsRequiredQuery, indexDao));
+			}
+			
+			// run the actual query if needed, the query executor might stream the rows so this runs on the calling thread.
+			if (options.runQuery()) {
+				// run the query
+				RowSet rowSet = runner.run("main", () -> runMainQuery(queryExecutor, indexDao, query.getMainQuery().getTranslator()));
+				QueryResult queryResult = new QueryResult();
+				queryResult.setQueryResults(rowSet);
+				bundle.setQueryResult(queryResult);
+			}
+			
+			if(options.returnLastUpdatedOn()) {
+				Date lastUpdatedOn = tableManagerSupport.getLastChangedOn(idAndVersion).orElse(new Date());
+				bundle.setLastUpdatedOn(lastUpdatedOn);
+			}
+			
+			if (countResult != null) {
+				bundle.setQueryCount(runner.get(countResult));
+			}
+			
+			if (facetResults != null) {
+				bundle.setFacets(facetResults.get());
+			}
+			
+			if (sumFileSizesResult != null) {
+				bundle.setSumFileSizes(runner.get(sumFileSizesResult));
+			}
+			
+			if (actionsRequiredResult != null) {
+				bundle.setActionsRequired(runner.get(actionsRequiredResult));
+			}
+			
+			LOG.debug("Query parts timings (ms) for {}: {}", idAndVersion, runner.getTimings());
 		}
 		
 		return bundle;
@@ -409,26 +451,40 @@ public class TableQueryManagerImpl implements TableQueryManager {
 	 * @return
 	 */
 	public List<FacetColumnResult> runFacetQueries(FacetQueries facetQuereis, TableIndexDAO indexDao) {
+		try (ConcurrentQueryRunner runner = new ConcurrentQueryRunner(threadPool, MAX_CONCURRENT_QUERY_PARTS)) {
+			return submitFacetQueries(runner, facetQuereis, indexDao).get();
+		}
+	}
+	
+	/**
+	 * Submits the facet queries to the given runner.
+	 * 
+	 * @param runner
+	 * @param facetQuereis
+	 * @param indexDao
+	 * @return A supplier that waits for the results of the submitted facet queries
+	 */
+	Supplier<List<FacetColumnResult>> submitFacetQueries(ConcurrentQueryRunner runner, FacetQueries facetQuereis, TableIndexDAO indexDao) {
 		ValidateArgument.required(facetQuereis, "facetQuereis");
 		ValidateArgument.required(indexDao, "indexDao");
 		List<FacetTransformer> transformers = facetQuereis.getFacetInformationQueries();
-		List<Future<FacetColumnResult>> futures = new ArrayList<>(transformers.size());
+		// Transformers that share the same query (e.g. range facets computed in a single scan, value count facets combined with a UNION ALL) run the query once
+		Map<TranslatedQuery, Future<RowSet>> queries = new IdentityHashMap<>(transformers.size());
+		List<Future<RowSet>> futures = new ArrayList<>(transformers.size());
 		for (FacetTransformer facetQueryTransformer : transformers) {
-			futures.add(threadPool.submit(() -> {
-				CachedQueryRequest cacheRequest = CachedQueryRequest.clone(facetQueryTransformer.getFacetSqlQuery()).setExpiresInSec(CACHED_QUERY_EXPIRES_IN_SEC);
-				RowSet rowSet = queryCacheManager.getQueryResults(indexDao, cacheRequest);
-				return facetQueryTransformer.translateToResult(rowSet);
-			}));
-		}
-		List<FacetColumnResult> results = new ArrayList<>(futures.size());
-		for (Future<FacetColumnResult> future : futures) {
-			try {
-				results.add(future.get());
-			} catch (Exception e) {
-				new IllegalStateException(e);
+			futures.add(queries.computeIfAbsent(facetQueryTransformer.getFacetSqlQuery(), facetSqlQuery -> runner.submit("facet_" + queries.size(), () -> {
+				CachedQueryRequest cacheRequest = CachedQueryRequest.clone(facetSqlQuery).setExpiresInSec(CACHED_QUERY_EXPIRES_IN_SEC);
+				return queryCacheManager.getQueryResults(indexDao, cacheRequest);
+			})));
+		}
+		return () -> {
+			List<FacetColumnResult> results = new ArrayList<>(transformers.size());
+			for (int i = 0; i < transformers.size(); i++) {
+				RowSet rowSet = runner.get(futures.get(i));
+				results.add(transformers.get(i).translateToResult(rowSet));
 			}
-		}
-		return results;
+			return results;
+		};
 	}
 
 	/**
@@ -3,13 +3,15 @@ package org.sagebionetworks.repo.manager.table;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import org.sagebionetworks.aws.SynapseS3Client;
 import org.sagebionetworks.repo.manager.file.FileHandleManager;
 import org.sagebionetworks.repo.model.UserInfo;
-import org.sagebionetworks.repo.model.dbo.dao.table.CSVToRowIterator;
+import org.sagebionetworks.repo.model.dbo.dao.table.ParallelCSVToRowIterator;
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
 import org.sagebionetworks.repo.model.file.FileConstants;
 import org.sagebionetworks.repo.model.file.S3FileHandle;
@@ -23,8 +25,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import com.amazonaws.services.s3.model.GetObjectRequest;
 
-import au.com.bytecode.opencsv.CSVReader;
-
 public class TableUploadManagerImpl implements TableUploadManager {
 	
 	@Autowired
@@ -35,10 +35,13 @@ public class TableUploadManagerImpl implements TableUploadManager {
 	private SynapseS3Client s3Client;
 	@Autowired
 	private FileProvider fileProvider;
+	@Autowired
+	private ExecutorService cachedThreadPool;
 
 	@Override
 	public TableUpdateResponse uploadCSV(ProgressCallback progressCallback, UserInfo user, UploadToTableRequest request, UploadRowProcessor rowProcessor) {
-		CSVReader reader = null;
+		Reader reader = null;
+		ParallelCSVToRowIterator iterator = null;
 		File tempFile = null;
 		try{
 			// Get the filehandle
@@ -55,17 +58,15 @@ public class TableUploadManagerImpl implements TableUploadManager {
 			// download the CSV to a temp file (see PLFM-4975).
 			tempFile = fileProvider.createTempFile("TableUploadManagerImpl", ".csv");
 			s3Client.getObject(new GetObjectRequest(fileHandle.getBucketName(), fileHandle.getKey()), tempFile);
-			// Create a reader from the passed parameters
-			// Note: The CSVToRowIterator handles linesToSkip so we pass null linesToSkip for the reader.
-			reader = CSVUtils.createCSVReader(new InputStreamReader(fileProvider.createFileInputStream(tempFile), "UTF-8"), request.getCsvTableDescriptor(), null);
+			reader = new InputStreamReader(fileProvider.createFileInputStream(tempFile), "UTF-8");
 			
 			if(request.getColumnIds() != null && !request.getColumnIds().isEmpty()){
 				throw new IllegalArgumentException("Unsupported columnIds");
 			}
 			
-			// Create the iterator
+			// Create the iterator, the rows are parsed and validated concurrently while they are appended
 			boolean isFirstLineHeader = CSVUtils.isFirstRowHeader(request.getCsvTableDescriptor());
-			CSVToRowIterator iterator = new CSVToRowIterator(tableSchema, reader, isFirstLineHeader, request.getLinesToSkip());
+			iterator = new ParallelCSVToRowIterator(tableSchema, reader, request.getCsvTableDescriptor(), isFirstLineHeader, request.getLinesToSkip(), cachedThreadPool, rowProcessor.isValidateValues());
 			// Append the data to the table
 			return rowProcessor.processRows(user, request.getTableId(),
 					tableSchema, iterator, request.getUpdateEtag(), progressCallback);
@@ -74,6 +75,12 @@ public class TableUploadManagerImpl implements TableUploadManager {
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		}finally{
+			if(iterator != null){
+				try {
+					// Stop parsing the chunks that are left when the processing failed.
+					iterator.close();
+				} catch (IOException e) {}
+			}
 			if(reader != null){
 				try {
 					// Unconditionally close the stream to the S3 file.
@@ -237,6 +237,12 @@ public class TableViewUpdateRequestManager implements TableUpdateRequestManager,
 		return response;
 	}
 
+	@Override
+	public boolean isValidateValues() {
+		// Invalid values are reported in the result of each row
+		return false;
+	}
+
 	/**
 	 * Process a row.
 	 * 
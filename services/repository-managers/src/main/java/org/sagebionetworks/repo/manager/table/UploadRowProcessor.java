@@ -39,4 +39,15 @@ public interface UploadRowProcessor {
 			String updateEtag,
 			ProgressCallback progressCallback) throws DatastoreException, NotFoundException, IOException;
 
+	/**
+	 * Should the values of the rows be validated against the table schema while
+	 * the CSV is parsed? An invalid value then fails the entire upload.
+	 * 
+	 * @return True by default, a processor that reports invalid values per row
+	 *         should return false.
+	 */
+	default boolean isValidateValues() {
+		return true;
+	}
+
 }
@@ -0,0 +1,202 @@
+package org.sagebionetworks.repo.manager.table.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.sagebionetworks.util.ValidateArgument;
+
+/**
+ * Runs the independent parts of a single table query request (e.g. count, facets, sum of file sizes) concurrently on a shared thread
+ * pool, while the caller runs the main query. At most maxConcurrency parts of the same request run at the same time so that a single
+ * request with many facets cannot take over the shared pool, the parts that exceed the limit are queued and picked up by the threads
+ * already running for the request.
+ * <p>
+ * The runner is meant to be used by a single request thread and closed once all the results are collected: closing the runner cancels
+ * any part that is still pending or running. The time taken by each part is recorded and can be retrieved with {@link #getTimings()}.
+ */
+public class ConcurrentQueryRunner implements AutoCloseable {
+
+	private final ExecutorService threadPool;
+	private final int maxConcurrency;
+	private final Queue<QueryPart<?>> pendingParts;
+	private final AtomicInteger activeWorkers;
+	private final List<Future<?>> workers;
+	private final List<QueryPart<?>> parts;
+	private final Map<String, Long> timings;
+
+	public ConcurrentQueryRunner(ExecutorService threadPool, int maxConcurrency) {
+		ValidateArgument.required(threadPool, "The threadPool");
+		ValidateArgument.requirement(maxConcurrency > 0, "The maxConcurrency must be greater than zero.");
+		this.threadPool = threadPool;
+		this.maxConcurrency = maxConcurrency;
+		this.pendingParts = new ConcurrentLinkedQueue<>();
+		this.activeWorkers = new AtomicInteger();
+		this.workers = new ArrayList<>();
+		this.parts = new ArrayList<>();
+		this.timings = Collections.synchronizedMap(new LinkedHashMap<>());
+	}
+
+	/**
+	 * Submit a part of the request to run concurrently.
+	 *
+	 * @param name The name of the part, used to report its timing
+	 * @param part
+	 * @return A future for the result of the part, use {@link #get(Future)} to wait for its result
+	 */
+	public <T> Future<T> submit(String name, Callable<T> part) {
+		ValidateArgument.required(name, "The name");
+		ValidateArgument.required(part, "The part");
+		QueryPart<T> queryPart = new QueryPart<>(name, part);
+		parts.add(queryPart);
+		pendingParts.add(queryPart);
+		startWorkerIfNeeded();
+		return queryPart.result;
+	}
+
+	/**
+	 * Run a part of the request on the calling thread, recording its timing.
+	 *
+	 * @param name
+	 * @param part
+	 * @return
+	 */
+	public <T> T run(String name, Supplier<T> part) {
+		long start = System.nanoTime();
+		try {
+			return part.get();
+		} finally {
+			recordTiming(name, start);
+		}
+	}
+
+	/**
+	 * Waits for the result of a part submitted to this runner. If the part failed the exception is re-thrown, and all the other parts are
+	 * cancelled.
+	 *
+	 * @param future
+	 * @return
+	 */
+	public <T> T get(Future<T> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			close();
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the query results.", e);
+		} catch (CancellationException e) {
+			close();
+			throw e;
+		} catch (ExecutionException e) {
+			close();
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	/**
+	 * @return The time in milliseconds taken by each completed part, in completion order
+	 */
+	public Map<String, Long> getTimings() {
+		synchronized (timings) {
+			return new LinkedHashMap<>(timings);
+		}
+	}
+
+	/**
+	 * Cancels all the parts that are still pending or running.
+	 */
+	@Override
+	public void close() {
+		pendingParts.clear();
+		parts.forEach(part -> part.result.cancel(true));
+		workers.forEach(worker -> worker.cancel(true));
+	}
+
+	private void startWorkerIfNeeded() {
+		if (claimWorkerSlot()) {
+			workers.add(threadPool.submit(this::runPendingParts));
+		}
+	}
+
+	private boolean claimWorkerSlot() {
+		while (true) {
+			int active = activeWorkers.get();
+			if (active >= maxConcurrency) {
+				return false;
+			}
+			if (activeWorkers.compareAndSet(active, active + 1)) {
+				return true;
+			}
+		}
+	}
+
+	private void runPendingParts() {
+		while (true) {
+			QueryPart<?> part;
+			while ((part = pendingParts.poll()) != null) {
+				if (Thread.currentThread().isInterrupted()) {
+					part.result.cancel(false);
+					continue;
+				}
+				part.run();
+			}
+			activeWorkers.decrementAndGet();
+			// A part might have been queued after the poll, when the limit was reached
+			if (pendingParts.isEmpty() || !claimWorkerSlot()) {
+				return;
+			}
+		}
+	}
+
+	private void recordTiming(String name, long start) {
+		timings.put(name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+
+	private class QueryPart<T> {
+
+		private final String name;
+		private final Callable<T> callable;
+		private final CompletableFuture<T> result;
+
+		QueryPart(String name, Callable<T> callable) {
+			this.name = name;
+			this.callable = callable;
+			this.result = new CompletableFuture<>();
+		}
+
+		void run() {
+			if (result.isDone()) {
+				return;
+			}
+			long start = System.nanoTime();
+			try {
+				result.complete(callable.call());
+			} catch (Throwable e) {
+				result.completeExceptionally(e);
+			} finally {
+				recordTiming(name, start);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,23 @@
+package org.sagebionetworks.repo.manager.trash;
+
+/**
+ * Listener notified as the sub-tree of a trashed entity is purged, or cleaned
+ * up of its ACLs, in chunks.
+ *
+ */
+@FunctionalInterface
+public interface PurgeProgressListener {
+
+	/**
+	 * Called after each chunk of the sub-tree of the trashed entity is deleted.
+	 *
+	 * @param trashId      The id of the trashed entity being purged
+	 * @param deletedCount The total number of nodes (or ACLs for the ACL
+	 *                     cleanup) deleted so far for the trashed entity
+	 * @return True if the purge should continue, false to stop it. A stopped
+	 *         purge leaves the entity in the trash can and is resumed by the
+	 *         next purge of the same entity.
+	 */
+	boolean onProgress(Long trashId, long deletedCount);
+
+}
@@ -33,6 +33,10 @@ public interface TrashManager {
 
 	/**
 	 * Moves an entity and its descendants out of the trash can. If the new parent is not given (null), will restore to the original parent.
+	 * <p>
+	 * The ACLs in the hierarchy of a trashed container are always dropped: while the ACL cleanup of the hierarchy is pending the restore
+	 * fails with a {@link org.sagebionetworks.repo.web.TemporarilyUnavailableException}, so a restored hierarchy never keeps a part of its
+	 * ACLs.
 	 */
 	void restoreFromTrash(UserInfo currrentUser, String nodeId, String newParentId) throws NotFoundException, DatastoreException, UnauthorizedException;
 
@@ -75,5 +79,43 @@ public interface TrashManager {
 	 * @param purgeCallback optional
 	 */
 	void purgeTrash(UserInfo user, List<Long> trashIDs);
+
+	/**
+	 * Purges the trashed entity with the given id. The sub-tree of the entity is
+	 * deleted starting from the deepest containers, in bounded chunks each with
+	 * its own short transaction, so there is no limit on the size of the
+	 * sub-tree. The ACLs of each chunk are deleted with its nodes. The listener is notified after each chunk and can stop the purge,
+	 * in which case the entity stays in the trash can and a following call
+	 * resumes from what is left of the sub-tree. User calling this must be an
+	 * admin.
+	 *
+	 * @param user     must be an admin user.
+	 * @param trashId  The id of the trashed entity
+	 * @param listener Notified with the progress of the purge
+	 * @return True if the entity was purged and removed from the trash can, false
+	 *         if the purge was stopped by the listener
+	 */
+	boolean purgeTrash(UserInfo user, Long trashId, PurgeProgressListener listener);
+	
+	/**
+	 * @param limit
+	 * @return The ids of up to limit trashed entities whose hierarchy still contains ACLs to delete
+	 */
+	List<Long> getTrashWithPendingAclCleanup(long limit);
+	
+	/**
+	 * Deletes the ACLs in the sub-tree of the trashed entity with the given id.
+	 * The containers of the sub-tree are paged in ID order, the ACLs of the
+	 * children of each page are deleted in their own short transaction followed
+	 * by a checkpoint with the last container of the page. The listener is
+	 * notified after each chunk and can stop the cleanup, in which case a
+	 * following call resumes from the checkpoint.
+	 * 
+	 * @param trashId  The id of the trashed entity
+	 * @param listener Notified with the number of ACLs deleted so far
+	 * @return True if the cleanup is complete (or there was nothing to clean up),
+	 *         false if it was stopped by the listener
+	 */
+	boolean deleteAclsInTrashedHierarchy(Long trashId, PurgeProgressListener listener);
 	
 }
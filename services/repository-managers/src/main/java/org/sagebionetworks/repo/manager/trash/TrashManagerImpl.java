@@ -2,10 +2,8 @@ package org.sagebionetworks.repo.manager.trash;
 
 import java.util.Collections;
 import java.util.Date;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 import org.sagebionetworks.repo.manager.AuthorizationManager;
 import org.sagebionetworks.repo.manager.ProjectSettingsManager;
@@ -14,7 +12,6 @@ import org.sagebionetworks.repo.model.AccessControlList;
 import org.sagebionetworks.repo.model.AccessControlListDAO;
 import org.sagebionetworks.repo.model.DatastoreException;
 import org.sagebionetworks.repo.model.EntityType;
-import org.sagebionetworks.repo.model.LimitExceededException;
 import org.sagebionetworks.repo.model.Node;
 import org.sagebionetworks.repo.model.NodeDAO;
 import org.sagebionetworks.repo.model.ObjectType;
@@ -22,6 +19,7 @@ import org.sagebionetworks.repo.model.TrashedEntity;
 import org.sagebionetworks.repo.model.UnauthorizedException;
 import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.dbo.dao.NodeUtils;
+import org.sagebionetworks.repo.model.dbo.trash.DBOTrashAclCleanup;
 import org.sagebionetworks.repo.model.dbo.trash.TrashCanDao;
 import org.sagebionetworks.repo.model.jdo.KeyFactory;
 import org.sagebionetworks.repo.model.message.ChangeType;
@@ -31,19 +29,21 @@ import org.sagebionetworks.repo.model.project.UploadDestinationListSetting;
 import org.sagebionetworks.repo.model.util.AccessControlListUtil;
 import org.sagebionetworks.repo.transactions.WriteTransaction;
 import org.sagebionetworks.repo.web.NotFoundException;
+import org.sagebionetworks.repo.web.TemporarilyUnavailableException;
 import org.sagebionetworks.util.ValidateArgument;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.google.common.collect.Lists;
+
 @Service
 public class TrashManagerImpl implements TrashManager {
 	
 	/**
-	 * The maximum number of sub-folder IDs that can be loaded into memory.
+	 * The maximum number of IDs loaded or deleted with a single database call
+	 * while walking a hierarchy.
 	 */
-	public static final int MAX_IDS_TO_LOAD = 10*1000;
-
-	private static final String UNABLE_TO_DELETE_TOO_MANY_SUB_FOLDERS = "Unable to delete a project/folder with more than "+MAX_IDS_TO_LOAD+" sub-folders. Please delete the sub-folders first.";
+	public static final int CHUNK_SIZE = 1000;
 
 	@Autowired
 	private AuthorizationManager authorizationManager;
@@ -95,32 +95,76 @@ public class TrashManagerImpl implements TrashManager {
 		final String trashCanId = KeyFactory.keyToString(TrashConstants.TRASH_FOLDER_ID);
 		node.setParentId(trashCanId);
 		updateNodeForTrashCan(currentUser, node, ChangeType.DELETE);
-		deleteAllAclsInHierarchy(nodeId);
+		// If this node has an ACL then delete it.
+		aclDAO.delete(nodeId, ObjectType.ENTITY);
 		// Update the trash can table
 		String userGroupId = currentUser.getId().toString();
 		trashCanDao.create(userGroupId, nodeId, oldNodeName, oldParentId, priorityPurge);
+		// The ACLs in the rest of the hierarchy are deleted by a worker, outside of this transaction
+		if (NodeUtils.isProjectOrFolder(node.getNodeType())) {
+			trashCanDao.createAclCleanup(KeyFactory.stringToKey(nodeId));
+		}
 	}
-
-	/**
-	 * Delete all ACLs in the entire hierarchy defined by the given parent
-	 * ID.
-	 * @param nodeId
+	
+	@Override
+	public List<Long> getTrashWithPendingAclCleanup(long limit) {
+		ValidateArgument.requirement(limit >= 0L, "Limit cannot be < 0");
+		return trashCanDao.getAclCleanupNodeIds(limit);
+	}
+	
+	/*
+	 * Not a transaction: the ACLs of each page of containers are deleted in
+	 * their own transaction followed by the update of the checkpoint, so that a
+	 * stopped or failed cleanup resumes after the last page that was processed.
 	 */
-	void deleteAllAclsInHierarchy(final String nodeId) {
-		// If this node has an ACL then delete it.
-		aclDAO.delete(nodeId, ObjectType.ENTITY);
+	@Override
+	public boolean deleteAclsInTrashedHierarchy(Long trashId, PurgeProgressListener listener) {
+		ValidateArgument.required(trashId, "The trash id");
+		ValidateArgument.required(listener, "The listener");
 		
-		// Delete all ACLs within the hierarchy
-		// Get the list of all parentIds for this hierarchy.
-		Set<Long> allParentIds;
-		try {
-			allParentIds = nodeDao.getAllContainerIds(nodeId, MAX_IDS_TO_LOAD);
-		} catch (LimitExceededException e) {
-			throw new IllegalArgumentException(UNABLE_TO_DELETE_TOO_MANY_SUB_FOLDERS);
+		Optional<DBOTrashAclCleanup> checkpoint = trashCanDao.getAclCleanup(trashId);
+		
+		if (!checkpoint.isPresent()) {
+			return true;
+		}
+		
+		// Only a page of the containers of the hierarchy is loaded at a time, starting after the checkpoint
+		Long afterId = checkpoint.get().getLastParentId();
+		
+		long deletedCount = 0;
+		
+		List<Long> parentIds;
+		
+		while (!(parentIds = nodeDao.getSubTreeContainerIdsPage(trashId, afterId, CHUNK_SIZE)).isEmpty()) {
+			// The entity might have been purged in the meanwhile
+			if (!trashCanDao.getAclCleanup(trashId).isPresent()) {
+				return true;
+			}
+			deletedCount += deleteChildAcls(parentIds);
+			afterId = parentIds.get(parentIds.size() - 1);
+			trashCanDao.updateAclCleanupCheckpoint(trashId, afterId);
+			if (!listener.onProgress(trashId, deletedCount)) {
+				return false;
+			}
 		}
-		// Lookup all children with ACLs for the given parents.
-		List<Long> childrenWithAcls = aclDAO.getChildrenEntitiesWithAcls(new LinkedList<Long>(allParentIds));
-		aclDAO.delete(childrenWithAcls, ObjectType.ENTITY);
+		
+		trashCanDao.deleteAclCleanup(trashId);
+		
+		return true;
+	}
+	
+	/**
+	 * Deletes the ACLs of the direct children of the given parents.
+	 * 
+	 * @param parentIds
+	 * @return The number of deleted ACLs
+	 */
+	private long deleteChildAcls(List<Long> parentIds) {
+		List<Long> childrenWithAcls = aclDAO.getChildrenEntitiesWithAcls(parentIds);
+		for (List<Long> chunk : Lists.partition(childrenWithAcls, CHUNK_SIZE)) {
+			aclDAO.delete(chunk, ObjectType.ENTITY);
+		}
+		return childrenWithAcls.size();
 	}
 
 	/**
@@ -154,6 +198,11 @@ public class TrashManagerImpl implements TrashManager {
 		
 		// Make sure the node is in the trash can
 		TrashedEntity trash = trashCanDao.getTrashedEntity(nodeId).orElseThrow(() -> new NotFoundException("The node " + nodeId + " is not in the trash can."));
+		
+		// The ACLs of a trashed hierarchy are always dropped: the node is restored once the worker deleted all of them
+		if (trashCanDao.getAclCleanup(KeyFactory.stringToKey(nodeId)).isPresent()) {
+			throw new TemporarilyUnavailableException("The ACLs in the hierarchy of " + nodeId + " are still being deleted, please try again later.");
+		}
 
 		final String userId = currentUser.getId().toString();
 		final String deletedBy = trash.getDeletedByPrincipalId();
@@ -256,38 +305,71 @@ public class TrashManagerImpl implements TrashManager {
 		
 	}
 	
-	@WriteTransaction
 	@Override
 	public void purgeTrash(UserInfo userInfo, List<Long> trashIDs) {
 		ValidateArgument.required(userInfo, "The user");
 		ValidateArgument.required(trashIDs, "The list of ids");
 		
-		if (!userInfo.isAdmin()) {
-			throw new UnauthorizedException("Only an Administrator can perform this action.");
-		}
+		validateIsAdmin(userInfo);
 	
-		trashIDs.forEach(this::deleteNode);
-		
-		trashCanDao.delete(trashIDs);
+		trashIDs.forEach(trashId -> purgeTrash(userInfo, trashId, (id, deletedCount) -> true));
 	}
 	
+	/*
+	 * Not a transaction: each chunk of the sub-tree is deleted in its own
+	 * transaction, what was deleted stays deleted if the purge is stopped or
+	 * fails, and the next purge of the same entity only walks what is left. The
+	 * ACLs of each chunk are deleted before its nodes: the ACL table has no
+	 * foreign key to the nodes, and the purge does not rely on the pending ACL
+	 * cleanup of the hierarchy.
+	 */
 	@Override
-	public List<Long> getTrashLeavesBefore(long numDays, long maxTrashItems) throws DatastoreException{
-		return trashCanDao.getTrashLeavesIds(numDays, maxTrashItems);
-	}
-	
-	private void deleteNode(Long nodeId) {
-		boolean deleted = false;
+	public boolean purgeTrash(UserInfo userInfo, Long trashId, PurgeProgressListener listener) {
+		ValidateArgument.required(userInfo, "The user");
+		ValidateArgument.required(trashId, "The trash id");
+		ValidateArgument.required(listener, "The listener");
 		
-		String keyId = KeyFactory.keyToString(nodeId);
+		validateIsAdmin(userInfo);
 		
-		do {
-			deleted = nodeDao.deleteTree(keyId, MAX_IDS_TO_LOAD);
-		} while (!deleted);
+		long deletedCount = 0;
 		
+		List<Long> parentIds;
+		
+		// Only a chunk of the deepest containers is loaded at a time, all their descendants with children are in the same chunk
+		while (!(parentIds = nodeDao.getSubTreeParentIdsDeepestFirst(trashId, CHUNK_SIZE)).isEmpty()) {
+			deleteChildAcls(parentIds);
+			int deleted;
+			do {
+				deleted = nodeDao.deleteChildren(parentIds, CHUNK_SIZE);
+				deletedCount += deleted;
+				if (deleted > 0 && !listener.onProgress(trashId, deletedCount)) {
+					return false;
+				}
+			} while (deleted == CHUNK_SIZE);
+		}
+		
+		String keyId = KeyFactory.keyToString(trashId);
 		
 		aclDAO.delete(keyId, ObjectType.ENTITY);
+		// The ACLs of the hierarchy were deleted with its nodes
+		trashCanDao.deleteAclCleanup(trashId);
+		nodeDao.delete(keyId);
+		trashCanDao.delete(Collections.singletonList(trashId));
+		
+		listener.onProgress(trashId, deletedCount + 1);
 		
+		return true;
+	}
+	
+	@Override
+	public List<Long> getTrashLeavesBefore(long numDays, long maxTrashItems) throws DatastoreException{
+		return trashCanDao.getTrashLeavesIds(numDays, maxTrashItems);
+	}
+	
+	private static void validateIsAdmin(UserInfo userInfo) {
+		if (!userInfo.isAdmin()) {
+			throw new UnauthorizedException("Only an Administrator can perform this action.");
+		}
 	}
 
 }
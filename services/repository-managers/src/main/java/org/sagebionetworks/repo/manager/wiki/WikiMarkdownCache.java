@@ -0,0 +1,37 @@
+package org.sagebionetworks.repo.manager.wiki;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.sagebionetworks.repo.model.v2.wiki.V2WikiPage;
+import org.sagebionetworks.repo.web.NotFoundException;
+
+/**
+ * Local cache of the decompressed markdown of the wiki pages. Each version of a wiki page is cached under the id
+ * of the wiki and the id of the markdown file handle of the version, and an entry is only served while the etag of the wiki matches the
+ * etag of the page it was loaded for. The entries of a wiki are evicted when a WIKI change message is sent for it.
+ */
+public interface WikiMarkdownCache {
+
+	/**
+	 * Get the decompressed markdown of the given page.
+	 *
+	 * @param page A version of a wiki page, as returned by the V2WikiPageDao
+	 * @return
+	 * @throws IOException
+	 * @throws NotFoundException If the markdown file handle of the page does not exist
+	 */
+	String getMarkdown(V2WikiPage page) throws IOException;
+
+	/**
+	 * Load the decompressed markdown stored in each of the given file handles. The file handles are fetched with a single query and the
+	 * markdown files are then read from S3 concurrently, with a bounded number of reads in flight.
+	 *
+	 * @param markdownFileHandleIds
+	 * @return Map from the markdown file handle id to its markdown. File handles that do not exist are excluded.
+	 * @throws IOException
+	 */
+	Map<String, String> loadMarkdown(List<String> markdownFileHandleIds) throws IOException;
+
+}
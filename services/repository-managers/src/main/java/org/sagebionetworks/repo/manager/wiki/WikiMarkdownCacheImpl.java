@@ -0,0 +1,259 @@
+package org.sagebionetworks.repo.manager.wiki;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import javax.annotation.PostConstruct;
+
+import org.sagebionetworks.repo.model.ObjectType;
+import org.sagebionetworks.repo.model.dbo.file.FileHandleDao;
+import org.sagebionetworks.repo.model.file.FileHandle;
+import org.sagebionetworks.repo.model.file.S3FileHandle;
+import org.sagebionetworks.repo.model.message.ChangeMessage;
+import org.sagebionetworks.repo.model.message.LocalStackMessage;
+import org.sagebionetworks.repo.model.message.TransactionalMessenger;
+import org.sagebionetworks.repo.model.message.TransactionalMessengerObserver;
+import org.sagebionetworks.repo.model.v2.dao.V2WikiPageDao;
+import org.sagebionetworks.repo.model.v2.wiki.V2WikiPage;
+import org.sagebionetworks.repo.web.NotFoundException;
+import org.sagebionetworks.util.ValidateArgument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+@Service
+public class WikiMarkdownCacheImpl implements WikiMarkdownCache, TransactionalMessengerObserver {
+
+	/**
+	 * The maximum number of markdown files read from S3 concurrently
+	 */
+	static final int MAX_CONCURRENT_READS = 10;
+
+	/**
+	 * The maximum number of markdown characters kept in the cache
+	 */
+	static final long MAX_CACHE_CHARACTERS = 20_000_000L;
+
+	static final Duration CACHE_DURATION = Duration.ofHours(1);
+
+	private final V2WikiPageDao wikiPageDao;
+
+	private final FileHandleDao fileHandleDao;
+
+	private final TransactionalMessenger transactionalMessenger;
+
+	private final ExecutorService threadPool;
+
+	private final Cache<WikiVersionKey, WikiContent> contentCache;
+
+	@Autowired
+	public WikiMarkdownCacheImpl(V2WikiPageDao wikiPageDao, FileHandleDao fileHandleDao, TransactionalMessenger transactionalMessenger,
+			ExecutorService cachedThreadPool) {
+		this.wikiPageDao = wikiPageDao;
+		this.fileHandleDao = fileHandleDao;
+		this.transactionalMessenger = transactionalMessenger;
+		this.threadPool = cachedThreadPool;
+		this.contentCache = CacheBuilder.newBuilder()
+				.maximumWeight(MAX_CACHE_CHARACTERS)
+				.weigher((WikiVersionKey key, WikiContent content) -> content.getWeight())
+				.expireAfterAccess(CACHE_DURATION)
+				.build();
+	}
+
+	/**
+	 * Registers the cache as an observer of the TransactionalMessenger, so that the entries of a wiki are evicted when the wiki changes.
+	 */
+	@PostConstruct
+	public void initialize() {
+		// We only want to be in the list once
+		transactionalMessenger.removeObserver(this);
+		transactionalMessenger.registerObserver(this);
+	}
+
+	@Override
+	public String getMarkdown(V2WikiPage page) throws IOException {
+		return getContent(page).getMarkdown();
+	}
+
+	/**
+	 * Get the cached content of the given page, the content is loaded when it is not cached or was cached for a different etag.
+	 *
+	 * @param page
+	 * @return
+	 * @throws IOException
+	 * @throws NotFoundException If the markdown file handle of the page does not exist
+	 */
+	WikiContent getContent(V2WikiPage page) throws IOException {
+		ValidateArgument.required(page, "page");
+		ValidateArgument.required(page.getId(), "page.id");
+		ValidateArgument.required(page.getMarkdownFileHandleId(), "page.markdownFileHandleId");
+		WikiVersionKey key = new WikiVersionKey(page);
+		WikiContent content = contentCache.getIfPresent(key);
+		if (content != null && Objects.equals(content.getEtag(), page.getEtag())) {
+			return content;
+		}
+		String markdown = wikiPageDao.getMarkdownForFileHandles(Collections.singletonList(page.getMarkdownFileHandleId()))
+				.get(page.getMarkdownFileHandleId());
+		if (markdown == null) {
+			throw new NotFoundException("The markdown file handle " + page.getMarkdownFileHandleId() + " of the wiki " + page.getId()
+					+ " does not exist");
+		}
+		content = new WikiContent(page.getEtag(), markdown);
+		contentCache.put(key, content);
+		return content;
+	}
+
+	@Override
+	public Map<String, String> loadMarkdown(List<String> markdownFileHandleIds) throws IOException {
+		ValidateArgument.required(markdownFileHandleIds, "markdownFileHandleIds");
+		Map<String, String> results = new LinkedHashMap<>(markdownFileHandleIds.size());
+		if (markdownFileHandleIds.isEmpty()) {
+			return results;
+		}
+		List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(markdownFileHandleIds));
+
+		// The file handles are fetched with a single query, only the S3 reads are done concurrently
+		Map<String, FileHandle> handles = fileHandleDao.getAllFileHandlesBatch(distinctIds);
+
+		// Bounds the number of reads in flight, a read is submitted as soon as another completes
+		Semaphore permits = new Semaphore(MAX_CONCURRENT_READS);
+		Map<String, Future<String>> futures = new LinkedHashMap<>(handles.size());
+
+		for (String fileHandleId : distinctIds) {
+			FileHandle handle = handles.get(fileHandleId);
+			if (handle == null) {
+				continue;
+			}
+			acquire(permits);
+			try {
+				futures.put(fileHandleId, threadPool.submit(() -> {
+					try {
+						return wikiPageDao.readMarkdown((S3FileHandle) handle);
+					} finally {
+						permits.release();
+					}
+				}));
+			} catch (RejectedExecutionException ex) {
+				permits.release();
+				throw ex;
+			}
+		}
+
+		for (Map.Entry<String, Future<String>> future : futures.entrySet()) {
+			results.put(future.getKey(), waitFor(future.getValue()));
+		}
+
+		return results;
+	}
+
+	private static void acquire(Semaphore permits) {
+		try {
+			permits.acquire();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static <T> T waitFor(Future<T> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(ex);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof IOException) {
+				throw (IOException) ex.getCause();
+			}
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			throw new IllegalStateException(ex.getCause());
+		}
+	}
+
+	@Override
+	public void fireChangeMessage(ChangeMessage message) {
+		if (ObjectType.WIKI == message.getObjectType()) {
+			String wikiId = message.getObjectId();
+			contentCache.asMap().keySet().removeIf(key -> key.wikiId.equals(wikiId));
+		}
+	}
+
+	@Override
+	public void fireLocalStackMessage(LocalStackMessage message) {
+		// Nothing to do
+	}
+
+	/**
+	 * Identifies a version of a wiki: each version of the markdown is stored in its own file handle.
+	 */
+	private static final class WikiVersionKey {
+
+		private final String wikiId;
+		private final String markdownFileHandleId;
+
+		WikiVersionKey(V2WikiPage page) {
+			this.wikiId = page.getId();
+			this.markdownFileHandleId = page.getMarkdownFileHandleId();
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(markdownFileHandleId, wikiId);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof WikiVersionKey)) {
+				return false;
+			}
+			WikiVersionKey other = (WikiVersionKey) obj;
+			return Objects.equals(markdownFileHandleId, other.markdownFileHandleId) && Objects.equals(wikiId, other.wikiId);
+		}
+	}
+
+	/**
+	 * The cached content of a version of a wiki, for the etag of the wiki when it was loaded.
+	 */
+	static final class WikiContent {
+
+		private final String etag;
+		private final String markdown;
+
+		WikiContent(String etag, String markdown) {
+			this.etag = etag;
+			this.markdown = markdown;
+		}
+
+		int getWeight() {
+			return markdown.length();
+		}
+
+		String getEtag() {
+			return etag;
+		}
+
+		String getMarkdown() {
+			return markdown;
+		}
+	}
+
+}
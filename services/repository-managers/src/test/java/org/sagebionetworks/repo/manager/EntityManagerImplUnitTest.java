@@ -63,6 +63,7 @@ import org.sagebionetworks.repo.model.EntityHeader;
 import org.sagebionetworks.repo.model.EntityId;
 import org.sagebionetworks.repo.model.EntityType;
 import org.sagebionetworks.repo.model.FileEntity;
+import org.sagebionetworks.repo.model.KeysetNextPageToken;
 import org.sagebionetworks.repo.model.NextPageToken;
 import org.sagebionetworks.repo.model.Node;
 import org.sagebionetworks.repo.model.ObjectType;
@@ -457,9 +458,10 @@ public class EntityManagerImplUnitTest {
 	 */
 	@Test
 	public void testGetChildrenNullParentId() {
-
-		when(mockNodeManager.getChildren(anyString(), anyListOf(EntityType.class), anySetOf(Long.class),
-				any(SortBy.class), any(Direction.class), anyLong(), anyLong())).thenReturn(childPage);
+		Set<Long> groups = Sets.newHashSet(1L, 2L);
+		when(mockUser.getGroups()).thenReturn(groups);
+		when(mockNodeManager.getVisibleChildren(anyString(), anyListOf(EntityType.class), any(), any(SortBy.class),
+				any(Direction.class), any(), any(), anyLong())).thenReturn(childPage);
 
 		ChildStatsResponse statsReponse = new ChildStatsResponse().withSumFileSizesBytes(123L).withTotalChildCount(4L);
 		when(mockNodeManager.getChildrenStats(any(ChildStatsRequest.class))).thenReturn(statsReponse);
@@ -469,12 +471,67 @@ public class EntityManagerImplUnitTest {
 		// call under test
 		EntityChildrenResponse response = entityManager.getChildren(mockUser, childRequest);
 		assertNotNull(response);
+		assertEquals(childPage, response.getPage());
+		assertNull(response.getNextPageToken());
+		assertEquals(statsReponse.getTotalChildCount(), response.getTotalChildCount());
 		// hasAcces should not be called for root.
 		verify(mockAuthorizationManger, never()).hasAccess(any(UserInfo.class), anyString(), any(ACCESS_TYPE.class));
-		verify(mockEntityAclManager).getNonvisibleChildren(mockUser, EntityManagerImpl.ROOT_ID);
-		verify(mockNodeManager).getChildren(EntityManagerImpl.ROOT_ID, EntityManagerImpl.PROJECT_ONLY,
-				new HashSet<Long>(), SortBy.NAME, Direction.ASC, NextPageToken.DEFAULT_LIMIT + 1,
-				NextPageToken.DEFAULT_OFFSET);
+		// the non-visible projects are not gathered.
+		verify(mockEntityAclManager, never()).getNonvisibleChildren(any(), any());
+		verify(mockNodeManager, never()).getChildren(any(), any(), any(), any(), any(), anyLong(), anyLong());
+		verify(mockNodeManager).getVisibleChildren(EntityManagerImpl.ROOT_ID, EntityManagerImpl.PROJECT_ONLY,
+				groups, SortBy.NAME, Direction.ASC, null, null, KeysetNextPageToken.DEFAULT_LIMIT + 1);
+		verify(mockNodeManager).getChildrenStats(new ChildStatsRequest().withParentId(EntityManagerImpl.ROOT_ID)
+				.withIncludeTypes(EntityManagerImpl.PROJECT_ONLY).withVisibleToGroups(groups)
+				.withIncludeTotalChildCount(childRequest.getIncludeTotalChildCount())
+				.withIncludeSumFileSizes(childRequest.getIncludeSumFileSizes()));
+	}
+	
+	@Test
+	public void testGetChildrenNullParentIdAsAdmin() {
+		when(mockUser.isAdmin()).thenReturn(true);
+		when(mockNodeManager.getVisibleChildren(anyString(), anyListOf(EntityType.class), any(), any(SortBy.class),
+				any(Direction.class), any(), any(), anyLong())).thenReturn(childPage);
+		when(mockNodeManager.getChildrenStats(any(ChildStatsRequest.class))).thenReturn(new ChildStatsResponse());
+
+		childRequest.setParentId(null);
+		childRequest.setIncludeTypes(null);
+		// call under test
+		entityManager.getChildren(mockUser, childRequest);
+		// administrators see all projects.
+		verify(mockNodeManager).getVisibleChildren(EntityManagerImpl.ROOT_ID, EntityManagerImpl.PROJECT_ONLY,
+				null, SortBy.NAME, Direction.ASC, null, null, KeysetNextPageToken.DEFAULT_LIMIT + 1);
+		verify(mockNodeManager).getChildrenStats(statsRequestCaptor.capture());
+		assertNull(statsRequestCaptor.getValue().getVisibleToGroups());
+	}
+	
+	@Test
+	public void testGetChildrenNullParentIdNextPage() {
+		Set<Long> groups = Sets.newHashSet(1L, 2L);
+		when(mockUser.getGroups()).thenReturn(groups);
+		long limit = 2L;
+		childPage.clear();
+		for (int i = 0; i < limit + 1; i++) {
+			EntityHeader header = new EntityHeader();
+			header.setId("syn" + (100 + i));
+			header.setName("name" + i);
+			childPage.add(header);
+		}
+		when(mockNodeManager.getVisibleChildren(anyString(), anyListOf(EntityType.class), any(), any(SortBy.class),
+				any(Direction.class), any(), any(), anyLong())).thenReturn(childPage);
+		when(mockNodeManager.getChildrenStats(any(ChildStatsRequest.class))).thenReturn(new ChildStatsResponse());
+
+		childRequest.setParentId(null);
+		childRequest.setIncludeTypes(null);
+		childRequest.setSortDirection(Direction.DESC);
+		childRequest.setNextPageToken(new KeysetNextPageToken(limit, 99L, "name").toToken());
+		// call under test
+		EntityChildrenResponse response = entityManager.getChildren(mockUser, childRequest);
+		verify(mockNodeManager).getVisibleChildren(EntityManagerImpl.ROOT_ID, EntityManagerImpl.PROJECT_ONLY,
+				groups, SortBy.NAME, Direction.DESC, 99L, "name", limit + 1);
+		assertEquals(2, response.getPage().size());
+		// the next page starts after the last project of this page.
+		assertEquals(new KeysetNextPageToken(limit, 101L, "name1").toToken(), response.getNextPageToken());
 	}
 
 	@Test
@@ -23,6 +23,7 @@ import static org.mockito.Mockito.when;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.jupiter.api.Assertions;
@@ -1859,9 +1860,9 @@ public class NodeManagerImplUnitTest {
 		when(mockAuthManager.batchHasAccess(any(), any(), any())).thenReturn(List.of(new UsersEntityAccessInfo().withEntityId(123L).withAuthorizationStatus(AuthorizationStatus.authorized()),
 				new UsersEntityAccessInfo().withEntityId(124L).withAuthorizationStatus(AuthorizationStatus.authorized()),
 				new UsersEntityAccessInfo().withEntityId(125L).withAuthorizationStatus(AuthorizationStatus.authorized())));
-		when(mockNodeDao.getEntityPath(any())).thenReturn(List.of(new NameIdType().withName("root").withId("123").withType("foo"),				
+		when(mockNodeDao.getEntityPaths(any())).thenReturn(Map.of(123L, List.of(new NameIdType().withName("root").withId("123").withType("foo"),				
 				new NameIdType().withName("parent").withId("124").withType("bar"),
-				new NameIdType().withName("child").withId("125").withType("baz")));
+				new NameIdType().withName("child").withId("125").withType("baz"))));
 
 		// Call under test
 		List<EntityHeader> entityHeaders = nodeManager.getNodePath(mockUserInfo, nodeId);
@@ -1871,7 +1872,7 @@ public class NodeManagerImplUnitTest {
 
 		assertEquals(entityHeaders, expectedEntityHeaders);
 		verify(mockAuthManager).hasAccess(mockUserInfo, nodeId, ACCESS_TYPE.READ);
-		verify(mockNodeDao).getEntityPath(nodeId);
+		verify(mockNodeDao).getEntityPaths(Set.of(123L));
 	}
 
 	@Test
@@ -1881,7 +1882,7 @@ public class NodeManagerImplUnitTest {
 		// Call under test
 		assertThrows(UnauthorizedException.class, () -> nodeManager.getNodePath(mockUserInfo, nodeId));
 		verify(mockAuthManager).hasAccess(mockUserInfo, nodeId, ACCESS_TYPE.READ);
-		verify(mockNodeDao, never()).getEntityPath(nodeId);
+		verify(mockNodeDao, never()).getEntityPaths(any());
 		verify(mockAuthManager, never()).batchHasAccess(any(), any(), any());
 	}
 
@@ -1891,10 +1892,10 @@ public class NodeManagerImplUnitTest {
 		when(mockAuthManager.batchHasAccess(any(), any(), any())).thenReturn(List.of(new UsersEntityAccessInfo().withEntityId(124L).withAuthorizationStatus(AuthorizationStatus.accessDenied("ACCESS_DENIED")),
 				new UsersEntityAccessInfo().withEntityId(125L).withAuthorizationStatus(AuthorizationStatus.accessDenied("ACCESS_DENIED")),
 				new UsersEntityAccessInfo().withEntityId(126L).withAuthorizationStatus(AuthorizationStatus.authorized())));
-		when(mockNodeDao.getEntityPath(any())).thenReturn(List.of(new NameIdType().withName("root").withId("123").withType("foo"),
+		when(mockNodeDao.getEntityPaths(any())).thenReturn(Map.of(123L, List.of(new NameIdType().withName("root").withId("123").withType("foo"),
 				new NameIdType().withName("grandparent").withId("124").withType("bar"),
 				new NameIdType().withName("parent").withId("125").withType("baz"),
-				new NameIdType().withName("child").withId("126").withType("qux")));
+				new NameIdType().withName("child").withId("126").withType("qux"))));
 
 		// Call under test
 		List<EntityHeader> entityHeaders = nodeManager.getNodePath(mockUserInfo, nodeId);
@@ -1905,7 +1906,33 @@ public class NodeManagerImplUnitTest {
 		
 		assertEquals(entityHeaders, expectedEntityHeaders);
 		verify(mockAuthManager).hasAccess(mockUserInfo, nodeId, ACCESS_TYPE.READ);
-		verify(mockNodeDao).getEntityPath(nodeId);
+		verify(mockNodeDao).getEntityPaths(Set.of(123L));
+	}
+	
+	@Test
+	public void testGetNodePathWithNotFound() {
+		when(mockAuthManager.hasAccess(any(), any(), any())).thenReturn(AuthorizationStatus.authorized());
+		when(mockNodeDao.getEntityPaths(any())).thenReturn(Map.of());
+
+		String message = assertThrows(NotFoundException.class, () -> {
+			// Call under test
+			nodeManager.getNodePath(mockUserInfo, nodeId);
+		}).getMessage();
+		
+		assertEquals("Cannot find a node with id: 123", message);
+		verify(mockAuthManager, never()).batchHasAccess(any(), any(), any());
+	}
+	
+	@Test
+	public void testGetNodePathAsAdmin() {
+		when(mockNodeDao.getEntityPaths(any())).thenReturn(Map.of(123L, List.of(new NameIdType().withName("root").withId("123").withType("foo"))));
+
+		// Call under test
+		List<EntityHeader> entityHeaders = nodeManager.getNodePathAsAdmin(nodeId);
+		
+		assertEquals(List.of(new EntityHeader().setName("root").setId("123").setType("foo")), entityHeaders);
+		verify(mockNodeDao).getEntityPaths(Set.of(123L));
+		verifyNoMoreInteractions(mockAuthManager);
 	}
 	
 }
@@ -17,6 +17,7 @@ import org.sagebionetworks.repo.model.v2.dao.V2WikiPageDao;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Optional;
@@ -25,8 +26,11 @@ import java.util.Set;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 public class ProjectStatsManagerImplTest {
@@ -70,7 +74,7 @@ public class ProjectStatsManagerImplTest {
 		projectId = 456L;
 		projectIdString = KeyFactory.keyToString(projectId);
 		entityId = "syn123";
-		when(mockNodeDao.getProjectId(entityId)).thenReturn(Optional.of(projectIdString));
+		when(mockNodeDao.getProjectIds(Collections.singleton(KeyFactory.stringToKey(entityId)))).thenReturn(Collections.singletonMap(KeyFactory.stringToKey(entityId), projectId));
 		
 		wikiId = "999";
 		when(mockV2wikiPageDao.lookupWikiKey(wikiId)).thenReturn(WikiPageKeyHelper.createWikiPageKey(entityId,ObjectType.ENTITY , wikiId));
@@ -112,7 +116,7 @@ public class ProjectStatsManagerImplTest {
 	@Test
 	public void testGetProjectForObjectNotFound(){
 		// setup a not found case
-		when(mockNodeDao.getProjectId(entityId)).thenReturn(Optional.empty());
+		when(mockNodeDao.getProjectIds(Collections.singleton(KeyFactory.stringToKey(entityId)))).thenReturn(Collections.emptyMap());
 		ObjectType type = ObjectType.ENTITY;
 		// call under test
 		Optional<String> projectIdLookup = manager.getProjectForObject(entityId, type);
@@ -127,30 +131,79 @@ public class ProjectStatsManagerImplTest {
 		Date activityDate = new Date(1);
 		// call under test
 		manager.updateProjectStats(userId, entityId, type, activityDate);
+		// nothing is written until flushed
+		verify(mockProjectStatDao, never()).updateProjectStat(any());
+		assertEquals(1, manager.getPendingCount());
+		
+		manager.flushProjectStats();
+		
 		verify(mockProjectStatDao).updateProjectStat(new ProjectStat(projectId, userId, activityDate));
 		verify(mockGroupMemberDao, never()).getMemberIds(anyLong());
+		assertEquals(0, manager.getPendingCount());
+	}
+	
+	@Test
+	public void testUpdateProjectStatsUserKeepsLatest(){
+		Long userId = 707L;
+		when(mockUserGroupDao.isIndividual(userId)).thenReturn(true);
+		ObjectType type = ObjectType.ENTITY;
+		// call under test
+		manager.updateProjectStats(userId, entityId, type, new Date(3));
+		manager.updateProjectStats(userId, entityId, type, new Date(5));
+		manager.updateProjectStats(userId, entityId, type, new Date(4));
+		
+		assertEquals(1, manager.getPendingCount());
+		
+		manager.flushProjectStats();
+		
+		// a single upsert with the latest access
+		verify(mockProjectStatDao).updateProjectStat(new ProjectStat(projectId, userId, new Date(5)));
 	}
 	
 	@Test
 	public void testUpdateProjectStatsTeam(){
 		Long principalId = 707L;
 		when(mockUserGroupDao.isIndividual(principalId)).thenReturn(false);
-		Long memberIdOne = 111L;
-		Long memberIdTwo = 222L;
+		Long memberIdOne = 222L;
+		Long memberIdTwo = 111L;
 		when(mockGroupMemberDao.getMemberIds(principalId)).thenReturn(Sets.newLinkedHashSet(Arrays.asList(memberIdOne, memberIdTwo)));
 
 		ObjectType type = ObjectType.ENTITY;
 		Date activityDate = new Date(1);
 		// call under test
 		manager.updateProjectStats(principalId, entityId, type, activityDate);
-		// stats should be updated for each member
+		// the team is not expanded on the request path
+		verify(mockGroupMemberDao, never()).getMemberIds(anyLong());
+		
+		manager.flushProjectStats();
+		
+		// stats should be updated for each member, ordered by user
 		ProjectStat[] batchUpdate = new ProjectStat[]{
-				new ProjectStat(projectId, memberIdOne, activityDate),
-				new ProjectStat(projectId, memberIdTwo, activityDate)
+				new ProjectStat(projectId, memberIdTwo, activityDate),
+				new ProjectStat(projectId, memberIdOne, activityDate)
 		};
 		verify(mockProjectStatDao).updateProjectStat(batchUpdate);
 	}
 	
+	@Test
+	public void testUpdateProjectStatsTeamAndMember(){
+		Long teamId = 707L;
+		Long memberId = 111L;
+		when(mockUserGroupDao.isIndividual(teamId)).thenReturn(false);
+		when(mockUserGroupDao.isIndividual(memberId)).thenReturn(true);
+		when(mockGroupMemberDao.getMemberIds(teamId)).thenReturn(Sets.newLinkedHashSet(Arrays.asList(memberId)));
+
+		ObjectType type = ObjectType.ENTITY;
+		// call under test
+		manager.updateProjectStats(teamId, entityId, type, new Date(2));
+		manager.updateProjectStats(memberId, entityId, type, new Date(1));
+		
+		manager.flushProjectStats();
+		
+		// the member's activity is de-duplicated with the team activity
+		verify(mockProjectStatDao).updateProjectStat(new ProjectStat(projectId, memberId, new Date(2)));
+	}
+	
 	@Test
 	public void testUpdateProjectStatsTeamNotMembers(){
 		Long principalId = 707L;
@@ -161,6 +214,7 @@ public class ProjectStatsManagerImplTest {
 		Date activityDate = new Date(1);
 		// call under test
 		manager.updateProjectStats(principalId, entityId, type, activityDate);
+		manager.flushProjectStats();
 		// should not be called
 		verify(mockProjectStatDao, never()).updateProjectStat(any());
 	}
@@ -168,16 +222,84 @@ public class ProjectStatsManagerImplTest {
 	@Test
 	public void testUpdateProjectStatsNotFound(){
 		// setup a not found case
-		when(mockNodeDao.getProjectId(entityId)).thenReturn(Optional.empty());
+		when(mockNodeDao.getProjectIds(Collections.singleton(KeyFactory.stringToKey(entityId)))).thenReturn(Collections.emptyMap());
 		Long userId = 707L;
 		ObjectType type = ObjectType.ENTITY;
 		Date activityDate = new Date(1);
 		// call under test
 		manager.updateProjectStats(userId, entityId, type, activityDate);
 		
+		assertEquals(0, manager.getPendingCount());
+		
+		manager.flushProjectStats();
+		
 		verify(mockProjectStatDao, never()).updateProjectStat(any(ProjectStat.class));
 	}
 	
+	@Test
+	public void testFlushProjectStatsWithNothingPending(){
+		// call under test
+		manager.flushProjectStats();
+		verifyNoMoreInteractions(mockProjectStatDao, mockUserGroupDao, mockGroupMemberDao, mockAuthorizationManager);
+	}
+	
+	@Test
+	public void testFlushProjectStatsBatches(){
+		Long teamId = 707L;
+		when(mockUserGroupDao.isIndividual(teamId)).thenReturn(false);
+		Set<Long> memberIds = new HashSet<>();
+		for (long i = 0; i < ProjectStatsManagerImpl.MAX_BATCH_SIZE + 1; i++) {
+			memberIds.add(i);
+		}
+		when(mockGroupMemberDao.getMemberIds(teamId)).thenReturn(memberIds);
+		manager.updateProjectStats(teamId, entityId, ObjectType.ENTITY, new Date(1));
+		
+		// call under test
+		manager.flushProjectStats();
+		
+		verify(mockProjectStatDao, times(2)).updateProjectStat(any());
+	}
+	
+	@Test
+	public void testFlushProjectStatsWithFailedBatch(){
+		Long userId = 707L;
+		when(mockUserGroupDao.isIndividual(userId)).thenReturn(true);
+		doThrow(new IllegalStateException("nope")).when(mockProjectStatDao).updateProjectStat(any());
+		manager.updateProjectStats(userId, entityId, ObjectType.ENTITY, new Date(1));
+		
+		// call under test
+		manager.flushProjectStats();
+		
+		// the failure is logged and the pending stats are not retried
+		assertEquals(0, manager.getPendingCount());
+	}
+	
+	@Test
+	public void testFlushOnShutdown(){
+		Long userId = 707L;
+		Date activityDate = new Date(1);
+		when(mockUserGroupDao.isIndividual(userId)).thenReturn(true);
+		manager.updateProjectStats(userId, entityId, ObjectType.ENTITY, activityDate);
+		
+		// call under test
+		manager.flushOnShutdown();
+		
+		verify(mockProjectStatDao).updateProjectStat(new ProjectStat[] {new ProjectStat(projectId, userId, activityDate)});
+		assertEquals(0, manager.getPendingCount());
+	}
+	
+	@Test
+	public void testFlushOnShutdownWithException(){
+		Long userId = 707L;
+		doThrow(new IllegalStateException("nope")).when(mockUserGroupDao).isIndividual(userId);
+		manager.updateProjectStats(userId, entityId, ObjectType.ENTITY, new Date(1));
+		
+		// call under test, the failure does not propagate
+		manager.flushOnShutdown();
+		
+		verify(mockProjectStatDao, never()).updateProjectStat(any());
+	}
+	
 	@Test
 	public void testMemberAddedToTeam() {
 		Long teamId = 99L;
@@ -185,14 +307,19 @@ public class ProjectStatsManagerImplTest {
 		Date activityDate = new Date();
 		Long projectId1 = 111L;
 		Long projectId2 = 222L;
-		Set<Long> visibleProjectIds = Sets.newLinkedHashSet(Arrays.asList(projectId1, projectId2));
+		Set<Long> visibleProjectIds = Sets.newLinkedHashSet(Arrays.asList(projectId2, projectId1));
 		// the projects visible to the team
 		when(mockAuthorizationManager.getAccessibleProjectIds(Sets
 						.newLinkedHashSet(Arrays.asList(teamId)))).thenReturn(visibleProjectIds);
 		
 		// call under test
 		manager.memberAddedToTeam(teamId, memberId, activityDate);
-		// batch update
+		// the projects are not looked up on the request path
+		verify(mockAuthorizationManager, never()).getAccessibleProjectIds(any());
+		
+		manager.flushProjectStats();
+		
+		// batch update ordered by project
 		ProjectStat[] batchUpdate = new ProjectStat[]{
 				new ProjectStat(projectId1, memberId, activityDate),
 				new ProjectStat(projectId2, memberId, activityDate)
@@ -212,6 +339,7 @@ public class ProjectStatsManagerImplTest {
 		
 		// call under test
 		manager.memberAddedToTeam(teamId, memberId, activityDate);
+		manager.flushProjectStats();
 		// should not be called
 		verify(mockProjectStatDao, never()).updateProjectStat(any());
 	}
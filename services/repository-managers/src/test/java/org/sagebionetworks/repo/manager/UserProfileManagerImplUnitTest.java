@@ -32,6 +32,7 @@ import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.stubbing.Answer;
+import org.sagebionetworks.repo.manager.authentication.PrincipalAuthenticationCache;
 import org.sagebionetworks.repo.manager.file.FileHandleManager;
 import org.sagebionetworks.repo.manager.file.FileHandleUrlRequest;
 import org.sagebionetworks.repo.model.AuthorizationConstants.BOOTSTRAP_PRINCIPAL;
@@ -84,6 +85,8 @@ public class UserProfileManagerImplUnitTest {
 	NodeDAO mockNodeDao;
 	@Mock
 	AuthenticationDAO mockAuthDao;
+	@Mock
+	PrincipalAuthenticationCache mockPrincipalAuthenticationCache;
 	@InjectMocks
 	UserProfileManagerImpl userProfileManager;
 	
@@ -184,6 +187,7 @@ public class UserProfileManagerImplUnitTest {
 		profile.setProfilePicureFileHandleId(fileHandleId);
 		userProfileManager.updateUserProfile(userInfo, profile);
 		verify(mockProfileDAO).update(any(UserProfile.class));
+		verify(mockPrincipalAuthenticationCache).invalidate(userInfo.getId());
 	}
 	
 	@Test
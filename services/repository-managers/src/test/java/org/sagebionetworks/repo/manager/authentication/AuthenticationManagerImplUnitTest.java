@@ -94,6 +94,8 @@ public class AuthenticationManagerImplUnitTest {
 	private TwoFactorAuthManager mock2FaManager;
 	@Mock
 	private FeatureManager mockFeatureManager;
+	@Mock
+	private PrincipalAuthenticationCache mockPrincipalAuthenticationCache;
 	
 	final Long userId = 12345L;
 	final String username = "AuthManager@test.org";
@@ -155,6 +157,25 @@ public class AuthenticationManagerImplUnitTest {
 		);
 	}
 
+	@Test
+	public void testSetTermsOfUseAcceptance() {
+		// Call under test
+		authManager.setTermsOfUseAcceptance(userId, true);
+		
+		verify(mockAuthDAO).setTermsOfUseAcceptance(userId, true);
+		verify(mockPrincipalAuthenticationCache).invalidate(userId);
+	}
+
+	@Test
+	public void testChangeSecretKey() {
+		// Call under test
+		authManager.changeSecretKey(userId);
+		
+		verify(mockAuthDAO).changeSecretKey(userId);
+		// Secret keys are not cached
+		verifyZeroInteractions(mockPrincipalAuthenticationCache);
+	}
+
 	@Test
 	public void testSetPasswordWithInvalidPassword() {
 		String bannedPassword = "password123";
@@ -31,6 +31,7 @@ import org.sagebionetworks.repo.manager.NotificationManager;
 import org.sagebionetworks.repo.manager.UserManager;
 import org.sagebionetworks.repo.manager.oauth.ClaimsJsonUtil;
 import org.sagebionetworks.repo.manager.oauth.OIDCTokenHelper;
+import org.sagebionetworks.repo.manager.oauth.ValidatedAccessTokenCache;
 import org.sagebionetworks.repo.model.AuthorizationConstants;
 import org.sagebionetworks.repo.model.UnauthenticatedException;
 import org.sagebionetworks.repo.model.UnauthorizedException;
@@ -68,6 +69,8 @@ public class PersonalAccessTokenManagerImplUnitTest {
 	private NotificationManager mockNotificationManager;
 	@Mock
 	private Clock mockClock;
+	@Mock
+	private ValidatedAccessTokenCache mockValidatedAccessTokenCache;
 	
 	private Jwt<JwsHeader, Claims> accessTokenJwt;
 
@@ -443,6 +446,7 @@ public class PersonalAccessTokenManagerImplUnitTest {
 		personalAccessTokenManager.revokeToken(userInfo, TOKEN_ID);
 
 		verify(mockPersonalAccessTokenDao).deleteToken(TOKEN_ID);
+		verify(mockValidatedAccessTokenCache).invalidateTokenId(TOKEN_ID);
 		
 		verify(mockNotificationManager).sendTemplatedNotification(userInfo, "message/PersonalAccessTokenRemovedNotification.html.vtl", "Personal Access Token Removed", 
 			Map.of("tokenName", "tokenName")
@@ -465,6 +469,7 @@ public class PersonalAccessTokenManagerImplUnitTest {
 		personalAccessTokenManager.revokeToken(adminUserInfo, TOKEN_ID);
 
 		verify(mockPersonalAccessTokenDao).deleteToken(TOKEN_ID);
+		verify(mockValidatedAccessTokenCache).invalidateTokenId(TOKEN_ID);
 		
 		verify(mockNotificationManager).sendTemplatedNotification(userInfo, "message/PersonalAccessTokenRemovedNotification.html.vtl", "Personal Access Token Removed", 
 			Map.of("tokenName", "tokenName")
@@ -483,6 +488,7 @@ public class PersonalAccessTokenManagerImplUnitTest {
 		assertThrows(UnauthorizedException. class, () -> personalAccessTokenManager.revokeToken(userInfo, TOKEN_ID));
 
 		verify(mockPersonalAccessTokenDao, never()).deleteToken(TOKEN_ID);
+		verifyZeroInteractions(mockValidatedAccessTokenCache);
 		verifyZeroInteractions(mockNotificationManager);
 	}
 
@@ -0,0 +1,108 @@
+package org.sagebionetworks.repo.manager.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.util.Clock;
+
+@ExtendWith(MockitoExtension.class)
+public class PersonalAccessTokenUsageRecorderImplTest {
+
+	private static final long NOW = 1_000_000L;
+
+	@Mock
+	private PersonalAccessTokenManager mockPersonalAccessTokenManager;
+
+	@Mock
+	private Clock mockClock;
+
+	private PersonalAccessTokenUsageRecorderImpl recorder;
+
+	@BeforeEach
+	public void before() {
+		recorder = new PersonalAccessTokenUsageRecorderImpl(mockPersonalAccessTokenManager, mockClock);
+	}
+
+	@Test
+	public void testRecordUsageCoalesced() {
+		// call under test
+		recorder.recordUsage("1");
+		recorder.recordUsage("1");
+		recorder.recordUsage("2");
+
+		assertEquals(Set.of("1", "2"), recorder.getPendingTokenIds());
+		verifyZeroInteractions(mockPersonalAccessTokenManager);
+
+		when(mockClock.currentTimeMillis()).thenReturn(NOW);
+
+		recorder.timerFired();
+
+		verify(mockPersonalAccessTokenManager).updateLastUsedTime("1");
+		verify(mockPersonalAccessTokenManager).updateLastUsedTime("2");
+		verifyNoMoreInteractions(mockPersonalAccessTokenManager);
+		assertTrue(recorder.getPendingTokenIds().isEmpty());
+	}
+
+	@Test
+	public void testRecordUsageWithinInterval() {
+		when(mockClock.currentTimeMillis()).thenReturn(NOW, NOW + PersonalAccessTokenUsageRecorderImpl.FLUSH_INTERVAL_MS - 1);
+		recorder.recordUsage("1");
+		recorder.timerFired();
+
+		// call under test
+		recorder.recordUsage("1");
+
+		assertTrue(recorder.getPendingTokenIds().isEmpty());
+		verify(mockPersonalAccessTokenManager).updateLastUsedTime("1");
+	}
+
+	@Test
+	public void testRecordUsageAfterInterval() {
+		when(mockClock.currentTimeMillis()).thenReturn(NOW, NOW + PersonalAccessTokenUsageRecorderImpl.FLUSH_INTERVAL_MS);
+		recorder.recordUsage("1");
+		recorder.timerFired();
+
+		// call under test
+		recorder.recordUsage("1");
+
+		assertEquals(Set.of("1"), recorder.getPendingTokenIds());
+	}
+
+	@Test
+	public void testTimerFiredWithNothingPending() {
+		when(mockClock.currentTimeMillis()).thenReturn(NOW);
+
+		// call under test
+		recorder.timerFired();
+
+		verifyZeroInteractions(mockPersonalAccessTokenManager);
+	}
+
+	@Test
+	public void testTimerFiredWithFailure() {
+		when(mockClock.currentTimeMillis()).thenReturn(NOW);
+		doThrow(new IllegalStateException("nope")).when(mockPersonalAccessTokenManager).updateLastUsedTime("1");
+		recorder.recordUsage("1");
+		recorder.recordUsage("2");
+
+		// call under test
+		recorder.timerFired();
+
+		verify(mockPersonalAccessTokenManager).updateLastUsedTime("1");
+		verify(mockPersonalAccessTokenManager).updateLastUsedTime("2");
+		assertTrue(recorder.getPendingTokenIds().isEmpty());
+	}
+
+}
@@ -0,0 +1,183 @@
+package org.sagebionetworks.repo.manager.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.model.auth.AuthenticationDAO;
+import org.sagebionetworks.repo.model.message.TransactionSynchronizationProxy;
+import org.sagebionetworks.repo.model.principal.AliasType;
+import org.sagebionetworks.repo.model.principal.PrincipalAlias;
+import org.sagebionetworks.repo.model.principal.PrincipalAliasDAO;
+import org.sagebionetworks.repo.web.NotFoundException;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+@ExtendWith(MockitoExtension.class)
+public class PrincipalAuthenticationCacheImplTest {
+
+	private static final Long PRINCIPAL_ID = 123L;
+	private static final Long OTHER_PRINCIPAL_ID = 456L;
+	private static final String USERNAME = "username";
+	private static final String EMAIL = "username@test.com";
+
+	@Mock
+	private AuthenticationDAO mockAuthDao;
+
+	@Mock
+	private PrincipalAliasDAO mockPrincipalAliasDao;
+
+	@Mock
+	private TransactionSynchronizationProxy mockTransactionSynchronization;
+
+	@Captor
+	private ArgumentCaptor<TransactionSynchronization> synchronizationCaptor;
+
+	private PrincipalAuthenticationCacheImpl cache;
+
+	@BeforeEach
+	public void before() {
+		cache = new PrincipalAuthenticationCacheImpl(mockAuthDao, mockPrincipalAliasDao, mockTransactionSynchronization);
+	}
+
+	@Test
+	public void testGetPrincipalId() {
+		when(mockPrincipalAliasDao.findPrincipalWithAlias(USERNAME, AliasType.USER_EMAIL, AliasType.USER_NAME))
+				.thenReturn(new PrincipalAlias().setPrincipalId(PRINCIPAL_ID));
+
+		// call under test
+		assertEquals(PRINCIPAL_ID, cache.getPrincipalId(USERNAME));
+		assertEquals(PRINCIPAL_ID, cache.getPrincipalId(USERNAME));
+
+		verify(mockPrincipalAliasDao).findPrincipalWithAlias(USERNAME, AliasType.USER_EMAIL, AliasType.USER_NAME);
+	}
+
+	@Test
+	public void testGetPrincipalIdWithNotFound() {
+		String message = assertThrows(NotFoundException.class, () -> {
+			// call under test
+			cache.getPrincipalId(USERNAME);
+		}).getMessage();
+
+		assertEquals("Did not find a user with alias: username", message);
+
+		assertThrows(NotFoundException.class, () -> {
+			// call under test
+			cache.getPrincipalId(USERNAME);
+		});
+
+		// Not found aliases are not cached
+		verify(mockPrincipalAliasDao, times(2)).findPrincipalWithAlias(USERNAME, AliasType.USER_EMAIL, AliasType.USER_NAME);
+	}
+
+	@Test
+	public void testHasUserAcceptedTermsOfUse() {
+		when(mockAuthDao.hasUserAcceptedToU(PRINCIPAL_ID)).thenReturn(true);
+
+		// call under test
+		assertTrue(cache.hasUserAcceptedTermsOfUse(PRINCIPAL_ID));
+		assertTrue(cache.hasUserAcceptedTermsOfUse(PRINCIPAL_ID));
+
+		verify(mockAuthDao).hasUserAcceptedToU(PRINCIPAL_ID);
+	}
+
+	@Test
+	public void testHasUserAcceptedTermsOfUseWithNotAccepted() {
+		when(mockAuthDao.hasUserAcceptedToU(PRINCIPAL_ID)).thenReturn(false, true);
+
+		// call under test
+		assertFalse(cache.hasUserAcceptedTermsOfUse(PRINCIPAL_ID));
+		// The user signed in the meantime
+		assertTrue(cache.hasUserAcceptedTermsOfUse(PRINCIPAL_ID));
+
+		verify(mockAuthDao, times(2)).hasUserAcceptedToU(PRINCIPAL_ID);
+	}
+
+	@Test
+	public void testInvalidate() {
+		when(mockPrincipalAliasDao.findPrincipalWithAlias(USERNAME, AliasType.USER_EMAIL, AliasType.USER_NAME))
+				.thenReturn(new PrincipalAlias().setPrincipalId(PRINCIPAL_ID), new PrincipalAlias().setPrincipalId(OTHER_PRINCIPAL_ID));
+		when(mockPrincipalAliasDao.findPrincipalWithAlias(EMAIL, AliasType.USER_EMAIL, AliasType.USER_NAME))
+				.thenReturn(new PrincipalAlias().setPrincipalId(PRINCIPAL_ID));
+		when(mockAuthDao.hasUserAcceptedToU(PRINCIPAL_ID)).thenReturn(true);
+		when(mockTransactionSynchronization.isSynchronizationActive()).thenReturn(false);
+
+		cache.getPrincipalId(USERNAME);
+		cache.getPrincipalId(EMAIL);
+		cache.hasUserAcceptedTermsOfUse(PRINCIPAL_ID);
+
+		// call under test
+		cache.invalidate(PRINCIPAL_ID);
+
+		// The user name was bound to another user
+		assertEquals(OTHER_PRINCIPAL_ID, cache.getPrincipalId(USERNAME));
+		assertEquals(PRINCIPAL_ID, cache.getPrincipalId(EMAIL));
+		assertTrue(cache.hasUserAcceptedTermsOfUse(PRINCIPAL_ID));
+
+		verify(mockPrincipalAliasDao, times(2)).findPrincipalWithAlias(USERNAME, AliasType.USER_EMAIL, AliasType.USER_NAME);
+		verify(mockPrincipalAliasDao, times(2)).findPrincipalWithAlias(EMAIL, AliasType.USER_EMAIL, AliasType.USER_NAME);
+		verify(mockAuthDao, times(2)).hasUserAcceptedToU(PRINCIPAL_ID);
+		verify(mockTransactionSynchronization, never()).registerSynchronization(any());
+	}
+
+	@Test
+	public void testInvalidateWithOtherPrincipal() {
+		when(mockPrincipalAliasDao.findPrincipalWithAlias(USERNAME, AliasType.USER_EMAIL, AliasType.USER_NAME))
+				.thenReturn(new PrincipalAlias().setPrincipalId(PRINCIPAL_ID));
+		when(mockTransactionSynchronization.isSynchronizationActive()).thenReturn(false);
+
+		cache.getPrincipalId(USERNAME);
+
+		// call under test
+		cache.invalidate(OTHER_PRINCIPAL_ID);
+
+		assertEquals(PRINCIPAL_ID, cache.getPrincipalId(USERNAME));
+
+		verify(mockPrincipalAliasDao).findPrincipalWithAlias(USERNAME, AliasType.USER_EMAIL, AliasType.USER_NAME);
+	}
+
+	@Test
+	public void testInvalidateWithTransaction() {
+		when(mockPrincipalAliasDao.findPrincipalWithAlias(USERNAME, AliasType.USER_EMAIL, AliasType.USER_NAME))
+				.thenReturn(new PrincipalAlias().setPrincipalId(PRINCIPAL_ID), new PrincipalAlias().setPrincipalId(OTHER_PRINCIPAL_ID));
+		when(mockTransactionSynchronization.isSynchronizationActive()).thenReturn(true);
+
+		// call under test
+		cache.invalidate(PRINCIPAL_ID);
+
+		verify(mockTransactionSynchronization).registerSynchronization(synchronizationCaptor.capture());
+
+		// A concurrent request loads the alias before the commit
+		assertEquals(PRINCIPAL_ID, cache.getPrincipalId(USERNAME));
+
+		synchronizationCaptor.getValue().afterCommit();
+
+		assertEquals(OTHER_PRINCIPAL_ID, cache.getPrincipalId(USERNAME));
+		assertEquals(OTHER_PRINCIPAL_ID, cache.getPrincipalId(USERNAME));
+
+		verify(mockPrincipalAliasDao, times(2)).findPrincipalWithAlias(USERNAME, AliasType.USER_EMAIL, AliasType.USER_NAME);
+	}
+
+	@Test
+	public void testInvalidateWithNullPrincipal() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			cache.invalidate(null);
+		}).getMessage();
+
+		assertEquals("The principalId is required.", message);
+	}
+
+}
@@ -4,6 +4,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -11,17 +15,25 @@ import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.http.HttpStatus;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.sagebionetworks.repo.manager.AuthorizationManager;
 import org.sagebionetworks.repo.model.ACCESS_TYPE;
-import org.sagebionetworks.repo.model.NextPageToken;
+import org.sagebionetworks.repo.model.KeysetNextPageToken;
 import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.UnauthorizedException;
 import org.sagebionetworks.repo.model.UploadContentToS3DAO;
@@ -29,8 +41,10 @@ import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.auth.AuthorizationStatus;
 import org.sagebionetworks.repo.model.dbo.dao.discussion.DiscussionReplyDAO;
 import org.sagebionetworks.repo.model.dbo.dao.discussion.DiscussionSearchIndexDao;
+import org.sagebionetworks.repo.model.dbo.dao.discussion.DiscussionSearchIndexMatch;
 import org.sagebionetworks.repo.model.dbo.dao.discussion.DiscussionThreadDAO;
 import org.sagebionetworks.repo.model.dbo.dao.discussion.ForumDAO;
+import org.sagebionetworks.repo.model.dbo.persistence.discussion.DBODiscussionSearchIndexRecord;
 import org.sagebionetworks.repo.model.discussion.DiscussionFilter;
 import org.sagebionetworks.repo.model.discussion.DiscussionReplyBundle;
 import org.sagebionetworks.repo.model.discussion.DiscussionSearchRequest;
@@ -66,6 +80,9 @@ public class DiscussionSearchIndexManagerImplTest {
 	@Mock
 	private AuthorizationManager mockAuthManager;
 	
+	@Mock
+	private ExecutorService mockThreadPool;
+	
 	@InjectMocks
 	private DiscussionSearchIndexManagerImpl manager;
 	
@@ -92,9 +109,14 @@ public class DiscussionSearchIndexManagerImplTest {
 			new Match().setForumId(forumId.toString()).setThreadId("456").setReplyId("789")
 		);
 		
+		List<DiscussionSearchIndexMatch> results = Arrays.asList(
+			new DiscussionSearchIndexMatch(matches.get(0), 2.5),
+			new DiscussionSearchIndexMatch(matches.get(1), 1.5)
+		);
+		
 		when(mockForumDao.getForum(anyLong())).thenReturn(mockForum);
 		when(mockForum.getProjectId()).thenReturn(projectId);
-		when(mockDao.search(any(), any(), anyLong(), anyLong())).thenReturn(matches);
+		when(mockDao.search(any(), any(), any(), anyLong())).thenReturn(results);
 		when(mockAuthManager.canAccess(any(), any(), any(), any())).thenReturn(AuthorizationStatus.authorized());
 		
 		DiscussionSearchRequest searchRequest = new DiscussionSearchRequest()
@@ -110,7 +132,7 @@ public class DiscussionSearchIndexManagerImplTest {
 		assertEquals(expected, result);
 		
 		verify(mockAuthManager).canAccess(mockUser, projectId, ObjectType.ENTITY, ACCESS_TYPE.READ);
-		verify(mockDao).search(forumId, searchString, NextPageToken.DEFAULT_LIMIT + 1, NextPageToken.DEFAULT_OFFSET);
+		verify(mockDao).search(forumId, searchString, null, KeysetNextPageToken.DEFAULT_LIMIT + 1);
 		
 	}
 	
@@ -121,22 +143,28 @@ public class DiscussionSearchIndexManagerImplTest {
 		String searchString = "searchString";
 		
 		List<Match> matches = new ArrayList<>();
+		List<DiscussionSearchIndexMatch> results = new ArrayList<>();
 		
-		for (int i=0; i< NextPageToken.DEFAULT_LIMIT + 1; i++) {
-			matches.add(new Match().setForumId(forumId.toString()).setThreadId("456").setReplyId(String.valueOf(i)));
+		for (int i=0; i< KeysetNextPageToken.DEFAULT_LIMIT + 1; i++) {
+			Match match = new Match().setForumId(forumId.toString()).setThreadId("456").setReplyId(String.valueOf(i));
+			matches.add(match);
+			results.add(new DiscussionSearchIndexMatch(match, 1.5));
 		}
 		
 		when(mockForumDao.getForum(anyLong())).thenReturn(mockForum);
 		when(mockForum.getProjectId()).thenReturn(projectId);
-		when(mockDao.search(any(), any(), anyLong(), anyLong())).thenReturn(matches);
+		when(mockDao.search(any(), any(), any(), anyLong())).thenReturn(results);
 		when(mockAuthManager.canAccess(any(), any(), any(), any())).thenReturn(AuthorizationStatus.authorized());
 		
 		DiscussionSearchRequest searchRequest = new DiscussionSearchRequest()
 				.setSearchString(searchString);
 		
+		// The token is keyed on the last match of the page
+		String lastReplyId = String.valueOf(KeysetNextPageToken.DEFAULT_LIMIT - 1);
+		
 		DiscussionSearchResponse expected = new DiscussionSearchResponse()
 			.setMatches(matches.subList(0, matches.size() - 1))
-			.setNextPageToken(new NextPageToken(NextPageToken.DEFAULT_LIMIT, NextPageToken.DEFAULT_LIMIT).toToken());
+			.setNextPageToken(new KeysetNextPageToken(KeysetNextPageToken.DEFAULT_LIMIT, 456L, "1.5:" + lastReplyId).toToken());
 		
 		// Call under test
 		DiscussionSearchResponse result = manager.search(mockUser, forumId, searchRequest);
@@ -144,8 +172,83 @@ public class DiscussionSearchIndexManagerImplTest {
 		assertEquals(expected, result);
 		
 		verify(mockAuthManager).canAccess(mockUser, projectId, ObjectType.ENTITY, ACCESS_TYPE.READ);
-		verify(mockDao).search(forumId, searchString, NextPageToken.DEFAULT_LIMIT + 1, NextPageToken.DEFAULT_OFFSET);
+		verify(mockDao).search(forumId, searchString, null, KeysetNextPageToken.DEFAULT_LIMIT + 1);
+		
+	}
+	
+	@Test
+	public void testSearchWithNextPageToken() {
+		String projectId = "syn789";
+		Long forumId = 123L;
+		String searchString = "searchString";
+		
+		List<Match> matches = Arrays.asList(
+			new Match().setForumId(forumId.toString()).setThreadId("457")
+		);
+		
+		when(mockForumDao.getForum(anyLong())).thenReturn(mockForum);
+		when(mockForum.getProjectId()).thenReturn(projectId);
+		when(mockDao.search(any(), any(), any(), anyLong())).thenReturn(Arrays.asList(new DiscussionSearchIndexMatch(matches.get(0), 1.0)));
+		when(mockAuthManager.canAccess(any(), any(), any(), any())).thenReturn(AuthorizationStatus.authorized());
+		
+		DiscussionSearchRequest searchRequest = new DiscussionSearchRequest()
+				.setSearchString(searchString)
+				.setNextPageToken(new KeysetNextPageToken(10, 456L, "1.5:789").toToken());
+		
+		DiscussionSearchResponse expected = new DiscussionSearchResponse()
+			.setMatches(matches)
+			.setNextPageToken(null);
+		
+		// Call under test
+		DiscussionSearchResponse result = manager.search(mockUser, forumId, searchRequest);
+		
+		assertEquals(expected, result);
+		
+		DiscussionSearchIndexMatch expectedAfter = new DiscussionSearchIndexMatch(new Match().setThreadId("456").setReplyId("789"), 1.5);
+		
+		verify(mockDao).search(forumId, searchString, expectedAfter, 11L);
+	}
+	
+	@Test
+	public void testFromPageTokenWithThread() {
+		KeysetNextPageToken token = new KeysetNextPageToken(10, 456L, DiscussionSearchIndexManagerImpl.toSortValue(new DiscussionSearchIndexMatch(new Match().setThreadId("456"), 0.25)));
+		
+		DiscussionSearchIndexMatch expected = new DiscussionSearchIndexMatch(new Match().setThreadId("456"), 0.25);
+		
+		// Call under test
+		DiscussionSearchIndexMatch result = DiscussionSearchIndexManagerImpl.fromPageToken(new KeysetNextPageToken(token.toToken()));
+		
+		assertEquals(expected, result);
+	}
+	
+	@Test
+	public void testFromPageTokenWithFirstPage() {
+		// Call under test
+		DiscussionSearchIndexMatch result = DiscussionSearchIndexManagerImpl.fromPageToken(new KeysetNextPageToken(null));
+		
+		assertEquals(null, result);
+	}
+	
+	@Test
+	public void testFromPageTokenWithNullSortValue() {
+		KeysetNextPageToken token = new KeysetNextPageToken(10, 456L, null);
+		
+		// Call under test
+		DiscussionSearchIndexMatch result = DiscussionSearchIndexManagerImpl.fromPageToken(token);
+		
+		assertEquals(null, result);
+	}
+	
+	@Test
+	public void testFromPageTokenWithMalformedSortValue() {
+		KeysetNextPageToken token = new KeysetNextPageToken(10, 456L, "1.5");
+		
+		String message = assertThrows(IllegalArgumentException.class, () -> {			
+			// Call under test
+			DiscussionSearchIndexManagerImpl.fromPageToken(token);
+		}).getMessage();
 		
+		assertEquals("Unknow token format: 1.5", message);
 	}
 	
 	@Test
@@ -631,6 +734,241 @@ public class DiscussionSearchIndexManagerImplTest {
 		verifyNoMoreInteractions(mockDao);
 	}
 	
+	@Test
+	public void testProcessChanges() throws Exception {
+		Long forumId = 456L;
+		Long threadId = 123L;
+		Long replyId = 789L;
+		
+		setupThreadPool();
+		
+		when(mockThreadDao.getThread(anyLong(), any())).thenReturn(mockThread);
+		when(mockThread.getForumId()).thenReturn(forumId.toString());
+		when(mockThread.getIsDeleted()).thenReturn(false);
+		when(mockThread.getTitle()).thenReturn("title");
+		when(mockThread.getMessageKey()).thenReturn("threadKey");
+		when(mockReplyDao.getReply(anyLong(), any())).thenReturn(mockReply);
+		when(mockReply.getThreadId()).thenReturn(threadId.toString());
+		when(mockReply.getForumId()).thenReturn(forumId.toString());
+		when(mockReply.getIsDeleted()).thenReturn(false);
+		when(mockReply.getMessageKey()).thenReturn("replyKey");
+		when(mockContentDao.getMessage("threadKey")).thenReturn("thread content");
+		when(mockContentDao.getMessage("replyKey")).thenReturn("reply content");
+		
+		// Call under test
+		manager.processChanges(Collections.singleton(threadId), Collections.singleton(replyId));
+		
+		// The thread of the reply is the changed thread, so it is loaded only once
+		verify(mockThreadDao).getThread(threadId, DiscussionFilter.NO_FILTER);
+		verify(mockReplyDao).getReply(replyId, DiscussionFilter.NO_FILTER);
+		verify(mockThreadPool, times(2)).submit(any(Callable.class));
+		verify(mockContentDao).getMessage("threadKey");
+		verify(mockContentDao).getMessage("replyKey");
+		verify(mockDao).createOrUpdateRecords(Arrays.asList(
+			newRecord(forumId, threadId, replyId, "reply content"),
+			newRecord(forumId, threadId, DBODiscussionSearchIndexRecord.NO_REPLY_ID, "title thread content")
+		));
+		verify(mockDao).setRepliesDeleted(Collections.emptySet(), true);
+		verify(mockDao).setRepliesDeleted(Collections.singleton(replyId), false);
+		verify(mockDao).setThreadsDeleted(Collections.emptySet(), true);
+		verify(mockDao).setThreadsDeleted(Collections.singleton(threadId), false);
+		
+		verifyNoMoreInteractions(mockThreadDao);
+		verifyNoMoreInteractions(mockContentDao);
+		verifyNoMoreInteractions(mockDao);
+	}
+	
+	@Test
+	public void testProcessChangesWithReplyOnly() throws Exception {
+		Long forumId = 456L;
+		Long threadId = 123L;
+		Long replyId = 789L;
+		
+		setupThreadPool();
+		
+		when(mockThreadDao.getThread(anyLong(), any())).thenReturn(mockThread);
+		when(mockThread.getIsDeleted()).thenReturn(true);
+		when(mockReplyDao.getReply(anyLong(), any())).thenReturn(mockReply);
+		when(mockReply.getThreadId()).thenReturn(threadId.toString());
+		when(mockReply.getForumId()).thenReturn(forumId.toString());
+		when(mockReply.getIsDeleted()).thenReturn(false);
+		when(mockReply.getMessageKey()).thenReturn("replyKey");
+		when(mockContentDao.getMessage(any())).thenReturn("reply content");
+		
+		// Call under test
+		manager.processChanges(Collections.emptySet(), Collections.singleton(replyId));
+		
+		verify(mockReplyDao).getReply(replyId, DiscussionFilter.NO_FILTER);
+		// The thread is loaded only to sync its deleted flag
+		verify(mockThreadDao).getThread(threadId, DiscussionFilter.NO_FILTER);
+		verify(mockContentDao).getMessage("replyKey");
+		verify(mockDao).createOrUpdateRecords(Arrays.asList(
+			newRecord(forumId, threadId, replyId, "reply content")
+		));
+		verify(mockDao).setRepliesDeleted(Collections.emptySet(), true);
+		verify(mockDao).setRepliesDeleted(Collections.singleton(replyId), false);
+		verify(mockDao).setThreadsDeleted(Collections.singleton(threadId), true);
+		verify(mockDao).setThreadsDeleted(Collections.emptySet(), false);
+		
+		verifyNoMoreInteractions(mockThreadDao);
+		verifyNoMoreInteractions(mockContentDao);
+		verifyNoMoreInteractions(mockDao);
+	}
+	
+	@Test
+	public void testProcessChangesWithDeletedAndNotFound() throws Exception {
+		Long threadId = 123L;
+		Long deletedThreadId = 124L;
+		Long replyId = 789L;
+		
+		when(mockThreadDao.getThread(threadId, DiscussionFilter.NO_FILTER)).thenThrow(NotFoundException.class);
+		when(mockThreadDao.getThread(deletedThreadId, DiscussionFilter.NO_FILTER)).thenReturn(mockThread);
+		when(mockThread.getIsDeleted()).thenReturn(true);
+		when(mockReplyDao.getReply(anyLong(), any())).thenThrow(NotFoundException.class);
+		
+		// Call under test
+		manager.processChanges(new LinkedHashSet<>(Arrays.asList(threadId, deletedThreadId)), Collections.singleton(replyId));
+		
+		verify(mockReplyDao).getReply(replyId, DiscussionFilter.NO_FILTER);
+		verify(mockThreadDao).getThread(threadId, DiscussionFilter.NO_FILTER);
+		verify(mockThreadDao).getThread(deletedThreadId, DiscussionFilter.NO_FILTER);
+		verify(mockDao).createOrUpdateRecords(Collections.emptyList());
+		verify(mockDao).setRepliesDeleted(Collections.singleton(replyId), true);
+		verify(mockDao).setRepliesDeleted(Collections.emptySet(), false);
+		verify(mockDao).setThreadsDeleted(new LinkedHashSet<>(Arrays.asList(threadId, deletedThreadId)), true);
+		verify(mockDao).setThreadsDeleted(Collections.emptySet(), false);
+		
+		verifyZeroInteractions(mockThreadPool);
+		verifyZeroInteractions(mockContentDao);
+		verifyNoMoreInteractions(mockThreadDao);
+		verifyNoMoreInteractions(mockDao);
+	}
+	
+	@Test
+	public void testProcessChangesWithRecoverableException() throws Exception {
+		Long threadId = 123L;
+		
+		AmazonServiceException ex = new AmazonServiceException("Some error");
+		ex.setErrorType(ErrorType.Service);
+		
+		setupThreadPool();
+		
+		when(mockThreadDao.getThread(anyLong(), any())).thenReturn(mockThread);
+		when(mockThread.getIsDeleted()).thenReturn(false);
+		when(mockThread.getMessageKey()).thenReturn("threadKey");
+		when(mockContentDao.getMessage(any())).thenThrow(ex);
+		
+		RecoverableMessageException result = assertThrows(RecoverableMessageException.class, () -> {			
+			// Call under test
+			manager.processChanges(Collections.singleton(threadId), Collections.emptySet());
+		});
+		
+		assertEquals(ex, result.getCause());
+		
+		// Nothing is written if the content cannot be fetched
+		verifyZeroInteractions(mockDao);
+	}
+	
+	@Test
+	public void testProcessChangesWithNoThreadIds() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {			
+			// Call under test
+			manager.processChanges(null, Collections.emptySet());
+		}).getMessage();
+		
+		assertEquals("The threadIds is required.", message);
+	}
+	
+	@Test
+	public void testProcessChangesWithNoReplyIds() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {			
+			// Call under test
+			manager.processChanges(Collections.emptySet(), null);
+		}).getMessage();
+		
+		assertEquals("The replyIds is required.", message);
+	}
+	
+	@Test
+	public void testFetchContentsWithMultipleBatches() throws Exception {
+		setupThreadPool();
+		
+		List<String> messageKeys = new ArrayList<>();
+		
+		for (int i = 0; i < DiscussionSearchIndexManagerImpl.MAX_CONCURRENT_FETCH + 1; i++) {
+			messageKeys.add("key" + i);
+		}
+		
+		when(mockContentDao.getMessage(any())).thenAnswer(invocation -> "content of " + invocation.getArgument(0));
+		
+		// Call under test
+		Map<String, String> result = manager.fetchContents(messageKeys);
+		
+		assertEquals(messageKeys.size(), result.size());
+		
+		messageKeys.forEach(key -> assertEquals("content of " + key, result.get(key)));
+		
+		verify(mockThreadPool, times(messageKeys.size())).submit(any(Callable.class));
+	}
+	
+	@Test
+	public void testFetchContentsWithInterrupted() throws Exception {
+		InterruptedException ex = new InterruptedException();
+		
+		Future<String> mockFuture = Mockito.mock(Future.class);
+		
+		doThrow(ex).when(mockFuture).get();
+		doReturn(mockFuture).when(mockThreadPool).submit(any(Callable.class));
+		
+		RecoverableMessageException result = assertThrows(RecoverableMessageException.class, () -> {			
+			// Call under test
+			manager.fetchContents(Collections.singletonList("key"));
+		});
+		
+		assertEquals(ex, result.getCause());
+		// Clears the interrupted flag of the test thread
+		assertEquals(true, Thread.interrupted());
+	}
+	
+	@Test
+	public void testFetchContentsWithExecutionException() throws Exception {
+		IllegalStateException ex = new IllegalStateException("failed");
+		
+		Future<String> mockFuture = Mockito.mock(Future.class);
+		
+		doThrow(new ExecutionException(ex)).when(mockFuture).get();
+		doReturn(mockFuture).when(mockThreadPool).submit(any(Callable.class));
+		
+		IllegalStateException result = assertThrows(IllegalStateException.class, () -> {			
+			// Call under test
+			manager.fetchContents(Collections.singletonList("key"));
+		});
+		
+		assertEquals(ex, result);
+	}
+	
+	void setupThreadPool() {
+		doAnswer((invocation) -> {
+			Callable<String> callable = invocation.getArgument(0);
+			Future<String> future = Mockito.mock(Future.class);
+			try {
+				doReturn(callable.call()).when(future).get();
+			} catch (Exception e) {
+				doThrow(new ExecutionException(e)).when(future).get();
+			}
+			return future;
+		}).when(mockThreadPool).submit(any(Callable.class));
+	}
+	
+	private static DBODiscussionSearchIndexRecord newRecord(Long forumId, Long threadId, Long replyId, String searchContent) {
+		DBODiscussionSearchIndexRecord record = new DBODiscussionSearchIndexRecord();
+		record.setForumId(forumId);
+		record.setThreadId(threadId);
+		record.setReplyId(replyId);
+		record.setSearchContent(searchContent);
+		return record;
+	}
+	
 	@Test
 	public void testBuildSearchContent() {
 		String[] contentArray = new String[] {"a", "b"};
@@ -719,6 +719,69 @@ public class EntityAuthorizationManagerUnitTest {
 
 		verify(mockUsersEntityPermissionsDao).getEntityPermissionsAsMap(userInfo.getGroups(), entityIds);
 	}
+
+	@Test
+	public void testHasAccessWithBoundStateProvider() {
+		when(mockUsersEntityPermissionsDao.getEntityPermissionsAsMap(any(), any())).thenReturn(mapIdToState);
+		permissionsState.withDoesEntityExist(true);
+		permissionsState.withHasRead(true);
+		permissionsState.withHasUpdate(true);
+		
+		EntityStateProvider stateProvider = entityAuthManager.createEntityStateProvider(userInfo, entityIds);
+		
+		try (EntityStateContext context = EntityStateContext.bind(userInfo, stateProvider)) {
+			// call under test
+			assertEquals(AuthorizationStatus.authorized(), entityAuthManager.hasAccess(userInfo, entityId, ACCESS_TYPE.READ));
+			assertEquals(AuthorizationStatus.authorized(), entityAuthManager.hasAccess(userInfo, entityId, ACCESS_TYPE.UPDATE));
+		}
+		
+		// The state is loaded only once for both checks
+		verify(mockUsersEntityPermissionsDao).getEntityPermissionsAsMap(userInfo.getGroups(), entityIds);
+		verify(entityAuthManager).createEntityStateProvider(userInfo, entityIds);
+	}
+	
+	@Test
+	public void testHasAccessWithBoundStateProviderForOtherEntity() {
+		when(mockUsersEntityPermissionsDao.getEntityPermissionsAsMap(any(), any())).thenReturn(mapIdToState);
+		permissionsState.withDoesEntityExist(true);
+		permissionsState.withHasRead(true);
+		
+		EntityStateProvider otherProvider = Mockito.mock(EntityStateProvider.class);
+		when(otherProvider.getEntityIds()).thenReturn(List.of(111L));
+		
+		try (EntityStateContext context = EntityStateContext.bind(userInfo, otherProvider)) {
+			// call under test
+			assertEquals(AuthorizationStatus.authorized(), entityAuthManager.hasAccess(userInfo, entityId, ACCESS_TYPE.READ));
+		}
+		
+		verify(entityAuthManager).createEntityStateProvider(userInfo, entityIds);
+		verify(mockUsersEntityPermissionsDao).getEntityPermissionsAsMap(userInfo.getGroups(), entityIds);
+		verify(otherProvider, Mockito.never()).getPermissionsState(any());
+	}
+	
+	@Test
+	public void testCreateEntityStateProvider() {
+		// call under test
+		EntityStateProvider stateProvider = entityAuthManager.createEntityStateProvider(userInfo, entityIds);
+		
+		assertEquals(entityIds, stateProvider.getEntityIds());
+	}
+	
+	@Test
+	public void testCreateEntityStateProviderWithNullUser() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			entityAuthManager.createEntityStateProvider(null, entityIds);
+		});
+	}
+	
+	@Test
+	public void testCreateEntityStateProviderWithNullEntityIds() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			entityAuthManager.createEntityStateProvider(userInfo, null);
+		});
+	}
 	
 	@Test
 	public void testGetActionsRequiredForDownloadWithAuthorized() {
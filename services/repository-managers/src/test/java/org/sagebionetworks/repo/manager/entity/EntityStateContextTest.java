@@ -0,0 +1,147 @@
+package org.sagebionetworks.repo.manager.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.model.UserInfo;
+
+@ExtendWith(MockitoExtension.class)
+public class EntityStateContextTest {
+
+	@Mock
+	private EntityStateProvider mockProvider;
+	@Mock
+	private EntityStateProvider mockOtherProvider;
+
+	private UserInfo userInfo;
+
+	@BeforeEach
+	public void before() {
+		userInfo = new UserInfo(false, 123L);
+		userInfo.getGroups().add(123L);
+	}
+
+	@Test
+	public void testGetBoundProvider() {
+		when(mockProvider.getEntityIds()).thenReturn(List.of(1L, 2L, 3L));
+
+		try (EntityStateContext context = EntityStateContext.bind(userInfo, mockProvider)) {
+			// call under test
+			assertEquals(Optional.of(mockProvider), EntityStateContext.getBoundProvider(userInfo, List.of(1L)));
+			assertEquals(Optional.of(mockProvider), EntityStateContext.getBoundProvider(userInfo, List.of(3L, 2L)));
+		}
+
+		assertEquals(Optional.empty(), EntityStateContext.getBoundProvider(userInfo, List.of(1L)));
+	}
+
+	@Test
+	public void testGetBoundProviderWithNoContext() {
+		// call under test
+		assertEquals(Optional.empty(), EntityStateContext.getBoundProvider(userInfo, List.of(1L)));
+	}
+
+	@Test
+	public void testGetBoundProviderWithOtherEntity() {
+		when(mockProvider.getEntityIds()).thenReturn(List.of(1L, 2L));
+
+		try (EntityStateContext context = EntityStateContext.bind(userInfo, mockProvider)) {
+			// call under test
+			assertEquals(Optional.empty(), EntityStateContext.getBoundProvider(userInfo, List.of(1L, 4L)));
+		}
+	}
+
+	@Test
+	public void testGetBoundProviderWithOtherUser() {
+		when(mockProvider.getEntityIds()).thenReturn(List.of(1L));
+
+		UserInfo otherUser = new UserInfo(false, 456L);
+		otherUser.getGroups().add(123L);
+
+		try (EntityStateContext context = EntityStateContext.bind(userInfo, mockProvider)) {
+			// call under test
+			assertEquals(Optional.empty(), EntityStateContext.getBoundProvider(otherUser, List.of(1L)));
+		}
+	}
+
+	@Test
+	public void testGetBoundProviderWithOtherGroups() {
+		when(mockProvider.getEntityIds()).thenReturn(List.of(1L));
+
+		UserInfo sameUserOtherGroups = new UserInfo(false, 123L);
+		sameUserOtherGroups.getGroups().add(123L);
+		sameUserOtherGroups.getGroups().add(789L);
+
+		try (EntityStateContext context = EntityStateContext.bind(userInfo, mockProvider)) {
+			// call under test
+			assertEquals(Optional.empty(), EntityStateContext.getBoundProvider(sameUserOtherGroups, List.of(1L)));
+		}
+	}
+
+	@Test
+	public void testGetBoundProviderWithNullArguments() {
+		when(mockProvider.getEntityIds()).thenReturn(List.of(1L));
+
+		try (EntityStateContext context = EntityStateContext.bind(userInfo, mockProvider)) {
+			// call under test
+			assertEquals(Optional.empty(), EntityStateContext.getBoundProvider(null, List.of(1L)));
+			assertEquals(Optional.empty(), EntityStateContext.getBoundProvider(userInfo, null));
+		}
+	}
+
+	@Test
+	public void testBindNested() {
+		when(mockProvider.getEntityIds()).thenReturn(List.of(1L));
+		when(mockOtherProvider.getEntityIds()).thenReturn(List.of(1L, 2L));
+
+		try (EntityStateContext context = EntityStateContext.bind(userInfo, mockProvider)) {
+			try (EntityStateContext nested = EntityStateContext.bind(userInfo, mockOtherProvider)) {
+				// call under test
+				assertEquals(Optional.of(mockOtherProvider), EntityStateContext.getBoundProvider(userInfo, List.of(1L)));
+			}
+			// The previous context is restored
+			assertEquals(Optional.of(mockProvider), EntityStateContext.getBoundProvider(userInfo, List.of(1L)));
+		}
+
+		assertEquals(Optional.empty(), EntityStateContext.getBoundProvider(userInfo, List.of(1L)));
+	}
+
+	@Test
+	public void testBindWithNullUser() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			EntityStateContext.bind(null, mockProvider);
+		}).getMessage();
+
+		assertEquals("userInfo is required.", message);
+	}
+
+	@Test
+	public void testBindWithNullUserId() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			EntityStateContext.bind(new UserInfo(false), mockProvider);
+		}).getMessage();
+
+		assertEquals("userInfo.id is required.", message);
+	}
+
+	@Test
+	public void testBindWithNullProvider() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			EntityStateContext.bind(userInfo, null);
+		}).getMessage();
+
+		assertEquals("provider is required.", message);
+	}
+
+}
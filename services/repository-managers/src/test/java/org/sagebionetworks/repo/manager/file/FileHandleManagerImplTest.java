@@ -3169,6 +3169,88 @@ public class FileHandleManagerImplTest {
 		
 	}
 
+	@Test
+	public void testUploadStream() throws Exception {
+		S3StorageLocationSetting storageLocationSetting = new S3StorageLocationSetting();
+		
+		when(mockStorageLocationDao.get(anyLong())).thenReturn(storageLocationSetting);
+		when(mockIdGenerator.generateNewId(IdType.FILE_IDS)).thenReturn(456L);
+		when(mockFileHandleDao.createFile(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		
+		String fileBody = "Some data";
+		String md5 = TransferUtils.createMD5(fileBody.getBytes(StandardCharsets.UTF_8));
+		
+		StreamUploadRequest request = new StreamUploadRequest()
+				.withContentType("text/plain")
+				.withFileName("file.txt")
+				.withUserId("123")
+				.withStorageLocationId(123L);
+		
+		// Call under test
+		S3FileHandle fileHandle = manager.uploadStream(request, (out) -> {
+			out.write(fileBody.getBytes(StandardCharsets.UTF_8));
+		});
+		
+		ArgumentCaptor<PutObjectRequest> putCaptor = ArgumentCaptor.forClass(PutObjectRequest.class);
+		
+		// The content fits in a single part
+		verify(mockS3Client).putObject(putCaptor.capture());
+		
+		PutObjectRequest putRequest = putCaptor.getValue();
+		
+		assertEquals("456", fileHandle.getId());
+		assertEquals(MultipartUtils.getBucket(storageLocationSetting), putRequest.getBucketName());
+		assertEquals(fileHandle.getKey(), putRequest.getKey());
+		assertEquals(StorageClass.IntelligentTiering.toString(), putRequest.getStorageClass());
+		assertEquals(md5, fileHandle.getContentMd5());
+		assertEquals(Long.valueOf(fileBody.length()), fileHandle.getContentSize());
+		assertEquals("file.txt", fileHandle.getFileName());
+		assertEquals("text/plain", fileHandle.getContentType());
+		assertEquals("123", fileHandle.getCreatedBy());
+	}
+	
+	@Test
+	public void testUploadStreamWithWriterException() throws Exception {
+		S3StorageLocationSetting storageLocationSetting = new S3StorageLocationSetting();
+		
+		when(mockStorageLocationDao.get(anyLong())).thenReturn(storageLocationSetting);
+		
+		StreamUploadRequest request = new StreamUploadRequest()
+				.withContentType("text/plain")
+				.withFileName("file.txt")
+				.withUserId("123")
+				.withStorageLocationId(123L);
+		
+		IOException ex = new IOException("failed");
+		
+		IOException result = assertThrows(IOException.class, () -> {			
+			// Call under test
+			manager.uploadStream(request, (out) -> {
+				out.write(1);
+				throw ex;
+			});
+		});
+		
+		assertEquals(ex, result);
+		
+		// Nothing was uploaded
+		verifyZeroInteractions(mockS3Client);
+		verifyZeroInteractions(mockFileHandleDao);
+	}
+	
+	@Test
+	public void testUploadStreamWithNoFileName() throws Exception {
+		StreamUploadRequest request = new StreamUploadRequest()
+				.withUserId("123");
+		
+		String message = assertThrows(IllegalArgumentException.class, () -> {			
+			// Call under test
+			manager.uploadStream(request, (out) -> {});
+		}).getMessage();
+		
+		assertEquals("request.fileName is required.", message);
+	}
+
 	private FileEvent getFileEvent(UserInfo user, Date timestamp, FileEventType fileHandleType, FileHandleAssociation fileHandleAssociation) {
 		FileEvent expectedFileEvent = FileEventUtils.buildFileEvent(fileHandleType, user.getId(), fileHandleAssociation, STACK, INSTANCE);
 		expectedFileEvent.setTimestamp(timestamp);
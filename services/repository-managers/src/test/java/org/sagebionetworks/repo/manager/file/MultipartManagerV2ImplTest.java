@@ -54,6 +54,8 @@ import org.sagebionetworks.repo.model.dbo.file.MultipartRequestUtils;
 import org.sagebionetworks.repo.model.dbo.file.MultipartUploadDAO;
 import org.sagebionetworks.repo.model.file.AddPartResponse;
 import org.sagebionetworks.repo.model.file.AddPartState;
+import org.sagebionetworks.repo.model.file.BatchAddPartRequest;
+import org.sagebionetworks.repo.model.file.BatchAddPartResponse;
 import org.sagebionetworks.repo.model.file.BatchPresignedUploadUrlRequest;
 import org.sagebionetworks.repo.model.file.BatchPresignedUploadUrlResponse;
 import org.sagebionetworks.repo.model.file.CloudProviderFileHandleInterface;
@@ -563,6 +565,106 @@ public class MultipartManagerV2ImplTest {
 		verify(mockHandler).getPresignedUrl(mockCompositeStatus, 2L, "plain/text");
 	}
 
+	@Test
+	public void testGetBatchPresignedUploadUrlsWithPartMD5s() throws MalformedURLException {
+		String uploadId = "upload";
+		int numberOfParts = 2;
+
+		when(mockStatus.getStartedBy()).thenReturn(user.getId().toString());
+		when(mockCompositeStatus.getNumberOfParts()).thenReturn(numberOfParts);
+		when(mockCompositeStatus.getMultipartUploadStatus()).thenReturn(mockStatus);
+		when(mockMultipartUploadDAO.getUploadStatus(any(), anyBoolean())).thenReturn(mockCompositeStatus);
+
+		doReturn(mockHandler).when(mockHandlerProvider).getHandlerForType(any());
+
+		URL url1 = new URL("http://amazon.comsomeBucket/someKey?partNumber=1");
+		URL url2 = new URL("http://amazon.comsomeBucket/someKey?partNumber=2");
+
+		when(mockHandler.getDirectPresignedUrl(any(), anyLong(), any(), any())).thenReturn(new PresignedUrl().withUrl(url1),
+				new PresignedUrl().withUrl(url2));
+
+		PartPresignedUrl part1 = new PartPresignedUrl();
+		part1.setPartNumber(1L);
+		part1.setUploadPresignedUrl(url1.toString());
+
+		PartPresignedUrl part2 = new PartPresignedUrl();
+		part2.setPartNumber(2L);
+		part2.setUploadPresignedUrl(url2.toString());
+
+		BatchPresignedUploadUrlResponse expected = new BatchPresignedUploadUrlResponse();
+		expected.setPartPresignedUrls(Arrays.asList(part1, part2));
+
+		BatchPresignedUploadUrlRequest request = new BatchPresignedUploadUrlRequest();
+
+		request.setUploadId(uploadId);
+		request.setPartNumbers(Arrays.asList(1L, 2L));
+		request.setPartMD5Hexs(Arrays.asList("md5One", "md5Two"));
+		request.setContentType("plain/text");
+
+		// Call under test
+		BatchPresignedUploadUrlResponse result = manager.getBatchPresignedUploadUrls(user, request);
+
+		assertEquals(expected, result);
+
+		verify(mockMultipartUploadDAO).getUploadStatus(uploadId, false);
+
+		verify(mockHandler).getDirectPresignedUrl(mockCompositeStatus, 1L, "md5One", "plain/text");
+		verify(mockHandler).getDirectPresignedUrl(mockCompositeStatus, 2L, "md5Two", "plain/text");
+		verify(mockHandler, never()).getPresignedUrl(any(), anyLong(), any());
+	}
+
+	@Test
+	public void testGetBatchPresignedUploadUrlsWithPartMD5sAndUnsupported() throws MalformedURLException {
+		String uploadId = "upload";
+		int numberOfParts = 2;
+
+		when(mockStatus.getStartedBy()).thenReturn(user.getId().toString());
+		when(mockCompositeStatus.getNumberOfParts()).thenReturn(numberOfParts);
+		when(mockCompositeStatus.getMultipartUploadStatus()).thenReturn(mockStatus);
+		when(mockMultipartUploadDAO.getUploadStatus(any(), anyBoolean())).thenReturn(mockCompositeStatus);
+
+		doReturn(mockHandler).when(mockHandlerProvider).getHandlerForType(any());
+
+		UnsupportedOperationException ex = new UnsupportedOperationException("Not supported");
+
+		when(mockHandler.getDirectPresignedUrl(any(), anyLong(), any(), any())).thenThrow(ex);
+
+		BatchPresignedUploadUrlRequest request = new BatchPresignedUploadUrlRequest();
+
+		request.setUploadId(uploadId);
+		request.setPartNumbers(Arrays.asList(1L));
+		request.setPartMD5Hexs(Arrays.asList("md5One"));
+
+		IllegalArgumentException result = assertThrows(IllegalArgumentException.class, () -> {
+			// Call under test
+			manager.getBatchPresignedUploadUrls(user, request);
+		});
+
+		assertEquals(ex, result.getCause());
+		assertEquals("Not supported", result.getMessage());
+
+		verify(mockHandler).getDirectPresignedUrl(mockCompositeStatus, 1L, "md5One", null);
+	}
+
+	@Test
+	public void testGetBatchPresignedUploadUrlsWithMissingPartMD5s() throws MalformedURLException {
+		BatchPresignedUploadUrlRequest request = new BatchPresignedUploadUrlRequest();
+
+		request.setUploadId("upload");
+		request.setPartNumbers(Arrays.asList(1L, 2L));
+		request.setPartMD5Hexs(Arrays.asList("md5One"));
+
+		String errorMessage = assertThrows(IllegalArgumentException.class, () -> {
+			// Call under test
+			manager.getBatchPresignedUploadUrls(user, request);
+		}).getMessage();
+
+		assertEquals("BatchPresignedUploadUrlRequest.partMD5Hexs must contain the MD5 of each part.", errorMessage);
+
+		verifyZeroInteractions(mockMultipartUploadDAO);
+		verifyZeroInteractions(mockHandler);
+	}
+
 	@Test
 	public void testGetBatchPresignedUploadUrlsWithNullPart() throws MalformedURLException {
 		String uploadId = "upload";
@@ -852,6 +954,137 @@ public class MultipartManagerV2ImplTest {
 		assertEquals("Part numbers cannot be less than one.", errorMessage);
 	}
 
+	@Test
+	public void testAddMultipartParts() {
+		String uploadId = "upload";
+		Integer numberOfParts = 4;
+
+		when(mockStatus.getStartedBy()).thenReturn(user.getId().toString());
+		when(mockStatus.getState()).thenReturn(MultipartUploadState.UPLOADING);
+		when(mockCompositeStatus.getNumberOfParts()).thenReturn(numberOfParts);
+		when(mockCompositeStatus.getMultipartUploadStatus()).thenReturn(mockStatus);
+		when(mockCompositeStatus.getUploadType()).thenReturn(UploadType.S3);
+		when(mockMultipartUploadDAO.getUploadStatus(any(), anyBoolean())).thenReturn(mockCompositeStatus);
+
+		BatchAddPartRequest request = new BatchAddPartRequest().setUploadId(uploadId).setPartNumbers(Arrays.asList(1L, 3L))
+				.setPartMD5Hexs(Arrays.asList("md5One", "md5Three"));
+
+		BatchAddPartResponse expected = new BatchAddPartResponse().setAddPartResponses(Arrays.asList(
+				new AddPartResponse().setUploadId(uploadId).setPartNumber(1L).setAddPartState(AddPartState.ADD_SUCCESS),
+				new AddPartResponse().setUploadId(uploadId).setPartNumber(3L).setAddPartState(AddPartState.ADD_SUCCESS)));
+
+		// Call under test
+		BatchAddPartResponse result = manager.addMultipartParts(user, request);
+
+		assertEquals(expected, result);
+
+		verify(mockMultipartUploadDAO).getUploadStatus(uploadId, false);
+		verify(mockMultipartUploadDAO).addPartsToUpload(uploadId, Arrays.asList(new PartMD5(1, "md5One"), new PartMD5(3, "md5Three")));
+		verifyZeroInteractions(mockHandlerProvider);
+	}
+
+	@Test
+	public void testAddMultipartPartsCompleted() {
+		when(mockMultipartUploadDAO.getUploadStatus(any(), anyBoolean())).thenReturn(mockCompositeStatus);
+		when(mockCompositeStatus.getMultipartUploadStatus()).thenReturn(mockStatus);
+		when(mockStatus.getState()).thenReturn(MultipartUploadState.COMPLETED);
+
+		BatchAddPartRequest request = new BatchAddPartRequest().setUploadId("upload").setPartNumbers(Arrays.asList(1L))
+				.setPartMD5Hexs(Arrays.asList("md5One"));
+
+		String errorMessage = assertThrows(IllegalArgumentException.class, () -> {
+			// Call under test
+			manager.addMultipartParts(user, request);
+		}).getMessage();
+
+		assertEquals("Cannot add parts to completed file upload.", errorMessage);
+
+		verifyNoMoreInteractions(mockMultipartUploadDAO);
+	}
+
+	@Test
+	public void testAddMultipartPartsWithUnauthorizedUser() {
+		// Started by a different user
+		when(mockStatus.getStartedBy()).thenReturn("8796");
+		when(mockStatus.getState()).thenReturn(MultipartUploadState.UPLOADING);
+		when(mockCompositeStatus.getMultipartUploadStatus()).thenReturn(mockStatus);
+		when(mockMultipartUploadDAO.getUploadStatus(any(), anyBoolean())).thenReturn(mockCompositeStatus);
+
+		BatchAddPartRequest request = new BatchAddPartRequest().setUploadId("upload").setPartNumbers(Arrays.asList(1L))
+				.setPartMD5Hexs(Arrays.asList("md5One"));
+
+		String errorMessage = assertThrows(UnauthorizedException.class, () -> {
+			// Call under test
+			manager.addMultipartParts(user, request);
+		}).getMessage();
+
+		assertEquals(
+				"Only the user that started a multipart upload can get part upload pre-signed URLs for that file upload.",
+				errorMessage);
+
+		verifyNoMoreInteractions(mockMultipartUploadDAO);
+	}
+
+	@Test
+	public void testAddMultipartPartsWithGoogleCloudUpload() {
+		when(mockStatus.getStartedBy()).thenReturn(user.getId().toString());
+		when(mockStatus.getState()).thenReturn(MultipartUploadState.UPLOADING);
+		when(mockCompositeStatus.getMultipartUploadStatus()).thenReturn(mockStatus);
+		when(mockCompositeStatus.getUploadType()).thenReturn(UploadType.GOOGLECLOUDSTORAGE);
+		when(mockMultipartUploadDAO.getUploadStatus(any(), anyBoolean())).thenReturn(mockCompositeStatus);
+
+		BatchAddPartRequest request = new BatchAddPartRequest().setUploadId("upload").setPartNumbers(Arrays.asList(1L))
+				.setPartMD5Hexs(Arrays.asList("md5One"));
+
+		String errorMessage = assertThrows(IllegalArgumentException.class, () -> {
+			// Call under test
+			manager.addMultipartParts(user, request);
+		}).getMessage();
+
+		assertEquals("Adding a batch of parts is supported only for S3 uploads.", errorMessage);
+
+		verifyNoMoreInteractions(mockMultipartUploadDAO);
+	}
+
+	@Test
+	public void testAddMultipartPartsWithPartNumberTooBig() {
+		Integer numberOfParts = 4;
+
+		when(mockStatus.getStartedBy()).thenReturn(user.getId().toString());
+		when(mockStatus.getState()).thenReturn(MultipartUploadState.UPLOADING);
+		when(mockCompositeStatus.getNumberOfParts()).thenReturn(numberOfParts);
+		when(mockCompositeStatus.getMultipartUploadStatus()).thenReturn(mockStatus);
+		when(mockCompositeStatus.getUploadType()).thenReturn(UploadType.S3);
+		when(mockMultipartUploadDAO.getUploadStatus(any(), anyBoolean())).thenReturn(mockCompositeStatus);
+
+		BatchAddPartRequest request = new BatchAddPartRequest().setUploadId("upload").setPartNumbers(Arrays.asList(1L, 5L))
+				.setPartMD5Hexs(Arrays.asList("md5One", "md5Five"));
+
+		String errorMessage = assertThrows(IllegalArgumentException.class, () -> {
+			// Call under test
+			manager.addMultipartParts(user, request);
+		}).getMessage();
+
+		assertEquals("Part number cannot be larger than number of parts. Number of parts: 4, provided part number: 5", errorMessage);
+
+		verify(mockMultipartUploadDAO, never()).addPartsToUpload(any(), any());
+	}
+
+	@Test
+	public void testAddMultipartPartsWithMissingPartMD5s() {
+		BatchAddPartRequest request = new BatchAddPartRequest().setUploadId("upload").setPartNumbers(Arrays.asList(1L, 2L))
+				.setPartMD5Hexs(Arrays.asList("md5One"));
+
+		String errorMessage = assertThrows(IllegalArgumentException.class, () -> {
+			// Call under test
+			manager.addMultipartParts(user, request);
+		}).getMessage();
+
+		assertEquals("BatchAddPartRequest.partMD5Hexs must contain the MD5 of each part.", errorMessage);
+
+		verifyZeroInteractions(mockMultipartUploadDAO);
+	}
+
 	@Test
 	public void testCompleteMultipartUpload() {
 		String uploadId = "1234";
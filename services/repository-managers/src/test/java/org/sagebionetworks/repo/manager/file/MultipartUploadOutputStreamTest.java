@@ -0,0 +1,264 @@
+package org.sagebionetworks.repo.manager.file;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.aws.SynapseS3Client;
+
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.StorageClass;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+import com.amazonaws.util.BinaryUtils;
+import com.amazonaws.util.Md5Utils;
+
+@ExtendWith(MockitoExtension.class)
+public class MultipartUploadOutputStreamTest {
+
+	@Mock
+	private SynapseS3Client mockS3Client;
+	
+	private ExecutorService threadPool;
+	
+	private ObjectMetadata metadata;
+	
+	private AtomicLong bytesUploaded;
+	
+	private List<String> uploadedParts;
+	
+	private MultipartUploadOutputStream stream;
+	
+	private static final String BUCKET = "bucket";
+	private static final String KEY = "key";
+	private static final String UPLOAD_ID = "uploadId";
+	private static final int PART_SIZE = 4;
+	
+	@BeforeEach
+	public void before() {
+		threadPool = Executors.newFixedThreadPool(2);
+		metadata = new ObjectMetadata();
+		bytesUploaded = new AtomicLong();
+		uploadedParts = Collections.synchronizedList(new ArrayList<>());
+		stream = new MultipartUploadOutputStream(mockS3Client, threadPool, BUCKET, KEY, metadata, StorageClass.IntelligentTiering, 
+				event -> bytesUploaded.addAndGet(event.getBytesTransferred()), PART_SIZE, 2);
+	}
+	
+	@AfterEach
+	public void after() {
+		threadPool.shutdownNow();
+	}
+	
+	private void setupInitiateMultipartUpload() {
+		InitiateMultipartUploadResult initResult = new InitiateMultipartUploadResult();
+		initResult.setUploadId(UPLOAD_ID);
+		when(mockS3Client.initiateMultipartUpload(any())).thenReturn(initResult);
+	}
+	
+	private void setupMultipartUpload() {
+		setupInitiateMultipartUpload();
+		when(mockS3Client.uploadPart(any())).thenAnswer(invocation -> {
+			UploadPartRequest request = invocation.getArgument(0);
+			String content = IOUtils.toString(request.getInputStream(), StandardCharsets.UTF_8);
+			uploadedParts.add(request.getPartNumber() + ":" + content);
+			UploadPartResult result = new UploadPartResult();
+			result.setPartNumber(request.getPartNumber());
+			result.setETag("etag" + request.getPartNumber());
+			return result;
+		});
+	}
+	
+	@Test
+	public void testWriteWithSinglePart() throws IOException {
+		byte[] content = "abc".getBytes(StandardCharsets.UTF_8);
+		
+		// Call under test
+		stream.write(content);
+		stream.close();
+		
+		ArgumentCaptor<PutObjectRequest> captor = ArgumentCaptor.forClass(PutObjectRequest.class);
+		
+		verify(mockS3Client).putObject(captor.capture());
+		verify(mockS3Client, never()).initiateMultipartUpload(any());
+		
+		PutObjectRequest request = captor.getValue();
+		
+		assertEquals(BUCKET, request.getBucketName());
+		assertEquals(KEY, request.getKey());
+		assertEquals(StorageClass.IntelligentTiering.toString(), request.getStorageClass());
+		assertEquals(3L, request.getMetadata().getContentLength());
+		assertArrayEquals(content, IOUtils.toByteArray(request.getInputStream()));
+		assertEquals(BinaryUtils.toHex(Md5Utils.computeMD5Hash(content)), stream.getContentMd5());
+		assertEquals(3L, stream.getContentSize());
+		assertEquals(3L, bytesUploaded.get());
+	}
+	
+	@Test
+	public void testGetContentMd5WithMultipleCalls() throws IOException {
+		byte[] content = "abc".getBytes(StandardCharsets.UTF_8);
+		
+		stream.write(content);
+		stream.close();
+		
+		String expected = BinaryUtils.toHex(Md5Utils.computeMD5Hash(content));
+		
+		// Call under test
+		assertEquals(expected, stream.getContentMd5());
+		assertEquals(expected, stream.getContentMd5());
+	}
+	
+	@Test
+	public void testWriteWithEmpty() throws IOException {
+		
+		// Call under test
+		stream.close();
+		
+		verify(mockS3Client).putObject(any());
+		
+		assertEquals(BinaryUtils.toHex(Md5Utils.computeMD5Hash(new byte[0])), stream.getContentMd5());
+		assertEquals(0L, stream.getContentSize());
+	}
+	
+	@Test
+	public void testWriteWithMultipleParts() throws IOException {
+		setupMultipartUpload();
+		
+		String content = "0123456789";
+		
+		// Call under test
+		stream.write(content.getBytes(StandardCharsets.UTF_8), 0, 5);
+		stream.write(content.charAt(5));
+		stream.write(content.getBytes(StandardCharsets.UTF_8), 6, 4);
+		stream.close();
+		
+		ArgumentCaptor<InitiateMultipartUploadRequest> initCaptor = ArgumentCaptor.forClass(InitiateMultipartUploadRequest.class);
+		ArgumentCaptor<CompleteMultipartUploadRequest> completeCaptor = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+		
+		verify(mockS3Client).initiateMultipartUpload(initCaptor.capture());
+		verify(mockS3Client, times(3)).uploadPart(any());
+		verify(mockS3Client).completeMultipartUpload(completeCaptor.capture());
+		verify(mockS3Client, never()).putObject(any(PutObjectRequest.class));
+		
+		assertEquals(BUCKET, initCaptor.getValue().getBucketName());
+		assertEquals(KEY, initCaptor.getValue().getKey());
+		assertEquals(StorageClass.IntelligentTiering.toString(), initCaptor.getValue().getStorageClass());
+		
+		Collections.sort(uploadedParts);
+		
+		assertEquals(Arrays.asList("1:0123", "2:4567", "3:89"), uploadedParts);
+		
+		CompleteMultipartUploadRequest completeRequest = completeCaptor.getValue();
+		
+		assertEquals(UPLOAD_ID, completeRequest.getUploadId());
+		assertEquals(Arrays.asList(1, 2, 3), completeRequest.getPartETags().stream().map(PartETag::getPartNumber).collect(Collectors.toList()));
+		
+		assertEquals(BinaryUtils.toHex(Md5Utils.computeMD5Hash(content.getBytes(StandardCharsets.UTF_8))), stream.getContentMd5());
+		assertEquals(10L, stream.getContentSize());
+		assertEquals(10L, bytesUploaded.get());
+	}
+	
+	@Test
+	public void testWriteWithPartFailure() throws IOException {
+		setupInitiateMultipartUpload();
+		
+		IllegalStateException ex = new IllegalStateException("failed");
+		
+		when(mockS3Client.uploadPart(any())).thenThrow(ex);
+		
+		stream.write("0123".getBytes(StandardCharsets.UTF_8));
+		
+		IllegalStateException result = assertThrows(IllegalStateException.class, () -> {
+			// Call under test
+			stream.close();
+		});
+		
+		assertEquals(ex, result);
+		
+		verify(mockS3Client, never()).completeMultipartUpload(any());
+	}
+	
+	@Test
+	public void testAbort() throws IOException {
+		setupInitiateMultipartUpload();
+		
+		stream.write("0123".getBytes(StandardCharsets.UTF_8));
+		
+		// Call under test
+		stream.abort();
+		
+		ArgumentCaptor<AbortMultipartUploadRequest> captor = ArgumentCaptor.forClass(AbortMultipartUploadRequest.class);
+		
+		verify(mockS3Client).abortMultipartUpload(captor.capture());
+		
+		assertEquals(UPLOAD_ID, captor.getValue().getUploadId());
+		
+		assertThrows(IOException.class, () -> {
+			stream.write(1);
+		});
+	}
+	
+	@Test
+	public void testAbortWithNoUpload() throws IOException {
+		stream.write(1);
+		
+		// Call under test
+		stream.abort();
+		
+		verifyNoMoreInteractions(mockS3Client);
+	}
+	
+	@Test
+	public void testAbortAfterClose() throws IOException {
+		stream.write(1);
+		stream.close();
+		
+		// Call under test
+		stream.abort();
+		
+		verify(mockS3Client).deleteObject(BUCKET, KEY);
+	}
+	
+	@Test
+	public void testGetContentMd5BeforeClose() throws IOException {
+		stream.write(1);
+		
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// Call under test
+			stream.getContentMd5();
+		}).getMessage();
+		
+		assertEquals("The upload was not completed.", message);
+	}
+
+}
@@ -494,6 +494,19 @@ public class MultipartUploadCopyRequestHandlerTest {
 		
 	}
 	
+	@Test
+	public void testGetDirectPresignedUrl() {
+		
+		String message = assertThrows(UnsupportedOperationException.class, () -> {
+			// Call under test
+			handler.getDirectPresignedUrl(mockStatus, 1, "md5", "plain/text");
+		}).getMessage();
+		
+		assertEquals("Uploading a part directly is not supported for a multipart copy.", message);
+		
+		verifyZeroInteractions(mockCloudDaoProvider);
+	}
+	
 	@Test
 	public void testValidateAddedPart() {
 		String partMD5Hex = "md5";
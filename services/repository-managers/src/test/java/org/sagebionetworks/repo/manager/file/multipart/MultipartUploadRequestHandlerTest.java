@@ -3,6 +3,7 @@ package org.sagebionetworks.repo.manager.file.multipart;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -253,6 +254,29 @@ public class MultipartUploadRequestHandlerTest {
 		
 	}
 	
+	@Test
+	public void testGetDirectPresignedUrl() throws MalformedURLException {
+		String contentType = "plain/text";
+		String partMD5Hex = "md5";
+		UploadType uploadType = UploadType.S3;
+		Long partNumber = 1L;
+		
+		PresignedUrl url = new PresignedUrl().withUrl(new URL("https://some.url"));
+		
+		when(mockStatus.getUploadType()).thenReturn(uploadType);
+		when(mockCloudDaoProvider.getCloudServiceMultipartUploadDao(any())).thenReturn(mockCloudDao);
+		when(mockCloudDao.createPartUploadDirectPresignedUrl(any(), anyLong(), any(), any())).thenReturn(url);
+		
+		// Call under test
+		PresignedUrl result = handler.getDirectPresignedUrl(mockStatus, partNumber, partMD5Hex, contentType);
+	
+		assertEquals(url, result);
+		
+		verify(mockCloudDaoProvider).getCloudServiceMultipartUploadDao(uploadType);
+		verify(mockCloudDao).createPartUploadDirectPresignedUrl(mockStatus, partNumber, partMD5Hex, contentType);
+		
+	}
+	
 	@Test
 	public void testValidateAddedPart() {
 		String partMD5Hex = "md5";
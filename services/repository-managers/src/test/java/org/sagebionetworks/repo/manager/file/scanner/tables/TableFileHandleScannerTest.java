@@ -4,13 +4,21 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -22,13 +30,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.manager.file.scanner.BasicFileHandleAssociationScanner;
 import org.sagebionetworks.repo.manager.file.scanner.ScannedFileHandleAssociation;
 import org.sagebionetworks.repo.manager.table.TableEntityManager;
 import org.sagebionetworks.repo.model.IdRange;
+import org.sagebionetworks.repo.model.dbo.DMLUtils;
+import org.sagebionetworks.repo.model.dbo.migration.QueryStreamIterable;
 import org.sagebionetworks.repo.model.table.TableRowChange;
 import org.sagebionetworks.repo.web.NotFoundException;
 import org.sagebionetworks.table.model.SparseChangeSet;
 import org.sagebionetworks.workers.util.aws.message.RecoverableMessageException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
 import com.amazonaws.AmazonServiceException;
 import com.amazonaws.AmazonServiceException.ErrorType;
@@ -41,6 +54,9 @@ public class TableFileHandleScannerTest {
 	@Mock
 	private TableEntityManager mockTableManager;
 	
+	@Mock
+	private NamedParameterJdbcTemplate mockJdbcTemplate;
+	
 	@InjectMocks
 	private TableFileHandleScanner scanner;
 	
@@ -82,19 +98,28 @@ public class TableFileHandleScannerTest {
 		when(mockRowChange.getTableId()).thenReturn(tableId.toString());
 		when(mockTableManager.getSparseChangeSet(any())).thenReturn(mockChangeSet);
 		when(mockChangeSet.getFileHandleIdsInSparseChangeSet()).thenReturn(fileHandles);
-		when(mockTableManager.newTableRowChangeWithFileRefsIterator(any())).thenReturn(Arrays.asList(mockRowChange).iterator());
+		when(mockTableManager.newTableRowChangeWithUnindexedFileRefsIterator(any())).thenReturn(Arrays.asList(mockRowChange).iterator());
+		when(mockJdbcTemplate.query(anyString(), anyMap(), any(RowMapper.class))).thenReturn(Arrays.asList(
+			new ScannedFileHandleAssociation(tableId, 3L),
+			new ScannedFileHandleAssociation(tableId, 4L)
+		), Collections.emptyList());
 		
 		// Call under test
 		Iterable<ScannedFileHandleAssociation> result = scanner.scanRange(idRange);
 		
 		assertNotNull(result.iterator());
 		
-		verify(mockTableManager).newTableRowChangeWithFileRefsIterator(idRange);
+		verify(mockTableManager).newTableRowChangeWithUnindexedFileRefsIterator(idRange);
 		
-		// At this point we didn't consume the iterable, so no other interactions should happen with the manager
+		// At this point we didn't consume the iterable, so no other interactions should happen with the manager or the database
 		verifyNoMoreInteractions(mockTableManager);
+		verifyZeroInteractions(mockJdbcTemplate);
 		
 		List<ScannedFileHandleAssociation> expected = Arrays.asList(
+			// The associations from the index
+			new ScannedFileHandleAssociation(tableId, 3L),
+			new ScannedFileHandleAssociation(tableId, 4L),
+			// The associations from the change sets that are not indexed
 			new ScannedFileHandleAssociation(tableId).withFileHandleIds(fileHandles)
 		);
 		
@@ -104,6 +129,39 @@ public class TableFileHandleScannerTest {
 		assertEquals(expected, resultList);
 		
 		verify(mockTableManager).getSparseChangeSet(mockRowChange);
+		
+		Map<String, Object> expectedParams = new HashMap<>();
+		expectedParams.put(DMLUtils.BIND_MIN_ID, 0L);
+		expectedParams.put(DMLUtils.BIND_MAX_ID, 10L);
+		expectedParams.put(QueryStreamIterable.KEY_LIMIT, BasicFileHandleAssociationScanner.DEFAULT_BATCH_SIZE);
+		expectedParams.put(QueryStreamIterable.KEY_OFFSET, BasicFileHandleAssociationScanner.DEFAULT_BATCH_SIZE);
+		
+		verify(mockJdbcTemplate, times(2)).query(eq("SELECT TABLE_ID, FILE_HANDLE_ID FROM TABLE_ROW_CHANGE_FILE_HANDLE"
+				+ " WHERE CHANGE_ID BETWEEN :BMINID AND :BMAXID AND FILE_HANDLE_ID <> -1 ORDER BY CHANGE_ID, FILE_HANDLE_ID LIMIT :KEY_LIMIT OFFSET :KEY_OFFSET"), eq(expectedParams), any(RowMapper.class));
+	}
+	
+	@Test
+	public void testScanRangeWithAllIndexed() throws Exception {
+		
+		IdRange idRange = new IdRange(0, 10);
+		
+		when(mockTableManager.newTableRowChangeWithUnindexedFileRefsIterator(any())).thenReturn(Collections.emptyIterator());
+		when(mockJdbcTemplate.query(anyString(), anyMap(), any(RowMapper.class))).thenReturn(Arrays.asList(
+			new ScannedFileHandleAssociation(tableId, 3L)
+		), Collections.emptyList());
+		
+		List<ScannedFileHandleAssociation> expected = Arrays.asList(
+			new ScannedFileHandleAssociation(tableId, 3L)
+		);
+		
+		// Call under test
+		List<ScannedFileHandleAssociation> resultList = StreamSupport.stream(scanner.scanRange(idRange).spliterator(), false).collect(Collectors.toList());
+		
+		assertEquals(expected, resultList);
+		
+		verify(mockTableManager).newTableRowChangeWithUnindexedFileRefsIterator(idRange);
+		// No change set is read from S3
+		verifyNoMoreInteractions(mockTableManager);
 	}
 	
 	@Test
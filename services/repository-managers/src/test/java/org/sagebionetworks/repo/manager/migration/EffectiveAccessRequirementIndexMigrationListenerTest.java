@@ -0,0 +1,96 @@
+package org.sagebionetworks.repo.manager.migration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.model.RestrictableObjectType;
+import org.sagebionetworks.repo.model.ar.EffectiveAccessRequirementDao;
+import org.sagebionetworks.repo.model.dbo.DatabaseObject;
+import org.sagebionetworks.repo.model.dbo.persistence.DBOAccessRequirement;
+import org.sagebionetworks.repo.model.dbo.persistence.DBONode;
+import org.sagebionetworks.repo.model.dbo.persistence.DBOSubjectAccessRequirement;
+import org.sagebionetworks.repo.model.migration.MigrationType;
+
+@ExtendWith(MockitoExtension.class)
+public class EffectiveAccessRequirementIndexMigrationListenerTest {
+
+	@Mock
+	private EffectiveAccessRequirementDao mockDao;
+
+	@InjectMocks
+	private EffectiveAccessRequirementIndexMigrationListener listener;
+
+	@Test
+	public void testSupports() {
+		for (MigrationType type : MigrationType.values()) {
+			boolean expected = type == MigrationType.NODE || type == MigrationType.ACCESS_REQUIREMENT || type == MigrationType.NODE_ACCESS_REQUIRMENT;
+			// call under test
+			assertEquals(expected, listener.supports(type), type.name());
+		}
+	}
+
+	@Test
+	public void testBeforeCreateOrUpdate() {
+		// call under test
+		listener.beforeCreateOrUpdate(Collections.emptyList());
+
+		verifyZeroInteractions(mockDao);
+	}
+
+	@Test
+	public void testAfterCreateOrUpdateWithNodes() {
+		DBONode one = new DBONode();
+		one.setId(1L);
+		DBONode two = new DBONode();
+		two.setId(2L);
+
+		// call under test
+		listener.afterCreateOrUpdate(Arrays.<DatabaseObject<?>>asList(one, two));
+
+		verify(mockDao).clearMigratedSubtrees(Arrays.asList(1L, 2L));
+		verify(mockDao).clearRequirements(Collections.emptyList());
+		verifyNoMoreInteractions(mockDao);
+	}
+
+	@Test
+	public void testAfterCreateOrUpdateWithSubjects() {
+		DBOSubjectAccessRequirement entitySubject = new DBOSubjectAccessRequirement();
+		entitySubject.setSubjectId(1L);
+		entitySubject.setSubjectType(RestrictableObjectType.ENTITY.name());
+		DBOSubjectAccessRequirement teamSubject = new DBOSubjectAccessRequirement();
+		teamSubject.setSubjectId(2L);
+		teamSubject.setSubjectType(RestrictableObjectType.TEAM.name());
+
+		// call under test
+		listener.afterCreateOrUpdate(Arrays.<DatabaseObject<?>>asList(entitySubject, teamSubject));
+
+		// Only the entity subjects are cleared
+		verify(mockDao).clearMigratedSubtrees(Arrays.asList(1L));
+		verify(mockDao).clearRequirements(Collections.emptyList());
+		verifyNoMoreInteractions(mockDao);
+	}
+
+	@Test
+	public void testAfterCreateOrUpdateWithAccessRequirements() {
+		DBOAccessRequirement requirement = new DBOAccessRequirement();
+		requirement.setId(3L);
+
+		// call under test
+		listener.afterCreateOrUpdate(Arrays.<DatabaseObject<?>>asList(requirement));
+
+		verify(mockDao).clearMigratedSubtrees(Collections.emptyList());
+		verify(mockDao).clearRequirements(Arrays.asList(3L));
+		verifyNoMoreInteractions(mockDao);
+	}
+
+}
@@ -0,0 +1,79 @@
+package org.sagebionetworks.repo.manager.migration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.manager.replication.EntityChecksumBucketManager;
+import org.sagebionetworks.repo.model.dbo.DatabaseObject;
+import org.sagebionetworks.repo.model.dbo.persistence.DBOAccessControlList;
+import org.sagebionetworks.repo.model.dbo.persistence.DBONode;
+import org.sagebionetworks.repo.model.migration.MigrationType;
+
+@ExtendWith(MockitoExtension.class)
+public class EntityChecksumBucketMigrationListenerTest {
+
+	@Mock
+	private EntityChecksumBucketManager mockManager;
+
+	@InjectMocks
+	private EntityChecksumBucketMigrationListener listener;
+
+	@Test
+	public void testSupports() {
+		for (MigrationType type : MigrationType.values()) {
+			boolean expected = type == MigrationType.NODE || type == MigrationType.ACL;
+			// call under test
+			assertEquals(expected, listener.supports(type), type.name());
+		}
+	}
+
+	@Test
+	public void testBeforeCreateOrUpdate() {
+		// call under test
+		listener.beforeCreateOrUpdate(Collections.emptyList());
+
+		verifyZeroInteractions(mockManager);
+	}
+
+	@Test
+	public void testAfterCreateOrUpdateWithNodes() {
+		DBONode one = new DBONode();
+		one.setId(1L);
+		DBONode two = new DBONode();
+		two.setId(200_001L);
+		List<DatabaseObject<?>> batch = List.of(one, two);
+
+		// call under test
+		listener.afterCreateOrUpdate(batch);
+
+		verify(mockManager).markEntitiesDirty(List.of(1L, 200_001L));
+	}
+
+	@Test
+	public void testAfterCreateOrUpdateWithAcls() {
+		List<DatabaseObject<?>> batch = List.of(new DBOAccessControlList());
+
+		// call under test
+		listener.afterCreateOrUpdate(batch);
+
+		verify(mockManager).markAllDirty();
+	}
+
+	@Test
+	public void testAfterCreateOrUpdateWithEmptyBatch() {
+		// call under test
+		listener.afterCreateOrUpdate(Collections.emptyList());
+
+		verifyZeroInteractions(mockManager);
+	}
+
+}
@@ -0,0 +1,123 @@
+package org.sagebionetworks.repo.manager.migration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.manager.file.scanner.ScannedFileHandleAssociation;
+import org.sagebionetworks.repo.manager.file.scanner.tables.TableFileHandleScanner;
+import org.sagebionetworks.repo.model.IdRange;
+import org.sagebionetworks.repo.model.UnauthorizedException;
+import org.sagebionetworks.repo.model.UserInfo;
+import org.sagebionetworks.repo.model.dbo.dao.table.TableRowTruthDAO;
+import org.sagebionetworks.repo.model.migration.TableFileHandleIndexBackfillResponse;
+import org.sagebionetworks.repo.model.table.TableRowChange;
+
+import com.google.common.collect.ImmutableSet;
+
+@ExtendWith(MockitoExtension.class)
+public class TableFileHandleIndexBackfillTest {
+
+	@Mock
+	private TableRowTruthDAO mockTruthDao;
+
+	@Mock
+	private TableFileHandleScanner mockScanner;
+
+	@InjectMocks
+	private TableFileHandleIndexBackfill backfill;
+
+	@Mock
+	private UserInfo mockUser;
+
+	@Test
+	public void testBackfillIndex() {
+		TableRowChange one = new TableRowChange().setTableId("syn1").setRowVersion(0L);
+		TableRowChange two = new TableRowChange().setTableId("syn2").setRowVersion(3L);
+		TableRowChange three = new TableRowChange().setTableId("syn2").setRowVersion(4L);
+
+		Set<Long> fileHandleIds = ImmutableSet.of(1L, 2L);
+
+		when(mockUser.isAdmin()).thenReturn(true);
+		when(mockTruthDao.getTableRowChangeIdRange()).thenReturn(new IdRange(1, TableFileHandleIndexBackfill.BATCH_SIZE + 10));
+		when(mockTruthDao.getTableRowChangeWithUnindexedFileRefsPage(any(), anyLong(), anyLong())).thenReturn(Arrays.asList(one, two), Arrays.asList(three));
+		when(mockScanner.mapTableRowChange(any())).thenReturn(
+			new ScannedFileHandleAssociation(1L).withFileHandleIds(fileHandleIds),
+			// The change data could not be loaded
+			new ScannedFileHandleAssociation(2L),
+			new ScannedFileHandleAssociation(2L).withFileHandleIds(Collections.singleton(3L))
+		);
+
+		// Call under test
+		TableFileHandleIndexBackfillResponse result = backfill.backfillIndex(mockUser);
+
+		assertEquals(new TableFileHandleIndexBackfillResponse().setCount(3L), result);
+
+		verify(mockTruthDao).getTableRowChangeWithUnindexedFileRefsPage(new IdRange(1, TableFileHandleIndexBackfill.BATCH_SIZE), 0, TableFileHandleIndexBackfill.BATCH_SIZE);
+		verify(mockTruthDao).getTableRowChangeWithUnindexedFileRefsPage(new IdRange(TableFileHandleIndexBackfill.BATCH_SIZE + 1, TableFileHandleIndexBackfill.BATCH_SIZE + 10), TableFileHandleIndexBackfill.BATCH_SIZE, TableFileHandleIndexBackfill.BATCH_SIZE);
+		verify(mockScanner).mapTableRowChange(one);
+		verify(mockScanner).mapTableRowChange(two);
+		verify(mockScanner).mapTableRowChange(three);
+		verify(mockTruthDao).addTableRowChangeFileHandleIds("syn1", 0L, fileHandleIds);
+		// The change without file handles is recorded as indexed
+		verify(mockTruthDao).addTableRowChangeFileHandleIds("syn2", 3L, Collections.emptySet());
+		verify(mockTruthDao).addTableRowChangeFileHandleIds("syn2", 4L, Collections.singleton(3L));
+		verify(mockTruthDao).getTableRowChangeIdRange();
+		verifyNoMoreInteractions(mockTruthDao);
+	}
+
+	@Test
+	public void testBackfillIndexWithNoUnindexedChanges() {
+		when(mockUser.isAdmin()).thenReturn(true);
+		when(mockTruthDao.getTableRowChangeIdRange()).thenReturn(new IdRange(1, 10));
+		when(mockTruthDao.getTableRowChangeWithUnindexedFileRefsPage(any(), anyLong(), anyLong())).thenReturn(Collections.emptyList());
+
+		// Call under test
+		TableFileHandleIndexBackfillResponse result = backfill.backfillIndex(mockUser);
+
+		assertEquals(new TableFileHandleIndexBackfillResponse().setCount(0L), result);
+
+		verify(mockTruthDao).getTableRowChangeIdRange();
+		verify(mockTruthDao).getTableRowChangeWithUnindexedFileRefsPage(new IdRange(1, 10), 0, TableFileHandleIndexBackfill.BATCH_SIZE);
+		verifyNoMoreInteractions(mockTruthDao);
+		verifyNoMoreInteractions(mockScanner);
+	}
+
+	@Test
+	public void testBackfillIndexWithNonAdmin() {
+		when(mockUser.isAdmin()).thenReturn(false);
+
+		String message = assertThrows(UnauthorizedException.class, () -> {
+			// Call under test
+			backfill.backfillIndex(mockUser);
+		}).getMessage();
+
+		assertEquals("Only an administrator may access this service.", message);
+
+		verifyNoMoreInteractions(mockTruthDao);
+	}
+
+	@Test
+	public void testBackfillIndexWithNoUser() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// Call under test
+			backfill.backfillIndex(null);
+		}).getMessage();
+
+		assertEquals("User is required.", message);
+	}
+
+}
@@ -59,6 +59,9 @@ public class OAuthRefreshTokenManagerImplUnitTest {
 	@Mock
 	Clock clock;
 
+	@Mock
+	ValidatedAccessTokenCache mockValidatedAccessTokenCache;
+
 	@InjectMocks
 	OAuthRefreshTokenManagerImpl oauthRefreshTokenManager;
 
@@ -373,6 +376,7 @@ public class OAuthRefreshTokenManagerImplUnitTest {
 
 		verify(mockOAuthDao).deleteAuthorizationConsentForClient(Long.valueOf(USER_ID), Long.valueOf(CLIENT_ID));
 		verify(mockOAuthRefreshTokenDao).deleteAllTokensForUserClientPair(USER_ID, CLIENT_ID);
+		verify(mockValidatedAccessTokenCache).invalidateUserClientPair(USER_ID, CLIENT_ID);
 	}
 
 	@Test
@@ -388,6 +392,7 @@ public class OAuthRefreshTokenManagerImplUnitTest {
 
 		verify(mockOAuthRefreshTokenDao).getRefreshTokenMetadata(TOKEN_ID);
 		verify(mockOAuthRefreshTokenDao).deleteToken(TOKEN_ID);
+		verify(mockValidatedAccessTokenCache).invalidateTokenId(TOKEN_ID);
 	}
 
 	@Test
@@ -399,6 +404,7 @@ public class OAuthRefreshTokenManagerImplUnitTest {
 
 		verify(mockOAuthRefreshTokenDao).getRefreshTokenMetadata(TOKEN_ID);
 		verify(mockOAuthRefreshTokenDao, never()).deleteToken(TOKEN_ID);
+		verify(mockValidatedAccessTokenCache, never()).invalidateTokenId(any());
 	}
 
 	@Test
@@ -414,6 +420,7 @@ public class OAuthRefreshTokenManagerImplUnitTest {
 
 		verify(mockOAuthRefreshTokenDao).getRefreshTokenMetadata(TOKEN_ID);
 		verify(mockOAuthRefreshTokenDao, never()).deleteToken(TOKEN_ID);
+		verify(mockValidatedAccessTokenCache, never()).invalidateTokenId(any());
 	}
 
 
@@ -430,6 +437,7 @@ public class OAuthRefreshTokenManagerImplUnitTest {
 
 		verify(mockOAuthRefreshTokenDao).getRefreshTokenMetadata(TOKEN_ID);
 		verify(mockOAuthRefreshTokenDao).deleteToken(TOKEN_ID);
+		verify(mockValidatedAccessTokenCache).invalidateTokenId(TOKEN_ID);
 	}
 
 	@Test
@@ -441,6 +449,7 @@ public class OAuthRefreshTokenManagerImplUnitTest {
 
 		verify(mockOAuthRefreshTokenDao).getRefreshTokenMetadata(TOKEN_ID);
 		verify(mockOAuthRefreshTokenDao, never()).deleteToken(TOKEN_ID);
+		verify(mockValidatedAccessTokenCache, never()).invalidateTokenId(any());
 	}
 
 	@Test
@@ -456,6 +465,7 @@ public class OAuthRefreshTokenManagerImplUnitTest {
 
 		verify(mockOAuthRefreshTokenDao).getRefreshTokenMetadata(TOKEN_ID);
 		verify(mockOAuthRefreshTokenDao, never()).deleteToken(TOKEN_ID);
+		verify(mockValidatedAccessTokenCache, never()).invalidateTokenId(any());
 	}
 
 	@Test
@@ -26,6 +26,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
@@ -44,6 +45,7 @@ import org.sagebionetworks.repo.manager.NotificationManager;
 import org.sagebionetworks.repo.manager.UserManager;
 import org.sagebionetworks.repo.manager.UserProfileManager;
 import org.sagebionetworks.repo.manager.authentication.PersonalAccessTokenManager;
+import org.sagebionetworks.repo.manager.authentication.PersonalAccessTokenUsageRecorder;
 import org.sagebionetworks.repo.manager.oauth.claimprovider.CompanyClaimProvider;
 import org.sagebionetworks.repo.manager.oauth.claimprovider.EmailClaimProvider;
 import org.sagebionetworks.repo.manager.oauth.claimprovider.EmailVerifiedClaimProvider;
@@ -139,6 +141,12 @@ public class OpenIDConnectManagerImplUnitTest {
 	
 	@Mock
 	private NotificationManager mockNotificationManager;
+	
+	@Mock
+	private ValidatedAccessTokenCache mockValidatedAccessTokenCache;
+	
+	@Mock
+	private PersonalAccessTokenUsageRecorder mockPersonalAccessTokenUsageRecorder;
 
 	@InjectMocks
 	private OpenIDConnectManagerImpl openIDConnectManagerImpl;
@@ -1431,7 +1439,10 @@ public class OpenIDConnectManagerImplUnitTest {
 		// method under test
 		assertEquals(USER_ID, openIDConnectManagerImpl.validateAccessToken(token));
 
+		verify(mockValidatedAccessTokenCache).get(token);
 		verify(oidcTokenHelper).parseJWT(token);
+		verify(mockValidatedAccessTokenCache).put(token,
+				new ValidatedAccessToken(USER_ID, OAUTH_CLIENT_ID, TokenType.OIDC_ACCESS_TOKEN, refreshTokenId, Long.MAX_VALUE));
 	}
 
 	@Test
@@ -1475,6 +1486,7 @@ public class OpenIDConnectManagerImplUnitTest {
 		assertThrows(OAuthUnauthenticatedException.class, () -> openIDConnectManagerImpl.validateAccessToken(token));
 
 		verify(oidcTokenHelper).parseJWT(token);
+		verify(mockValidatedAccessTokenCache, never()).put(any(), any());
 	}
 
 	@Test
@@ -1517,6 +1529,10 @@ public class OpenIDConnectManagerImplUnitTest {
 		assertEquals(USER_ID, openIDConnectManagerImpl.validateAccessToken(token));
 
 		verify(oidcTokenHelper).parseJWT(token);
+		verify(mockPersonalAccessTokenUsageRecorder).recordUsage(tokenId);
+		verify(mockPersonalAccessTokenManager, never()).updateLastUsedTime(any());
+		verify(mockValidatedAccessTokenCache).put(token,
+				new ValidatedAccessToken(USER_ID, OAUTH_CLIENT_ID, TokenType.PERSONAL_ACCESS_TOKEN, tokenId, Long.MAX_VALUE));
 	}
 
 	@Test
@@ -1540,6 +1556,63 @@ public class OpenIDConnectManagerImplUnitTest {
 		assertThrows(ForbiddenException.class, () -> openIDConnectManagerImpl.validateAccessToken(token));
 
 		verify(oidcTokenHelper).parseJWT(token);
+		verifyZeroInteractions(mockPersonalAccessTokenUsageRecorder);
+		verify(mockValidatedAccessTokenCache, never()).put(any(), any());
+	}
+	
+	@Test
+	public void testValidateAccessToken_withExpiration() {
+		String token = "access token";
+		when(oidcTokenHelper.parseJWT(token)).thenReturn(mockJWT);
+		Claims claims = ClaimsWithAuthTime.newClaims();
+		claims.put(OIDCClaimName.token_type.name(), TokenType.OIDC_ACCESS_TOKEN.name());
+		claims.setExpiration(now);
+		ClaimsJsonUtil.addAccessClaims(Collections.emptyList(), Collections.emptyMap(), claims);
+		when(mockJWT.getBody()).thenReturn(claims);
+		claims.setAudience(OAUTH_CLIENT_ID);
+		when(mockOauthClientDao.getSectorIdentifierSecretForClient(OAUTH_CLIENT_ID)).thenReturn(clientSpecificEncodingSecret);
+		when(mockOauthClientDao.isOauthClientVerified(OAUTH_CLIENT_ID)).thenReturn(true);
+		String ppid = openIDConnectManagerImpl.ppid(USER_ID, OAUTH_CLIENT_ID);
+		claims.setSubject(ppid);
+
+		// method under test
+		assertEquals(USER_ID, openIDConnectManagerImpl.validateAccessToken(token));
+		
+		verify(mockValidatedAccessTokenCache).put(token,
+				new ValidatedAccessToken(USER_ID, OAUTH_CLIENT_ID, TokenType.OIDC_ACCESS_TOKEN, null, now.getTime()));
+	}
+	
+	@Test
+	public void testValidateAccessToken_cachedAccessToken() {
+		String token = "access token";
+		when(mockValidatedAccessTokenCache.get(token)).thenReturn(Optional.of(
+				new ValidatedAccessToken(USER_ID, OAUTH_CLIENT_ID, TokenType.OIDC_ACCESS_TOKEN, "12345", Long.MAX_VALUE)));
+
+		// method under test
+		assertEquals(USER_ID, openIDConnectManagerImpl.validateAccessToken(token));
+		
+		verifyZeroInteractions(oidcTokenHelper);
+		verifyZeroInteractions(mockOauthClientDao);
+		verifyZeroInteractions(oauthRefreshTokenManager);
+		verifyZeroInteractions(mockPersonalAccessTokenUsageRecorder);
+		verify(mockValidatedAccessTokenCache, never()).put(any(), any());
+	}
+	
+	@Test
+	public void testValidateAccessToken_cachedPersonalAccessToken() {
+		String token = "personal access token";
+		String tokenId = "9999";
+		when(mockValidatedAccessTokenCache.get(token)).thenReturn(Optional.of(
+				new ValidatedAccessToken(USER_ID, OAUTH_CLIENT_ID, TokenType.PERSONAL_ACCESS_TOKEN, tokenId, Long.MAX_VALUE)));
+
+		// method under test
+		assertEquals(USER_ID, openIDConnectManagerImpl.validateAccessToken(token));
+		
+		verifyZeroInteractions(oidcTokenHelper);
+		verifyZeroInteractions(mockOauthClientDao);
+		verifyZeroInteractions(mockPersonalAccessTokenManager);
+		verify(mockPersonalAccessTokenUsageRecorder).recordUsage(tokenId);
+		verify(mockValidatedAccessTokenCache, never()).put(any(), any());
 	}
 
 
@@ -0,0 +1,184 @@
+package org.sagebionetworks.repo.manager.oauth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.model.auth.TokenType;
+import org.sagebionetworks.repo.model.message.TransactionSynchronizationProxy;
+import org.sagebionetworks.util.Clock;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+@ExtendWith(MockitoExtension.class)
+public class ValidatedAccessTokenCacheImplTest {
+
+	private static final String TOKEN = "token";
+	private static final String USER_ID = "101";
+	private static final String CLIENT_ID = "123";
+	private static final String TOKEN_ID = "9999";
+	private static final long NOW = 1_000_000L;
+
+	@Mock
+	private Clock mockClock;
+
+	@Mock
+	private TransactionSynchronizationProxy mockTransactionSynchronization;
+
+	@Captor
+	private ArgumentCaptor<TransactionSynchronization> synchronizationCaptor;
+
+	private ValidatedAccessTokenCacheImpl cache;
+
+	private ValidatedAccessToken validated;
+
+	@BeforeEach
+	public void before() {
+		cache = new ValidatedAccessTokenCacheImpl(mockClock, mockTransactionSynchronization);
+		validated = new ValidatedAccessToken(USER_ID, CLIENT_ID, TokenType.PERSONAL_ACCESS_TOKEN, TOKEN_ID, NOW + 5_000);
+	}
+
+	@Test
+	public void testGetWithMiss() {
+		// call under test
+		assertEquals(Optional.empty(), cache.get(TOKEN));
+	}
+
+	@Test
+	public void testPutAndGet() {
+		when(mockClock.currentTimeMillis()).thenReturn(NOW, NOW + 4_999);
+		cache.put(TOKEN, validated);
+
+		// call under test
+		assertEquals(Optional.of(validated), cache.get(TOKEN));
+	}
+
+	@Test
+	public void testGetWithTokenExpired() {
+		when(mockClock.currentTimeMillis()).thenReturn(NOW, NOW + 5_000);
+		cache.put(TOKEN, validated);
+
+		// call under test
+		assertEquals(Optional.empty(), cache.get(TOKEN));
+		assertEquals(Optional.empty(), cache.get(TOKEN));
+	}
+
+	@Test
+	public void testPutWithExpirationCapped() {
+		long maxExpiresOn = NOW + ValidatedAccessTokenCacheImpl.MAX_CACHE_DURATION.toMillis();
+		validated = new ValidatedAccessToken(USER_ID, CLIENT_ID, TokenType.PERSONAL_ACCESS_TOKEN, TOKEN_ID, Long.MAX_VALUE);
+		when(mockClock.currentTimeMillis()).thenReturn(NOW, NOW, maxExpiresOn);
+
+		// call under test
+		cache.put(TOKEN, validated);
+
+		ValidatedAccessToken expected = new ValidatedAccessToken(USER_ID, CLIENT_ID, TokenType.PERSONAL_ACCESS_TOKEN, TOKEN_ID, maxExpiresOn);
+		assertEquals(Optional.of(expected), cache.get(TOKEN));
+		assertEquals(Optional.empty(), cache.get(TOKEN));
+	}
+
+	@Test
+	public void testInvalidateTokenId() {
+		when(mockClock.currentTimeMillis()).thenReturn(NOW);
+		when(mockTransactionSynchronization.isSynchronizationActive()).thenReturn(false);
+		cache.put(TOKEN, validated);
+		ValidatedAccessToken other = new ValidatedAccessToken(USER_ID, CLIENT_ID, TokenType.OIDC_ACCESS_TOKEN, "555", NOW + 5_000);
+		cache.put("other", other);
+
+		// call under test
+		cache.invalidateTokenId(TOKEN_ID);
+
+		assertEquals(Optional.empty(), cache.get(TOKEN));
+		assertEquals(Optional.of(other), cache.get("other"));
+		verify(mockTransactionSynchronization, never()).registerSynchronization(any());
+	}
+
+	@Test
+	public void testInvalidateTokenIdWithTransaction() {
+		when(mockClock.currentTimeMillis()).thenReturn(NOW);
+		when(mockTransactionSynchronization.isSynchronizationActive()).thenReturn(true);
+		cache.put(TOKEN, validated);
+
+		// call under test
+		cache.invalidateTokenId(TOKEN_ID);
+
+		verify(mockTransactionSynchronization).registerSynchronization(synchronizationCaptor.capture());
+
+		assertEquals(Optional.empty(), cache.get(TOKEN));
+
+		// A concurrent request validates the token before the revocation is committed
+		cache.put(TOKEN, validated);
+
+		synchronizationCaptor.getValue().afterCommit();
+
+		assertEquals(Optional.empty(), cache.get(TOKEN));
+	}
+
+	@Test
+	public void testInvalidateUserClientPair() {
+		when(mockClock.currentTimeMillis()).thenReturn(NOW);
+		when(mockTransactionSynchronization.isSynchronizationActive()).thenReturn(false);
+		cache.put(TOKEN, validated);
+		ValidatedAccessToken otherClient = new ValidatedAccessToken(USER_ID, "456", TokenType.OIDC_ACCESS_TOKEN, null, NOW + 5_000);
+		cache.put("otherClient", otherClient);
+		ValidatedAccessToken otherUser = new ValidatedAccessToken("202", CLIENT_ID, TokenType.OIDC_ACCESS_TOKEN, null, NOW + 5_000);
+		cache.put("otherUser", otherUser);
+
+		// call under test
+		cache.invalidateUserClientPair(USER_ID, CLIENT_ID);
+
+		assertEquals(Optional.empty(), cache.get(TOKEN));
+		assertEquals(Optional.of(otherClient), cache.get("otherClient"));
+		assertEquals(Optional.of(otherUser), cache.get("otherUser"));
+		verify(mockTransactionSynchronization, never()).registerSynchronization(any());
+	}
+
+	@Test
+	public void testInvalidateUserClientPairWithTransaction() {
+		when(mockClock.currentTimeMillis()).thenReturn(NOW);
+		when(mockTransactionSynchronization.isSynchronizationActive()).thenReturn(true);
+		cache.put(TOKEN, validated);
+
+		// call under test
+		cache.invalidateUserClientPair(USER_ID, CLIENT_ID);
+
+		verify(mockTransactionSynchronization).registerSynchronization(synchronizationCaptor.capture());
+
+		assertEquals(Optional.empty(), cache.get(TOKEN));
+
+		// A concurrent request validates the token before the revocation is committed
+		cache.put(TOKEN, validated);
+
+		synchronizationCaptor.getValue().afterCommit();
+
+		assertEquals(Optional.empty(), cache.get(TOKEN));
+	}
+
+	@Test
+	public void testGetWithNullToken() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			cache.get(null);
+		}).getMessage();
+		assertEquals("The accessToken is required.", message);
+	}
+
+	@Test
+	public void testHashToken() {
+		String hash = ValidatedAccessTokenCacheImpl.hashToken(TOKEN);
+		assertEquals(64, hash.length());
+		assertEquals(hash, ValidatedAccessTokenCacheImpl.hashToken(TOKEN));
+	}
+
+}
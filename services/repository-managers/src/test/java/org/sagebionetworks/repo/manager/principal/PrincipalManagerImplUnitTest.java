@@ -32,6 +32,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.sagebionetworks.repo.manager.AuthenticationManager;
 import org.sagebionetworks.repo.manager.UserManager;
+import org.sagebionetworks.repo.manager.authentication.PrincipalAuthenticationCache;
 import org.sagebionetworks.repo.manager.token.TokenGenerator;
 import org.sagebionetworks.repo.model.AuthorizationConstants;
 import org.sagebionetworks.repo.model.DatastoreException;
@@ -87,6 +88,8 @@ public class PrincipalManagerImplUnitTest {
 	private TokenGenerator mockTokenGenerator;
 	@Mock
 	private QuarantinedEmail mockQuarantinedEmail;
+	@Mock
+	private PrincipalAuthenticationCache mockPrincipalAuthenticationCache;
 	
 	@InjectMocks
 	private PrincipalManagerImpl manager;
@@ -480,6 +483,7 @@ public class PrincipalManagerImplUnitTest {
 		
 		verify(mockNotificationEmailDao).getNotificationEmailForPrincipal(USER_ID);
 		verify(mockPrincipalAliasDAO).removeAliasFromPrincipal(USER_ID, 2L);
+		verify(mockPrincipalAuthenticationCache).invalidate(USER_ID);
 	}
 
 	@Test
@@ -692,6 +696,7 @@ public class PrincipalManagerImplUnitTest {
 
 
 		verify(mockPrincipalAliasDAO).removeAllAliasFromPrincipal(USER_ID);
+		verify(mockPrincipalAuthenticationCache).invalidate(USER_ID);
 		verify(mockUserManager).clearOidcBindings(USER_ID);
 		verify(mockPrincipalAliasDAO).bindAliasToPrincipal(expectedEmailAlias);
 		verify(mockNotificationEmailDao).update(expectedEmailAlias);
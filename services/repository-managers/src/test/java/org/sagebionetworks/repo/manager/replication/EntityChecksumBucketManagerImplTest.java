@@ -0,0 +1,262 @@
+package org.sagebionetworks.repo.manager.replication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.LimitExceededException;
+import org.sagebionetworks.repo.model.NodeDAO;
+import org.sagebionetworks.repo.model.ObjectType;
+import org.sagebionetworks.repo.model.dbo.dao.DBOChangeDAO;
+import org.sagebionetworks.repo.model.dbo.dao.EntityChecksumBucketDao;
+import org.sagebionetworks.repo.model.message.ChangeMessage;
+import org.sagebionetworks.repo.model.table.SubType;
+import org.sagebionetworks.util.Clock;
+
+@ExtendWith(MockitoExtension.class)
+public class EntityChecksumBucketManagerImplTest {
+
+	@Mock
+	private EntityChecksumBucketDao mockBucketDao;
+	@Mock
+	private DBOChangeDAO mockChangeDao;
+	@Mock
+	private NodeDAO mockNodeDao;
+	@Mock
+	private Clock mockClock;
+
+	@InjectMocks
+	private EntityChecksumBucketManagerImpl manager;
+
+	private long now;
+	private Date old;
+
+	@BeforeEach
+	public void before() {
+		now = 1_000_000L;
+		old = new Date(now - EntityChecksumBucketManagerImpl.CHANGE_GRACE_PERIOD_MS - 1);
+	}
+
+	@Test
+	public void testUpdateChecksumBucketsWithNotInitialized() {
+		when(mockBucketDao.getLastChangeNumber()).thenReturn(Optional.empty());
+		when(mockChangeDao.getCurrentChangeNumber()).thenReturn(123L);
+		when(mockBucketDao.getMaxBucket()).thenReturn(2L);
+		when(mockBucketDao.getDirtyBuckets(anyLong())).thenReturn(List.of(0L, 1L));
+
+		// call under test
+		manager.updateChecksumBuckets();
+
+		InOrder inOrder = inOrder(mockChangeDao, mockBucketDao);
+		inOrder.verify(mockChangeDao).getCurrentChangeNumber();
+		inOrder.verify(mockBucketDao).markDirty(List.of(0L, 1L, 2L));
+		inOrder.verify(mockBucketDao).setLastChangeNumber(123L);
+		inOrder.verify(mockBucketDao).getDirtyBuckets(EntityChecksumBucketManagerImpl.MAX_BUCKETS_TO_RECOMPUTE);
+		inOrder.verify(mockBucketDao).recomputeBucket(0L);
+		inOrder.verify(mockBucketDao).recomputeBucket(1L);
+		verify(mockChangeDao, never()).listChanges(anyLong(), any(), anyLong());
+	}
+
+	@Test
+	public void testUpdateChecksumBucketsWithChanges() throws LimitExceededException {
+		when(mockBucketDao.getLastChangeNumber()).thenReturn(Optional.of(10L));
+		when(mockClock.currentTimeMillis()).thenReturn(now);
+		when(mockChangeDao.listChanges(anyLong(), any(), anyLong())).thenReturn(List.of(
+				new ChangeMessage().setChangeNumber(11L).setObjectType(ObjectType.ENTITY).setObjectId("syn200001").setTimestamp(old),
+				new ChangeMessage().setChangeNumber(12L).setObjectType(ObjectType.WIKI).setObjectId("1").setTimestamp(old),
+				new ChangeMessage().setChangeNumber(13L).setObjectType(ObjectType.ENTITY_CONTAINER).setObjectId("syn5").setTimestamp(old)));
+		when(mockNodeDao.getAllContainerIds(any(List.class), any(Integer.class))).thenReturn(Set.of(5L, 6L));
+		when(mockBucketDao.getBucketsForParents(any())).thenReturn(Set.of(0L, 7L));
+		when(mockBucketDao.getDirtyBuckets(anyLong())).thenReturn(Collections.emptyList());
+
+		// call under test
+		manager.updateChecksumBuckets();
+
+		verify(mockChangeDao).listChanges(11L, null, EntityChecksumBucketManagerImpl.MAX_CHANGES);
+		verify(mockNodeDao).getAllContainerIds(List.of(5L), EntityChecksumBucketManagerImpl.MAX_CONTAINERS);
+		verify(mockBucketDao).getBucketsForParents(Set.of(5L, 6L));
+		verify(mockBucketDao).markDirty(Set.of(0L, 2L, 7L));
+		verify(mockBucketDao).setLastChangeNumber(13L);
+		verify(mockBucketDao, never()).recomputeBucket(anyLong());
+	}
+
+	@Test
+	public void testUpdateChecksumBucketsWithRecentChange() {
+		when(mockBucketDao.getLastChangeNumber()).thenReturn(Optional.of(10L));
+		when(mockClock.currentTimeMillis()).thenReturn(now);
+		when(mockChangeDao.listChanges(anyLong(), any(), anyLong())).thenReturn(List.of(
+				new ChangeMessage().setChangeNumber(11L).setObjectType(ObjectType.ENTITY).setObjectId("1").setTimestamp(old),
+				new ChangeMessage().setChangeNumber(12L).setObjectType(ObjectType.ENTITY).setObjectId("100001").setTimestamp(new Date(now)),
+				new ChangeMessage().setChangeNumber(13L).setObjectType(ObjectType.ENTITY).setObjectId("200001").setTimestamp(old)));
+		when(mockBucketDao.getDirtyBuckets(anyLong())).thenReturn(Collections.emptyList());
+
+		// call under test
+		manager.updateChecksumBuckets();
+
+		// The changes are applied up to the first change within the grace period
+		verify(mockBucketDao).markDirty(Set.of(0L));
+		verify(mockBucketDao).setLastChangeNumber(11L);
+	}
+
+	@Test
+	public void testUpdateChecksumBucketsWithNoChanges() {
+		when(mockBucketDao.getLastChangeNumber()).thenReturn(Optional.of(10L));
+		when(mockClock.currentTimeMillis()).thenReturn(now);
+		when(mockChangeDao.listChanges(anyLong(), any(), anyLong())).thenReturn(Collections.emptyList());
+		when(mockBucketDao.getDirtyBuckets(anyLong())).thenReturn(List.of(4L));
+
+		// call under test
+		manager.updateChecksumBuckets();
+
+		verify(mockBucketDao).markDirty(Collections.emptySet());
+		verify(mockBucketDao, never()).setLastChangeNumber(anyLong());
+		verify(mockBucketDao).recomputeBucket(4L);
+	}
+
+	@Test
+	public void testUpdateChecksumBucketsWithContainerLimitExceeded() throws LimitExceededException {
+		when(mockBucketDao.getLastChangeNumber()).thenReturn(Optional.of(10L));
+		when(mockClock.currentTimeMillis()).thenReturn(now);
+		when(mockChangeDao.listChanges(anyLong(), any(), anyLong())).thenReturn(List.of(
+				new ChangeMessage().setChangeNumber(11L).setObjectType(ObjectType.ENTITY_CONTAINER).setObjectId("5").setTimestamp(old)));
+		when(mockNodeDao.getAllContainerIds(any(List.class), any(Integer.class))).thenThrow(new LimitExceededException("too many"));
+		when(mockBucketDao.getMaxBucket()).thenReturn(1L);
+		when(mockBucketDao.getDirtyBuckets(anyLong())).thenReturn(Collections.emptyList());
+
+		// call under test
+		manager.updateChecksumBuckets();
+
+		verify(mockBucketDao).markDirty(List.of(0L, 1L));
+		verify(mockBucketDao, never()).getBucketsForParents(any());
+		verify(mockBucketDao).setLastChangeNumber(11L);
+	}
+
+	@Test
+	public void testUpdateChecksumBucketsWithMultipleContainersLimitExceeded() throws LimitExceededException {
+		when(mockBucketDao.getLastChangeNumber()).thenReturn(Optional.of(10L));
+		when(mockClock.currentTimeMillis()).thenReturn(now);
+		when(mockChangeDao.listChanges(anyLong(), any(), anyLong())).thenReturn(List.of(
+				new ChangeMessage().setChangeNumber(11L).setObjectType(ObjectType.ENTITY_CONTAINER).setObjectId("5").setTimestamp(old),
+				new ChangeMessage().setChangeNumber(12L).setObjectType(ObjectType.ENTITY).setObjectId("1").setTimestamp(old),
+				new ChangeMessage().setChangeNumber(13L).setObjectType(ObjectType.ENTITY_CONTAINER).setObjectId("6").setTimestamp(old)));
+		when(mockNodeDao.getAllContainerIds(any(List.class), any(Integer.class))).thenThrow(new LimitExceededException("too many"));
+		when(mockBucketDao.getMaxBucket()).thenReturn(1L);
+		when(mockBucketDao.getDirtyBuckets(anyLong())).thenReturn(Collections.emptyList());
+
+		// call under test
+		manager.updateChecksumBuckets();
+
+		// Once all the buckets are dirty the hierarchy of the following containers is not read
+		verify(mockNodeDao).getAllContainerIds(any(List.class), any(Integer.class));
+		verify(mockBucketDao).getMaxBucket();
+		verify(mockBucketDao).markDirty(any());
+		verify(mockBucketDao).markDirty(List.of(0L, 1L));
+		verify(mockBucketDao).setLastChangeNumber(13L);
+	}
+
+	@Test
+	public void testUpdateChecksumBucketsWithMultipleBatches() {
+		when(mockBucketDao.getLastChangeNumber()).thenReturn(Optional.of(10L));
+		when(mockClock.currentTimeMillis()).thenReturn(now);
+		when(mockChangeDao.listChanges(anyLong(), any(), anyLong())).thenReturn(Collections.emptyList());
+		List<Long> fullBatch = LongStream.range(0, EntityChecksumBucketManagerImpl.MAX_BUCKETS_TO_RECOMPUTE).boxed().collect(Collectors.toList());
+		when(mockBucketDao.getDirtyBuckets(anyLong())).thenReturn(fullBatch, List.of(200L));
+
+		// call under test
+		manager.updateChecksumBuckets();
+
+		// A full batch is followed by another batch, until a partial batch is read
+		verify(mockBucketDao, times(2)).getDirtyBuckets(EntityChecksumBucketManagerImpl.MAX_BUCKETS_TO_RECOMPUTE);
+		verify(mockBucketDao, times((int) EntityChecksumBucketManagerImpl.MAX_BUCKETS_TO_RECOMPUTE + 1)).recomputeBucket(anyLong());
+		verify(mockBucketDao).recomputeBucket(200L);
+	}
+
+	@Test
+	public void testUpdateChecksumBucketsWithRecomputeTimeExceeded() {
+		when(mockBucketDao.getLastChangeNumber()).thenReturn(Optional.of(10L));
+		when(mockClock.currentTimeMillis()).thenReturn(now, now, now + EntityChecksumBucketManagerImpl.MAX_RECOMPUTE_TIME_MS);
+		when(mockChangeDao.listChanges(anyLong(), any(), anyLong())).thenReturn(Collections.emptyList());
+		List<Long> fullBatch = LongStream.range(0, EntityChecksumBucketManagerImpl.MAX_BUCKETS_TO_RECOMPUTE).boxed().collect(Collectors.toList());
+		when(mockBucketDao.getDirtyBuckets(anyLong())).thenReturn(fullBatch);
+
+		// call under test
+		manager.updateChecksumBuckets();
+
+		// The remaining dirty buckets are recomputed on the next update
+		verify(mockBucketDao).getDirtyBuckets(EntityChecksumBucketManagerImpl.MAX_BUCKETS_TO_RECOMPUTE);
+	}
+
+	@Test
+	public void testIsInitialized() {
+		when(mockBucketDao.getLastChangeNumber()).thenReturn(Optional.of(1L));
+		// call under test
+		assertTrue(manager.isInitialized());
+	}
+
+	@Test
+	public void testIsInitializedWithNotInitialized() {
+		when(mockBucketDao.getLastChangeNumber()).thenReturn(Optional.empty());
+		// call under test
+		assertFalse(manager.isInitialized());
+	}
+
+	@Test
+	public void testGetDirtyBuckets() {
+		when(mockBucketDao.getDirtyBuckets(anyLong())).thenReturn(List.of(1L));
+		// call under test
+		assertEquals(List.of(1L), manager.getDirtyBuckets());
+		verify(mockBucketDao).getDirtyBuckets(EntityChecksumBucketManagerImpl.MAX_DIRTY_BUCKETS);
+	}
+
+	@Test
+	public void testGetBucketChecksums() {
+		List<IdAndChecksum> expected = List.of(new IdAndChecksum().withId(0L).withChecksum(1L));
+		when(mockBucketDao.getBucketChecksums(any(), any())).thenReturn(expected);
+		// call under test
+		assertEquals(expected, manager.getBucketChecksums(Set.of(1L), Set.of(SubType.file)));
+		verify(mockBucketDao).getBucketChecksums(Set.of(1L), Set.of(SubType.file));
+	}
+
+	@Test
+	public void testStreamOverIdsAndChecksumsForChildrenInBucket() {
+		List<IdAndChecksum> expected = List.of(new IdAndChecksum().withId(100_001L).withChecksum(1L));
+		when(mockNodeDao.getIdsAndChecksumsForChildrenInBucket(any(), any(), any(), any(), any())).thenReturn(expected);
+		// call under test
+		Iterator<IdAndChecksum> result = manager.streamOverIdsAndChecksumsForChildrenInBucket(123L, Set.of(1L), Set.of(SubType.file), 1L);
+		assertEquals(expected.get(0), result.next());
+		assertFalse(result.hasNext());
+		verify(mockNodeDao).getIdsAndChecksumsForChildrenInBucket(123L, Set.of(1L), Set.of(SubType.file), EntityChecksumBucketDao.BUCKET_SIZE, 1L);
+	}
+
+	@Test
+	public void testMarkEntitiesDirty() {
+		// call under test
+		manager.markEntitiesDirty(List.of(1L, 2L, 100_000L, 250_000L));
+		verify(mockBucketDao).markDirty(Set.of(0L, 1L, 2L));
+	}
+
+}
@@ -101,6 +101,12 @@ public class ReplicationManagerTest {
 	@Mock
 	private ViewScopeType mockViewScopeType;
 
+	@Mock
+	private EntityChecksumBucketManager mockChecksumBucketManager;
+	
+	private static final long BUCKET_SIZE = 100_000L;
+	private static final long BUCKET_SALT = 0L;
+
 	@Captor
 	private ArgumentCaptor<Iterator<ObjectDataDTO>> iteratorCaptor;
 
@@ -116,7 +122,7 @@ public class ReplicationManagerTest {
 		when(mockLoggerProvider.getLogger(any())).thenReturn(mockLogger);
 		manager = new ReplicationManagerImpl(mockObjectDataProviderFactory, mockTableManagerSupport,
 				mockReplicationMessageManager, mockIndexConnectionFactory, mockIndexProviderFactory,
-				mockLoggerProvider, mockRandom);
+				mockLoggerProvider, mockRandom, mockChecksumBucketManager);
 		managerSpy = Mockito.spy(manager);
 		ChangeMessage update = new ChangeMessage();
 		update.setChangeType(ChangeType.UPDATE);
@@ -628,6 +634,210 @@ public class ReplicationManagerTest {
 		assertEquals("filter is required.", message);
 	}
 
+	
+	@Test
+	public void testCreateReconcileIteratorWithHierarchicaFilter() {
+		long salt = 1235L;
+		when(mockRandom.nextLong()).thenReturn(salt);
+		Iterator<ChangeMessage> it = changes.iterator();
+		HierarchicaFilter filter = new HierarchicaFilter(ReplicationType.ENTITY, Set.of(SubType.file), Set.of(99L));
+		when(mockChecksumBucketManager.isInitialized()).thenReturn(true);
+		doReturn(it).when(managerSpy).createBucketReconcileIterator(any(), any());
+
+		// call under test
+		Iterator<ChangeMessage> result = managerSpy.createReconcileIterator(filter);
+		assertEquals(it, result);
+
+		verify(managerSpy).createBucketReconcileIterator(salt, filter);
+		verify(managerSpy, never()).createTruthStream(any(), any());
+	}
+	
+	@Test
+	public void testIsBucketReconcileSupported() {
+		when(mockChecksumBucketManager.isInitialized()).thenReturn(true);
+		assertTrue(manager.isBucketReconcileSupported(
+				new HierarchicaFilter(ReplicationType.ENTITY, Set.of(SubType.file), Set.of(99L))));
+		assertFalse(manager.isBucketReconcileSupported(
+				new HierarchicaFilter(ReplicationType.SUBMISSION, Set.of(SubType.submission), Set.of(99L))));
+		assertFalse(manager.isBucketReconcileSupported(
+				new IdAndVersionFilter(ReplicationType.ENTITY, Set.of(SubType.file), Set.of(IdAndVersion.parse("syn1")))));
+	}
+	
+	@Test
+	public void testIsBucketReconcileSupportedWithNotInitialized() {
+		when(mockChecksumBucketManager.isInitialized()).thenReturn(false);
+		// call under test
+		assertFalse(manager.isBucketReconcileSupported(
+				new HierarchicaFilter(ReplicationType.ENTITY, Set.of(SubType.file), Set.of(99L))));
+	}
+	
+	@Test
+	public void testCreateReconcileIteratorWithHierarchicaFilterAndNotInitialized() {
+		long salt = 1235L;
+		when(mockRandom.nextLong()).thenReturn(salt);
+		when(mockChecksumBucketManager.isInitialized()).thenReturn(false);
+		HierarchicaFilter filter = new HierarchicaFilter(ReplicationType.ENTITY, Set.of(SubType.file), Set.of(99L));
+		when(mockIndexConnectionFactory.connectToFirstIndex()).thenReturn(mockTableIndexManager);
+		doReturn(Collections.emptyIterator()).when(managerSpy).createTruthStream(any(), any());
+		when(mockTableIndexManager.streamOverIdsAndChecksums(any(), any())).thenReturn(Collections.emptyIterator());
+
+		// call under test
+		Iterator<ChangeMessage> result = managerSpy.createReconcileIterator(filter);
+		assertFalse(result.hasNext());
+
+		verify(managerSpy).createTruthStream(salt, filter);
+		verify(managerSpy, never()).createBucketReconcileIterator(any(), any());
+	}
+	
+	@Test
+	public void testCreateBucketReconcileIteratorWithMatch() {
+		Long salt = 123L;
+		Set<SubType> subTypes = Set.of(SubType.file);
+		Set<Long> scope = Set.of(99L);
+		HierarchicaFilter filter = new HierarchicaFilter(ReplicationType.ENTITY, subTypes, scope);
+		
+		when(mockIndexConnectionFactory.connectToFirstIndex()).thenReturn(mockTableIndexManager);
+		when(mockChecksumBucketManager.getBucketSize()).thenReturn(BUCKET_SIZE);
+		when(mockChecksumBucketManager.getBucketSalt()).thenReturn(BUCKET_SALT);
+		when(mockChecksumBucketManager.getDirtyBuckets()).thenReturn(Collections.emptyList());
+		List<IdAndChecksum> buckets = Arrays.asList(new IdAndChecksum().withId(0L).withChecksum(11L),
+				new IdAndChecksum().withId(3L).withChecksum(22L));
+		when(mockChecksumBucketManager.getBucketChecksums(any(), any())).thenReturn(buckets);
+		when(mockTableIndexManager.getBucketChecksums(any(), any(), any())).thenReturn(buckets);
+		
+		// call under test
+		Iterator<ChangeMessage> result = manager.createBucketReconcileIterator(salt, filter);
+		assertFalse(result.hasNext());
+		
+		verify(mockChecksumBucketManager).getBucketChecksums(scope, subTypes);
+		// The persisted checksums are computed with a constant salt
+		verify(mockTableIndexManager).getBucketChecksums(BUCKET_SALT, filter, BUCKET_SIZE);
+		verify(mockChecksumBucketManager, never()).streamOverIdsAndChecksumsForChildrenInBucket(any(), any(), any(), any());
+		verify(mockTableIndexManager, never()).streamOverIdsAndChecksumsInBucket(any(), any(), any(), any());
+	}
+	
+	@Test
+	public void testCreateBucketReconcileIteratorWithMismatch() {
+		Long salt = 123L;
+		Set<SubType> subTypes = Set.of(SubType.file);
+		Set<Long> scope = Set.of(99L);
+		HierarchicaFilter filter = new HierarchicaFilter(ReplicationType.ENTITY, subTypes, scope);
+		
+		when(mockIndexConnectionFactory.connectToFirstIndex()).thenReturn(mockTableIndexManager);
+		when(mockChecksumBucketManager.getBucketSize()).thenReturn(BUCKET_SIZE);
+		when(mockChecksumBucketManager.getBucketSalt()).thenReturn(BUCKET_SALT);
+		when(mockChecksumBucketManager.getDirtyBuckets()).thenReturn(Collections.emptyList());
+		when(mockChecksumBucketManager.getBucketChecksums(any(), any()))
+				.thenReturn(Arrays.asList(new IdAndChecksum().withId(0L).withChecksum(11L),
+						new IdAndChecksum().withId(3L).withChecksum(22L)));
+		when(mockTableIndexManager.getBucketChecksums(any(), any(), any()))
+				.thenReturn(Arrays.asList(new IdAndChecksum().withId(0L).withChecksum(11L),
+						new IdAndChecksum().withId(3L).withChecksum(23L)));
+		when(mockChecksumBucketManager.streamOverIdsAndChecksumsForChildrenInBucket(any(), any(), any(), any()))
+				.thenReturn(Arrays.asList(new IdAndChecksum().withId(300_001L).withChecksum(1L)).iterator());
+		when(mockTableIndexManager.streamOverIdsAndChecksumsInBucket(any(), any(), any(), any()))
+				.thenReturn(Arrays.asList(new IdAndChecksum().withId(300_001L).withChecksum(2L)).iterator());
+		
+		// call under test
+		Iterator<ChangeMessage> result = manager.createBucketReconcileIterator(salt, filter);
+		assertTrue(result.hasNext());
+		ChangeMessage expecedMessage = new ChangeMessage().setObjectId("300001").setObjectType(ObjectType.ENTITY)
+				.setChangeType(ChangeType.UPDATE);
+		assertEquals(expecedMessage, result.next());
+		assertFalse(result.hasNext());
+		
+		// The objects are compared with the random salt
+		verify(mockChecksumBucketManager).streamOverIdsAndChecksumsForChildrenInBucket(salt, scope, subTypes, 3L);
+		verify(mockTableIndexManager).streamOverIdsAndChecksumsInBucket(salt, filter, BUCKET_SIZE, 3L);
+	}
+	
+	@Test
+	public void testCreateBucketReconcileIteratorWithDirtyBucket() {
+		Long salt = 123L;
+		Set<SubType> subTypes = Set.of(SubType.file);
+		Set<Long> scope = Set.of(99L);
+		HierarchicaFilter filter = new HierarchicaFilter(ReplicationType.ENTITY, subTypes, scope);
+		
+		when(mockIndexConnectionFactory.connectToFirstIndex()).thenReturn(mockTableIndexManager);
+		when(mockChecksumBucketManager.getBucketSize()).thenReturn(BUCKET_SIZE);
+		when(mockChecksumBucketManager.getBucketSalt()).thenReturn(BUCKET_SALT);
+		// The checksums match but bucket 0 changed since its checksums were persisted
+		when(mockChecksumBucketManager.getDirtyBuckets()).thenReturn(List.of(0L));
+		List<IdAndChecksum> buckets = Arrays.asList(new IdAndChecksum().withId(0L).withChecksum(11L));
+		when(mockChecksumBucketManager.getBucketChecksums(any(), any())).thenReturn(buckets);
+		when(mockTableIndexManager.getBucketChecksums(any(), any(), any())).thenReturn(buckets);
+		when(mockChecksumBucketManager.getBucketsForParents(any())).thenReturn(Set.of(0L));
+		when(mockChecksumBucketManager.streamOverIdsAndChecksumsForChildrenInBucket(any(), any(), any(), any()))
+				.thenReturn(Arrays.asList(new IdAndChecksum().withId(1L).withChecksum(1L)).iterator());
+		when(mockTableIndexManager.streamOverIdsAndChecksumsInBucket(any(), any(), any(), any()))
+				.thenReturn(Collections.emptyIterator());
+		
+		// call under test
+		Iterator<ChangeMessage> result = manager.createBucketReconcileIterator(salt, filter);
+		assertTrue(result.hasNext());
+		ChangeMessage expecedMessage = new ChangeMessage().setObjectId("1").setObjectType(ObjectType.ENTITY)
+				.setChangeType(ChangeType.UPDATE);
+		assertEquals(expecedMessage, result.next());
+		assertFalse(result.hasNext());
+		
+		verify(mockChecksumBucketManager).getBucketsForParents(scope);
+		verify(mockChecksumBucketManager).streamOverIdsAndChecksumsForChildrenInBucket(salt, scope, subTypes, 0L);
+		verify(mockTableIndexManager).streamOverIdsAndChecksumsInBucket(salt, filter, BUCKET_SIZE, 0L);
+	}
+	
+	@Test
+	public void testCreateBucketReconcileIteratorWithDirtyBucketsOutsideScope() {
+		Long salt = 123L;
+		Set<SubType> subTypes = Set.of(SubType.file);
+		Set<Long> scope = Set.of(99L);
+		HierarchicaFilter filter = new HierarchicaFilter(ReplicationType.ENTITY, subTypes, scope);
+		
+		when(mockIndexConnectionFactory.connectToFirstIndex()).thenReturn(mockTableIndexManager);
+		when(mockChecksumBucketManager.getBucketSize()).thenReturn(BUCKET_SIZE);
+		when(mockChecksumBucketManager.getBucketSalt()).thenReturn(BUCKET_SALT);
+		when(mockChecksumBucketManager.getDirtyBuckets()).thenReturn(List.of(0L, 2L, 5L, 8L));
+		when(mockChecksumBucketManager.getBucketChecksums(any(), any()))
+				.thenReturn(Arrays.asList(new IdAndChecksum().withId(0L).withChecksum(11L)));
+		when(mockTableIndexManager.getBucketChecksums(any(), any(), any()))
+				.thenReturn(Arrays.asList(new IdAndChecksum().withId(0L).withChecksum(11L), new IdAndChecksum().withId(2L).withChecksum(22L)));
+		// A child was added to bucket 5 since its checksums were persisted, bucket 8 does not contain any object of the scope
+		when(mockChecksumBucketManager.getBucketsForParents(any())).thenReturn(Set.of(0L, 5L));
+		when(mockChecksumBucketManager.streamOverIdsAndChecksumsForChildrenInBucket(any(), any(), any(), any()))
+				.thenReturn(Collections.emptyIterator());
+		when(mockTableIndexManager.streamOverIdsAndChecksumsInBucket(any(), any(), any(), any()))
+				.thenReturn(Collections.emptyIterator());
+		
+		// call under test
+		Iterator<ChangeMessage> result = manager.createBucketReconcileIterator(salt, filter);
+		assertFalse(result.hasNext());
+		
+		verify(mockChecksumBucketManager).getBucketsForParents(scope);
+		verify(mockChecksumBucketManager).streamOverIdsAndChecksumsForChildrenInBucket(salt, scope, subTypes, 0L);
+		verify(mockChecksumBucketManager).streamOverIdsAndChecksumsForChildrenInBucket(salt, scope, subTypes, 2L);
+		verify(mockChecksumBucketManager).streamOverIdsAndChecksumsForChildrenInBucket(salt, scope, subTypes, 5L);
+		verify(mockChecksumBucketManager, never()).streamOverIdsAndChecksumsForChildrenInBucket(salt, scope, subTypes, 8L);
+		verify(mockTableIndexManager, never()).streamOverIdsAndChecksumsInBucket(salt, filter, BUCKET_SIZE, 8L);
+	}
+	
+	@Test
+	public void testFindMismatchedBuckets() {
+		List<IdAndChecksum> truth = Arrays.asList(new IdAndChecksum().withId(0L).withChecksum(1L),
+				new IdAndChecksum().withId(2L).withChecksum(2L), new IdAndChecksum().withId(5L).withChecksum(5L),
+				new IdAndChecksum().withId(7L).withChecksum(7L));
+		List<IdAndChecksum> replication = Arrays.asList(new IdAndChecksum().withId(0L).withChecksum(1L),
+				new IdAndChecksum().withId(1L).withChecksum(1L), new IdAndChecksum().withId(5L).withChecksum(6L),
+				new IdAndChecksum().withId(7L).withChecksum(7L));
+		// call under test
+		List<Long> result = ReplicationManagerImpl.findMismatchedBuckets(truth, replication);
+		assertEquals(Arrays.asList(1L, 2L, 5L), result);
+	}
+	
+	@Test
+	public void testFindMismatchedBucketsWithEmpty() {
+		// call under test
+		assertEquals(Collections.emptyList(),
+				ReplicationManagerImpl.findMismatchedBuckets(Collections.emptyList(), Collections.emptyList()));
+	}
 
 	@Test
 	public void testIsReplicationSynchronizedForViewWithEmpty() {
@@ -4,19 +4,27 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.dao.WikiPageKey;
 import org.sagebionetworks.repo.model.dao.WikiPageKeyHelper;
+import org.sagebionetworks.repo.model.jdo.KeyFactory;
 import org.sagebionetworks.repo.model.message.ChangeMessage;
 import org.sagebionetworks.repo.model.message.ChangeType;
 import org.sagebionetworks.repo.model.search.Document;
@@ -160,4 +168,60 @@ public class ChangeMessageToSearchDocumentTranslatorTest{
 		verify(mockRecordLogger).startRecordForChangeMessage(message);
 		verify(mockWikiPageDao).lookupWikiKey(wikiId);
 	}
+	
+	@Test
+	public void testGenerateSearchDocuments() {
+		String deletedId = "445566";
+		ChangeMessage deletedMessage = new ChangeMessage();
+		deletedMessage.setObjectId(deletedId);
+		deletedMessage.setObjectType(ObjectType.ENTITY);
+		ChangeMessage wikiMessage = new ChangeMessage();
+		wikiMessage.setObjectId(wikiId);
+		wikiMessage.setObjectType(ObjectType.WIKI);
+		String missingWikiId = "988";
+		when(mockWikiPageDao.lookupWikiKey(missingWikiId)).thenThrow(new NotFoundException(""));
+		ChangeMessage missingWikiMessage = new ChangeMessage();
+		missingWikiMessage.setObjectId(missingWikiId);
+		missingWikiMessage.setObjectType(ObjectType.WIKI);
+		
+		Long entityKey = KeyFactory.stringToKey(synapseId);
+		Long deletedKey = KeyFactory.stringToKey(deletedId);
+		when(mockSearchDocumentDriver.getAvailableEntities(Arrays.asList(entityKey, deletedKey)))
+				.thenReturn(Collections.singleton(entityKey));
+		when(mockSearchDocumentDriver.formulateSearchDocuments(Arrays.asList(entityKey)))
+				.thenReturn(Collections.singletonMap(entityKey, docOne));
+		
+		List<ChangeMessage> changes = Arrays.asList(message, deletedMessage, missingWikiMessage, wikiMessage);
+		// call under test
+		List<Document> results = translator.generateSearchDocuments(changes);
+		
+		Document expectedDelete = new Document();
+		expectedDelete.setId(deletedId);
+		expectedDelete.setType(DocumentTypeNames.delete);
+		assertEquals(Arrays.asList(docOne, expectedDelete, docOne), results);
+		
+		InOrder inOrder = inOrder(mocKRecord);
+		inOrder.verify(mocKRecord).withAction(DocumentAction.IGNORE);
+		inOrder.verify(mocKRecord).withWikiOwner(synapseId);
+		inOrder.verify(mocKRecord).withAction(DocumentAction.CREATE_OR_UPDATE);
+		inOrder.verify(mocKRecord).withAction(DocumentAction.DELETE);
+		inOrder.verify(mocKRecord).withAction(DocumentAction.CREATE_OR_UPDATE);
+		verify(mockRecordLogger, times(4)).startRecordForChangeMessage(any(ChangeMessage.class));
+		// documents are never built one at a time
+		verify(mockSearchDocumentDriver, never()).formulateSearchDocument(anyString());
+		verify(mockSearchDocumentDriver, never()).doesEntityExistInRepository(anyString());
+	}
+	
+	@Test
+	public void testGenerateSearchDocumentsAllIgnored() {
+		message.setObjectId("988");
+		message.setObjectType(ObjectType.WIKI);
+		when(mockWikiPageDao.lookupWikiKey("988")).thenThrow(new NotFoundException(""));
+		when(mockSearchDocumentDriver.getAvailableEntities(Collections.emptyList())).thenReturn(Collections.emptySet());
+		when(mockSearchDocumentDriver.formulateSearchDocuments(Collections.emptyList())).thenReturn(Collections.emptyMap());
+		// call under test
+		List<Document> results = translator.generateSearchDocuments(Collections.singletonList(message));
+		assertEquals(Collections.emptyList(), results);
+		verify(mocKRecord).withAction(DocumentAction.IGNORE);
+	}
 }
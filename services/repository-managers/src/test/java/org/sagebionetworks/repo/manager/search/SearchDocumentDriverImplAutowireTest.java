@@ -11,10 +11,12 @@ import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.After;
@@ -32,6 +34,7 @@ import org.sagebionetworks.repo.model.DatastoreException;
 import org.sagebionetworks.repo.model.EntityHeader;
 import org.sagebionetworks.repo.model.EntityPath;
 import org.sagebionetworks.repo.model.EntityType;
+import org.sagebionetworks.repo.model.Folder;
 import org.sagebionetworks.repo.model.Node;
 import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.Project;
@@ -46,6 +49,7 @@ import org.sagebionetworks.repo.model.dao.WikiPageKeyHelper;
 import org.sagebionetworks.repo.model.dbo.file.FileHandleDao;
 import org.sagebionetworks.repo.model.file.FileHandle;
 import org.sagebionetworks.repo.model.file.S3FileHandle;
+import org.sagebionetworks.repo.model.jdo.KeyFactory;
 import org.sagebionetworks.repo.model.search.Document;
 import org.sagebionetworks.repo.model.search.DocumentFields;
 import org.sagebionetworks.repo.model.search.DocumentTypeNames;
@@ -255,6 +259,19 @@ public class SearchDocumentDriverImplAutowireTest {
 		assertEquals(1, fields.getUpdate_acl().size());
 	}
 
+	@Test
+	public void testGetEntityPaths() {
+		String doesNotExist = "syn" + (KeyFactory.stringToKey(project.getId()) + 1000000);
+		
+		// call under test
+		Map<String, EntityPath> paths = searchDocumentDriver.getEntityPaths(Arrays.asList(project.getId(), doesNotExist));
+		
+		assertEquals(1, paths.size());
+		List<EntityHeader> path = paths.get(project.getId()).getPath();
+		assertEquals(project.getId(), path.get(path.size() - 1).getId());
+		assertEquals(project.getName(), path.get(path.size() - 1).getName());
+	}
+
 	private EntityPath createFakeEntityPath() {
 		List<EntityHeader> fakePath = new ArrayList<EntityHeader>();
 		EntityHeader eh1 = new EntityHeader();
@@ -293,6 +310,26 @@ public class SearchDocumentDriverImplAutowireTest {
 		assertEquals(null, resultText);
 	}
 
+	
+	@Test
+	public void testFormulateSearchDocuments() {
+		Folder folder = new Folder();
+		folder.setName("folder");
+		folder.setParentId(project.getId());
+		String folderId = entityManager.createEntity(adminUserInfo, folder, null);
+		Long projectKey = KeyFactory.stringToKey(project.getId());
+		Long folderKey = KeyFactory.stringToKey(folderId);
+		Long doesNotExist = -123L;
+		
+		// call under test
+		Map<Long, Document> results = searchDocumentDriver.formulateSearchDocuments(Arrays.asList(projectKey, folderKey, doesNotExist));
+		assertEquals(2, results.size());
+		// the documents must match the documents built one at a time.
+		assertEquals(searchDocumentDriver.formulateSearchDocument(project.getId()), results.get(projectKey));
+		assertEquals(searchDocumentDriver.formulateSearchDocument(folderId), results.get(folderKey));
+		assertNotNull(results.get(projectKey).getFields().getDescription());
+		assertNull(results.get(doesNotExist));
+	}
 
 	// http://stackoverflow.com/questions/326390/how-to-create-a-java-string-from-the-contents-of-a-file
 	private static String readFile(File file) throws IOException {
@@ -16,6 +16,7 @@ import static org.sagebionetworks.search.SearchConstants.FIELD_ORGAN;
 import static org.sagebionetworks.search.SearchConstants.FIELD_TISSUE;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -34,6 +35,7 @@ import org.sagebionetworks.repo.model.annotation.v2.AnnotationsV2TestUtils;
 import org.sagebionetworks.repo.model.annotation.v2.AnnotationsValueType;
 import org.sagebionetworks.repo.model.search.Document;
 import org.sagebionetworks.repo.model.search.DocumentFields;
+import org.sagebionetworks.repo.model.v2.wiki.V2WikiMarkdownVersion;
 
 @RunWith(MockitoJUnitRunner.class)
 public class SearchDocumentDriverImplTest {
@@ -192,4 +194,28 @@ public class SearchDocumentDriverImplTest {
 		assertEquals(sanitizedString, result.getFields().getDescription());
 	}
 
+
+	@Test
+	public void testBuildWikiPageText(){
+		V2WikiMarkdownVersion root = new V2WikiMarkdownVersion();
+		root.setTitle("rootTitle");
+		root.setMarkdownFileHandleId("1");
+		V2WikiMarkdownVersion noTitle = new V2WikiMarkdownVersion();
+		noTitle.setMarkdownFileHandleId("2");
+		Map<String, String> markdown = new HashMap<>();
+		markdown.put("1", "rootMarkdown");
+		markdown.put("2", "subMarkdown");
+		// call under test
+		String text = SearchDocumentDriverImpl.buildWikiPageText(Arrays.asList(root, noTitle), markdown);
+		assertEquals("\nrootTitle\nrootMarkdown\nsubMarkdown", text);
+	}
+
+	@Test
+	public void testBuildWikiPageTextMissingMarkdown(){
+		V2WikiMarkdownVersion root = new V2WikiMarkdownVersion();
+		root.setTitle("rootTitle");
+		root.setMarkdownFileHandleId("1");
+		// call under test
+		assertNull(SearchDocumentDriverImpl.buildWikiPageText(Arrays.asList(root), Collections.emptyMap()));
+	}
 }
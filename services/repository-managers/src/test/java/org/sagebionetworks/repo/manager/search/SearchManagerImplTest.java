@@ -5,7 +5,6 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -17,10 +16,12 @@ import static org.sagebionetworks.search.SearchConstants.FIELD_PATH;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.Before;
@@ -39,7 +40,6 @@ import org.sagebionetworks.repo.model.search.Document;
 import org.sagebionetworks.repo.model.search.SearchResults;
 import org.sagebionetworks.repo.model.search.query.KeyValue;
 import org.sagebionetworks.repo.model.search.query.SearchQuery;
-import org.sagebionetworks.repo.web.NotFoundException;
 import org.sagebionetworks.search.CloudSearchLogger;
 import org.sagebionetworks.search.SearchDao;
 import org.sagebionetworks.search.SearchUtil;
@@ -100,7 +100,7 @@ public class SearchManagerImplTest {
 		sample.getHits().withHit(hit);
 		when(mockSearchDao.executeSearch(any(SearchRequest.class))).thenReturn(sample);
 		// make sure the path is returned from the document driver
-		when(mockSearchDocumentDriver.getEntityPath("syn123")).thenReturn(new EntityPath());
+		when(mockSearchDocumentDriver.getEntityPaths(Collections.singletonList("syn123"))).thenReturn(Collections.singletonMap("syn123", new EntityPath()));
 
 		SearchQuery query = new SearchQuery();
 		query.setBooleanQuery(new LinkedList<>());
@@ -121,7 +121,7 @@ public class SearchManagerImplTest {
 		assertNotNull(results.getHits().get(0).getPath());
 		// Validate that path was not passed along to the search index as it is not there.
 		verify(mockSearchDao, times(1)).executeSearch(any(SearchRequest.class));
-		verify(mockSearchDocumentDriver,times(1)).getEntityPath("syn123");
+		verify(mockSearchDocumentDriver,times(1)).getEntityPaths(Collections.singletonList("syn123"));
 		verify(mockSearchDocumentDriver,times(1)).getAliases(Collections.singletonList("syn123"));
 	}
 
@@ -148,7 +148,7 @@ public class SearchManagerImplTest {
 		// The path should not be returned unless requested.
 		assertNull(results.getHits().get(0).getPath());
 		verify(mockSearchDao, times(1)).executeSearch(any(SearchRequest.class));
-		verify(mockSearchDocumentDriver,never()).getEntityPath(anyString());
+		verify(mockSearchDocumentDriver,never()).getEntityPaths(any());
 		verify(mockSearchDocumentDriver,times(1)).getAliases(Collections.singletonList("syn123"));
 	}
 
@@ -168,21 +168,19 @@ public class SearchManagerImplTest {
 
 	@Test
 	public void testDocumentChangeMessages(){
-		Document doc2Null = null;
-
 		Document doc3 = new Document();
 		doc3.setId("syn3");
 
-		when(mockTranslator.generateSearchDocumentIfNecessary(any(ChangeMessage.class))).thenReturn(doc1, doc2Null, doc3);
-
 		List<ChangeMessage> messages = Arrays.asList(new ChangeMessage(), new ChangeMessage(), new ChangeMessage());
+		// the second message is ignored so it does not have a document
+		when(mockTranslator.generateSearchDocuments(messages)).thenReturn(Arrays.asList(doc1, doc3));
+
 		//method under test
 		searchManager.documentChangeMessages(messages);
 
 		verify(mockSearchDao).sendDocuments(iteratorArgumentCaptor.capture());
 		verify(mockRecordLogger).pushAllRecordsAndReset();
 
-		//check that the document iterator now only contains non-null Documents
 		Iterator<Document> generatedIterator = iteratorArgumentCaptor.getValue();
 		List<Document> documentsInIterator = Lists.newArrayList(generatedIterator);
 		assertEquals(2, documentsInIterator.size());
@@ -190,6 +188,28 @@ public class SearchManagerImplTest {
 		assertEquals(doc3, documentsInIterator.get(1));
 	}
 	
+	@Test
+	public void testDocumentChangeMessagesMultipleBatches(){
+		List<ChangeMessage> messages = new ArrayList<>();
+		for (int i = 0; i < SearchManagerImpl.DOCUMENT_BATCH_SIZE + 1; i++) {
+			messages.add(new ChangeMessage());
+		}
+		Document doc2 = new Document();
+		doc2.setId("syn2");
+		when(mockTranslator.generateSearchDocuments(messages.subList(0, SearchManagerImpl.DOCUMENT_BATCH_SIZE))).thenReturn(Arrays.asList(doc1));
+		when(mockTranslator.generateSearchDocuments(messages.subList(SearchManagerImpl.DOCUMENT_BATCH_SIZE, messages.size()))).thenReturn(Arrays.asList(doc2));
+
+		//method under test
+		searchManager.documentChangeMessages(messages);
+
+		verify(mockSearchDao).sendDocuments(iteratorArgumentCaptor.capture());
+		// documents are only built as the iterator is consumed.
+		verify(mockTranslator, never()).generateSearchDocuments(any());
+		List<Document> documentsInIterator = Lists.newArrayList(iteratorArgumentCaptor.getValue());
+		assertEquals(Arrays.asList(doc1, doc2), documentsInIterator);
+		verify(mockTranslator, times(2)).generateSearchDocuments(any());
+	}
+	
 	@Test
 	public void testDocumentChangeMessagesError(){
 		doThrow(new IllegalArgumentException("Fake failure")).when(mockSearchDao).sendDocuments(any(Iterator.class));
@@ -216,9 +236,11 @@ public class SearchManagerImplTest {
 		org.sagebionetworks.repo.model.search.Hit hit2 = new org.sagebionetworks.repo.model.search.Hit(); hit2.setId(id2); hits.add(hit2);
 		org.sagebionetworks.repo.model.search.Hit hit3 = new org.sagebionetworks.repo.model.search.Hit(); hit3.setId(id3); hits.add(hit3);
 
-		when(mockSearchDocumentDriver.getEntityPath(id1)).thenReturn(new EntityPath());
-		when(mockSearchDocumentDriver.getEntityPath(id2)).thenThrow(new NotFoundException(""));
-		when(mockSearchDocumentDriver.getEntityPath(id3)).thenReturn(new EntityPath());
+		// The path of id2 does not exist
+		Map<String, EntityPath> paths = new HashMap<>();
+		paths.put(id1, new EntityPath());
+		paths.put(id3, new EntityPath());
+		when(mockSearchDocumentDriver.getEntityPaths(Arrays.asList(id1, id2, id3))).thenReturn(paths);
 		
 		// method under test
 		searchManager.addPathDataToHits(hits);
@@ -226,6 +248,9 @@ public class SearchManagerImplTest {
 		assertEquals(2, hits.size());
 		assertEquals(id1, hits.get(0).getId());
 		assertEquals(id3, hits.get(1).getId());
+		assertNotNull(hits.get(0).getPath());
+		assertNotNull(hits.get(1).getPath());
+		verify(mockSearchDocumentDriver,times(1)).getEntityPaths(any());
 	}
 	
 	@Test
@@ -1,16 +1,24 @@
 package org.sagebionetworks.repo.manager.sts;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import org.joda.time.DateTime;
 import org.junit.jupiter.api.Test;
@@ -25,9 +33,14 @@ import org.sagebionetworks.repo.manager.ProjectSettingsManager;
 import org.sagebionetworks.repo.manager.entity.EntityAuthorizationManager;
 import org.sagebionetworks.repo.manager.file.FileHandleManager;
 import org.sagebionetworks.repo.model.ACCESS_TYPE;
+import org.sagebionetworks.repo.model.ObjectType;
+import org.sagebionetworks.repo.model.UnauthorizedException;
 import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.auth.AuthorizationStatus;
 import org.sagebionetworks.repo.model.file.S3FileHandle;
+import org.sagebionetworks.repo.model.message.ChangeMessage;
+import org.sagebionetworks.repo.model.message.ChangeType;
+import org.sagebionetworks.repo.model.message.TransactionalMessenger;
 import org.sagebionetworks.repo.model.project.ExternalS3StorageLocationSetting;
 import org.sagebionetworks.repo.model.project.ProjectSettingsType;
 import org.sagebionetworks.repo.model.project.S3StorageLocationSetting;
@@ -35,8 +48,11 @@ import org.sagebionetworks.repo.model.project.StorageLocationSetting;
 import org.sagebionetworks.repo.model.project.UploadDestinationListSetting;
 import org.sagebionetworks.repo.model.sts.StsCredentials;
 import org.sagebionetworks.repo.model.sts.StsPermission;
+import org.sagebionetworks.util.Clock;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.amazonaws.services.securitytoken.AWSSecurityTokenService;
+import com.amazonaws.services.securitytoken.AbstractAWSSecurityTokenService;
 import com.amazonaws.services.securitytoken.model.AssumeRoleRequest;
 import com.amazonaws.services.securitytoken.model.AssumeRoleResult;
 import com.amazonaws.services.securitytoken.model.Credentials;
@@ -84,6 +100,12 @@ public class StsManagerImplTest {
 	@Mock
 	private AWSSecurityTokenService mockStsClient;
 
+	@Mock
+	private TransactionalMessenger mockTransactionalMessenger;
+
+	@Mock
+	private Clock mockClock;
+
 	@InjectMocks
 	private StsManagerImpl stsManager;
 
@@ -327,6 +349,290 @@ public class StsManagerImplTest {
 		verify(mockAuthStatus).checkAuthorizationOrElseThrow();
 	}
 
+	@Test
+	public void testInitialize() {
+		// Method under test
+		stsManager.initialize();
+
+		verify(mockTransactionalMessenger).removeObserver(stsManager);
+		verify(mockTransactionalMessenger).registerObserver(stsManager);
+	}
+
+	@Test
+	public void getTemporaryCredentials_cached() {
+		when(mockAuthManager.hasAccess(any(), any(), any())).thenReturn(mockAuthStatus);
+		setupFolderWithProjectSetting(/*isSts*/ true, STS_STORAGE_LOCATION_ID);
+		setupStsStorageLocation();
+		StubStsClient stubStsClient = setupStubSts();
+
+		StsCredentials expected = stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_only);
+
+		for (int i = 0; i < 100; i++) {
+			// Method under test
+			StsCredentials result = stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_only);
+			assertSame(expected, result);
+		}
+
+		// Only the first call reaches STS and the project settings
+		assertEquals(1, stubStsClient.requests.size());
+		verify(mockProjectSettingsManager).getProjectSettingForNode(USER_INFO, PARENT_ENTITY_ID, ProjectSettingsType.upload,
+				UploadDestinationListSetting.class);
+		verify(mockProjectSettingsManager).getStorageLocationSetting(STS_STORAGE_LOCATION_ID);
+
+		// The access is checked on every call
+		verify(mockAuthManager, times(101)).hasAccess(USER_INFO, PARENT_ENTITY_ID, ACCESS_TYPE.DOWNLOAD);
+		verify(mockAuthStatus, times(101)).checkAuthorizationOrElseThrow();
+	}
+
+	@Test
+	public void getTemporaryCredentials_cachedWithUnauthorized() {
+		when(mockAuthManager.hasAccess(any(), any(), any())).thenReturn(mockAuthStatus);
+		setupFolderWithProjectSetting(/*isSts*/ true, STS_STORAGE_LOCATION_ID);
+		setupStsStorageLocation();
+		StubStsClient stubStsClient = setupStubSts();
+
+		stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_only);
+
+		doThrow(new UnauthorizedException("Denied")).when(mockAuthStatus).checkAuthorizationOrElseThrow();
+
+		// Method under test - Throws even if the credentials are cached
+		assertThrows(UnauthorizedException.class, () -> stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID,
+				StsPermission.read_only));
+
+		assertEquals(1, stubStsClient.requests.size());
+	}
+
+	@Test
+	public void getTemporaryCredentials_cachedNearExpiration() {
+		when(mockAuthManager.hasAccess(any(), any(), any())).thenReturn(mockAuthStatus);
+		setupFolderWithProjectSetting(/*isSts*/ true, STS_STORAGE_LOCATION_ID);
+		setupStsStorageLocation();
+		StubStsClient stubStsClient = setupStubSts();
+
+		long now = System.currentTimeMillis();
+		long credentialsDuration = TimeUnit.SECONDS.toMillis(StsManagerImpl.DURATION_SECONDS);
+		long margin = StsManagerImpl.CREDENTIALS_EXPIRATION_MARGIN.toMillis();
+
+		when(mockClock.currentTimeMillis()).thenReturn(
+				// The first credentials are issued
+				now,
+				// The first credentials are still valid for longer than the margin
+				now + credentialsDuration - margin - 1,
+				// The first credentials are within the margin, new credentials are issued and then re-used
+				now + credentialsDuration - margin);
+
+		StsCredentials first = stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_only);
+
+		// Method under test
+		assertSame(first, stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_only));
+
+		StsCredentials refreshed = stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_only);
+
+		assertNotEquals(first.getSessionToken(), refreshed.getSessionToken());
+		assertSame(refreshed, stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_only));
+
+		assertEquals(2, stubStsClient.requests.size());
+	}
+
+	@Test
+	public void getTemporaryCredentials_cachedPerPermission() {
+		when(mockAuthManager.hasAccess(any(), any(), any())).thenReturn(mockAuthStatus);
+		setupFolderWithProjectSetting(/*isSts*/ true, STS_STORAGE_LOCATION_ID);
+		setupStsStorageLocation();
+		StubStsClient stubStsClient = setupStubSts();
+
+		// Method under test
+		StsCredentials readOnly = stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_only);
+		StsCredentials readWrite = stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_write);
+
+		assertNotEquals(readOnly.getSessionToken(), readWrite.getSessionToken());
+		assertSame(readOnly, stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_only));
+		assertSame(readWrite, stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_write));
+
+		assertEquals(2, stubStsClient.requests.size());
+		assertTrue(stubStsClient.requests.get(0).getPolicy().contains("\"s3:GetObject\",\"s3:ListBucket\""));
+		assertTrue(stubStsClient.requests.get(1).getPolicy().contains("\"s3:PutObject\""));
+
+		// The inherited setting is shared by the permissions
+		verify(mockProjectSettingsManager).getProjectSettingForNode(USER_INFO, PARENT_ENTITY_ID, ProjectSettingsType.upload,
+				UploadDestinationListSetting.class);
+	}
+
+	@Test
+	public void getTemporaryCredentials_cachedPerUser() {
+		when(mockAuthManager.hasAccess(any(), any(), any())).thenReturn(mockAuthStatus);
+		setupFolderWithProjectSetting(/*isSts*/ true, STS_STORAGE_LOCATION_ID);
+		setupStsStorageLocation();
+		StubStsClient stubStsClient = setupStubSts();
+
+		UserInfo otherUser = new UserInfo(false, USER_ID + 1);
+
+		// Method under test
+		StsCredentials userCredentials = stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_only);
+		StsCredentials otherUserCredentials = stsManager.getTemporaryCredentials(otherUser, PARENT_ENTITY_ID, StsPermission.read_only);
+
+		assertNotEquals(userCredentials.getSessionToken(), otherUserCredentials.getSessionToken());
+		assertEquals(2, stubStsClient.requests.size());
+		assertEquals(EXPECTED_STS_SESSION_NAME, stubStsClient.requests.get(0).getRoleSessionName());
+		assertEquals("sts-" + (USER_ID + 1) + "-" + PARENT_ENTITY_ID, stubStsClient.requests.get(1).getRoleSessionName());
+		
+		// The same policy is used for both
+		assertEquals(stubStsClient.requests.get(0).getPolicy(), stubStsClient.requests.get(1).getPolicy());
+	}
+
+	@Test
+	public void getTemporaryCredentials_afterProjectSettingChange() {
+		when(mockAuthManager.hasAccess(any(), any(), any())).thenReturn(mockAuthStatus);
+		setupFolderWithProjectSetting(/*isSts*/ true, STS_STORAGE_LOCATION_ID);
+		setupStsStorageLocation();
+		StubStsClient stubStsClient = setupStubSts();
+
+		stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_only);
+
+		stsManager.fireChangeMessage(new ChangeMessage().setObjectType(ObjectType.PROJECT_SETTING).setObjectId("1").setChangeType(ChangeType.UPDATE));
+
+		// Method under test
+		stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_only);
+
+		assertEquals(2, stubStsClient.requests.size());
+		verify(mockProjectSettingsManager, times(2)).getProjectSettingForNode(USER_INFO, PARENT_ENTITY_ID, ProjectSettingsType.upload,
+				UploadDestinationListSetting.class);
+	}
+
+	@Test
+	public void getTemporaryCredentials_afterEntityUpdate() {
+		when(mockAuthManager.hasAccess(any(), any(), any())).thenReturn(mockAuthStatus);
+		setupFolderWithProjectSetting(/*isSts*/ true, STS_STORAGE_LOCATION_ID);
+		setupStsStorageLocation();
+		StubStsClient stubStsClient = setupStubSts();
+
+		stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_only);
+
+		// Changes to other entities or creations do not affect the entity
+		stsManager.fireChangeMessage(new ChangeMessage().setObjectType(ObjectType.ENTITY).setObjectId(FOLDER_ID).setChangeType(ChangeType.UPDATE));
+		stsManager.fireChangeMessage(new ChangeMessage().setObjectType(ObjectType.ENTITY).setObjectId(PARENT_ENTITY_ID).setChangeType(ChangeType.CREATE));
+
+		stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_only);
+
+		assertEquals(1, stubStsClient.requests.size());
+
+		stsManager.fireChangeMessage(new ChangeMessage().setObjectType(ObjectType.ENTITY).setObjectId(PARENT_ENTITY_ID).setChangeType(ChangeType.UPDATE));
+
+		// Method under test
+		stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_only);
+
+		assertEquals(2, stubStsClient.requests.size());
+		verify(mockProjectSettingsManager, times(2)).getProjectSettingForNode(USER_INFO, PARENT_ENTITY_ID, ProjectSettingsType.upload,
+				UploadDestinationListSetting.class);
+	}
+
+	@Test
+	public void getTemporaryCredentials_afterEntityUpdateWithMultipleUsersAndPermissions() {
+		when(mockAuthManager.hasAccess(any(), any(), any())).thenReturn(mockAuthStatus);
+		setupFolderWithProjectSetting(/*isSts*/ true, STS_STORAGE_LOCATION_ID);
+		setupStsStorageLocation();
+		StubStsClient stubStsClient = setupStubSts();
+
+		UserInfo otherUser = new UserInfo(false, USER_ID + 1);
+
+		StsCredentials readOnly = stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_only);
+		StsCredentials readWrite = stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_write);
+		StsCredentials otherUserReadOnly = stsManager.getTemporaryCredentials(otherUser, PARENT_ENTITY_ID, StsPermission.read_only);
+
+		assertEquals(3, stubStsClient.requests.size());
+		assertEquals(1, stsManager.getCredentialsIndexSize());
+
+		stsManager.fireChangeMessage(new ChangeMessage().setObjectType(ObjectType.ENTITY).setObjectId(PARENT_ENTITY_ID).setChangeType(ChangeType.UPDATE));
+
+		// All the credentials of the entity are removed, including the index
+		assertEquals(0, stsManager.getCredentialsIndexSize());
+
+		// Method under test
+		assertNotSame(readOnly, stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_only));
+		assertNotSame(readWrite, stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_write));
+		assertNotSame(otherUserReadOnly, stsManager.getTemporaryCredentials(otherUser, PARENT_ENTITY_ID, StsPermission.read_only));
+
+		assertEquals(6, stubStsClient.requests.size());
+		assertEquals(1, stsManager.getCredentialsIndexSize());
+	}
+
+	@Test
+	public void getTemporaryCredentials_afterProjectSettingChangeClearsIndex() {
+		when(mockAuthManager.hasAccess(any(), any(), any())).thenReturn(mockAuthStatus);
+		setupFolderWithProjectSetting(/*isSts*/ true, STS_STORAGE_LOCATION_ID);
+		setupStsStorageLocation();
+		setupStubSts();
+
+		stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_only);
+
+		assertEquals(1, stsManager.getCredentialsIndexSize());
+
+		// Method under test
+		stsManager.fireChangeMessage(new ChangeMessage().setObjectType(ObjectType.PROJECT_SETTING).setObjectId("1").setChangeType(ChangeType.UPDATE));
+
+		assertEquals(0, stsManager.getCredentialsIndexSize());
+	}
+
+	@Test
+	public void getTemporaryCredentials_nearExpirationKeepsIndex() {
+		when(mockAuthManager.hasAccess(any(), any(), any())).thenReturn(mockAuthStatus);
+		setupFolderWithProjectSetting(/*isSts*/ true, STS_STORAGE_LOCATION_ID);
+		setupStsStorageLocation();
+		StubStsClient stubStsClient = setupStubSts();
+
+		long now = System.currentTimeMillis();
+		long credentialsDuration = TimeUnit.SECONDS.toMillis(StsManagerImpl.DURATION_SECONDS);
+		long margin = StsManagerImpl.CREDENTIALS_EXPIRATION_MARGIN.toMillis();
+
+		when(mockClock.currentTimeMillis()).thenReturn(now, now + credentialsDuration - margin);
+
+		stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_only);
+		
+		// Method under test
+		stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_only);
+
+		assertEquals(2, stubStsClient.requests.size());
+		// The refreshed credentials are still indexed
+		assertEquals(1, stsManager.getCredentialsIndexSize());
+
+		stsManager.fireChangeMessage(new ChangeMessage().setObjectType(ObjectType.ENTITY).setObjectId(PARENT_ENTITY_ID).setChangeType(ChangeType.UPDATE));
+
+		stsManager.getTemporaryCredentials(USER_INFO, PARENT_ENTITY_ID, StsPermission.read_only);
+
+		assertEquals(3, stubStsClient.requests.size());
+	}
+
+	private void setupStsStorageLocation() {
+		ExternalS3StorageLocationSetting storageLocationSetting = new ExternalS3StorageLocationSetting();
+		storageLocationSetting.setBucket(BUCKET);
+		storageLocationSetting.setStsEnabled(true);
+		when(mockProjectSettingsManager.getStorageLocationSetting(STS_STORAGE_LOCATION_ID)).thenReturn(storageLocationSetting);
+	}
+
+	private StubStsClient setupStubSts() {
+		when(mockStackConfiguration.getTempCredentialsIamRoleArn()).thenReturn(AWS_ROLE_ARN);
+		StubStsClient stubStsClient = new StubStsClient();
+		ReflectionTestUtils.setField(stsManager, "stsClient", stubStsClient);
+		return stubStsClient;
+	}
+
+	/**
+	 * Local STS stub that issues new credentials on each request, expiring after the requested duration according to the clock
+	 */
+	private class StubStsClient extends AbstractAWSSecurityTokenService {
+
+		private final List<AssumeRoleRequest> requests = new ArrayList<>();
+
+		@Override
+		public AssumeRoleResult assumeRole(AssumeRoleRequest request) {
+			requests.add(request);
+			long expiration = mockClock.currentTimeMillis() + TimeUnit.SECONDS.toMillis(request.getDurationSeconds());
+			Credentials credentials = new Credentials(AWS_ACCESS_KEY, AWS_SECRET_KEY, AWS_SESSION_TOKEN + "-" + requests.size(),
+					new Date(expiration));
+			return new AssumeRoleResult().withCredentials(credentials);
+		}
+	}
+
 	private void mockSts() {
 		// Mock config needed to set up the call.
 		when(mockStackConfiguration.getTempCredentialsIamRoleArn()).thenReturn(AWS_ROLE_ARN);
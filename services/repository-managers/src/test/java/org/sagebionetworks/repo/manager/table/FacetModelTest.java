@@ -2,7 +2,9 @@ package org.sagebionetworks.repo.manager.table;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -27,6 +29,7 @@ import org.sagebionetworks.repo.model.table.FacetColumnRequest;
 import org.sagebionetworks.repo.model.table.FacetColumnValuesRequest;
 import org.sagebionetworks.repo.model.table.FacetType;
 import org.sagebionetworks.repo.model.table.JsonSubColumnModel;
+import org.sagebionetworks.table.cluster.QueryTranslator;
 import org.sagebionetworks.table.cluster.SchemaProvider;
 import org.sagebionetworks.table.cluster.TranslationDependencies;
 import org.sagebionetworks.table.cluster.description.TableIndexDescription;
@@ -375,6 +378,95 @@ public class FacetModelTest {
 		assertTrue(result.get(1) instanceof FacetTransformerValueCounts);
 	}
 	
+	@Test
+	public void testGenerateFacetQueryTransformersWithSharedRangeQuery(){
+		ColumnModel jsonColumn = new ColumnModel()
+			.setName("jsonColumn")
+			.setColumnType(ColumnType.JSON)
+			.setJsonSubColumns(List.of(
+				new JsonSubColumnModel().setName("b").setJsonPath("$.b").setFacetType(FacetType.range).setColumnType(ColumnType.INTEGER)
+			));
+		
+		validatedQueryFacetColumns.add(new FacetRequestColumnModel(facetColumnModel, null));
+		validatedQueryFacetColumns.add(new FacetRequestColumnModel(facetColumnModel2, valuesRequest));
+		validatedQueryFacetColumns.add(new FacetRequestColumnModel(jsonColumn.getName(), jsonColumn.getJsonSubColumns().get(0), null));
+		
+		// call under test
+		List<FacetTransformer> result = FacetModel.generateFacetQueryTransformers(originalQuery, dependencies, validatedQueryFacetColumns);
+		
+		assertEquals(3, result.size());
+		assertTrue(result.get(0) instanceof FacetTransformerRange);
+		assertTrue(result.get(1) instanceof FacetTransformerValueCounts);
+		assertTrue(result.get(2) instanceof FacetTransformerRange);
+		// Both range facets are computed on the same rows with a single query
+		assertSame(result.get(0).getFacetSqlQuery(), result.get(2).getFacetSqlQuery());
+		String sql = ((QueryTranslator) result.get(0).getFacetSqlQuery()).getInputSql();
+		assertTrue(sql.contains(" AS minimum_0, MAX(\"asdf\") AS maximum_0,"), sql);
+		assertTrue(sql.contains(" AS minimum_1, MAX(JSON_EXTRACT(\"jsonColumn\",'$.b')) AS maximum_1 "), sql);
+	}
+	
+	@Test
+	public void testGenerateFacetQueryTransformersWithSelectedRange(){
+		ColumnModel jsonColumn = new ColumnModel()
+			.setName("jsonColumn")
+			.setColumnType(ColumnType.JSON)
+			.setJsonSubColumns(List.of(
+				new JsonSubColumnModel().setName("b").setJsonPath("$.b").setFacetType(FacetType.range).setColumnType(ColumnType.INTEGER)
+			));
+		
+		// The range facet with a selection is computed on different rows than the other range facet
+		validatedQueryFacetColumns.add(new FacetRequestColumnModel(facetColumnModel, rangeRequest));
+		validatedQueryFacetColumns.add(new FacetRequestColumnModel(jsonColumn.getName(), jsonColumn.getJsonSubColumns().get(0), null));
+		
+		// call under test
+		List<FacetTransformer> result = FacetModel.generateFacetQueryTransformers(originalQuery, dependencies, validatedQueryFacetColumns);
+		
+		assertEquals(2, result.size());
+		assertNotSame(result.get(0).getFacetSqlQuery(), result.get(1).getFacetSqlQuery());
+		assertTrue(((QueryTranslator) result.get(0).getFacetSqlQuery()).getInputSql().contains(" AS minimum,"));
+		assertTrue(((QueryTranslator) result.get(1).getFacetSqlQuery()).getInputSql().contains(" AS minimum,"));
+	}
+	
+	@Test
+	public void testGenerateFacetQueryTransformersWithSharedValueCountsQuery(){
+		ColumnModel valuesColumn = facetSchema.get(4).setFacetType(FacetType.enumeration);
+		
+		validatedQueryFacetColumns.add(new FacetRequestColumnModel(facetColumnModel2, null));
+		validatedQueryFacetColumns.add(new FacetRequestColumnModel(facetColumnModel, null));
+		validatedQueryFacetColumns.add(new FacetRequestColumnModel(valuesColumn, null));
+		
+		// call under test
+		List<FacetTransformer> result = FacetModel.generateFacetQueryTransformers(originalQuery, dependencies, validatedQueryFacetColumns);
+		
+		assertEquals(3, result.size());
+		assertTrue(result.get(0) instanceof FacetTransformerValueCounts);
+		assertTrue(result.get(1) instanceof FacetTransformerRange);
+		assertTrue(result.get(2) instanceof FacetTransformerValueCounts);
+		// Both value count facets are computed on the same rows with a single query
+		assertSame(result.get(0).getFacetSqlQuery(), result.get(2).getFacetSqlQuery());
+		String sql = result.get(0).getFacetSqlQuery().getOutputSQL();
+		assertTrue(sql.startsWith("SELECT 0 AS facetIndex, value, frequency FROM ("), sql);
+		assertTrue(sql.contains(") F0 UNION ALL SELECT 1 AS facetIndex, value, frequency FROM ("), sql);
+		assertTrue(sql.endsWith(") F1 ORDER BY facetIndex, frequency DESC, value ASC"), sql);
+	}
+	
+	@Test
+	public void testGenerateFacetQueryTransformersWithSelectedValues(){
+		ColumnModel valuesColumn = facetSchema.get(4).setFacetType(FacetType.enumeration);
+		
+		// The value count facet with a selection is computed on different rows than the other value count facet
+		validatedQueryFacetColumns.add(new FacetRequestColumnModel(facetColumnModel2, valuesRequest));
+		validatedQueryFacetColumns.add(new FacetRequestColumnModel(valuesColumn, null));
+		
+		// call under test
+		List<FacetTransformer> result = FacetModel.generateFacetQueryTransformers(originalQuery, dependencies, validatedQueryFacetColumns);
+		
+		assertEquals(2, result.size());
+		assertNotSame(result.get(0).getFacetSqlQuery(), result.get(1).getFacetSqlQuery());
+		assertTrue(result.get(0).getFacetSqlQuery() instanceof QueryTranslator);
+		assertTrue(result.get(1).getFacetSqlQuery() instanceof QueryTranslator);
+	}
+	
 	/**
 	 * Helper to create a schema provider for the given schema.
 	 * @param schema
@@ -26,6 +26,7 @@ import org.sagebionetworks.repo.model.table.JsonSubColumnModel;
 import org.sagebionetworks.repo.model.table.Row;
 import org.sagebionetworks.repo.model.table.RowSet;
 import org.sagebionetworks.repo.model.table.SelectColumn;
+import org.sagebionetworks.table.cluster.QueryTranslator;
 import org.sagebionetworks.table.cluster.SchemaProvider;
 import org.sagebionetworks.table.cluster.TranslationDependencies;
 import org.sagebionetworks.table.cluster.description.IndexDescriptionLookup;
@@ -253,4 +254,83 @@ public class FacetTransformerRangeTest {
 
 		assertEquals(expected, result);
 	}
+	
+	@Test
+	public void testGenerateSharedFacetSqlQuery() {
+		schema.get(1).setColumnType(ColumnType.INTEGER);
+		schema.get(1).setFacetType(FacetType.range);
+		FacetRequestColumnModel otherFacet = new FacetRequestColumnModel(schema.get(1), null);
+		facets.add(otherFacet);
+		
+		// call under test
+		QueryTranslator sharedQuery = FacetTransformerRange.generateSharedFacetSqlQuery(facets, facets, originalQuery, dependencies);
+		
+		String expectedString = "SELECT MIN(_C2_) AS minimum_0, MAX(_C2_) AS maximum_0, MIN(_C1_) AS minimum_1, MAX(_C1_) AS maximum_1 FROM T123 WHERE _C0_ LIKE :b0";
+		assertEquals(expectedString, sharedQuery.getOutputSQL());
+		assertEquals("asdf%", sharedQuery.getParameters().get("b0"));
+	}
+	
+	@Test
+	public void testGenerateSharedFacetSqlQueryWithDifferentSearchConditions() {
+		schema.get(1).setColumnType(ColumnType.INTEGER);
+		schema.get(1).setFacetType(FacetType.range);
+		FacetColumnRangeRequest otherRequest = new FacetColumnRangeRequest();
+		otherRequest.setColumnName(schema.get(1).getName());
+		otherRequest.setMin("1");
+		FacetRequestColumnModel otherFacet = new FacetRequestColumnModel(schema.get(1), otherRequest);
+		facets.add(otherFacet);
+		
+		String message = assertThrows(IllegalArgumentException.class, ()->{
+			// call under test
+			FacetTransformerRange.generateSharedFacetSqlQuery(facets, facets, originalQuery, dependencies);
+		}).getMessage();
+		
+		assertEquals("All the range facets must have the same search condition.", message);
+	}
+	
+	@Test 
+	public void testTranslateToResultWithSharedQuery(){
+		schema.get(1).setColumnType(ColumnType.INTEGER);
+		schema.get(1).setFacetType(FacetType.range);
+		FacetRequestColumnModel otherFacet = new FacetRequestColumnModel(schema.get(1), null);
+		facets.add(otherFacet);
+		QueryTranslator sharedQuery = FacetTransformerRange.generateSharedFacetSqlQuery(facets, facets, originalQuery, dependencies);
+		
+		facetTransformer = new FacetTransformerRange(otherFacet, facets, sharedQuery, 1, selectedMin, selectedMax);
+		
+		assertEquals(sharedQuery, facetTransformer.getFacetSqlQuery());
+		
+		List<SelectColumn> headers = new ArrayList<>();
+		for (String alias : List.of(FacetTransformerRange.getMinAlias(0), FacetTransformerRange.getMaxAlias(0), FacetTransformerRange.getMinAlias(1), FacetTransformerRange.getMaxAlias(1))) {
+			headers.add(new SelectColumn().setName(alias));
+		}
+		rowSet.setHeaders(headers);
+		Row row = new Row();
+		row.setValues(Lists.newArrayList("2", "42", "1.5", "3.5"));
+		rowSet.setRows(Lists.newArrayList(row));
+		
+		FacetColumnResultRange expected = new FacetColumnResultRange()
+			.setColumnName(schema.get(1).getName())
+			.setFacetType(FacetType.range)
+			.setColumnMin("1.5")
+			.setColumnMax("3.5")
+			.setSelectedMin(selectedMin)
+			.setSelectedMax(selectedMax);
+		
+		// call under test
+		FacetColumnResultRange result = (FacetColumnResultRange) facetTransformer.translateToResult(rowSet);
+
+		assertEquals(expected, result);
+	}
+	
+	@Test 
+	public void testTranslateToResultWithSharedQueryMissingHeaders(){
+		facetTransformer = new FacetTransformerRange(facets.get(0), facets, facetTransformer.getFacetSqlQuery(), 1, selectedMin, selectedMax);
+		rowSet.setHeaders(correctSelectList);
+		
+		assertThrows(IllegalArgumentException.class, ()->{
+			// call under test
+			facetTransformer.translateToResult(rowSet);
+		});
+	}
 }
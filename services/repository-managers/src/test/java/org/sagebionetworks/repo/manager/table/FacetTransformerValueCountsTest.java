@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -29,7 +30,9 @@ import org.sagebionetworks.repo.model.table.JsonSubColumnModel;
 import org.sagebionetworks.repo.model.table.Row;
 import org.sagebionetworks.repo.model.table.RowSet;
 import org.sagebionetworks.repo.model.table.SelectColumn;
+import org.sagebionetworks.table.cluster.QueryTranslator;
 import org.sagebionetworks.table.cluster.SchemaProvider;
+import org.sagebionetworks.table.cluster.TranslatedQuery;
 import org.sagebionetworks.table.cluster.TranslationDependencies;
 import org.sagebionetworks.table.cluster.description.IndexDescriptionLookup;
 import org.sagebionetworks.table.cluster.description.TableIndexDescription;
@@ -151,7 +154,7 @@ public class FacetTransformerValueCountsTest {
 				+ " GROUP BY \"stringColumn\""
 				+ " ORDER BY frequency DESC, value ASC"
 				+ " LIMIT 100";
-		assertEquals(expectedString, facetTransformer.getFacetSqlQuery().getInputSql());
+		assertEquals(expectedString, ((QueryTranslator) facetTransformer.getFacetSqlQuery()).getInputSql());
 		
 		//transformed model will be correct if schema and non-transformed query are correct
 		//because it is handled by SqlQuery Constructor
@@ -252,9 +255,52 @@ public class FacetTransformerValueCountsTest {
 				+ " ORDER BY frequency DESC, value ASC"
 				+ " LIMIT 100";
 		
-		assertEquals(expectedString, facetTransformer.getFacetSqlQuery().getInputSql());
+		assertEquals(expectedString, ((QueryTranslator) facetTransformer.getFacetSqlQuery()).getInputSql());
 	}
 
+	/////////////////////////////////////
+	// generateSharedFacetSqlQuery tests()
+	/////////////////////////////////////
+	@Test
+	public void testGenerateSharedFacetSqlQuery(){
+		facets.add(new FacetRequestColumnModel(stringListModel, null));
+		TranslatedQuery first = new FacetTransformerValueCounts(stringModel.getName(), null, null, false, facets, originalQuery, dependencies, selectedValuesSet).getFacetSqlQuery();
+		TranslatedQuery second = new FacetTransformerValueCounts(stringModel.getName(), null, null, false, facets.subList(1, 2), originalQuery, dependencies, null).getFacetSqlQuery();
+		
+		// call under test
+		TranslatedQuery shared = FacetTransformerValueCounts.generateSharedFacetSqlQuery(List.of(first, second));
+		
+		String expectedSql = "SELECT 0 AS facetIndex, value, frequency FROM (" + first.getOutputSQL().replace(":b", ":f0_b") + ") F0"
+				+ " UNION ALL SELECT 1 AS facetIndex, value, frequency FROM (" + second.getOutputSQL().replace(":b", ":f1_b") + ") F1"
+				+ " ORDER BY facetIndex, frequency DESC, value ASC";
+		assertEquals(expectedSql, shared.getOutputSQL());
+		
+		Map<String, ?> parameters = shared.getParameters();
+		assertEquals(first.getParameters().size() + second.getParameters().size(), parameters.size());
+		first.getParameters().forEach((name, value) -> assertEquals(value, parameters.get("f0_" + name)));
+		second.getParameters().forEach((name, value) -> assertEquals(value, parameters.get("f1_" + name)));
+		
+		assertEquals(FacetTransformerValueCounts.FACET_INDEX_ALIAS, shared.getSelectColumns().get(0).getName());
+		assertEquals(ColumnType.INTEGER, shared.getSelectColumns().get(0).getColumnType());
+		assertEquals(first.getSelectColumns(), shared.getSelectColumns().subList(1, 3));
+		assertEquals(first.getSingleTableId(), shared.getSingleTableId());
+		assertEquals(first.getTableHash(), shared.getTableHash());
+	}
+	
+	@Test
+	public void testGenerateSharedFacetSqlQueryWithDifferentTypes(){
+		JsonSubColumnModel subColumn = jsonColumnModel.getJsonSubColumns().get(0);
+		TranslatedQuery first = new FacetTransformerValueCounts(stringModel.getName(), null, null, false, facets, originalQuery, dependencies, selectedValuesSet).getFacetSqlQuery();
+		TranslatedQuery second = new FacetTransformerValueCounts(jsonColumnModel.getName(), subColumn.getJsonPath(), subColumn.getColumnType(), false, facets, originalQuery, dependencies, null).getFacetSqlQuery();
+		
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			FacetTransformerValueCounts.generateSharedFacetSqlQuery(List.of(first, second));
+		}).getMessage();
+		
+		assertEquals("All the value count facets must have the same type.", message);
+	}
+	
 	////////////////////////////
 	// translateToResult() tests
 	////////////////////////////
@@ -358,4 +404,51 @@ public class FacetTransformerValueCountsTest {
 
 	}
 	
+	@Test 
+	public void testTranslateToResultWithSharedQuery(){
+		TranslatedQuery query = new FacetTransformerValueCounts(stringModel.getName(), null, null, false, facets, originalQuery, dependencies, selectedValuesSet).getFacetSqlQuery();
+		TranslatedQuery sharedQuery = FacetTransformerValueCounts.generateSharedFacetSqlQuery(List.of(query, query));
+		
+		FacetTransformerValueCounts facetTransformer = new FacetTransformerValueCounts(facets.get(0), facets, sharedQuery, 1, selectedValuesSet);
+		
+		assertEquals(sharedQuery, facetTransformer.getFacetSqlQuery());
+
+		SelectColumn indexColumn = new SelectColumn().setName(FacetTransformerValueCounts.FACET_INDEX_ALIAS);
+		rowSet.setHeaders(Lists.newArrayList(indexColumn, correctSelectList.get(0), correctSelectList.get(1)));
+		rowSet.setRows(List.of(
+			new Row().setValues(Lists.newArrayList("0", notSelectedValue, "99")),
+			new Row().setValues(Lists.newArrayList("1", selectedValue, "42")),
+			new Row().setValues(Lists.newArrayList("1", null, "23"))
+		));
+		
+		FacetColumnResultValues expected = new FacetColumnResultValues()
+			.setColumnName(stringModel.getName())
+			.setFacetType(FacetType.enumeration)
+			.setFacetValues(List.of(
+				new FacetColumnResultValueCount().setCount(42L).setValue(selectedValue).setIsSelected(true),
+				new FacetColumnResultValueCount().setCount(23L).setValue(NULL_VALUE_KEYWORD).setIsSelected(false)
+			));
+		
+		// call under test
+		FacetColumnResultValues result = (FacetColumnResultValues) facetTransformer.translateToResult(rowSet);
+		
+		assertEquals(expected, result);
+	}
+	
+	@Test 
+	public void testTranslateToResultWithSharedQueryAndWrongHeaders(){
+		TranslatedQuery query = new FacetTransformerValueCounts(stringModel.getName(), null, null, false, facets, originalQuery, dependencies, selectedValuesSet).getFacetSqlQuery();
+		TranslatedQuery sharedQuery = FacetTransformerValueCounts.generateSharedFacetSqlQuery(List.of(query, query));
+		
+		FacetTransformerValueCounts facetTransformer = new FacetTransformerValueCounts(facets.get(0), facets, sharedQuery, 1, selectedValuesSet);
+
+		// The headers of a query that is not shared
+		rowSet.setHeaders(correctSelectList);
+
+		assertThrows(IllegalArgumentException.class, ()->{
+			// call under test
+			facetTransformer.translateToResult(rowSet);
+		});
+	}
+	
 }
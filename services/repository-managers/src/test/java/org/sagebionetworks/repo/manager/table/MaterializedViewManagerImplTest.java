@@ -1,14 +1,17 @@
 package org.sagebionetworks.repo.manager.table;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -20,6 +23,7 @@ import static org.mockito.Mockito.when;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -56,6 +60,7 @@ import org.sagebionetworks.table.cluster.description.TableIndexDescription;
 import org.sagebionetworks.table.cluster.description.ViewIndexDescription;
 import org.sagebionetworks.table.cluster.utils.TableModelUtils;
 import org.sagebionetworks.table.query.ParseException;
+import org.sagebionetworks.table.query.TableQueryParser;
 import org.sagebionetworks.table.query.model.QueryExpression;
 import org.sagebionetworks.util.progress.ProgressCallback;
 import org.sagebionetworks.util.progress.ProgressingCallable;
@@ -95,6 +100,12 @@ public class MaterializedViewManagerImplTest {
 	
 	@Mock
 	private NodeDAO mockNodeDAO;
+	
+	@Mock
+	private TableEntityManager mockTableEntityManager;
+	
+	@Mock
+	private QueryTranslator mockQueryTranslator;
 	@Captor
 	private ArgumentCaptor<QueryTranslator> queryCaptor;
 
@@ -1043,6 +1054,202 @@ public class MaterializedViewManagerImplTest {
 		
 	}
 	
+	@Test
+	public void testRebuildAvailableViewHoldingTemporaryExclusiveLockWithIncrementalUpdate() throws Exception {
+		doAnswer(invocation -> {
+			ProgressCallback callback = (ProgressCallback) invocation.getArguments()[0];
+			ProgressingCallable runner = (ProgressingCallable) invocation.getArguments()[2];
+			return runner.call(callback);
+		}).when(mockTableManagerSupport).tryRunWithTableNonExclusiveLock(any(), any(), any(), any(IdAndVersion.class));
+		
+		IndexDescription indexDescription = new MaterializedViewIndexDescription(idAndVersion, Collections.emptyList());
+		
+		List<ColumnModel> syn456Schema = List.of(
+			TableModelTestUtils.createColumn(333L, "c", ColumnType.INTEGER),
+			TableModelTestUtils.createColumn(444L, "d", ColumnType.STRING_LIST)
+		);
+		
+		when(mockTableManagerSupport.getIndexDescription(any())).thenReturn(indexDescription);
+		when(mockNodeDAO.getDefiningSql(any())).thenReturn(Optional.of("select * from syn123 join syn456"));
+		when(mockTableManagerSupport.getTableSchema(any())).thenReturn(syn456Schema);		
+		when(mockColumnModelManager.createColumnModel(any())).thenReturn(syn123Schema.get(0), syn123Schema.get(1), syn456Schema.get(0), syn456Schema.get(1));
+		when(mockTableManagerSupport.getTableStatusOrCreateIfNotExists(any())).thenReturn(new TableStatus().setState(TableState.AVAILABLE));
+		when(mockConnectionFactory.connectToTableIndex(any())).thenReturn(mockTableIndexManager);
+		when(mockTableIndexManager.getVersionFromIndexDependencies(any())).thenReturn(10L);
+		when(mockTableManagerSupport.isTableSearchEnabled(any())).thenReturn(false);
+		when(mockTableManagerSupport.isIndexSynchronized(any(), any(), anyLong(), anyBoolean())).thenReturn(false);
+		doReturn(true).when(managerSpy).updateViewIndexIncrementallyHoldingAllDependentReadLocks(any(), any(), any(), any(), anyBoolean());
+		
+		List<ColumnModel> viewSchema = List.of(syn123Schema.get(0), syn123Schema.get(1), syn456Schema.get(0), syn456Schema.get(1));
+
+		// call under test
+		managerSpy.rebuildAvailableViewHoldingTemporaryExclusiveLock(mockProgressCallback, expectedLockContext, idAndVersion, temporaryId);
+
+		verify(mockTableManagerSupport).isIndexSynchronized(idAndVersion, List.of("111", "222", "333", "444"), 10, false);
+		verify(managerSpy).updateViewIndexIncrementallyHoldingAllDependentReadLocks(mockTableIndexManager, indexDescription, "select * from syn123 join syn456", viewSchema, false);
+		verify(mockTableManagerSupport).updateChangedOnIfAvailable(idAndVersion);
+		verify(managerSpy, never()).createOrRebuildViewHoldingWriteLockAndAllDependentReadLocks(any(), any(), anyBoolean());
+		verify(mockTableManagerSupport, never()).tryRunWithTableExclusiveLock(any(), any(), any(IdAndVersion.class), any());
+		verify(mockTableIndexManager, never()).swapTableIndex(any(), any());
+	}
+	
+	@Test
+	public void testUpdateViewIndexIncrementallyHoldingAllDependentReadLocks() throws Exception {
+		IdAndVersion syn456 = IdAndVersion.parse("syn456");
+		IdAndVersion syn789 = IdAndVersion.parse("syn789");
+		
+		IndexDescription indexDescription = new MaterializedViewIndexDescription(idAndVersion,
+				List.of(new TableIndexDescription(syn456), new TableIndexDescription(syn789)), true);
+		
+		String definingSql = "select * from syn456 join syn789";
+		
+		when(mockTableIndexManager.getMaterializedViewSourceVersions(any())).thenReturn(Optional.of(Map.of(syn456, 2L, syn789, 5L)));
+		when(mockTableIndexManager.getCurrentVersionOfIndex(idAndVersion)).thenReturn(10L);
+		when(mockTableIndexManager.getCurrentVersionOfIndex(syn456)).thenReturn(3L);
+		when(mockTableIndexManager.getCurrentVersionOfIndex(syn789)).thenReturn(5L);
+		when(mockTableManagerSupport.isIndexSynchronized(any(), any(), anyLong(), anyBoolean())).thenReturn(true);
+		when(mockTableEntityManager.getChangedRowIds(any(), anyLong(), anyLong(), anyInt())).thenReturn(Optional.of(ImmutableSet.of(1L, 2L)));
+		doReturn(mockQueryTranslator).when(managerSpy).buildSourceRowsQuery(any(), any(), any(), any());
+		
+		// call under test
+		boolean result = managerSpy.updateViewIndexIncrementallyHoldingAllDependentReadLocks(mockTableIndexManager, indexDescription, definingSql, syn123Schema, false);
+		
+		assertTrue(result);
+		
+		verify(mockTableIndexManager).getMaterializedViewSourceVersions(indexDescription);
+		verify(mockTableManagerSupport).isIndexSynchronized(idAndVersion, List.of("111", "222"), 10L, false);
+		verify(mockTableEntityManager).getChangedRowIds("456", 2L, 3L, MaterializedViewManagerImpl.MAX_INCREMENTAL_ROW_CHANGES);
+		verifyNoMoreInteractions(mockTableEntityManager);
+		verify(managerSpy).buildSourceRowsQuery(definingSql, indexDescription, syn456, List.of(1L, 2L));
+		verify(mockTableIndexManager).updateMaterializedViewSourceRows(syn123Schema, indexDescription,
+				List.of(new MaterializedViewSourceRows(syn456, Set.of(1L, 2L), mockQueryTranslator)));
+	}
+	
+	@Test
+	public void testUpdateViewIndexIncrementallyHoldingAllDependentReadLocksWithoutTrackedRows() throws Exception {
+		IndexDescription indexDescription = new MaterializedViewIndexDescription(idAndVersion,
+				List.of(new TableIndexDescription(IdAndVersion.parse("syn456"))));
+		
+		// call under test
+		boolean result = managerSpy.updateViewIndexIncrementallyHoldingAllDependentReadLocks(mockTableIndexManager, indexDescription, "select * from syn456", syn123Schema, false);
+		
+		assertFalse(result);
+		
+		verifyZeroInteractions(mockTableIndexManager);
+		verifyZeroInteractions(mockTableManagerSupport);
+		verifyZeroInteractions(mockTableEntityManager);
+	}
+	
+	@Test
+	public void testUpdateViewIndexIncrementallyHoldingAllDependentReadLocksWithSearchEnabled() throws Exception {
+		IndexDescription indexDescription = new MaterializedViewIndexDescription(idAndVersion,
+				List.of(new TableIndexDescription(IdAndVersion.parse("syn456"))), true);
+		
+		// call under test
+		boolean result = managerSpy.updateViewIndexIncrementallyHoldingAllDependentReadLocks(mockTableIndexManager, indexDescription, "select * from syn456", syn123Schema, true);
+		
+		assertFalse(result);
+		
+		verifyZeroInteractions(mockTableIndexManager);
+		verifyZeroInteractions(mockTableManagerSupport);
+		verifyZeroInteractions(mockTableEntityManager);
+	}
+	
+	@Test
+	public void testUpdateViewIndexIncrementallyHoldingAllDependentReadLocksWithNoSourceVersions() throws Exception {
+		IndexDescription indexDescription = new MaterializedViewIndexDescription(idAndVersion,
+				List.of(new TableIndexDescription(IdAndVersion.parse("syn456"))), true);
+		
+		when(mockTableIndexManager.getMaterializedViewSourceVersions(any())).thenReturn(Optional.empty());
+		
+		// call under test
+		boolean result = managerSpy.updateViewIndexIncrementallyHoldingAllDependentReadLocks(mockTableIndexManager, indexDescription, "select * from syn456", syn123Schema, false);
+		
+		assertFalse(result);
+		
+		verify(mockTableIndexManager).getMaterializedViewSourceVersions(indexDescription);
+		verifyNoMoreInteractions(mockTableIndexManager);
+		verifyZeroInteractions(mockTableManagerSupport);
+		verifyZeroInteractions(mockTableEntityManager);
+	}
+	
+	@Test
+	public void testUpdateViewIndexIncrementallyHoldingAllDependentReadLocksWithSchemaChange() throws Exception {
+		IdAndVersion syn456 = IdAndVersion.parse("syn456");
+		
+		IndexDescription indexDescription = new MaterializedViewIndexDescription(idAndVersion, List.of(new TableIndexDescription(syn456)), true);
+		
+		when(mockTableIndexManager.getMaterializedViewSourceVersions(any())).thenReturn(Optional.of(Map.of(syn456, 2L)));
+		when(mockTableIndexManager.getCurrentVersionOfIndex(idAndVersion)).thenReturn(10L);
+		when(mockTableManagerSupport.isIndexSynchronized(any(), any(), anyLong(), anyBoolean())).thenReturn(false);
+		
+		// call under test
+		boolean result = managerSpy.updateViewIndexIncrementallyHoldingAllDependentReadLocks(mockTableIndexManager, indexDescription, "select * from syn456", syn123Schema, false);
+		
+		assertFalse(result);
+		
+		verify(mockTableManagerSupport).isIndexSynchronized(idAndVersion, List.of("111", "222"), 10L, false);
+		verify(mockTableIndexManager, never()).updateMaterializedViewSourceRows(any(), any(), any());
+		verifyZeroInteractions(mockTableEntityManager);
+	}
+	
+	@Test
+	public void testUpdateViewIndexIncrementallyHoldingAllDependentReadLocksWithTooManyChanges() throws Exception {
+		IdAndVersion syn456 = IdAndVersion.parse("syn456");
+		
+		IndexDescription indexDescription = new MaterializedViewIndexDescription(idAndVersion, List.of(new TableIndexDescription(syn456)), true);
+		
+		when(mockTableIndexManager.getMaterializedViewSourceVersions(any())).thenReturn(Optional.of(Map.of(syn456, 2L)));
+		when(mockTableIndexManager.getCurrentVersionOfIndex(idAndVersion)).thenReturn(10L);
+		when(mockTableIndexManager.getCurrentVersionOfIndex(syn456)).thenReturn(3L);
+		when(mockTableManagerSupport.isIndexSynchronized(any(), any(), anyLong(), anyBoolean())).thenReturn(true);
+		when(mockTableEntityManager.getChangedRowIds(any(), anyLong(), anyLong(), anyInt())).thenReturn(Optional.empty());
+		
+		// call under test
+		boolean result = managerSpy.updateViewIndexIncrementallyHoldingAllDependentReadLocks(mockTableIndexManager, indexDescription, "select * from syn456", syn123Schema, false);
+		
+		assertFalse(result);
+		
+		verify(mockTableEntityManager).getChangedRowIds("456", 2L, 3L, MaterializedViewManagerImpl.MAX_INCREMENTAL_ROW_CHANGES);
+		verify(mockTableIndexManager, never()).updateMaterializedViewSourceRows(any(), any(), any());
+	}
+	
+	@Test
+	public void testBuildSourceRowsQuery() throws ParseException {
+		IdAndVersion syn456 = IdAndVersion.parse("syn456");
+		IdAndVersion syn789 = IdAndVersion.parse("syn789");
+		
+		IndexDescription indexDescription = new MaterializedViewIndexDescription(idAndVersion,
+				List.of(new TableIndexDescription(syn456), new TableIndexDescription(syn789)), true);
+		
+		when(mockTableManagerSupport.getTableSchema(any())).thenReturn(syn123Schema);
+		
+		// call under test
+		QueryTranslator query = manager.buildSourceRowsQuery("select a.foo, b.bar from syn456 a join syn789 b on a.foo = b.foo where a.foo > 0",
+				indexDescription, syn789, List.of(1L, 2L));
+		
+		String expectedSql = "select a.foo, b.bar from syn456 a join syn789 b on a.foo = b.foo where (a.foo > 0) and (b.ROW_ID IN (1,2))";
+		
+		assertEquals(new TableQueryParser(expectedSql).queryExpression().toSql(), query.getInputSql());
+		assertEquals(indexDescription, query.getIndexDescription());
+	}
+	
+	@Test
+	public void testBuildSourceRowsQueryWithoutAliasOrWhere() throws ParseException {
+		IdAndVersion syn456 = IdAndVersion.parse("syn456");
+		
+		IndexDescription indexDescription = new MaterializedViewIndexDescription(idAndVersion, List.of(new TableIndexDescription(syn456)), true);
+		
+		when(mockTableManagerSupport.getTableSchema(any())).thenReturn(syn123Schema);
+		
+		// call under test
+		QueryTranslator query = manager.buildSourceRowsQuery("select foo from syn456", indexDescription, syn456, List.of(3L));
+		
+		String expectedSql = "select foo from syn456 where syn456.ROW_ID IN (3)";
+		
+		assertEquals(new TableQueryParser(expectedSql).queryExpression().toSql(), query.getInputSql());
+	}
+	
 	@Test
 	public void testRebuildAvailableViewHoldingTemporaryExclusiveLockWithNonAvailableDependent() throws Exception {
 		idAndVersion = IdAndVersion.parse("syn123");
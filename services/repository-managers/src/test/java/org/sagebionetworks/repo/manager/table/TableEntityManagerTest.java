@@ -438,6 +438,7 @@ public class TableEntityManagerTest {
 		verify(mockTruthDao).listRowSetsKeysForTableGreaterThanVersion(tableId, 0L);
 		// save the row set
 		verify(mockTruthDao).appendRowSetToTable(""+user.getId(), tableId, range.getEtag(), range.getVersionNumber(), models, sparseChangeSet.writeToDto(), transactionId, /* hasFileRefs */ true);
+		verify(mockTruthDao).addTableRowChangeFileHandleIds(tableId, range.getVersionNumber(), sparseChangeSet.getFileHandleIdsInSparseChangeSet());
 		verify(messenger, times(rowCount)).publishMessageAfterCommit(fileEventCaptor.capture());
 		List<FileEvent> fileEvents = fileEventCaptor.getAllValues();
 		assertEquals(fileEvents.size(), rowCount);
@@ -865,6 +866,7 @@ public class TableEntityManagerTest {
 		
 
 		verify(mockTruthDao).appendRowSetToTable(eq(user.getId().toString()), eq(tableId), eq(range.getEtag()), eq(range.getVersionNumber()), anyListOf(ColumnModel.class), any(SparseChangeSetDto.class), anyLong(), eq(false));
+		verify(mockTruthDao, never()).addTableRowChangeFileHandleIds(any(), anyLong(), any());
 
 		verify(mockTableManagerSupport).validateTableWriteAccess(user, idAndVersion);
 		verifyZeroInteractions(messenger);
@@ -898,6 +900,7 @@ public class TableEntityManagerTest {
 		manager.appendRows(user, tableId, replace, mockTransactionContext);
 
 		verify(mockTruthDao).appendRowSetToTable(eq(user.getId().toString()), eq(tableId), eq(range.getEtag()), eq(range.getVersionNumber()), anyListOf(ColumnModel.class), any(SparseChangeSetDto.class), anyLong(), eq(true));
+		verify(mockTruthDao).addTableRowChangeFileHandleIds(tableId, range.getVersionNumber(), Collections.singleton(3333L));
 		verify(mockFileDao).getFileHandleIdsCreatedByUser(anyLong(), any(List.class));
 		verify(mockTableManagerSupport).validateTableWriteAccess(user, idAndVersion);
 	}
@@ -1833,6 +1836,53 @@ public class TableEntityManagerTest {
 		return results;
 	}
 	
+	@Test
+	public void testGetChangedRowIds() throws IOException {
+		TableRowChange changeOne = new TableRowChange().setTableId(tableId).setRowVersion(4L).setChangeType(TableChangeType.ROW);
+		TableRowChange changeTwo = new TableRowChange().setTableId(tableId).setRowVersion(5L).setChangeType(TableChangeType.ROW);
+		TableRowChange changeThree = new TableRowChange().setTableId(tableId).setRowVersion(6L).setChangeType(TableChangeType.ROW);
+		
+		when(mockTruthDao.getLastTableRowChange(any(), any())).thenReturn(new TableRowChange().setRowVersion(2L));
+		when(mockTruthDao.listRowSetsKeysForTableGreaterThanVersion(any(), anyLong())).thenReturn(List.of(changeOne, changeTwo, changeThree));
+		when(mockTruthDao.getRowSet(changeOne)).thenReturn(new SparseChangeSetDto().setRows(List.of(new SparseRowDto().setRowId(1L), new SparseRowDto().setRowId(2L))));
+		when(mockTruthDao.getRowSet(changeTwo)).thenReturn(new SparseChangeSetDto().setRows(List.of(new SparseRowDto().setRowId(2L), new SparseRowDto().setRowId(3L))));
+		
+		// call under test
+		Optional<Set<Long>> result = manager.getChangedRowIds(tableId, 3L, 5L, 10);
+		
+		assertEquals(Optional.of(Set.of(1L, 2L, 3L)), result);
+		
+		verify(mockTruthDao).getLastTableRowChange(tableId, TableChangeType.COLUMN);
+		verify(mockTruthDao).listRowSetsKeysForTableGreaterThanVersion(tableId, 3L);
+		// The third change is after the upper bound
+		verify(mockTruthDao, never()).getRowSet(changeThree);
+	}
+	
+	@Test
+	public void testGetChangedRowIdsWithSchemaChange() throws IOException {
+		when(mockTruthDao.getLastTableRowChange(any(), any())).thenReturn(new TableRowChange().setRowVersion(4L));
+		
+		// call under test
+		Optional<Set<Long>> result = manager.getChangedRowIds(tableId, 3L, 5L, 10);
+		
+		assertEquals(Optional.empty(), result);
+		
+		verify(mockTruthDao, never()).listRowSetsKeysForTableGreaterThanVersion(any(), anyLong());
+	}
+	
+	@Test
+	public void testGetChangedRowIdsWithTooManyRows() throws IOException {
+		TableRowChange changeOne = new TableRowChange().setTableId(tableId).setRowVersion(4L).setChangeType(TableChangeType.ROW);
+		
+		when(mockTruthDao.listRowSetsKeysForTableGreaterThanVersion(any(), anyLong())).thenReturn(List.of(changeOne));
+		when(mockTruthDao.getRowSet(changeOne)).thenReturn(new SparseChangeSetDto().setRows(List.of(new SparseRowDto().setRowId(1L), new SparseRowDto().setRowId(2L))));
+		
+		// call under test
+		Optional<Set<Long>> result = manager.getChangedRowIds(tableId, 3L, 5L, 1);
+		
+		assertEquals(Optional.empty(), result);
+	}
+	
 	@Test
 	public void testGetTableChangePage() throws IOException {
 		long limit = 3L;
@@ -2168,58 +2218,62 @@ public class TableEntityManagerTest {
 	}
 	
 	@Test
-	public void testNewTableRowChangeWithFileRefsIterator() {
+	public void testNewTableRowChangeWithUnindexedFileRefsIterator() {
 		org.sagebionetworks.repo.model.IdRange idRange = new org.sagebionetworks.repo.model.IdRange(0, 10);
 		
 		List<TableRowChange> page = createChange(tableId, 10);
 		
-		when(mockTruthDao.getTableRowChangeWithFileRefsPage(any(), anyLong(), anyLong())).thenReturn(page, Collections.emptyList());
+		when(mockTruthDao.getTableRowChangeWithUnindexedFileRefsPage(any(), anyLong(), anyLong())).thenReturn(page, Collections.emptyList());
 		
 		// Call under test
-		List<TableRowChange> result = IteratorUtils.toList(manager.newTableRowChangeWithFileRefsIterator(idRange));
+		List<TableRowChange> result = IteratorUtils.toList(manager.newTableRowChangeWithUnindexedFileRefsIterator(idRange));
 		
 		assertEquals(page, result);
 		
-		verify(mockTruthDao).getTableRowChangeWithFileRefsPage(idRange, 1000, 0);		
+		verify(mockTruthDao).getTableRowChangeWithUnindexedFileRefsPage(idRange, -1, 1000);
 	}
 	
 	@Test
-	public void testNewTableRowChangeWithFileRefsIteratorWithMultiplePages() {
+	public void testNewTableRowChangeWithUnindexedFileRefsIteratorWithMultiplePages() {
 		org.sagebionetworks.repo.model.IdRange idRange = new org.sagebionetworks.repo.model.IdRange(0, 10);
 		
 		List<TableRowChange> page = createChange(tableId, 1000);
+		List<TableRowChange> secondPage = createChange(tableId, 1000);
+		
+		secondPage.forEach(change -> change.setId(change.getId() + 1000));
 		
-		when(mockTruthDao.getTableRowChangeWithFileRefsPage(any(), anyLong(), anyLong())).thenReturn(page, page, Collections.emptyList());
+		when(mockTruthDao.getTableRowChangeWithUnindexedFileRefsPage(any(), anyLong(), anyLong())).thenReturn(page, secondPage, Collections.emptyList());
 		
 		// Call under test
-		List<TableRowChange> result = IteratorUtils.toList(manager.newTableRowChangeWithFileRefsIterator(idRange));
+		List<TableRowChange> result = IteratorUtils.toList(manager.newTableRowChangeWithUnindexedFileRefsIterator(idRange));
 		
-		assertEquals(ListUtils.union(page, page), result);
+		assertEquals(ListUtils.union(page, secondPage), result);
 		
-		verify(mockTruthDao).getTableRowChangeWithFileRefsPage(idRange, 1000, 0);
-		verify(mockTruthDao).getTableRowChangeWithFileRefsPage(idRange, 1000, 1000);
-		verify(mockTruthDao).getTableRowChangeWithFileRefsPage(idRange, 1000, 2000);
+		// Each page starts after the last change of the previous page
+		verify(mockTruthDao).getTableRowChangeWithUnindexedFileRefsPage(idRange, -1, 1000);
+		verify(mockTruthDao).getTableRowChangeWithUnindexedFileRefsPage(idRange, 999, 1000);
+		verify(mockTruthDao).getTableRowChangeWithUnindexedFileRefsPage(idRange, 1999, 1000);
 	}
 	
 	@Test
-	public void testNewTableRowChangeWithFileRefsIteratorWithNoIdRange() {
+	public void testNewTableRowChangeWithUnindexedFileRefsIteratorWithNoIdRange() {
 		org.sagebionetworks.repo.model.IdRange idRange = null;
 
 		String message = assertThrows(IllegalArgumentException.class, () -> {			
 			// Call under test
-			manager.newTableRowChangeWithFileRefsIterator(idRange);
+			manager.newTableRowChangeWithUnindexedFileRefsIterator(idRange);
 		}).getMessage();
 		
 		assertEquals("The idRange is required.", message);
 	}
 	
 	@Test
-	public void testNewTableRowChangeWithFileRefsIteratorWithNoInvalidIdRange() {
+	public void testNewTableRowChangeWithUnindexedFileRefsIteratorWithNoInvalidIdRange() {
 		org.sagebionetworks.repo.model.IdRange idRange = new org.sagebionetworks.repo.model.IdRange(10, 0);
 
 		String message = assertThrows(IllegalArgumentException.class, () -> {			
 			// Call under test
-			manager.newTableRowChangeWithFileRefsIterator(idRange);
+			manager.newTableRowChangeWithUnindexedFileRefsIterator(idRange);
 		}).getMessage();
 		
 		assertEquals("Invalid idRange, the minId must be lesser or equal than the maxId", message);
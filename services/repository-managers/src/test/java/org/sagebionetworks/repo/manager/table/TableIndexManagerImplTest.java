@@ -31,6 +31,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -2773,10 +2774,31 @@ public class TableIndexManagerImplTest {
 		TableIndexDescription source = new TableIndexDescription(IdAndVersion.parse("123"));
 		TableIndexDescription target = new TableIndexDescription(IdAndVersion.parse("456"));
 		
+		when(mockIndexDao.getMaterializedViewSourceVersions(any(), any())).thenReturn(Collections.emptyMap());
+		
+		// Call under test
+		manager.swapTableIndex(source, target);
+		
+		verify(mockIndexDao).swapTableIndex(source.getIdAndVersion(), target.getIdAndVersion());
+	}
+	
+	@Test
+	public void testSwapTableIndexWithMaterializedViewSourceVersions() {
+		IdAndVersion sourceTableId = IdAndVersion.parse("789");
+		List<IndexDescription> dependencies = List.of(new TableIndexDescription(sourceTableId));
+		MaterializedViewIndexDescription source = new MaterializedViewIndexDescription(IdAndVersion.parse("-123"), dependencies, true);
+		MaterializedViewIndexDescription target = new MaterializedViewIndexDescription(IdAndVersion.parse("123"), dependencies, true);
+		
+		when(mockIndexDao.getMaterializedViewSourceVersions(any(), any())).thenReturn(Map.of(sourceTableId, 5L));
+		
 		// Call under test
 		manager.swapTableIndex(source, target);
 		
 		verify(mockIndexDao).swapTableIndex(source.getIdAndVersion(), target.getIdAndVersion());
+		verify(mockIndexDao).getMaterializedViewSourceVersions(source.getIdAndVersion(), List.of(sourceTableId));
+		// The versions move with the content of the index
+		verify(mockIndexDao).setMaterializedViewSourceVersions(target.getIdAndVersion(), Map.of(sourceTableId, 5L));
+		verify(mockIndexDao).setMaterializedViewSourceVersions(source.getIdAndVersion(), Collections.emptyMap());
 	}
 	
 	@Test
@@ -2910,6 +2932,169 @@ public class TableIndexManagerImplTest {
 		verify(mockIndexDao).update("INSERT INTO T123 (_C99_,_C101_,ROW_BENEFACTOR_T789) SELECT _A0._C99_, _A1._C101_, IFNULL(_A1.ROW_BENEFACTOR,-1) FROM T456 _A0 JOIN T789 _A1", Collections.emptyMap());
 		verify(mockIndexDao).getMaxCurrentCompleteVersionForTable(idOne);
 		verify(mockIndexDao).getMaxCurrentCompleteVersionForTable(idTwo);
+		// The index does not track the rows of its sources
+		verify(mockIndexDao).setMaterializedViewSourceVersions(tableId, Collections.emptyMap());
+	}
+	
+	@Test
+	public void testPopulateMaterializedViewFromDefiningSqlWithTrackSourceRows() {
+		IdAndVersion idOne = IdAndVersion.newBuilder().setId(456L).build();
+		IdAndVersion idTwo = IdAndVersion.newBuilder().setId(789L).build();
+		long maxCurrentCompleteVersionOne = 10L;
+		long maxCurrentCompleteVersionTwo = 12L;
+
+		setupExecuteInWriteTransaction();
+		
+		IndexDescription index = new MaterializedViewIndexDescription(tableId, List.of(
+			new TableIndexDescription(idOne),
+			new TableIndexDescription(idTwo)
+		), true);
+		
+		when(mockManagerSupport.getTableSchema(any())).thenReturn(
+			List.of(TableModelTestUtils.createColumn(99L, "aString", ColumnType.STRING)), // 456 schema
+			List.of(TableModelTestUtils.createColumn(101L, "anInteger", ColumnType.INTEGER)) // 789 schema
+		);
+		
+		// Mat view schema
+		schema = List.of(
+			TableModelTestUtils.createColumn(99L, "aString", ColumnType.STRING), 
+			TableModelTestUtils.createColumn(101L, "anInteger", ColumnType.INTEGER)
+		);
+		
+		when(mockIndexDao.getMaxCurrentCompleteVersionForTable(any())).thenReturn(maxCurrentCompleteVersionOne, maxCurrentCompleteVersionTwo);
+		
+		QueryTranslator defininqSql = QueryTranslator.builder()
+				.sql("SELECT * from syn456 join syn789")
+				.schemaProvider(mockManagerSupport)
+				.sqlContext(SqlContext.build)
+				.indexDescription(index)
+			.build();
+
+		long expected = idOne.getId() + idTwo.getId() + maxCurrentCompleteVersionOne + maxCurrentCompleteVersionTwo;
+		
+		// Call under test
+		long result =  manager.populateMaterializedViewFromDefiningSql(schema, defininqSql);
+		
+		assertEquals(expected, result);
+
+		verify(mockIndexDao).update("INSERT INTO T123 (_C99_,_C101_,ROW_ID_T456,ROW_ID_T789) SELECT _A0._C99_, _A1._C101_, _A0.ROW_ID, _A1.ROW_ID FROM T456 _A0 JOIN T789 _A1", Collections.emptyMap());
+		verify(mockIndexDao).setMaterializedViewSourceVersions(tableId, Map.of(idOne, maxCurrentCompleteVersionOne, idTwo, maxCurrentCompleteVersionTwo));
+	}
+	
+	@Test
+	public void testGetMaterializedViewSourceVersions() {
+		IdAndVersion idOne = IdAndVersion.parse("456");
+		IdAndVersion idTwo = IdAndVersion.parse("789");
+		IndexDescription index = new MaterializedViewIndexDescription(tableId, List.of(new TableIndexDescription(idOne), new TableIndexDescription(idTwo)), true);
+		
+		when(mockIndexDao.getMaterializedViewSourceVersions(any(), any())).thenReturn(Map.of(idOne, 10L, idTwo, 12L));
+		when(mockIndexDao.getMaxCurrentCompleteVersionForTable(any())).thenReturn(456L + 789L + 10L + 12L);
+		
+		// Call under test
+		Optional<Map<IdAndVersion, Long>> result = manager.getMaterializedViewSourceVersions(index);
+		
+		assertEquals(Optional.of(Map.of(idOne, 10L, idTwo, 12L)), result);
+		
+		verify(mockIndexDao).getMaterializedViewSourceVersions(tableId, List.of(idOne, idTwo));
+		verify(mockIndexDao).getMaxCurrentCompleteVersionForTable(tableId);
+	}
+	
+	@Test
+	public void testGetMaterializedViewSourceVersionsWithVersionMismatch() {
+		IdAndVersion idOne = IdAndVersion.parse("456");
+		IdAndVersion idTwo = IdAndVersion.parse("789");
+		IndexDescription index = new MaterializedViewIndexDescription(tableId, List.of(new TableIndexDescription(idOne), new TableIndexDescription(idTwo)), true);
+		
+		when(mockIndexDao.getMaterializedViewSourceVersions(any(), any())).thenReturn(Map.of(idOne, 10L, idTwo, 12L));
+		// The index was rebuilt without recording the versions
+		when(mockIndexDao.getMaxCurrentCompleteVersionForTable(any())).thenReturn(456L + 789L + 11L + 12L);
+		
+		// Call under test
+		Optional<Map<IdAndVersion, Long>> result = manager.getMaterializedViewSourceVersions(index);
+		
+		assertEquals(Optional.empty(), result);
+	}
+	
+	@Test
+	public void testGetMaterializedViewSourceVersionsWithMissingSource() {
+		IdAndVersion idOne = IdAndVersion.parse("456");
+		IdAndVersion idTwo = IdAndVersion.parse("789");
+		IndexDescription index = new MaterializedViewIndexDescription(tableId, List.of(new TableIndexDescription(idOne), new TableIndexDescription(idTwo)), true);
+		
+		when(mockIndexDao.getMaterializedViewSourceVersions(any(), any())).thenReturn(Map.of(idOne, 10L));
+		
+		// Call under test
+		Optional<Map<IdAndVersion, Long>> result = manager.getMaterializedViewSourceVersions(index);
+		
+		assertEquals(Optional.empty(), result);
+		
+		verify(mockIndexDao, never()).getMaxCurrentCompleteVersionForTable(any());
+	}
+	
+	@Test
+	public void testGetMaterializedViewSourceVersionsWithoutTrackSourceRows() {
+		IndexDescription index = new MaterializedViewIndexDescription(tableId, List.of(new TableIndexDescription(IdAndVersion.parse("456"))));
+		
+		// Call under test
+		Optional<Map<IdAndVersion, Long>> result = manager.getMaterializedViewSourceVersions(index);
+		
+		assertEquals(Optional.empty(), result);
+		
+		verifyZeroInteractions(mockIndexDao);
+	}
+	
+	@Test
+	public void testUpdateMaterializedViewSourceRows() {
+		IdAndVersion idOne = IdAndVersion.parse("456");
+		IdAndVersion idTwo = IdAndVersion.parse("789");
+		IndexDescription index = new MaterializedViewIndexDescription(tableId, List.of(new TableIndexDescription(idOne), new TableIndexDescription(idTwo)), true);
+		
+		setupExecuteInWriteTransaction();
+		
+		schema = List.of(TableModelTestUtils.createColumn(99L, "aString", ColumnType.STRING));
+		
+		QueryTranslator rowsQueryOne = Mockito.mock(QueryTranslator.class);
+		QueryTranslator rowsQueryTwo = Mockito.mock(QueryTranslator.class);
+		
+		when(rowsQueryOne.getOutputSQL()).thenReturn("SELECT ONE");
+		when(rowsQueryOne.getParameters()).thenReturn(Map.of("b0", 1L));
+		when(rowsQueryTwo.getOutputSQL()).thenReturn("SELECT TWO");
+		when(rowsQueryTwo.getParameters()).thenReturn(Map.of("b0", 3L));
+		
+		when(mockIndexDao.getMaxCurrentCompleteVersionForTable(any())).thenReturn(11L, 13L);
+		
+		List<MaterializedViewSourceRows> changes = List.of(
+			new MaterializedViewSourceRows(idOne, Set.of(1L, 2L), rowsQueryOne),
+			new MaterializedViewSourceRows(idTwo, Set.of(3L), rowsQueryTwo)
+		);
+		
+		long expectedVersion = 456L + 789L + 11L + 13L;
+		
+		// Call under test
+		long result = manager.updateMaterializedViewSourceRows(schema, index, changes);
+		
+		assertEquals(expectedVersion, result);
+		
+		verify(mockIndexDao).update("DELETE FROM T123 WHERE ROW_ID_T456 IN (:sourceRowIds)", Map.of("sourceRowIds", Set.of(1L, 2L)));
+		verify(mockIndexDao).update("INSERT INTO T123 (_C99_,ROW_ID_T456,ROW_ID_T789) SELECT ONE", Map.of("b0", 1L));
+		verify(mockIndexDao).update("DELETE FROM T123 WHERE ROW_ID_T789 IN (:sourceRowIds)", Map.of("sourceRowIds", Set.of(3L)));
+		verify(mockIndexDao).update("INSERT INTO T123 (_C99_,ROW_ID_T456,ROW_ID_T789) SELECT TWO", Map.of("b0", 3L));
+		verify(mockIndexDao).setMaterializedViewSourceVersions(tableId, Map.of(idOne, 11L, idTwo, 13L));
+		verify(mockIndexDao).setMaxCurrentCompleteVersionForTable(tableId, expectedVersion);
+	}
+	
+	@Test
+	public void testUpdateMaterializedViewSourceRowsWithoutTrackSourceRows() {
+		IndexDescription index = new MaterializedViewIndexDescription(tableId, List.of(new TableIndexDescription(IdAndVersion.parse("456"))));
+		
+		String message = assertThrows(IllegalArgumentException.class, () -> {			
+			// Call under test
+			manager.updateMaterializedViewSourceRows(schema, index, Collections.emptyList());
+		}).getMessage();
+		
+		assertEquals("The source row id columns of the index is required and must not be empty.", message);
+		
+		verifyZeroInteractions(mockIndexDao);
 	}
 	
 	@Test
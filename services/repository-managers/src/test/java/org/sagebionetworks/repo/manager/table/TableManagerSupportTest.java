@@ -1119,6 +1119,45 @@ public class TableManagerSupportTest {
 		verify(managerSpy).getLastTableChangeNumber(tableId);
 	}
 	
+	@Test
+	public void testGetIndexDescriptionWithMaterializedViewOfTables() {
+		IdAndVersion tableOneId = IdAndVersion.parse("syn111");
+		IdAndVersion tableTwoId = IdAndVersion.parse("syn222");
+		
+		when(mockNodeDao.getNodeTypeById(any())).thenReturn(EntityType.materializedview, EntityType.table, EntityType.table);
+
+		String definingSql = "select * from syn111 a JOIN syn222 b ON (a.id = b.id)";
+		when(mockNodeDao.getDefiningSql(any())).thenReturn(Optional.of(definingSql));
+		doReturn(Optional.of(11L)).when(managerSpy).getLastTableChangeNumber(any());
+		
+		// call under test
+		IndexDescription result = managerSpy.getIndexDescription(idAndVersion);
+		
+		// The view can be maintained incrementally
+		IndexDescription expected = new MaterializedViewIndexDescription(idAndVersion,
+				Arrays.asList(new TableIndexDescription(tableOneId, 11L), new TableIndexDescription(tableTwoId, 11L)), true);
+		assertEquals(expected, result);
+	}
+	
+	@Test
+	public void testGetIndexDescriptionWithMaterializedViewOfTablesAndUnsupportedQuery() {
+		IdAndVersion tableOneId = IdAndVersion.parse("syn111");
+		IdAndVersion tableTwoId = IdAndVersion.parse("syn222");
+		
+		when(mockNodeDao.getNodeTypeById(any())).thenReturn(EntityType.materializedview, EntityType.table, EntityType.table);
+
+		String definingSql = "select * from syn111 a LEFT JOIN syn222 b ON (a.id = b.id)";
+		when(mockNodeDao.getDefiningSql(any())).thenReturn(Optional.of(definingSql));
+		doReturn(Optional.of(11L)).when(managerSpy).getLastTableChangeNumber(any());
+		
+		// call under test
+		IndexDescription result = managerSpy.getIndexDescription(idAndVersion);
+		
+		IndexDescription expected = new MaterializedViewIndexDescription(idAndVersion,
+				Arrays.asList(new TableIndexDescription(tableOneId, 11L), new TableIndexDescription(tableTwoId, 11L)));
+		assertEquals(expected, result);
+	}
+	
 	@Test
 	public void testGetIndexDescriptionWithVirtualTable() {
 		IdAndVersion virtualTableId = IdAndVersion.parse("syn111");
@@ -10,8 +10,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
-import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -37,9 +37,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -265,6 +264,8 @@ public class TableQueryManagerImplTest {
 				.setUserId(user.getId())
 				.setMaxRowsPerCall(100L)
 				.setMaxBytesPerPage(100_000_000L);
+		
+		setupThreadPool();
 	}
 
 	void setupQueryCallback() {
@@ -776,6 +777,30 @@ public class TableQueryManagerImplTest {
 		assertEquals(count, results.getQueryCount());
 		assertNotNull(results.getQueryResult());
 		assertNotNull(results.getQueryResult().getQueryResults());
+		// The count runs on the thread pool while the main query runs on the calling thread
+		verify(mockThreadPool).submit(any(Runnable.class));
+	}
+	
+	@Test
+	public void testExecuteQueryQueryAndCountWithCountFailure() throws Exception {
+		when(mockTableConnectionFactory.getConnection(idAndVersion)).thenReturn(mockTableIndexDAO);
+		when(mockSchemaProvider.getTableSchema(any())).thenReturn(models);
+		when(mockQueryExecutor.executeQuery(any(), any())).thenReturn(rowSet);	
+		when(mockSchemaProvider.getColumnModel(any())).thenReturn(models.get(0));
+		
+		IllegalArgumentException ex = new IllegalArgumentException("Failed");
+		
+		when(mockQueryCacheManager.getQueryResults(any(), any())).thenThrow(ex);
+		
+		queryOptions = new QueryOptions().withRunCount(true).withRunQuery(true);
+		QueryTranslations query = new QueryTranslations(queriesBuilder.setStartingSql("select * from " + tableId).build(), queryOptions);
+		
+		IllegalArgumentException result = assertThrows(IllegalArgumentException.class, () -> {			
+			// call under test
+			manager.executeQuery(user,query, queryOptions, mockQueryExecutor);
+		});
+		
+		assertEquals(ex, result);
 	}
 	
 	@Test
@@ -884,8 +909,6 @@ public class TableQueryManagerImplTest {
 		
 		assertEquals(1, facetRequestList.size());
 		
-		setupThreadPool();
-		
 		// call under test
 		QueryResultBundle results = manager.executeQuery(user,query, queryOptions, mockQueryExecutor);
 		assertNotNull(results);
@@ -900,7 +923,7 @@ public class TableQueryManagerImplTest {
 		FacetColumnResult facetResultColumn = results.getFacets().get(1);
 		assertEquals(expectedRangeResult, facetResultColumn);
 		
-		verify(mockThreadPool, times(3)).submit(any(Callable.class));
+		verify(mockThreadPool, times(3)).submit(any(Runnable.class));
 		verify(mockQueryCacheManager, times(3)).getQueryResults(any(), any());
 	}
 	
@@ -1252,8 +1275,6 @@ public class TableQueryManagerImplTest {
 		
 		queryBundle.setPartMask(BUNDLE_MASK_QUERY_FACETS);
 		
-		setupThreadPool();
-		
 		// call under test
 		QueryResultBundle bundle = manager.queryBundle(mockProgressCallbackVoid, user, queryBundle);
 		
@@ -1266,7 +1287,7 @@ public class TableQueryManagerImplTest {
 		//we don't care about the first facet result because it has no useful data and only exists to make sure for loops work
 		assertEquals(expectedRangeResult, bundle.getFacets().get(1));
 		
-		verify(mockThreadPool, times(3)).submit(any(Callable.class));
+		verify(mockThreadPool, times(3)).submit(any(Runnable.class));
 		verify(mockQueryCacheManager, times(3)).getQueryResults(any(), any());
 	}
 	
@@ -2452,12 +2473,12 @@ public class TableQueryManagerImplTest {
 	}	
 	
 	void setupThreadPool() {
-		doAnswer((invocation) -> {
-			Callable<FacetColumnResult> callable = invocation.getArgument(0);
-			Future<FacetColumnResult> future = Mockito.mock(Future.class);
-			doReturn(callable.call()).when(future).get();
-			return future;
-		}).when(mockThreadPool).submit(any(Callable.class));
+		// Runs the submitted query parts on the calling thread
+		lenient().doAnswer((invocation) -> {
+			Runnable runnable = invocation.getArgument(0);
+			runnable.run();
+			return CompletableFuture.completedFuture(null);
+		}).when(mockThreadPool).submit(any(Runnable.class));
 	}
 	
 	@Test
@@ -2475,8 +2496,6 @@ public class TableQueryManagerImplTest {
 		FacetColumnResultValues result1 = new FacetColumnResultValues();
 		FacetColumnResultRange result2 = new FacetColumnResultRange();
 		
-		setupThreadPool();
-		
 		when(mockTransformer1.getFacetSqlQuery()).thenReturn(mockSql1);
 		when(mockTransformer2.getFacetSqlQuery()).thenReturn(mockSql2);
 		when(mockQueryCacheManager.getQueryResults(mockTableIndexDAO, CachedQueryRequest.clone(mockSql1)
@@ -2502,7 +2521,7 @@ public class TableQueryManagerImplTest {
 		verify(mockTransformer1).translateToResult(rs1);
 		verify(mockTransformer2).translateToResult(rs2);
 		
-		verify(mockThreadPool, times(2)).submit(any(Callable.class));
+		verify(mockThreadPool, times(2)).submit(any(Runnable.class));
 		
 		
 		assertEquals(2, results.size());
@@ -2513,6 +2532,40 @@ public class TableQueryManagerImplTest {
 
 	}
 	
+	@Test
+	public void testRunFacetQueriesWithSharedQuery(){
+		//setup
+		FacetQueries mockFacetModel = Mockito.mock(FacetQueries.class);
+		FacetTransformer mockTransformer1 = Mockito.mock(FacetTransformerRange.class);
+		FacetTransformer mockTransformer2 = Mockito.mock(FacetTransformerRange.class);
+		QueryTranslator mockSql = Mockito.mock(QueryTranslator.class);
+		when(mockSql.getSingleTableId()).thenReturn("syn1");
+		RowSet rs = new RowSet();
+		FacetColumnResultRange result1 = new FacetColumnResultRange();
+		FacetColumnResultRange result2 = new FacetColumnResultRange();
+		
+		// Both transformers are computed by the same query
+		when(mockTransformer1.getFacetSqlQuery()).thenReturn(mockSql);
+		when(mockTransformer2.getFacetSqlQuery()).thenReturn(mockSql);
+		when(mockQueryCacheManager.getQueryResults(mockTableIndexDAO, CachedQueryRequest.clone(mockSql)
+				.setExpiresInSec(TableQueryManagerImpl.CACHED_QUERY_EXPIRES_IN_SEC))).thenReturn(rs);
+		when(mockTransformer1.translateToResult(rs)).thenReturn(result1);
+		when(mockTransformer2.translateToResult(rs)).thenReturn(result2);
+		when(mockFacetModel.getFacetInformationQueries()).thenReturn(Arrays.asList(mockTransformer1, mockTransformer2));
+		
+		//call method
+		List<FacetColumnResult> results = manager.runFacetQueries(mockFacetModel, mockTableIndexDAO);
+		
+		// The shared query is only run once
+		verify(mockQueryCacheManager).getQueryResults(mockTableIndexDAO,  CachedQueryRequest.clone(mockSql)
+				.setExpiresInSec(TableQueryManagerImpl.CACHED_QUERY_EXPIRES_IN_SEC));
+		verify(mockThreadPool).submit(any(Runnable.class));
+		verify(mockTransformer1).translateToResult(rs);
+		verify(mockTransformer2).translateToResult(rs);
+		
+		assertEquals(List.of(result1, result2), results);
+	}
+	
 	@Test
 	public void testRunSumFileSize() throws Exception {
 		List<IdAndVersion> idAndVersionList = Arrays.asList(
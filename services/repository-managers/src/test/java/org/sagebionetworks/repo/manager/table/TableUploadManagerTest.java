@@ -20,10 +20,14 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.invocation.InvocationOnMock;
@@ -33,6 +37,7 @@ import org.sagebionetworks.aws.SynapseS3Client;
 import org.sagebionetworks.repo.manager.file.FileHandleManager;
 import org.sagebionetworks.repo.model.DatastoreException;
 import org.sagebionetworks.repo.model.UserInfo;
+import org.sagebionetworks.repo.model.dbo.dao.table.ParallelCSVToRowIterator;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableModelTestUtils;
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
 import org.sagebionetworks.repo.model.file.FileConstants;
@@ -73,6 +78,8 @@ public class TableUploadManagerTest {
 	FileProvider mockFileProvider;
 	@Mock
 	File mockFile;
+	@Mock
+	ExecutorService mockThreadPool;
 	
 	@InjectMocks
 	TableUploadManagerImpl manager;
@@ -122,6 +129,11 @@ public class TableUploadManagerTest {
 		when(mockFileHandleManger.getRawFileHandle(user, uploadRequest.getUploadFileHandleId())).thenReturn(fileHandle);
 		when(mockS3Client.getObjectMetadata(fileHandle.getBucketName(), fileHandle.getKey())).thenReturn(fileMetadata);
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(tableSchema);
+		// Parse the chunks of the CSV synchronously
+		doAnswer(invocation -> {
+			Callable<?> callable = invocation.getArgument(0);
+			return CompletableFuture.completedFuture(callable.call());
+		}).when(mockThreadPool).submit(any(Callable.class));
 		rowsRead = new LinkedList<SparseRowDto>();
 		doAnswer(new Answer<TableUpdateResponse>(){
 			@Override
@@ -153,6 +165,18 @@ public class TableUploadManagerTest {
 		verify(mockFile).delete();
 	}
 	
+	@Test
+	public void testValuesValidatedForProcessor() throws IOException{
+		when(rowProcessor.isValidateValues()).thenReturn(true);
+		// call under test;
+		manager.uploadCSV(mockProgressCallback, user, uploadRequest, rowProcessor);
+		ArgumentCaptor<Iterator> iteratorCaptor = ArgumentCaptor.forClass(Iterator.class);
+		verify(rowProcessor).processRows(eq(user), eq(uploadRequest.getTableId()), eq(tableSchema), iteratorCaptor.capture(), eq(uploadRequest.getUpdateEtag()), eq(mockProgressCallback));
+		// The rows are validated while the CSV is parsed
+		assertTrue(((ParallelCSVToRowIterator) iteratorCaptor.getValue()).isValidateValues());
+		assertEquals(2, rowsRead.size());
+	}
+	
 	@Test
 	public void testFileOverSizeLimit() {
 		// file over size
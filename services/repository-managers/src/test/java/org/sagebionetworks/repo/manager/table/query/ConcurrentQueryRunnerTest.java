@@ -0,0 +1,188 @@
+package org.sagebionetworks.repo.manager.table.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentQueryRunnerTest {
+
+	private ExecutorService threadPool;
+
+	@BeforeEach
+	public void before() {
+		threadPool = Executors.newFixedThreadPool(8);
+	}
+
+	@AfterEach
+	public void after() {
+		threadPool.shutdownNow();
+	}
+
+	@Test
+	public void testSubmitAndGet() {
+		try (ConcurrentQueryRunner runner = new ConcurrentQueryRunner(threadPool, 2)) {
+			List<Future<Integer>> futures = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				int value = i;
+				// call under test
+				futures.add(runner.submit("part_" + i, () -> value));
+			}
+			for (int i = 0; i < 10; i++) {
+				assertEquals(i, runner.get(futures.get(i)));
+			}
+			assertEquals(10, runner.getTimings().size());
+		}
+	}
+
+	@Test
+	public void testSubmitWithMaxConcurrency() {
+		int maxConcurrency = 3;
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+
+		try (ConcurrentQueryRunner runner = new ConcurrentQueryRunner(threadPool, maxConcurrency)) {
+			List<Future<Boolean>> futures = new ArrayList<>();
+			for (int i = 0; i < 20; i++) {
+				// call under test
+				futures.add(runner.submit("part_" + i, () -> {
+					maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+					Thread.sleep(5);
+					running.decrementAndGet();
+					return true;
+				}));
+			}
+			futures.forEach(runner::get);
+		}
+
+		assertTrue(maxRunning.get() <= maxConcurrency, "Max running: " + maxRunning.get());
+	}
+
+	@Test
+	public void testGetWithRuntimeException() {
+		IllegalArgumentException ex = new IllegalArgumentException("Bad query");
+
+		try (ConcurrentQueryRunner runner = new ConcurrentQueryRunner(threadPool, 2)) {
+			Future<Long> future = runner.submit("count", () -> {
+				throw ex;
+			});
+
+			IllegalArgumentException result = assertThrows(IllegalArgumentException.class, () -> {
+				// call under test
+				runner.get(future);
+			});
+
+			assertSame(ex, result);
+		}
+	}
+
+	@Test
+	public void testGetWithCheckedException() {
+		IOException ex = new IOException("Failed");
+
+		try (ConcurrentQueryRunner runner = new ConcurrentQueryRunner(threadPool, 2)) {
+			Future<Long> future = runner.submit("count", () -> {
+				throw ex;
+			});
+
+			IllegalStateException result = assertThrows(IllegalStateException.class, () -> {
+				// call under test
+				runner.get(future);
+			});
+
+			assertSame(ex, result.getCause());
+		}
+	}
+
+	@Test
+	public void testGetCancelsOtherPartsOnFailure() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+
+		try (ConcurrentQueryRunner runner = new ConcurrentQueryRunner(threadPool, 2)) {
+			Future<Long> slow = runner.submit("slow", () -> {
+				started.countDown();
+				try {
+					Thread.sleep(60_000);
+				} catch (InterruptedException e) {
+					interrupted.countDown();
+				}
+				return 1L;
+			});
+
+			started.await();
+
+			Future<Long> failing = runner.submit("failing", () -> {
+				throw new IllegalArgumentException("Bad query");
+			});
+
+			assertThrows(IllegalArgumentException.class, () -> {
+				// call under test
+				runner.get(failing);
+			});
+
+			assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+			assertThrows(CancellationException.class, () -> {
+				runner.get(slow);
+			});
+		}
+	}
+
+	@Test
+	public void testCloseCancelsPendingParts() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		AtomicInteger executed = new AtomicInteger();
+		Future<Integer> pending;
+
+		try (ConcurrentQueryRunner runner = new ConcurrentQueryRunner(threadPool, 1)) {
+			runner.submit("blocking", () -> {
+				started.countDown();
+				Thread.sleep(60_000);
+				return 1;
+			});
+			pending = runner.submit("pending", () -> executed.incrementAndGet());
+			started.await();
+			// call under test
+		}
+
+		assertTrue(pending.isCancelled());
+		assertEquals(0, executed.get());
+	}
+
+	@Test
+	public void testRun() {
+		try (ConcurrentQueryRunner runner = new ConcurrentQueryRunner(threadPool, 2)) {
+			// call under test
+			String result = runner.run("main", () -> "result");
+
+			assertEquals("result", result);
+			assertTrue(runner.getTimings().containsKey("main"));
+		}
+	}
+
+	@Test
+	public void testConstructorWithInvalidConcurrency() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			new ConcurrentQueryRunner(threadPool, 0);
+		}).getMessage();
+
+		assertEquals("The maxConcurrency must be greater than zero.", message);
+	}
+
+}
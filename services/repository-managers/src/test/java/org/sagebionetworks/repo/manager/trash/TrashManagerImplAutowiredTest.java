@@ -12,6 +12,8 @@ import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -40,6 +42,7 @@ import org.sagebionetworks.repo.model.dbo.trash.TrashCanDao;
 import org.sagebionetworks.repo.model.jdo.KeyFactory;
 import org.sagebionetworks.repo.model.util.AccessControlListUtil;
 import org.sagebionetworks.repo.web.NotFoundException;
+import org.sagebionetworks.repo.web.TemporarilyUnavailableException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -49,6 +52,8 @@ import com.google.common.collect.Lists;
 @ExtendWith(SpringExtension.class)
 @ContextConfiguration(locations = { "classpath:test-context.xml" })
 public class TrashManagerImplAutowiredTest {
+	
+	private static final Logger LOG = LogManager.getLogger(TrashManagerImplAutowiredTest.class);
 
 	@Autowired 
 	private TrashManager trashManager;
@@ -159,6 +164,13 @@ public class TrashManagerImplAutowiredTest {
 		assertEquals(testUserInfo.getId().toString(), trash.getDeletedByPrincipalId());
 		assertNotNull(trash.getDeletedOn());
 
+		// The restore is refused until the ACLs in the hierarchy are deleted
+		Assertions.assertThrows(TemporarilyUnavailableException.class, () -> {
+			trashManager.restoreFromTrash(testUserInfo, nodeChildId, nodeParentId);
+		});
+
+		completeAclCleanup(nodeChildId);
+
 		trashManager.restoreFromTrash(testUserInfo, nodeChildId, nodeParentId);
 
 		inspectUsersTrashCan(testUserInfo, 0);
@@ -186,6 +198,7 @@ public class TrashManagerImplAutowiredTest {
 		
 		// delete and try to restore to some other (unrestricted) parent
 		trashManager.moveToTrash(testUserInfo, nodeChildId, false);
+		completeAclCleanup(nodeChildId);
 		Node adoptiveParent = createNode("TrashManagerImplAutowiredTest.testSingleNodeRoundTrip() Adoptive Parent",EntityType.project, null);
 		final String adoptiveParentId = adoptiveParent.getId();
 		
@@ -208,6 +221,7 @@ public class TrashManagerImplAutowiredTest {
 
 		// delete and try to restore to some other (unrestricted) parent
 		trashManager.moveToTrash(testUserInfo, nodeChildId, false);
+		completeAclCleanup(nodeChildId);
 		
 		// now delete the original parent
 		nodeManager.delete(testUserInfo, nodeParentId);
@@ -266,6 +280,7 @@ public class TrashManagerImplAutowiredTest {
 		assertEquals(parentId, trash.getOriginalParentId());
 		assertEquals(testUserInfo.getId().toString(), trash.getDeletedByPrincipalId());
 		assertNotNull(trash.getDeletedOn());
+		completeAclCleanup(nodeId);
 		trashManager.restoreFromTrash(testUserInfo, nodeId, parentId);
 
 		results = trashManager.listTrashedEntities(testUserInfo, testUserInfo, 0L, 1000L);
@@ -430,6 +445,14 @@ public class TrashManagerImplAutowiredTest {
 		// node01 has the same name as node00 (PLFM-1760)
 		trashManager.moveToTrash(testUserInfo, nodeId01, false);
 		
+		// The ACLs in the hierarchy are deleted by the worker, outside of the transaction of the move
+		assertEquals(Lists.newArrayList(KeyFactory.stringToKey(nodeId00), KeyFactory.stringToKey(nodeId01)), trashManager.getTrashWithPendingAclCleanup(10));
+		assertEquals(nodeId12, nodeDAO.getBenefactor(nodeId12));
+		
+		completeAclCleanup(nodeId00);
+		completeAclCleanup(nodeId01);
+		assertTrue(trashManager.getTrashWithPendingAclCleanup(10).isEmpty());
+		
 		// Validate all ACLs were removed from the hierarchy.
 		// both node 12 and 22 should no longer have an ACL, with the trash as the benefactor
 		assertEquals(TrashConstants.TRASH_FOLDER_ID_STRING, nodeDAO.getBenefactor(nodeId12));
@@ -615,6 +638,7 @@ public class TrashManagerImplAutowiredTest {
 		// Move both to trash.
 		trashManager.moveToTrash(testUserInfo, nodeIdB, false);
 		trashManager.moveToTrash(testUserInfo, nodeIdA, false);
+		completeAclCleanup(nodeIdB);
 		
 		// Restore B from trash.
 		Assertions.assertThrows(ParentInTrashCanException.class, () -> {
@@ -707,6 +731,119 @@ public class TrashManagerImplAutowiredTest {
 		trashManager.purgeTrash(testAdminUserInfo, Collections.singletonList(KeyFactory.stringToKey(rootId)));
 	}
 
+	@Test
+	public void testTrashAndPurgeDeepAndWideHierarchy() {
+		final Node root = new Node();
+		root.setName("TrashManagerImplAutowiredTest.testTrashAndPurgeDeepAndWideHierarchy() Root Node");
+		root.setNodeType(EntityType.project);
+		String rootId = nodeManager.createNewNode(root, testAdminUserInfo);
+		toClearList.add(rootId);
+
+		// A wide tree with a deep chain, deeper than the max depth of a cascade delete
+		int width = 4;
+		int wideDepth = 5;
+		int deepDepth = 20;
+
+		long start = System.currentTimeMillis();
+
+		List<String> level = Collections.singletonList(rootId);
+		int nodeCount = 0;
+
+		for (int i = 0; i < wideDepth; i++) {
+			List<String> nextLevel = new ArrayList<>();
+			for (String parentId : level) {
+				for (int j = 0; j < width; j++) {
+					nextLevel.add(createFolder(parentId));
+				}
+			}
+			nodeCount += nextLevel.size();
+			level = nextLevel;
+		}
+
+		String parentId = level.get(0);
+
+		for (int i = 0; i < deepDepth; i++) {
+			parentId = createFolder(parentId);
+			nodeCount++;
+		}
+
+		// A child with its own ACL deep in the tree
+		AccessControlList acl = AccessControlListUtil.createACLToGrantEntityAdminAccess(parentId, testAdminUserInfo, new Date());
+		entityAclManager.overrideInheritance(acl, testAdminUserInfo);
+
+		LOG.info("Created {} nodes in {} ms", nodeCount, System.currentTimeMillis() - start);
+
+		start = System.currentTimeMillis();
+
+		trashManager.moveToTrash(testAdminUserInfo, rootId, false);
+
+		LOG.info("Moved {} nodes to the trash can in {} ms", nodeCount, System.currentTimeMillis() - start);
+
+		// The ACL deep in the tree is deleted by the cleanup, stopped and resumed after each chunk
+		List<Long> aclProgress = new ArrayList<>();
+		// One page of containers (including the root) per chunk, independent of the depth
+		int expectedAclPages = (nodeCount + 1 + TrashManagerImpl.CHUNK_SIZE - 1) / TrashManagerImpl.CHUNK_SIZE;
+		
+		while (!trashManager.deleteAclsInTrashedHierarchy(KeyFactory.stringToKey(rootId), (trashId, deletedCount) -> {
+			aclProgress.add(deletedCount);
+			return false;
+		})) {
+			// Resumed from the checkpoint, never processing a page twice
+			assertTrue(aclProgress.size() <= expectedAclPages);
+		}
+		
+		assertEquals(expectedAclPages, aclProgress.size());
+		// Only the chunk with the ACL deleted anything
+		assertEquals(1L, aclProgress.stream().mapToLong(Long::longValue).sum());
+		assertTrue(trashCanDao.getAclCleanup(KeyFactory.stringToKey(rootId)).isEmpty());
+
+		assertEquals(trashCanId, nodeDAO.getBenefactor(parentId));
+
+		List<Long> progress = new ArrayList<>();
+
+		start = System.currentTimeMillis();
+
+		// Stop after the first chunk
+		assertFalse(trashManager.purgeTrash(testAdminUserInfo, KeyFactory.stringToKey(rootId), (trashId, deletedCount) -> {
+			progress.add(deletedCount);
+			return false;
+		}));
+
+		// The entity stays in the trash can until the purge is complete
+		assertTrue(trashCanDao.getTrashedEntity(rootId).isPresent());
+
+		// Resume
+		assertTrue(trashManager.purgeTrash(testAdminUserInfo, KeyFactory.stringToKey(rootId), (trashId, deletedCount) -> {
+			progress.add(deletedCount);
+			return true;
+		}));
+
+		long elapsed = System.currentTimeMillis() - start;
+
+		LOG.info("Purged {} nodes in {} ms ({} nodes/s)", nodeCount + 1, elapsed, (nodeCount + 1) * 1000 / Math.max(elapsed, 1));
+
+		assertFalse(progress.isEmpty());
+		assertFalse(nodeDAO.doesNodeExist(KeyFactory.stringToKey(rootId)));
+		assertFalse(nodeDAO.doesNodeExist(KeyFactory.stringToKey(parentId)));
+		assertFalse(trashCanDao.getTrashedEntity(rootId).isPresent());
+	}
+
+	private void completeAclCleanup(String nodeId) {
+		assertTrue(trashManager.deleteAclsInTrashedHierarchy(KeyFactory.stringToKey(nodeId), (trashId, deletedCount) -> true));
+	}
+
+	private String createFolder(String parentId) {
+		Node node = new Node();
+		node.setName(UUID.randomUUID().toString());
+		node.setNodeType(EntityType.folder);
+		node.setParentId(parentId);
+		node.setCreatedByPrincipalId(testAdminUserInfo.getId());
+		node.setModifiedByPrincipalId(testAdminUserInfo.getId());
+		node.setCreatedOn(new Date());
+		node.setModifiedOn(node.getCreatedOn());
+		return nodeDAO.createNewNode(node).getId();
+	}
+
 	private void cleanUp() throws Exception {
 		if (accessRequirementToDelete!=null) {
 			accessRequirementManager.deleteAccessRequirement(testAdminUserInfo, accessRequirementToDelete.getId().toString());
@@ -6,33 +6,32 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
-import static org.sagebionetworks.repo.manager.trash.TrashManagerImpl.MAX_IDS_TO_LOAD;
+import static org.sagebionetworks.repo.manager.trash.TrashManagerImpl.CHUNK_SIZE;
 
 import java.sql.Date;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -44,7 +43,6 @@ import org.sagebionetworks.repo.model.ACCESS_TYPE;
 import org.sagebionetworks.repo.model.AccessControlList;
 import org.sagebionetworks.repo.model.AccessControlListDAO;
 import org.sagebionetworks.repo.model.EntityType;
-import org.sagebionetworks.repo.model.LimitExceededException;
 import org.sagebionetworks.repo.model.Node;
 import org.sagebionetworks.repo.model.NodeDAO;
 import org.sagebionetworks.repo.model.ObjectType;
@@ -53,6 +51,7 @@ import org.sagebionetworks.repo.model.UnauthorizedException;
 import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.auth.AuthorizationStatus;
 import org.sagebionetworks.repo.model.dbo.dao.NodeUtils;
+import org.sagebionetworks.repo.model.dbo.trash.DBOTrashAclCleanup;
 import org.sagebionetworks.repo.model.dbo.trash.TrashCanDao;
 import org.sagebionetworks.repo.model.jdo.KeyFactory;
 import org.sagebionetworks.repo.model.message.ChangeType;
@@ -60,6 +59,7 @@ import org.sagebionetworks.repo.model.message.TransactionalMessenger;
 import org.sagebionetworks.repo.model.project.ProjectSettingsType;
 import org.sagebionetworks.repo.model.project.UploadDestinationListSetting;
 import org.sagebionetworks.repo.web.NotFoundException;
+import org.sagebionetworks.repo.web.TemporarilyUnavailableException;
 
 import com.google.common.collect.Lists;
 
@@ -91,6 +91,9 @@ public class TrashManagerImplTest {
 	@Mock
 	private StackConfiguration stackConfig;
 
+	@Mock
+	private PurgeProgressListener mockListener;
+
 	@InjectMocks
 	private TrashManagerImpl trashManager;
 
@@ -187,31 +190,150 @@ public class TrashManagerImplTest {
 	}
 
 	@Test
-	public void testDeleteAllAclsInHierarchy() throws LimitExceededException {
-		List<Long> parentIdsList = Lists.newArrayList(123L, 456L);
-		Set<Long> parentIds = new LinkedHashSet<Long>(parentIdsList);
-		when(mockNodeDAO.getAllContainerIds(nodeID, TrashManagerImpl.MAX_IDS_TO_LOAD)).thenReturn(parentIds);
-		List<Long> childernWithAcls = Lists.newArrayList(456L, 444L);
-		when(mockAclDAO.getChildrenEntitiesWithAcls(parentIdsList)).thenReturn(childernWithAcls);
+	public void testDeleteAclsInTrashedHierarchy() {
+		Long trashId = KeyFactory.stringToKey(nodeID);
+		List<Long> firstPage = new ArrayList<>();
+		for (long i = 0; i < CHUNK_SIZE; i++) {
+			firstPage.add(trashId + i);
+		}
+		Long lastId = firstPage.get(firstPage.size() - 1);
+		List<Long> secondPage = Lists.newArrayList(lastId + 1);
+		when(mockTrashCanDao.getAclCleanup(trashId)).thenReturn(Optional.of(aclCleanup(trashId, -1L)));
+		when(mockNodeDAO.getSubTreeContainerIdsPage(trashId, -1L, CHUNK_SIZE)).thenReturn(firstPage);
+		when(mockNodeDAO.getSubTreeContainerIdsPage(trashId, lastId, CHUNK_SIZE)).thenReturn(secondPage);
+		when(mockNodeDAO.getSubTreeContainerIdsPage(trashId, lastId + 1, CHUNK_SIZE)).thenReturn(Collections.emptyList());
+		List<Long> firstChildrenWithAcls = Lists.newArrayList(456L);
+		List<Long> secondChildrenWithAcls = Lists.newArrayList(444L, 555L);
+		when(mockAclDAO.getChildrenEntitiesWithAcls(firstPage)).thenReturn(firstChildrenWithAcls);
+		when(mockAclDAO.getChildrenEntitiesWithAcls(secondPage)).thenReturn(secondChildrenWithAcls);
+		when(mockListener.onProgress(any(), anyLong())).thenReturn(true);
+
 		// call under test
-		trashManager.deleteAllAclsInHierarchy(nodeID);
-		// delete the acl of the node
-		verify(mockAclDAO).delete(nodeID, ObjectType.ENTITY);
-		// delete all acls for the hierarchy.
-		verify(mockAclDAO).delete(childernWithAcls, ObjectType.ENTITY);
+		boolean result = trashManager.deleteAclsInTrashedHierarchy(trashId, mockListener);
+
+		assertTrue(result);
+		InOrder inOrder = inOrder(mockAclDAO, mockTrashCanDao, mockListener);
+		// delete all acls for the hierarchy, one page of containers at a time.
+		inOrder.verify(mockAclDAO).delete(firstChildrenWithAcls, ObjectType.ENTITY);
+		inOrder.verify(mockTrashCanDao).updateAclCleanupCheckpoint(trashId, lastId);
+		inOrder.verify(mockListener).onProgress(trashId, 1L);
+		inOrder.verify(mockAclDAO).delete(secondChildrenWithAcls, ObjectType.ENTITY);
+		inOrder.verify(mockTrashCanDao).updateAclCleanupCheckpoint(trashId, lastId + 1);
+		inOrder.verify(mockListener).onProgress(trashId, 3L);
+		inOrder.verify(mockTrashCanDao).deleteAclCleanup(trashId);
+	}
+
+	@Test
+	public void testDeleteAclsInTrashedHierarchyWithNoAcls() {
+		Long trashId = KeyFactory.stringToKey(nodeID);
+		List<Long> rootPage = Collections.singletonList(trashId);
+		when(mockTrashCanDao.getAclCleanup(trashId)).thenReturn(Optional.of(aclCleanup(trashId, -1L)));
+		when(mockNodeDAO.getSubTreeContainerIdsPage(trashId, -1L, CHUNK_SIZE)).thenReturn(rootPage);
+		when(mockNodeDAO.getSubTreeContainerIdsPage(trashId, trashId, CHUNK_SIZE)).thenReturn(Collections.emptyList());
+		when(mockAclDAO.getChildrenEntitiesWithAcls(rootPage)).thenReturn(Collections.emptyList());
+		when(mockListener.onProgress(any(), anyLong())).thenReturn(true);
+
+		// call under test
+		boolean result = trashManager.deleteAclsInTrashedHierarchy(trashId, mockListener);
+
+		assertTrue(result);
+		verify(mockAclDAO, never()).delete(anyList(), any(ObjectType.class));
+		verify(mockTrashCanDao).updateAclCleanupCheckpoint(trashId, trashId);
+		verify(mockListener).onProgress(trashId, 0L);
+		verify(mockTrashCanDao).deleteAclCleanup(trashId);
+	}
+
+	@Test
+	public void testDeleteAclsInTrashedHierarchyWithCheckpoint() {
+		Long trashId = KeyFactory.stringToKey(nodeID);
+		// The containers up to 123 were already processed
+		when(mockTrashCanDao.getAclCleanup(trashId)).thenReturn(Optional.of(aclCleanup(trashId, 123L)));
+		when(mockNodeDAO.getSubTreeContainerIdsPage(trashId, 123L, CHUNK_SIZE)).thenReturn(Collections.singletonList(456L));
+		when(mockNodeDAO.getSubTreeContainerIdsPage(trashId, 456L, CHUNK_SIZE)).thenReturn(Collections.emptyList());
+		List<Long> childrenWithAcls = Lists.newArrayList(444L);
+		when(mockAclDAO.getChildrenEntitiesWithAcls(Collections.singletonList(456L))).thenReturn(childrenWithAcls);
+		when(mockListener.onProgress(any(), anyLong())).thenReturn(true);
+
+		// call under test
+		boolean result = trashManager.deleteAclsInTrashedHierarchy(trashId, mockListener);
+
+		assertTrue(result);
+		verify(mockNodeDAO, never()).getSubTreeContainerIdsPage(trashId, -1L, CHUNK_SIZE);
+		verify(mockAclDAO).getChildrenEntitiesWithAcls(anyList());
+		verify(mockAclDAO).delete(childrenWithAcls, ObjectType.ENTITY);
+		verify(mockTrashCanDao).updateAclCleanupCheckpoint(trashId, 456L);
+		verify(mockTrashCanDao).deleteAclCleanup(trashId);
+	}
+
+	@Test
+	public void testDeleteAclsInTrashedHierarchyWithListenerStop() {
+		Long trashId = KeyFactory.stringToKey(nodeID);
+		List<Long> rootPage = Collections.singletonList(trashId);
+		when(mockTrashCanDao.getAclCleanup(trashId)).thenReturn(Optional.of(aclCleanup(trashId, -1L)));
+		when(mockNodeDAO.getSubTreeContainerIdsPage(trashId, -1L, CHUNK_SIZE)).thenReturn(rootPage);
+		when(mockAclDAO.getChildrenEntitiesWithAcls(rootPage)).thenReturn(Lists.newArrayList(123L));
+		when(mockListener.onProgress(any(), anyLong())).thenReturn(false);
+
+		// call under test
+		boolean result = trashManager.deleteAclsInTrashedHierarchy(trashId, mockListener);
+
+		assertFalse(result);
+		verify(mockAclDAO).delete(Lists.newArrayList(123L), ObjectType.ENTITY);
+		verify(mockTrashCanDao).updateAclCleanupCheckpoint(trashId, trashId);
+		verify(mockNodeDAO, never()).getSubTreeContainerIdsPage(trashId, trashId, CHUNK_SIZE);
+		verify(mockTrashCanDao, never()).deleteAclCleanup(any());
 	}
 
 	@Test
-	public void testDeleteAllAclsInHierarchyOverLimit() throws LimitExceededException {
-		// setup limit exceeded.
-		LimitExceededException exception = new LimitExceededException("too many");
+	public void testDeleteAclsInTrashedHierarchyWithPurgedEntity() {
+		Long trashId = KeyFactory.stringToKey(nodeID);
+		// Purged before the first page
+		when(mockTrashCanDao.getAclCleanup(trashId)).thenReturn(Optional.of(aclCleanup(trashId, -1L)), Optional.empty());
+		when(mockNodeDAO.getSubTreeContainerIdsPage(trashId, -1L, CHUNK_SIZE)).thenReturn(Collections.singletonList(trashId));
 
-		doThrow(exception).when(mockNodeDAO).getAllContainerIds(anyString(), anyInt());
 		// call under test
+		boolean result = trashManager.deleteAclsInTrashedHierarchy(trashId, mockListener);
+
+		assertTrue(result);
+		verifyNoMoreInteractions(mockAclDAO);
+		verify(mockTrashCanDao, never()).deleteAclCleanup(any());
+	}
+
+	@Test
+	public void testDeleteAclsInTrashedHierarchyWithNoPendingCleanup() {
+		Long trashId = KeyFactory.stringToKey(nodeID);
+		when(mockTrashCanDao.getAclCleanup(trashId)).thenReturn(Optional.empty());
+
+		// call under test
+		boolean result = trashManager.deleteAclsInTrashedHierarchy(trashId, mockListener);
+
+		assertTrue(result);
+		verifyNoMoreInteractions(mockNodeDAO);
+		verifyNoMoreInteractions(mockAclDAO);
+		verifyNoMoreInteractions(mockListener);
+	}
+
+	@Test
+	public void testDeleteAclsInTrashedHierarchyWithNullListener() {
 		Assertions.assertThrows(IllegalArgumentException.class, () -> {
-			trashManager.deleteAllAclsInHierarchy(nodeID);
+			trashManager.deleteAclsInTrashedHierarchy(1L, null);
 		});
 	}
+
+	@Test
+	public void testGetTrashWithPendingAclCleanup() {
+		List<Long> ids = Lists.newArrayList(1L, 2L);
+		when(mockTrashCanDao.getAclCleanupNodeIds(10)).thenReturn(ids);
+		// call under test
+		assertEquals(ids, trashManager.getTrashWithPendingAclCleanup(10));
+	}
+
+	private static DBOTrashAclCleanup aclCleanup(Long nodeId, Long lastParentId) {
+		DBOTrashAclCleanup cleanup = new DBOTrashAclCleanup();
+		cleanup.setNodeId(nodeId);
+		cleanup.setLastParentId(lastParentId);
+		return cleanup;
+	}
 	
 	@Test
 	public void testMoveToTrashWithNullUser() {
@@ -261,7 +383,32 @@ public class TrashManagerImplTest {
 
 		verify(mockTrashCanDao, times(1)).create(userInfo.getId().toString(), nodeID, nodeName, nodeParentID, priorityPurge);
 
-		verify(mockAclDAO).delete(anyList(), any(ObjectType.class));
+		verify(mockAclDAO).delete(nodeID, ObjectType.ENTITY);
+		// A file does not have a hierarchy
+		verify(mockTrashCanDao, never()).createAclCleanup(any());
+		verify(mockAclDAO, never()).getChildrenEntitiesWithAcls(anyList());
+	}
+
+	@Test
+	public void testMoveToTrashAuthorizedWithContainer() {
+		testNode.setNodeType(EntityType.folder);
+		when(mockNodeDAO.getNode(nodeID)).thenReturn(testNode);
+		when(mockAuthorizationManager.canAccess(any(UserInfo.class), anyString(), any(ObjectType.class), any(ACCESS_TYPE.class)))
+				.thenReturn(AuthorizationStatus.authorized());
+		when(mockNodeDAO.isNodeAvailable(anyString())).thenReturn(true);
+		when(mockNodeDAO.touch(any(Long.class), anyString(), any(ChangeType.class))).thenReturn("newEtag");
+
+		boolean priorityPurge = false;
+
+		// call under test
+		trashManager.moveToTrash(userInfo, nodeID, priorityPurge);
+
+		verify(mockTrashCanDao).create(userInfo.getId().toString(), nodeID, nodeName, nodeParentID, priorityPurge);
+		verify(mockAclDAO).delete(nodeID, ObjectType.ENTITY);
+		// The ACLs in the hierarchy are deleted by the worker
+		verify(mockTrashCanDao).createAclCleanup(KeyFactory.stringToKey(nodeID));
+		verify(mockAclDAO, never()).getChildrenEntitiesWithAcls(anyList());
+		verify(mockAclDAO, never()).delete(anyList(), any(ObjectType.class));
 	}
 
 	@Test
@@ -383,9 +530,29 @@ public class TrashManagerImplTest {
 
 		verify(mockNodeDAO, times(1)).updateNode(testNode);
 		verify(mockTrashCanDao).delete(Collections.singletonList(KeyFactory.stringToKey(nodeID)));
+		verify(mockTrashCanDao).getAclCleanup(KeyFactory.stringToKey(nodeID));
+		verify(mockTrashCanDao, never()).deleteAclCleanup(any());
 		verify(mockAclDAO, never()).create(any(AccessControlList.class), any(ObjectType.class));
 	}
 
+	@Test
+	public void testRestoreFromTrashCanWithPendingAclCleanup() {
+		Long trashId = KeyFactory.stringToKey(nodeID);
+		when(mockTrashCanDao.getTrashedEntity(nodeID)).thenReturn(Optional.of(nodeTrashedEntity));
+		when(mockTrashCanDao.getAclCleanup(trashId)).thenReturn(Optional.of(aclCleanup(trashId, -1L)));
+
+		String message = assertThrows(TemporarilyUnavailableException.class, () -> {
+			// call under test
+			trashManager.restoreFromTrash(userInfo, nodeID, nodeParentID);
+		}).getMessage();
+
+		assertEquals("The ACLs in the hierarchy of " + nodeID + " are still being deleted, please try again later.", message);
+		// Nothing is restored and no ACL is touched
+		verify(mockNodeDAO, never()).updateNode(any());
+		verify(mockTrashCanDao, never()).delete(any());
+		verifyNoMoreInteractions(mockAclDAO);
+	}
+
 	/**
 	 * Test restoring a project to root.
 	 * 
@@ -608,18 +775,94 @@ public class TrashManagerImplTest {
 
 	@Test
 	public void testPurgeTrash() {
+		Long trashId = KeyFactory.stringToKey(nodeID);
+		List<Long> rootLevel = Collections.singletonList(trashId);
+		when(mockNodeDAO.getSubTreeParentIdsDeepestFirst(trashId, CHUNK_SIZE)).thenReturn(rootLevel, Collections.emptyList());
+		when(mockAclDAO.getChildrenEntitiesWithAcls(rootLevel)).thenReturn(Collections.emptyList());
+		when(mockNodeDAO.deleteChildren(rootLevel, CHUNK_SIZE)).thenReturn(3);
 
-		when(mockNodeDAO.deleteTree(nodeID, MAX_IDS_TO_LOAD)).thenReturn(true);
-
-		List<Long> trashIDList = Collections.singletonList(KeyFactory.stringToKey(nodeID));
+		List<Long> trashIDList = Collections.singletonList(trashId);
 
 		trashManager.purgeTrash(adminUserInfo, trashIDList);
 
-		verify(mockNodeDAO, times(1)).deleteTree(nodeID, MAX_IDS_TO_LOAD);
+		verify(mockNodeDAO, times(1)).deleteChildren(rootLevel, CHUNK_SIZE);
+		verify(mockNodeDAO, times(1)).delete(nodeID);
 		verify(mockAclDAO, times(1)).delete(nodeID, ObjectType.ENTITY);
+		verify(mockAclDAO, never()).delete(anyList(), any(ObjectType.class));
+		verify(mockTrashCanDao).deleteAclCleanup(trashId);
 		verify(mockTrashCanDao, times(1)).delete(trashIDList);
 	}
 
+	@Test
+	public void testPurgeTrashWithListener() {
+		Long trashId = KeyFactory.stringToKey(nodeID);
+		List<Long> rootLevel = Collections.singletonList(trashId);
+		List<Long> childLevel = Lists.newArrayList(2L, 3L);
+		// The deepest containers are deleted first, in multiple chunks
+		when(mockNodeDAO.getSubTreeParentIdsDeepestFirst(trashId, CHUNK_SIZE)).thenReturn(childLevel, rootLevel, Collections.emptyList());
+		List<Long> childAcls = Lists.newArrayList(4L);
+		List<Long> rootAcls = Lists.newArrayList(2L);
+		when(mockAclDAO.getChildrenEntitiesWithAcls(childLevel)).thenReturn(childAcls);
+		when(mockAclDAO.getChildrenEntitiesWithAcls(rootLevel)).thenReturn(rootAcls);
+		when(mockNodeDAO.deleteChildren(childLevel, CHUNK_SIZE)).thenReturn(CHUNK_SIZE, 10);
+		when(mockNodeDAO.deleteChildren(rootLevel, CHUNK_SIZE)).thenReturn(2);
+		when(mockListener.onProgress(any(), anyLong())).thenReturn(true);
+
+		// call under test
+		boolean result = trashManager.purgeTrash(adminUserInfo, trashId, mockListener);
+
+		assertTrue(result);
+		InOrder inOrder = inOrder(mockNodeDAO, mockListener, mockAclDAO, mockTrashCanDao);
+		// The ACLs of each chunk are deleted before its nodes
+		inOrder.verify(mockAclDAO).delete(childAcls, ObjectType.ENTITY);
+		inOrder.verify(mockNodeDAO).deleteChildren(childLevel, CHUNK_SIZE);
+		inOrder.verify(mockListener).onProgress(trashId, CHUNK_SIZE);
+		inOrder.verify(mockNodeDAO).deleteChildren(childLevel, CHUNK_SIZE);
+		inOrder.verify(mockListener).onProgress(trashId, CHUNK_SIZE + 10);
+		inOrder.verify(mockAclDAO).delete(rootAcls, ObjectType.ENTITY);
+		inOrder.verify(mockNodeDAO).deleteChildren(rootLevel, CHUNK_SIZE);
+		inOrder.verify(mockListener).onProgress(trashId, CHUNK_SIZE + 12);
+		inOrder.verify(mockAclDAO).delete(nodeID, ObjectType.ENTITY);
+		inOrder.verify(mockTrashCanDao).deleteAclCleanup(trashId);
+		inOrder.verify(mockNodeDAO).delete(nodeID);
+		inOrder.verify(mockTrashCanDao).delete(rootLevel);
+		inOrder.verify(mockListener).onProgress(trashId, CHUNK_SIZE + 13);
+	}
+
+	@Test
+	public void testPurgeTrashWithListenerStop() {
+		Long trashId = KeyFactory.stringToKey(nodeID);
+		List<Long> rootLevel = Collections.singletonList(trashId);
+		when(mockNodeDAO.getSubTreeParentIdsDeepestFirst(trashId, CHUNK_SIZE)).thenReturn(rootLevel);
+		when(mockAclDAO.getChildrenEntitiesWithAcls(rootLevel)).thenReturn(Collections.emptyList());
+		when(mockNodeDAO.deleteChildren(rootLevel, CHUNK_SIZE)).thenReturn(CHUNK_SIZE);
+		when(mockListener.onProgress(any(), anyLong())).thenReturn(false);
+
+		// call under test
+		boolean result = trashManager.purgeTrash(adminUserInfo, trashId, mockListener);
+
+		assertFalse(result);
+		verify(mockNodeDAO, times(1)).deleteChildren(rootLevel, CHUNK_SIZE);
+		verify(mockListener).onProgress(trashId, CHUNK_SIZE);
+		verify(mockNodeDAO, never()).delete(any());
+		verify(mockTrashCanDao, never()).delete(any());
+	}
+
+	@Test
+	public void testPurgeTrashWithListenerUserNotAdmin() {
+		Assertions.assertThrows(UnauthorizedException.class, () -> {
+			trashManager.purgeTrash(userInfo, 1L, mockListener);
+		});
+		verifyNoMoreInteractions(mockNodeDAO);
+	}
+
+	@Test
+	public void testPurgeTrashWithNullListener() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> {
+			trashManager.purgeTrash(adminUserInfo, 1L, null);
+		});
+	}
+
 	@Test
 	public void testGetTrashLeavesBefore() {
 		final long daysBefore = 1;
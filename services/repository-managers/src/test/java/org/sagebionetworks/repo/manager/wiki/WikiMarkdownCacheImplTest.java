@@ -0,0 +1,269 @@
+package org.sagebionetworks.repo.manager.wiki;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.model.ObjectType;
+import org.sagebionetworks.repo.model.dbo.file.FileHandleDao;
+import org.sagebionetworks.repo.model.file.FileHandle;
+import org.sagebionetworks.repo.model.file.S3FileHandle;
+import org.sagebionetworks.repo.model.message.ChangeMessage;
+import org.sagebionetworks.repo.model.message.ChangeType;
+import org.sagebionetworks.repo.model.message.TransactionalMessenger;
+import org.sagebionetworks.repo.model.v2.dao.V2WikiPageDao;
+import org.sagebionetworks.repo.model.v2.wiki.V2WikiPage;
+import org.sagebionetworks.repo.web.NotFoundException;
+
+@ExtendWith(MockitoExtension.class)
+public class WikiMarkdownCacheImplTest {
+
+	@Mock
+	private V2WikiPageDao mockWikiPageDao;
+	@Mock
+	private FileHandleDao mockFileHandleDao;
+	@Mock
+	private TransactionalMessenger mockTransactionalMessenger;
+
+	private ExecutorService threadPool;
+
+	private WikiMarkdownCacheImpl cache;
+
+	private V2WikiPage page;
+
+	@BeforeEach
+	public void before() {
+		threadPool = Executors.newCachedThreadPool();
+		cache = new WikiMarkdownCacheImpl(mockWikiPageDao, mockFileHandleDao, mockTransactionalMessenger, threadPool);
+		page = createPage("1", "etag", "111");
+	}
+
+	@AfterEach
+	public void after() {
+		threadPool.shutdownNow();
+	}
+
+	private static V2WikiPage createPage(String wikiId, String etag, String markdownFileHandleId) {
+		V2WikiPage page = new V2WikiPage();
+		page.setId(wikiId);
+		page.setEtag(etag);
+		page.setMarkdownFileHandleId(markdownFileHandleId);
+		return page;
+	}
+
+	private static S3FileHandle createHandle(String fileHandleId) {
+		S3FileHandle handle = new S3FileHandle();
+		handle.setId(fileHandleId);
+		handle.setBucketName("bucket");
+		handle.setKey("key" + fileHandleId);
+		return handle;
+	}
+
+	private void mockMarkdown(String markdownFileHandleId, String markdown) throws IOException {
+		when(mockWikiPageDao.getMarkdownForFileHandles(Collections.singletonList(markdownFileHandleId)))
+				.thenReturn(Collections.singletonMap(markdownFileHandleId, markdown));
+	}
+
+	@Test
+	public void testInitialize() {
+		// call under test
+		cache.initialize();
+		verify(mockTransactionalMessenger).removeObserver(cache);
+		verify(mockTransactionalMessenger).registerObserver(cache);
+	}
+
+	@Test
+	public void testGetMarkdown() throws IOException {
+		mockMarkdown("111", "markdown");
+		// call under test
+		assertEquals("markdown", cache.getMarkdown(page));
+		assertEquals("markdown", cache.getMarkdown(page));
+		// The markdown is only read once
+		verify(mockWikiPageDao).getMarkdownForFileHandles(Collections.singletonList("111"));
+	}
+
+	@Test
+	public void testGetMarkdownWithNewEtag() throws IOException {
+		mockMarkdown("111", "markdown");
+		assertEquals("markdown", cache.getMarkdown(page));
+		V2WikiPage updated = createPage("1", "newEtag", "111");
+		// call under test
+		assertEquals("markdown", cache.getMarkdown(updated));
+		// The cached content is not served for a different etag
+		verify(mockWikiPageDao, times(2)).getMarkdownForFileHandles(Collections.singletonList("111"));
+	}
+
+	@Test
+	public void testGetMarkdownWithMultipleVersions() throws IOException {
+		mockMarkdown("111", "one");
+		mockMarkdown("222", "two");
+		V2WikiPage otherVersion = createPage("1", "etag", "222");
+		// call under test
+		assertEquals("one", cache.getMarkdown(page));
+		assertEquals("two", cache.getMarkdown(otherVersion));
+		assertEquals("one", cache.getMarkdown(page));
+		assertEquals("two", cache.getMarkdown(otherVersion));
+		verify(mockWikiPageDao).getMarkdownForFileHandles(Collections.singletonList("111"));
+		verify(mockWikiPageDao).getMarkdownForFileHandles(Collections.singletonList("222"));
+	}
+
+	@Test
+	public void testGetMarkdownWithMissingFileHandle() throws IOException {
+		when(mockWikiPageDao.getMarkdownForFileHandles(Collections.singletonList("111"))).thenReturn(Collections.emptyMap());
+		String message = assertThrows(NotFoundException.class, () -> {
+			// call under test
+			cache.getMarkdown(page);
+		}).getMessage();
+		assertEquals("The markdown file handle 111 of the wiki 1 does not exist", message);
+	}
+
+	@Test
+	public void testGetMarkdownWithNullPage() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			cache.getMarkdown(null);
+		});
+	}
+
+	@Test
+	public void testGetMarkdownWithNullMarkdownFileHandleId() {
+		page.setMarkdownFileHandleId(null);
+		assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			cache.getMarkdown(page);
+		});
+	}
+
+	@Test
+	public void testFireChangeMessageWithWiki() throws Exception {
+		mockMarkdown("111", "markdown");
+		mockMarkdown("333", "other");
+		V2WikiPage otherWiki = createPage("2", "etag", "333");
+		cache.getMarkdown(page);
+		cache.getMarkdown(otherWiki);
+
+		// call under test
+		cache.fireChangeMessage(new ChangeMessage().setObjectType(ObjectType.WIKI).setObjectId("1").setChangeType(ChangeType.UPDATE));
+
+		cache.getMarkdown(page);
+		cache.getMarkdown(otherWiki);
+		// Only the entries of the changed wiki are evicted
+		verify(mockWikiPageDao, times(2)).getMarkdownForFileHandles(Collections.singletonList("111"));
+		verify(mockWikiPageDao).getMarkdownForFileHandles(Collections.singletonList("333"));
+	}
+
+	@Test
+	public void testFireChangeMessageWithOtherType() throws Exception {
+		mockMarkdown("111", "markdown");
+		cache.getMarkdown(page);
+
+		// call under test
+		cache.fireChangeMessage(new ChangeMessage().setObjectType(ObjectType.ENTITY).setObjectId("1").setChangeType(ChangeType.UPDATE));
+
+		cache.getMarkdown(page);
+		verify(mockWikiPageDao).getMarkdownForFileHandles(Collections.singletonList("111"));
+	}
+
+	@Test
+	public void testLoadMarkdown() throws IOException {
+		int count = WikiMarkdownCacheImpl.MAX_CONCURRENT_READS * 2 + 3;
+		Map<String, String> threads = new ConcurrentHashMap<>();
+		AtomicInteger activeReads = new AtomicInteger();
+		AtomicInteger maxActiveReads = new AtomicInteger();
+		String[] ids = new String[count];
+		Map<String, FileHandle> handles = new ConcurrentHashMap<>();
+		for (int i = 0; i < count; i++) {
+			String id = String.valueOf(i);
+			ids[i] = id;
+			S3FileHandle handle = createHandle(id);
+			handles.put(id, handle);
+			when(mockWikiPageDao.readMarkdown(handle)).then(invocation -> {
+				maxActiveReads.accumulateAndGet(activeReads.incrementAndGet(), Math::max);
+				threads.put(id, Thread.currentThread().getName());
+				Thread.sleep(5);
+				activeReads.decrementAndGet();
+				return "markdown" + id;
+			});
+		}
+		List<String> markdownFileHandleIds = Arrays.asList(ids);
+		when(mockFileHandleDao.getAllFileHandlesBatch(markdownFileHandleIds)).thenReturn(handles);
+
+		// call under test
+		Map<String, String> results = cache.loadMarkdown(markdownFileHandleIds);
+
+		assertEquals(count, results.size());
+		for (String id : ids) {
+			assertEquals("markdown" + id, results.get(id));
+		}
+		// The file handles are fetched with a single query
+		verify(mockFileHandleDao).getAllFileHandlesBatch(anyList());
+		// The files are read on the thread pool, with a bounded number of reads in flight
+		String callingThread = Thread.currentThread().getName();
+		assertTrue(threads.values().stream().noneMatch(callingThread::equals));
+		assertTrue(maxActiveReads.get() <= WikiMarkdownCacheImpl.MAX_CONCURRENT_READS);
+	}
+
+	@Test
+	public void testLoadMarkdownWithDuplicatesAndMissing() throws IOException {
+		S3FileHandle handle = createHandle("1");
+		when(mockFileHandleDao.getAllFileHandlesBatch(Arrays.asList("1", "2"))).thenReturn(Collections.singletonMap("1", handle));
+		when(mockWikiPageDao.readMarkdown(handle)).thenReturn("one");
+
+		// call under test
+		Map<String, String> results = cache.loadMarkdown(Arrays.asList("1", "2", "1"));
+
+		assertEquals(Collections.singletonMap("1", "one"), results);
+		verify(mockWikiPageDao).readMarkdown(handle);
+		verifyNoMoreInteractions(mockWikiPageDao);
+	}
+
+	@Test
+	public void testLoadMarkdownWithEmpty() throws IOException {
+		// call under test
+		assertEquals(Collections.emptyMap(), cache.loadMarkdown(Collections.emptyList()));
+		verifyNoMoreInteractions(mockWikiPageDao, mockFileHandleDao);
+	}
+
+	@Test
+	public void testLoadMarkdownWithIOException() throws IOException {
+		IOException exception = new IOException("failed");
+		when(mockFileHandleDao.getAllFileHandlesBatch(anyList())).thenReturn(Collections.singletonMap("1", createHandle("1")));
+		when(mockWikiPageDao.readMarkdown(any())).thenThrow(exception);
+		IOException result = assertThrows(IOException.class, () -> {
+			// call under test
+			cache.loadMarkdown(Collections.singletonList("1"));
+		});
+		assertEquals(exception, result);
+	}
+
+	@Test
+	public void testLoadMarkdownWithNull() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			cache.loadMarkdown(null);
+		});
+	}
+
+}
@@ -12,7 +12,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.sagebionetworks.auth.HttpAuthUtil;
-import org.sagebionetworks.auth.services.AuthenticationService;
+import org.sagebionetworks.repo.manager.authentication.PrincipalAuthenticationCache;
 import org.sagebionetworks.repo.model.AuthorizationConstants;
 import org.sagebionetworks.repo.model.AuthorizationConstants.BOOTSTRAP_PRINCIPAL;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,7 +29,7 @@ public class AcceptTermsOfUseFilter implements Filter {
 	private static final String TOU_UNSIGNED_REASON = "Terms of use have not been signed.";
 	
 	@Autowired
-	private AuthenticationService authenticationService;
+	private PrincipalAuthenticationCache principalAuthenticationCache;
 
 	@Override
 	public void doFilter(ServletRequest request, ServletResponse response, FilterChain filterChain)
@@ -54,7 +54,7 @@ public class AcceptTermsOfUseFilter implements Filter {
 		
 		// If the user is not anonymous, check if they have accepted the terms of use
 		if (!BOOTSTRAP_PRINCIPAL.ANONYMOUS_USER.getPrincipalId().equals(userId)) {
-			if (!authenticationService.hasUserAcceptedTermsOfUse(userId)) {
+			if (!principalAuthenticationCache.hasUserAcceptedTermsOfUse(userId)) {
 				HttpAuthUtil.rejectWithErrorResponse(httpResponse, TOU_UNSIGNED_REASON, HttpStatus.FORBIDDEN);
 				return;
 			}
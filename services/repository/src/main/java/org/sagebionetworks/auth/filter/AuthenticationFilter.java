@@ -20,7 +20,7 @@ import org.joda.time.Minutes;
 import org.sagebionetworks.auth.HttpAuthUtil;
 import org.sagebionetworks.auth.services.AuthenticationService;
 import org.sagebionetworks.authutil.ModHttpServletRequest;
-import org.sagebionetworks.repo.manager.UserManager;
+import org.sagebionetworks.repo.manager.authentication.PrincipalAuthenticationCache;
 import org.sagebionetworks.repo.manager.oauth.OAuthClientNotVerifiedException;
 import org.sagebionetworks.repo.manager.oauth.OIDCTokenHelper;
 import org.sagebionetworks.repo.manager.oauth.OpenIDConnectManager;
@@ -56,7 +56,7 @@ public class AuthenticationFilter implements Filter {
 	private AuthenticationService authenticationService;
 
 	@Autowired
-	private UserManager userManager;
+	private PrincipalAuthenticationCache principalAuthenticationCache;
 
 	@Autowired
 	private OIDCTokenHelper oidcTokenHelper;
@@ -89,7 +89,8 @@ public class AuthenticationFilter implements Filter {
 		if (isSigned(req)) {
 			String username = req.getHeader(AuthorizationConstants.USER_ID_HEADER);
 			try {
-				userId = userManager.lookupUserByUsernameOrEmail(username).getPrincipalId();
+				userId = principalAuthenticationCache.getPrincipalId(username);
+				// The secret key is always read from the database so that a revoked key is rejected at once on every machine
 				String secretKey = authenticationService.getSecretKey(userId);
 				matchHMACSHA1Signature(req, secretKey);
 			} catch (UnauthenticatedException | NotFoundException e) {
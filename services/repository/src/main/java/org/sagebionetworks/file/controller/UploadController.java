@@ -21,6 +21,8 @@ import org.sagebionetworks.repo.model.asynch.AsynchronousJobStatus;
 import org.sagebionetworks.repo.model.file.AddFileToDownloadListRequest;
 import org.sagebionetworks.repo.model.file.AddFileToDownloadListResponse;
 import org.sagebionetworks.repo.model.file.AddPartResponse;
+import org.sagebionetworks.repo.model.file.BatchAddPartRequest;
+import org.sagebionetworks.repo.model.file.BatchAddPartResponse;
 import org.sagebionetworks.repo.model.file.BatchFileHandleCopyRequest;
 import org.sagebionetworks.repo.model.file.BatchFileHandleCopyResult;
 import org.sagebionetworks.repo.model.file.BatchFileRequest;
@@ -114,6 +116,12 @@ import org.springframework.web.bind.annotation.ResponseStatus;
  * </ol>
  * </p>
  * <p>
+ * For uploads to S3 the client can include the MD5 of each part when requesting the pre-signed URLs, in this case each part
+ * is uploaded directly to the multi-part upload and the uploaded parts can be added in batches using: <a
+ * href="${POST.file.multipart.uploadId.add.batch}">POST
+ * /file/multipart/{uploadId}/add/batch</a>
+ * </p>
+ * <p>
  * Once all parts have been successfully added to the multi-part upload, the
  * upload can be completed using: <a
  * href="${PUT.file.multipart.uploadId.complete}">PUT
@@ -843,6 +851,33 @@ public class UploadController {
 			@RequestParam(required = true) String partMD5Hex) {
 		return fileService.addPart(userId, uploadId, partNumber, partMD5Hex);
 	}
+	
+	/**
+	 * Confirms the addition of a batch of parts to a multipart upload or copy in a single call. The parts must have been
+	 * PUT directly to the multipart upload using the pre-signed URLs obtained including the MD5 of each part in the
+	 * <a href="${org.sagebionetworks.repo.model.file.BatchPresignedUploadUrlRequest}">BatchPresignedUploadUrlRequest</a>:
+	 * since the content of each part is verified using its MD5 when the part is uploaded, the parts are not copied from
+	 * a temporary location and are added without any further validation.
+	 * <p>
+	 * This service is currently supported only for multipart uploads to S3. If any of the parts cannot be added none of
+	 * the parts in the batch will be added.
+	 * </p>
+	 * 
+	 * @param userId
+	 * @param uploadId The unique identifier of the file upload.
+	 * @param request
+	 * @return
+	 */
+	@RequiredScope({view,modify})
+	@ResponseStatus(HttpStatus.CREATED)
+	@RequestMapping(value = UrlHelpers.FILE_MULTIPART_UPLOAD_ID_ADD_PART_BATCH, method = RequestMethod.POST)
+	public @ResponseBody BatchAddPartResponse addPartBatch(
+			@RequestParam(required = true, value = AuthorizationConstants.USER_ID_PARAM) Long userId,
+			@PathVariable String uploadId,
+			@RequestBody(required = true) BatchAddPartRequest request) {
+		request.setUploadId(uploadId);
+		return fileService.addParts(userId, request);
+	}
 
 	/**
 	 * After all of the parts have been upload and added successfully, this
@@ -5,6 +5,8 @@ import java.util.List;
 import org.sagebionetworks.repo.model.DatastoreException;
 import org.sagebionetworks.repo.model.UnauthorizedException;
 import org.sagebionetworks.repo.model.file.AddPartResponse;
+import org.sagebionetworks.repo.model.file.BatchAddPartRequest;
+import org.sagebionetworks.repo.model.file.BatchAddPartResponse;
 import org.sagebionetworks.repo.model.file.BatchFileHandleCopyRequest;
 import org.sagebionetworks.repo.model.file.BatchFileHandleCopyResult;
 import org.sagebionetworks.repo.model.file.BatchFileRequest;
@@ -201,6 +203,14 @@ public interface FileUploadService {
 	 */
 	AddPartResponse addPart(Long userId, String uploadId, Integer partNumber,
 			String partMD5Hex);
+	
+	/**
+	 * Add a batch of parts to a multi-part upload.
+	 * @param userId
+	 * @param request
+	 * @return
+	 */
+	BatchAddPartResponse addParts(Long userId, BatchAddPartRequest request);
 
 	/**
 	 * Complete a multi-part upload.
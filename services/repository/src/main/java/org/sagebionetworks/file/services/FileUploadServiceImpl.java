@@ -11,6 +11,8 @@ import org.sagebionetworks.repo.model.DatastoreException;
 import org.sagebionetworks.repo.model.UnauthorizedException;
 import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.file.AddPartResponse;
+import org.sagebionetworks.repo.model.file.BatchAddPartRequest;
+import org.sagebionetworks.repo.model.file.BatchAddPartResponse;
 import org.sagebionetworks.repo.model.file.BatchFileHandleCopyRequest;
 import org.sagebionetworks.repo.model.file.BatchFileHandleCopyResult;
 import org.sagebionetworks.repo.model.file.BatchFileRequest;
@@ -176,6 +178,12 @@ public class FileUploadServiceImpl implements FileUploadService {
 		UserInfo userInfo = userManager.getUserInfo(userId);
 		return multipartManagerV2.addMultipartPart(userInfo, uploadId, partNumber, partMD5Hex);
 	}
+	
+	@Override
+	public BatchAddPartResponse addParts(Long userId, BatchAddPartRequest request) {
+		UserInfo userInfo = userManager.getUserInfo(userId);
+		return multipartManagerV2.addMultipartParts(userInfo, request);
+	}
 
 	@Override
 	public MultipartUploadStatus completeMultipartUpload(Long userId,
@@ -217,6 +217,7 @@ public class UrlHelpers {
 	public static final String ENTITY_BUNDLE_V2 = ENTITY+BUNDLE_V2;
 	public static final String ENTITY_ID_BUNDLE_V2 = ENTITY_ID+BUNDLE_V2;
 	public static final String ENTITY_BUNDLE_V2_CREATE = ENTITY+BUNDLE_V2+CREATE;
+	public static final String ENTITY_BUNDLE_V2_BATCH = ENTITY+BUNDLE_V2+BATCH;
 	public static final String ENTITY_ID_ACL = ENTITY_ID+ACL;
 	public static final String ENTITY_ID_ID_BENEFACTOR = ENTITY_ID+BENEFACTOR;
 	public static final String ENTITY_ID_STS = ENTITY_ID + STS;
@@ -273,6 +274,7 @@ public class UrlHelpers {
 	public static final String FILE_MULTIPART_UPLOAD_ID = FILE_MULTIPART+"/{uploadId}";
 	public static final String FILE_MULTIPART_UPLOAD_ID_PRESIGNED = FILE_MULTIPART_UPLOAD_ID+"/presigned/url/batch";
 	public static final String FILE_MULTIPART_UPLOAD_ID_ADD_PART = FILE_MULTIPART_UPLOAD_ID+"/add/{partNumber}";
+	public static final String FILE_MULTIPART_UPLOAD_ID_ADD_PART_BATCH = FILE_MULTIPART_UPLOAD_ID+"/add/batch";
 	public static final String FILE_MULTIPART_UPLOAD_ID_COMPLETE = FILE_MULTIPART_UPLOAD_ID+"/complete";
 	
 	// version
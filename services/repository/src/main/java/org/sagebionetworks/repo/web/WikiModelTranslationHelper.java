@@ -5,15 +5,13 @@ import static org.sagebionetworks.downloadtools.FileUtils.DEFAULT_FILE_CHARSET;
 import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.Charset;
 import java.util.Date;
 
 import org.apache.http.entity.ContentType;
-import org.sagebionetworks.aws.SynapseS3Client;
 import org.sagebionetworks.downloadtools.FileUtils;
 import org.sagebionetworks.ids.IdGenerator;
 import org.sagebionetworks.repo.manager.file.FileHandleManager;
+import org.sagebionetworks.repo.manager.wiki.WikiMarkdownCache;
 import org.sagebionetworks.repo.model.DatastoreException;
 import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.dbo.file.FileHandleDao;
@@ -22,11 +20,8 @@ import org.sagebionetworks.repo.model.v2.wiki.V2WikiPage;
 import org.sagebionetworks.repo.model.wiki.WikiPage;
 import org.sagebionetworks.repo.transactions.WriteTransaction;
 import org.sagebionetworks.util.FileProvider;
-import org.sagebionetworks.utils.ContentTypeUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import com.amazonaws.services.s3.model.S3Object;
-
 /**
  * Utility for converting between the WikiPage and V2WikiPage models.
  * @author hso
@@ -38,22 +33,21 @@ public class WikiModelTranslationHelper implements WikiModelTranslator {
 	@Autowired
 	FileHandleDao fileMetadataDao;	
 	@Autowired
-	SynapseS3Client s3Client;
-	@Autowired
 	FileProvider tempFileProvider;
 	@Autowired
 	IdGenerator idGenerator;
+	@Autowired
+	WikiMarkdownCache wikiMarkdownCache;
 	
 	public static final String APPLICATION_OCTET_STREAM = "application/octet-stream";
 
 	public WikiModelTranslationHelper() {}
 	
 	public WikiModelTranslationHelper(FileHandleManager fileHandleManager, FileHandleDao fileMetadataDao,
-			SynapseS3Client s3Client, FileProvider tempFileProvider) {
+			FileProvider tempFileProvider) {
 		super();
 		this.fileMetadataDao = fileMetadataDao;
 		this.fileHandleManager = fileHandleManager;
-		this.s3Client = s3Client;
 		this.tempFileProvider = tempFileProvider;
 	}
 	
@@ -113,18 +107,9 @@ public class WikiModelTranslationHelper implements WikiModelTranslator {
 		wiki.setTitle(from.getTitle());
 		wiki.setAttachmentFileHandleIds(from.getAttachmentFileHandleIds());
 		
-		S3FileHandle markdownHandle = (S3FileHandle) fileMetadataDao.get(from.getMarkdownFileHandleId());
-		// Retrieve uploaded markdown
-		S3Object s3Object = s3Client.getObject(markdownHandle.getBucketName(), markdownHandle.getKey());
-		String contentTypeString = s3Object.getObjectMetadata().getContentType();
-		Charset charset = ContentTypeUtil.getCharsetFromContentTypeString(contentTypeString);
-		
-		try (InputStream in = s3Object.getObjectContent()) {
-			// Read the file as a string
-			String markdownString = FileUtils.readStreamAsString(in, charset, /*gunzip*/true);
-			wiki.setMarkdown(markdownString);
-			return wiki;
-		}
+		// The decompressed markdown is cached until the wiki changes
+		wiki.setMarkdown(wikiMarkdownCache.getMarkdown(from));
+		return wiki;
 
 	}
 
@@ -7,7 +7,9 @@ import org.apache.commons.dbcp2.BasicDataSource;
 import org.sagebionetworks.LoggerProvider;
 import org.sagebionetworks.StackConfiguration;
 import org.sagebionetworks.cloudwatch.Consumer;
+import org.sagebionetworks.repo.manager.ProjectStatsManager;
 import org.sagebionetworks.repo.manager.audit.AccessRecorder;
+import org.sagebionetworks.repo.manager.authentication.PersonalAccessTokenUsageRecorder;
 import org.sagebionetworks.repo.manager.config.SimpleTriggerBuilder;
 import org.sagebionetworks.repo.manager.monitoring.ApplicationType;
 import org.sagebionetworks.repo.manager.monitoring.DataSourcePoolMonitor;
@@ -69,6 +71,26 @@ public class RepoWebConfiguration implements WebMvcConfigurer {
 				.build();
 	}
 	
+	@Bean
+	public SimpleTriggerFactoryBean personalAccessTokenUsageRecorderTrigger(PersonalAccessTokenUsageRecorder personalAccessTokenUsageRecorder) {
+		return new SimpleTriggerBuilder()
+				.withTargetObject(personalAccessTokenUsageRecorder)
+				.withTargetMethod("timerFired")
+				.withRepeatInterval(5_000)
+				.withStartDelay(571)
+				.build();
+	}
+	
+	@Bean
+	public SimpleTriggerFactoryBean projectStatsFlushTrigger(ProjectStatsManager projectStatsManager) {
+		return new SimpleTriggerBuilder()
+				.withTargetObject(projectStatsManager)
+				.withTargetMethod("flushProjectStats")
+				.withRepeatInterval(2_000)
+				.withStartDelay(2237)
+				.build();
+	}
+	
 	@Bean
 	public SimpleTriggerFactoryBean diskMonitorTrigger(LoggerProvider loggerProvider) {
 		return new SimpleTriggerBuilder()
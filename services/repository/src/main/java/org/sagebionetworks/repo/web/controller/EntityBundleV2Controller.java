@@ -11,6 +11,8 @@ import org.sagebionetworks.repo.model.InvalidModelException;
 import org.sagebionetworks.repo.model.ServiceConstants;
 import org.sagebionetworks.repo.model.UnauthorizedException;
 import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundle;
+import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleBatchRequest;
+import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleBatchResponse;
 import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleCreate;
 import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleRequest;
 import org.sagebionetworks.repo.queryparser.ParseException;
@@ -97,6 +99,25 @@ public class EntityBundleV2Controller {
 		return serviceProvider.getEntityBundleService().getEntityBundle(userId, id, versionNumber, request);
 	}
 
+	/**
+	 * Get the bundles of the current version of a batch of entities with a single POST. At most 20 entities can be requested at once,
+	 * the same parts are included in the bundle of each entity. The bundle of an entity that does not exist or that the caller cannot
+	 * access is not included in the response, the result for this entity includes a failure code instead.
+	 *
+	 * @param userId - The user that is doing the get.
+	 * @param request
+	 * @return One result for each requested entity, in the same order as the request.
+	 */
+	@RequiredScope({view})
+	@ResponseStatus(HttpStatus.OK)
+	@RequestMapping(value = UrlHelpers.ENTITY_BUNDLE_V2_BATCH, method = RequestMethod.POST)
+	public @ResponseBody
+	EntityBundleBatchResponse getEntityBundles(
+			@RequestParam(value = AuthorizationConstants.USER_ID_PARAM) Long userId,
+			@RequestBody EntityBundleBatchRequest request) {
+		return serviceProvider.getEntityBundleService().getEntityBundles(userId, request);
+	}
+
 	/**
 	 * Create an entity and associated components with a single POST.
 	 * Specifically, this operation supports creation of an Entity, its
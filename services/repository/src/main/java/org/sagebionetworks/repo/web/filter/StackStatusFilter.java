@@ -61,10 +61,10 @@ public class StackStatusFilter implements Filter {
 		HttpServletResponse httpResponse = (HttpServletResponse)response;
 		
 		if (!isBypassUri(httpRequest.getRequestURI())) {
-			// Get the current stack status
-			StatusEnum status = stackStatusDao.getCurrentStatus();
+			// Get the current stack status, this is checked on every request so we use the copy shared in memory
+			StackStatus full = stackStatusDao.getCachedFullCurrentStatus();
+			StatusEnum status = full.getStatus();
 			if (StatusEnum.READ_ONLY == status || StatusEnum.DOWN == status) {
-				StackStatus full = stackStatusDao.getFullCurrentStatus();
 				String msg = "Synapse is down for maintenance.";
 				if ((full.getCurrentMessage() != null) && (! full.getCurrentMessage().isEmpty())) {
 					msg = full.getCurrentMessage();
@@ -0,0 +1,469 @@
+package org.sagebionetworks.repo.web.service;
+
+import static org.apache.commons.lang3.BooleanUtils.isTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.sagebionetworks.repo.manager.entity.EntityStateContext;
+import org.sagebionetworks.repo.manager.entity.EntityStateProvider;
+import org.sagebionetworks.repo.manager.table.query.ConcurrentQueryRunner;
+import org.sagebionetworks.repo.manager.trash.EntityInTrashCanException;
+import org.sagebionetworks.repo.model.ACLInheritanceException;
+import org.sagebionetworks.repo.model.AccessControlList;
+import org.sagebionetworks.repo.model.Entity;
+import org.sagebionetworks.repo.model.EntityIdList;
+import org.sagebionetworks.repo.model.EntityPath;
+import org.sagebionetworks.repo.model.EntityTypeUtils;
+import org.sagebionetworks.repo.model.FileEntity;
+import org.sagebionetworks.repo.model.ObjectType;
+import org.sagebionetworks.repo.model.RestrictableObjectType;
+import org.sagebionetworks.repo.model.RestrictionInformationRequest;
+import org.sagebionetworks.repo.model.RestrictionInformationResponse;
+import org.sagebionetworks.repo.model.UnauthorizedException;
+import org.sagebionetworks.repo.model.UserInfo;
+import org.sagebionetworks.repo.model.VersionableEntity;
+import org.sagebionetworks.repo.model.annotation.v2.Annotations;
+import org.sagebionetworks.repo.model.auth.UserEntityPermissions;
+import org.sagebionetworks.repo.model.dao.WikiPageKey;
+import org.sagebionetworks.repo.model.discussion.EntityThreadCount;
+import org.sagebionetworks.repo.model.discussion.EntityThreadCounts;
+import org.sagebionetworks.repo.model.doi.v2.DoiAssociation;
+import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundle;
+import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleBatchFailureCode;
+import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleBatchResult;
+import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleRequest;
+import org.sagebionetworks.repo.model.file.FileHandle;
+import org.sagebionetworks.repo.model.jdo.KeyFactory;
+import org.sagebionetworks.repo.model.provenance.Activity;
+import org.sagebionetworks.repo.model.table.TableBundle;
+import org.sagebionetworks.repo.web.NotFoundException;
+import org.sagebionetworks.util.ValidateArgument;
+
+/**
+ * Assembles the entity bundles of a single request. The parts of a bundle that do not depend on each other are fetched concurrently,
+ * while the entity itself and the parts that depend on it are fetched on the calling thread. All the parts share the same
+ * {@link EntityStateProvider}, bound to each thread that fetches a part (See {@link EntityStateContext}): the access checks made by the
+ * services for each part use the permissions and restrictions loaded once for the request, rather than loading them again for each part.
+ * <p>
+ * An assembler is meant to be used for a single request and then discarded.
+ */
+public class EntityBundleAssembler {
+
+	private final ServiceProvider serviceProvider;
+	private final Long userId;
+	private final UserInfo userInfo;
+	private final EntityStateProvider stateProvider;
+
+	/**
+	 * @param serviceProvider
+	 * @param userInfo        The user that is doing the get
+	 * @param stateProvider   The permissions and restrictions state of the requested entities for the user
+	 */
+	public EntityBundleAssembler(ServiceProvider serviceProvider, UserInfo userInfo, EntityStateProvider stateProvider) {
+		ValidateArgument.required(serviceProvider, "serviceProvider");
+		ValidateArgument.required(userInfo, "userInfo");
+		ValidateArgument.required(stateProvider, "stateProvider");
+		this.serviceProvider = serviceProvider;
+		this.userId = userInfo.getId();
+		this.userInfo = userInfo;
+		this.stateProvider = stateProvider;
+	}
+
+	/**
+	 * Assemble the bundle of a single entity, fetching the independent parts concurrently with the given runner.
+	 *
+	 * @param runner
+	 * @param entityId
+	 * @param versionNumber
+	 * @param request
+	 * @return
+	 */
+	public EntityBundle assemble(ConcurrentQueryRunner runner, String entityId, Long versionNumber, EntityBundleRequest request) {
+		ValidateArgument.required(runner, "runner");
+		return assembleWithThreadCount(new ConcurrentPartFetcher(runner), entityId, versionNumber, request);
+	}
+
+	/**
+	 * Assemble the bundle of a single entity fetching all the parts on the calling thread. This must be used when the caller is in a
+	 * transaction, since the other threads would not see the changes of the transaction.
+	 *
+	 * @param entityId
+	 * @param versionNumber
+	 * @param request
+	 * @return
+	 */
+	public EntityBundle assemble(String entityId, Long versionNumber, EntityBundleRequest request) {
+		return assembleWithThreadCount(new SequentialPartFetcher(), entityId, versionNumber, request);
+	}
+
+	EntityBundle assembleWithThreadCount(PartFetcher fetcher, String entityId, Long versionNumber, EntityBundleRequest request) {
+		ValidateArgument.required(entityId, "entityId");
+		ValidateArgument.required(request, "request");
+		try (EntityStateContext context = EntityStateContext.bind(userInfo, stateProvider)) {
+			Supplier<Map<Long, Long>> threadCounts = null;
+			if (isTrue(request.getIncludeThreadCount())) {
+				threadCounts = fetcher.fetch("threadCount", () -> getThreadCounts(List.of(entityId)));
+			}
+			EntityBundle bundle = assemble(fetcher, entityId, versionNumber, request);
+			if (threadCounts != null) {
+				bundle.setThreadCount(threadCounts.get().getOrDefault(KeyFactory.stringToKey(entityId), 0L));
+			}
+			return bundle;
+		}
+	}
+
+	/**
+	 * Assemble the bundles of the current version of a batch of entities. The bundles are fetched concurrently with the given runner,
+	 * each one on its own thread. A bundle that cannot be fetched because the entity does not exist or because the user cannot access
+	 * one of its parts is reported with a failure code and does not fail the other bundles. The thread counts of all the entities are
+	 * fetched with a single call.
+	 *
+	 * @param runner
+	 * @param entityIds
+	 * @param request
+	 * @return One result for each entity, in the same order
+	 */
+	public List<EntityBundleBatchResult> assembleBatch(ConcurrentQueryRunner runner, List<String> entityIds, EntityBundleRequest request) {
+		ValidateArgument.required(runner, "runner");
+		ValidateArgument.required(entityIds, "entityIds");
+		ValidateArgument.required(request, "request");
+		List<Future<EntityBundleBatchResult>> futures = new ArrayList<>(entityIds.size());
+		for (String entityId : entityIds) {
+			futures.add(runner.submit(entityId, withState(() -> assembleResult(entityId, request))));
+		}
+		Map<Long, Long> threadCounts = null;
+		if (isTrue(request.getIncludeThreadCount()) && !entityIds.isEmpty()) {
+			threadCounts = runner.run("threadCount", () -> {
+				try (EntityStateContext context = EntityStateContext.bind(userInfo, stateProvider)) {
+					return getThreadCounts(entityIds);
+				}
+			});
+		}
+		List<EntityBundleBatchResult> results = futures.stream().map(runner::get).collect(Collectors.toList());
+		if (threadCounts != null) {
+			for (EntityBundleBatchResult result : results) {
+				if (result.getEntityBundle() != null) {
+					result.getEntityBundle().setThreadCount(threadCounts.getOrDefault(KeyFactory.stringToKey(result.getEntityId()), 0L));
+				}
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Assemble the bundle of a single entity of a batch on the calling thread.
+	 *
+	 * @param entityId
+	 * @param request
+	 * @return
+	 */
+	EntityBundleBatchResult assembleResult(String entityId, EntityBundleRequest request) {
+		EntityBundleBatchResult result = new EntityBundleBatchResult().setEntityId(entityId);
+		try {
+			Long versionNumber = null;
+			return result.setEntityBundle(assemble(new SequentialPartFetcher(), entityId, versionNumber, request));
+		} catch (NotFoundException | EntityInTrashCanException e) {
+			return result.setFailureCode(EntityBundleBatchFailureCode.NOT_FOUND);
+		} catch (UnauthorizedException e) {
+			return result.setFailureCode(EntityBundleBatchFailureCode.UNAUTHORIZED);
+		}
+	}
+
+	/**
+	 * Assemble all the parts of the bundle but the thread count. The independent parts are submitted to the given fetcher first, then the
+	 * entity and the parts that depend on it are fetched on the calling thread.
+	 */
+	EntityBundle assemble(PartFetcher fetcher, String entityId, Long versionNumber, EntityBundleRequest request) {
+		Supplier<Annotations> annotations = null;
+		if (isTrue(request.getIncludeAnnotations())) {
+			annotations = fetcher.fetch("annotations", () -> getAnnotations(entityId, versionNumber));
+		}
+		Supplier<UserEntityPermissions> permissions = null;
+		if (isTrue(request.getIncludePermissions())) {
+			permissions = fetcher.fetch("permissions", () -> serviceProvider.getEntityService().getUserEntityPermissions(userId, entityId));
+		}
+		Supplier<EntityPath> path = null;
+		if (isTrue(request.getIncludeEntityPath())) {
+			path = fetcher.fetch("path", () -> new EntityPath().setPath(serviceProvider.getEntityService().getEntityPath(userId, entityId)));
+		}
+		Supplier<Boolean> hasChildren = null;
+		if (isTrue(request.getIncludeHasChildren())) {
+			hasChildren = fetcher.fetch("hasChildren", () -> serviceProvider.getEntityService().doesEntityHaveChildren(userId, entityId));
+		}
+		Supplier<AccessControlList> accessControlList = null;
+		if (isTrue(request.getIncludeAccessControlList())) {
+			accessControlList = fetcher.fetch("accessControlList", () -> getAccessControlList(entityId));
+		}
+		Supplier<AccessControlList> benefactorAcl = null;
+		if (isTrue(request.getIncludeBenefactorACL())) {
+			benefactorAcl = fetcher.fetch("benefactorAcl", () -> getBenefactorAcl(entityId));
+		}
+		Supplier<List<FileHandle>> fileHandles = null;
+		if (isTrue(request.getIncludeFileHandles()) || isTrue(request.getIncludeFileName())) {
+			fileHandles = fetcher.fetch("fileHandles", () -> getFileHandles(entityId, versionNumber));
+		}
+		Supplier<TableBundle> tableBundle = null;
+		if (isTrue(request.getIncludeTableBundle())) {
+			// This mask only has meaning for implementations of tables.
+			tableBundle = fetcher.fetch("tableBundle",
+					() -> serviceProvider.getTableServices().getTableBundle(KeyFactory.idAndVersion(entityId, versionNumber)));
+		}
+		Supplier<String> rootWikiId = null;
+		if (isTrue(request.getIncludeRootWikiId())) {
+			rootWikiId = fetcher.fetch("rootWikiId", () -> getRootWikiId(entityId));
+		}
+		Supplier<RestrictionInformationResponse> restrictionInformation = null;
+		if (isTrue(request.getIncludeRestrictionInformation())) {
+			restrictionInformation = fetcher.fetch("restrictionInformation", () -> getRestrictionInformation(entityId));
+		}
+		Supplier<Activity> activity = null;
+		if (isTrue(request.getIncludeActivity())) {
+			activity = fetcher.fetch("activity", () -> getActivity(entityId));
+		}
+
+		EntityBundle eb = new EntityBundle();
+		// The entity and the DOI that depends on it are fetched on the calling thread in the meantime
+		Entity entity = null;
+		if (isTrue(request.getIncludeEntity()) || isTrue(request.getIncludeFileName())) {
+			entity = getEntity(entityId, versionNumber);
+			if (isTrue(request.getIncludeEntity())) {
+				eb.setEntity(entity);
+				eb.setEntityType(EntityTypeUtils.getEntityTypeForClass(entity.getClass()));
+			}
+		}
+		if (isTrue(request.getIncludeDOIAssociation())) {
+			eb.setDoiAssociation(getDoiAssociation(entityId, versionNumber, entity));
+		}
+		if (annotations != null) {
+			eb.setAnnotations(annotations.get());
+		}
+		if (permissions != null) {
+			eb.setPermissions(permissions.get());
+		}
+		if (path != null) {
+			eb.setPath(path.get());
+		}
+		if (hasChildren != null) {
+			eb.setHasChildren(hasChildren.get());
+		}
+		if (accessControlList != null) {
+			eb.setAccessControlList(accessControlList.get());
+		}
+		if (benefactorAcl != null) {
+			eb.setBenefactorAcl(benefactorAcl.get());
+		}
+		if (fileHandles != null && isTrue(request.getIncludeFileHandles())) {
+			eb.setFileHandles(fileHandles.get());
+		}
+		if (tableBundle != null) {
+			eb.setTableBundle(tableBundle.get());
+		}
+		if (rootWikiId != null) {
+			eb.setRootWikiId(rootWikiId.get());
+		}
+		if (isTrue(request.getIncludeFileName()) && (entity instanceof FileEntity)) {
+			eb.setFileName(getFileName((FileEntity) entity, fileHandles.get()));
+		}
+		if (restrictionInformation != null) {
+			eb.setRestrictionInformation(restrictionInformation.get());
+		}
+		if (activity != null) {
+			eb.setActivity(activity.get());
+		}
+		return eb;
+	}
+
+	Entity getEntity(String entityId, Long versionNumber) {
+		if (versionNumber == null) {
+			return serviceProvider.getEntityService().getEntity(userId, entityId);
+		}
+		return serviceProvider.getEntityService().getEntityForVersion(userId, entityId, versionNumber);
+	}
+
+	Annotations getAnnotations(String entityId, Long versionNumber) {
+		if (versionNumber == null) {
+			return serviceProvider.getEntityService().getEntityAnnotations(userId, entityId);
+		}
+		return serviceProvider.getEntityService().getEntityAnnotationsForVersion(userId, entityId, versionNumber);
+	}
+
+	AccessControlList getAccessControlList(String entityId) {
+		try {
+			return serviceProvider.getEntityService().getEntityACL(entityId, userId);
+		} catch (ACLInheritanceException e) {
+			// ACL is inherited from benefactor. Set ACL to null.
+			return null;
+		}
+	}
+
+	AccessControlList getBenefactorAcl(String entityId) throws ACLInheritanceException {
+		try {
+			// If this entity is its own benefactor then we just get the ACL
+			return serviceProvider.getEntityService().getEntityACL(entityId, userId);
+		} catch (ACLInheritanceException e) {
+			// ACL is inherited from benefactor. So get the benefactor's ACL
+			return serviceProvider.getEntityService().getEntityACL(e.getBenefactorId(), userId);
+		}
+	}
+
+	List<FileHandle> getFileHandles(String entityId, Long versionNumber) {
+		try {
+			if (versionNumber == null) {
+				return serviceProvider.getEntityService().getEntityFileHandlesForCurrentVersion(userId, entityId).getList();
+			}
+			return serviceProvider.getEntityService().getEntityFileHandlesForVersion(userId, entityId, versionNumber).getList();
+		} catch (NotFoundException | UnauthorizedException e) {
+			// If there are no file handle(s) or if the user does not have permission to see the handles then set them to be an empty list.
+			return new LinkedList<FileHandle>();
+		}
+	}
+
+	String getRootWikiId(String entityId) {
+		try {
+			WikiPageKey rootKey = serviceProvider.getWikiService().getRootWikiKey(userId, entityId, ObjectType.ENTITY);
+			return rootKey.getWikiPageId();
+		} catch (NotFoundException e) {
+			// does not exist
+			return null;
+		}
+	}
+
+	DoiAssociation getDoiAssociation(String entityId, Long versionNumber, Entity entity) {
+		try {
+			if (versionNumber == null && (entity instanceof FileEntity)) {
+				// For File Entities, we assume that the user wants the DOI of the most recent version, if it exists.
+				Long currentVersionNumber = ((VersionableEntity) entity).getVersionNumber();
+				return serviceProvider.getDoiServiceV2().getDoiAssociation(entityId, ObjectType.ENTITY, currentVersionNumber);
+			}
+			// Handle non-versionable entities and other types of versionable entities
+			// For other versionable entity types (e.g. tables), the 'current version' is mutable.
+			// In this case, we get the DOI of the specified version, which may be null.
+			return serviceProvider.getDoiServiceV2().getDoiAssociation(entityId, ObjectType.ENTITY, versionNumber);
+		} catch (NotFoundException e) {
+			// does not exist
+			return null;
+		}
+	}
+
+	static String getFileName(FileEntity fileEntity, List<FileHandle> fileHandles) {
+		if (fileEntity.getFileNameOverride() != null) {
+			return fileEntity.getFileNameOverride();
+		}
+		for (FileHandle fileHandle : fileHandles) {
+			if (fileHandle.getId().equals(fileEntity.getDataFileHandleId())) {
+				return fileHandle.getFileName();
+			}
+		}
+		return null;
+	}
+
+	RestrictionInformationResponse getRestrictionInformation(String entityId) {
+		RestrictionInformationRequest restrictionInfoRequest = new RestrictionInformationRequest();
+		restrictionInfoRequest.setObjectId(entityId);
+		restrictionInfoRequest.setRestrictableObjectType(RestrictableObjectType.ENTITY);
+		return serviceProvider.getDataAccessService().getRestrictionInformation(userId, restrictionInfoRequest);
+	}
+
+	Activity getActivity(String entityId) {
+		try {
+			return serviceProvider.getEntityService().getActivityForEntity(userId, entityId);
+		} catch (NotFoundException e) {
+			// does not exist
+			return null;
+		}
+	}
+
+	/**
+	 * Fetch the number of discussion threads that reference each of the given entities with a single call.
+	 *
+	 * @param entityIds
+	 * @return The number of threads, keyed by the numeric id of the entities that are referenced by at least one thread
+	 */
+	Map<Long, Long> getThreadCounts(List<String> entityIds) {
+		EntityIdList entityIdList = new EntityIdList();
+		entityIdList.setIdList(entityIds);
+		EntityThreadCounts result = serviceProvider.getDiscussionService().getThreadCounts(userId, entityIdList);
+		if (result.getList().size() > entityIds.size()) {
+			throw new IllegalStateException("Unexpected EntityThreadCount list size: " + result.getList().size());
+		}
+		Map<Long, Long> threadCounts = new HashMap<>(result.getList().size());
+		for (EntityThreadCount count : result.getList()) {
+			threadCounts.put(KeyFactory.stringToKey(count.getEntityId()), count.getCount());
+		}
+		return threadCounts;
+	}
+
+	/**
+	 * Wraps the given part so that it runs with the state provider of the request bound to the thread that runs it.
+	 *
+	 * @param part
+	 * @return
+	 */
+	<T> Callable<T> withState(Callable<T> part) {
+		return () -> {
+			try (EntityStateContext context = EntityStateContext.bind(userInfo, stateProvider)) {
+				return part.call();
+			}
+		};
+	}
+
+	/**
+	 * Abstraction for fetching a part of a bundle, either concurrently or on the calling thread.
+	 */
+	interface PartFetcher {
+
+		/**
+		 * @param name
+		 * @param part
+		 * @return A supplier for the result of the part, that might wait for the part to complete
+		 */
+		<T> Supplier<T> fetch(String name, Callable<T> part);
+	}
+
+	/**
+	 * Submits each part to a runner, the parts run on the runner threads with the state provider of the request.
+	 */
+	class ConcurrentPartFetcher implements PartFetcher {
+
+		private final ConcurrentQueryRunner runner;
+
+		ConcurrentPartFetcher(ConcurrentQueryRunner runner) {
+			this.runner = runner;
+		}
+
+		@Override
+		public <T> Supplier<T> fetch(String name, Callable<T> part) {
+			Future<T> future = runner.submit(name, withState(part));
+			return () -> runner.get(future);
+		}
+	}
+
+	/**
+	 * Fetches each part immediately on the calling thread, used when the bundle itself is already assembled on a runner thread or when
+	 * the caller is in a transaction.
+	 */
+	static class SequentialPartFetcher implements PartFetcher {
+
+		@Override
+		public <T> Supplier<T> fetch(String name, Callable<T> part) {
+			T result;
+			try {
+				result = part.call();
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+			return () -> result;
+		}
+	}
+
+}
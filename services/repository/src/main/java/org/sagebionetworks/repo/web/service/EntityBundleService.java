@@ -4,6 +4,8 @@ import org.sagebionetworks.repo.model.ACLInheritanceException;
 import org.sagebionetworks.repo.model.ConflictingUpdateException;
 import org.sagebionetworks.repo.model.DatastoreException;
 import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundle;
+import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleBatchRequest;
+import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleBatchResponse;
 import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleCreate;
 import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleRequest;
 import org.sagebionetworks.repo.model.InvalidModelException;
@@ -52,6 +54,16 @@ public interface EntityBundleService {
 	public EntityBundle getEntityBundle(Long userId, String entityId, Long versionNumber, EntityBundleRequest request) throws NotFoundException,
 			DatastoreException, UnauthorizedException, ACLInheritanceException, ParseException;
 
+	/**
+	 * Get the bundles of the current version of a batch of entities with a single call. The bundle of an entity that does not exist or
+	 * that the user cannot access is reported with a failure code instead of failing the whole batch.
+	 * 
+	 * @param userId - The user that is doing the get.
+	 * @param request
+	 * @return One result for each requested entity, in the same order.
+	 */
+	public EntityBundleBatchResponse getEntityBundles(Long userId, EntityBundleBatchRequest request);
+
 	/**
 	 * Get an entity and related data with a single GET.
 	 * 
@@ -1,41 +1,29 @@
 package org.sagebionetworks.repo.web.service;
 
-import static org.apache.commons.lang3.BooleanUtils.isTrue;
-
-import java.util.Arrays;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import org.sagebionetworks.repo.manager.UserManager;
 import org.sagebionetworks.repo.manager.dataaccess.AccessRequirementManager;
+import org.sagebionetworks.repo.manager.entity.EntityAuthorizationManager;
+import org.sagebionetworks.repo.manager.entity.EntityStateProvider;
+import org.sagebionetworks.repo.manager.table.query.ConcurrentQueryRunner;
 import org.sagebionetworks.repo.model.ACLInheritanceException;
 import org.sagebionetworks.repo.model.AccessControlList;
 import org.sagebionetworks.repo.model.ConflictingUpdateException;
 import org.sagebionetworks.repo.model.DatastoreException;
 import org.sagebionetworks.repo.model.Entity;
 import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundle;
+import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleBatchRequest;
+import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleBatchResponse;
 import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleCreate;
 import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleRequest;
-import org.sagebionetworks.repo.model.EntityHeader;
-import org.sagebionetworks.repo.model.EntityIdList;
-import org.sagebionetworks.repo.model.EntityPath;
-import org.sagebionetworks.repo.model.EntityTypeUtils;
-import org.sagebionetworks.repo.model.FileEntity;
 import org.sagebionetworks.repo.model.InvalidModelException;
-import org.sagebionetworks.repo.model.ObjectType;
-import org.sagebionetworks.repo.model.RestrictableObjectType;
-import org.sagebionetworks.repo.model.RestrictionInformationRequest;
-import org.sagebionetworks.repo.model.RestrictionInformationResponse;
 import org.sagebionetworks.repo.model.UnauthorizedException;
-import org.sagebionetworks.repo.model.VersionableEntity;
+import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.annotation.v2.Annotations;
 import org.sagebionetworks.repo.model.annotation.v2.AnnotationsV2Translator;
-import org.sagebionetworks.repo.model.dao.WikiPageKey;
-import org.sagebionetworks.repo.model.discussion.EntityThreadCounts;
-import org.sagebionetworks.repo.model.entity.IdAndVersion;
-import org.sagebionetworks.repo.model.file.FileHandle;
 import org.sagebionetworks.repo.model.jdo.KeyFactory;
-import org.sagebionetworks.repo.model.provenance.Activity;
+import org.sagebionetworks.repo.model.message.TransactionSynchronizationProxy;
 import org.sagebionetworks.repo.queryparser.ParseException;
 import org.sagebionetworks.repo.transactions.WriteTransaction;
 import org.sagebionetworks.repo.web.NotFoundException;
@@ -44,6 +32,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 public class EntityBundleServiceImpl implements EntityBundleService {
 	
+	/**
+	 * The maximum number of parts of the same request that are fetched at the same time
+	 */
+	static final int MAX_CONCURRENT_BUNDLE_PARTS = 8;
+
+	/**
+	 * The maximum number of entities in a batch, matches the maximum number of entities of the thread counts
+	 */
+	static final int MAX_ENTITY_BUNDLE_BATCH_SIZE = 20;
+
 	@Autowired
 	ServiceProvider serviceProvider;
 
@@ -53,15 +51,34 @@ public class EntityBundleServiceImpl implements EntityBundleService {
 	@Autowired
 	AccessRequirementManager accessRequirementManager;
 
+	@Autowired
+	EntityAuthorizationManager entityAuthorizationManager;
+
+	@Autowired
+	TransactionSynchronizationProxy transactionSynchronization;
+
+	@Autowired
+	ExecutorService entityBundleThreadPool;
+
 	public EntityBundleServiceImpl() {}
 
 	/**
 	 * Direct constructor (for testing purposes)
 	 * 
 	 * @param serviceProvider
+	 * @param userManager
+	 * @param entityAuthorizationManager
+	 * @param transactionSynchronization
+	 * @param entityBundleThreadPool
 	 */
-	public EntityBundleServiceImpl(ServiceProvider serviceProvider) {
+	public EntityBundleServiceImpl(ServiceProvider serviceProvider, UserManager userManager,
+			EntityAuthorizationManager entityAuthorizationManager, TransactionSynchronizationProxy transactionSynchronization,
+			ExecutorService entityBundleThreadPool) {
 		this.serviceProvider = serviceProvider;
+		this.userManager = userManager;
+		this.entityAuthorizationManager = entityAuthorizationManager;
+		this.transactionSynchronization = transactionSynchronization;
+		this.entityBundleThreadPool = entityBundleThreadPool;
 	}
 
 	@Override
@@ -75,148 +92,38 @@ public class EntityBundleServiceImpl implements EntityBundleService {
 										Long versionNumber, EntityBundleRequest request)
 			throws NotFoundException, DatastoreException,
 			UnauthorizedException, ACLInheritanceException, ParseException {
-
-		EntityBundle eb = new EntityBundle();
-		Entity entity = null;
-		IdAndVersion idAndVersion = KeyFactory.idAndVersion(entityId, versionNumber);
-		if (isTrue(request.getIncludeEntity()) || isTrue(request.getIncludeFileName())) {
-			if(versionNumber == null) {
-				entity = serviceProvider.getEntityService().getEntity(userId, entityId);
-			} else {
-				entity = serviceProvider.getEntityService().getEntityForVersion(userId, entityId, versionNumber);
-			}
-			if (isTrue(request.getIncludeEntity())) {
-				eb.setEntity(entity);
-				eb.setEntityType(EntityTypeUtils.getEntityTypeForClass(entity.getClass()));
-			}
+		ValidateArgument.required(entityId, "entityId");
+		ValidateArgument.required(request, "request");
+		UserInfo userInfo = userManager.getUserInfo(userId);
+		// The permissions and restrictions of the entity are loaded once and shared by all the parts of the bundle
+		EntityStateProvider stateProvider = entityAuthorizationManager.createEntityStateProvider(userInfo,
+				KeyFactory.stringToKeySingletonList(entityId));
+		EntityBundleAssembler assembler = new EntityBundleAssembler(serviceProvider, userInfo, stateProvider);
+		if (transactionSynchronization.isActualTransactionActive()) {
+			// The parts fetched on other threads would not see the changes of the transaction (e.g. creating a bundle)
+			return assembler.assemble(entityId, versionNumber, request);
 		}
-		if (isTrue(request.getIncludeAnnotations())) {
-			if(versionNumber == null) {
-				eb.setAnnotations(serviceProvider.getEntityService().getEntityAnnotations(userId, entityId));
-			} else {
-				eb.setAnnotations(serviceProvider.getEntityService().getEntityAnnotationsForVersion(userId, entityId, versionNumber));
-			}
-		}
-		if (isTrue(request.getIncludePermissions())) {
-			eb.setPermissions(serviceProvider.getEntityService().getUserEntityPermissions(userId, entityId));
-		}
-		if (isTrue(request.getIncludeEntityPath())) {
-			List<EntityHeader> path = serviceProvider.getEntityService().getEntityPath(userId, entityId);
-			EntityPath ep = new EntityPath();
-			ep.setPath(path);
-			eb.setPath(ep);
-		}
-		if (isTrue(request.getIncludeHasChildren())) {
-			eb.setHasChildren(serviceProvider.getEntityService().doesEntityHaveChildren(userId, entityId));
-		}
-		if (isTrue(request.getIncludeAccessControlList())) {
-			try {
-				eb.setAccessControlList(serviceProvider.getEntityService().getEntityACL(entityId, userId));
-			} catch (ACLInheritanceException e) {
-				// ACL is inherited from benefactor. Set ACL to null.
-				eb.setAccessControlList(null);
-			}
+		try (ConcurrentQueryRunner runner = new ConcurrentQueryRunner(entityBundleThreadPool, MAX_CONCURRENT_BUNDLE_PARTS)) {
+			return assembler.assemble(runner, entityId, versionNumber, request);
 		}
-		if (isTrue(request.getIncludeBenefactorACL())) {
-			try {
-				// If this entity is its own benefactor then we just get the ACL
-				eb.setBenefactorAcl(serviceProvider.getEntityService().getEntityACL(entityId, userId));
-			} catch (ACLInheritanceException e) {
-				// ACL is inherited from benefactor. So get the benefactor's ACL
-				eb.setBenefactorAcl(serviceProvider.getEntityService().getEntityACL(e.getBenefactorId(), userId));
-			}
-		}
-		List<FileHandle> fileHandles = null;
-		if (isTrue(request.getIncludeFileHandles()) || isTrue(request.getIncludeFileName())) {
-			try {
-				if (versionNumber == null) {
-					fileHandles = serviceProvider.getEntityService().
-							getEntityFileHandlesForCurrentVersion(userId, entityId).getList();
-				} else{
-					fileHandles = serviceProvider.getEntityService().
-							getEntityFileHandlesForVersion(userId, entityId, versionNumber).getList();
-				}
-			}catch (NotFoundException | UnauthorizedException e) {
-				// If there are no file handle(s) or if the user does not have permission to see the handles then set them to be an empty list.
-				fileHandles = new LinkedList<FileHandle>();
-			}
-			if (isTrue(request.getIncludeFileHandles())) {
-				eb.setFileHandles(fileHandles);
-			}
-		}
-		if (isTrue(request.getIncludeTableBundle())) {
-			// This mask only has meaning for implementations of tables.
-			eb.setTableBundle(serviceProvider.getTableServices().getTableBundle(idAndVersion));
-		}
-		if(isTrue(request.getIncludeRootWikiId())){
-			try {
-				WikiPageKey rootKey = serviceProvider.getWikiService().getRootWikiKey(userId, entityId, ObjectType.ENTITY);
-				eb.setRootWikiId(rootKey.getWikiPageId());
-			} catch (NotFoundException e) {
-				// does not exist
-				eb.setRootWikiId(null);
-			}
-		}
-		if(isTrue(request.getIncludeDOIAssociation()) ){
-			try {
-				if (versionNumber == null && (entity instanceof FileEntity)) {
-					// For File Entities, we assume that the user wants the DOI of the most recent version, if it exists.
-					Long currentVersionNumber = ((VersionableEntity) entity).getVersionNumber();
-					eb.setDoiAssociation(serviceProvider.getDoiServiceV2().getDoiAssociation(entityId, ObjectType.ENTITY, currentVersionNumber));
-				} else { // Handle non-versionable entities and other types of versionable entities
-					// For other versionable entity types (e.g. tables), the 'current version' is mutable.
-					// In this case, we get the DOI of the specified version, which may be null.
-					eb.setDoiAssociation(serviceProvider.getDoiServiceV2().getDoiAssociation(entityId, ObjectType.ENTITY, versionNumber));
-				}
-			} catch (NotFoundException e) {
-				// does not exist
-				eb.setDoiAssociation(null);
-			}
-		}
-		if(isTrue(request.getIncludeFileName()) && (entity instanceof FileEntity)){
-			FileEntity fileEntity = (FileEntity)entity;
-			if (fileEntity.getFileNameOverride()==null) {
-				for (FileHandle fileHandle : fileHandles) {
-					if (fileHandle.getId().equals(fileEntity.getDataFileHandleId())) {
-						eb.setFileName(fileHandle.getFileName());
-						break;
-					}
-				}
-			} else {
-				eb.setFileName(fileEntity.getFileNameOverride());
-			}
-		}
-		if (isTrue(request.getIncludeThreadCount())) {
-			EntityIdList entityIdList = new EntityIdList();
-			entityIdList.setIdList(Arrays.asList(entityId));
-			EntityThreadCounts result = serviceProvider.getDiscussionService().getThreadCounts(userId, entityIdList );
-			if (result.getList().isEmpty()) {
-				eb.setThreadCount(0L);
-			} else if (result.getList().size() == 1) {
-				eb.setThreadCount(result.getList().get(0).getCount());
-			} else {
-				throw new IllegalStateException("Unexpected EntityThreadCount list size: "+result.getList().size());
-			}
-		}
-		if (isTrue(request.getIncludeRestrictionInformation())) {
-			RestrictionInformationRequest restrictionInfoRequest = new RestrictionInformationRequest();
-			restrictionInfoRequest.setObjectId(entityId);
-			restrictionInfoRequest.setRestrictableObjectType(RestrictableObjectType.ENTITY);
-			RestrictionInformationResponse restrictionInfo = serviceProvider.getDataAccessService().getRestrictionInformation(userId, restrictionInfoRequest);
-			eb.setRestrictionInformation(restrictionInfo);
-		}
-		if (isTrue(request.getIncludeActivity())) {
-			try {
-				Activity activity = serviceProvider.getEntityService().getActivityForEntity(userId, entityId);
-				eb.setActivity(activity);
-			} catch (NotFoundException e) {
-				// does not exist
-				eb.setActivity(null);
-			}
-		}
-		return eb;
 	}
 
+	@Override
+	public EntityBundleBatchResponse getEntityBundles(Long userId, EntityBundleBatchRequest request) {
+		ValidateArgument.required(request, "request");
+		ValidateArgument.required(request.getEntityIds(), "request.entityIds");
+		ValidateArgument.required(request.getRequest(), "request.request");
+		ValidateArgument.requirement(request.getEntityIds().size() <= MAX_ENTITY_BUNDLE_BATCH_SIZE,
+				"The number of entityIds cannot exceed " + MAX_ENTITY_BUNDLE_BATCH_SIZE);
+		UserInfo userInfo = userManager.getUserInfo(userId);
+		// The permissions and restrictions of all the entities are loaded at once
+		EntityStateProvider stateProvider = entityAuthorizationManager.createEntityStateProvider(userInfo,
+				KeyFactory.stringToKey(request.getEntityIds()));
+		EntityBundleAssembler assembler = new EntityBundleAssembler(serviceProvider, userInfo, stateProvider);
+		try (ConcurrentQueryRunner runner = new ConcurrentQueryRunner(entityBundleThreadPool, MAX_CONCURRENT_BUNDLE_PARTS)) {
+			return new EntityBundleBatchResponse().setResults(assembler.assembleBatch(runner, request.getEntityIds(), request.getRequest()));
+		}
+	}
 
 	@WriteTransaction
 	@Override
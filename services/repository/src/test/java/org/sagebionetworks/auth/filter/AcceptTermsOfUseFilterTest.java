@@ -8,7 +8,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.sagebionetworks.auth.services.AuthenticationService;
+import org.sagebionetworks.repo.manager.authentication.PrincipalAuthenticationCache;
 import org.sagebionetworks.repo.model.AuthorizationConstants.BOOTSTRAP_PRINCIPAL;
 
 import javax.servlet.FilterChain;
@@ -36,7 +36,7 @@ class AcceptTermsOfUseFilterTest {
 	private PrintWriter mockPrintWriter;
 	
 	@Mock
-	private AuthenticationService mockAuthService;
+	private PrincipalAuthenticationCache mockPrincipalAuthenticationCache;
 	
 	@InjectMocks
 	private AcceptTermsOfUseFilter filter;
@@ -50,12 +50,12 @@ class AcceptTermsOfUseFilterTest {
 	@Test
 	void testHASAcceptedTermsOfUse() throws Exception {
 		when(mockRequest.getParameter("userId")).thenReturn(userId.toString());
-		when(mockAuthService.hasUserAcceptedTermsOfUse(userId)).thenReturn(true);
+		when(mockPrincipalAuthenticationCache.hasUserAcceptedTermsOfUse(userId)).thenReturn(true);
 		
 		// method under test
 		filter.doFilter(mockRequest, mockResponse, mockFilterChain);
 		
-		verify(mockAuthService).hasUserAcceptedTermsOfUse(userId);
+		verify(mockPrincipalAuthenticationCache).hasUserAcceptedTermsOfUse(userId);
 		verify(mockFilterChain).doFilter(mockRequest, mockResponse);
 	}
 	
@@ -66,7 +66,7 @@ class AcceptTermsOfUseFilterTest {
 		// method under test
 		filter.doFilter(mockRequest, mockResponse, mockFilterChain);
 		
-		verify(mockAuthService, never()).hasUserAcceptedTermsOfUse(userId);
+		verify(mockPrincipalAuthenticationCache, never()).hasUserAcceptedTermsOfUse(userId);
 		verify(mockFilterChain).doFilter(mockRequest, mockResponse);
 	}
 	
@@ -78,7 +78,7 @@ class AcceptTermsOfUseFilterTest {
 		// method under test
 		filter.doFilter(mockRequest, mockResponse, mockFilterChain);
 		
-		verify(mockAuthService).hasUserAcceptedTermsOfUse(userId);
+		verify(mockPrincipalAuthenticationCache).hasUserAcceptedTermsOfUse(userId);
 		
 		ArgumentCaptor<Integer> captor = ArgumentCaptor.forClass(Integer.class);
 		verify(mockResponse).setStatus((Integer)captor.capture());
@@ -95,7 +95,7 @@ class AcceptTermsOfUseFilterTest {
 		// method under test
 		filter.doFilter(mockRequest, mockResponse, mockFilterChain);
 		
-		verify(mockAuthService, never()).hasUserAcceptedTermsOfUse(anyLong());
+		verify(mockPrincipalAuthenticationCache, never()).hasUserAcceptedTermsOfUse(anyLong());
 
 		ArgumentCaptor<Integer> captor = ArgumentCaptor.forClass(Integer.class);
 		verify(mockResponse).setStatus((Integer)captor.capture());
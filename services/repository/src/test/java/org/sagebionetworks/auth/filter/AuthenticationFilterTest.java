@@ -15,14 +15,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.sagebionetworks.auth.services.AuthenticationService;
-import org.sagebionetworks.repo.manager.UserManager;
+import org.sagebionetworks.repo.manager.authentication.PrincipalAuthenticationCache;
 import org.sagebionetworks.repo.manager.oauth.OIDCTokenHelper;
 import org.sagebionetworks.repo.manager.oauth.OpenIDConnectManager;
 import org.sagebionetworks.repo.model.AuthenticationMethod;
 import org.sagebionetworks.repo.model.AuthorizationConstants;
 import org.sagebionetworks.repo.model.AuthorizationConstants.BOOTSTRAP_PRINCIPAL;
 import org.sagebionetworks.repo.model.UnauthenticatedException;
-import org.sagebionetworks.repo.model.principal.PrincipalAlias;
 import org.sagebionetworks.repo.web.OAuthErrorCode;
 import org.sagebionetworks.repo.web.OAuthUnauthenticatedException;
 import org.sagebionetworks.securitytools.HMACUtils;
@@ -86,7 +85,7 @@ public class AuthenticationFilterTest {
 	private AuthenticationService mockAuthService;
 	
 	@Mock
-	private UserManager mockUserManager;
+	private PrincipalAuthenticationCache mockPrincipalAuthenticationCache;
 	
 	@InjectMocks
 	private AuthenticationFilter filter;
@@ -98,7 +97,6 @@ public class AuthenticationFilterTest {
 	private static final String BEARER_TOKEN;
 	private static final String BEARER_TOKEN_HEADER;
 	private static final List<String> HEADER_NAMES = Collections.singletonList("Authorization");
-	private PrincipalAlias pa;
 	
 	static {
 		Claims claims = new DefaultClaims();
@@ -111,9 +109,6 @@ public class AuthenticationFilterTest {
 	
 	@BeforeEach
 	public void setupFilter() throws Exception {
-		pa = new PrincipalAlias();
-		pa.setPrincipalId(userId);
-
 		filter.init(new FilterConfig() {
 			public String getFilterName() { 
 				return ""; 
@@ -193,7 +188,7 @@ public class AuthenticationFilterTest {
 	@Test
 	public void testHmac() throws Exception {
 		when(mockAuthService.getSecretKey(eq(userId))).thenReturn(secretKey);
-		when(mockUserManager.lookupUserByUsernameOrEmail(eq(username))).thenReturn(pa);
+		when(mockPrincipalAuthenticationCache.getPrincipalId(eq(username))).thenReturn(userId);
 
 		MockHttpServletRequest request = new MockHttpServletRequest();
 		String timestamp = new DateTime().toString();
@@ -0,0 +1,207 @@
+package org.sagebionetworks.repo.web.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
+
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.sagebionetworks.auth.filter.AcceptTermsOfUseFilter;
+import org.sagebionetworks.auth.filter.AuthenticationFilter;
+import org.sagebionetworks.repo.manager.AuthenticationManager;
+import org.sagebionetworks.repo.manager.UserManager;
+import org.sagebionetworks.repo.model.AuthorizationConstants;
+import org.sagebionetworks.repo.model.AuthorizationConstants.BOOTSTRAP_PRINCIPAL;
+import org.sagebionetworks.repo.model.UserInfo;
+import org.sagebionetworks.repo.model.auth.NewUser;
+import org.sagebionetworks.securitytools.HMACUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.InfrastructureProxy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Measures the number of database calls made by the filters that run on every request, for an HMAC signed request of a user that
+ * accepted the terms of use. The secret key is the only state that is read on every request.
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(locations = { "classpath:test-context.xml" })
+public class FilterChainDatabaseCallsAutowiredTest {
+
+	private static final String REQUEST_URI = "/repo/v1/entity/syn123";
+	private static final int REQUEST_COUNT = 10;
+
+	@Autowired
+	private StackStatusFilter stackStatusFilter;
+
+	@Autowired
+	private AuthenticationFilter authenticationFilter;
+
+	@Autowired
+	private AcceptTermsOfUseFilter acceptTermsOfUseFilter;
+
+	@Autowired
+	private UserManager userManager;
+
+	@Autowired
+	private AuthenticationManager authManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private DataSource originalDataSource;
+
+	private StatementCountingDataSource countingDataSource;
+
+	private String username;
+
+	private Long userId;
+
+	@BeforeEach
+	public void before() {
+		NewUser user = new NewUser();
+		username = UUID.randomUUID().toString();
+		user.setEmail(username + "@test.com");
+		user.setUserName(username);
+		userId = userManager.createUser(user);
+		authManager.setTermsOfUseAcceptance(userId, true);
+
+		originalDataSource = jdbcTemplate.getDataSource();
+		countingDataSource = new StatementCountingDataSource(originalDataSource);
+		jdbcTemplate.setDataSource(countingDataSource);
+	}
+
+	@AfterEach
+	public void after() {
+		jdbcTemplate.setDataSource(originalDataSource);
+		UserInfo adminUserInfo = userManager.getUserInfo(BOOTSTRAP_PRINCIPAL.THE_ADMIN_USER.getPrincipalId());
+		userManager.deletePrincipal(adminUserInfo, userId);
+	}
+
+	@Test
+	public void testDatabaseCallsPerRequest() throws Exception {
+		String secretKey = authManager.getSecretKey(userId);
+
+		countingDataSource.reset();
+
+		// The first request loads the state of the user
+		assertEquals(HttpServletResponse.SC_NO_CONTENT, doFilter(secretKey).getStatus());
+		assertTrue(countingDataSource.getCount() > 0);
+
+		countingDataSource.reset();
+
+		for (int i = 0; i < REQUEST_COUNT; i++) {
+			// call under test
+			assertEquals(HttpServletResponse.SC_NO_CONTENT, doFilter(secretKey).getStatus());
+		}
+
+		// Only the secret key is read on each request, so that a revoked key is rejected at once on every machine
+		assertEquals(REQUEST_COUNT, countingDataSource.getCount(), "Database calls for " + REQUEST_COUNT + " requests");
+	}
+
+	@Test
+	public void testDatabaseCallsPerRequestAfterSecretKeyChange() throws Exception {
+		String oldSecretKey = authManager.getSecretKey(userId);
+
+		assertEquals(HttpServletResponse.SC_NO_CONTENT, doFilter(oldSecretKey).getStatus());
+
+		authManager.changeSecretKey(userId);
+
+		String newSecretKey = authManager.getSecretKey(userId);
+
+		// call under test
+		assertEquals(HttpServletResponse.SC_UNAUTHORIZED, doFilter(oldSecretKey).getStatus());
+		assertEquals(HttpServletResponse.SC_NO_CONTENT, doFilter(newSecretKey).getStatus());
+	}
+
+	private MockHttpServletResponse doFilter(String secretKey) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setRequestURI(REQUEST_URI);
+		String timestamp = new DateTime().toString();
+		request.addHeader(AuthorizationConstants.USER_ID_HEADER, username);
+		request.addHeader(AuthorizationConstants.SIGNATURE_TIMESTAMP, timestamp);
+		request.addHeader(AuthorizationConstants.SIGNATURE, HMACUtils.generateHMACSHA1Signature(username, REQUEST_URI, timestamp, secretKey));
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		List<Filter> filters = new ArrayList<>();
+		filters.add(stackStatusFilter);
+		filters.add(authenticationFilter);
+		filters.add(acceptTermsOfUseFilter);
+
+		chain(filters, 0).doFilter(request, response);
+
+		return response;
+	}
+
+	private static FilterChain chain(List<Filter> filters, int index) {
+		if (index == filters.size()) {
+			// The end of the chain, nothing else to do
+			return (request, response) -> ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_NO_CONTENT);
+		}
+		return (request, response) -> filters.get(index).doFilter(request, response, chain(filters, index + 1));
+	}
+
+	/**
+	 * Counts the statements created on the connections of the wrapped data source. Implements {@link InfrastructureProxy} so that the
+	 * connections bound to a transaction of the wrapped data source are still found.
+	 */
+	private static class StatementCountingDataSource extends DelegatingDataSource implements InfrastructureProxy {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		StatementCountingDataSource(DataSource target) {
+			super(target);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			Connection connection = super.getConnection();
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+				String name = method.getName();
+				if (name.startsWith("prepare") || name.equals("createStatement")) {
+					count.incrementAndGet();
+				}
+				try {
+					return method.invoke(connection, args);
+				} catch (InvocationTargetException e) {
+					throw e.getCause();
+				}
+			});
+		}
+
+		@Override
+		public Object getWrappedObject() {
+			return getTargetDataSource();
+		}
+
+		int getCount() {
+			return count.get();
+		}
+
+		void reset() {
+			count.set(0);
+		}
+	}
+
+}
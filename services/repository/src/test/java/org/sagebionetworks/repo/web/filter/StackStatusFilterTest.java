@@ -59,13 +59,11 @@ public class StackStatusFilterTest {
 	 * @param toSet
 	 */
 	private void mockFullStackStatus(StatusEnum toSet, String msg){
-		when(stackStatusDao.getCurrentStatus()).thenReturn(toSet);
-
 		StackStatus status = new StackStatus();
 		status.setStatus(toSet);
 		status.setCurrentMessage(statusMessage(toSet, msg));
 		status.setPendingMaintenanceMessage("Pending the completion of StackStatusInterceptorTest.test");
-		when(stackStatusDao.getFullCurrentStatus()).thenReturn(status);
+		when(stackStatusDao.getCachedFullCurrentStatus()).thenReturn(status);
 	}
 
 	private String statusMessage(StatusEnum status, String msg) {
@@ -85,13 +83,15 @@ public class StackStatusFilterTest {
 	@Test
 	public void testReadWrite() throws Exception {
 		// We should be able to get when the status is read-write
-		when(stackStatusDao.getCurrentStatus()).thenReturn(StatusEnum.READ_WRITE);
+		mockFullStackStatus(StatusEnum.READ_WRITE, null);
 		when(mockHttpRequest.getRequestURI()).thenReturn(GATED_URI);
 		
 		// method under test
 		filter.doFilter(mockHttpRequest, mockHttpResponse, mockFilterChain);
 		
 		verify(mockFilterChain).doFilter(mockHttpRequest, mockHttpResponse);
+		verify(stackStatusDao, never()).getCurrentStatus();
+		verify(stackStatusDao, never()).getFullCurrentStatus();
 	}
 	
 	@Test
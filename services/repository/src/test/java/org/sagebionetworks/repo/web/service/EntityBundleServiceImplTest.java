@@ -24,13 +24,21 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.manager.UserManager;
+import org.sagebionetworks.repo.manager.entity.EntityAuthorizationManager;
+import org.sagebionetworks.repo.manager.entity.EntityStateContext;
+import org.sagebionetworks.repo.manager.entity.EntityStateProvider;
 import org.sagebionetworks.repo.model.ACCESS_TYPE;
 import org.sagebionetworks.repo.model.ACLInheritanceException;
 import org.sagebionetworks.repo.model.AccessControlList;
@@ -49,6 +57,7 @@ import org.sagebionetworks.repo.model.RestrictableObjectType;
 import org.sagebionetworks.repo.model.RestrictionInformationRequest;
 import org.sagebionetworks.repo.model.RestrictionInformationResponse;
 import org.sagebionetworks.repo.model.UnauthorizedException;
+import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.annotation.v2.Annotations;
 import org.sagebionetworks.repo.model.annotation.v2.AnnotationsV2TestUtils;
 import org.sagebionetworks.repo.model.annotation.v2.AnnotationsV2Translator;
@@ -61,11 +70,16 @@ import org.sagebionetworks.repo.model.discussion.EntityThreadCounts;
 import org.sagebionetworks.repo.model.doi.v2.DoiAssociation;
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
 import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundle;
+import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleBatchFailureCode;
+import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleBatchRequest;
+import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleBatchResponse;
+import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleBatchResult;
 import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleCreate;
 import org.sagebionetworks.repo.model.entitybundle.v2.EntityBundleRequest;
 import org.sagebionetworks.repo.model.file.FileHandle;
 import org.sagebionetworks.repo.model.file.FileHandleResults;
 import org.sagebionetworks.repo.model.file.S3FileHandle;
+import org.sagebionetworks.repo.model.message.TransactionSynchronizationProxy;
 import org.sagebionetworks.repo.model.provenance.Activity;
 import org.sagebionetworks.repo.model.table.ColumnModel;
 import org.sagebionetworks.repo.model.table.TableBundle;
@@ -98,6 +112,17 @@ public class EntityBundleServiceImplTest {
 	private DiscussionService mockDiscussionService;
 	@Mock
 	private DataAccessService mockDataAccessService;
+	@Mock
+	private UserManager mockUserManager;
+	@Mock
+	private EntityAuthorizationManager mockEntityAuthorizationManager;
+	@Mock
+	private TransactionSynchronizationProxy mockTransactionSynchronization;
+	@Mock
+	private EntityStateProvider mockStateProvider;
+	
+	private ExecutorService threadPool;
+	private UserInfo userInfo;
 	
 	private Project project;
 	private Folder study;
@@ -123,7 +148,12 @@ public class EntityBundleServiceImplTest {
 	
 	@BeforeEach
 	public void setUp() {
-		entityBundleService = new EntityBundleServiceImpl(mockServiceProvider);
+		threadPool = Executors.newFixedThreadPool(4);
+		entityBundleService = new EntityBundleServiceImpl(mockServiceProvider, mockUserManager, mockEntityAuthorizationManager,
+				mockTransactionSynchronization, threadPool);
+		userInfo = new UserInfo(false, TEST_USER1);
+		lenient().when(mockUserManager.getUserInfo(TEST_USER1)).thenReturn(userInfo);
+		lenient().when(mockEntityAuthorizationManager.createEntityStateProvider(any(), any())).thenReturn(mockStateProvider);
 		mockTableService = mock(TableServices.class);
 		lenient().when(mockServiceProvider.getTableServices()).thenReturn(mockTableService);
 		lenient().when(mockServiceProvider.getWikiService()).thenReturn(mockWikiService);
@@ -189,6 +219,11 @@ public class EntityBundleServiceImplTest {
 		responseBundle.setAccessControlList(acl);
 	}
 	
+	@AfterEach
+	public void after() {
+		threadPool.shutdownNow();
+	}
+	
 	@Test
 	public void testTableData() throws Exception {
 		String entityId = "syn123";
@@ -776,4 +811,246 @@ public class EntityBundleServiceImplTest {
 		assertEquals("entityBundleCreate is required.", errorMessage);
 	}
 	
+	@Test
+	public void testGetEntityBundleWithSharedStateProvider() throws Exception {
+		String entityId = "syn123";
+		List<Long> entityIds = List.of(123L);
+		when(mockStateProvider.getEntityIds()).thenReturn(entityIds);
+		List<Optional<EntityStateProvider>> boundProviders = Collections.synchronizedList(new ArrayList<>());
+		
+		when(mockEntityService.getEntity(TEST_USER1, entityId)).thenAnswer(invocation -> {
+			boundProviders.add(EntityStateContext.getBoundProvider(userInfo, entityIds));
+			return study;
+		});
+		when(mockEntityService.getEntityAnnotations(TEST_USER1, entityId)).thenAnswer(invocation -> {
+			boundProviders.add(EntityStateContext.getBoundProvider(userInfo, entityIds));
+			return annosV2;
+		});
+		when(mockEntityService.getUserEntityPermissions(TEST_USER1, entityId)).thenAnswer(invocation -> {
+			boundProviders.add(EntityStateContext.getBoundProvider(userInfo, entityIds));
+			return new UserEntityPermissions();
+		});
+		
+		EntityBundleRequest request = new EntityBundleRequest()
+				.setIncludeEntity(true)
+				.setIncludeAnnotations(true)
+				.setIncludePermissions(true);
+		
+		// call under test
+		EntityBundle bundle = entityBundleService.getEntityBundle(TEST_USER1, entityId, request);
+		
+		assertEquals(study, bundle.getEntity());
+		assertEquals(annosV2, bundle.getAnnotations());
+		assertEquals(new UserEntityPermissions(), bundle.getPermissions());
+		// All the parts shared the same state
+		assertEquals(Collections.nCopies(3, Optional.of(mockStateProvider)), boundProviders);
+		
+		verify(mockUserManager).getUserInfo(TEST_USER1);
+		verify(mockEntityAuthorizationManager).createEntityStateProvider(userInfo, entityIds);
+		// The context is not bound to the calling thread anymore
+		assertEquals(Optional.empty(), EntityStateContext.getBoundProvider(userInfo, entityIds));
+	}
+	
+	@Test
+	public void testGetEntityBundleFetchesPartsConcurrently() throws Exception {
+		String entityId = "syn123";
+		Thread callingThread = Thread.currentThread();
+		List<Thread> partThreads = Collections.synchronizedList(new ArrayList<>());
+		
+		when(mockEntityService.getEntity(TEST_USER1, entityId)).thenAnswer(invocation -> {
+			partThreads.add(Thread.currentThread());
+			return study;
+		});
+		when(mockEntityService.getEntityAnnotations(TEST_USER1, entityId)).thenAnswer(invocation -> {
+			partThreads.add(Thread.currentThread());
+			return annosV2;
+		});
+		
+		EntityBundleRequest request = new EntityBundleRequest()
+				.setIncludeEntity(true)
+				.setIncludeAnnotations(true);
+		
+		// call under test
+		entityBundleService.getEntityBundle(TEST_USER1, entityId, request);
+		
+		// The entity is fetched on the calling thread while the annotations are fetched on the pool
+		assertEquals(2, partThreads.size());
+		assertTrue(partThreads.contains(callingThread));
+		assertTrue(partThreads.stream().anyMatch(thread -> thread != callingThread));
+	}
+	
+	@Test
+	public void testGetEntityBundleWithTransaction() throws Exception {
+		String entityId = "syn123";
+		Thread callingThread = Thread.currentThread();
+		List<Thread> partThreads = Collections.synchronizedList(new ArrayList<>());
+		
+		when(mockTransactionSynchronization.isActualTransactionActive()).thenReturn(true);
+		when(mockEntityService.getEntity(TEST_USER1, entityId)).thenAnswer(invocation -> {
+			partThreads.add(Thread.currentThread());
+			return study;
+		});
+		when(mockEntityService.getEntityAnnotations(TEST_USER1, entityId)).thenAnswer(invocation -> {
+			partThreads.add(Thread.currentThread());
+			return annosV2;
+		});
+		
+		EntityBundleRequest request = new EntityBundleRequest()
+				.setIncludeEntity(true)
+				.setIncludeAnnotations(true);
+		
+		// call under test
+		entityBundleService.getEntityBundle(TEST_USER1, entityId, request);
+		
+		// The other threads would not see the changes of the transaction
+		assertEquals(List.of(callingThread, callingThread), partThreads);
+	}
+	
+	@Test
+	public void testGetEntityBundleWithPartFailure() throws Exception {
+		String entityId = "syn123";
+		UnauthorizedException ex = new UnauthorizedException("Nope");
+		
+		when(mockEntityService.getEntity(TEST_USER1, entityId)).thenReturn(study);
+		when(mockEntityService.getEntityAnnotations(TEST_USER1, entityId)).thenThrow(ex);
+		
+		EntityBundleRequest request = new EntityBundleRequest()
+				.setIncludeEntity(true)
+				.setIncludeAnnotations(true);
+		
+		UnauthorizedException result = assertThrows(UnauthorizedException.class, () -> {			
+			// call under test
+			entityBundleService.getEntityBundle(TEST_USER1, entityId, request);
+		});
+		
+		assertSame(ex, result);
+	}
+	
+	@Test
+	public void testGetEntityBundles() throws Exception {
+		Folder one = new Folder().setId("syn1");
+		Folder two = new Folder().setId("syn2");
+		
+		when(mockEntityService.getEntity(TEST_USER1, "syn1")).thenReturn(one);
+		when(mockEntityService.getEntity(TEST_USER1, "syn2")).thenReturn(two);
+		
+		threadCounts = new EntityThreadCounts().setList(List.of(new EntityThreadCount().setEntityId("syn2").setCount(3L)));
+		
+		when(mockDiscussionService.getThreadCounts(eq(TEST_USER1), any(EntityIdList.class))).thenReturn(threadCounts);
+		
+		EntityBundleBatchRequest request = new EntityBundleBatchRequest()
+				.setEntityIds(List.of("syn1", "syn2"))
+				.setRequest(new EntityBundleRequest().setIncludeEntity(true).setIncludeThreadCount(true));
+		
+		// call under test
+		EntityBundleBatchResponse response = entityBundleService.getEntityBundles(TEST_USER1, request);
+		
+		EntityBundleBatchResponse expected = new EntityBundleBatchResponse().setResults(List.of(
+			new EntityBundleBatchResult().setEntityId("syn1").setEntityBundle(new EntityBundle().setEntity(one).setEntityType(EntityType.folder).setThreadCount(0L)),
+			new EntityBundleBatchResult().setEntityId("syn2").setEntityBundle(new EntityBundle().setEntity(two).setEntityType(EntityType.folder).setThreadCount(3L))
+		));
+		
+		assertEquals(expected, response);
+		
+		verify(mockUserManager).getUserInfo(TEST_USER1);
+		// The state of all the entities is loaded at once
+		verify(mockEntityAuthorizationManager).createEntityStateProvider(userInfo, List.of(1L, 2L));
+		// The thread counts of all the entities are fetched with a single call
+		verify(mockDiscussionService).getThreadCounts(TEST_USER1, new EntityIdList().setIdList(List.of("syn1", "syn2")));
+	}
+	
+	@Test
+	public void testGetEntityBundlesWithFailures() throws Exception {
+		Folder one = new Folder().setId("syn1");
+		
+		when(mockEntityService.getEntity(TEST_USER1, "syn1")).thenReturn(one);
+		when(mockEntityService.getEntity(TEST_USER1, "syn2")).thenThrow(new NotFoundException("Not found"));
+		when(mockEntityService.getEntity(TEST_USER1, "syn3")).thenThrow(new UnauthorizedException("Nope"));
+		
+		EntityBundleBatchRequest request = new EntityBundleBatchRequest()
+				.setEntityIds(List.of("syn1", "syn2", "syn3"))
+				.setRequest(new EntityBundleRequest().setIncludeEntity(true));
+		
+		// call under test
+		EntityBundleBatchResponse response = entityBundleService.getEntityBundles(TEST_USER1, request);
+		
+		EntityBundleBatchResponse expected = new EntityBundleBatchResponse().setResults(List.of(
+			new EntityBundleBatchResult().setEntityId("syn1").setEntityBundle(new EntityBundle().setEntity(one).setEntityType(EntityType.folder)),
+			new EntityBundleBatchResult().setEntityId("syn2").setFailureCode(EntityBundleBatchFailureCode.NOT_FOUND),
+			new EntityBundleBatchResult().setEntityId("syn3").setFailureCode(EntityBundleBatchFailureCode.UNAUTHORIZED)
+		));
+		
+		assertEquals(expected, response);
+	}
+	
+	@Test
+	public void testGetEntityBundlesWithEmptyIds() throws Exception {
+		EntityBundleBatchRequest request = new EntityBundleBatchRequest()
+				.setEntityIds(Collections.emptyList())
+				.setRequest(new EntityBundleRequest().setIncludeEntity(true).setIncludeThreadCount(true));
+		
+		// call under test
+		EntityBundleBatchResponse response = entityBundleService.getEntityBundles(TEST_USER1, request);
+		
+		assertEquals(new EntityBundleBatchResponse().setResults(Collections.emptyList()), response);
+		
+		verify(mockDiscussionService, never()).getThreadCounts(any(), any());
+	}
+	
+	@Test
+	public void testGetEntityBundlesWithTooManyIds() {
+		List<String> entityIds = new ArrayList<>();
+		for (int i = 0; i < EntityBundleServiceImpl.MAX_ENTITY_BUNDLE_BATCH_SIZE + 1; i++) {
+			entityIds.add("syn" + i);
+		}
+		EntityBundleBatchRequest request = new EntityBundleBatchRequest()
+				.setEntityIds(entityIds)
+				.setRequest(new EntityBundleRequest().setIncludeEntity(true));
+		
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			entityBundleService.getEntityBundles(TEST_USER1, request);
+		}).getMessage();
+		
+		assertEquals("The number of entityIds cannot exceed 20", message);
+		
+		verify(mockUserManager, never()).getUserInfo(any());
+	}
+	
+	@Test
+	public void testGetEntityBundlesWithNullRequest() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			entityBundleService.getEntityBundles(TEST_USER1, null);
+		}).getMessage();
+		
+		assertEquals("request is required.", message);
+	}
+	
+	@Test
+	public void testGetEntityBundlesWithNullEntityIds() {
+		EntityBundleBatchRequest request = new EntityBundleBatchRequest()
+				.setRequest(new EntityBundleRequest().setIncludeEntity(true));
+		
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			entityBundleService.getEntityBundles(TEST_USER1, request);
+		}).getMessage();
+		
+		assertEquals("request.entityIds is required.", message);
+	}
+	
+	@Test
+	public void testGetEntityBundlesWithNullBundleRequest() {
+		EntityBundleBatchRequest request = new EntityBundleBatchRequest()
+				.setEntityIds(List.of("syn1"));
+		
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			entityBundleService.getEntityBundles(TEST_USER1, request);
+		}).getMessage();
+		
+		assertEquals("request.request is required.", message);
+	}
+	
 }
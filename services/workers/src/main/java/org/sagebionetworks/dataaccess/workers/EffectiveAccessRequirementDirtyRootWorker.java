@@ -0,0 +1,64 @@
+package org.sagebionetworks.dataaccess.workers;
+
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.sagebionetworks.repo.model.ar.EffectiveAccessRequirementDao;
+import org.sagebionetworks.util.progress.ProgressCallback;
+import org.sagebionetworks.util.progress.ProgressingRunner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+
+/**
+ * The worker removes from the index of the effective access requirements the
+ * subtrees whose roots were marked as dirty by a modification of the hierarchy
+ * or of the subjects of an access requirement. Each subtree is removed in
+ * pages, each page in its own transaction, so that the modification does not
+ * need to delete a whole subtree in the transaction of the request. A root is
+ * removed only if it was not marked again while its subtree was cleared,
+ * otherwise it is cleared again on the next run.
+ */
+@Service
+public class EffectiveAccessRequirementDirtyRootWorker implements ProgressingRunner {
+
+	private static final Logger LOG = LogManager.getLogger(EffectiveAccessRequirementDirtyRootWorker.class);
+
+	static final long MAX_ROOTS = 100;
+
+	static final long PAGE_SIZE = 1000;
+
+	private EffectiveAccessRequirementDao effectiveAccessRequirementDao;
+
+	@Autowired
+	public EffectiveAccessRequirementDirtyRootWorker(EffectiveAccessRequirementDao effectiveAccessRequirementDao) {
+		this.effectiveAccessRequirementDao = effectiveAccessRequirementDao;
+	}
+
+	@Override
+	public void run(ProgressCallback progressCallback) throws Exception {
+		Map<Long, Long> dirtyRoots = effectiveAccessRequirementDao.getDirtyRoots(MAX_ROOTS);
+
+		for (Entry<Long, Long> dirtyRoot : dirtyRoots.entrySet()) {
+			Long rootId = dirtyRoot.getKey();
+			Long version = dirtyRoot.getValue();
+
+			try {
+				while (effectiveAccessRequirementDao.clearDirtySubtreePage(rootId, PAGE_SIZE) >= PAGE_SIZE) {
+					// Clears the next page
+				}
+
+				if (!effectiveAccessRequirementDao.removeDirtyRoot(rootId, version)) {
+					LOG.info("The root {} was marked as dirty while its subtree was cleared. Will retry", rootId);
+				}
+			} catch (TransientDataAccessException e) {
+				// E.g. a deadlock with a concurrent modification of the hierarchy, the root is cleared on the next run
+				LOG.info("Could not clear the subtree of the root {}: {}. Will retry", rootId, e.getMessage());
+				return;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,75 @@
+package org.sagebionetworks.dataaccess.workers;
+
+import java.util.List;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.sagebionetworks.repo.model.ar.EffectiveAccessRequirementDao;
+import org.sagebionetworks.util.progress.ProgressCallback;
+import org.sagebionetworks.util.progress.ProgressingRunner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+
+/**
+ * The worker periodically sweeps the entities by id, a page on each run, and
+ * reconciles the index of the effective access requirements with the
+ * hierarchy: the entities in the index whose requirements are not consistent
+ * with the recursive computation are removed and indexed again, and the
+ * entities that are not in the index yet (e.g. after migration or a change to
+ * the subjects of an access requirement) are added. Once the last page is
+ * reached the sweep starts over.
+ */
+@Service
+public class EffectiveAccessRequirementIndexReconciliationWorker implements ProgressingRunner {
+	
+	private static final Logger LOG = LogManager.getLogger(EffectiveAccessRequirementIndexReconciliationWorker.class);
+	
+	static final long PAGE_SIZE = 1000;
+
+	private EffectiveAccessRequirementDao effectiveAccessRequirementDao;
+	
+	// The id of the last entity that was reconciled, the next run starts after this id
+	private long lastEntityId;
+
+	@Autowired
+	public EffectiveAccessRequirementIndexReconciliationWorker(EffectiveAccessRequirementDao effectiveAccessRequirementDao) {
+		this.effectiveAccessRequirementDao = effectiveAccessRequirementDao;
+		this.lastEntityId = -1;
+	}
+
+	@Override
+	public void run(ProgressCallback progressCallback) throws Exception {
+		List<Long> entityIds = effectiveAccessRequirementDao.getEntityIdsPage(lastEntityId, PAGE_SIZE);
+		
+		if (entityIds.isEmpty()) {
+			// Start over on the next run
+			lastEntityId = -1;
+			return;
+		}
+		
+		try {
+			Set<Long> inconsistentIds = effectiveAccessRequirementDao.getInconsistentEntityIds(entityIds);
+			
+			if (!inconsistentIds.isEmpty()) {
+				LOG.warn("Found {} entities with inconsistent effective access requirements: {}", inconsistentIds.size(), inconsistentIds);
+				effectiveAccessRequirementDao.clearEntities(inconsistentIds);
+			}
+			
+			// Adds the entities that are not in the index, including the ones that were just removed
+			effectiveAccessRequirementDao.indexEntities(entityIds);
+		} catch (TransientDataAccessException e) {
+			// E.g. a deadlock with a concurrent modification of the hierarchy, the same page is reconciled on the next run
+			LOG.info("Could not reconcile the entities after {}: {}. Will retry", lastEntityId, e.getMessage());
+			return;
+		}
+		
+		lastEntityId = entityIds.get(entityIds.size() - 1);
+	}
+	
+	long getLastEntityId() {
+		return lastEntityId;
+	}
+
+}
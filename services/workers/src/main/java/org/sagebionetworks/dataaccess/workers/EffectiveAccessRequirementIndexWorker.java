@@ -0,0 +1,68 @@
+package org.sagebionetworks.dataaccess.workers;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.sagebionetworks.asynchronous.workers.changes.BatchChangeMessageDrivenRunner;
+import org.sagebionetworks.repo.model.ObjectType;
+import org.sagebionetworks.repo.model.ar.EffectiveAccessRequirementDao;
+import org.sagebionetworks.repo.model.jdo.KeyFactory;
+import org.sagebionetworks.repo.model.message.ChangeMessage;
+import org.sagebionetworks.repo.model.message.ChangeType;
+import org.sagebionetworks.util.progress.ProgressCallback;
+import org.sagebionetworks.workers.util.aws.message.RecoverableMessageException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Adds the entities that are created or updated to the index of the effective
+ * access requirements, so that the restriction status of the entities can be
+ * read from the index without walking their hierarchy. The roots of the
+ * subtrees whose hierarchy is modified are marked as dirty in the same
+ * transaction of the modification, the subtrees are removed from the index by
+ * the {@link EffectiveAccessRequirementDirtyRootWorker} and the entities are
+ * added back when their change messages are broadcast (see the
+ * EntityHierarchyChangeWorker). The messages of entities that are still in a
+ * dirty subtree are retried, the
+ * {@link EffectiveAccessRequirementIndexReconciliationWorker} adds any entity
+ * that is still missing.
+ */
+@Service
+public class EffectiveAccessRequirementIndexWorker implements BatchChangeMessageDrivenRunner {
+	
+	private static final Logger LOG = LogManager.getLogger(EffectiveAccessRequirementIndexWorker.class);
+
+	private EffectiveAccessRequirementDao effectiveAccessRequirementDao;
+
+	@Autowired
+	public EffectiveAccessRequirementIndexWorker(EffectiveAccessRequirementDao effectiveAccessRequirementDao) {
+		this.effectiveAccessRequirementDao = effectiveAccessRequirementDao;
+	}
+
+	@Override
+	public void run(ProgressCallback progressCallback, List<ChangeMessage> messages) throws RecoverableMessageException, Exception {
+		List<Long> entityIds = messages.stream().filter(m -> ObjectType.ENTITY.equals(m.getObjectType()))
+				.filter(m -> ChangeType.CREATE.equals(m.getChangeType()) || ChangeType.UPDATE.equals(m.getChangeType()))
+				.map(m -> KeyFactory.stringToKey(m.getObjectId())).distinct().collect(Collectors.toList());
+		
+		Set<Long> dirtyIds;
+		
+		try {
+			dirtyIds = effectiveAccessRequirementDao.indexEntities(entityIds);
+		} catch (TransientDataAccessException e) {
+			// E.g. a deadlock with a concurrent modification of the hierarchy
+			LOG.info("Could not index the entities: " + e.getMessage() + ". Will retry");
+			throw new RecoverableMessageException(e);
+		}
+		
+		if (!dirtyIds.isEmpty()) {
+			// The subtree of the entities is not cleared from the index yet
+			throw new RecoverableMessageException("Could not index the entities " + dirtyIds + " with a dirty root. Will retry");
+		}
+	}
+
+}
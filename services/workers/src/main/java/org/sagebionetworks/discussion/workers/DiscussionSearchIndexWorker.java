@@ -1,8 +1,12 @@
 package org.sagebionetworks.discussion.workers;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.sagebionetworks.asynchronous.workers.changes.ChangeMessageDrivenRunner;
+import org.sagebionetworks.asynchronous.workers.changes.BatchChangeMessageDrivenRunner;
 import org.sagebionetworks.cloudwatch.WorkerLogger;
 import org.sagebionetworks.repo.manager.discussion.DiscussionSearchIndexManager;
 import org.sagebionetworks.repo.model.ObjectType;
@@ -11,9 +15,10 @@ import org.sagebionetworks.util.progress.ProgressCallback;
 import org.sagebionetworks.workers.util.aws.message.RecoverableMessageException;
 import org.springframework.beans.factory.annotation.Autowired;
 /**
- * The worker listens for changes on threads and replies to update the disucssion search index
+ * The worker listens for changes on threads and replies to update the disucssion search index. The changes are processed in batches
+ * so that multiple changes to the same thread or reply result in a single update of the index
  */
-public class DiscussionSearchIndexWorker implements ChangeMessageDrivenRunner {
+public class DiscussionSearchIndexWorker implements BatchChangeMessageDrivenRunner {
 	
 	private final static Logger LOG = LogManager.getLogger(DiscussionSearchIndexWorker.class);
 	
@@ -27,27 +32,37 @@ public class DiscussionSearchIndexWorker implements ChangeMessageDrivenRunner {
 	}
 
 	@Override
-	public void run(ProgressCallback progressCallback, ChangeMessage message) throws RecoverableMessageException, Exception {
-		try {			
-			ObjectType objectType = message.getObjectType();
-			Long objectId = Long.valueOf(message.getObjectId());
-
-			switch (objectType) {
-			case THREAD:
-				manager.processThreadChange(objectId);
-				break;
-			case REPLY:
-				manager.processReplyChange(objectId);
-				break;
-			default:
-				break;
+	public void run(ProgressCallback progressCallback, List<ChangeMessage> messages) throws RecoverableMessageException, Exception {
+		try {
+			Set<Long> threadIds = new LinkedHashSet<>();
+			Set<Long> replyIds = new LinkedHashSet<>();
+			
+			for (ChangeMessage message : messages) {
+				ObjectType objectType = message.getObjectType();
+				
+				switch (objectType) {
+				case THREAD:
+					threadIds.add(Long.valueOf(message.getObjectId()));
+					break;
+				case REPLY:
+					replyIds.add(Long.valueOf(message.getObjectId()));
+					break;
+				default:
+					break;
+				}
+			}
+			
+			if (threadIds.isEmpty() && replyIds.isEmpty()) {
+				return;
 			}
+			
+			manager.processChanges(threadIds, replyIds);
 		} catch (RecoverableMessageException ex) {
-			workerLogger.logWorkerFailure(DiscussionSearchIndexWorker.class, message, ex, true);
+			workerLogger.logWorkerFailure(DiscussionSearchIndexWorker.class.getName(), ex, true);
 			throw ex;
 		} catch (Throwable ex) {
 			LOG.error("Worker failed: " + ex.getMessage(), ex);
-			workerLogger.logWorkerFailure(DiscussionSearchIndexWorker.class, message, ex, false);
+			workerLogger.logWorkerFailure(DiscussionSearchIndexWorker.class.getName(), ex, false);
 		}
 
 	}
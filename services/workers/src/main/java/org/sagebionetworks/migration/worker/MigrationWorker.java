@@ -4,6 +4,7 @@ import java.io.IOException;
 
 import org.sagebionetworks.repo.manager.migration.DatasetChecksumBackfill;
 import org.sagebionetworks.repo.manager.migration.MigrationManager;
+import org.sagebionetworks.repo.manager.migration.TableFileHandleIndexBackfill;
 import org.sagebionetworks.repo.model.DatastoreException;
 import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.dao.asynch.AsyncJobProgressCallback;
@@ -20,6 +21,7 @@ import org.sagebionetworks.repo.model.migration.BatchChecksumRequest;
 import org.sagebionetworks.repo.model.migration.CalculateOptimalRangeRequest;
 import org.sagebionetworks.repo.model.migration.DatasetBackfillRequest;
 import org.sagebionetworks.repo.model.migration.RestoreTypeRequest;
+import org.sagebionetworks.repo.model.migration.TableFileHandleIndexBackfillRequest;
 import org.sagebionetworks.repo.web.NotFoundException;
 import org.sagebionetworks.worker.AsyncJobRunner;
 import org.sagebionetworks.workers.util.aws.message.RecoverableMessageException;
@@ -32,11 +34,14 @@ public class MigrationWorker implements AsyncJobRunner<AsyncMigrationRequest, As
 	private MigrationManager migrationManager;
 	
 	private DatasetChecksumBackfill datasetBackFill;
+	
+	private TableFileHandleIndexBackfill tableFileHandleIndexBackfill;
 
 	@Autowired
-	public MigrationWorker(MigrationManager migrationManager, DatasetChecksumBackfill datasetBackFill) {
+	public MigrationWorker(MigrationManager migrationManager, DatasetChecksumBackfill datasetBackFill, TableFileHandleIndexBackfill tableFileHandleIndexBackfill) {
 		this.migrationManager = migrationManager;
 		this.datasetBackFill = datasetBackFill;
+		this.tableFileHandleIndexBackfill = tableFileHandleIndexBackfill;
 	}
 	
 	@Override
@@ -79,6 +84,8 @@ public class MigrationWorker implements AsyncJobRunner<AsyncMigrationRequest, As
 			return migrationManager.calculateBatchChecksums(user, (BatchChecksumRequest)req);
 		} else if (req instanceof DatasetBackfillRequest) {
 			return datasetBackFill.backfillChecksum(user);
+		} else if (req instanceof TableFileHandleIndexBackfillRequest) {
+			return tableFileHandleIndexBackfill.backfillIndex(user);
 		} else {
 			throw new IllegalArgumentException("AsyncMigrationRequest not supported.");
 		}
@@ -0,0 +1,29 @@
+package org.sagebionetworks.replication.workers;
+
+import org.sagebionetworks.repo.manager.replication.EntityChecksumBucketManager;
+import org.sagebionetworks.util.progress.ProgressCallback;
+import org.sagebionetworks.util.progress.ProgressingRunner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * The worker periodically applies the entity changes to the persisted checksum
+ * buckets used by the reconciliation of the entity replication and recomputes
+ * the buckets that are dirty.
+ */
+@Service
+public class EntityChecksumBucketWorker implements ProgressingRunner {
+
+	private EntityChecksumBucketManager manager;
+
+	@Autowired
+	public EntityChecksumBucketWorker(EntityChecksumBucketManager manager) {
+		this.manager = manager;
+	}
+
+	@Override
+	public void run(ProgressCallback progressCallback) throws Exception {
+		manager.updateChecksumBuckets();
+	}
+
+}
@@ -66,7 +66,7 @@ public class StorageReportCSVDownloadWorker implements AsyncJobRunner<DownloadSt
 			try (CSVWriter writer = new CSVWriter(new FileWriter(temp))) {
 				// this object will update the progress of both the job and refresh the timeout on the message as
 				// rows are read from the DB.
-				ProgressingCSVWriterStream stream = new ProgressingCSVWriterStream(writer, jobProgressCallback, 0L, 0L, clock);
+				ProgressingCSVWriterStream stream = new ProgressingCSVWriterStream(writer, jobProgressCallback, () -> 0L, () -> 0L, clock);
 				storageReportManager.writeStorageReport(user, request, stream);
 			}
 
@@ -1,6 +1,6 @@
 package org.sagebionetworks.table.worker;
 
-import java.io.FileWriter;
+import java.io.Writer;
 import org.sagebionetworks.repo.model.table.CsvTableDescriptor;
 import au.com.bytecode.opencsv.CSVWriter;
 
@@ -8,10 +8,10 @@ public interface CSVWriterProvider {
 
 	/**
 	 * Abstraction to create a new {@link CSVWriter}
-	 * @param fileWriter
+	 * @param writer
 	 * @param csvTableDescriptor
 	 * @return
 	 */
-	CSVWriter createWriter(FileWriter fileWriter, CsvTableDescriptor csvTableDescriptor);
+	CSVWriter createWriter(Writer writer, CsvTableDescriptor csvTableDescriptor);
 
 }
\ No newline at end of file
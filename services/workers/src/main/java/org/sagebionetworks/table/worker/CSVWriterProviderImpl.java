@@ -1,6 +1,6 @@
 package org.sagebionetworks.table.worker;
 
-import java.io.FileWriter;
+import java.io.Writer;
 
 import org.sagebionetworks.repo.model.table.CsvTableDescriptor;
 import org.sagebionetworks.table.cluster.utils.CSVUtils;
@@ -12,8 +12,8 @@ import au.com.bytecode.opencsv.CSVWriter;
 public class CSVWriterProviderImpl implements CSVWriterProvider {
 
 	@Override
-	public CSVWriter createWriter(FileWriter fileWriter, CsvTableDescriptor csvTableDescriptor) {
-		return CSVUtils.createCSVWriter(fileWriter, csvTableDescriptor);
+	public CSVWriter createWriter(Writer writer, CsvTableDescriptor csvTableDescriptor) {
+		return CSVUtils.createCSVWriter(writer, csvTableDescriptor);
 	}
 
 }
\ No newline at end of file
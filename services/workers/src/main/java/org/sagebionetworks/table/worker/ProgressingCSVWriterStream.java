@@ -1,6 +1,7 @@
 package org.sagebionetworks.table.worker;
 
 import java.io.IOException;
+import java.util.function.LongSupplier;
 
 import org.sagebionetworks.repo.model.dao.asynch.AsyncJobProgressCallback;
 import org.sagebionetworks.util.Clock;
@@ -9,8 +10,10 @@ import org.sagebionetworks.util.csv.CSVWriterStream;
 import au.com.bytecode.opencsv.CSVWriter;
 
 /**
- * This implementation of CSVWriterStream will notify that progress is made for
- * each row written.
+ * This implementation of CSVWriterStream will periodically notify the progress
+ * as rows are written. Since the CSV is uploaded while it is written, the
+ * progress is reported in bytes: the number of bytes uploaded so far out of
+ * the number of bytes written so far.
  * 
  * @author John
  * 
@@ -25,8 +28,8 @@ public class ProgressingCSVWriterStream implements CSVWriterStream {
 	public static final long UPDATE_FEQUENCY_MS = 2000;
 	CSVWriter writer;
 	AsyncJobProgressCallback progressCallback;
-	long currentProgress;
-	long totalProgress;
+	LongSupplier bytesUploaded;
+	LongSupplier bytesWritten;
 	Clock clock;
 	/**
 	 * The time of the last progress update.
@@ -37,41 +40,37 @@ public class ProgressingCSVWriterStream implements CSVWriterStream {
 	 * 
 	 * @param writer
 	 *            Each row will be passed to this writer.
-	 * @param progress
+	 * @param progressCallback
 	 *            Progress will be reported to this object.
-	 * @param originatingMessage
-	 *            The original message that started this job. The visibility
-	 *            timeout for this message will get extended as long progress
-	 *            continues to be made.
+	 * @param bytesUploaded
+	 *            Supplies the number of bytes of the CSV uploaded so far.
+	 * @param bytesWritten
+	 *            Supplies the number of bytes of the CSV written so far.
 	 */
 	public ProgressingCSVWriterStream(CSVWriter writer, AsyncJobProgressCallback progressCallback,
-			long currentProgress, long totalProgress, Clock clock) {
+			LongSupplier bytesUploaded, LongSupplier bytesWritten, Clock clock) {
 		super();
 		this.writer = writer;
 		this.progressCallback = progressCallback;
-		this.currentProgress = currentProgress;
-		this.totalProgress = totalProgress;
+		this.bytesUploaded = bytesUploaded;
+		this.bytesWritten = bytesWritten;
 		this.clock = clock;
 		this.lastUpdateTimeMS = clock.currentTimeMillis();
 	}
 
-
-
 	@Override
 	public void writeNext(String[] nextLine) throws IOException {
 		// We do not want to spam the listeners, so we only update progress every few seconds.
 		if(clock.currentTimeMillis() - lastUpdateTimeMS > UPDATE_FEQUENCY_MS){
 			// It is time to update the progress
 			// Update the status
-			progressCallback.updateProgress(BUILDING_THE_CSV, currentProgress, totalProgress);
+			progressCallback.updateProgress(BUILDING_THE_CSV, bytesUploaded.getAsLong(), bytesWritten.getAsLong());
 			// reset the clock
 			this.lastUpdateTimeMS = clock.currentTimeMillis();
 		}
 
 		// Write the line
 		writer.writeNext(nextLine);
-		// some progress was made
-		currentProgress++;
 	}
 
 }
@@ -1,12 +1,15 @@
 package org.sagebionetworks.table.worker;
 
-import java.io.File;
-import java.io.FileWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.apache.commons.io.output.CountingOutputStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.sagebionetworks.repo.manager.file.FileHandleManager;
-import org.sagebionetworks.repo.manager.file.LocalFileUploadRequest;
+import org.sagebionetworks.repo.manager.file.StreamUploadRequest;
 import org.sagebionetworks.repo.manager.table.TableQueryManager;
 import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.dao.asynch.AsyncJobProgressCallback;
@@ -14,8 +17,6 @@ import org.sagebionetworks.repo.model.dbo.dao.table.TableExceptionTranslator;
 import org.sagebionetworks.repo.model.file.S3FileHandle;
 import org.sagebionetworks.repo.model.table.DownloadFromTableRequest;
 import org.sagebionetworks.repo.model.table.DownloadFromTableResult;
-import org.sagebionetworks.repo.model.table.QueryOptions;
-import org.sagebionetworks.repo.model.table.QueryResultBundle;
 import org.sagebionetworks.repo.model.table.TableFailedException;
 import org.sagebionetworks.repo.model.table.TableUnavailableException;
 import org.sagebionetworks.table.cluster.utils.CSVUtils;
@@ -29,8 +30,8 @@ import org.springframework.stereotype.Service;
 import au.com.bytecode.opencsv.CSVWriter;
 
 /**
- * This worker will stream the results of a table SQL query to a local CSV file and upload the file
- * to S3 as a FileHandle.
+ * This worker will stream the results of a table SQL query as CSV to S3 as a FileHandle. The CSV is uploaded
+ * while the query results are streamed, without a local copy of the file.
  * 
  * @author jmhill
  *
@@ -63,41 +64,27 @@ public class TableCSVDownloadWorker implements AsyncJobRunner<DownloadFromTableR
 	
 	@Override
 	public DownloadFromTableResult run(String jobId, UserInfo user, DownloadFromTableRequest request, AsyncJobProgressCallback jobProgressCallback) throws RecoverableMessageException, Exception {
-		String fileName = "Job-"+jobId;
-		File temp = null;
 		try {
-			// only run the count
-			QueryOptions queryOptions = new QueryOptions().withRunQuery(false).withRunCount(true).withReturnFacets(false);
-			// Before we start determine how many rows there are.
-			QueryResultBundle queryResult = tableQueryManager.querySinglePage(jobProgressCallback, user, request, queryOptions);
-			long rowCount = queryResult.getQueryCount();
-			// Since each row must first be read from the database then uploaded to S3
-			// The total amount of progress is two times the number of rows.
-			long totalProgress = rowCount*2;
-			long currentProgress = 0;
-			// The CSV data will first be written to this file.
-			temp = File.createTempFile(fileName, "." + CSVUtils.guessExtension(
-					request.getCsvTableDescriptor() == null ? null : request.getCsvTableDescriptor().getSeparator()));
-			DownloadFromTableResult result = null;
-			try(CSVWriter writer = csvWriterProvider.createWriter(new FileWriter(temp), request.getCsvTableDescriptor());){
+			String separator = request.getCsvTableDescriptor() == null ? null : request.getCsvTableDescriptor().getSeparator();
+			String fileName = request.getFileName() == null ? "Job-" + jobId + "." + CSVUtils.guessExtension(separator) : request.getFileName();
+			String contentType = CSVUtils.guessContentType(separator);
+			// Parts of the CSV are uploaded concurrently, the progress is reported in bytes
+			AtomicLong bytesUploaded = new AtomicLong();
+			StreamUploadRequest uploadRequest = new StreamUploadRequest().withUserId(user.getId().toString()).withContentType(contentType)
+					.withFileName(fileName).withListener(event -> bytesUploaded.addAndGet(event.getBytesTransferred()));
+			AtomicReference<DownloadFromTableResult> result = new AtomicReference<>();
+			// The CSV is written to S3 as the rows are read from the DB.
+			S3FileHandle fileHandle = fileHandleManager.uploadStream(uploadRequest, (out) -> {
+				CountingOutputStream countingOut = new CountingOutputStream(out);
+				CSVWriter writer = csvWriterProvider.createWriter(new OutputStreamWriter(countingOut, StandardCharsets.UTF_8), request.getCsvTableDescriptor());
 				// this object will update the progress of both the job and refresh the timeout on the message as rows are read from the DB.
-				ProgressingCSVWriterStream stream = new ProgressingCSVWriterStream(writer, jobProgressCallback, currentProgress, totalProgress, clock);
-				result =  tableQueryManager.runQueryDownloadAsStream(jobProgressCallback, user, request, stream);
-			}
-
-			// At this point we have the entire CSV written to a local file.
-			// Upload the file to S3 can create the filehandle.
-			long startProgress = totalProgress/2; // we are half done at this point
-			double bytesPerRow = rowCount == 0 ? 1 : temp.length() / rowCount;
-			// This will keep the progress updated as the file is uploaded.
-			UploadProgressListener uploadListener = new UploadProgressListener(jobProgressCallback, startProgress, bytesPerRow, totalProgress);
-			String contentType = CSVUtils.guessContentType(request
-					.getCsvTableDescriptor() == null ? null : request.getCsvTableDescriptor().getSeparator());
-			String requestFileName = request.getFileName() == null ? null : request.getFileName();
-			S3FileHandle fileHandle = fileHandleManager.uploadLocalFile(new LocalFileUploadRequest().withUserId(user.getId().toString()).withFileToUpload(temp).withContentType(contentType).withListener(uploadListener)
-					.withFileName(requestFileName));
-			result.setResultsFileHandleId(fileHandle.getId());
-			return result;
+				ProgressingCSVWriterStream stream = new ProgressingCSVWriterStream(writer, jobProgressCallback, bytesUploaded::get, countingOut::getByteCount, clock);
+				result.set(tableQueryManager.runQueryDownloadAsStream(jobProgressCallback, user, request, stream));
+				// Only closed on success: closing the writer completes the upload, on failure the upload is aborted instead
+				writer.close();
+			});
+			result.get().setResultsFileHandleId(fileHandle.getId());
+			return result.get();
 		} catch (TableUnavailableException | LockUnavilableException e){
 			// This just means we cannot do this right now.  We can try again later.
 			jobProgressCallback.updateProgress("Waiting for the table index to become available...", 0L, 100L);
@@ -111,10 +98,6 @@ public class TableCSVDownloadWorker implements AsyncJobRunner<DownloadFromTableR
 			RuntimeException translatedException = tableExceptionTranslator.translateException(e);
 
 			throw translatedException;
-		} finally {
-			if(temp != null){
-				temp.delete();
-			}
 		}
 	}
 
@@ -0,0 +1,107 @@
+package org.sagebionetworks.trash.worker;
+
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.sagebionetworks.cloudwatch.WorkerLogger;
+import org.sagebionetworks.repo.manager.trash.PurgeProgressListener;
+import org.sagebionetworks.repo.manager.trash.TrashManager;
+import org.sagebionetworks.repo.model.StackStatusDao;
+import org.sagebionetworks.util.progress.ProgressCallback;
+import org.sagebionetworks.util.progress.ProgressingRunner;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Deletes the ACLs left in the hierarchy of the entities moved to the trash
+ * can. The hierarchy is processed in chunks with a checkpoint, a cleanup
+ * stopped between chunks is resumed by the next run.
+ */
+public class TrashAclCleanupWorker implements ProgressingRunner {
+	private final static Logger LOG = LogManager.getLogger(TrashAclCleanupWorker.class);
+	protected static final long CLEANUP_BATCH_SIZE = 100;
+	// The number of deleted ACLs between progress logs for a single sub-tree
+	protected static final long PROGRESS_LOG_INTERVAL = 1000;
+
+	@Autowired
+	private TrashManager trashManager;
+
+	@Autowired
+	private StackStatusDao stackStatusDao;
+
+	@Autowired
+	private WorkerLogger workerLogger;
+
+	@Override
+	public void run(ProgressCallback progressCallback) {
+
+		try {
+			// Oldest first
+			List<Long> batch = trashManager.getTrashWithPendingAclCleanup(CLEANUP_BATCH_SIZE);
+
+			if (batch.isEmpty()) {
+				return;
+			}
+
+			long startTime = System.currentTimeMillis();
+			int count = 0;
+			int errors = 0;
+
+			for (Long id : batch) {
+
+				if (!stackStatusDao.isStackReadWrite()) {
+					LOG.info("Stack status changed from READ_WRITE, stopping execution.");
+					logProgress(count, errors, startTime);
+					return;
+				}
+
+				try {
+					boolean completed = trashManager.deleteAclsInTrashedHierarchy(id, new AclCleanupProgressLogger());
+
+					if (!completed) {
+						LOG.info("Stack status changed from READ_WRITE while deleting the ACLs of {}, stopping execution.", id);
+						logProgress(count, errors, startTime);
+						return;
+					}
+				} catch (Exception e) {
+					// Log the error and keep going, the cleanup of the entity is retried by the next run
+					LOG.error("Could not delete the ACLs in the hierarchy of entity with id {}: {}", id, e.getMessage(), e);
+					errors++;
+				}
+				count++;
+			}
+
+			logProgress(count, errors, startTime);
+		} catch (Throwable e) {
+			LOG.error(e.getMessage(), e);
+
+			boolean willRetry = false;
+			// Sends a fail metric for cloud watch
+			workerLogger.logWorkerFailure(TrashAclCleanupWorker.class.getName(), e, willRetry);
+		}
+	}
+
+	/**
+	 * Logs the progress of the cleanup of a single sub-tree and stops it between
+	 * chunks if the stack is no longer READ_WRITE.
+	 */
+	private class AclCleanupProgressLogger implements PurgeProgressListener {
+
+		private long lastLoggedCount = 0;
+
+		@Override
+		public boolean onProgress(Long trashId, long deletedCount) {
+			if (deletedCount - lastLoggedCount >= PROGRESS_LOG_INTERVAL) {
+				LOG.info("Deleting the ACLs in the hierarchy of trashed entity {}: {} ACLs deleted so far.", trashId, deletedCount);
+				lastLoggedCount = deletedCount;
+			}
+			return stackStatusDao.isStackReadWrite();
+		}
+	}
+
+	private void logProgress(int count, int errors, long startTime) {
+		LOG.info("Deleted the ACLs in the hierarchy of {} trashed entities (Skipped: {}, Time: {} ms).", count, errors,
+				System.currentTimeMillis() - startTime);
+	}
+
+}
@@ -1,11 +1,11 @@
 package org.sagebionetworks.trash.worker;
 
-import java.util.Collections;
 import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.sagebionetworks.cloudwatch.WorkerLogger;
+import org.sagebionetworks.repo.manager.trash.PurgeProgressListener;
 import org.sagebionetworks.repo.manager.trash.TrashManager;
 import org.sagebionetworks.repo.model.AuthorizationConstants.BOOTSTRAP_PRINCIPAL;
 import org.sagebionetworks.util.progress.ProgressCallback;
@@ -18,6 +18,8 @@ public class TrashWorker implements ProgressingRunner {
 	private final static Logger LOG = LogManager.getLogger(TrashWorker.class);
 	protected static final long TRASH_BATCH_SIZE = 10000;
 	protected static final long CUTOFF_TRASH_AGE_IN_DAYS = 30; // about 1 month
+	// The number of deleted nodes between progress logs for a single sub-tree
+	protected static final long PROGRESS_LOG_INTERVAL = 10000;
 
 	@Autowired
 	private TrashManager trashManager;
@@ -61,7 +63,14 @@ public class TrashWorker implements ProgressingRunner {
 				}
 
 				try {
-					trashManager.purgeTrash(adminUser, Collections.singletonList(id));
+					// The sub-tree is deleted in chunks, a purge stopped between chunks is resumed by the next run
+					boolean purged = trashManager.purgeTrash(adminUser, id, new PurgeProgressLogger());
+					
+					if (!purged) {
+						LOG.info("Stack status changed from READ_WRITE while purging {}, stopping execution.", id);
+						logProgress(count, errors, startTime);
+						return;
+					}
 				} catch (Exception e) {
 					// Log the error and keep going, we want to get as far as we can
 					LOG.error("Could not delete entity with id {}: {}", id, e.getMessage(), e);
@@ -80,6 +89,24 @@ public class TrashWorker implements ProgressingRunner {
 		}
 	}
 
+	/**
+	 * Logs the progress of the purge of a single sub-tree and stops it between
+	 * chunks if the stack is no longer READ_WRITE.
+	 */
+	private class PurgeProgressLogger implements PurgeProgressListener {
+
+		private long lastLoggedCount = 0;
+
+		@Override
+		public boolean onProgress(Long trashId, long deletedCount) {
+			if (deletedCount - lastLoggedCount >= PROGRESS_LOG_INTERVAL) {
+				LOG.info("Purging entity {} from the trash can: {} nodes deleted so far.", trashId, deletedCount);
+				lastLoggedCount = deletedCount;
+			}
+			return stackStatusDao.isStackReadWrite();
+		}
+	}
+
 	private void logProgress(int count, int errors, long startTime) {
 		LOG.info("Sucessfully purged {} trashed entities (Skipped: {}, Time: {} ms).", count, errors,
 				System.currentTimeMillis() - startTime);
@@ -1,7 +1,10 @@
 package org.sagebionetworks.worker.config;
 
 import org.sagebionetworks.database.semaphore.CountingSemaphore;
+import org.sagebionetworks.dataaccess.workers.EffectiveAccessRequirementDirtyRootWorker;
+import org.sagebionetworks.dataaccess.workers.EffectiveAccessRequirementIndexReconciliationWorker;
 import org.sagebionetworks.file.worker.FileHandleAssociationScanDispatcherWorker;
+import org.sagebionetworks.replication.workers.EntityChecksumBucketWorker;
 import org.sagebionetworks.worker.utils.StackStatusGate;
 import org.sagebionetworks.workers.util.semaphore.SemaphoreGatedWorkerStack;
 import org.sagebionetworks.workers.util.semaphore.SemaphoreGatedWorkerStackConfiguration;
@@ -44,5 +47,59 @@ public class TimerWorkersConfig {
 			.withStartDelay(7200000)
 			.build();
 	}
+	
+	@Bean
+	public SimpleTriggerFactoryBean entityChecksumBucketWorkerTrigger(EntityChecksumBucketWorker entityChecksumBucketWorker) {
+		
+		SemaphoreGatedWorkerStackConfiguration config = new SemaphoreGatedWorkerStackConfiguration();
+		
+		config.setSemaphoreLockKey("entityChecksumBucketWorker");
+		config.setProgressingRunner(entityChecksumBucketWorker);
+		config.setSemaphoreMaxLockCount(1);
+		config.setSemaphoreLockTimeoutSec(120);
+		config.setGate(stackStatusGate);
+		
+		return new WorkerTriggerBuilder()
+			.withStack(new SemaphoreGatedWorkerStack(countingSemaphore, config))
+			.withRepeatInterval(10000)
+			.withStartDelay(1000)
+			.build();
+	}
+	
+	@Bean
+	public SimpleTriggerFactoryBean effectiveAccessRequirementIndexReconciliationWorkerTrigger(EffectiveAccessRequirementIndexReconciliationWorker effectiveAccessRequirementIndexReconciliationWorker) {
+		
+		SemaphoreGatedWorkerStackConfiguration config = new SemaphoreGatedWorkerStackConfiguration();
+		
+		config.setSemaphoreLockKey("effectiveAccessRequirementIndexReconciliation");
+		config.setProgressingRunner(effectiveAccessRequirementIndexReconciliationWorker);
+		config.setSemaphoreMaxLockCount(1);
+		config.setSemaphoreLockTimeoutSec(120);
+		config.setGate(stackStatusGate);
+		
+		return new WorkerTriggerBuilder()
+			.withStack(new SemaphoreGatedWorkerStack(countingSemaphore, config))
+			.withRepeatInterval(5000)
+			.withStartDelay(2000)
+			.build();
+	}
+	
+	@Bean
+	public SimpleTriggerFactoryBean effectiveAccessRequirementDirtyRootWorkerTrigger(EffectiveAccessRequirementDirtyRootWorker effectiveAccessRequirementDirtyRootWorker) {
+		
+		SemaphoreGatedWorkerStackConfiguration config = new SemaphoreGatedWorkerStackConfiguration();
+		
+		config.setSemaphoreLockKey("effectiveAccessRequirementDirtyRoot");
+		config.setProgressingRunner(effectiveAccessRequirementDirtyRootWorker);
+		config.setSemaphoreMaxLockCount(1);
+		config.setSemaphoreLockTimeoutSec(120);
+		config.setGate(stackStatusGate);
+		
+		return new WorkerTriggerBuilder()
+			.withStack(new SemaphoreGatedWorkerStack(countingSemaphore, config))
+			.withRepeatInterval(2000)
+			.withStartDelay(1000)
+			.build();
+	}
 
 }
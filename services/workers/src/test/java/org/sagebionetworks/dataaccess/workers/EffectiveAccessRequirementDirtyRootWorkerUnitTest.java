@@ -0,0 +1,101 @@
+package org.sagebionetworks.dataaccess.workers;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.model.ar.EffectiveAccessRequirementDao;
+import org.sagebionetworks.util.progress.ProgressCallback;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+
+@ExtendWith(MockitoExtension.class)
+public class EffectiveAccessRequirementDirtyRootWorkerUnitTest {
+
+	@Mock
+	private EffectiveAccessRequirementDao mockDao;
+
+	@Mock
+	private ProgressCallback mockProgressCallback;
+
+	@InjectMocks
+	private EffectiveAccessRequirementDirtyRootWorker worker;
+
+	@Test
+	public void testRun() throws Exception {
+		Map<Long, Long> dirtyRoots = new LinkedHashMap<>();
+		dirtyRoots.put(1L, 0L);
+		dirtyRoots.put(2L, 3L);
+
+		when(mockDao.getDirtyRoots(EffectiveAccessRequirementDirtyRootWorker.MAX_ROOTS)).thenReturn(dirtyRoots);
+		when(mockDao.clearDirtySubtreePage(1L, EffectiveAccessRequirementDirtyRootWorker.PAGE_SIZE)).thenReturn(
+			(int) EffectiveAccessRequirementDirtyRootWorker.PAGE_SIZE,
+			(int) EffectiveAccessRequirementDirtyRootWorker.PAGE_SIZE,
+			10
+		);
+		when(mockDao.clearDirtySubtreePage(2L, EffectiveAccessRequirementDirtyRootWorker.PAGE_SIZE)).thenReturn(0);
+		when(mockDao.removeDirtyRoot(anyLong(), anyLong())).thenReturn(true);
+
+		// call under test
+		worker.run(mockProgressCallback);
+
+		verify(mockDao, times(3)).clearDirtySubtreePage(1L, EffectiveAccessRequirementDirtyRootWorker.PAGE_SIZE);
+		verify(mockDao).removeDirtyRoot(1L, 0L);
+		verify(mockDao).clearDirtySubtreePage(2L, EffectiveAccessRequirementDirtyRootWorker.PAGE_SIZE);
+		verify(mockDao).removeDirtyRoot(2L, 3L);
+	}
+
+	@Test
+	public void testRunWithNoDirtyRoots() throws Exception {
+
+		when(mockDao.getDirtyRoots(EffectiveAccessRequirementDirtyRootWorker.MAX_ROOTS)).thenReturn(Collections.emptyMap());
+
+		// call under test
+		worker.run(mockProgressCallback);
+
+		verify(mockDao).getDirtyRoots(EffectiveAccessRequirementDirtyRootWorker.MAX_ROOTS);
+		verifyNoMoreInteractions(mockDao);
+	}
+
+	@Test
+	public void testRunWithRootMarkedAgain() throws Exception {
+
+		when(mockDao.getDirtyRoots(EffectiveAccessRequirementDirtyRootWorker.MAX_ROOTS)).thenReturn(Map.of(1L, 0L));
+		when(mockDao.clearDirtySubtreePage(1L, EffectiveAccessRequirementDirtyRootWorker.PAGE_SIZE)).thenReturn(10);
+		when(mockDao.removeDirtyRoot(1L, 0L)).thenReturn(false);
+
+		// call under test
+		worker.run(mockProgressCallback);
+
+		verify(mockDao).clearDirtySubtreePage(1L, EffectiveAccessRequirementDirtyRootWorker.PAGE_SIZE);
+		verify(mockDao).removeDirtyRoot(1L, 0L);
+	}
+
+	@Test
+	public void testRunWithTransientException() throws Exception {
+		Map<Long, Long> dirtyRoots = new LinkedHashMap<>();
+		dirtyRoots.put(1L, 0L);
+		dirtyRoots.put(2L, 3L);
+
+		when(mockDao.getDirtyRoots(EffectiveAccessRequirementDirtyRootWorker.MAX_ROOTS)).thenReturn(dirtyRoots);
+		when(mockDao.clearDirtySubtreePage(1L, EffectiveAccessRequirementDirtyRootWorker.PAGE_SIZE)).thenThrow(new DeadlockLoserDataAccessException("deadlock", null));
+
+		// call under test
+		worker.run(mockProgressCallback);
+
+		verify(mockDao).getDirtyRoots(EffectiveAccessRequirementDirtyRootWorker.MAX_ROOTS);
+		verify(mockDao).clearDirtySubtreePage(1L, EffectiveAccessRequirementDirtyRootWorker.PAGE_SIZE);
+		// The roots are cleared on the next run
+		verifyNoMoreInteractions(mockDao);
+	}
+}
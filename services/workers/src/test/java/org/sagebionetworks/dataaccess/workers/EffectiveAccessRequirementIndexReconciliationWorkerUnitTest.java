@@ -0,0 +1,92 @@
+package org.sagebionetworks.dataaccess.workers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.model.ar.EffectiveAccessRequirementDao;
+import org.sagebionetworks.util.progress.ProgressCallback;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+
+@ExtendWith(MockitoExtension.class)
+public class EffectiveAccessRequirementIndexReconciliationWorkerUnitTest {
+
+	@Mock
+	private EffectiveAccessRequirementDao mockDao;
+	
+	@Mock
+	private ProgressCallback mockProgressCallback;
+	
+	@InjectMocks
+	private EffectiveAccessRequirementIndexReconciliationWorker worker;
+
+	@Test
+	public void testRun() throws Exception {
+		List<Long> page = Arrays.asList(1L, 2L, 3L);
+		
+		when(mockDao.getEntityIdsPage(-1, EffectiveAccessRequirementIndexReconciliationWorker.PAGE_SIZE)).thenReturn(page);
+		when(mockDao.getInconsistentEntityIds(page)).thenReturn(Set.of(2L));
+		
+		// call under test
+		worker.run(mockProgressCallback);
+		
+		verify(mockDao).clearEntities(Set.of(2L));
+		verify(mockDao).indexEntities(page);
+		
+		assertEquals(3L, worker.getLastEntityId());
+		
+		when(mockDao.getEntityIdsPage(3L, EffectiveAccessRequirementIndexReconciliationWorker.PAGE_SIZE)).thenReturn(Collections.emptyList());
+		
+		// call under test
+		worker.run(mockProgressCallback);
+		
+		// The sweep starts over
+		assertEquals(-1L, worker.getLastEntityId());
+	}
+	
+	@Test
+	public void testRunWithConsistentIndex() throws Exception {
+		List<Long> page = Arrays.asList(1L, 2L, 3L);
+		
+		when(mockDao.getEntityIdsPage(-1, EffectiveAccessRequirementIndexReconciliationWorker.PAGE_SIZE)).thenReturn(page);
+		when(mockDao.getInconsistentEntityIds(page)).thenReturn(Collections.emptySet());
+		
+		// call under test
+		worker.run(mockProgressCallback);
+		
+		verify(mockDao).getEntityIdsPage(-1, EffectiveAccessRequirementIndexReconciliationWorker.PAGE_SIZE);
+		verify(mockDao).getInconsistentEntityIds(page);
+		verify(mockDao).indexEntities(page);
+		verifyNoMoreInteractions(mockDao);
+		
+		assertEquals(3L, worker.getLastEntityId());
+	}
+	
+	@Test
+	public void testRunWithTransientException() throws Exception {
+		List<Long> page = Arrays.asList(1L, 2L, 3L);
+		
+		when(mockDao.getEntityIdsPage(-1, EffectiveAccessRequirementIndexReconciliationWorker.PAGE_SIZE)).thenReturn(page);
+		when(mockDao.getInconsistentEntityIds(page)).thenReturn(Collections.emptySet());
+		doThrow(new DeadlockLoserDataAccessException("deadlock", null)).when(mockDao).indexEntities(any());
+		
+		// call under test
+		worker.run(mockProgressCallback);
+		
+		// The same page is reconciled on the next run
+		assertEquals(-1L, worker.getLastEntityId());
+	}
+}
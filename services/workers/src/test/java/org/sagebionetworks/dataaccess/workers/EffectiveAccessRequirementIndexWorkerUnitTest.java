@@ -0,0 +1,95 @@
+package org.sagebionetworks.dataaccess.workers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.model.ObjectType;
+import org.sagebionetworks.repo.model.ar.EffectiveAccessRequirementDao;
+import org.sagebionetworks.repo.model.message.ChangeMessage;
+import org.sagebionetworks.repo.model.message.ChangeType;
+import org.sagebionetworks.util.progress.ProgressCallback;
+import org.sagebionetworks.workers.util.aws.message.RecoverableMessageException;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+
+import com.google.common.collect.Lists;
+
+@ExtendWith(MockitoExtension.class)
+public class EffectiveAccessRequirementIndexWorkerUnitTest {
+
+	@Mock
+	private EffectiveAccessRequirementDao mockDao;
+	
+	@Mock
+	private ProgressCallback mockProgressCallback;
+	
+	@InjectMocks
+	private EffectiveAccessRequirementIndexWorker worker;
+
+	@Test
+	public void testRun() throws RecoverableMessageException, Exception {
+		List<ChangeMessage> messages = Lists.newArrayList(
+				new ChangeMessage().setObjectId("1"),
+				new ChangeMessage().setObjectType(ObjectType.ACCESS_CONTROL_LIST).setObjectId("2").setChangeType(ChangeType.CREATE),
+				new ChangeMessage().setObjectType(ObjectType.ENTITY).setObjectId("3").setChangeType(ChangeType.DELETE),
+				new ChangeMessage().setObjectType(ObjectType.ENTITY).setObjectId("syn4").setChangeType(ChangeType.CREATE),
+				new ChangeMessage().setObjectType(ObjectType.ENTITY).setObjectId("5").setChangeType(ChangeType.UPDATE),
+				new ChangeMessage().setObjectType(ObjectType.ENTITY).setObjectId("5").setChangeType(ChangeType.UPDATE)
+		);
+		when(mockDao.indexEntities(any())).thenReturn(Collections.emptySet());
+		
+		// call under test
+		worker.run(mockProgressCallback, messages);
+		
+		verify(mockDao).indexEntities(Lists.newArrayList(4L, 5L));
+	}
+	
+	@Test
+	public void testRunWithDirtyRoot() throws RecoverableMessageException, Exception {
+		List<ChangeMessage> messages = Lists.newArrayList(
+				new ChangeMessage().setObjectType(ObjectType.ENTITY).setObjectId("1").setChangeType(ChangeType.UPDATE),
+				new ChangeMessage().setObjectType(ObjectType.ENTITY).setObjectId("2").setChangeType(ChangeType.UPDATE)
+		);
+		
+		when(mockDao.indexEntities(any())).thenReturn(Set.of(2L));
+		
+		String message = assertThrows(RecoverableMessageException.class, () -> {			
+			// call under test
+			worker.run(mockProgressCallback, messages);
+		}).getMessage();
+		
+		assertEquals("Could not index the entities [2] with a dirty root. Will retry", message);
+		
+		verify(mockDao).indexEntities(Lists.newArrayList(1L, 2L));
+	}
+	
+	@Test
+	public void testRunWithTransientException() throws RecoverableMessageException, Exception {
+		List<ChangeMessage> messages = Collections.singletonList(
+				new ChangeMessage().setObjectType(ObjectType.ENTITY).setObjectId("1").setChangeType(ChangeType.UPDATE)
+		);
+		
+		DeadlockLoserDataAccessException ex = new DeadlockLoserDataAccessException("deadlock", null);
+		
+		doThrow(ex).when(mockDao).indexEntities(any());
+		
+		RecoverableMessageException result = assertThrows(RecoverableMessageException.class, () -> {			
+			// call under test
+			worker.run(mockProgressCallback, messages);
+		});
+		
+		assertEquals(ex, result.getCause());
+	}
+}
@@ -8,6 +8,11 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -36,78 +41,51 @@ public class DiscussionSearchIndexWorkerUnitTest {
 	@Mock
 	private ProgressCallback mockCallback;
 	
-	@Mock
-	private ChangeMessage mockMessage;
-	
-	private String threadId;
-	private String replyId;
+	private ChangeMessage threadMessage;
+	private ChangeMessage replyMessage;
+	private ChangeMessage otherMessage;
 	
 	@BeforeEach
 	public void before() {
-		threadId = "123";
-		replyId = "456";
+		threadMessage = new ChangeMessage().setObjectType(ObjectType.THREAD).setObjectId("123");
+		replyMessage = new ChangeMessage().setObjectType(ObjectType.REPLY).setObjectId("456");
+		otherMessage = new ChangeMessage().setObjectType(ObjectType.ACCESS_APPROVAL).setObjectId("789");
 	}
 	
 	@Test
 	public void testRunWithThread() throws RecoverableMessageException, Exception {
 		
-		when(mockMessage.getObjectType()).thenReturn(ObjectType.THREAD);
-		when(mockMessage.getObjectId()).thenReturn(threadId);
-		
 		// Call under test
-		worker.run(mockCallback, mockMessage);
+		worker.run(mockCallback, Collections.singletonList(threadMessage));
 		
-		verify(mockManager).processThreadChange(Long.valueOf(threadId));
+		verify(mockManager).processChanges(Collections.singleton(123L), Collections.emptySet());
 		verifyNoMoreInteractions(mockLogger);
 		
 	}
 	
 	@Test
-	public void testRunWithThreadAndRecoverableException() throws RecoverableMessageException, Exception {
-		
-		RecoverableMessageException ex = new RecoverableMessageException();
-		
-		when(mockMessage.getObjectType()).thenReturn(ObjectType.THREAD);
-		when(mockMessage.getObjectId()).thenReturn(threadId);
-		doThrow(ex).when(mockManager).processThreadChange(any());
+	public void testRunWithReply() throws RecoverableMessageException, Exception {
 		
-		RecoverableMessageException result = assertThrows(RecoverableMessageException.class, () -> {			
-			// Call under test
-			worker.run(mockCallback, mockMessage);
-		});
+		// Call under test
+		worker.run(mockCallback, Collections.singletonList(replyMessage));
 		
-		assertEquals(ex, result);
+		verify(mockManager).processChanges(Collections.emptySet(), Collections.singleton(456L));
+		verifyNoMoreInteractions(mockLogger);
 		
-		verify(mockManager).processThreadChange(Long.valueOf(threadId));
-		verify(mockLogger).logWorkerFailure(DiscussionSearchIndexWorker.class, mockMessage, ex, true);		
 	}
 	
 	@Test
-	public void testRunWithThreadAndOtherException() throws RecoverableMessageException, Exception {
+	public void testRunWithBatch() throws RecoverableMessageException, Exception {
 		
-		RuntimeException ex = new RuntimeException();
+		ChangeMessage otherThreadMessage = new ChangeMessage().setObjectType(ObjectType.THREAD).setObjectId("321");
 		
-		when(mockMessage.getObjectType()).thenReturn(ObjectType.THREAD);
-		when(mockMessage.getObjectId()).thenReturn(threadId);
-		doThrow(ex).when(mockManager).processThreadChange(any());
+		List<ChangeMessage> messages = Arrays.asList(threadMessage, replyMessage, otherMessage, otherThreadMessage, threadMessage, replyMessage);
 		
 		// Call under test
-		worker.run(mockCallback, mockMessage);
-		
-		verify(mockManager).processThreadChange(Long.valueOf(threadId));
-		verify(mockLogger).logWorkerFailure(DiscussionSearchIndexWorker.class, mockMessage, ex, false);		
-	}
-	
-	@Test
-	public void testRunWithReply() throws RecoverableMessageException, Exception {
-		
-		when(mockMessage.getObjectType()).thenReturn(ObjectType.REPLY);
-		when(mockMessage.getObjectId()).thenReturn(replyId);
+		worker.run(mockCallback, messages);
 		
-		// Call under test
-		worker.run(mockCallback, mockMessage);
-		
-		verify(mockManager).processReplyChange(Long.valueOf(replyId));
+		verify(mockManager).processChanges(new LinkedHashSet<>(Arrays.asList(123L, 321L)), Collections.singleton(456L));
+		verifyNoMoreInteractions(mockManager);
 		verifyNoMoreInteractions(mockLogger);
 		
 	}
@@ -115,11 +93,8 @@ public class DiscussionSearchIndexWorkerUnitTest {
 	@Test
 	public void testRunWithOtherObject() throws RecoverableMessageException, Exception {
 		
-		when(mockMessage.getObjectType()).thenReturn(ObjectType.ACCESS_APPROVAL);
-		when(mockMessage.getObjectId()).thenReturn(replyId);
-		
 		// Call under test
-		worker.run(mockCallback, mockMessage);
+		worker.run(mockCallback, Collections.singletonList(otherMessage));
 		
 		verifyNoMoreInteractions(mockManager);
 		verifyNoMoreInteractions(mockLogger);
@@ -127,41 +102,35 @@ public class DiscussionSearchIndexWorkerUnitTest {
 	}
 	
 	@Test
-	public void testRunWithReplyAndRecoverableException() throws RecoverableMessageException, Exception {
+	public void testRunWithRecoverableException() throws RecoverableMessageException, Exception {
 		
 		RecoverableMessageException ex = new RecoverableMessageException();
 		
-		when(mockMessage.getObjectType()).thenReturn(ObjectType.REPLY);
-		when(mockMessage.getObjectId()).thenReturn(replyId);
-		doThrow(ex).when(mockManager).processReplyChange(Long.valueOf(replyId));
+		doThrow(ex).when(mockManager).processChanges(any(), any());
 		
 		RecoverableMessageException result = assertThrows(RecoverableMessageException.class, () -> {			
 			// Call under test
-			worker.run(mockCallback, mockMessage);
+			worker.run(mockCallback, Arrays.asList(threadMessage, replyMessage));
 		});
 		
 		assertEquals(ex, result);
 		
-		verify(mockManager).processReplyChange(Long.valueOf(replyId));
-		verify(mockLogger).logWorkerFailure(DiscussionSearchIndexWorker.class, mockMessage, ex, true);		
+		verify(mockManager).processChanges(Collections.singleton(123L), Collections.singleton(456L));
+		verify(mockLogger).logWorkerFailure(DiscussionSearchIndexWorker.class.getName(), ex, true);		
 	}
 	
 	@Test
-	public void testRunWithReplyAndOtherException() throws RecoverableMessageException, Exception {
+	public void testRunWithOtherException() throws RecoverableMessageException, Exception {
 		
 		RuntimeException ex = new RuntimeException();
 		
-		when(mockMessage.getObjectType()).thenReturn(ObjectType.REPLY);
-		when(mockMessage.getObjectId()).thenReturn(replyId);
-		doThrow(ex).when(mockManager).processReplyChange(Long.valueOf(replyId));
+		doThrow(ex).when(mockManager).processChanges(any(), any());
 		
 		// Call under test
-		worker.run(mockCallback, mockMessage);
+		worker.run(mockCallback, Arrays.asList(threadMessage, replyMessage));
 		
-		verify(mockManager).processReplyChange(Long.valueOf(replyId));
-		verify(mockLogger).logWorkerFailure(DiscussionSearchIndexWorker.class, mockMessage, ex, false);		
+		verify(mockManager).processChanges(Collections.singleton(123L), Collections.singleton(456L));
+		verify(mockLogger).logWorkerFailure(DiscussionSearchIndexWorker.class.getName(), ex, false);		
 	}
-	
-	
 
 }
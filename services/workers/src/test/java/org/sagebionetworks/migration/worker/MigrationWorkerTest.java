@@ -16,6 +16,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.sagebionetworks.repo.manager.migration.MigrationManager;
+import org.sagebionetworks.repo.manager.migration.TableFileHandleIndexBackfill;
 import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.dao.asynch.AsyncJobProgressCallback;
 import org.sagebionetworks.repo.model.migration.AdminRequest;
@@ -36,12 +37,16 @@ import org.sagebionetworks.repo.model.migration.MigrationType;
 import org.sagebionetworks.repo.model.migration.MigrationTypeChecksum;
 import org.sagebionetworks.repo.model.migration.MigrationTypeCount;
 import org.sagebionetworks.repo.model.migration.MigrationTypeCounts;
+import org.sagebionetworks.repo.model.migration.TableFileHandleIndexBackfillRequest;
+import org.sagebionetworks.repo.model.migration.TableFileHandleIndexBackfillResponse;
 
 @ExtendWith(MockitoExtension.class)
 public class MigrationWorkerTest {
 	
 	@Mock
 	private MigrationManager mockMigrationManager;
+	@Mock
+	private TableFileHandleIndexBackfill mockTableFileHandleIndexBackfill;
 	@InjectMocks
 	private MigrationWorker migrationWorker;
 	@Mock
@@ -199,4 +204,19 @@ public class MigrationWorkerTest {
 		assertEquals(mockBatchChecksum, result.getAdminResponse());
 		verify(mockMigrationManager).calculateBatchChecksums(user, request);
 	}
+	
+	@Test
+	public void testRunWithTableFileHandleIndexBackfillRequest() throws Exception {
+		TableFileHandleIndexBackfillRequest request = new TableFileHandleIndexBackfillRequest();
+		TableFileHandleIndexBackfillResponse response = new TableFileHandleIndexBackfillResponse().setCount(10L);
+		
+		when(mockRequest.getAdminRequest()).thenReturn(request);
+		when(mockTableFileHandleIndexBackfill.backfillIndex(any())).thenReturn(response);
+		
+		// Call under test
+		AsyncMigrationResponse result = migrationWorker.run(jobId, user, mockRequest, mockJobCallback);
+		
+		assertEquals(response, result.getAdminResponse());
+		verify(mockTableFileHandleIndexBackfill).backfillIndex(user);
+	}
 }
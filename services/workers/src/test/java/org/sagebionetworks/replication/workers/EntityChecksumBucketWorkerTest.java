@@ -0,0 +1,33 @@
+package org.sagebionetworks.replication.workers;
+
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.manager.replication.EntityChecksumBucketManager;
+import org.sagebionetworks.util.progress.ProgressCallback;
+
+@ExtendWith(MockitoExtension.class)
+public class EntityChecksumBucketWorkerTest {
+
+	@Mock
+	private EntityChecksumBucketManager mockManager;
+
+	@Mock
+	private ProgressCallback mockCallback;
+
+	@InjectMocks
+	private EntityChecksumBucketWorker worker;
+
+	@Test
+	public void testRun() throws Exception {
+		// Call under test
+		worker.run(mockCallback);
+
+		verify(mockManager).updateChecksumBuckets();
+	}
+
+}
@@ -27,16 +27,16 @@ public class ProgressingCSVWriterStreamTest {
 	@Mock
 	private AsyncJobProgressCallback mockCallback;
 	
-	private long currentProgress;
-	private long totalProgress;
+	private long bytesUploaded;
+	private long bytesWritten;
 	
 	private ProgressingCSVWriterStream stream;
 	
 	@BeforeEach
 	public void before(){
-		currentProgress = 0L;
-		totalProgress = 100;
-		stream = new ProgressingCSVWriterStream(mockWriter, mockCallback, currentProgress, totalProgress, mockClock);
+		bytesUploaded = 50L;
+		bytesWritten = 100L;
+		stream = new ProgressingCSVWriterStream(mockWriter, mockCallback, () -> bytesUploaded, () -> bytesWritten, mockClock);
 		when(mockClock.currentTimeMillis()).thenReturn(0L);
 	}
 	
@@ -53,7 +53,7 @@ public class ProgressingCSVWriterStreamTest {
 		String[] two = new String[]{"2"};
 		stream.writeNext(two);
 		verify(mockWriter).writeNext(two);
-		verify(mockCallback).updateProgress("Building the CSV...", currentProgress + 1, totalProgress);
+		verify(mockCallback).updateProgress("Building the CSV...", bytesUploaded, bytesWritten);
 	}
 
 }
@@ -4,11 +4,14 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -20,7 +23,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.sagebionetworks.repo.manager.file.FileHandleManager;
-import org.sagebionetworks.repo.manager.file.LocalFileUploadRequest;
+import org.sagebionetworks.repo.manager.file.StreamUploadRequest;
+import org.sagebionetworks.repo.manager.file.StreamUploadWriter;
 import org.sagebionetworks.repo.manager.table.TableQueryManager;
 import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.asynch.AsynchronousJobStatus;
@@ -28,8 +32,8 @@ import org.sagebionetworks.repo.model.dao.asynch.AsyncJobProgressCallback;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableExceptionTranslator;
 import org.sagebionetworks.repo.model.file.S3FileHandle;
 import org.sagebionetworks.repo.model.table.DownloadFromTableRequest;
+import org.sagebionetworks.repo.model.table.CsvTableDescriptor;
 import org.sagebionetworks.repo.model.table.DownloadFromTableResult;
-import org.sagebionetworks.repo.model.table.QueryResultBundle;
 import org.sagebionetworks.repo.model.table.TableFailedException;
 import org.sagebionetworks.repo.model.table.TableStatus;
 import org.sagebionetworks.repo.model.table.TableUnavailableException;
@@ -56,7 +60,7 @@ public class TableCSVDownloadWorkerTest {
 	@Mock
 	private AsyncJobProgressCallback mockJobProgressCallback;
 	@Captor
-	private ArgumentCaptor<LocalFileUploadRequest> fileUploadCaptor;
+	private ArgumentCaptor<StreamUploadRequest> fileUploadCaptor;
 	@Mock
 	private CSVWriterProvider mockCSVWriterProvider;
 	@Mock
@@ -93,29 +97,57 @@ public class TableCSVDownloadWorkerTest {
 		message.setBody(jobId);
 
 		results = new DownloadFromTableResult();
-
-		when(mockTableQueryManager.querySinglePage(any(), any(), any(), any())).thenReturn(new QueryResultBundle().setQueryCount(100L));
+		
+		// The writer is invoked with an in-memory stream in place of the upload
+		doAnswer(invocation -> {
+			StreamUploadWriter writer = invocation.getArgument(1);
+			writer.write(new ByteArrayOutputStream());
+			return new S3FileHandle().setId("8888");
+		}).when(mockFileHandleManager).uploadStream(any(), any());
 	}
 
 	@Test
 	public void testBasicQuery() throws Exception {
 		when(mockTableQueryManager.runQueryDownloadAsStream(any(), any(), any(), any())).thenReturn(results);
-		when(mockFileHandleManager.uploadLocalFile(any())).thenReturn(new S3FileHandle().setId("8888"));
 		when(mockCSVWriterProvider.createWriter(any(), any())).thenReturn(mockCSVWriter);
 		
 		// call under test
 		DownloadFromTableResult response = worker.run(jobId, userInfo, request, mockJobProgressCallback);
 		
 		assertEquals(results, response);
+		assertEquals("8888", response.getResultsFileHandleId());
 		
-		verify(mockFileHandleManager).uploadLocalFile(fileUploadCaptor.capture());
-		LocalFileUploadRequest request = fileUploadCaptor.getValue();
+		verify(mockFileHandleManager).uploadStream(fileUploadCaptor.capture(), any());
+		StreamUploadRequest request = fileUploadCaptor.getValue();
 		assertNotNull(request);
 		assertEquals(userInfo.getId().toString(), request.getUserId());
 		assertEquals("text/csv", request.getContentType());
-		assertEquals(null, request.getFileName());
+		assertEquals("Job-1.csv", request.getFileName());
+		assertNotNull(request.getListener());
 		verify(mockCSVWriterProvider).createWriter(any(), any());
 		verify(mockCSVWriter).close();
+		// The count query is not needed anymore
+		verify(mockTableQueryManager, never()).querySinglePage(any(), any(), any(), any());
+	}
+	
+	@Test
+	public void testBasicQueryWithFileNameAndSeparator() throws Exception {
+		request.setFileName("fileName.tsv");
+		request.setCsvTableDescriptor(new CsvTableDescriptor().setSeparator("\t"));
+		
+		when(mockTableQueryManager.runQueryDownloadAsStream(any(), any(), any(), any())).thenReturn(results);
+		when(mockCSVWriterProvider.createWriter(any(), any())).thenReturn(mockCSVWriter);
+		
+		// call under test
+		DownloadFromTableResult response = worker.run(jobId, userInfo, request, mockJobProgressCallback);
+		
+		assertEquals(results, response);
+		
+		verify(mockFileHandleManager).uploadStream(fileUploadCaptor.capture(), any());
+		StreamUploadRequest uploadRequest = fileUploadCaptor.getValue();
+		assertEquals("text/tsv", uploadRequest.getContentType());
+		assertEquals("fileName.tsv", uploadRequest.getFileName());
+		verify(mockCSVWriterProvider).createWriter(any(), eq(request.getCsvTableDescriptor()));
 	}
 	
 	@Test
@@ -189,5 +221,7 @@ public class TableCSVDownloadWorkerTest {
 		assertEquals(translatedException, result);
 		// the exception should be translated.
 		verify(mockTableExceptionTranslator).translateException(error);
+		// The writer is not closed so that the partial upload is aborted rather than completed
+		verify(mockCSVWriter, never()).close();
 	}
 }
\ No newline at end of file
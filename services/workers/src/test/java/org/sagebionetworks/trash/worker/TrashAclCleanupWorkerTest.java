@@ -0,0 +1,155 @@
+package org.sagebionetworks.trash.worker;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.sagebionetworks.trash.worker.TrashAclCleanupWorker.CLEANUP_BATCH_SIZE;
+import static org.sagebionetworks.trash.worker.TrashAclCleanupWorker.PROGRESS_LOG_INTERVAL;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.cloudwatch.WorkerLogger;
+import org.sagebionetworks.repo.manager.trash.PurgeProgressListener;
+import org.sagebionetworks.repo.manager.trash.TrashManager;
+import org.sagebionetworks.repo.model.StackStatusDao;
+import org.sagebionetworks.util.progress.ProgressCallback;
+
+import com.google.common.collect.ImmutableList;
+
+@ExtendWith(MockitoExtension.class)
+public class TrashAclCleanupWorkerTest {
+
+	@Mock
+	private ProgressCallback mockProgressCallback;
+
+	@Mock
+	private TrashManager mockManager;
+
+	@Mock
+	private WorkerLogger mockWorkerLogger;
+
+	@Mock
+	private StackStatusDao mockStackStatusDao;
+
+	@InjectMocks
+	private TrashAclCleanupWorker worker;
+
+	@Captor
+	private ArgumentCaptor<PurgeProgressListener> listenerCaptor;
+
+	@Test
+	public void testEmptyList() throws Exception {
+		when(mockManager.getTrashWithPendingAclCleanup(CLEANUP_BATCH_SIZE)).thenReturn(Collections.emptyList());
+
+		// Call under test
+		worker.run(mockProgressCallback);
+
+		verify(mockManager).getTrashWithPendingAclCleanup(CLEANUP_BATCH_SIZE);
+		verifyNoMoreInteractions(mockManager);
+	}
+
+	@Test
+	public void testSuccessful() throws Exception {
+		List<Long> trashList = ImmutableList.of(1L, 2L, 3L);
+		when(mockManager.getTrashWithPendingAclCleanup(CLEANUP_BATCH_SIZE)).thenReturn(trashList);
+		when(mockStackStatusDao.isStackReadWrite()).thenReturn(true);
+		when(mockManager.deleteAclsInTrashedHierarchy(any(Long.class), any())).thenReturn(true);
+
+		// Call under test
+		worker.run(mockProgressCallback);
+
+		trashList.forEach(id -> {
+			verify(mockManager).deleteAclsInTrashedHierarchy(eq(id), any());
+		});
+	}
+
+	@Test
+	public void testStopWhenReadOnly() throws Exception {
+		List<Long> trashList = ImmutableList.of(1L, 2L);
+		when(mockManager.getTrashWithPendingAclCleanup(CLEANUP_BATCH_SIZE)).thenReturn(trashList);
+		when(mockStackStatusDao.isStackReadWrite()).thenReturn(false);
+
+		// Call under test
+		worker.run(mockProgressCallback);
+
+		verify(mockManager, never()).deleteAclsInTrashedHierarchy(any(), any());
+	}
+
+	@Test
+	public void testStopWhileDeleting() throws Exception {
+		List<Long> trashList = ImmutableList.of(1L, 2L, 3L);
+		when(mockManager.getTrashWithPendingAclCleanup(CLEANUP_BATCH_SIZE)).thenReturn(trashList);
+		when(mockStackStatusDao.isStackReadWrite()).thenReturn(true);
+		when(mockManager.deleteAclsInTrashedHierarchy(any(Long.class), any())).thenReturn(true, false);
+
+		// Call under test
+		worker.run(mockProgressCallback);
+
+		verify(mockManager).deleteAclsInTrashedHierarchy(eq(1L), any());
+		verify(mockManager).deleteAclsInTrashedHierarchy(eq(2L), any());
+		verify(mockManager, never()).deleteAclsInTrashedHierarchy(eq(3L), any());
+	}
+
+	@Test
+	public void testProgressListener() throws Exception {
+		List<Long> trashList = ImmutableList.of(1L);
+		when(mockManager.getTrashWithPendingAclCleanup(CLEANUP_BATCH_SIZE)).thenReturn(trashList);
+		when(mockStackStatusDao.isStackReadWrite()).thenReturn(true, true, false);
+		when(mockManager.deleteAclsInTrashedHierarchy(any(Long.class), any())).thenReturn(true);
+
+		// Call under test
+		worker.run(mockProgressCallback);
+
+		verify(mockManager).deleteAclsInTrashedHierarchy(eq(1L), listenerCaptor.capture());
+
+		PurgeProgressListener listener = listenerCaptor.getValue();
+
+		// The listener stops the cleanup once the stack is no longer READ_WRITE
+		assertTrue(listener.onProgress(1L, PROGRESS_LOG_INTERVAL));
+		assertFalse(listener.onProgress(1L, PROGRESS_LOG_INTERVAL * 2));
+	}
+
+	@Test
+	public void testContinueWithException() throws Exception {
+		List<Long> trashList = ImmutableList.of(1L, 2L, 3L);
+		when(mockManager.getTrashWithPendingAclCleanup(CLEANUP_BATCH_SIZE)).thenReturn(trashList);
+		when(mockStackStatusDao.isStackReadWrite()).thenReturn(true);
+		when(mockManager.deleteAclsInTrashedHierarchy(any(Long.class), any())).thenReturn(true);
+
+		doThrow(new IllegalStateException()).when(mockManager).deleteAclsInTrashedHierarchy(eq(2L), any());
+
+		// Call under test
+		worker.run(mockProgressCallback);
+
+		trashList.forEach(id -> {
+			verify(mockManager).deleteAclsInTrashedHierarchy(eq(id), any());
+		});
+	}
+
+	@Test
+	public void testWithUnexpectedException() throws Exception {
+		IllegalStateException ex = new IllegalStateException();
+
+		doThrow(ex).when(mockManager).getTrashWithPendingAclCleanup(CLEANUP_BATCH_SIZE);
+
+		// Call under test
+		worker.run(mockProgressCallback);
+
+		verify(mockWorkerLogger).logWorkerFailure(TrashAclCleanupWorker.class.getName(), ex, false);
+	}
+
+}
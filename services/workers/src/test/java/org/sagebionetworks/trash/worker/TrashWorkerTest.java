@@ -1,24 +1,30 @@
 package org.sagebionetworks.trash.worker;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.sagebionetworks.trash.worker.TrashWorker.CUTOFF_TRASH_AGE_IN_DAYS;
+import static org.sagebionetworks.trash.worker.TrashWorker.PROGRESS_LOG_INTERVAL;
 import static org.sagebionetworks.trash.worker.TrashWorker.TRASH_BATCH_SIZE;
 
-import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.sagebionetworks.cloudwatch.WorkerLogger;
+import org.sagebionetworks.repo.manager.trash.PurgeProgressListener;
 import org.sagebionetworks.repo.manager.trash.TrashManager;
 import org.sagebionetworks.repo.model.DatastoreException;
 import org.sagebionetworks.repo.model.StackStatusDao;
@@ -44,6 +50,9 @@ public class TrashWorkerTest {
 	@InjectMocks
 	private TrashWorker worker;
 	
+	@Captor
+	private ArgumentCaptor<PurgeProgressListener> listenerCaptor;
+	
 	@Test
 	public void testTrashListThrowError(){
 		when(mockManager.getTrashLeavesBefore(CUTOFF_TRASH_AGE_IN_DAYS, TRASH_BATCH_SIZE)).thenThrow(DatastoreException.class);
@@ -71,27 +80,61 @@ public class TrashWorkerTest {
 		List<Long> trashList = ImmutableList.of(1L, 2L, 3L, 4L, 5L);
 		when(mockManager.getTrashLeavesBefore(CUTOFF_TRASH_AGE_IN_DAYS, TRASH_BATCH_SIZE)).thenReturn(trashList);
 		when(mockStackStatusDao.isStackReadWrite()).thenReturn(true);
+		when(mockManager.purgeTrash(any(), any(Long.class), any())).thenReturn(true);
 		
 		// Call under test
 		worker.run(mockProgressCallback);
 		verify(mockManager).getTrashLeavesBefore(CUTOFF_TRASH_AGE_IN_DAYS, TRASH_BATCH_SIZE);
 		
 		trashList.forEach(id -> {
-			verify(mockManager).purgeTrash(any(), eq(Collections.singletonList(id)));
+			verify(mockManager).purgeTrash(any(), eq(id), any());
 		});
 	}
 	
+	@Test
+	public void testStopWhilePurging() throws Exception {
+		List<Long> trashList = ImmutableList.of(1L, 2L, 3L);
+		when(mockManager.getTrashLeavesBefore(CUTOFF_TRASH_AGE_IN_DAYS, TRASH_BATCH_SIZE)).thenReturn(trashList);
+		when(mockStackStatusDao.isStackReadWrite()).thenReturn(true);
+		when(mockManager.purgeTrash(any(), any(Long.class), any())).thenReturn(true, false);
+		
+		// Call under test
+		worker.run(mockProgressCallback);
+		
+		verify(mockManager).purgeTrash(any(), eq(1L), any());
+		verify(mockManager).purgeTrash(any(), eq(2L), any());
+		verify(mockManager, never()).purgeTrash(any(), eq(3L), any());
+	}
+	
+	@Test
+	public void testPurgeProgressListener() throws Exception {
+		List<Long> trashList = ImmutableList.of(1L);
+		when(mockManager.getTrashLeavesBefore(CUTOFF_TRASH_AGE_IN_DAYS, TRASH_BATCH_SIZE)).thenReturn(trashList);
+		when(mockStackStatusDao.isStackReadWrite()).thenReturn(true, true, false);
+		when(mockManager.purgeTrash(any(), any(Long.class), any())).thenReturn(true);
+		
+		// Call under test
+		worker.run(mockProgressCallback);
+		
+		verify(mockManager).purgeTrash(any(), eq(1L), listenerCaptor.capture());
+		
+		PurgeProgressListener listener = listenerCaptor.getValue();
+		
+		// The listener stops the purge once the stack is no longer READ_WRITE
+		assertTrue(listener.onProgress(1L, PROGRESS_LOG_INTERVAL));
+		assertFalse(listener.onProgress(1L, PROGRESS_LOG_INTERVAL * 2));
+	}
+	
 	@Test
 	public void testContinueWithException() throws Exception {
 		List<Long> trashList = ImmutableList.of(1L, 2L, 3L, 4L, 5L);
 		when(mockManager.getTrashLeavesBefore(CUTOFF_TRASH_AGE_IN_DAYS, TRASH_BATCH_SIZE)).thenReturn(trashList);
 		when(mockStackStatusDao.isStackReadWrite()).thenReturn(true);
+		when(mockManager.purgeTrash(any(), any(Long.class), any())).thenReturn(true);
 		
 		IllegalStateException ex = new IllegalStateException();
 		
-		List<Long> exIds = trashList.subList(1, 2);
-		
-		doThrow(ex).when(mockManager).purgeTrash(any(), eq(exIds));
+		doThrow(ex).when(mockManager).purgeTrash(any(), eq(2L), any());
 		
 		// Call under test
 		worker.run(mockProgressCallback);
@@ -99,7 +142,7 @@ public class TrashWorkerTest {
 		verify(mockManager).getTrashLeavesBefore(CUTOFF_TRASH_AGE_IN_DAYS, TRASH_BATCH_SIZE);
 		
 		trashList.forEach(id -> {
-			verify(mockManager).purgeTrash(any(), eq(Collections.singletonList(id)));
+			verify(mockManager).purgeTrash(any(), eq(id), any());
 		});
 	}
 	